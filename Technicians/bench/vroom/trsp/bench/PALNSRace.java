@@ -0,0 +1,117 @@
+/**
+ * 
+ */
+package vroom.trsp.bench;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Level;
+
+import vroom.common.utilities.logging.LoggerHelper;
+import vroom.common.utilities.optimization.OptimizationSense;
+import vroom.common.utilities.params.IRaceEvaluator;
+import vroom.common.utilities.params.ParameterExperimentDesign;
+import vroom.common.utilities.params.ParameterExperimentDesign.ExperimentParameterSetting;
+import vroom.common.utilities.params.RacingTuner;
+import vroom.common.utilities.params.RacingTuner.Candidate;
+import vroom.trsp.datamodel.TRSPSolution;
+import vroom.trsp.util.TRSPGlobalParameters;
+import vroom.trsp.util.TRSPLogging;
+
+/**
+ * <code>PALNSRace</code> tunes the parameters of an experiment design with a {@link RacingTuner} instead of running the
+ * full factorial design as in {@link PALNSBench}.
+ * <p>
+ * Each run created by {@link TRSPBench#createRuns()} is a block of the race, runs are sorted by replica so that the
+ * first blocks cover all the instances. The response of a setting is its gap to the BKS.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 10:02:44 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class PALNSRace {
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: trspParamsFile expeConfigFile [minBlocks [maxEvaluations]]");
+            System.exit(1);
+        }
+
+        Level benchmarkLevel = LoggerHelper.LEVEL_INFO;
+        Level algoLevel = LoggerHelper.LEVEL_ERROR;
+        String fileCom = "pALNSRace";
+        boolean noStat = false;
+        TRSPBench.setupLoggers(benchmarkLevel, algoLevel, null);
+        TRSPGlobalParameters params = new TRSPGlobalParameters();
+        ParameterExperimentDesign<TRSPGlobalParameters> expe = new ParameterExperimentDesign<TRSPGlobalParameters>(
+                params);
+        try {
+            params.loadParameters(new File(args[0]));
+            File expeFile = new File(args[1]);
+            expe.load(expeFile);
+            fileCom = expeFile.getName();
+        } catch (Exception e1) {
+            e1.printStackTrace();
+            System.exit(1);
+        }
+
+        TRSPBench.setup(params, noStat, fileCom);
+        TRSPBench.getInstance().createRuns();
+
+        List<TRSPRunBase> runs = new ArrayList<>(TRSPBench.getInstance().getRuns());
+        TRSPBench.getInstance().getRuns().clear();
+        Collections.sort(runs, new Comparator<TRSPRunBase>() {
+            @Override
+            public int compare(TRSPRunBase o1, TRSPRunBase o2) {
+                return Integer.compare(o1.getRun(), o2.getRun());
+            }
+        });
+
+        final AtomicInteger runId = new AtomicInteger();
+        RacingTuner<TRSPGlobalParameters, TRSPRunBase> tuner = new RacingTuner<>(expe,
+                new IRaceEvaluator<TRSPGlobalParameters, TRSPRunBase>() {
+                    @Override
+                    public String getInstanceName(TRSPRunBase block) {
+                        return block.getInstance().getName();
+                    }
+
+                    @Override
+                    public double evaluate(ExperimentParameterSetting<TRSPGlobalParameters> setting,
+                            TRSPRunBase block) throws Exception {
+                        TRSPRunBase run = block.clone(runId.getAndIncrement(), setting);
+                        try {
+                            TRSPSolution sol = run.call();
+                            return sol != null ? sol.getObjectiveValue() : Double.NaN;
+                        } finally {
+                            run.dispose();
+                        }
+                    }
+                }, params.get(TRSPGlobalParameters.RUN_THREADS));
+        tuner.setBestKnownSolutions(TRSPBench.getInstance().getBKS(), OptimizationSense.MINIMIZATION);
+        if (args.length > 2)
+            tuner.setMinBlocks(Integer.valueOf(args[2]));
+        if (args.length > 3)
+            tuner.setMaxEvaluations(Integer.valueOf(args[3]));
+
+        TRSPLogging.getRunLogger().info("Experiment Parameters: " + expe.getParameterKeys());
+        try {
+            List<Candidate<TRSPGlobalParameters>> survivors = tuner.race(runs);
+            TRSPLogging.getRunLogger().info("Race finished after %s blocks and %s evaluations",
+                    tuner.getBlockCount(), tuner.getEvaluationCount());
+            for (Candidate<TRSPGlobalParameters> c : survivors)
+                TRSPLogging.getRunLogger().info(" %s", c);
+        } catch (InterruptedException e) {
+            TRSPLogging.getRunLogger().exception("PALNSRace.main", e);
+        }
+        TRSPLogging.getRunLogger().info("Experiment Parameters: " + expe.getParameterKeys());
+    }
+}
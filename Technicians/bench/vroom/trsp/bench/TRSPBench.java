@@ -16,14 +16,11 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Future;
 
 import org.apache.log4j.ConsoleAppender;
 import org.apache.log4j.FileAppender;
@@ -34,6 +31,7 @@ import org.apache.log4j.PatternLayout;
 import vroom.common.heuristics.alns.DiversifiedPool;
 import vroom.common.modeling.io.DynamicPersistenceHelper;
 import vroom.common.utilities.BatchThreadPoolExecutor;
+import vroom.common.utilities.BenchmarkRunner;
 import vroom.common.utilities.BestKnownSolutions;
 import vroom.common.utilities.ProgressMonitor;
 import vroom.common.utilities.StatCollector;
@@ -45,7 +43,6 @@ import vroom.common.utilities.params.ParameterKey;
 import vroom.common.utilities.params.ParametersFilePersistenceDelegate;
 import vroom.trsp.bench.mpa.DTRSPRunMPA;
 import vroom.trsp.datamodel.TRSPInstance;
-import vroom.trsp.datamodel.TRSPSolution;
 import vroom.trsp.io.ITRSPPersistenceHelper;
 import vroom.trsp.optimization.TRSPUtilities;
 import vroom.trsp.util.TRSPGlobalParameters;
@@ -280,7 +277,8 @@ public class TRSPBench implements Runnable {
         if (!mStatAppend || !mStatFile.exists())
             return Collections.emptySet();
 
-        HashSet<Integer> skipped = new HashSet<Integer>();
+        HashSet<Integer> skipped = new HashSet<Integer>(
+                BenchmarkRunner.readCheckpoint(getCheckpointFile()));
         try {
             BufferedReader statReader = new BufferedReader(new FileReader(mStatFile));
             String line = statReader.readLine();
@@ -363,6 +361,7 @@ public class TRSPBench implements Runnable {
                 noStat = true;
                 params.set(THREAD_COUNT, 1);
                 BatchThreadPoolExecutor.sDebugSequential = true;
+                BenchmarkRunner.sDebugSequential = true;
             } else if (a.equals("-c")) {
                 fileCom = args[++i];
             } else if (a.equals("-s")) {
@@ -530,59 +529,42 @@ public class TRSPBench implements Runnable {
     }
 
     /**
-     * Execute all runs in a {@link Executor}
-     * 
-     * @param runs
-     * @param executor
-     * @param collector
+     * Execute all runs in a {@link BenchmarkRunner}, recording the resources consumed by each run and the finished runs
+     * in files next to the stat file
      */
     protected void runAndCollectParallel() {
-        BatchThreadPoolExecutor executor = new BatchThreadPoolExecutor(
-                mParams.get(TRSPGlobalParameters.RUN_THREADS), "bench");
-        Map<TRSPRunBase, Future<TRSPSolution>> futures;
-        try {
-            futures = executor.submitBatch(mRuns, false);
-        } catch (InterruptedException e2) {
-            TRSPLogging.getBaseLogger().exception("TRSPBench.runAndCollect", e2);
-            return;
+        BenchmarkRunner runner = new BenchmarkRunner(mParams.get(TRSPGlobalParameters.RUN_THREADS),
+                "bench");
+        runner.setCollector(mCollector);
+        StatCollector measures = null;
+        if (!mNoStats) {
+            runner.setCheckpointFile(getCheckpointFile());
+            measures = new StatCollector(new File(mStatFile.getPath().replace(".csv",
+                    "_measures.csv")), true, mStatAppend, "TRSP benchmark run measures",
+                    BenchmarkRunner.MEASURE_LABELS);
+            runner.setMeasuresCollector(measures);
         }
 
-        while (!mRuns.isEmpty()) {
-            Iterator<TRSPRunBase> runIt = mRuns.iterator();
-            while (runIt.hasNext()) {
-                TRSPRunBase run = runIt.next();
-                Future<TRSPSolution> f = futures.get(run);
-
-                if (f.isDone()) {
-                    try {
-                        f.get();
-                        run.collectStats(mCollector, false);
-                    } catch (Exception e) {
-                        TRSPLogging.getRunLogger()
-                                .exception("TRSPBench.runAndCollect (%s)", e, run);
-                        try {
-                            run.collectStats(mCollector, true);
-                        } catch (Exception e1) {
-                            TRSPLogging.getRunLogger().exception("TRSPBench.runAndCollect (%s)",
-                                    e1, run);
-                        }
-                    } finally {
-                        // Free up resources
-                        run.dispose();
-                        futures.remove(run);
-                        runIt.remove();
-                    }
-                }
-            }
-            // Allow extra time
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                TRSPLogging.getBaseLogger().exception("TRSPBench.runAndCollect", e);
-            }
+        try {
+            runner.run(mRuns);
+        } catch (InterruptedException e) {
+            TRSPLogging.getBaseLogger().exception("TRSPBench.runAndCollect", e);
+        } finally {
+            mRuns.clear();
+            if (measures != null)
+                measures.close();
         }
     }
 
+    /**
+     * Returns the file in which the ids of finished runs are recorded
+     * 
+     * @return the file in which the ids of finished runs are recorded
+     */
+    private File getCheckpointFile() {
+        return new File(mStatFile.getPath().replace(".csv", ".ckp"));
+    }
+
     public List<TRSPRunBase> getRuns() {
         return mRuns;
     }
@@ -16,6 +16,8 @@ import java.util.concurrent.Callable;
 
 import vroom.common.heuristics.alns.DiversifiedPool;
 import vroom.common.modeling.io.DynamicPersistenceHelper;
+import vroom.common.utilities.BenchmarkRunner.IBenchmarkRun;
+import vroom.common.utilities.BenchmarkRunner.RunMeasures;
 import vroom.common.utilities.BestKnownSolutions;
 import vroom.common.utilities.StatCollector;
 import vroom.common.utilities.StatCollector.Label;
@@ -64,7 +66,7 @@ import vroom.trsp.util.TRSPLogging;
  *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
  * @version 1.0
  */
-public class TRSPRunBase implements Callable<TRSPSolution> {
+public class TRSPRunBase implements Callable<TRSPSolution>, IBenchmarkRun {
 
     public static final String     CFG_TRSP          = "./config/bench/bench_trsp_palnssc_25crew.cfg";
     public static final String     CFG_DTRSP         = "./config/bench/bench_dtrsp_palns_25crew.cfg";
@@ -424,11 +426,14 @@ public class TRSPRunBase implements Callable<TRSPSolution> {
         if (params.isDynamic() && getInstance().getSimulator() == null)
             getInstance().setupSimulator(getSolver().getSolCostDelegate(), params);
         mSolver.setComment(mComment);
+        mSolver.setRun(mRunId, mRun);
         mSavedStaticValues = new HashMap<ParameterKey<?>, Object>();
     }
 
     private final File mInstanceFile;
     private final File mRDFile;
+    /** the size of the instance file, used as a proxy for the duration of this run */
+    private long       mInstanceFileSize;
 
     /**
      * Creates a new <code>TRSPRunBase</code> without reading the instance
@@ -449,6 +454,7 @@ public class TRSPRunBase implements Callable<TRSPSolution> {
 
         mInstanceFile = instanceFile;
         mRDFile = rdFile;
+        mInstanceFileSize = instanceFile.length();
 
         mBks = bks;
         mComment = comment;
@@ -488,6 +494,7 @@ public class TRSPRunBase implements Callable<TRSPSolution> {
         mSolver = getParameters().newInstance(TRSPGlobalParameters.RUN_SOLVER, getInstance(),
                 getParameters());
         mSolver.setComment(mComment);
+        mSolver.setRun(mRunId, mRun);
         if (getParameters().isDynamic() && getInstance().getSimulator() == null)
             getInstance().setupSimulator(getSolver().getSolCostDelegate(), getParameters());
     }
@@ -803,6 +810,26 @@ public class TRSPRunBase implements Callable<TRSPSolution> {
         return sol;
     }
 
+    /**
+     * Returns the size in bytes of the instance file, used as a proxy for the duration of this run. Runs created from
+     * an instance return the file size of the run they were cloned from, or 0 if it is unknown.
+     */
+    @Override
+    public double getExpectedDuration() {
+        return mInstanceFileSize;
+    }
+
+    @Override
+    public void execute() throws Exception {
+        call();
+    }
+
+    @Override
+    public void collectStats(StatCollector collector, RunMeasures measures, boolean failed) {
+        TRSPLogging.getRunLogger().info("TRSPRunBase.collectStats: %s", measures);
+        collectStats(collector, failed);
+    }
+
     /**
      * Collect statistics.
      * 
@@ -933,6 +960,7 @@ public class TRSPRunBase implements Callable<TRSPSolution> {
     /**
      * Dispose.
      */
+    @Override
     public void dispose() {
         if (mSolver != null)
             mSolver.dispose();
@@ -1172,6 +1200,7 @@ public class TRSPRunBase implements Callable<TRSPSolution> {
         TRSPRunBase clone = new TRSPRunBase(runId, getInstance(), setting.getParameters(),
                 getBKS(), mRun, setting.getChangedValuesString());
         clone.mExpeSetting = setting;
+        clone.mInstanceFileSize = mInstanceFileSize;
         return clone;
     }
 }
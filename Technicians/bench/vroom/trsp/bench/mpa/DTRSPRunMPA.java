@@ -102,8 +102,7 @@ public class DTRSPRunMPA extends TRSPRunBase {
     public DTRSPRunMPA(Integer runId, TRSPInstance instance, TRSPGlobalParameters params,
             BestKnownSolutions bks, Integer run, String com) {
         super(runId, instance, params, bks, run, com);
-        mMSASimulator = new MSASimulator(getMPA(), getInstance().size()
-                + getInstance().getFleet().size(), getParameters().getSimSpeed(getInstance()));
+        mMSASimulator = newMSASimulator();
         mSimCallback = new DTRSPSimulationCallback(this);
     }
 
@@ -115,11 +114,22 @@ public class DTRSPRunMPA extends TRSPRunBase {
     @Override
     public void initialize() throws Exception {
         super.initialize();
-        mMSASimulator = new MSASimulator(getMPA(), getInstance().size()
-                + getInstance().getFleet().size(), getParameters().getSimSpeed(getInstance()));
+        mMSASimulator = newMSASimulator();
         mSimCallback = new DTRSPSimulationCallback(this);
     }
 
+    /**
+     * Creates the MSA simulator used in this run
+     * 
+     * @return a new MSA simulator configured from the global parameters
+     */
+    private MSASimulator newMSASimulator() {
+        return new MSASimulator(getMPA(), getInstance().size() + getInstance().getFleet().size(),
+                getParameters().getSimSpeed(getInstance()),
+                getParameters().get(TRSPGlobalParameters.RUN_SIM_VIRTUAL_TIME), getParameters().get(
+                        TRSPGlobalParameters.RUN_SIM_CPU_BUDGET));
+    }
+
     @Override
     public MPASolver getSolver() {
         return (MPASolver) super.getSolver();
@@ -18,6 +18,7 @@ import static vroom.trsp.util.TRSPGlobalParameters.RUN_INIT_HEUR;
 import gurobi.GRB.DoubleAttr;
 import gurobi.GRBException;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -25,6 +26,7 @@ import java.util.LinkedList;
 import java.util.List;
 
 import vroom.common.heuristics.ProcedureStatus;
+import vroom.common.heuristics.alns.ALNSCheckpoint;
 import vroom.common.heuristics.alns.ALNSComponentHandler;
 import vroom.common.heuristics.alns.ALNSEventType;
 import vroom.common.heuristics.alns.ALNSGlobalParameters;
@@ -39,6 +41,7 @@ import vroom.common.utilities.StatCollector;
 import vroom.common.utilities.StatCollector.Label;
 import vroom.common.utilities.Stopwatch;
 import vroom.common.utilities.Utilities;
+import vroom.common.utilities.checkpoint.CheckpointWriter;
 import vroom.common.utilities.lp.SolverStatus;
 import vroom.common.utilities.optimization.IComponentHandler;
 import vroom.common.utilities.optimization.IParameters.LSStrategy;
@@ -52,6 +55,8 @@ import vroom.trsp.datamodel.ITRSPTourPool;
 import vroom.trsp.datamodel.NodeSetSolutionHasher;
 import vroom.trsp.datamodel.TRSPInstance;
 import vroom.trsp.datamodel.TRSPSolution;
+import vroom.trsp.datamodel.TRSPSolutionCodec;
+import vroom.trsp.datamodel.TourPoolCheckpoint;
 import vroom.trsp.datamodel.costDelegates.TRSPCostDelegate;
 import vroom.trsp.datamodel.costDelegates.TRSPDistance;
 import vroom.trsp.datamodel.costDelegates.TRSPTourBalance;
@@ -309,6 +314,10 @@ public class ALNSSCSolver extends TRSPSolver {
                 getFinalSolution() != null ? getFinalSolution().getObjectiveValue() : Double.NaN,
                 getFinalSolution() != null ? getFinalSolution().getUnservedCount() : "na");
 
+        // The run terminated normally, the next run must not resume from its final checkpoint
+        if (getALNS().getCheckpointWriter() != null)
+            getALNS().getCheckpointWriter().discard();
+
         return getFinalSolution();
     }
 
@@ -567,6 +576,62 @@ public class ALNSSCSolver extends TRSPSolver {
                         .getObjectiveValue(), getParams().get(ALNS_SA_W), getParams()
                         .get(ALNS_SA_P), mALNSParams.getMaxIterations(), getParams().get(
                         ALNS_SA_ALPHA), true));
+
+        setupCheckpointing();
+    }
+
+    /**
+     * Setup the periodic checkpoints of the ALNS if {@link TRSPGlobalParameters#CHECKPOINT_DIR} is set, and resume
+     * from the {@linkplain #getCheckpointFile() checkpoint file} if it already exists and was written for the same
+     * instance
+     */
+    private void setupCheckpointing() {
+        File file = getCheckpointFile();
+        if (file == null)
+            return;
+
+        getALNS().setCheckpointing(new CheckpointWriter(file),
+                new TRSPSolutionCodec(getInstance(), getInitSol().getCostDelegate()),
+                getParams().get(TRSPGlobalParameters.CHECKPOINT_PERIOD));
+        if (mTourPoolCB != null)
+            getALNS().addCheckpointable("tourPool", mTourPoolCB);
+
+        if (file.exists()) {
+            try {
+                ALNSCheckpoint checkpoint = CheckpointWriter.read(file, ALNSCheckpoint.class);
+                String err = checkCheckpoint(checkpoint);
+                if (err.isEmpty())
+                    getALNS().resume(checkpoint);
+                else
+                    TRSPLogging.getSetupLogger().warn(
+                            this.getClass().getSimpleName()
+                                    + ".setupCheckpointing: Ignoring invalid checkpoint %s (%s)", file, err);
+            } catch (IOException e) {
+                TRSPLogging.getSetupLogger().exception(
+                        this.getClass().getSimpleName() + ".setupCheckpointing", e);
+            }
+        }
+    }
+
+    /**
+     * Check that a checkpoint can be used to resume the ALNS of this solver
+     * 
+     * @param checkpoint
+     *            the checkpoint read from the checkpoint file
+     * @return an empty string if {@code checkpoint} can be used, or a description of the problem
+     */
+    private String checkCheckpoint(ALNSCheckpoint checkpoint) {
+        if (!getInstance().getName().equals(checkpoint.getInstanceName()))
+            return String.format("instance %s instead of %s", checkpoint.getInstanceName(), getInstance()
+                    .getName());
+        if (checkpoint.getSolutions().isEmpty())
+            return "no solution";
+        if (mTourPoolCB != null) {
+            if (!(checkpoint.getState("tourPool") instanceof TourPoolCheckpoint))
+                return "no tour pool";
+            return ((TourPoolCheckpoint) checkpoint.getState("tourPool")).check(getInstance());
+        }
+        return "";
     }
 
     /**
@@ -610,6 +675,8 @@ public class ALNSSCSolver extends TRSPSolver {
 
         setFinalSolution(getALNSSol());
         getALNS().stop();
+        if (getALNS().getCheckpointWriter() != null)
+            getALNS().getCheckpointWriter().close();
     }
 
     /**
@@ -5,15 +5,14 @@ package vroom.trsp;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.TimeUnit;
 
 import vroom.common.heuristics.alns.ParallelALNS;
 import vroom.common.heuristics.alns.SimpleSolutionPool;
-import vroom.common.utilities.BatchThreadPoolExecutor;
 import vroom.common.utilities.optimization.IPathRelinking;
 import vroom.common.utilities.optimization.OptimizationSense;
 import vroom.trsp.datamodel.TRSPInstance;
@@ -192,92 +191,95 @@ public class DynBiObjSolver extends ALNSSCSolver {
      */
     public void pr() {
         mPRPareto = getALNSPareto().clone();
-        int numThreads = getParams().getThreadCount();
-        BatchThreadPoolExecutor executor = new BatchThreadPoolExecutor(numThreads, "pr");
-        // Do a PR between all Pareto solutions
+        // Do a PR between all pairs of Pareto solutions
         List<TRSPSolution> solutions = getALNSPareto().getSolutions();
-        int solPerThread = solutions.size() / numThreads;
-        ListIterator<TRSPSolution> it = solutions.listIterator();
-        for (int t = 0; t < numThreads; t++) {
-            ArrayList<TRSPSolution> sourceSol = new ArrayList<TRSPSolution>(solPerThread);
-            while (it.hasNext() && sourceSol.size() < solPerThread)
-                sourceSol.add(it.next());
-            executor.execute(new PRSubprocess(getPRPareto(), sourceSol, solutions,
-                    getPathRelinking(), getTourCtrHandler()));
-        }
+        ForkJoinPool pool = new ForkJoinPool(getParams().getThreadCount());
+        pool.execute(new PRTask(getPRPareto(), solutions, 0, solutions.size() * solutions.size(),
+                getPathRelinking(), getTourCtrHandler()));
 
-        executor.shutdown();
+        pool.shutdown();
         try {
-            executor.awaitTermination(60000, TimeUnit.MILLISECONDS);
+            pool.awaitTermination(60000, TimeUnit.MILLISECONDS);
         } catch (InterruptedException e) {
             TRSPLogging.getBaseLogger().exception("DynBiObjSolver.pr", e);
         }
     }
 
     /**
-     * The class <code>PRSubprocess</code> is an implementation of {@link Runnable} that performs a path relinking
-     * between two sets of collections
+     * The class <code>PRTask</code> is an implementation of {@link RecursiveAction} that performs a path relinking
+     * between a range of pairs of solutions, recursively splitting the range so that idle workers can steal half of
+     * the remaining pairs
      * <p>
-     * Creation date: Dec 14, 2011 - 11:38:09 AM
+     * Creation date: Oct 19, 2026 - 7:58:10 PM
      * 
      * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
      *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
      *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
      * @version 1.0
      */
-    public static class PRSubprocess implements Runnable {
+    public static class PRTask extends RecursiveAction {
+
+        private static final long                  serialVersionUID = 1L;
 
         private final ParetoFront                  mPareto;
 
-        private final List<TRSPSolution>           mSourceSols;
-        private final List<TRSPSolution>           mTargetSols;
+        private final List<TRSPSolution>           mSolutions;
+        private final int                          mFrom;
+        private final int                          mTo;
 
         private final IPathRelinking<TRSPSolution> mPR;
 
         private final TourConstraintHandler        mCtr;
 
         /**
-         * Creates a new <code>PRSubprocess</code>
+         * Creates a new <code>PRTask</code>
          * 
          * @param pareto
          *            the {@link ParetoFront} in which feasible non-dominated solutions will be stored
-         * @param sourceSols
-         *            the source solutions
-         * @param targetSols
-         *            the target solutions
+         * @param solutions
+         *            the solutions between which the path relinking is performed
+         * @param from
+         *            the first pair (inclusive), pair {@code  p} has source {@code  p/n} and target {@code  p%n}
+         *            where {@code  n} is the number of solutions
+         * @param to
+         *            the last pair (exclusive)
          * @param pR
          *            the path relinking component
          * @param ctr
          *            the constraint handler
          */
-        public PRSubprocess(ParetoFront pareto, List<TRSPSolution> sourceSols,
-                List<TRSPSolution> targetSols, IPathRelinking<TRSPSolution> pR,
-                TourConstraintHandler ctr) {
+        public PRTask(ParetoFront pareto, List<TRSPSolution> solutions, int from, int to,
+                IPathRelinking<TRSPSolution> pR, TourConstraintHandler ctr) {
             mPareto = pareto;
-            mSourceSols = sourceSols;
-            mTargetSols = targetSols;
+            mSolutions = solutions;
+            mFrom = from;
+            mTo = to;
             mPR = pR;
             mCtr = ctr;
         }
 
         @Override
-        public void run() {
-            for (TRSPSolution source : mSourceSols) {
-                for (TRSPSolution target : mTargetSols) {
-                    LinkedList<TRSPSolution> feasSol = new LinkedList<TRSPSolution>();
-                    if (source != target) {
-                        List<TRSPSolution> sols = mPR.pathRelinking(source, target, null);
-                        for (TRSPSolution s : sols)
-                            if (mCtr.isFeasible(s, false))
-                                feasSol.add(s);
-                        mPareto.acquireLock();
-                        for (TRSPSolution s : feasSol)
-                            mPareto.add(s, false);
-                        mPareto.releaseLock();
-                    }
+        protected void compute() {
+            if (mTo - mFrom > 1) {
+                int mid = (mFrom + mTo) >>> 1;
+                invokeAll(new PRTask(mPareto, mSolutions, mFrom, mid, mPR, mCtr), new PRTask(mPareto,
+                        mSolutions, mid, mTo, mPR, mCtr));
+                return;
+            }
+            if (mTo == mFrom)
+                return;
+
+            TRSPSolution source = mSolutions.get(mFrom / mSolutions.size());
+            TRSPSolution target = mSolutions.get(mFrom % mSolutions.size());
+            if (source != target) {
+                List<TRSPSolution> sols = mPR.pathRelinking(source, target, null);
+                for (TRSPSolution s : sols) {
+                    ParetoSolution sol = mPareto.wrapSolution(s);
+                    // The dominance check does not lock the front and is cheaper than the feasibility check
+                    if (!mPareto.isDominated(sol) && mCtr.isFeasible(s, false))
+                        mPareto.add(sol);
                 }
             }
-
         }
 
     }
@@ -6,25 +6,32 @@ package vroom.trsp;
 import gurobi.GRB.DoubleAttr;
 import gurobi.GRBException;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.Random;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+import umontreal.iro.lecuyer.rng.MRG32k3a;
 import umontreal.iro.lecuyer.rng.RandomStream;
 import vroom.common.heuristics.ProcedureStatus;
 import vroom.common.utilities.BestKnownSolutions;
-import vroom.common.utilities.BatchThreadPoolExecutor;
 import vroom.common.utilities.ProgressMonitor;
 import vroom.common.utilities.StatCollector;
 import vroom.common.utilities.StatCollector.Label;
 import vroom.common.utilities.Stopwatch;
 import vroom.common.utilities.Stopwatch.ReadOnlyStopwatch;
 import vroom.common.utilities.Utilities;
+import vroom.common.utilities.checkpoint.CheckpointWriter;
 import vroom.common.utilities.lp.SolverStatus;
+import vroom.common.utilities.metrics.Counter;
+import vroom.common.utilities.metrics.Gauge;
+import vroom.common.utilities.metrics.Histogram;
+import vroom.common.utilities.metrics.Metrics;
 import vroom.common.utilities.optimization.OptimizationSense;
 import vroom.trsp.datamodel.HashTourPool;
 import vroom.trsp.datamodel.ITRSPSolutionHasher;
@@ -33,6 +40,7 @@ import vroom.trsp.datamodel.ITRSPTourPool;
 import vroom.trsp.datamodel.TRSPInstance;
 import vroom.trsp.datamodel.TRSPSolution;
 import vroom.trsp.datamodel.TRSPSolutionChecker;
+import vroom.trsp.datamodel.TourPoolCheckpoint;
 import vroom.trsp.datamodel.costDelegates.TRSPCostDelegate;
 import vroom.trsp.datamodel.costDelegates.TRSPDistance;
 import vroom.trsp.datamodel.costDelegates.TRSPTourBalance;
@@ -60,6 +68,13 @@ import vroom.trsp.util.TRSPLogging;
 public class RCHSCSolver extends TRSPSolver {
     public static boolean          sParallel = true;
 
+    /** The number of calls to the constructive heuristics */
+    private static final Counter   sHeuristicCalls = Metrics.counter("rchsc.heuristic_calls");
+    /** The time spent generating the tour pools, in milliseconds */
+    private static final Histogram sGenerationTime = Metrics.histogram("rchsc.generation_ms");
+    /** The time spent solving the set covering models, in milliseconds */
+    private static final Histogram sSCTime         = Metrics.histogram("rchsc.sc_ms");
+
     /** The labels that will be used in {@link #collectStats(StatCollector, BestKnownSolutions)} */
     public static final Label<?>[] LABELS    = new Label<?>[] {
             new Label<String>("name", String.class), // name
@@ -121,6 +136,13 @@ public class RCHSCSolver extends TRSPSolver {
         return mMonitor;
     }
 
+    /**
+     * Creates a new progress monitor for the generation of tours
+     */
+    void resetMonitor() {
+        mMonitor = new ProgressMonitor(getParams().get(TRSPGlobalParameters.RCH_MAX_IT), false);
+    }
+
     /**
      * Returns the timer used to measure the time spent on the SC model
      * 
@@ -165,38 +187,56 @@ public class RCHSCSolver extends TRSPSolver {
     }
 
     protected Collection<TRSPRndConstructiveHeuristic> generateHeuristics() {
-        String[] list = getParams().get(TRSPGlobalParameters.RCH_HEURISTICS).split(",");
+        String[] list = getHeuristicsDefinitions();
         ArrayList<TRSPRndConstructiveHeuristic> heuristics = new ArrayList<TRSPRndConstructiveHeuristic>(
                 list.length);
 
-        for (String h : list) {
-            int par = h.indexOf("(");
-            String name = h.substring(0, par);
-            int kmax = Integer.valueOf(h.substring(par + 1, h.length() - 1));
-            if (name.equals("RNN")) {
-                heuristics.add(new RndNearestNeighbor(getInstance(), getParams(), getTourCtrHandler(),
-                        getCostDelegate(), kmax));
-            } else if (name.equals("RNI")) {
-                heuristics.add(new RndNearestFurthestIns(getInstance(), getParams(),
-                        getTourCtrHandler(), getCostDelegate(), kmax, false));
-            } else if (name.equals("RFI")) {
-                heuristics.add(new RndNearestFurthestIns(getInstance(), getParams(),
-                        getTourCtrHandler(), getCostDelegate(), kmax, true));
-            } else if (name.equals("RBI")) {
-                heuristics.add(new RndBestIns(getInstance(), getParams(), getTourCtrHandler(),
-                        getCostDelegate(), kmax));
-
-            } else if (name.equals("RCW")) {
-                heuristics.add(new RndClarkeWright(getInstance(), getParams(), getTourCtrHandler(),
-                        getCostDelegate(), kmax));
-            } else {
-                throw new IllegalArgumentException("Unknown heuristic: " + name);
-            }
-        }
+        for (String h : list)
+            heuristics.add(newHeuristic(h));
 
         return heuristics;
     }
 
+    /**
+     * Returns the definitions of the heuristics used in this solver, as specified in
+     * {@link TRSPGlobalParameters#RCH_HEURISTICS}
+     * 
+     * @return the definitions of the heuristics used in this solver (e.g., <code>RNN(6)</code>)
+     */
+    protected String[] getHeuristicsDefinitions() {
+        return getParams().get(TRSPGlobalParameters.RCH_HEURISTICS).split(",");
+    }
+
+    /**
+     * Creates a new heuristic from its definition
+     * 
+     * @param definition
+     *            the definition of the heuristic, e.g., <code>RNN(6)</code>
+     * @return a new heuristic corresponding to <code>definition</code>
+     */
+    protected TRSPRndConstructiveHeuristic newHeuristic(String definition) {
+        int par = definition.indexOf("(");
+        String name = definition.substring(0, par);
+        int kmax = Integer.valueOf(definition.substring(par + 1, definition.length() - 1));
+        if (name.equals("RNN")) {
+            return new RndNearestNeighbor(getInstance(), getParams(), getTourCtrHandler(), getCostDelegate(),
+                    kmax);
+        } else if (name.equals("RNI")) {
+            return new RndNearestFurthestIns(getInstance(), getParams(), getTourCtrHandler(),
+                    getCostDelegate(), kmax, false);
+        } else if (name.equals("RFI")) {
+            return new RndNearestFurthestIns(getInstance(), getParams(), getTourCtrHandler(),
+                    getCostDelegate(), kmax, true);
+        } else if (name.equals("RBI")) {
+            return new RndBestIns(getInstance(), getParams(), getTourCtrHandler(), getCostDelegate(), kmax);
+        } else if (name.equals("RCW")) {
+            return new RndClarkeWright(getInstance(), getParams(), getTourCtrHandler(), getCostDelegate(),
+                    kmax);
+        } else {
+            throw new IllegalArgumentException("Unknown heuristic: " + name);
+        }
+    }
+
     @Override
     public TRSPSolution call() {
         getTimerInternal().reset();
@@ -204,13 +244,17 @@ public class RCHSCSolver extends TRSPSolver {
         mSCTimer.reset();
         getTimerInternal().start();
 
-        mMonitor = new ProgressMonitor(getParams().get(TRSPGlobalParameters.RCH_MAX_IT), false);
+        resetMonitor();
 
         // Generate the tours
         mGenTimer.reset();
         mGenTimer.start();
-        generateTours();
+        if (!restoreTourPool()) {
+            generateTours();
+            checkpointTourPool();
+        }
         mGenTimer.stop();
+        sGenerationTime.record((long) mGenTimer.readTimeMS());
         TRSPLogging.getOptimizationLogger().info("RCHSC %s: Pool generated in %ss (size: %s)",
                 mMonitor, mGenTimer.readTimeS(), mTourPool.size());
 
@@ -224,25 +268,85 @@ public class RCHSCSolver extends TRSPSolver {
         mSCTimer.start();
         solveSetCovering();
         mSCTimer.stop();
+        sSCTime.record((long) mSCTimer.readTimeMS());
 
         // Get the final solution
         setFinalSolution(mSCSolver.getSolution());
 
         getTimerInternal().stop();
 
+        // The run terminated normally, the next run must not resume from its tour pool
+        File checkpoint = getCheckpointFile();
+        if (checkpoint != null && checkpoint.delete())
+            TRSPLogging.getOptimizationLogger().debug("RCHSC: Checkpoint %s deleted", checkpoint);
+
         TRSPLogging.getOptimizationLogger().info("RCHSC %s: Set covering model solved in %ss",
                 mMonitor, mSCTimer.readTimeS());
         return getFinalSolution();
     }
 
+    /**
+     * Restore the tour pool from the {@linkplain #getCheckpointFile() checkpoint file}, if it exists and was written
+     * for the same instance
+     * 
+     * @return {@code true} if the tour pool was restored, {@code false} if the tours have to be generated
+     */
+    boolean restoreTourPool() {
+        File file = getCheckpointFile();
+        if (file == null || !file.exists())
+            return false;
+        try {
+            TourPoolCheckpoint checkpoint = CheckpointWriter.read(file, TourPoolCheckpoint.class);
+            String err = checkpoint.check(getInstance());
+            if (err.isEmpty() && checkpoint.restore(mTourPool, getInstance()) != checkpoint.size())
+                err = String.format("%s tours restored out of %s", mTourPool.size(), checkpoint.size());
+            if (!err.isEmpty()) {
+                TRSPLogging.getOptimizationLogger().warn("RCHSC: Ignoring invalid checkpoint %s (%s)", file,
+                        err);
+                mTourPool.clear();
+                return false;
+            }
+            TRSPLogging.getOptimizationLogger().info("RCHSC: Tour pool restored from %s (size: %s)", file,
+                    mTourPool.size());
+            return true;
+        } catch (IOException e) {
+            TRSPLogging.getOptimizationLogger().exception("RCHSCSolver.restoreTourPool", e);
+            mTourPool.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Save the tour pool to the {@linkplain #getCheckpointFile() checkpoint file}, if checkpointing is enabled
+     */
+    void checkpointTourPool() {
+        File file = getCheckpointFile();
+        if (file == null)
+            return;
+        CheckpointWriter writer = new CheckpointWriter(file);
+        writer.submit(new TourPoolCheckpoint(mTourPool, getInstance()));
+        writer.close();
+    }
+
     /**
      * Generate the tour pool using the constructive heuristics
      */
     void generateTours() {
-        if (sParallel)
-            generateToursParallel();
-        else
-            generateToursSequential();
+        Gauge poolSize = Metrics.register(new Gauge(Metrics.qualify("rchsc.tour_pool", getInstance().getName(),
+                Metrics.newRunId())) {
+            @Override
+            public double getValue() {
+                return mTourPool.size();
+            }
+        });
+        try {
+            if (sParallel)
+                generateToursParallel();
+            else
+                generateToursSequential();
+        } finally {
+            Metrics.remove(poolSize);
+        }
 
         // Freeup memory by removing tours stored in the heuristics pools
         for (TRSPRndConstructiveHeuristic h : mHeuristics) {
@@ -265,6 +369,7 @@ public class RCHSCSolver extends TRSPSolver {
                 // try {
                 // Generate the tours
                 status = h.call();
+                sHeuristicCalls.increment();
                 // } catch (Exception e) {
                 // TRSPLogging.getOptimizationLogger().exception("RCHSCSolver.generateTours", e);
                 // }
@@ -287,32 +392,134 @@ public class RCHSCSolver extends TRSPSolver {
 
     /**
      * Generate the tour pool using the constructive heuristics in parallel
+     * <p>
+     * The iterations of each heuristic are split in chunks of {@link TRSPGlobalParameters#RCH_CHUNK_SIZE} iterations,
+     * each chunk being associated with its own substream of the random stream so that the generated tours do not
+     * depend on the number of threads or on the scheduling. Chunks are executed in a work-stealing pool, each worker
+     * using its own instances of the heuristics, and the tours are added to the pool as soon as they are generated.
+     * </p>
      */
     void generateToursParallel() {
+        generateToursParallel(getParams().getThreadCount());
+    }
+
+    /**
+     * Generate the tour pool using the constructive heuristics in parallel with a given number of threads
+     * 
+     * @param threadCount
+     *            the number of worker threads
+     * @see #generateToursParallel()
+     */
+    void generateToursParallel(int threadCount) {
         final double maxIt = getParams().get(TRSPGlobalParameters.RCH_MAX_IT);
         mMonitor.start();
-        int samplesPerHeur = Math.max(mHeuristics.size(),
-                (int) Math.ceil(maxIt / mHeuristics.size()));
-        BatchThreadPoolExecutor executor = new BatchThreadPoolExecutor(
-                getParams().getThreadCount(), "RCH");
-        LinkedList<Future<Collection<ITRSPTour>>> futures = new LinkedList<Future<Collection<ITRSPTour>>>();
-        for (TRSPRndConstructiveHeuristic h : mHeuristics) {
-            futures.add(executor.submit(new RCHJob(h, samplesPerHeur)));
+        final String[] definitions = getHeuristicsDefinitions();
+        int samplesPerHeur = Math.max(definitions.length, (int) Math.ceil(maxIt / definitions.length));
+        int chunkSize = Math.max(1, getParams().get(TRSPGlobalParameters.RCH_CHUNK_SIZE));
+        int chunksPerHeur = (samplesPerHeur + chunkSize - 1) / chunkSize;
+
+        // Define the chunks and their random substreams
+        MRG32k3a stream = new MRG32k3a("TRSP_RCH_Chunks");
+        stream.setSeed(getParams().get(TRSPGlobalParameters.RUN_SEEDS));
+        RCHChunk[] chunks = new RCHChunk[definitions.length * chunksPerHeur];
+        int c = 0;
+        for (int h = 0; h < definitions.length; h++) {
+            for (int k = 0; k < chunksPerHeur; k++) {
+                chunks[c++] = new RCHChunk(h, Math.min(chunkSize, samplesPerHeur - k * chunkSize),
+                        stream.clone());
+                stream.resetNextSubstream();
+            }
+        }
+
+        // Heuristics used by each worker thread
+        ThreadLocal<TRSPRndConstructiveHeuristic[]> heuristics = new ThreadLocal<TRSPRndConstructiveHeuristic[]>() {
+            @Override
+            protected TRSPRndConstructiveHeuristic[] initialValue() {
+                TRSPRndConstructiveHeuristic[] heur = new TRSPRndConstructiveHeuristic[definitions.length];
+                for (int h = 0; h < heur.length; h++)
+                    heur[h] = newHeuristic(definitions[h]);
+                return heur;
+            }
+        };
+
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        try {
+            pool.invoke(new RCHChunkTask(chunks, 0, chunks.length, heuristics));
+        } catch (RuntimeException e) {
+            TRSPLogging.getBaseLogger().exception("RCHSCSolver.generateToursParallel", e);
+        } finally {
+            pool.shutdown();
+        }
+        TRSPLogging.getOptimizationLogger().debug("RCHSC %s: %s chunks executed, pool size:%s", mMonitor,
+                chunks.length, mTourPool.size());
+    }
+
+    /**
+     * <code>RCHChunk</code> is a sequence of iterations of a heuristic with a dedicated random stream
+     */
+    private static class RCHChunk {
+        /** the index of the heuristic */
+        private final int          mHeuristic;
+        /** the number of iterations */
+        private final int          mIterations;
+        /** the random stream */
+        private final RandomStream mStream;
+
+        private RCHChunk(int heuristic, int iterations, RandomStream stream) {
+            mHeuristic = heuristic;
+            mIterations = iterations;
+            mStream = stream;
+        }
+    }
+
+    /**
+     * <code>RCHChunkTask</code> executes a range of chunks, recursively splitting it so that idle workers can steal
+     * half of the remaining chunks
+     */
+    private class RCHChunkTask extends RecursiveAction {
+        private static final long                                 serialVersionUID = 1L;
+
+        private final RCHChunk[]                                  mChunks;
+        private final int                                         mFrom;
+        private final int                                         mTo;
+        private final ThreadLocal<TRSPRndConstructiveHeuristic[]> mHeuristics;
+
+        private RCHChunkTask(RCHChunk[] chunks, int from, int to,
+                ThreadLocal<TRSPRndConstructiveHeuristic[]> heuristics) {
+            mChunks = chunks;
+            mFrom = from;
+            mTo = to;
+            mHeuristics = heuristics;
         }
-        for (Future<Collection<ITRSPTour>> future : futures) {
-            try {
-                Collection<ITRSPTour> pool = future.get();
-                int addedTours = mTourPool.add(pool);
-                TRSPLogging.getOptimizationLogger().debug(
-                        "RCHSC %s: %s/%s tours to the pool, new size:%s", mMonitor, addedTours,
-                        pool.size(), mTourPool.size());
-            } catch (InterruptedException e) {
-                TRSPLogging.getBaseLogger().exception("RCHSCSolver.generateToursParallel", e);
-            } catch (ExecutionException e) {
-                TRSPLogging.getBaseLogger().exception("RCHSCSolver.generateToursParallel", e);
+
+        @Override
+        protected void compute() {
+            if (mTo - mFrom > 1) {
+                int mid = (mFrom + mTo) >>> 1;
+                invokeAll(new RCHChunkTask(mChunks, mFrom, mid, mHeuristics), new RCHChunkTask(mChunks, mid,
+                        mTo, mHeuristics));
+                return;
+            }
+
+            RCHChunk chunk = mChunks[mFrom];
+            TRSPRndConstructiveHeuristic h = mHeuristics.get()[chunk.mHeuristic];
+            h.setRndStream(chunk.mStream);
+            for (int it = 0; it < chunk.mIterations; it++) {
+                ProcedureStatus status = h.call();
+                sHeuristicCalls.increment();
+                if (status == ProcedureStatus.TERMINATED) {
+                    // Add the generated tours to the pool
+                    mTourPool.add(h.getTourPool());
+                    h.dispose();
+                } else {
+                    throw new IllegalStateException("Constructive heuristic returned an unsupported state: "
+                            + status);
+                }
+            }
+            synchronized (mMonitor) {
+                mMonitor.iterationsFinished(chunk.mIterations);
             }
         }
-        executor.shutdown();
     }
 
     /**
@@ -377,7 +584,8 @@ public class RCHSCSolver extends TRSPSolver {
 
     @Override
     public void dispose() {
-        mSCSolver.dispose();
+        if (mSCSolver != null)
+            mSCSolver.dispose();
         mHeuristics.clear();
         mTourPool.dispose();
     }
@@ -1,6 +1,8 @@
 package vroom.trsp;
 
+import java.io.File;
 import java.text.DecimalFormat;
+import java.util.Arrays;
 import java.util.concurrent.Callable;
 
 import vroom.common.heuristics.ProcedureStatus;
@@ -181,6 +183,43 @@ public abstract class TRSPSolver implements Callable<TRSPSolution>, IDisposable
         this.mComment = comment;
     }
 
+    /** the unique id of the run executed by this solver, used to name the checkpoint file **/
+    private int mRunId = -1;
+    /** the replica number of the run executed by this solver, used to name the checkpoint file **/
+    private int mRun   = -1;
+
+    /**
+     * Sets the run executed by this solver
+     * 
+     * @param runId
+     *            the unique id of the run
+     * @param run
+     *            the replica number of the run
+     */
+    public void setRun(int runId, int run) {
+        mRunId = runId;
+        mRun = run;
+    }
+
+    /**
+     * Returns the file in which the checkpoints of this solver are written.
+     * <p>
+     * The name of the file is derived from the instance, the class of this solver, the run and the seeds, so that
+     * concurrent runs, replicas and different solvers never share a checkpoint file.
+     * </p>
+     * 
+     * @return the checkpoint file, or {@code null} if {@link TRSPGlobalParameters#CHECKPOINT_DIR} is not set
+     * @see #setRun(int, int)
+     */
+    public File getCheckpointFile() {
+        if (!getParams().isSet(TRSPGlobalParameters.CHECKPOINT_DIR))
+            return null;
+        return new File(getParams().get(TRSPGlobalParameters.CHECKPOINT_DIR), String.format(
+                "%s_%s_%s-%s_%08x.ckpt", getInstance().getName().replaceAll("[^\\w.-]", "_"), getClass()
+                        .getSimpleName(), mRunId, mRun, Arrays.hashCode(getParams().get(
+                        TRSPGlobalParameters.RUN_SEEDS))));
+    }
+
     /** the main timer used by this solver **/
     private final Stopwatch mTimer;
 
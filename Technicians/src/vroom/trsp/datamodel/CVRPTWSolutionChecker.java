@@ -3,7 +3,6 @@
  */
 package vroom.trsp.datamodel;
 
-import java.util.Iterator;
 
 /**
  * <code>CVRPTWSolutionChecker</code> is a solution checker for {@link TRSPSolution solutions} of a {@link TRSPInstance}
@@ -42,11 +41,11 @@ public class CVRPTWSolutionChecker extends TRSPSolutionCheckerBase {
             return err.toString();
 
         double time = tech.getHome().getTimeWindow().startAsDouble();
-        Iterator<Integer> it = tour.iterator();
+        ITourIterator it = tour.iterator();
         // Iterate over the tour
-        int pred = it.next();
+        int pred = it.nextInt();
         while (it.hasNext()) {
-            int node = it.next();
+            int node = it.nextInt();
 
             time = instance.getTimeWindow(pred).getEarliestStartOfService(time);
             time += instance.getServiceTime(pred);
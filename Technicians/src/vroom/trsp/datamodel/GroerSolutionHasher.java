@@ -123,11 +123,11 @@ public class GroerSolutionHasher implements ITRSPSolutionHasher {
 
         ITourIterator it = tour.iterator();
         if (skipEnds)
-            it.next();
+            it.nextInt();
 
-        int prev = it.next();
+        int prev = it.nextInt();
         while (it.hasNext() && (!skipEnds || prev != tour.getLastNode())) {
-            int r = it.next();
+            int r = it.nextInt();
             hash ^= mRndInts[(r + prev) % mRndInts.length];
             prev = r;
         }
@@ -4,11 +4,13 @@
 package vroom.trsp.datamodel;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import vroom.common.utilities.IntegerSet;
 import vroom.trsp.util.TRSPLogging;
@@ -16,6 +18,12 @@ import vroom.trsp.util.TRSPLogging;
 /**
  * <code>HashTourPool</code> is an implementation of {@link ITRSPTourPool} based on a {@link HashSet}
  * <p>
+ * Tours can be added concurrently: the feasibility check and hashing are done outside of any lock and the pool of each
+ * technician is a {@link ConcurrentHashMap} updated with compare-and-set operations. When two tours have the same hash
+ * and cost, the one with the lexicographically smaller sequence is kept so that the content of the pool does not
+ * depend on the order in which tours were added.
+ * </p>
+ * <p>
  * Creation date: Aug 16, 2011 - 3:27:31 PM
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
@@ -31,11 +39,11 @@ public class HashTourPool implements ITRSPTourPool {
     /** The minimum size for tours, default is 3 (<code>&lt;depot,node,depot&gt;</code>), shorter tours will be ignored */
     public static int         sMinTourSize     = 3;
 
-    private final Map<?, ?>[] mTourPool;
+    private final ConcurrentMap<?, ?>[] mTourPool;
 
-    private int               mSize;
+    private final AtomicInteger         mSize;
 
-    private int               mCollisionsCount = 0;
+    private final AtomicInteger         mCollisionsCount;
 
     /**
      * Returns the number of hash collisions detected The result is only valid is {@link #sCountCollisions} is set to
@@ -48,7 +56,7 @@ public class HashTourPool implements ITRSPTourPool {
     public int getCollisionsCount() {
         if (!sCountCollisions)
             throw new IllegalStateException("HashTourPool.sCountCollisions is set to false");
-        return mCollisionsCount;
+        return mCollisionsCount.get();
     }
 
     /** The hasher that will be used to calculate the hash of tours */
@@ -73,17 +81,19 @@ public class HashTourPool implements ITRSPTourPool {
      * @param hasher
      */
     public HashTourPool(int techCount, int expectedToursPerTech, ITRSPSolutionHasher hasher) {
-        mTourPool = new Map<?, ?>[techCount];
+        mTourPool = new ConcurrentMap<?, ?>[techCount];
         for (int i = 0; i < mTourPool.length; i++) {
-            mTourPool[i] = new HashMap<Integer, TRSPSimpleTour>((int) (expectedToursPerTech / 0.75) + 1, 0.75f);
+            mTourPool[i] = new ConcurrentHashMap<Integer, TRSPSimpleTour>((int) (expectedToursPerTech / 0.75) + 1,
+                    0.75f);
         }
-        mSize = 0;
+        mSize = new AtomicInteger();
+        mCollisionsCount = new AtomicInteger();
         mHasher = hasher;
     }
 
     @SuppressWarnings("unchecked")
-    private synchronized Map<Integer, TRSPSimpleTour> getPool(int technician) {
-        return (Map<Integer, TRSPSimpleTour>) mTourPool[technician];
+    private ConcurrentMap<Integer, TRSPSimpleTour> getPool(int technician) {
+        return (ConcurrentMap<Integer, TRSPSimpleTour>) mTourPool[technician];
     }
 
     /*
@@ -91,35 +101,15 @@ public class HashTourPool implements ITRSPTourPool {
      * @see vroom.trsp.datamodel.ITRSPTourPool#add(java.util.Collection)
      */
     @Override
-    public synchronized int add(Iterable<? extends ITRSPTour> tours) {
+    public int add(Iterable<? extends ITRSPTour> tours) {
         int count = 0;
         for (ITRSPTour tour : tours) {
             // Check the tour feasibility
             String err = TRSPSolutionChecker.INSTANCE.checkTour(tour);
 
             if (err.isEmpty() && tour.length() >= sMinTourSize) {
-                // Check for the presence of a tour with the same hash
-                Map<Integer, TRSPSimpleTour> pool = getPool(tour.getTechnicianId());
-                Integer hash = mHasher.hash(tour);
-                TRSPSimpleTour prevTour = pool.get(hash);
-
-                if (prevTour != null) {
-                    // A tour with the same hash already exists, compare objective values
-                    if (prevTour.getTotalCost() > tour.getTotalCost()) {
-                        // Previous tour has a higher cost, replace it
-                        pool.put(hash, new TRSPSimpleTour(tour, hash));
-                    } else {
-                        // Previous tour has a lower cost, keep it
-                    }
-                    if (sCountCollisions) {
-                        checkCollision(prevTour, tour);
-                    }
-                } else {
-                    pool.put(hash, new TRSPSimpleTour(tour, hash));
+                if (addTour(tour))
                     count++;
-                    mSize++;
-                }
-
             } else if (!err.isEmpty()) {
                 TRSPLogging.getOptimizationLogger().warn("HashTourPool.add: ignoring infeasible tour %s (%s)", tour,
                         err);
@@ -131,6 +121,69 @@ public class HashTourPool implements ITRSPTourPool {
         return count;
     }
 
+    /**
+     * Add a feasible tour to the pool
+     * 
+     * @param tour
+     *            the tour to be added
+     * @return {@code true} if no tour with the same hash was present in the pool
+     */
+    private boolean addTour(ITRSPTour tour) {
+        ConcurrentMap<Integer, TRSPSimpleTour> pool = getPool(tour.getTechnicianId());
+        Integer hash = mHasher.hash(tour);
+        TRSPSimpleTour newTour = null;
+        boolean collisionChecked = false;
+        while (true) {
+            TRSPSimpleTour prevTour = pool.get(hash);
+            if (prevTour == null) {
+                if (newTour == null)
+                    newTour = new TRSPSimpleTour(tour, hash);
+                if (pool.putIfAbsent(hash, newTour) == null) {
+                    mSize.incrementAndGet();
+                    return true;
+                }
+            } else {
+                if (sCountCollisions && !collisionChecked) {
+                    checkCollision(prevTour, tour);
+                    collisionChecked = true;
+                }
+                // A tour with the same hash already exists, compare objective values
+                double prevCost = prevTour.getTotalCost();
+                double cost = tour.getTotalCost();
+                if (prevCost < cost)
+                    // Previous tour has a lower cost, keep it
+                    return false;
+                if (newTour == null)
+                    newTour = new TRSPSimpleTour(tour, hash);
+                if (!(prevCost > cost) && compareSequences(prevTour, newTour) <= 0)
+                    // Same cost, keep the smallest sequence
+                    return false;
+                // Previous tour has a higher cost, replace it
+                if (pool.replace(hash, prevTour, newTour))
+                    return false;
+            }
+            // Another thread updated the pool concurrently, try again
+        }
+    }
+
+    /**
+     * Lexicographic comparison of the sequences of two tours
+     * 
+     * @param t1
+     * @param t2
+     * @return a negative integer, zero, or a positive integer as {@code t1} is less than, equal to, or greater than
+     *         {@code t2}
+     */
+    private static int compareSequences(TRSPSimpleTour t1, TRSPSimpleTour t2) {
+        int length = Math.min(t1.length(), t2.length());
+        for (int i = 0; i < length; i++) {
+            int diff = Integer.compare(t1.getNodeAt(i), t2.getNodeAt(i));
+            if (diff != 0)
+                return diff;
+        }
+        return Integer.compare(t1.length(), t2.length());
+    }
+
     /**
      * Check if {@code  prevTour} visits the same requests as {@code  tour}, if not increment the collision count
      * 
@@ -139,15 +192,16 @@ public class HashTourPool implements ITRSPTourPool {
      */
     private void checkCollision(TRSPSimpleTour prevTour, ITRSPTour tour) {
         IntegerSet prevSet = new IntegerSet(tour.getSolution().getInstance().getMaxId());
-        for (int n : prevTour)
+        for (int n : prevTour.asArray())
             prevSet.add(n);
-        for (int n : tour)
-            if (!prevSet.remove(n)) {
-                mCollisionsCount++;
+        ITourIterator it = tour.iterator();
+        while (it.hasNext())
+            if (!prevSet.remove(it.nextInt())) {
+                mCollisionsCount.incrementAndGet();
                 break;
             }
         if (!prevSet.isEmpty())
-            mCollisionsCount++;
+            mCollisionsCount.incrementAndGet();
     }
 
     /*
@@ -155,11 +209,18 @@ public class HashTourPool implements ITRSPTourPool {
      * @see vroom.trsp.datamodel.ITRSPTourPool#getAllTours()
      */
     @Override
-    public synchronized Collection<ITRSPTour> getAllTours() {
+    public Collection<ITRSPTour> getAllTours() {
         ArrayList<ITRSPTour> tours = new ArrayList<ITRSPTour>(size());
 
         for (int i = 0; i < mTourPool.length; i++) {
-            tours.addAll(getPool(i).values());
+            // Sort by hash so that the order does not depend on the order of insertion
+            Integer[] hashes = getPool(i).keySet().toArray(new Integer[0]);
+            Arrays.sort(hashes);
+            for (Integer hash : hashes) {
+                TRSPSimpleTour tour = getPool(i).get(hash);
+                if (tour != null)
+                    tours.add(tour);
+            }
         }
 
         return tours;
@@ -171,7 +232,7 @@ public class HashTourPool implements ITRSPTourPool {
      */
     @Override
     public int size() {
-        return mSize;
+        return mSize.get();
     }
 
     @Override
@@ -179,7 +240,7 @@ public class HashTourPool implements ITRSPTourPool {
         for (int i = 0; i < mTourPool.length; i++) {
             getPool(i).clear();
         }
-        mSize = 0;
+        mSize.set(0);
     }
 
     @Override
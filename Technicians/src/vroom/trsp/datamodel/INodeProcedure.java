@@ -0,0 +1,28 @@
+/**
+ * 
+ */
+package vroom.trsp.datamodel;
+
+/**
+ * <code>INodeProcedure</code> is a procedure executed on the node ids of a tour without boxing.
+ * <p>
+ * Creation date: Oct 19, 2026 - 10:12:40 AM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ * @see ITRSPTour#forEachNode(INodeProcedure)
+ */
+public interface INodeProcedure {
+
+    /**
+     * Execute this procedure on a node
+     * 
+     * @param node
+     *            the id of the current node
+     * @return {@code true} if the iteration should continue, {@code false} to stop it
+     */
+    public boolean execute(int node);
+
+}
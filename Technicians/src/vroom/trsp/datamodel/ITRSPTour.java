@@ -118,6 +118,15 @@ public interface ITRSPTour extends Iterable<Integer>, ISolution {
     @Override
     public ITourIterator iterator();
 
+    /**
+     * Execute a procedure on the nodes of this tour, in order, without boxing the node ids
+     * 
+     * @param procedure
+     *            the procedure to be executed on each node
+     * @return {@code true} if all nodes were visited, {@code false} if the {@code  procedure} stopped the iteration
+     */
+    public boolean forEachNode(INodeProcedure procedure);
+
     @Override
     public ISolution clone();
 
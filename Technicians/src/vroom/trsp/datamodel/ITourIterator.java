@@ -27,4 +27,22 @@ public interface ITourIterator extends ListIterator<Integer>, Cloneable {
      */
     public ITourIterator subIterator();
 
+    /**
+     * Returns the next node id, same as {@link #next()} but without boxing
+     * 
+     * @return the next node id
+     * @throws java.util.NoSuchElementException
+     *             if the iteration has no next element
+     */
+    public int nextInt();
+
+    /**
+     * Returns the previous node id, same as {@link #previous()} but without boxing
+     * 
+     * @return the previous node id
+     * @throws java.util.NoSuchElementException
+     *             if the iteration has no previous element
+     */
+    public int previousInt();
+
 }
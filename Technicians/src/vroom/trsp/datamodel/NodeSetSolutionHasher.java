@@ -44,7 +44,9 @@ public class NodeSetSolutionHasher extends GroerSolutionHasher {
      */
     @Override
     int hashTour(ITRSPTour tour, int hash) {
-        for (int r : tour) {
+        ITourIterator it = tour.iterator();
+        while (it.hasNext()) {
+            int r = it.nextInt();
             // if (tour.isVisited(r)) {
             hash ^= mRndInts[r % mRndInts.length];
             // }
@@ -52,7 +52,12 @@ public class SimpleTourIterator implements ITourIterator {
     }
 
     @Override
-    public synchronized Integer next() {
+    public Integer next() {
+        return nextInt();
+    }
+
+    @Override
+    public synchronized int nextInt() {
         if (hasNext()) {
             return mTour.getNodeAt(mPosition++);
         } else {
@@ -61,7 +66,12 @@ public class SimpleTourIterator implements ITourIterator {
     }
 
     @Override
-    public synchronized Integer previous() {
+    public Integer previous() {
+        return previousInt();
+    }
+
+    @Override
+    public synchronized int previousInt() {
         if (hasPrevious()) {
             return mTour.getNodeAt(--mPosition);
         } else {
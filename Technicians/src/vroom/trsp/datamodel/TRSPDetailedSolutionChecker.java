@@ -86,7 +86,7 @@ public class TRSPDetailedSolutionChecker extends TRSPSolutionCheckerBase {
 
         int pred = -1;
         while (fwdit.hasNext()) {
-            int node = fwdit.next();
+            int node = fwdit.nextInt();
 
             if (pred == -1)
                 earliest = 0;
@@ -158,16 +158,16 @@ public class TRSPDetailedSolutionChecker extends TRSPSolutionCheckerBase {
         fwdit = mytour.iterator();
         boolean checkFwdSlack = true;
         while (fwdit.hasNext()) {
-            int node = fwdit.next();
+            int node = fwdit.nextInt();
             TRSPTourIterator sucIt = mytour.iterator(node);
             double cumWait = 0;
 
             if (!sucIt.hasNext())
                 continue;
 
-            sucIt.next();
+            sucIt.nextInt();
             while (sucIt.hasNext()) {
-                int succ = sucIt.next();
+                int succ = sucIt.nextInt();
                 wait[node][succ] = cumWait;
                 cumWait += wait[succ][succ];
 
@@ -195,7 +195,7 @@ public class TRSPDetailedSolutionChecker extends TRSPSolutionCheckerBase {
         int[] spareReq = new int[instance.getSpareCount()];
         int succ = ITRSPTour.UNDEFINED;
         while (bkwdit.hasPrevious() && (checkLatestFeas || checkSpareReq)) {
-            int node = bkwdit.previous();
+            int node = bkwdit.previousInt();
             if (succ == ITRSPTour.UNDEFINED) {
                 lft = mytour.getTimeWindow(node).endAsDouble();
                 if (instance.isRequest(node))
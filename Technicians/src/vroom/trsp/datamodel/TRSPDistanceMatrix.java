@@ -3,15 +3,30 @@
  */
 package vroom.trsp.datamodel;
 
+import java.math.RoundingMode;
+
 import vroom.common.modeling.dataModel.DistanceMatrix;
 import vroom.common.modeling.dataModel.Node;
 import vroom.common.modeling.dataModel.attributes.ILocation;
 import vroom.common.modeling.util.CostCalculationDelegate;
 import vroom.common.utilities.GeoTools;
+import vroom.trsp.datamodel.costDelegates.TRSPDistance;
 
 /**
  * <code>TRSPDistanceMatrix</code> is an extension of {@link DistanceMatrix} for the special case of the TRSP
  * <p>
+ * Distances can also be stored as fixed-point <code>long</code> values scaled by <code>10^precision</code> (see
+ * {@link #getFixedDistance(int, int)}), so that cost delegates can evaluate sums of distances exactly. This
+ * representation is disabled by default and has to be {@linkplain #setFixedPoint(boolean) enabled} explicitly once the
+ * {@linkplain #setPrecision(int, RoundingMode) precision} has been set to at most {@link #MAX_FIXED_POINT_PRECISION}
+ * digits. The <code>double</code> matrix is kept, so that {@link #getDistance(int, int)} remains a single lookup.
+ * </p>
+ * <p>
+ * The fixed-point representation only applies to distances: {@linkplain #getTravelTime(int, int, Technician) travel
+ * times}, service times and time windows are always <code>double</code> values, and only {@link TRSPDistance} evaluates
+ * costs in fixed point.
+ * </p>
+ * <p>
  * Creation date: Feb 23, 2011 - 12:09:42 PM
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
@@ -21,15 +36,28 @@ import vroom.common.utilities.GeoTools;
  */
 public class TRSPDistanceMatrix extends CostCalculationDelegate {
 
+    /** The maximum precision for which distances are stored as fixed-point values */
+    public static final int    MAX_FIXED_POINT_PRECISION = 9;
+
+    /** The number of rows and columns of the matrix */
+    private final int          mSize;
+
     /** The distance matrix between all nodes of the graph. */
     private final double       mDistances[][];
 
+    /** The scaled distances stored by row, or <code>null</code> if the fixed-point representation is disabled */
+    private long[]             mFixedDistances;
+
+    /** The scale of fixed-point values, <code>10^precision</code> */
+    private long               mFixedPointScale;
+
     private final TRSPInstance mInstance;
 
     public TRSPDistanceMatrix(TRSPInstance instance) {
         mInstance = instance;
+        mSize = mInstance.getMaxId();
 
-        mDistances = new double[mInstance.getMaxId()][mInstance.getMaxId()];
+        mDistances = new double[mSize][mSize];
         for (int i = 0; i < mDistances.length; i++) {
             for (int j = 0; j < mDistances.length; j++) {
                 if (i != j)
@@ -47,7 +75,8 @@ public class TRSPDistanceMatrix extends CostCalculationDelegate {
      */
     protected TRSPDistanceMatrix(TRSPInstance instance, double[][] ds) {
         mInstance = instance;
-        mDistances = new double[mInstance.getMaxId()][mInstance.getMaxId()];
+        mSize = mInstance.getMaxId();
+        mDistances = new double[mSize][mSize];
         for (int i = 0; i < mDistances.length; i++) {
             for (int j = 0; j < mDistances.length; j++) {
                 if (i != j)
@@ -56,6 +85,21 @@ public class TRSPDistanceMatrix extends CostCalculationDelegate {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws IllegalStateException
+     *             if distances are stored in fixed point and the new precision cannot be represented in fixed point
+     */
+    @Override
+    public void setPrecision(int precision, RoundingMode method) {
+        if (isFixedPoint() && !isFixedPointCompatible(precision, method))
+            throw new IllegalStateException(String.format(
+                    "Precision %s (%s) cannot be represented in fixed point, disable fixed point first", precision,
+                    method));
+        super.setPrecision(precision, method);
+    }
+
     @Override
     protected void precisionChanged() {
         for (int i = 0; i < mDistances.length; i++) {
@@ -64,6 +108,120 @@ public class TRSPDistanceMatrix extends CostCalculationDelegate {
                         getPrecision(), getRoundingMethod());
             }
         }
+
+        if (isFixedPoint())
+            // Scale the rounded distances with the new precision
+            updateFixedDistances();
+    }
+
+    /**
+     * Returns <code>true</code> if distances rounded with the given precision and method can be stored exactly as
+     * fixed-point values
+     */
+    private static boolean isFixedPointCompatible(int precision, RoundingMode method) {
+        return method != RoundingMode.UNNECESSARY && precision >= 0 && precision <= MAX_FIXED_POINT_PRECISION;
+    }
+
+    /**
+     * Stores the current distances as fixed-point values
+     */
+    private void updateFixedDistances() {
+        mFixedPointScale = (long) Math.pow(10, getPrecision());
+        long[] fixed = new long[mSize * mSize];
+        for (int i = 0; i < mSize; i++) {
+            for (int j = 0; j < mSize; j++) {
+                fixed[i * mSize + j] = toFixedPoint(mDistances[i][j]);
+            }
+        }
+        mFixedDistances = fixed;
+    }
+
+    /**
+     * Enable or disable the fixed-point representation of distances.
+     * <p>
+     * The fixed-point representation requires the {@linkplain #setPrecision(int, RoundingMode) precision} to be set to
+     * at most {@link #MAX_FIXED_POINT_PRECISION} digits with a rounding mode other than
+     * {@link RoundingMode#UNNECESSARY}, so that distances have a finite number of digits.
+     * </p>
+     * 
+     * @param enabled
+     *            <code>true</code> to store distances as fixed-point values, <code>false</code> to release them
+     * @throws IllegalStateException
+     *             if {@code enabled} is <code>true</code> and the current precision cannot be represented in fixed
+     *             point
+     */
+    public void setFixedPoint(boolean enabled) {
+        if (enabled == isFixedPoint())
+            return;
+        if (enabled) {
+            if (!isFixedPointCompatible(getPrecision(), getRoundingMethod()))
+                throw new IllegalStateException(String.format(
+                        "Precision %s (%s) cannot be represented in fixed point, call setPrecision first",
+                        getPrecision(), getRoundingMethod()));
+            updateFixedDistances();
+        } else {
+            mFixedDistances = null;
+            mFixedPointScale = 0;
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if distances are available as fixed-point values
+     * 
+     * @return <code>true</code> if distances are available as fixed-point values
+     * @see #setFixedPoint(boolean)
+     * @see #getFixedDistance(int, int)
+     */
+    public boolean isFixedPoint() {
+        return mFixedDistances != null;
+    }
+
+    /**
+     * Returns the scale of fixed-point values
+     * 
+     * @return the scale of fixed-point values, <code>10^precision</code>, or <code>0</code> if distances are not
+     *         available as fixed-point values
+     */
+    public long getFixedPointScale() {
+        return mFixedPointScale;
+    }
+
+    /**
+     * Returns the distance between two nodes as a fixed-point value
+     * 
+     * @param pred
+     *            the first node id
+     * @param succ
+     *            the second node id
+     * @return the distance separating <code>pred</code> and <code>succ</code> multiplied by
+     *         {@link #getFixedPointScale()}
+     * @throws NullPointerException
+     *             if distances are not available as fixed-point values
+     */
+    public long getFixedDistance(int pred, int succ) {
+        return mFixedDistances[pred * mSize + succ];
+    }
+
+    /**
+     * Converts a value to its fixed-point representation
+     * 
+     * @param value
+     *            the value to convert
+     * @return the value multiplied by {@link #getFixedPointScale()} and rounded to the nearest integer
+     */
+    public long toFixedPoint(double value) {
+        return Math.round(value * mFixedPointScale);
+    }
+
+    /**
+     * Converts a fixed-point value to a <code>double</code>
+     * 
+     * @param value
+     *            the fixed-point value
+     * @return the value divided by {@link #getFixedPointScale()}
+     */
+    public double fromFixedPoint(long value) {
+        return (double) value / mFixedPointScale;
     }
 
     /**
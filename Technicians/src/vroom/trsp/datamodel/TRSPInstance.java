@@ -15,6 +15,7 @@ import java.util.concurrent.TimeUnit;
 import vroom.common.modeling.dataModel.Depot;
 import vroom.common.modeling.dataModel.Node;
 import vroom.common.modeling.dataModel.attributes.ITimeWindow;
+import vroom.common.utilities.BitMatrix;
 import vroom.common.utilities.ExtendedReentrantLock;
 import vroom.common.utilities.IToShortString;
 import vroom.common.utilities.Utilities;
@@ -395,10 +396,19 @@ public class TRSPInstance implements IInstance, vroom.optimization.online.jmsa.I
     }
 
     /**
-     * A matrix representing the existing edges in the reduced graph: <code>mTWGraph[i][j]=true</code> iif node
+     * A matrix representing the existing edges in the reduced graph: <code>mTWGraph.get(i,j)=true</code> iif node
      * <code>j</code> can be visited after node <code>i</code> without violating time window constraints
      */
-    private final boolean[][] mTWGraph;
+    private final BitMatrix mTWGraph;
+
+    /** The transpose of {@link #mTWGraph}: <code>mTWGraphPred.get(j,i)=mTWGraph.get(i,j)</code> */
+    private final BitMatrix mTWGraphPred;
+
+    /** The nodes that can be visited after each node without violating time window constraints, in increasing order */
+    private int[][]         mTWSuccessors;
+
+    /** The nodes that can be visited before each node without violating time window constraints, in increasing order */
+    private int[][]         mTWPredecessors;
 
     /**
      * Feasibility of an arc regarding time windows
@@ -413,35 +423,80 @@ public class TRSPInstance implements IInstance, vroom.optimization.online.jmsa.I
     public boolean isArcTWFeasible(int pred, int succ) {
         if (pred == ITRSPTour.UNDEFINED || succ == ITRSPTour.UNDEFINED)
             return true;
-        return mTWGraph[pred][succ];
+        return mTWGraph.get(pred, succ);
+    }
+
+    /**
+     * Returns the nodes that can be visited after {@code node} without violating time window constraints
+     * 
+     * @param node
+     *            the considered node
+     * @return the successors of {@code node} in the time window graph, in increasing order (the returned array is
+     *         shared and must not be modified)
+     * @see #isArcTWFeasible(int, int)
+     */
+    public int[] getTWSuccessors(int node) {
+        return mTWSuccessors[node];
+    }
+
+    /**
+     * Returns the nodes that can be visited before {@code node} without violating time window constraints
+     * 
+     * @param node
+     *            the considered node
+     * @return the predecessors of {@code node} in the time window graph, in increasing order (the returned array is
+     *         shared and must not be modified)
+     * @see #isArcTWFeasible(int, int)
+     */
+    public int[] getTWPredecessors(int node) {
+        return mTWPredecessors[node];
+    }
+
+    /**
+     * Stores in {@code dest} the nodes that are {@linkplain #isCompatible(int, int) compatible} with technician
+     * {@code tech} and can be visited after {@code node} without violating time window constraints.
+     * <p>
+     * The intersection is computed one 64-bit word at a time from the compatibility matrix and the time window graph.
+     * </p>
+     * 
+     * @param tech
+     *            the id of the considered technician
+     * @param node
+     *            the considered node
+     * @param dest
+     *            an array of length at least {@link #getMaxId()}
+     * @return the number of nodes stored in {@code dest}, in increasing order
+     */
+    public int getCompatibleTWSuccessors(int tech, int node, int[] dest) {
+        return mTechReqCompatibility.and(tech, mTWGraph, node, dest);
     }
 
     /**
      * A matrix representing the skill compatibility between technicians and requests for faster compatibility checks
-     * <code>mTechSkillCompatibility[k][i]=true</code> if technician k has the required skills to serve request i
+     * <code>mTechSkillCompatibility.get(k,i)=true</code> if technician k has the required skills to serve request i
      */
-    private final boolean[][]             mTechSkillCompatibility;
+    private final BitMatrix               mTechSkillCompatibility;
 
     /**
      * A matrix representing the tools compatibility between technicians and requests for faster compatibility checks
-     * <code>mTechSkillCompatibility[k][i]=true</code> if technician k initially has the required tools to serve request
+     * <code>mTechSkillCompatibility.get(k,i)=true</code> if technician k initially has the required tools to serve request
      * i
      */
-    private final boolean[][]             mTechToolCompatibility;
+    private final BitMatrix               mTechToolCompatibility;
 
     /**
      * A matrix representing the tools compatibility between technicians and requests for faster compatibility checks
-     * <code>mTechSkillCompatibility[k][i]=true</code> if technician k initially has the required spare parts to serve
+     * <code>mTechSkillCompatibility.get(k,i)=true</code> if technician k initially has the required spare parts to serve
      * request i
      */
-    private final boolean[][]             mTechSpareCompatibility;
+    private final BitMatrix               mTechSpareCompatibility;
 
     /**
      * A matrix representing the compatibilities between technicians and requests.
-     * <code>mTechReqCompatibility[k][i]=true</code> if k has the required skills to serve i within its time window. In
-     * other words, <code>mTechReqCompatibility[k][i]=true</code> iif there exist a feasible tour visiting i.
+     * <code>mTechReqCompatibility.get(k,i)=true</code> if k has the required skills to serve i within its time window. In
+     * other words, <code>mTechReqCompatibility.get(k,i)=true</code> iif there exist a feasible tour visiting i.
      */
-    private final boolean[][]             mTechReqCompatibility;
+    private final BitMatrix               mTechReqCompatibility;
 
     /**
      * A mapping between requests and technicians that have the required skills and can service the request with its
@@ -461,7 +516,7 @@ public class TRSPInstance implements IInstance, vroom.optimization.online.jmsa.I
      *         request <code>req</code>
      */
     public boolean isCompatible(int tech, int req) {
-        return mTechReqCompatibility[tech][req];
+        return mTechReqCompatibility.get(tech, req);
     }
 
     /**
@@ -473,7 +528,7 @@ public class TRSPInstance implements IInstance, vroom.optimization.online.jmsa.I
      *         <code>req</code>
      */
     public boolean hasRequiredSkills(int tech, int req) {
-        return mTechSkillCompatibility[tech][req];
+        return mTechSkillCompatibility.get(tech, req);
     }
 
     /**
@@ -485,7 +540,7 @@ public class TRSPInstance implements IInstance, vroom.optimization.online.jmsa.I
      *         <code>req</code>
      */
     public boolean hasRequiredTools(int tech, int req) {
-        return mTechToolCompatibility[tech][req];
+        return mTechToolCompatibility.get(tech, req);
     }
 
     /**
@@ -497,7 +552,7 @@ public class TRSPInstance implements IInstance, vroom.optimization.online.jmsa.I
      *         request <code>req</code>
      */
     public boolean hasRequiredSpareParts(int tech, int req) {
-        return mTechSpareCompatibility[tech][req];
+        return mTechSpareCompatibility.get(tech, req);
     }
 
     /**
@@ -793,10 +848,10 @@ public class TRSPInstance implements IInstance, vroom.optimization.online.jmsa.I
 
         mTechState = new boolean[getFleet().size()];
 
-        mTechSkillCompatibility = new boolean[getFleet().size()][mMaxId];
-        mTechToolCompatibility = new boolean[getFleet().size()][mMaxId];
-        mTechSpareCompatibility = new boolean[getFleet().size()][mMaxId];
-        mTechReqCompatibility = new boolean[getFleet().size()][mMaxId];
+        mTechSkillCompatibility = new BitMatrix(getFleet().size(), mMaxId);
+        mTechToolCompatibility = new BitMatrix(getFleet().size(), mMaxId);
+        mTechSpareCompatibility = new BitMatrix(getFleet().size(), mMaxId);
+        mTechReqCompatibility = new BitMatrix(getFleet().size(), mMaxId);
 
         // A list of all ids that were used
         Depot[] depotsArray = new Depot[depotCount];
@@ -854,7 +909,8 @@ public class TRSPInstance implements IInstance, vroom.optimization.online.jmsa.I
         }
 
         // Preprocess the instance and create the TW compatible graph
-        mTWGraph = new boolean[getMaxId()][getMaxId()];
+        mTWGraph = new BitMatrix(getMaxId(), getMaxId());
+        mTWGraphPred = new BitMatrix(getMaxId(), getMaxId());
         mCompatibleTech = new ArrayList<Set<Integer>>(getMaxId());
         for (int i = 0; i < getMaxId(); i++)
             mCompatibleTech.add(null);
@@ -890,15 +946,18 @@ public class TRSPInstance implements IInstance, vroom.optimization.online.jmsa.I
      */
     public List<TRSPRequest> preprocess() {
         ArrayList<TRSPRequest> infeasible = new ArrayList<>();
-        for (int i = 0; i < mTWGraph.length; i++) {
+        for (int i = 0; i < getMaxId(); i++) {
             // Prune infeasible arcs
-            for (int j = 0; j < mTWGraph.length; j++) {
-                if (i != j)
-                    mTWGraph[i][j] = getTimeWindow(j).isFeasible(
+            for (int j = 0; j < getMaxId(); j++) {
+                if (i != j) {
+                    boolean feasible = getTimeWindow(j).isFeasible(
                             getTimeWindow(i).startAsDouble()
                                     + getServiceTime(i)
                                     + getCostDelegate()
                                             .getTravelTime(i, j, getFleet().getVehicle()));
+                    mTWGraph.set(i, j, feasible);
+                    mTWGraphPred.set(j, i, feasible);
+                }
             }
 
             // Store request - technician compatibilities
@@ -907,31 +966,31 @@ public class TRSPInstance implements IInstance, vroom.optimization.online.jmsa.I
                 mCompatibleTech.set(i, new HashSet<Integer>());
 
             for (Technician t : getFleet()) {
-                mTechReqCompatibility[t.getID()][MAIN_DEPOT] = true;
-                mTechReqCompatibility[t.getID()][t.getHome().getID()] = true;
+                mTechReqCompatibility.set(t.getID(), MAIN_DEPOT, true);
+                mTechReqCompatibility.set(t.getID(), t.getHome().getID(), true);
 
                 if (!isRequest(i)) {
                     // i is not a request, it is therefore compatible with the
                     // technician
-                    mTechSkillCompatibility[t.getID()][i] = true;
-                    mTechToolCompatibility[t.getID()][i] = true;
-                    mTechSpareCompatibility[t.getID()][i] = true;
+                    mTechSkillCompatibility.set(t.getID(), i, true);
+                    mTechToolCompatibility.set(t.getID(), i, true);
+                    mTechSpareCompatibility.set(t.getID(), i, true);
                     atLeastOneTech = true;
                 } else {
                     // i is a request, store compatibilities
-                    mTechSkillCompatibility[t.getID()][i] = getRequest(i).getSkillSet()
-                            .isCompatibleWith(t.getSkillSet());
-                    mTechToolCompatibility[t.getID()][i] = getRequest(i).getToolSet()
-                            .isCompatibleWith(t.getToolSet());
-                    mTechSpareCompatibility[t.getID()][i] = Utilities.compare(getRequest(i)
-                            .getSparePartRequirements(), t.getSpareParts()) <= 0;
+                    mTechSkillCompatibility.set(t.getID(), i, getRequest(i).getSkillSet()
+                            .isCompatibleWith(t.getSkillSet()));
+                    mTechToolCompatibility.set(t.getID(), i, getRequest(i).getToolSet()
+                            .isCompatibleWith(t.getToolSet()));
+                    mTechSpareCompatibility.set(t.getID(), i, Utilities.compare(getRequest(i)
+                            .getSparePartRequirements(), t.getSpareParts()) <= 0);
 
                     // Check compatibility
-                    if (mTechSkillCompatibility[t.getID()][i]) {
+                    if (mTechSkillCompatibility.get(t.getID(), i)) {
                         double arrivalTime;
                         double returnTime;
-                        if (mTechToolCompatibility[t.getID()][i]
-                                && mTechSpareCompatibility[t.getID()][i]) {
+                        if (mTechToolCompatibility.get(t.getID(), i)
+                                && mTechSpareCompatibility.get(t.getID(), i)) {
                             // The technician can service the request directly
                             arrivalTime = calculateArrivalTime(i, t.getHome().getID(), t.getHome()
                                     .getTimeWindow().startAsDouble(), t.getID());
@@ -946,15 +1005,15 @@ public class TRSPInstance implements IInstance, vroom.optimization.online.jmsa.I
                         }
                         returnTime = calculateArrivalTime(t.getHome().getID(), i, arrivalTime,
                                 t.getID());
-                        mTechReqCompatibility[t.getID()][i] = //
-                        getTimeWindow(i).isFeasible(arrivalTime)
-                                && getTimeWindow(t.getHome().getID()).isFeasible(returnTime);
+                        mTechReqCompatibility.set(t.getID(), i, //
+                                getTimeWindow(i).isFeasible(arrivalTime)
+                                        && getTimeWindow(t.getHome().getID()).isFeasible(returnTime));
                     } else {
-                        mTechReqCompatibility[t.getID()][i] = false;
+                        mTechReqCompatibility.set(t.getID(), i, false);
                     }
 
                     // Check if the request can be serviced by the technician
-                    if (mTechReqCompatibility[t.getID()][i]) {
+                    if (mTechReqCompatibility.get(t.getID(), i)) {
                         atLeastOneTech = true;
                         mCompatibleTech.get(i).add(t.getID());
                     }
@@ -966,6 +1025,16 @@ public class TRSPInstance implements IInstance, vroom.optimization.online.jmsa.I
                 infeasible.add(getRequest(i));
             }
         }
+
+        // Store the adjacency lists of the TW graph
+        mTWSuccessors = new int[getMaxId()][];
+        mTWPredecessors = new int[getMaxId()][];
+        for (int i = 0; i < getMaxId(); i++) {
+            mTWSuccessors[i] = new int[mTWGraph.cardinality(i)];
+            mTWGraph.getRow(i, mTWSuccessors[i]);
+            mTWPredecessors[i] = new int[mTWGraphPred.cardinality(i)];
+            mTWGraphPred.getRow(i, mTWPredecessors[i]);
+        }
         return infeasible;
     }
 
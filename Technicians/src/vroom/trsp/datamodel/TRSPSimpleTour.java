@@ -2,7 +2,6 @@ package vroom.trsp.datamodel;
 
 import java.io.Serializable;
 import java.util.Arrays;
-import java.util.Iterator;
 import java.util.List;
 
 import vroom.common.utilities.Utilities;
@@ -40,11 +39,7 @@ public class TRSPSimpleTour extends TRSPTourBase implements Serializable {
      *            the value that {@link #hashCode()} will return
      */
     public TRSPSimpleTour(ITRSPTour tour, int hash) {
-        mNodes = new int[tour.length()];
-        int i = 0;
-        for (int node : tour) {
-            mNodes[i++] = node;
-        }
+        mNodes = tour.asArray();
         mTechnicianId = tour.getTechnicianId();
         mCost = tour.getTotalCost();
         mHash = tour.hashCode();
@@ -164,12 +159,10 @@ public class TRSPSimpleTour extends TRSPTourBase implements Serializable {
 
         sb.append(String.format("t:%s c:%.2f l:%s <", getTechnicianId(), getTotalCost(), length()));
 
-        Iterator<Integer> it = iterator();
-        while (it.hasNext()) {
-            int n = it.next();
-            sb.append(n);
-            if (it.hasNext())
+        for (int i = 0; i < mNodes.length; i++) {
+            if (i > 0)
                 sb.append(",");
+            sb.append(mNodes[i]);
         }
         sb.append(">");
 
@@ -182,12 +175,10 @@ public class TRSPSimpleTour extends TRSPTourBase implements Serializable {
 
         sb.append("<");
 
-        Iterator<Integer> it = iterator();
-        while (it.hasNext()) {
-            int n = it.next();
-            sb.append(n);
-            if (it.hasNext())
+        for (int i = 0; i < mNodes.length; i++) {
+            if (i > 0)
                 sb.append(",");
+            sb.append(mNodes[i]);
         }
         sb.append(">");
 
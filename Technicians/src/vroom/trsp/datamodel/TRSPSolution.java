@@ -96,9 +96,9 @@ public class TRSPSolution implements ISolution, Iterable<TRSPTour> {
         TRSPTour t = getTour(tour.getTechnicianId());
         TRSPSimpleTour prev = new TRSPSimpleTour(t);
         t.importTour(tour);
-        for (int i : prev)
+        for (int i : prev.asArray())
             markAsUnserved(i);
-        for (int i : tour)
+        for (int i = tour.getFirstNode(); i != ITRSPTour.UNDEFINED; i = tour.getSucc(i))
             markAsServed(i);
 
         return prev;
@@ -269,7 +269,7 @@ public class TRSPSolution implements ISolution, Iterable<TRSPTour> {
         int count = 0;
 
         for (TRSPTour t : this) {
-            for (int n : t) {
+            for (int n = t.getFirstNode(); n != ITRSPTour.UNDEFINED; n = t.getSucc(n)) {
                 if (getInstance().isRequest(n)) {
                     // This tour visits a request, it is not empty
                     count++;
@@ -506,12 +506,11 @@ public class TRSPSolution implements ISolution, Iterable<TRSPTour> {
         for (ITRSPTour tour : this) {
             if (sb.length() > 1)
                 sb.append("|");
-            int idx = 0;
-            for (int node : tour) {
-                if (idx > 0)
+            ITourIterator it = tour.iterator();
+            while (it.hasNext()) {
+                sb.append(it.nextInt());
+                if (it.hasNext())
                     sb.append(",");
-                sb.append(node);
-                idx++;
             }
         }
         sb.append(">");
@@ -63,8 +63,9 @@ public abstract class TRSPSolutionCheckerBase implements ISolutionChecker<TRSPSo
             if (solution.getInstance().getSimulator() == null
                     || !solution.getInstance().getSimulator().isRejected(r))
                 unservedRequests.add(r);
-        for (ITRSPTour tour : solution)
-            for (int node : tour) {
+        for (TRSPTour tour : solution)
+            for (int node = tour.getFirstNode(); node != ITRSPTour.UNDEFINED; node = tour
+                    .getSucc(node)) {
                 unservedRequests.remove(node);
             }
 
@@ -80,8 +81,9 @@ public abstract class TRSPSolutionCheckerBase implements ISolutionChecker<TRSPSo
         // ---------------------------------------------------------------
         // Check for doubly served requests
         IntegerSet servedRequests = new IntegerSet(solution.getInstance().getMaxId());
-        for (ITRSPTour tour : solution)
-            for (int node : tour) {
+        for (TRSPTour tour : solution)
+            for (int node = tour.getFirstNode(); node != ITRSPTour.UNDEFINED; node = tour
+                    .getSucc(node)) {
                 if (solution.getInstance().isRequest(node) && !servedRequests.add(node)) {
                     err.append(String.format("Request %s is served twice (second tour: %s)", node,
                             tour.getTechnicianId()));
@@ -171,10 +173,10 @@ public abstract class TRSPSolutionCheckerBase implements ISolutionChecker<TRSPSo
         double totalDist = 0;
         TRSPTourIterator it = tour.iterator();
 
-        ILocation pred = tour.getInstance().getNode(it.next()).getLocation();
+        ILocation pred = tour.getInstance().getNode(it.nextInt()).getLocation();
 
         while (it.hasNext()) {
-            ILocation node = tour.getInstance().getNode(it.next()).getLocation();
+            ILocation node = tour.getInstance().getNode(it.nextInt()).getLocation();
             double dist = Math.sqrt(Math.pow(pred.getX() - node.getX(), 2)
                     + Math.pow(pred.getY() - node.getY(), 2));
             if (precision >= 0)
@@ -202,11 +204,11 @@ public abstract class TRSPSolutionCheckerBase implements ISolutionChecker<TRSPSo
 
         TRSPTourIterator it = tour.iterator();
 
-        int pred = it.next();
+        int pred = it.nextInt();
         ILocation predNode = tour.getInstance().getNode(pred).getLocation();
 
         while (it.hasNext()) {
-            int n = it.next();
+            int n = it.nextInt();
             ILocation node = tour.getInstance().getNode(n).getLocation();
 
             // Travel time
@@ -262,9 +264,9 @@ public abstract class TRSPSolutionCheckerBase implements ISolutionChecker<TRSPSo
         if (j == i)
             return Double.POSITIVE_INFINITY;
         ITourIterator it = tour.iterator();
-        int k = it.next();
+        int k = it.nextInt();
         while (k != i)
-            k = it.next();
+            k = it.nextInt();
         return evaluateFwdSlackTime(tour, it, earlyDepi, i, j);
     }
 
@@ -278,7 +280,7 @@ public abstract class TRSPSolutionCheckerBase implements ISolutionChecker<TRSPSo
         int p = i;
         int q;
         do {
-            q = it.next();
+            q = it.nextInt();
 
             sumT += tour
                     .getInstance()
@@ -315,12 +317,12 @@ public abstract class TRSPSolutionCheckerBase implements ISolutionChecker<TRSPSo
                 .getTour(tour.getTechnicianId()).iterator();
 
         while (refIt.hasNext()) {
-            int refn = refIt.next();
+            int refn = refIt.nextInt();
             if (!tIt.hasNext()) {
                 append(sb, "%s:%s@%s", tour.getTechnicianId(), "null", refn);
                 break;
             }
-            int tn = tIt.next();
+            int tn = tIt.nextInt();
             if (tn != refn)
                 append(sb, "%s:%s@%s", tour.getTechnicianId(), tn, refn);
         }
@@ -0,0 +1,72 @@
+/**
+ * 
+ */
+package vroom.trsp.datamodel;
+
+import java.io.Serializable;
+
+import vroom.common.utilities.checkpoint.ICheckpointCodec;
+import vroom.trsp.datamodel.costDelegates.TRSPCostDelegate;
+
+/**
+ * <code>TRSPSolutionCodec</code> encodes a {@link TRSPSolution} as the sequence of nodes of each tour followed by the
+ * list of unserved requests.
+ * <p>
+ * Creation date: Oct 20, 2026 - 12:31:48 AM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class TRSPSolutionCodec implements ICheckpointCodec<TRSPSolution> {
+
+    private final TRSPInstance     mInstance;
+    private final TRSPCostDelegate mCostDelegate;
+
+    /**
+     * Creates a new <code>TRSPSolutionCodec</code>
+     * 
+     * @param instance
+     *            the instance of the decoded solutions
+     * @param costDelegate
+     *            the cost delegate used to evaluate decoded solutions
+     */
+    public TRSPSolutionCodec(TRSPInstance instance, TRSPCostDelegate costDelegate) {
+        mInstance = instance;
+        mCostDelegate = costDelegate;
+    }
+
+    @Override
+    public Serializable encode(TRSPSolution solution) {
+        int[][] data = new int[solution.getTourCount() + 1][];
+        for (int t = 0; t < solution.getTourCount(); t++)
+            data[t] = solution.getTour(t).asArray();
+        int[] unserved = new int[solution.getUnservedCount()];
+        int i = 0;
+        for (int r : solution.getUnservedRequests())
+            unserved[i++] = r;
+        data[data.length - 1] = unserved;
+        return data;
+    }
+
+    @Override
+    public TRSPSolution decode(Serializable data) {
+        int[][] tours = (int[][]) data;
+        TRSPSolution solution = new TRSPSolution(mInstance, mCostDelegate);
+        if (tours.length != solution.getTourCount() + 1)
+            throw new IllegalArgumentException(String.format("The encoded solution has %s tours instead of %s",
+                    tours.length - 1, solution.getTourCount()));
+        for (int t = 0; t < solution.getTourCount(); t++) {
+            TRSPTour tour = solution.getTour(t);
+            tour.setAutoUpdated(false);
+            tour.appendNodes(tours[t]);
+            tour.setAutoUpdated(true);
+        }
+        solution.markAllAsServed();
+        for (int r : tours[tours.length - 1])
+            solution.markAsUnserved(r);
+        mCostDelegate.evaluateSolution(solution, true, true);
+        return solution;
+    }
+}
@@ -3,9 +3,6 @@
  */
 package vroom.trsp.datamodel;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
@@ -497,7 +494,7 @@ public class TRSPTour extends TRSPTourBase {
         if (Utilities.compare(getRequiredSpareParts(getFirstNode()), getTechnicianSpareParts()) > 0) {
             return true;
         }
-        for (int node : this) {
+        for (int node = getFirstNode(); node != UNDEFINED; node = getSucc(node)) {
             if (!getInstance().hasRequiredTools(getTechnician().getID(), node))
                 return true;
         }
@@ -564,6 +561,18 @@ public class TRSPTour extends TRSPTourBase {
         }
     }
 
+    /**
+     * Append nodes.
+     * 
+     * @param nodes
+     *            the nodes
+     */
+    public void appendNodes(int... nodes) {
+        for (int n : nodes) {
+            appendNode(n);
+        }
+    }
+
     @Override
     public TRSPTour clone() {
         throw new UnsupportedOperationException("Can only clone an entire solution");
@@ -606,7 +615,9 @@ public class TRSPTour extends TRSPTourBase {
         setAutoUpdated(false);
         this.clear();
         final boolean importArrival = TRSPTour.class.isAssignableFrom(tour.getClass());
-        for (int i : tour) {
+        ITourIterator it = tour.iterator();
+        while (it.hasNext()) {
+            int i = it.nextInt();
             if (getSolution().getInstance().isMainDepot(i))
                 i = getMainDepotId();
             if (importArrival)
@@ -686,31 +697,31 @@ public class TRSPTour extends TRSPTourBase {
      * 
      * @param node
      *            the truncation point
-     * @return a list containing the removed nodes
+     * @return an array containing the removed nodes
      */
-    public List<Integer> truncate(int node) {
+    public int[] truncate(int node) {
         if (!isVisited(node) || getLastNode() == node)
-            return Collections.emptyList();
-
-        ArrayList<Integer> removedNodes = new ArrayList<>();
-        TRSPTourIterator it = iterator(node);
-        it.next();
-        while (it.hasNext()) {
-            int next = it.next();
-            if (next == getLastNode())
-                break;
-            removedNodes.add(next);
+            return new int[0];
+
+        int count = 0;
+        for (int next = getSucc(node); next != getLastNode(); next = getSucc(next))
+            count++;
+        int[] removedNodes = new int[count];
+        int next = getSucc(node);
+        for (int i = 0; i < count; i++) {
+            removedNodes[i] = next;
+            next = getSucc(next);
         }
 
         setSucc(node, getLastNode());
         setPred(getLastNode(), node);
 
-        this.mLength -= removedNodes.size();
+        this.mLength -= removedNodes.length;
 
         propagateUpdate(getLastNode(), node);
         getCostDelegate().evaluateTour(this, true);
 
-        for (Integer n : removedNodes)
+        for (int n : removedNodes)
             resetNodeData(n);
 
         return removedNodes;
@@ -720,8 +731,11 @@ public class TRSPTour extends TRSPTourBase {
      * Remove all nodes from this tour and reset all stored information
      */
     public void clear() {
-        for (int i : this) {
+        int i = getFirstNode();
+        while (i != UNDEFINED) {
+            int next = getSucc(i);
             resetNodeData(i);
+            i = next;
         }
         setFirst(UNDEFINED);
         setLast(UNDEFINED);
@@ -746,10 +760,10 @@ public class TRSPTour extends TRSPTourBase {
      *            the start
      * @param end
      *            the end
-     * @return the list
+     * @return the ids of the extracted nodes
      */
-    public List<Integer> extractSubtour(int start, int end) {
-        List<Integer> subtour = new ArrayList<Integer>(end - start + 1);
+    public int[] extractSubtour(int start, int end) {
+        int[] subtour = new int[end - start + 1];
 
         int node = getNodeAt(start);
         int pred = getPred(node);
@@ -758,7 +772,7 @@ public class TRSPTour extends TRSPTourBase {
         int index = start;
 
         while (index <= end) {
-            subtour.add(node);
+            subtour[index - start] = node;
             succ = getSucc(node);
             // Erase the node info
             resetNodeData(node);
@@ -883,22 +897,34 @@ public class TRSPTour extends TRSPTourBase {
      * @return true, if successful
      */
     public boolean insertNodes(int index, List<Integer> subtour) {
+        return insertNodes(index, Utilities.toIntArray(subtour));
+    }
+
+    /**
+     * Insert nodes.
+     * 
+     * @param index
+     *            the index
+     * @param subtour
+     *            the subtour
+     * @return true, if successful
+     */
+    public boolean insertNodes(int index, int[] subtour) {
 
-        if (subtour.isEmpty())
+        if (subtour.length == 0)
             return true;
 
         final int current = getNodeAt(index);
         final int predecessor = getPred(current);
 
-        Iterator<? extends Integer> it = subtour.iterator();
         int first = ITRSPTour.UNDEFINED, last = ITRSPTour.UNDEFINED;
-        int pred = it.next();
+        int pred = subtour[0];
         int succ = pred;
         first = pred;
-        while (it.hasNext()) {
+        for (int k = 1; k < subtour.length; k++) {
             checkNode(pred);
 
-            succ = it.next();
+            succ = subtour[k];
 
             setPred(succ, pred);
             setSucc(pred, succ);
@@ -916,7 +942,7 @@ public class TRSPTour extends TRSPTourBase {
         setSucc(last, current);
 
         // Update length
-        this.mLength += subtour.size();
+        this.mLength += subtour.length;
 
         propagateUpdate(predecessor, current);
         getCostDelegate().tourInserted(this, predecessor, subtour, current);
@@ -1177,6 +1203,17 @@ public class TRSPTour extends TRSPTourBase {
         return new TRSPTourIterator(nodeId);
     }
 
+    @Override
+    public boolean forEachNode(INodeProcedure procedure) {
+        int node = getFirstNode();
+        while (node != UNDEFINED) {
+            if (!procedure.execute(node))
+                return false;
+            node = getSucc(node);
+        }
+        return true;
+    }
+
     /**
      * Return the tour length, in number of visited nodes, including depots.
      * 
@@ -1316,7 +1353,7 @@ public class TRSPTour extends TRSPTourBase {
 
         // Update the waiting time of node and its successors
         while (it.hasNext()) {
-            i = it.next();
+            i = it.nextInt();
             // The waiting time at node is equal to max(0,tws[node] - early[node])
             setWaitingTime(i,
                     Math.max(0, getTimeWindow(i).startAsDouble() - getEarliestArrivalTime(i)));
@@ -1342,12 +1379,12 @@ public class TRSPTour extends TRSPTourBase {
 
                 TRSPTourIterator succ = iterator(startNode);
                 while (succ.hasNext()) {
-                    j = succ.next();
+                    j = succ.nextInt();
                     setWaitingTime(i, j, cumWait);
                     cumWait += getWaitingTime(j);
                 }
 
-                i = it.next();
+                i = it.nextInt();
             }
         }
     }
@@ -1449,7 +1486,7 @@ public class TRSPTour extends TRSPTourBase {
         boolean jumpToChanged = predNode != UNDEFINED;
         int predI = getFirstNode();
         while (outerIt.hasNext()) {
-            int i = outerIt.next();
+            int i = outerIt.nextInt();
 
             // We reached the changed node, inner loop will start at node succ[i]
             if (i == predNode)
@@ -1469,7 +1506,7 @@ public class TRSPTour extends TRSPTourBase {
             int j = getPred(firstInnerIt);
             double prevSlackTime = getFwdSlackTime(i, j);
             while (innerIt.hasNext()) {
-                int nextJ = innerIt.next(); // j+1
+                int nextJ = innerIt.nextInt(); // j+1
                 // We use the recurrence function
                 // F_i^(i..j+1) = min{F_i^(i...j}, b_{j+1} -t_{j+1} +\sum_{i<p<=j} W_p,)
                 prevSlackTime = Math.min(prevSlackTime,//
@@ -1645,7 +1682,7 @@ public class TRSPTour extends TRSPTourBase {
         TRSPTourIterator it = iterator();
         int[] spreq = new int[getTechnician().getCompartmentCount()];
         while (it.hasNext()) {
-            int n = it.next();
+            int n = it.nextInt();
             for (int s = 0; s < spreq.length; s++)
                 if (getInstance().isRequest(n))
                     spreq[s] += getInstance().getSparePartReq(n, s);
@@ -1669,7 +1706,7 @@ public class TRSPTour extends TRSPTourBase {
 
         TRSPTourIterator it = iterator();
         while (it.hasNext()) {
-            int n = it.next();
+            int n = it.nextInt();
             if (getInstance().isCVRPTW())
                 sb.append(String.format("%s {q:%s,tw:%s@%s}", n, //
                         Utilities.toShortString(getPermutation().getAvailableSpareParts(n)),//
@@ -1699,9 +1736,9 @@ public class TRSPTour extends TRSPTourBase {
 
         sb.append("<");
 
-        Iterator<Integer> it = iterator();
+        TRSPTourIterator it = iterator();
         while (it.hasNext()) {
-            int n = it.next();
+            int n = it.nextInt();
             sb.append(n);
             if (it.hasNext())
                 sb.append(",");
@@ -1914,6 +1951,11 @@ public class TRSPTour extends TRSPTourBase {
 
         @Override
         public Integer next() {
+            return nextInt();
+        }
+
+        @Override
+        public int nextInt() {
             if (hasNext()) {
                 cursor++;
                 int c = current;
@@ -1933,6 +1975,11 @@ public class TRSPTour extends TRSPTourBase {
 
         @Override
         public Integer previous() {
+            return previousInt();
+        }
+
+        @Override
+        public int previousInt() {
             if (hasPrevious()) {
                 cursor--;
                 int c = current;
@@ -1990,7 +2037,7 @@ public class TRSPTour extends TRSPTourBase {
         TRSPTourIterator tourIt = tour.iterator();
 
         while (thisIt.hasNext()) {
-            if (thisIt.next() != tourIt.next())
+            if (thisIt.nextInt() != tourIt.nextInt())
                 return false;
         }
 
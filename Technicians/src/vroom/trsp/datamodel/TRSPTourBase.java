@@ -5,7 +5,6 @@ package vroom.trsp.datamodel;
 
 import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
-import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -105,9 +104,9 @@ public abstract class TRSPTourBase implements ITRSPTour, IToShortString {
     public List<Integer> asList() {
         List<Integer> seq = new ArrayList<Integer>(length());
 
-        for (Integer i : this) {
-            seq.add(i);
-        }
+        ITourIterator it = iterator();
+        while (it.hasNext())
+            seq.add(it.nextInt());
 
         return seq;
     }
@@ -116,21 +115,31 @@ public abstract class TRSPTourBase implements ITRSPTour, IToShortString {
     public int[] asArray() {
         int[] seq = new int[length()];
         int idx = 0;
-        for (Integer i : this) {
-            seq[idx++] = i;
-        }
+        ITourIterator it = iterator();
+        while (it.hasNext())
+            seq[idx++] = it.nextInt();
         return seq;
     }
 
+    @Override
+    public boolean forEachNode(INodeProcedure procedure) {
+        ITourIterator it = iterator();
+        while (it.hasNext()) {
+            if (!procedure.execute(it.nextInt()))
+                return false;
+        }
+        return true;
+    }
+
     @Override
     public String getNodeSeqString() {
         StringBuilder sb = new StringBuilder(length() * 3);
 
         sb.append("<");
 
-        Iterator<Integer> it = iterator();
+        ITourIterator it = iterator();
         while (it.hasNext()) {
-            int n = it.next();
+            int n = it.nextInt();
             sb.append(n);
             if (it.hasNext())
                 sb.append(",");
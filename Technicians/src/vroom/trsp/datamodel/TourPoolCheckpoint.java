@@ -0,0 +1,129 @@
+/**
+ * 
+ */
+package vroom.trsp.datamodel;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <code>TourPoolCheckpoint</code> contains the tours of a {@link ITRSPTourPool}, it is used to save the tours collected
+ * during a run and add them back to a new pool when the run is resumed.
+ * <p>
+ * The name of the instance and the number of tours are saved along with the tours, they should be
+ * {@linkplain #check(TRSPInstance) checked} before resuming a run.
+ * </p>
+ * <p>
+ * Creation date: Oct 20, 2026 - 12:38:05 AM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class TourPoolCheckpoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String      mInstanceName;
+    private final int         mTourCount;
+    private final int[]       mTechnicians;
+    private final int[][]     mTours;
+    private final double[]    mCosts;
+
+    /**
+     * Creates a new <code>TourPoolCheckpoint</code>
+     * 
+     * @param pool
+     *            the pool containing the tours to be saved
+     * @param instance
+     *            the instance of the tours
+     */
+    public TourPoolCheckpoint(ITRSPTourPool pool, TRSPInstance instance) {
+        Collection<ITRSPTour> tours = pool.getAllTours();
+        mInstanceName = instance.getName();
+        mTourCount = tours.size();
+        mTechnicians = new int[tours.size()];
+        mTours = new int[tours.size()][];
+        mCosts = new double[tours.size()];
+        int i = 0;
+        for (ITRSPTour t : tours) {
+            mTechnicians[i] = t.getTechnicianId();
+            mTours[i] = t.asArray();
+            mCosts[i] = t.getTotalCost();
+            i++;
+        }
+    }
+
+    /**
+     * Returns the number of tours in this checkpoint
+     * 
+     * @return the number of tours in this checkpoint
+     */
+    public int size() {
+        return mTours.length;
+    }
+
+    /**
+     * Returns the name of the instance of the tours
+     * 
+     * @return the name of the instance of the tours
+     */
+    public String getInstanceName() {
+        return mInstanceName;
+    }
+
+    /**
+     * Check that this checkpoint is complete and that it can be restored for a given instance
+     * 
+     * @param instance
+     *            the instance of the run being resumed
+     * @return an empty string if this checkpoint can be restored, or a description of the problem
+     */
+    public String check(TRSPInstance instance) {
+        if (!instance.getName().equals(mInstanceName))
+            return String.format("instance %s instead of %s", mInstanceName, instance.getName());
+        if (mTours.length != mTourCount || mTechnicians.length != mTourCount || mCosts.length != mTourCount)
+            return String.format("%s tours instead of %s", mTours.length, mTourCount);
+        for (int i = 0; i < mTourCount; i++) {
+            if (mTechnicians[i] < 0 || mTechnicians[i] >= instance.getFleet().size())
+                return String.format("unknown technician %s in tour %s", mTechnicians[i], i);
+            for (int n : mTours[i])
+                if (n < 0 || n >= instance.getMaxId())
+                    return String.format("unknown node %s in tour %s", n, i);
+        }
+        return "";
+    }
+
+    /**
+     * Add the tours of this checkpoint to a pool
+     * 
+     * @param pool
+     *            the destination pool
+     * @param instance
+     *            the instance of the tours
+     * @return the number of tours added to {@code pool}
+     * @throws IllegalArgumentException
+     *             if this checkpoint does not pass the {@linkplain #check(TRSPInstance) check} for {@code instance}
+     */
+    public int restore(ITRSPTourPool pool, TRSPInstance instance) {
+        String err = check(instance);
+        if (!err.isEmpty())
+            throw new IllegalArgumentException("Invalid tour pool checkpoint: " + err);
+        List<ITRSPTour> tours = new ArrayList<ITRSPTour>(mTours.length);
+        for (int i = 0; i < mTours.length; i++) {
+            List<Integer> nodes = new ArrayList<Integer>(mTours[i].length);
+            for (int n : mTours[i])
+                nodes.add(n);
+            tours.add(new TRSPSimpleTour(mTechnicians[i], instance, nodes, mCosts[i], nodes.hashCode()));
+        }
+        return pool.add(tours);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TourPoolCheckpoint[%s, size:%s]", getInstanceName(), size());
+    }
+}
@@ -60,6 +60,23 @@ public class NoisyCostDelegate extends TRSPCostDelegate {
         return addNoise(mDelegate.evaluateInsMove(move));
     }
 
+    @Override
+    public int evaluateInsertions(TRSPTour tour, int node, double[] improvements) {
+        int count = mDelegate.evaluateInsertions(tour, node, improvements);
+        for (int k = 0; k < count; k++)
+            improvements[k] = addNoise(improvements[k]);
+        return count;
+    }
+
+    /**
+     * Returns <code>false</code>: a batch evaluation would draw noise for positions that a pruned search does not
+     * evaluate, and change the sequence of random numbers
+     */
+    @Override
+    public boolean isBatchInsertionSupported() {
+        return false;
+    }
+
     private double addNoise(double value) {
         // Make sure the returned value is of the same sign
         return value > 0 ? Math.max(0, value + (mRnd.nextDouble() - 0.5) * mMaxNoise) : Math.min(0,
@@ -3,12 +3,12 @@
  */
 package vroom.trsp.datamodel.costDelegates;
 
-import java.util.List;
 import java.util.ListIterator;
 
 import vroom.common.utilities.optimization.IMove;
 import vroom.trsp.datamodel.ITRSPTour;
 import vroom.trsp.datamodel.TRSPSolution;
+import vroom.trsp.datamodel.TRSPDistanceMatrix;
 import vroom.trsp.datamodel.TRSPTour;
 import vroom.trsp.optimization.InsertionMove;
 import vroom.trsp.optimization.RemoveMove;
@@ -220,7 +220,7 @@ public abstract class TRSPCostDelegate {
      * @param successor
      *            the successor, <code>null</code> if the modified tour was appended
      */
-    public void tourInserted(TRSPTour tour, int predecessor, List<Integer> insertedTour,
+    public void tourInserted(TRSPTour tour, int predecessor, int[] insertedTour,
             int successor) {
         if (tour.isAutoUpdated())
             evaluateTRSPTour(tour, predecessor, true);
@@ -319,7 +319,7 @@ public abstract class TRSPCostDelegate {
      * @param successor
      *            the successor, <code>null</code> if the last node was removed
      */
-    public void subtourRemoved(TRSPTour tour, int predecessor, List<Integer> removedTour,
+    public void subtourRemoved(TRSPTour tour, int predecessor, int[] removedTour,
             int successor) {
         if (tour.isAutoUpdated())
             evaluateTRSPTour(tour, predecessor, true);
@@ -393,6 +393,82 @@ public abstract class TRSPCostDelegate {
         return imp;
     }
 
+    /**
+     * Evaluates the {@linkplain IMove#getImprovement() improvement} of the insertion of a node at each position of a
+     * tour, without trip to the main depot.
+     * <p>
+     * The improvement of the insertion of {@code node} between the {@code k}-th and {@code (k+1)}-th nodes of
+     * {@code tour} is stored in {@code improvements[k]}, positions being ordered as in the tour. The default
+     * implementation evaluates an {@link InsertionMove} for each position, subclasses that can work directly on the
+     * tour sequence should override this method and {@link #isBatchInsertionSupported()}.
+     * </p>
+     * 
+     * @param tour
+     *            the tour in which {@code node} would be inserted
+     * @param node
+     *            the inserted node
+     * @param improvements
+     *            an array of length at least {@code tour.length()-1} in which improvements will be stored
+     * @return the number of evaluated positions
+     */
+    public int evaluateInsertions(TRSPTour tour, int node, double[] improvements) {
+        if (tour.length() < 2)
+            return 0;
+        int k = 0;
+        int pred = tour.getFirstNode();
+        for (int succ = tour.getSucc(pred); succ != ITRSPTour.UNDEFINED; succ = tour.getSucc(succ)) {
+            improvements[k++] = evaluateMove(new InsertionMove(node, tour, 0, pred, succ));
+            pred = succ;
+        }
+        return k;
+    }
+
+    /**
+     * Returns <code>true</code> if {@link #evaluateInsertions(TRSPTour, int, double[])} is faster than the
+     * evaluation of each insertion with {@link #evaluateMove(IMove)}, and returns the same values.
+     * 
+     * @return <code>true</code> if insertions should be evaluated in batch
+     */
+    public boolean isBatchInsertionSupported() {
+        return false;
+    }
+
+    /**
+     * Evaluate the insertion of a node between each pair of consecutive nodes of a tour, in fixed point.
+     * <p>
+     * Improvements are scaled by the {@linkplain TRSPDistanceMatrix#getFixedPointScale() fixed-point scale} of the
+     * distance matrix of the instance, so that callers can compare them exactly and only convert the selected one with
+     * {@link TRSPDistanceMatrix#fromFixedPoint(long)}. This method is only supported if
+     * {@link #isFixedPointBatchInsertionSupported(TRSPTour)} returns <code>true</code>.
+     * </p>
+     * 
+     * @param tour
+     *            the tour in which {@code node} would be inserted
+     * @param node
+     *            the inserted node
+     * @param improvements
+     *            an array of length at least {@code tour.length()-1} in which fixed-point improvements will be stored
+     * @return the number of evaluated positions
+     * @see #evaluateInsertions(TRSPTour, int, double[])
+     */
+    public int evaluateInsertions(TRSPTour tour, int node, long[] improvements) {
+        throw new UnsupportedOperationException(String.format(
+                "Fixed-point insertions are not supported by this cost delegate (%s)", this.getClass()
+                        .getSimpleName()));
+    }
+
+    /**
+     * Returns <code>true</code> if {@link #evaluateInsertions(TRSPTour, int, long[])} can be used to evaluate the
+     * insertions in {@code tour}
+     * 
+     * @param tour
+     *            the tour in which nodes would be inserted
+     * @return <code>true</code> if insertions in {@code tour} can be evaluated in batch and in fixed point
+     */
+    public boolean isFixedPointBatchInsertionSupported(TRSPTour tour) {
+        return false;
+    }
+
     /**
      * Evaluate a {@link RemoveMove}.
      * <p>
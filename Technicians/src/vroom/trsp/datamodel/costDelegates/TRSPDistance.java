@@ -14,6 +14,12 @@ import vroom.trsp.optimization.localSearch.TRSPTwoOpt.TRSPTwoOptMove;
  * <code>TRSPDistance</code> is an implementation of {@link TRSPCostDelegate} based on the traveled distance. It ignores
  * service times.
  * <p>
+ * If the distance matrix of the instance is {@linkplain TRSPDistanceMatrix#setFixedPoint(boolean) fixed-point}, costs
+ * are accumulated with <code>long</code> arithmetic and only converted to <code>double</code> when returned, so that
+ * equivalent moves have exactly the same cost and tour costs do not depend on the order of evaluation. Batch insertions
+ * can then also be {@linkplain #evaluateInsertions(TRSPTour, int, long[]) compared in fixed point}.
+ * </p>
+ * <p>
  * Creation date: Jun 6, 2011 - 4:46:03 PM
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
@@ -29,7 +35,7 @@ public class TRSPDistance extends TRSPCostDelegate {
     protected double evaluateTRSPTour(TRSPTour tour, int node, boolean updateTour) {
         if (tour.length() < 2) {
             if (updateTour) {
-                for (int i : tour) {
+                for (int i = tour.getFirstNode(); i != ITRSPTour.UNDEFINED; i = tour.getSucc(i)) {
                     tour.setCumulativeCost(i, 0);
                 }
                 tour.setTotalCost(0);
@@ -37,6 +43,10 @@ public class TRSPDistance extends TRSPCostDelegate {
             return 0;
         }
 
+        TRSPDistanceMatrix c = tour.getInstance().getCostDelegate();
+        if (c.isFixedPoint())
+            return evaluateTRSPTourFixed(tour, node, updateTour, c);
+
         // Cumulated distance
         double d = node != ITRSPTour.UNDEFINED ? tour.getCumulativeCost(node) : 0;
         // Iterator over the tour
@@ -48,12 +58,12 @@ public class TRSPDistance extends TRSPCostDelegate {
             return d;
         }
 
-        int pred = it.next();
+        int pred = it.nextInt();
         while (it.hasNext()) {
             if (updateTour)
                 tour.setCumulativeCost(pred, d);
-            int succ = it.next();
-            d += tour.getInstance().getCostDelegate().getDistance(pred, succ);
+            int succ = it.nextInt();
+            d += c.getDistance(pred, succ);
             pred = succ;
         }
         if (updateTour)
@@ -65,42 +75,93 @@ public class TRSPDistance extends TRSPCostDelegate {
         return d;
     }
 
+    /**
+     * Fixed-point version of {@link #evaluateTRSPTour(TRSPTour, int, boolean)}
+     */
+    private double evaluateTRSPTourFixed(TRSPTour tour, int node, boolean updateTour, TRSPDistanceMatrix c) {
+        // Cumulated distance
+        long d = node != ITRSPTour.UNDEFINED ? c.toFixedPoint(tour.getCumulativeCost(node)) : 0;
+        // Iterator over the tour
+        TRSPTourIterator it = node != ITRSPTour.UNDEFINED ? tour.iterator(node) : tour.iterator();
+
+        if (it.hasNext()) {
+            int pred = it.nextInt();
+            while (it.hasNext()) {
+                if (updateTour)
+                    tour.setCumulativeCost(pred, c.fromFixedPoint(d));
+                int succ = it.nextInt();
+                d += c.getFixedDistance(pred, succ);
+                pred = succ;
+            }
+            if (updateTour)
+                tour.setCumulativeCost(pred, c.fromFixedPoint(d));
+        }
+
+        double cost = c.fromFixedPoint(d);
+        if (updateTour)
+            tour.setTotalCost(cost);
+
+        return cost;
+    }
+
     @Override
     protected double evaluateGenericTour(ITRSPTour tour) {
         if (tour.length() == 0)
             return 0;
 
+        TRSPDistanceMatrix c = tour.getInstance().getCostDelegate();
         // Cumulated distance
         double dist = 0;
+        long fixedDist = 0;
         // Iterator over the tour
         ITourIterator it = tour.iterator();
 
-        int pred = it.next();
+        int pred = it.nextInt();
         while (it.hasNext()) {
-            int succ = it.next();
-            dist += tour.getInstance().getCostDelegate().getDistance(pred, succ);
+            int succ = it.nextInt();
+            if (c.isFixedPoint())
+                fixedDist += c.getFixedDistance(pred, succ);
+            else
+                dist += c.getDistance(pred, succ);
             pred = succ;
         }
-        return dist;
+        return c.isFixedPoint() ? c.fromFixedPoint(fixedDist) : dist;
     }
 
     @Override
     public double evaluateDetour(ITRSPTour tour, int i, int n, int j,
             boolean isRemoval) {
         TRSPDistanceMatrix c = tour.getInstance().getCostDelegate();
+        if (c.isFixedPoint())
+            return c.fromFixedPoint(c.getFixedDistance(i, n) + c.getFixedDistance(n, j)
+                    - c.getFixedDistance(i, j));
         return c.getDistance(i, n) + c.getDistance(n, j)
                 - c.getDistance(i, j);
     }
 
     @Override
     protected double evaluateRemMove(RemoveMove move) {
-        TRSPTour tour = (TRSPTour) move.getTour();
-        int node = move.getNodeId();
+        return evaluateRemoval((TRSPTour) move.getTour(), move.getNodeId());
+    }
+
+    /**
+     * Evaluate the removal of a node from a tour without creating a {@link RemoveMove}
+     * 
+     * @param tour
+     *            the tour containing {@code node}
+     * @param node
+     *            the node to be removed
+     * @return the evaluation of the equivalent {@link RemoveMove}
+     */
+    public double evaluateRemoval(TRSPTour tour, int node) {
         int pred = tour.getPred(node);
         int succ = tour.getSucc(node);
 
         TRSPDistanceMatrix c = tour.getInstance().getCostDelegate();
-        int imp = 0;
+        if (c.isFixedPoint())
+            return c.fromFixedPoint(fixedRemoval(c, pred, node, succ));
+
+        double imp = 0;
         // Node removal
         if (pred != ITRSPTour.UNDEFINED)
             imp += c.getDistance(pred, node);
@@ -123,6 +184,9 @@ public class TRSPDistance extends TRSPCostDelegate {
         int n = tour.getSucc(m);
 
         // We assume that the instance is symmetric
+        if (c.isFixedPoint())
+            return c.fromFixedPoint(c.getFixedDistance(i, j) + c.getFixedDistance(m, n)
+                    - c.getFixedDistance(i, m) - c.getFixedDistance(j, n));
         return c.getDistance(i, j) + c.getDistance(m, n) - c.getDistance(i, m)
                 - c.getDistance(j, n);
     }
@@ -144,6 +208,10 @@ public class TRSPDistance extends TRSPCostDelegate {
         int nodePred = tour.getPred(node);
         int nodeSucc = tour.getSucc(node);
 
+        if (c.isFixedPoint())
+            return c.fromFixedPoint(fixedRemoval(c, nodePred, node, nodeSucc)
+                    - fixedRemoval(c, insPred, node, insSucc));
+
         double imp = 0;
 
         // Node removal
@@ -183,6 +251,9 @@ public class TRSPDistance extends TRSPCostDelegate {
         else
             pred = tour.getPred(succ);
 
+        if (c.isFixedPoint())
+            return c.fromFixedPoint(fixedInsertion(c, tour, move, pred, node, succ));
+
         if (pred != ITRSPTour.UNDEFINED)
             imp -= c.getDistance(pred, node);
         if (succ != ITRSPTour.UNDEFINED)
@@ -203,6 +274,98 @@ public class TRSPDistance extends TRSPCostDelegate {
         return imp;
     }
 
+    /**
+     * Fixed-point improvement of the removal of {@code node} from between {@code pred} and {@code succ}, any of which
+     * can be {@link ITRSPTour#UNDEFINED}
+     */
+    private static long fixedRemoval(TRSPDistanceMatrix c, int pred, int node, int succ) {
+        long imp = 0;
+        if (pred != ITRSPTour.UNDEFINED)
+            imp += c.getFixedDistance(pred, node);
+        if (succ != ITRSPTour.UNDEFINED)
+            imp += c.getFixedDistance(node, succ);
+        if (pred != ITRSPTour.UNDEFINED && succ != ITRSPTour.UNDEFINED)
+            imp -= c.getFixedDistance(pred, succ);
+        return imp;
+    }
+
+    /**
+     * Fixed-point version of {@link #evaluateInsMove(InsertionMove)}
+     */
+    private static long fixedInsertion(TRSPDistanceMatrix c, TRSPTour tour, InsertionMove move, int pred,
+            int node, int succ) {
+        long imp = -fixedRemoval(c, pred, node, succ);
+
+        if (move.isDepotTrip()) {
+            int depSucc = move.getDepotSucc();
+            int depPred = depSucc != node ? tour.getPred(depSucc) : pred;
+
+            if (depPred != ITRSPTour.UNDEFINED)
+                imp -= c.getFixedDistance(depPred, tour.getMainDepotId());
+            imp -= c.getFixedDistance(tour.getMainDepotId(), depSucc);
+            imp += c.getFixedDistance(depPred, depSucc);
+        }
+
+        return imp;
+    }
+
+    @Override
+    public int evaluateInsertions(TRSPTour tour, int node, double[] improvements) {
+        if (tour.length() < 2)
+            return 0;
+
+        TRSPDistanceMatrix c = tour.getInstance().getCostDelegate();
+        if (c.isFixedPoint()) {
+            int k = 0;
+            int pred = tour.getFirstNode();
+            for (int succ = tour.getSucc(pred); succ != ITRSPTour.UNDEFINED; succ = tour.getSucc(succ)) {
+                improvements[k++] = c.fromFixedPoint(c.getFixedDistance(pred, succ) - c.getFixedDistance(pred, node)
+                        - c.getFixedDistance(node, succ));
+                pred = succ;
+            }
+            return k;
+        }
+
+        // Same arithmetic as evaluateInsMove, without allocating a move for each position
+        int k = 0;
+        int pred = tour.getFirstNode();
+        for (int succ = tour.getSucc(pred); succ != ITRSPTour.UNDEFINED; succ = tour.getSucc(succ)) {
+            double imp = 0;
+            imp -= c.getDistance(pred, node);
+            imp -= c.getDistance(node, succ);
+            imp += c.getDistance(pred, succ);
+            improvements[k++] = imp;
+            pred = succ;
+        }
+        return k;
+    }
+
+    @Override
+    public boolean isBatchInsertionSupported() {
+        return true;
+    }
+
+    @Override
+    public int evaluateInsertions(TRSPTour tour, int node, long[] improvements) {
+        if (tour.length() < 2)
+            return 0;
+
+        TRSPDistanceMatrix c = tour.getInstance().getCostDelegate();
+        int k = 0;
+        int pred = tour.getFirstNode();
+        for (int succ = tour.getSucc(pred); succ != ITRSPTour.UNDEFINED; succ = tour.getSucc(succ)) {
+            improvements[k++] = c.getFixedDistance(pred, succ) - c.getFixedDistance(pred, node)
+                    - c.getFixedDistance(node, succ);
+            pred = succ;
+        }
+        return k;
+    }
+
+    @Override
+    public boolean isFixedPointBatchInsertionSupported(TRSPTour tour) {
+        return tour.getInstance().getCostDelegate().isFixedPoint();
+    }
+
     @Override
     public boolean isInsertionSeqDependent() {
         return false;
@@ -179,6 +179,28 @@ public class TRSPTourBalance extends TRSPCostDelegate {
         }
     }
 
+    @Override
+    public int evaluateInsertions(TRSPTour tour, int node, double[] improvements) {
+        int count = mTourCostDelegate.evaluateInsertions(tour, node, improvements);
+        if (sPenaliseBalInInsertion && count > 0) {
+            // The costs of the other tours are the same for all positions
+            double[] costs = evaluateTours(tour.getSolution(), false, false);
+            double prev = evaluateFinalCost(costs);
+            int t = tour.getTechnicianId();
+            double cost = costs[t];
+            for (int k = 0; k < count; k++) {
+                costs[t] = cost + improvements[k];
+                improvements[k] = prev - evaluateFinalCost(costs);
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isBatchInsertionSupported() {
+        return mTourCostDelegate.isBatchInsertionSupported();
+    }
+
     @Override
     public String toString() {
         return String.format("%s (%s %s)", super.toString(), mMeasure, mTourCostDelegate.getClass()
@@ -85,9 +85,9 @@ public class TRSPWorkingTime extends TRSPCostDelegate {
         ITourIterator it = tour.iterator();
 
         // First node
-        int pred = it.next();
+        int pred = it.nextInt();
         while (it.hasNext()) {
-            int node = it.next();
+            int node = it.nextInt();
             // If time windows are enforced the vehicle has to wait until TW start
             if (pred != tour.getFirstNode())
                 wait += ins.getTimeWindow(pred).getWaiting(arrivalTime);
@@ -80,9 +80,9 @@ public class TRSPWorkingTimeNoDelay extends TRSPCostDelegate {
             return wt;
         }
         // First node
-        int pred = it.next();
+        int pred = it.nextInt();
         while (it.hasNext()) {
-            node = it.next();
+            node = it.nextInt();
             // If time windows are enforced the vehicle has to wait until TW start
             wt = tour.getTimeWindow(pred).getEarliestStartOfService(wt);
             // Add the service time of predecessor
@@ -119,9 +119,9 @@ public class TRSPWorkingTimeNoDelay extends TRSPCostDelegate {
         ITourIterator it = tour.iterator();
 
         // First node
-        int pred = it.next();
+        int pred = it.nextInt();
         while (it.hasNext()) {
-            int node = it.next();
+            int node = it.nextInt();
             // If time windows are enforced the vehicle has to wait until TW start
             wt = ins.getTimeWindow(pred).getEarliestStartOfService(wt);
             // Add the service time of predecessor
@@ -171,10 +171,10 @@ public class TRSPWorkingTimeNoDelay extends TRSPCostDelegate {
 
                 // Evaluate the arrival time up to the predecessor
                 tourIt = itour.iterator();
-                int pred = tourIt.next();
+                int pred = tourIt.nextInt();
                 int n = ITRSPTour.UNDEFINED;
                 while (tourIt.hasNext() && n != predecessor) {
-                    n = tourIt.next();
+                    n = tourIt.nextInt();
                     arrivalTimeAtPred = itour.getInstance().calculateArrivalTime(n, pred,
                             arrivalTimeAtPred, itour.getTechnicianId());
                     pred = n;
@@ -204,13 +204,13 @@ public class TRSPWorkingTimeNoDelay extends TRSPCostDelegate {
                             - ((TRSPTour) itour).getWaitingTime(predecessor, itour.getLastNode()));
         } else {
             // Evaluate the arrival time at the last node
-            int pred = tourIt.next();// Will return "successor" as we stopped at "predecessor"
+            int pred = tourIt.nextInt();// Will return "successor" as we stopped at "predecessor"
             int n = ITRSPTour.UNDEFINED;
             double detourArrivalTimeAtLast = detourArrivalTimeSucc;
             double directArrivalTimeAtLast = itour.getInstance().calculateArrivalTime(successor,
                     predecessor, arrivalTimeAtPred, itour.getTechnicianId());
             while (tourIt.hasNext()) {
-                n = tourIt.next();
+                n = tourIt.nextInt();
                 detourArrivalTimeAtLast = itour.getInstance().calculateArrivalTime(n, pred,
                         detourArrivalTimeAtLast, itour.getTechnicianId());
                 directArrivalTimeAtLast = itour.getInstance().calculateArrivalTime(n, pred,
@@ -249,10 +249,10 @@ public class TRSPWorkingTimeNoDelay extends TRSPCostDelegate {
                 } else {
                     // The trip to the depot is inserted before the new request
                     TRSPTourIterator it = tour.iterator(move.getDepotSucc());
-                    int next = it.next();
+                    int next = it.nextInt();
                     while (next != move.getInsertionSucc() && it.hasNext()) {
                         changedSequence.add(next);
-                        next = it.next();
+                        next = it.nextInt();
                     }
                     // The trip to the depot immediately precedes the new request
                     changedSequence.add(move.getNodeId());
@@ -261,7 +261,7 @@ public class TRSPWorkingTimeNoDelay extends TRSPCostDelegate {
                 // Add the rest of the route
                 TRSPTourIterator it = tour.iterator(move.getInsertionSucc());
                 while (it.hasNext()) {
-                    changedSequence.add(it.next());
+                    changedSequence.add(it.nextInt());
                 }
                 // Earliest arrival time at the depot
                 double arrivalTime = tour.getEarliestDepartureTime(pred)
@@ -364,9 +364,9 @@ public class TRSPWorkingTimeNoDelay extends TRSPCostDelegate {
         double time = tour.getEarliestArrivalTime(move.getFirst());
 
         TRSPTourIterator it = tour.iterator(move.getFirst());
-        int pred = it.next();
+        int pred = it.nextInt();
         while (pred != n && it.hasNext()) {
-            int node = it.next();
+            int node = it.nextInt();
             // Update the arrival time
             time = tour.getTimeWindow(pred).getEarliestStartOfService(time)
                     + tour.getServiceTime(pred) + tour.getTravelTime(pred, node);
@@ -375,9 +375,9 @@ public class TRSPWorkingTimeNoDelay extends TRSPCostDelegate {
 
         it = tour.iterator(n);
         // Skip the first node (n)
-        it.next();
+        it.nextInt();
         while (it.hasNext()) {
-            int node = it.next();
+            int node = it.nextInt();
             // Update the arrival time
             time = tour.getTimeWindow(pred).getEarliestStartOfService(time)
                     + tour.getServiceTime(pred) + tour.getTravelTime(pred, node);
@@ -400,7 +400,7 @@ public class TRSPWorkingTimeNoDelay extends TRSPCostDelegate {
         double time = tour.getEarliestDepartureTime(pred);
         TRSPTourIterator it = tour.iterator(tour.getSucc(move.getNodeId()));
         while (it.hasNext()) {
-            int node = it.next();
+            int node = it.nextInt();
             // Add the travel time
             time += tour.getTravelTime(pred, node);
             // Consider possible waiting time and service time
@@ -0,0 +1,542 @@
+/**
+ *
+ */
+package vroom.trsp.io;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import vroom.common.modeling.dataModel.Depot;
+import vroom.common.modeling.dataModel.Node;
+import vroom.common.modeling.dataModel.attributes.ILocation;
+import vroom.common.modeling.dataModel.attributes.ITimeWindow;
+import vroom.common.modeling.dataModel.attributes.NodeAttributeKey;
+import vroom.common.modeling.dataModel.attributes.PointLocation;
+import vroom.common.modeling.dataModel.attributes.ReleaseDate;
+import vroom.common.modeling.dataModel.attributes.RequestAttributeKey;
+import vroom.common.modeling.dataModel.attributes.SimpleTimeWindow;
+import vroom.common.utilities.GeoTools.CoordinateSytem;
+import vroom.trsp.datamodel.TRSPDistTimeMatrix;
+import vroom.trsp.datamodel.TRSPInstance;
+import vroom.trsp.datamodel.TRSPRequest;
+import vroom.trsp.datamodel.TRSPSolution;
+import vroom.trsp.datamodel.TRSPTour;
+import vroom.trsp.datamodel.Technician;
+import vroom.trsp.datamodel.costDelegates.TRSPCostDelegate;
+
+/**
+ * The class <code>TRSPBinaryPersistenceHelper</code> reads and writes {@link TRSPInstance instances} (and optionally a
+ * {@link TRSPSolution solution}) in a compact, versioned, little-endian binary format.
+ * <p>
+ * Files are loaded through a read-only memory mapping, which avoids the line parsing of the text formats and makes it
+ * cheap to reload the same instance many times, for instance by converting text instances once before a batch run.
+ * </p>
+ * <p>
+ * Layout (all values little-endian):
+ *
+ * <pre>
+ * header:      int magic, short version, short flags, long solution offset (0 if none)
+ * info:        string name, int skills, int tools, int spare parts, byte main depot trips, double max tour duration
+ * depots:      int count, {int id, location, double tw start, double tw end}*
+ * technicians: int count, {int id, int home, double fixed cost, double var cost, double speed,
+ *                          int[] skills, int[] tools, int[spare parts] spare}*
+ * requests:    int count, {int id, location, double tw start, double tw end, double service, double release date,
+ *                          int[] skills, int[] tools, int[spare parts] spare}*
+ * matrix:      (if FLAG_MATRIX) int size, double[size*size] distances, double[size*size] times
+ * solution:    (if FLAG_SOLUTION) int tours, {int technician, int[] nodes}*, int[] unserved
+ * </pre>
+ *
+ * where a <code>string</code> is an int length followed by UTF-8 bytes, an <code>int[]</code> an int length followed
+ * by the values, and a <code>location</code> a byte coordinate system followed by two doubles.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 10:12:31 AM
+ *
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class TRSPBinaryPersistenceHelper implements ITRSPPersistenceHelper {
+
+    /** The default extension of binary snapshots */
+    public static final String EXTENSION     = ".trspb";
+
+    /** The magic number at the beginning of each file ("TRSB") */
+    public static final int    MAGIC         = 0x42535254;
+    /** The current version of the format */
+    public static final short  VERSION       = 1;
+
+    /** Flag set for CVRPTW instances */
+    public static final short  FLAG_CVRPTW   = 1;
+    /** Flag set when the distance and time matrices are stored */
+    public static final short  FLAG_MATRIX   = 2;
+    /** Flag set when a solution is stored */
+    public static final short  FLAG_SOLUTION = 4;
+
+    /** The size of the header in bytes */
+    private static final int   HEADER_SIZE   = 16;
+    /** The maximum size of a snapshot in bytes */
+    private static final long  MAX_SIZE      = Integer.MAX_VALUE - 8;
+
+    /** {@code true} if the distance and time matrices should be written **/
+    private boolean            mWriteMatrix;
+
+    /**
+     * Creates a new <code>TRSPBinaryPersistenceHelper</code> that will write distance matrices when the instance cost
+     * delegate is a {@link TRSPDistTimeMatrix}
+     */
+    public TRSPBinaryPersistenceHelper() {
+        mWriteMatrix = true;
+    }
+
+    /**
+     * Getter for the matrix flag
+     *
+     * @return {@code true} if explicit distance and time matrices are written
+     */
+    public boolean isWriteMatrix() {
+        return mWriteMatrix;
+    }
+
+    /**
+     * Setter for the matrix flag
+     * <p>
+     * Note that matrices are only written for instances with a {@link TRSPDistTimeMatrix} cost delegate, otherwise
+     * distances are recomputed from the node locations when reading.
+     * </p>
+     *
+     * @param writeMatrix
+     *            {@code true} if explicit distance and time matrices should be written
+     */
+    public void setWriteMatrix(boolean writeMatrix) {
+        mWriteMatrix = writeMatrix;
+    }
+
+    /**
+     * Reads an instance from a binary snapshot
+     * <p>
+     * The {@code cvrptw} flag is stored in the file, {@code  params} are therefore ignored
+     * </p>
+     */
+    @Override
+    public TRSPInstance readInstance(File file, Object... params) throws IOException {
+        ByteBuffer buffer = map(file);
+        short flags = readHeader(buffer, file);
+        return readInstance(buffer, flags);
+    }
+
+    /**
+     * Reads the solution stored in a binary snapshot
+     *
+     * @param instance
+     *            the instance, previously read from the same {@code  file}
+     * @param file
+     *            the snapshot file
+     * @param costDelegate
+     *            the cost delegate for the new solution
+     * @return the solution stored in {@code  file}, or {@code  null} if it does not contain any solution
+     * @throws IOException
+     */
+    public TRSPSolution readSolution(TRSPInstance instance, File file, TRSPCostDelegate costDelegate)
+            throws IOException {
+        ByteBuffer buffer = map(file);
+        short flags = readHeader(buffer, file);
+        long offset = buffer.getLong();
+        if ((flags & FLAG_SOLUTION) == 0)
+            return null;
+
+        buffer.position((int) offset);
+
+        TRSPSolution solution = new TRSPSolution(instance, costDelegate);
+        int tourCount = buffer.getInt();
+        for (int t = 0; t < tourCount; t++) {
+            TRSPTour tour = solution.getTour(buffer.getInt());
+            int[] nodes = readIntArray(buffer);
+            for (int n : nodes) {
+                tour.appendNode(n);
+            }
+        }
+        solution.markAllAsServed();
+        for (int r : readIntArray(buffer))
+            solution.markAsUnserved(r);
+
+        return solution;
+    }
+
+    @Override
+    public boolean writeInstance(TRSPInstance instance, File file) throws IOException {
+        return writeSnapshot(instance, null, file);
+    }
+
+    /**
+     * Writes an instance and a solution in a binary snapshot
+     *
+     * @param instance
+     *            the instance to be written
+     * @param solution
+     *            the solution to be written, can be {@code  null}
+     * @param file
+     *            the destination file
+     * @return {@code true} if the snapshot was written
+     * @throws IOException
+     */
+    public boolean writeSnapshot(TRSPInstance instance, TRSPSolution solution, File file)
+            throws IOException {
+        boolean matrix = isWriteMatrix() && instance.getCostDelegate() instanceof TRSPDistTimeMatrix;
+
+        short flags = 0;
+        if (instance.isCVRPTW())
+            flags |= FLAG_CVRPTW;
+        if (matrix)
+            flags |= FLAG_MATRIX;
+        if (solution != null)
+            flags |= FLAG_SOLUTION;
+
+        int size = instance.getMaxId();
+        // Initial estimate for the nodes only, the buffer grows when the matrices are written
+        Output out = new Output((int) Math.min(MAX_SIZE, HEADER_SIZE + 128L * size));
+
+        // Header (the solution offset is patched afterwards)
+        out.ensure(HEADER_SIZE);
+        out.mBuffer.putInt(MAGIC).putShort(VERSION).putShort(flags).putLong(0);
+
+        // Info
+        out.putString(instance.getName());
+        out.putInt(instance.getSkillCount());
+        out.putInt(instance.getToolCount());
+        out.putInt(instance.getSpareCount());
+        out.ensure(9);
+        out.mBuffer.put((byte) (instance.isMainDepotTripAllowed() ? 1 : 0));
+        out.mBuffer.putDouble(instance.getMaxTourDuration());
+
+        // Depots
+        out.putInt(instance.getDepotCount());
+        for (Depot d : instance.getDepots()) {
+            out.putInt(d.getID());
+            out.putLocation(d.getLocation());
+            out.putTimeWindow(d.getTimeWindow());
+        }
+
+        // Technicians
+        out.putInt(instance.getFleet().size());
+        for (Technician t : instance.getFleet()) {
+            out.putInt(t.getID());
+            out.putInt(t.getHome().getID());
+            out.ensure(24);
+            out.mBuffer.putDouble(t.getFixedCost());
+            out.mBuffer.putDouble(t.getVariableCost());
+            out.mBuffer.putDouble(t.getSpeed());
+            out.putIntArray(toArray(t.getSkillSet().toList()));
+            out.putIntArray(toArray(t.getToolSet().toList()));
+            out.putFixedIntArray(t.getSpareParts(), instance.getSpareCount());
+        }
+
+        // Requests
+        out.putInt(instance.getRequestCount());
+        for (TRSPRequest r : instance.getRequests()) {
+            out.putInt(r.getID());
+            out.putLocation(r.getNode().getLocation());
+            out.putTimeWindow(r.getTimeWindow());
+            out.ensure(16);
+            out.mBuffer.putDouble(r.getServiceTime());
+            out.mBuffer.putDouble(r.getAttribute(RequestAttributeKey.RELEASE_DATE) != null ? r
+                    .getReleaseDate() : Double.NaN);
+            out.putIntArray(toArray(r.getSkillSet().toList()));
+            out.putIntArray(toArray(r.getToolSet().toList()));
+            out.putFixedIntArray(r.getSparePartRequirements(), instance.getSpareCount());
+        }
+
+        // Distance and time matrices
+        if (matrix) {
+            TRSPDistTimeMatrix cd = (TRSPDistTimeMatrix) instance.getCostDelegate();
+            out.putInt(size);
+            long matrixSize = 16L * size * size;
+            if (out.mBuffer.position() + matrixSize > MAX_SIZE)
+                throw new IOException(String.format(
+                        "The matrices of instance %s (%s nodes) do not fit in a binary snapshot, disable them with "
+                                + "setWriteMatrix(false)", instance.getName(), size));
+            for (int i = 0; i < size; i++) {
+                out.ensure(8 * size);
+                for (int j = 0; j < size; j++)
+                    out.mBuffer.putDouble(cd.getDistance(i, j));
+            }
+            for (int i = 0; i < size; i++) {
+                out.ensure(8 * size);
+                for (int j = 0; j < size; j++)
+                    out.mBuffer.putDouble(cd.getTravelTime(i, j, null));
+            }
+        }
+
+        // Solution
+        if (solution != null) {
+            out.mBuffer.putLong(8, out.mBuffer.position());
+            out.putInt(solution.getTourCount());
+            for (TRSPTour tour : solution) {
+                out.putInt(tour.getTechnicianId());
+                out.putIntArray(tour.asArray());
+            }
+            out.putIntArray(toArray(solution.getUnservedRequests()));
+        }
+
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        out.mBuffer.flip();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.mBuffer.hasRemaining())
+                channel.write(out.mBuffer);
+        }
+
+        return true;
+    }
+
+    /**
+     * Map a file in memory
+     *
+     * @param file
+     * @return a read-only little-endian buffer mapping {@code  file}
+     * @throws IOException
+     */
+    private static ByteBuffer map(File file) throws IOException {
+        if (!file.exists())
+            throw new FileNotFoundException("Instance file " + file.getPath() + " does not exist");
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    /**
+     * Read and check the header of a snapshot, the buffer is left positioned on the solution offset
+     *
+     * @param buffer
+     * @param file
+     * @return the flags of the snapshot
+     * @throws IOException
+     *             if the file is not a valid snapshot
+     */
+    private static short readHeader(ByteBuffer buffer, File file) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC)
+            throw new IOException("Not a TRSP binary snapshot: " + file);
+        short version = buffer.getShort();
+        if (version > VERSION)
+            throw new IOException(String.format("Unsupported snapshot version %s (max:%s): %s",
+                    version, VERSION, file));
+        return buffer.getShort();
+    }
+
+    /**
+     * Reads an instance from a buffer positioned after the snapshot flags
+     *
+     * @param buffer
+     * @param flags
+     * @return the instance read
+     * @throws IOException
+     *             if the depot ids are not <code>0..depotCount-1</code>
+     */
+    private static TRSPInstance readInstance(ByteBuffer buffer, short flags) throws IOException {
+        // Skip the solution offset
+        buffer.getLong();
+
+        // Info
+        String name = readString(buffer);
+        int skillCount = buffer.getInt();
+        int toolCount = buffer.getInt();
+        int spareCount = buffer.getInt();
+        boolean mainDepotTrip = buffer.get() != 0;
+        double maxTourDuration = buffer.getDouble();
+
+        // Depots: TRSPInstance requires the depot ids to be 0..depotCount-1
+        int depotCount = buffer.getInt();
+        Depot[] depots = new Depot[depotCount];
+        for (int d = 0; d < depotCount; d++) {
+            int id = buffer.getInt();
+            if (id < 0 || id >= depotCount || depots[id] != null)
+                throw new IOException(String.format("Invalid or duplicate depot id %s (depots:%s) in snapshot %s",
+                        id, depotCount, name));
+            Depot depot = new Depot(id, readLocation(buffer));
+            depot.setAttribute(NodeAttributeKey.TIME_WINDOW, readTimeWindow(buffer));
+            depots[id] = depot;
+        }
+
+        // Technicians
+        int techCount = buffer.getInt();
+        List<Technician> technicians = new ArrayList<>(techCount);
+        for (int t = 0; t < techCount; t++) {
+            int id = buffer.getInt();
+            int homeId = buffer.getInt();
+            if (homeId < 0 || homeId >= depotCount)
+                throw new IOException(String.format("Invalid home depot %s for technician %s in snapshot %s",
+                        homeId, id, name));
+            Depot home = depots[homeId];
+            double fixedCost = buffer.getDouble();
+            double varCost = buffer.getDouble();
+            double speed = buffer.getDouble();
+            int[] skills = readIntArray(buffer);
+            int[] tools = readIntArray(buffer);
+            int[] spare = readFixedIntArray(buffer, spareCount);
+            technicians.add(new Technician(id, "tech-" + id, fixedCost, varCost, speed, skills,
+                    tools, spare, home));
+        }
+
+        // Requests
+        int reqCount = buffer.getInt();
+        List<TRSPRequest> requests = new ArrayList<>(reqCount);
+        for (int r = 0; r < reqCount; r++) {
+            int id = buffer.getInt();
+            ILocation location = readLocation(buffer);
+            ITimeWindow tw = readTimeWindow(buffer);
+            double service = buffer.getDouble();
+            double releaseDate = buffer.getDouble();
+            int[] skills = readIntArray(buffer);
+            int[] tools = readIntArray(buffer);
+            int[] spare = readFixedIntArray(buffer, spareCount);
+            TRSPRequest req = new TRSPRequest(id, new Node(id, location), skills, tools, spare, tw,
+                    service);
+            if (!Double.isNaN(releaseDate))
+                req.setAttribute(RequestAttributeKey.RELEASE_DATE, new ReleaseDate(releaseDate));
+            requests.add(req);
+        }
+
+        List<Depot> depotList = new ArrayList<>(depotCount);
+        for (Depot d : depots)
+            depotList.add(d);
+        TRSPInstance instance = new TRSPInstance(name, technicians, skillCount, toolCount,
+                spareCount, depotList, requests, (flags & FLAG_CVRPTW) != 0);
+        instance.setMainDepotTripAllowed(mainDepotTrip);
+        instance.setMaxTourDuration(maxTourDuration);
+
+        // Distance and time matrices
+        if ((flags & FLAG_MATRIX) != 0) {
+            int size = buffer.getInt();
+            double[][][] distTimeMatrix = new double[2][size][size];
+            for (int m = 0; m < 2; m++) {
+                for (int i = 0; i < size; i++) {
+                    // Bulk copy of a row from the mapped buffer
+                    buffer.asDoubleBuffer().get(distTimeMatrix[m][i]);
+                    buffer.position(buffer.position() + 8 * size);
+                }
+            }
+            instance.setCostDelegate(new TRSPDistTimeMatrix(instance, distTimeMatrix));
+        }
+
+        return instance;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int[] readIntArray(ByteBuffer buffer) {
+        return readFixedIntArray(buffer, buffer.getInt());
+    }
+
+    private static int[] readFixedIntArray(ByteBuffer buffer, int length) {
+        int[] array = new int[length];
+        buffer.asIntBuffer().get(array);
+        buffer.position(buffer.position() + 4 * length);
+        return array;
+    }
+
+    private static ILocation readLocation(ByteBuffer buffer) {
+        CoordinateSytem cs = CoordinateSytem.values()[buffer.get()];
+        return new PointLocation(cs, buffer.getDouble(), buffer.getDouble());
+    }
+
+    private static ITimeWindow readTimeWindow(ByteBuffer buffer) {
+        return new SimpleTimeWindow(buffer.getDouble(), buffer.getDouble());
+    }
+
+    private static int[] toArray(Iterable<Integer> values) {
+        int count = 0;
+        for (@SuppressWarnings("unused")
+        int v : values)
+            count++;
+        int[] array = new int[count];
+        int i = 0;
+        for (int v : values)
+            array[i++] = v;
+        return array;
+    }
+
+    /**
+     * The class <code>Output</code> is a growable little-endian buffer used to write snapshots
+     */
+    private static class Output {
+        private ByteBuffer mBuffer;
+
+        private Output(int initialCapacity) {
+            mBuffer = ByteBuffer.allocate(initialCapacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Ensure that at least {@code  bytes} can be written in the buffer
+         *
+         * @param bytes
+         * @throws IOException
+         *             if the buffer cannot grow to the required size
+         */
+        private void ensure(int bytes) throws IOException {
+            if (mBuffer.remaining() < bytes) {
+                long required = (long) mBuffer.position() + bytes;
+                if (required > MAX_SIZE)
+                    throw new IOException(String.format("Snapshot size exceeds the maximum of %s bytes", MAX_SIZE));
+                ByteBuffer b = ByteBuffer.allocate(
+                        (int) Math.min(MAX_SIZE, Math.max(2L * mBuffer.capacity(), required))).order(
+                        ByteOrder.LITTLE_ENDIAN);
+                mBuffer.flip();
+                b.put(mBuffer);
+                mBuffer = b;
+            }
+        }
+
+        private void putInt(int value) throws IOException {
+            ensure(4);
+            mBuffer.putInt(value);
+        }
+
+        private void putString(String value) throws IOException {
+            byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            putInt(bytes.length);
+            ensure(bytes.length);
+            mBuffer.put(bytes);
+        }
+
+        private void putIntArray(int[] values) throws IOException {
+            putInt(values.length);
+            putFixedIntArray(values, values.length);
+        }
+
+        private void putFixedIntArray(int[] values, int length) throws IOException {
+            ensure(4 * length);
+            for (int i = 0; i < length; i++)
+                mBuffer.putInt(i < values.length ? values[i] : 0);
+        }
+
+        private void putLocation(ILocation location) throws IOException {
+            ensure(17);
+            mBuffer.put((byte) location.getCoordinateSystem().ordinal());
+            mBuffer.putDouble(location.getX());
+            mBuffer.putDouble(location.getY());
+        }
+
+        private void putTimeWindow(ITimeWindow tw) throws IOException {
+            ensure(16);
+            mBuffer.putDouble(tw.startAsDouble());
+            mBuffer.putDouble(tw.endAsDouble());
+        }
+    }
+}
@@ -1,15 +1,12 @@
 package vroom.trsp.io;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
@@ -34,6 +31,7 @@ import org.vrprep.model.instance.Instance.Resources.Resource;
 import org.vrprep.model.instance.ObjectFactory;
 import org.xml.sax.SAXException;
 
+import vroom.common.modeling.vrprep.VRPRepJAXBUtilities;
 import vroom.common.utilities.Utilities;
 import vroom.common.utilities.logging.LoggerHelper;
 import vroom.trsp.datamodel.ITRSPNode;
@@ -44,6 +42,29 @@ import vroom.trsp.util.TRSPLogging;
 
 public class TRSPVRPRepConverterV030 {
 
+    /** the shared JAXB context, lazily initialized */
+    private static JAXBContext sContext;
+    /** the shared validation schema, lazily initialized */
+    private static Schema      sSchema;
+
+    /**
+     * Returns the shared JAXB context and validation schema, creating them on the first call
+     * 
+     * @return the shared JAXB context
+     * @throws JAXBException
+     * @throws SAXException
+     */
+    private static synchronized JAXBContext getContext() throws JAXBException, SAXException {
+        if (sContext == null) {
+            SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            sSchema = sf.newSchema(//
+                    // new URL("http://www.beta-version.vrp-rep.org/schemas/download/vrp-rep-instance.xsd"));
+                    new File("lib/vrp-rep-instance.xsd").getAbsoluteFile());
+            sContext = JAXBContext.newInstance(Instance.class.getPackage().getName());
+        }
+        return sContext;
+    }
+
     public static Instance convertInstance(TRSPInstance instance, String dataset) {
         ObjectFactory f = new ObjectFactory();
         Instance ins = f.createInstance();
@@ -217,37 +238,15 @@ public class TRSPVRPRepConverterV030 {
      */
     public static void writeInstance(Instance instance, File destFile, boolean compress)
             throws JAXBException, IOException, SAXException {
-        JAXBContext context = JAXBContext.newInstance(Instance.class.getPackage().getName());
-
-        Marshaller marshaller = context.createMarshaller();
+        Marshaller marshaller = getContext().createMarshaller();
         // Nicelly format the output XML
-        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, new Boolean(true));
-
-        SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-        Schema schema = sf.newSchema(//
-                // new URL("http://www.beta-version.vrp-rep.org/schemas/download/vrp-rep-instance.xsd"));
-                new File("lib/vrp-rep-instance.xsd").getAbsoluteFile());
-        marshaller.setSchema(schema);
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+        marshaller.setSchema(sSchema);
 
         // Write the instance
-        destFile.getParentFile().mkdirs();
-        OutputStream os;
-        if (compress) {
-            String zipFile = destFile.getAbsolutePath().endsWith(".zip") ? destFile
-                    .getAbsolutePath() : destFile.getAbsolutePath() + ".zip";
-            ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(zipFile));
-            ZipEntry ze = new ZipEntry(destFile.getName());
-            zos.putNextEntry(ze);
-
-            os = zos;
-        } else {
-            os = new FileOutputStream(destFile);
+        try (OutputStream os = VRPRepJAXBUtilities.openOutputStream(destFile, compress)) {
+            marshaller.marshal(instance, os);
         }
-
-        marshaller.marshal(instance, os);
-
-        os.flush();
-        os.close();
     }
 
     public static void main(String[] args) throws IOException, JAXBException, SAXException {
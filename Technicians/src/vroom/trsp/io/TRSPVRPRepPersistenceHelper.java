@@ -3,11 +3,19 @@ package vroom.trsp.io;
 import java.io.File;
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.xml.bind.JAXBException;
 
 import vroom.common.modeling.dataModel.Depot;
+import vroom.common.modeling.dataModel.attributes.NodeAttributeKey;
+import vroom.common.modeling.dataModel.attributes.PointLocation;
+import vroom.common.modeling.dataModel.attributes.SimpleTimeWindow;
 import vroom.common.modeling.vrprep.Demand;
 import vroom.common.modeling.vrprep.Instance;
 import vroom.common.modeling.vrprep.Instance.Fleet;
@@ -26,6 +34,7 @@ import vroom.common.modeling.vrprep.Time;
 import vroom.common.modeling.vrprep.Tool;
 import vroom.common.modeling.vrprep.VRPRepFactory;
 import vroom.common.modeling.vrprep.VRPRepJAXBUtilities;
+import vroom.common.modeling.vrprep.VRPRepStreamReader;
 import vroom.common.utilities.Stopwatch;
 import vroom.common.utilities.Utilities;
 import vroom.common.utilities.logging.LoggerHelper;
@@ -79,9 +88,124 @@ public class TRSPVRPRepPersistenceHelper implements ITRSPPersistenceHelper {
         mCompress = true;
     }
 
+    /**
+     * Reads an instance written by {@link #writeInstance(TRSPInstance, File)}.
+     * <p>
+     * The file is parsed in a single pass with a {@link VRPRepStreamReader}. As the format does not store the depot
+     * time windows, nor the technician spare parts, the depots are assumed to be open during the whole planning
+     * horizon (defined by the latest request time window end), and technicians to start with no spare parts.
+     * </p>
+     * 
+     * @param file
+     *            the file to be read
+     * @param params
+     *            an optional boolean flag {@code cvrptw}
+     */
     @Override
     public TRSPInstance readInstance(File file, Object... params) throws Exception {
-        throw new UnsupportedOperationException();
+        boolean cvrptw = params.length > 0 ? (boolean) params[0] : false;
+
+        VRPRepStreamReader vrpIns = VRPRepStreamReader.read(file);
+
+        Map<Integer, VRPRepStreamReader.Node> nodes = new HashMap<>();
+        for (VRPRepStreamReader.Node n : vrpIns.getNodes())
+            nodes.put(n.getId(), n);
+
+        // Requests
+        int numSkills = 0, numTools = 0, numSpareParts = 0;
+        double horizon = 0;
+        ArrayList<TRSPRequest> requests = new ArrayList<>(vrpIns.getRequests().size());
+        for (VRPRepStreamReader.Request r : vrpIns.getRequests()) {
+            numSkills = Math.max(numSkills, maxId(r.getSkills()) + 1);
+            numTools = Math.max(numTools, maxId(r.getTools()) + 1);
+            numSpareParts = Math.max(numSpareParts, r.getDemands().length);
+            if (r.hasTimeWindow())
+                horizon = Math.max(horizon, r.getTWEnd());
+        }
+        for (VRPRepStreamReader.Request r : vrpIns.getRequests()) {
+            VRPRepStreamReader.Node n = nodes.get(r.getNode());
+            // Requests share the id of their node
+            int id = r.getNode();
+            int[] spare = new int[numSpareParts];
+            for (int p = 0; p < r.getDemands().length; p++)
+                spare[p] = (int) r.getDemands()[p];
+            SimpleTimeWindow tw = r.hasTimeWindow() ? new SimpleTimeWindow(r.getTWStart(),
+                    r.getTWEnd()) : new SimpleTimeWindow(0, Double.POSITIVE_INFINITY);
+            requests.add(new TRSPRequest(id, new vroom.common.modeling.dataModel.Node(id,
+                    new PointLocation(n.getX(), n.getY())), r.getSkills(), r.getTools(), spare, tw,
+                    r.getServiceTime()));
+        }
+        Collections.sort(requests, new Comparator<TRSPRequest>() {
+            @Override
+            public int compare(TRSPRequest o1, TRSPRequest o2) {
+                return Integer.compare(o1.getID(), o2.getID());
+            }
+        });
+        if (horizon == 0)
+            horizon = Double.POSITIVE_INFINITY;
+
+        // Depots
+        ArrayList<Depot> depots = new ArrayList<>();
+        for (VRPRepStreamReader.Node n : vrpIns.getNodes()) {
+            if (n.getType() == 0 || n.getType() == 1) {
+                Depot depot = new Depot(n.getId(), new PointLocation(n.getX(), n.getY()));
+                depot.setAttribute(NodeAttributeKey.TIME_WINDOW, new SimpleTimeWindow(0, horizon));
+                depots.add(depot);
+            }
+        }
+        Collections.sort(depots, new Comparator<Depot>() {
+            @Override
+            public int compare(Depot o1, Depot o2) {
+                return Integer.compare(o1.getID(), o2.getID());
+            }
+        });
+        Map<Integer, Depot> depotMap = new HashMap<>();
+        for (Depot d : depots)
+            depotMap.put(d.getID(), d);
+
+        // Technicians
+        ArrayList<Technician> technicians = new ArrayList<>(vrpIns.getVehicles().size());
+        for (VRPRepStreamReader.Vehicle v : vrpIns.getVehicles()) {
+            numSkills = Math.max(numSkills, maxId(v.getSkills()) + 1);
+            numTools = Math.max(numTools, maxId(v.getTools()) + 1);
+            Depot home = depotMap.get(v.getDepartureNode());
+            if (home == null)
+                throw new IllegalStateException("Unknown home depot " + v.getDepartureNode()
+                        + " for technician " + v.getType());
+            technicians.add(new Technician(v.getType(), "tech-" + v.getType(), v.getFixedCost(),
+                    v.getVariableCost(), 1, v.getSkills(), v.getTools(), new int[numSpareParts],
+                    home));
+        }
+        Collections.sort(technicians, new Comparator<Technician>() {
+            @Override
+            public int compare(Technician o1, Technician o2) {
+                return Integer.compare(o1.getID(), o2.getID());
+            }
+        });
+
+        TRSPInstance instance = new TRSPInstance(vrpIns.getName(), technicians, numSkills,
+                numTools, numSpareParts, depots, requests, cvrptw);
+
+        if (vrpIns.hasLinks()) {
+            // Explicit distance/time matrix
+            double[][][] distTimeMatrix = vrpIns.getLinkMatrices(instance.getMaxId());
+            instance.setCostDelegate(new TRSPDistTimeMatrix(instance, distTimeMatrix));
+        }
+
+        return instance;
+    }
+
+    /**
+     * Returns the maximum value of an array of ids
+     * 
+     * @param ids
+     * @return the maximum value in {@code  ids}, or {@code  -1} if it is empty
+     */
+    private static int maxId(int[] ids) {
+        int max = -1;
+        for (int i : ids)
+            max = Math.max(max, i);
+        return max;
     }
 
     @Override
@@ -1,9 +1,12 @@
 package vroom.trsp.optimization;
 
 import vroom.common.heuristics.NeighborhoodBase;
+import vroom.common.heuristics.alns.ScratchArena;
+import vroom.common.heuristics.alns.ScratchArena.Slot;
 import vroom.common.utilities.optimization.IMove;
 import vroom.trsp.datamodel.ITRSPTour;
 import vroom.trsp.datamodel.TRSPDetailedSolutionChecker;
+import vroom.trsp.datamodel.TRSPInstance;
 import vroom.trsp.datamodel.TRSPSolution;
 import vroom.trsp.datamodel.TRSPTour;
 import vroom.trsp.datamodel.TRSPTour.TRSPTourIterator;
@@ -28,6 +31,11 @@ import vroom.trsp.util.TRSPLogging;
  */
 public class InsertionMove extends TRSPMove {
 
+    /** Slot for the improvements of insertions evaluated in batch */
+    private static final Slot IMPROVEMENTS       = new Slot("InsertionMove.improvements");
+    /** Slot for the fixed-point improvements of insertions evaluated in batch */
+    private static final Slot FIXED_IMPROVEMENTS = new Slot("InsertionMove.fixedImprovements");
+
     private final int     mNodeId;
 
     private final int     mInsertionPred;
@@ -308,21 +316,62 @@ public class InsertionMove extends TRSPMove {
         if (tour.isMainDepotVisited()
                 || tour.getInstance().hasRequiredTools(tour.getTechnician().getID(), node)
                 || tour.getInstance().hasRequiredSpareParts(tour.getTechnician().getID(), node)) {
+            // Evaluate all positions at once if the cost delegate supports it, in fixed point if possible so that
+            // costs are compared as longs and only converted for the selected moves
+            double[] improvements = null;
+            long[] fixedImprovements = null;
+            long bestFixed = Long.MAX_VALUE;
+            if (costDelegate.isFixedPointBatchInsertionSupported(tour)) {
+                fixedImprovements = ScratchArena.current().longArray(FIXED_IMPROVEMENTS, tour.length());
+                costDelegate.evaluateInsertions(tour, node, fixedImprovements);
+            } else if (costDelegate.isBatchInsertionSupported()) {
+                improvements = ScratchArena.current().doubleArray(IMPROVEMENTS, tour.length());
+                costDelegate.evaluateInsertions(tour, node, improvements);
+            }
+            // Positions that are not in the time window graph are skipped before evaluation
+            TRSPInstance instance = tour.getInstance();
+            boolean checkTW = constraintHandler.isTWEnforced();
+            int k = 0;
             TRSPTourIterator it = tour.iterator();
             // Skip the first node (depot)
-            int pred = it.next();
+            int pred = it.nextInt();
             while (it.hasNext()) {
-                int succ = it.next();
-                InsertionMove move = new InsertionMove(node, tour, 0, pred, succ);
-                // We assume that the cost evaluation is faster than the feasibility check
-                double cost = -costDelegate.evaluateMove(move);
-                if ((best == null || best.getCost() > cost)) {
+                int succ = it.nextInt();
+                int pos = k++;
+                if (checkTW && (!instance.isArcTWFeasible(pred, node) || !instance.isArcTWFeasible(node, succ))) {
+                    pred = succ;
+                    continue;
+                }
+                InsertionMove move;
+                double cost;
+                if (fixedImprovements != null) {
+                    long fixedCost = -fixedImprovements[pos];
+                    if (fixedCost >= bestFixed) {
+                        pred = succ;
+                        continue;
+                    }
+                    // The cost is only converted once the move is known to improve the current best
+                    cost = instance.getCostDelegate().fromFixedPoint(fixedCost);
+                    move = new InsertionMove(node, tour, cost, pred, succ);
+                } else if (improvements != null) {
+                    cost = -improvements[pos];
+                    // Only create the moves that need to be checked
+                    move = best == null || best.getCost() > cost ? new InsertionMove(node, tour, cost, pred,
+                            succ) : null;
+                } else {
+                    move = new InsertionMove(node, tour, 0, pred, succ);
+                    // We assume that the cost evaluation is faster than the feasibility check
+                    cost = -costDelegate.evaluateMove(move);
+                }
+                if (fixedImprovements != null || best == null || best.getCost() > cost) {
                     FeasibilityState feasibility = constraintHandler.checkFeasibility(tour, move,
                             null);
                     if (feasibility.isFeasible()) {
                         if (!bestInsertion)
                             return move;
                         best = move;
+                        if (fixedImprovements != null)
+                            bestFixed = -fixedImprovements[pos];
                     } else if (pruneSearch
                             && !constraintHandler.checkFeasibility(tour, move, feasibility)
                                     .isForwardFeasible()) {
@@ -345,17 +394,17 @@ public class InsertionMove extends TRSPMove {
         if (tour.getInstance().isMainDepotTripAllowed()) {
             TRSPTourIterator it = tour.iterator();
             // Skip the first node (depot)
-            int pred = it.next();
+            int pred = it.nextInt();
             boolean pruned = false;
             while (it.hasNext() && !pruned) {
-                int succ = it.next();
+                int succ = it.nextInt();
                 TRSPTourIterator depotIt = tour.iterator();
                 // Skip the first node (depot)
-                depotIt.next();
+                depotIt.nextInt();
                 int depotSucc = ITRSPTour.UNDEFINED;
                 boolean abort = false;
                 while (depotIt.hasNext() && !abort && !pruned) {
-                    depotSucc = depotIt.next();
+                    depotSucc = depotIt.nextInt();
                     if (depotSucc == succ) {
                         depotSucc = node;
                         // Bugfix: Artificially abort the loop if the depot successor is the inserted node
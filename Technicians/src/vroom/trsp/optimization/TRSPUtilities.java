@@ -17,6 +17,7 @@ import vroom.trsp.datamodel.costDelegates.TRSPCostDelegate;
 import vroom.trsp.io.ConvertionPersistenceHelper;
 import vroom.trsp.io.ITRSPPersistenceHelper;
 import vroom.trsp.io.PillacSimplePersistenceHelper;
+import vroom.trsp.io.TRSPBinaryPersistenceHelper;
 
 /**
  * <code>TRSPUtilities</code>
@@ -38,7 +39,9 @@ public class TRSPUtilities {
      * @return the corresponding persistence helper
      */
     public static ITRSPPersistenceHelper getPersistenceHelper(String path) {
-        if (path.contains("trsp")) {
+        if (path.endsWith(TRSPBinaryPersistenceHelper.EXTENSION)) {
+            return new TRSPBinaryPersistenceHelper();
+        } else if (path.contains("trsp")) {
             return new PillacSimplePersistenceHelper();
         } else if (path.contains("christofides-mingozzi-toth")) {
             return new ConvertionPersistenceHelper(new ChristofidesPersistenceHelper());
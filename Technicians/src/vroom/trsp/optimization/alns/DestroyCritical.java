@@ -3,21 +3,20 @@
  */
 package vroom.trsp.optimization.alns;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.Arrays;
 
 import vroom.common.heuristics.alns.IDestroy;
-import vroom.common.utilities.math.QuickSelect;
+import vroom.common.heuristics.alns.ScratchArena;
+import vroom.common.heuristics.alns.ScratchArena.Slot;
+import vroom.common.utilities.StampedIntSet;
+import vroom.common.utilities.math.SelectionBuffer;
 import vroom.common.utilities.optimization.IInstance;
 import vroom.common.utilities.optimization.IParameters;
+import vroom.trsp.datamodel.ITRSPTour;
 import vroom.trsp.datamodel.TRSPInstance;
 import vroom.trsp.datamodel.TRSPSolution;
 import vroom.trsp.datamodel.TRSPTour;
 import vroom.trsp.datamodel.costDelegates.TRSPDistance;
-import vroom.trsp.optimization.RemoveMove;
 
 /**
  * <code>DestroyCritical</code> is an implementation of {@link IDestroy} that attempt to remove requests that are the
@@ -32,10 +31,16 @@ import vroom.trsp.optimization.RemoveMove;
  */
 public class DestroyCritical extends DestroyTRSP {
 
-    private final TRSPDistance mDistanceCD;
+    /** Slot for the position of each request in {@link #mEvaluations}, -1 if removed or not removable */
+    private static final Slot     POSITION = new Slot("DestroyCritical.position");
+
+    private final TRSPDistance    mDistanceCD;
+
+    /** Evaluations of the requests not yet removed, reused between calls */
+    private final SelectionBuffer mEvaluations;
 
     /** the randomization parameter *. */
-    private final double       mRandomization;
+    private final double          mRandomization;
 
     /**
      * Getter for the randomization parameter.
@@ -56,6 +61,7 @@ public class DestroyCritical extends DestroyTRSP {
         super();
         mRandomization = randomization;
         mDistanceCD = new TRSPDistance();
+        mEvaluations = new SelectionBuffer(64);
     }
 
     /*
@@ -82,76 +88,56 @@ public class DestroyCritical extends DestroyTRSP {
      * vroom.common.utilities.optimization.IParameters, double)
      */
     @Override
-    protected Set<Integer> doDestroy(TRSPSolution solution, IParameters parameters, List<Integer> removableReq,
-            int numReq) {
-        if (solution.getUnservedCount() == solution.getInstance().getRequestCount())
-            return Collections.emptySet();
-        TRSPTour lastModifiedTour = null;
-        Set<Integer> removed = new HashSet<Integer>();
-
+    protected StampedIntSet doDestroy(TRSPSolution solution, IParameters parameters, int[] removableReq,
+            int removableCount, int numReq) {
         TRSPInstance instance = solution.getInstance();
+        if (solution.getUnservedCount() == instance.getRequestCount())
+            return borrowRemovedSet(solution);
+        StampedIntSet removed = borrowRemovedSet(solution);
 
-        Evaluation[] evaluations = new Evaluation[instance.getMaxId()];
-        int removableCount = removableReq.size();
+        SelectionBuffer evaluations = mEvaluations;
+        evaluations.clear();
+        evaluations.ensureCapacity(removableCount);
+        int[] position = ScratchArena.current().intArray(POSITION, instance.getMaxId());
+        Arrays.fill(position, 0, instance.getMaxId(), -1);
 
         // Evaluate all the removable requests
-        @SuppressWarnings("unchecked")
-        ArrayList<Evaluation>[] tourEval = (ArrayList<Evaluation>[]) new ArrayList<?>[solution.getTourCount()];
-        for (Integer req : removableReq) {
+        for (int i = 0; i < removableCount; i++) {
+            int req = removableReq[i];
             TRSPTour tour = solution.getVisitingTour(req);
             if (tour == null)
                 throw new IllegalStateException("Request " + req + " is not visited by any tour in solution "
                         + solution);
             // FIXME Check if it is a good idea to use the distance as proxy
-            evaluations[req] = new Evaluation(req, tour, mDistanceCD.evaluateMove(new RemoveMove(req, tour)));
-            if (tourEval[tour.getTechnicianId()] == null)
-                tourEval[tour.getTechnicianId()] = new ArrayList<Evaluation>(removableReq.size() / 2);
-            tourEval[tour.getTechnicianId()].add(evaluations[req]);
+            evaluations.add(mDistanceCD.evaluateRemoval(tour, req), req);
         }
 
-        // Sort the candidate list
-        // Collections.sort(candidates);
-
         // Remove requests
-        while (removed.size() < numReq && removableCount > 0) {
+        while (removed.size() < numReq && evaluations.size() > 0) {
             // The k-th most related request will be selected
             int k = (int) Math.floor(Math.pow(parameters.getRandomStream().nextDouble(), getRandomization())
-                    * removableCount);
+                    * evaluations.size());
             // Select the k-th most related request
+            int selectedReq = evaluations.getId(evaluations.select(k));
 
-            Evaluation selectedEval = QuickSelect.quickSelect(evaluations, k + 1, true);
-            selectedEval.eval = Double.NaN; // Mark the evaluation as already removed
-            evaluations[k] = null;
-            lastModifiedTour = selectedEval.tour;
-            removed.add(selectedEval.request);
+            // Remove the selection from the active evaluations and refresh the positions reordered by the selection
+            evaluations.removeSwap(k);
+            int[] requests = evaluations.ids();
+            for (int i = 0; i < evaluations.size(); i++)
+                position[requests[i]] = i;
+            position[selectedReq] = -1;
+            removed.add(selectedReq);
 
             // Remove the request from the tour
-            lastModifiedTour = removeRequest(solution, selectedEval.request);
-            removableCount--;
+            TRSPTour lastModifiedTour = removeRequest(solution, selectedReq);
 
-            // if (mDistanceCD.isInsertionSeqDependent()) {
             // Re-evaluate all the requests in the modified tour
-            for (Evaluation e : tourEval[lastModifiedTour.getTechnicianId()]) {
-                if (!Double.isNaN(e.eval)) // Ignore evalutations that were already removed
-                    e.eval = mDistanceCD.evaluateMove(new RemoveMove(e.request, e.tour));
+            double[] values = evaluations.keys();
+            for (int node = lastModifiedTour.getFirstNode(); node != ITRSPTour.UNDEFINED; node = lastModifiedTour
+                    .getSucc(node)) {
+                if (node < instance.getMaxId() && position[node] >= 0)
+                    values[position[node]] = mDistanceCD.evaluateRemoval(lastModifiedTour, node);
             }
-            // } else {
-            // // Evaluate the predecessor
-            // int pred = selectedEval.tour.getPred(selectedEval.request);
-            // int succ = selectedEval.tour.getSucc(selectedEval.request);
-            // if (canBeRemoved(solution, pred)) {
-            // RemoveMove rem = new RemoveMove(pred, lastModifiedTour);
-            // double eval = solution.getCostDelegate().evaluateMove(rem);
-            // evaluations[pred].eval = eval;
-            // }
-            //
-            // // Evaluate the successor
-            // if (canBeRemoved(solution, succ)) {
-            // RemoveMove rem = new RemoveMove(succ, lastModifiedTour);
-            // double eval = solution.getCostDelegate().evaluateMove(rem);
-            // evaluations[succ].eval = eval;
-            // }
-            // }
         }
 
         return removed;
@@ -3,12 +3,9 @@
  */
 package vroom.trsp.optimization.alns;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-
 import umontreal.iro.lecuyer.rng.RandomPermutation;
 import vroom.common.heuristics.alns.IDestroy;
+import vroom.common.utilities.StampedIntSet;
 import vroom.common.utilities.optimization.IInstance;
 import vroom.common.utilities.optimization.IParameters;
 import vroom.trsp.datamodel.TRSPSolution;
@@ -35,16 +32,17 @@ public class DestroyRandom extends DestroyTRSP {
     }
 
     @Override
-    public Set<Integer> doDestroy(TRSPSolution solution, IParameters parameters, List<Integer> removableReq, int numReq) {
-        RandomPermutation.shuffle(removableReq, parameters.getRandomStream());
+    public StampedIntSet doDestroy(TRSPSolution solution, IParameters parameters, int[] removableReq,
+            int removableCount, int numReq) {
+        RandomPermutation.shuffle(removableReq, removableCount, removableCount, parameters.getRandomStream());
 
-        HashSet<Integer> remRequests = new HashSet<Integer>(numReq);
+        StampedIntSet remRequests = borrowRemovedSet(solution);
 
         int remReq = 0;
         int i = 0;
-        while (remReq < numReq && i < removableReq.size()) {
+        while (remReq < numReq && i < removableCount) {
             // Select a request to remove
-            int req = removableReq.get(i++);
+            int req = removableReq[i++];
 
             // Remove the request from its tour
             if (removeRequest(solution, req) != null) {
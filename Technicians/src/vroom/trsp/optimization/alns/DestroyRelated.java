@@ -3,16 +3,12 @@
  */
 package vroom.trsp.optimization.alns;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 import vroom.common.heuristics.alns.IDestroy;
-import vroom.common.utilities.IntegerSet;
-import vroom.common.utilities.math.QuickSelect;
+import vroom.common.heuristics.alns.ScratchArena;
+import vroom.common.heuristics.alns.ScratchArena.Slot;
+import vroom.common.utilities.StampedIntSet;
 import vroom.common.utilities.optimization.IParameters;
 import vroom.trsp.datamodel.TRSPSolution;
 import vroom.trsp.datamodel.TRSPTour;
@@ -29,6 +25,11 @@ import vroom.trsp.datamodel.TRSPTour;
  */
 public abstract class DestroyRelated extends DestroyTRSP {
 
+    /** Slot for the set of candidate requests */
+    private static final Slot CANDIDATES    = new Slot("DestroyRelated.candidates");
+    /** Slot for the removed requests in order of removal */
+    private static final Slot REMOVAL_ORDER = new Slot("DestroyRelated.removalOrder");
+
     /** the randomization parameter *. */
     private final double mRandomization;
 
@@ -61,116 +62,72 @@ public abstract class DestroyRelated extends DestroyTRSP {
      * vroom.common.utilities.optimization.IParameters, double)
      */
     @Override
-    public Set<Integer> doDestroy(TRSPSolution solution, IParameters parameters, List<Integer> removableReq, int numReq) {
+    public StampedIntSet doDestroy(TRSPSolution solution, IParameters parameters, int[] removableReq,
+            int removableCount, int numReq) {
         if (solution.getUnservedCount() == solution.getInstance().getRequestCount())
-            return Collections.emptySet();
+            return borrowRemovedSet(solution);
         TRSPTour lastModifiedTour = null;
 
+        ScratchArena arena = ScratchArena.current();
+
         // Set of candidate requests to remove
-        IntegerSet candidates = new IntegerSet(removableReq);
+        StampedIntSet candidates = arena.intSet(CANDIDATES, solution.getInstance().getMaxId());
+        for (int i = 0; i < removableCount; i++)
+            candidates.add(removableReq[i]);
 
-        // Set of removed requests
-        ArrayList<Integer> remRequests = new ArrayList<Integer>(numReq);
+        // Removed requests, in order of removal
+        int[] remRequests = arena.intArray(REMOVAL_ORDER, Math.max(numReq, 1));
+        int remCount = 0;
+        StampedIntSet removed = borrowRemovedSet(solution);
 
         // Initialize data structures (delegated to subclasses)
         initialize(solution, parameters, numReq, candidates);
 
         // Select the initial seed request
         int seedIdx = parameters.getRandomStream().nextInt(0, candidates.size() - 1);
-        int seed = removableReq.get(seedIdx);
+        int seed = removableReq[seedIdx];
 
         // Remove the seed
         lastModifiedTour = removeRequest(solution, seed);
         if (lastModifiedTour != null) {
-            remRequests.add(seed);
+            remRequests[remCount++] = seed;
+            removed.add(seed);
             candidates.remove(seed);
             requestRemoved(seed, lastModifiedTour.getTechnician().getID(), solution);
         } else {
             throw new IllegalStateException("Could not remove request " + seed);
         }
 
-        while (remRequests.size() < numReq) {
+        while (remCount < numReq) {
             // Select a new seed
-            seed = remRequests.get(parameters.getRandomStream().nextInt(0, remRequests.size() - 1));
-            // Evaluate the relatedness values
-            Relatedness[] evals = evaluateRelatedRequests(seed, solution, candidates);
+            seed = remRequests[parameters.getRandomStream().nextInt(0, remCount - 1)];
             // The k-th most related request will be selected
             int k = (int) Math.floor(Math.pow(parameters.getRandomStream().nextDouble(), getRandomization())
                     * candidates.size());
             // Select the k-th most related request
-            Relatedness sel = quickselect(evals, k + 1, candidates);
+            int req = candidates.size() > 0 ? selectRelatedRequest(seed, solution, candidates, k) : -1;
 
-            if (sel == null)
+            if (req < 0)
                 // There are no more request to evaluate
                 break;
 
-            int req = sel.request2;
-
             // Find the tour serving the request and remove it
             lastModifiedTour = removeRequest(solution, req);
             if (lastModifiedTour != null) {
-                remRequests.add(req);
+                remRequests[remCount++] = req;
+                removed.add(req);
                 candidates.remove(req);
                 requestRemoved(req, lastModifiedTour.getTechnician().getID(), solution);
             } else {
                 throw new IllegalStateException("Attempting to remove a request that is not in any tour: " + req);
             }
         }
-        return new HashSet<Integer>(remRequests);
-    }
-
-    /**
-     * Returns the <code>k</code> smallest values of an array
-     * 
-     * @param values
-     *            an array of double
-     * @param k
-     *            the number of elements to extract
-     * @param filter
-     *            the indexes to consider
-     * @return the <code>n</code> biggest elements of <code>values</code> sorted in ascending order
-     */
-    public static <T extends Comparable<? super T>> T quickselect(T[] values, int k, Set<Integer> filter) {
-        if (values.length == 0 || k == 0)
-            return null;
-
-        if (k == 1) {
-            // More efficient implementation
-            return min(values, filter);
-        }
-
-        T[] filteredValues = Arrays.copyOf(values, filter.size());
-        int j = 0;
-        for (int i : filter) {
-            filteredValues[j++] = values[i];
-        }
-
-        return QuickSelect.quickSelect(filteredValues, k, true);
-    }
-
-    /**
-     * Returns the minimum value of an array
-     * 
-     * @param values
-     *            an array of value
-     * @param filter
-     *            the indexes to consider
-     * @return the maximum of all elements of <code>values</code>
-     */
-    public static <T extends Comparable<? super T>> T min(T[] values, Set<Integer> filter) {
-        if (values.length == 0)
-            throw new IllegalArgumentException("Must have at least one value");
-        T min = null;
-        for (int i : filter) {
-            if (values[i] != null && (min == null || values[i].compareTo(min) < 0))
-                min = values[i];
-        }
-        return min;
+        return removed;
     }
 
     /**
-     * This method is called at the beginning of the execution of {@link #doDestroy(TRSPSolution, IParameters,
-     * List<Integer>, int)}. It can be overridden in subclasses to initialize data structures.
+     * This method is called at the beginning of the execution of {@link #doDestroy(TRSPSolution, IParameters, int[],
+     * int, int)}. It can be overridden in subclasses to initialize data structures.
      * 
      * @param solution
      *            the solution that will be destroyed
@@ -199,7 +156,7 @@ public abstract class DestroyRelated extends DestroyTRSP {
     }
 
     /**
-     * Evaluation of the candidate set
+     * Selection of the <code>(k+1)</code>-th candidate most related to {@code seed}
      * 
      * @param seed
      *            the seed request
@@ -207,9 +164,13 @@ public abstract class DestroyRelated extends DestroyTRSP {
      *            the current solution
      * @param candidates
      *            the set of candidate requests
-     * @return an array containing the evaluation of at least all the requests from the <code>candidate</code> set
+     * @param k
+     *            the rank of the request to select (<code>0</code> for the most related request)
+     * @return the id of the <code>(k+1)</code>-th most related request from the <code>candidate</code> set, or
+     *         <code>-1</code> if none can be selected
      */
-    protected abstract Relatedness[] evaluateRelatedRequests(int seed, TRSPSolution solution, Set<Integer> candidates);
+    protected abstract int selectRelatedRequest(int seed, TRSPSolution solution, StampedIntSet candidates,
+            int k);
 
     @Override
     public abstract DestroyRelated clone();
@@ -218,28 +179,4 @@ public abstract class DestroyRelated extends DestroyTRSP {
     public String toString() {
         return String.format("%s[p:%s]", getName(), getRandomization());
     }
-
-    /**
-     * Store the relatedness value <code>r<sub>ij</sub></code>
-     */
-    protected static class Relatedness extends Evaluation {
-        final int request2;
-
-        /**
-         * Creates a new <code>Relatedness</code>
-         * 
-         * @param i
-         * @param j
-         * @param rij
-         */
-        public Relatedness(int i, int j, double rij) {
-            super(i, null, rij);
-            this.request2 = j;
-        }
-
-        @Override
-        public String toString() {
-            return String.format("r%s,%s=%s", request, request2, eval);
-        }
-    }
 }
@@ -3,10 +3,10 @@
  */
 package vroom.trsp.optimization.alns;
 
-import java.util.Arrays;
 import java.util.Set;
 
 import vroom.common.heuristics.alns.IDestroy;
+import vroom.common.utilities.StampedIntSet;
 import vroom.common.utilities.optimization.IInstance;
 import vroom.trsp.datamodel.TRSPInstance;
 import vroom.trsp.datamodel.TRSPRequest;
@@ -28,11 +28,12 @@ import vroom.trsp.datamodel.TRSPSolution;
  */
 public class DestroyStaticRelated extends DestroyRelated {
 
-    private Relatedness[][] mRelatednessMatrix;
+    /** The requests sorted by decreasing relatedness, shared between clones */
+    private RelatednessIndex mIndex;
 
-    private final double    mGammaD;
-    private final double    mGammaT;
-    private final double    mGammaS;
+    private final double     mGammaD;
+    private final double     mGammaT;
+    private final double     mGammaS;
 
     /**
      * Creates a new <code>DestroyStaticRelated</code>
@@ -56,13 +57,15 @@ public class DestroyStaticRelated extends DestroyRelated {
     @Override
     public void initialize(IInstance instance) {
         TRSPInstance ins = (TRSPInstance) instance;
-        mRelatednessMatrix = new Relatedness[ins.getMaxId()][];
+        double[][] relatedness = new double[ins.getMaxId()][ins.getMaxId()];
+        int[] requests = new int[ins.getRequestCount()];
+        int r = 0;
 
         // Scaling constants
         double Mc = Double.NEGATIVE_INFINITY, Mt = Double.NEGATIVE_INFINITY;
         double[][] twd = new double[ins.getMaxId()][ins.getMaxId()];
         for (TRSPRequest i : ins.getRequests()) {
-            mRelatednessMatrix[i.getID()] = new Relatedness[ins.getMaxId()];
+            requests[r++] = i.getID();
             for (TRSPRequest j : ins.getRequests()) {
                 double dij = ins.getCostDelegate().getDistance(i.getID(), j.getID());
                 if (dij > Mc)
@@ -102,14 +105,16 @@ public class DestroyStaticRelated extends DestroyRelated {
                 double rij = Math.pow(1 + dij, mGammaD) * Math.pow(1 + tij, mGammaT) * Math.pow(1 + sij, mGammaS);
 
                 // Store this value
-                mRelatednessMatrix[i.getID()][j.getID()] = new Relatedness(i.getID(), j.getID(), rij);
+                relatedness[i.getID()][j.getID()] = rij;
             }
         }
+
+        mIndex = new RelatednessIndex(relatedness, requests);
     }
 
     @Override
-    protected Relatedness[] evaluateRelatedRequests(int seed, TRSPSolution solution, Set<Integer> candidates) {
-        return mRelatednessMatrix[seed];
+    protected int selectRelatedRequest(int seed, TRSPSolution solution, StampedIntSet candidates, int k) {
+        return mIndex.select(seed, candidates, k);
     }
 
     @Override
@@ -120,16 +125,13 @@ public class DestroyStaticRelated extends DestroyRelated {
     @Override
     public DestroyStaticRelated clone() {
         DestroyStaticRelated clone = new DestroyStaticRelated(getRandomization(), mGammaD, mGammaT, mGammaS);
-        clone.mRelatednessMatrix = new Relatedness[mRelatednessMatrix.length][];
-        for (int i = 0; i < clone.mRelatednessMatrix.length; i++) {
-            if (mRelatednessMatrix[i] != null)
-                clone.mRelatednessMatrix[i] = Arrays.copyOf(mRelatednessMatrix[i], mRelatednessMatrix[i].length);
-        }
+        // The index is immutable and can be safely shared
+        clone.mIndex = mIndex;
         return clone;
     }
 
     @Override
     public void dispose() {
-        mRelatednessMatrix = null;
+        mIndex = null;
     }
 }
@@ -3,13 +3,12 @@
  */
 package vroom.trsp.optimization.alns;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.ConcurrentModificationException;
-import java.util.List;
-import java.util.Set;
 
 import vroom.common.heuristics.alns.IDestroy;
+import vroom.common.heuristics.alns.ScratchArena;
+import vroom.common.heuristics.alns.ScratchArena.Slot;
+import vroom.common.utilities.StampedIntSet;
 import vroom.common.utilities.optimization.IParameters;
 import vroom.trsp.datamodel.TRSPInstance;
 import vroom.trsp.datamodel.TRSPSolution;
@@ -21,6 +20,11 @@ import vroom.trsp.datamodel.TRSPTour;
  * It provides common processes such as the removal of unnecessary depot trips
  * </p>
  * <p>
+ * Working data structures are borrowed from the {@link ScratchArena} of the current thread. The removed requests are
+ * copied into the returned {@link TRSPDestroyResult}, which therefore does not depend on the arena and remains valid
+ * after the next destroy executed by the same thread.
+ * </p>
+ * <p>
  * Creation date: May 24, 2011 - 10:34:22 AM
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
@@ -30,6 +34,11 @@ import vroom.trsp.datamodel.TRSPTour;
  */
 public abstract class DestroyTRSP implements IDestroy<TRSPSolution> {
 
+    /** Slot for the array of removable requests */
+    private static final Slot REMOVABLE = new Slot("DestroyTRSP.removable");
+    /** Slot for the set of removed requests */
+    private static final Slot REMOVED   = new Slot("DestroyTRSP.removed");
+
     /**
      * Creates a new <code>DestroyTRSP</code>
      * 
@@ -48,18 +57,19 @@ public abstract class DestroyTRSP implements IDestroy<TRSPSolution> {
                     "This destroy procedure is already used by another thread");
         mRunning = true;
 
-        ArrayList<Integer> removable = new ArrayList<>(solution.getInstance()
-                .getUnservedReleasedRequests().size());
+        int[] removable = ScratchArena.current().intArray(REMOVABLE,
+                solution.getInstance().getUnservedReleasedRequests().size());
+        int removableCount = 0;
         for (int i : solution.getInstance().getUnservedReleasedRequests()) {
             if (canBeRemoved(solution, i))
-                removable.add(i);
+                removable[removableCount++] = i;
         }
 
-        Set<Integer> remRequests;
-        if (!removable.isEmpty()) {
+        int[] remRequests;
+        if (removableCount > 0) {
 
-            int numReq = (int) (size * removable.size());
-            remRequests = doDestroy(solution, parameters, removable, numReq);
+            int numReq = (int) (size * removableCount);
+            remRequests = doDestroy(solution, parameters, removable, removableCount, numReq).toIntArray();
 
             // Remove unnecessary trips to depot
             for (TRSPTour t : solution) {
@@ -68,7 +78,7 @@ public abstract class DestroyTRSP implements IDestroy<TRSPSolution> {
                     t.removeNode(t.getMainDepotId());
             }
         } else {
-            remRequests = Collections.emptySet();
+            remRequests = new int[0];
         }
 
         mRunning = false;
@@ -77,7 +87,7 @@ public abstract class DestroyTRSP implements IDestroy<TRSPSolution> {
 
     /**
      * Remove <code>size*{@link TRSPInstance#getRequestCount() requestCount}</code> requests from <code>solution</code>
-     * and return them in a set.
+     * and return them in a set {@linkplain #borrowRemovedSet(TRSPSolution) borrowed} from the arena.
      * <p>
      * Implementations do no need to remove depot trips, nor to add removed requests to the
      * {@link TRSPSolution#getUnservedRequests() unserved pool}.
@@ -88,14 +98,29 @@ public abstract class DestroyTRSP implements IDestroy<TRSPSolution> {
      * @param parameters
      *            the parameters
      * @param removableReq
-     *            the ids of the requests that can be removed
+     *            the ids of the requests that can be removed, in the <code>removableCount</code> first positions; the
+     *            array is a scratch buffer that implementations may reorder
+     * @param removableCount
+     *            the number of requests that can be removed
      * @param numReq
      *            the number of requests to be removed
      * @return a set containing the removed requests
      * @see #destroy(TRSPSolution, IParameters, double)
      */
-    protected abstract Set<Integer> doDestroy(TRSPSolution solution, IParameters parameters,
-            List<Integer> removableReq, int numReq);
+    protected abstract StampedIntSet doDestroy(TRSPSolution solution, IParameters parameters, int[] removableReq,
+            int removableCount, int numReq);
+
+    /**
+     * Borrow an empty set from the {@link ScratchArena} of the current thread, in which implementations of
+     * {@link #doDestroy(TRSPSolution, IParameters, int[], int, int)} can store the removed requests
+     * 
+     * @param solution
+     *            the solution being destroyed
+     * @return an empty set able to contain any request of {@code solution}
+     */
+    protected StampedIntSet borrowRemovedSet(TRSPSolution solution) {
+        return ScratchArena.current().intSet(REMOVED, solution.getInstance().getMaxId());
+    }
 
     /**
      * Check if a request can be removed from the current solution. The method will return {@code false} for requests
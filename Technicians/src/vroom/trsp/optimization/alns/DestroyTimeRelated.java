@@ -6,11 +6,13 @@ package vroom.trsp.optimization.alns;
 import java.util.Set;
 
 import vroom.common.heuristics.alns.IDestroy;
+import vroom.common.utilities.StampedIntSet;
+import vroom.common.utilities.math.PrimitiveSelect;
 import vroom.common.utilities.optimization.IInstance;
 import vroom.common.utilities.optimization.IParameters;
 import vroom.trsp.datamodel.TRSPInstance;
+import vroom.trsp.datamodel.TRSPRequest;
 import vroom.trsp.datamodel.TRSPSolution;
-import vroom.trsp.datamodel.TRSPTour;
 
 /**
  * <code>DestroyTimeRelated</code> is an implementation of {@link IDestroy} based on a measure of the relatedness
@@ -25,7 +27,19 @@ import vroom.trsp.datamodel.TRSPTour;
  */
 public class DestroyTimeRelated extends DestroyRelated {
 
-    private Relatedness[][] mEvaluations;
+    /** <code>true</code> if two requests have at least one compatible technician in common, shared between clones */
+    private boolean[][] mSharedTechnician;
+
+    /** The earliest arrival time at each candidate request */
+    private double[]    mArrival;
+    /** The candidate requests sorted by increasing earliest arrival time */
+    private int[]       mOrder;
+    /** The earliest arrival times of the requests in {@link #mOrder} */
+    private double[]    mOrderArrival;
+    /** The position of each candidate request in {@link #mOrder} */
+    private int[]       mPosition;
+    /** The number of candidate requests in {@link #mOrder} */
+    private int         mOrderSize;
 
     /**
      * Creates a new <code>DestroyRelated</code>
@@ -42,22 +56,14 @@ public class DestroyTimeRelated extends DestroyRelated {
      */
     @Override
     public void initialize(IInstance instance) {
-        TRSPInstance i = (TRSPInstance) instance;
-        mEvaluations = new Relatedness[i.getMaxId()][i.getMaxId()];
-    }
-
-    @Override
-    protected void initialize(TRSPSolution solution, IParameters params, int remRequests, Set<Integer> candidates) {
-        super.initialize(solution, params, remRequests, candidates);
-
-        // Evaluate all candidates
-        for (int i : candidates) {
-            for (int j : candidates) {
-                if (i >= j)
+        TRSPInstance ins = (TRSPInstance) instance;
+        mSharedTechnician = new boolean[ins.getMaxId()][ins.getMaxId()];
+        for (TRSPRequest i : ins.getRequests()) {
+            Set<Integer> Ki = ins.getCompatibleTechnicians(i.getID());
+            for (TRSPRequest j : ins.getRequests()) {
+                if (i.getID() > j.getID())
                     continue;
-                // Compatible technicians
-                Set<Integer> Ki = solution.getInstance().getCompatibleTechnicians(i);
-                Set<Integer> Kj = solution.getInstance().getCompatibleTechnicians(j);
+                Set<Integer> Kj = ins.getCompatibleTechnicians(j.getID());
                 // At least one technician in common
                 boolean compatible = false;
                 for (int t : Ki)
@@ -65,25 +71,84 @@ public class DestroyTimeRelated extends DestroyRelated {
                         compatible = true;
                         break;
                     }
-                double rij = Double.POSITIVE_INFINITY;
-
-                if (compatible) {
-                    TRSPTour ti = solution.getVisitingTour(i);
-                    TRSPTour tj = solution.getVisitingTour(j);
-                    rij = Math.abs(ti.getEarliestArrivalTime(i) - tj.getEarliestArrivalTime(j));
-                }
-                mEvaluations[i][j] = new Relatedness(i, j, rij);
-                mEvaluations[j][i] = new Relatedness(j, i, rij);
+                mSharedTechnician[i.getID()][j.getID()] = compatible;
+                mSharedTechnician[j.getID()][i.getID()] = compatible;
             }
         }
+        allocateBuffers(ins.getMaxId());
+    }
+
+    /**
+     * Allocate the buffers used during the destroy
+     * 
+     * @param maxId
+     *            the maximum id of a request
+     */
+    private void allocateBuffers(int maxId) {
+        mArrival = new double[maxId];
+        mOrder = new int[maxId];
+        mOrderArrival = new double[maxId];
+        mPosition = new int[maxId];
+    }
+
+    @Override
+    protected void initialize(TRSPSolution solution, IParameters params, int remRequests, Set<Integer> candidates) {
+        super.initialize(solution, params, remRequests, candidates);
+
+        // Evaluate the earliest arrival time of all candidates
+        mOrderSize = 0;
+        for (int i : candidates) {
+            mArrival[i] = solution.getVisitingTour(i).getEarliestArrivalTime(i);
+            mOrder[mOrderSize] = i;
+            mOrderArrival[mOrderSize] = mArrival[i];
+            mOrderSize++;
+        }
+
+        // Sort the candidates by earliest arrival time: the most related requests are the closest in this order
+        PrimitiveSelect.sort(mOrderArrival, mOrder, 0, mOrderSize);
+        for (int p = 0; p < mOrderSize; p++)
+            mPosition[mOrder[p]] = p;
     }
 
     /* (non-Javadoc)
-     * @see vroom.trsp.optimization.alns.DestroyRelated#evaluateRelatedRequests(int, vroom.trsp.datamodel.TRSPSolution, java.util.Set)
+     * @see vroom.trsp.optimization.alns.DestroyRelated#selectRelatedRequest(int, vroom.trsp.datamodel.TRSPSolution, vroom.common.utilities.StampedIntSet, int)
      */
     @Override
-    protected Relatedness[] evaluateRelatedRequests(int seed, TRSPSolution solution, Set<Integer> candidates) {
-        return mEvaluations[seed];
+    protected int selectRelatedRequest(int seed, TRSPSolution solution, StampedIntSet candidates, int k) {
+        boolean[] shared = mSharedTechnician[seed];
+        double arrival = mArrival[seed];
+
+        // Expand from the position of the seed, the relatedness being the difference in arrival times
+        int left = mPosition[seed] - 1;
+        int right = mPosition[seed] + 1;
+        while (true) {
+            while (left >= 0 && !(shared[mOrder[left]] && candidates.contains(mOrder[left])))
+                left--;
+            while (right < mOrderSize && !(shared[mOrder[right]] && candidates.contains(mOrder[right])))
+                right++;
+            if (left < 0 && right >= mOrderSize)
+                break;
+
+            int sel;
+            if (right >= mOrderSize || (left >= 0 && arrival - mOrderArrival[left] <= mOrderArrival[right] - arrival))
+                sel = mOrder[left--];
+            else
+                sel = mOrder[right++];
+            if (k-- == 0)
+                return sel;
+        }
+
+        // The remaining candidates do not share any technician with the seed and have an infinite relatedness
+        int last = -1;
+        for (int p = 0; p < mOrderSize; p++) {
+            int j = mOrder[p];
+            if (!shared[j] && candidates.contains(j)) {
+                if (k-- == 0)
+                    return j;
+                last = j;
+            }
+        }
+        return last;
     }
 
     @Override
@@ -93,13 +158,20 @@ public class DestroyTimeRelated extends DestroyRelated {
 
     @Override
     public void dispose() {
-        mEvaluations = null;
+        mSharedTechnician = null;
+        mArrival = null;
+        mOrder = null;
+        mOrderArrival = null;
+        mPosition = null;
     }
 
     @Override
     public DestroyTimeRelated clone() {
         DestroyTimeRelated clone = new DestroyTimeRelated(getRandomization());
-        clone.mEvaluations = new Relatedness[mEvaluations.length][mEvaluations.length];
+        // The compatibility matrix is immutable and can be safely shared
+        clone.mSharedTechnician = mSharedTechnician;
+        if (mArrival != null)
+            clone.allocateBuffers(mArrival.length);
         return clone;
     }
 }
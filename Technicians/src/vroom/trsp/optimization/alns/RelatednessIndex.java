@@ -0,0 +1,96 @@
+/**
+ * 
+ */
+package vroom.trsp.optimization.alns;
+
+import vroom.common.utilities.StampedIntSet;
+import vroom.common.utilities.math.PrimitiveSelect;
+
+/**
+ * <code>RelatednessIndex</code> stores, for each request, the other requests sorted by increasing relatedness value
+ * (i.e., most related first).
+ * <p>
+ * It is built once per instance and allows the selection of the <em>k</em>-th most related candidate in
+ * <code>O(k+r)</code>, where <code>r</code> is the number of requests that are no longer candidates, instead of
+ * evaluating and sorting all the candidates at each removal.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 10:12:48 AM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class RelatednessIndex {
+
+    /** The neighbors of each request sorted by increasing relatedness */
+    private final int[][] mNeighbors;
+
+    /**
+     * Creates a new <code>RelatednessIndex</code>
+     * 
+     * @param relatedness
+     *            the relatedness matrix, indexed by request id (only the entries between two requests are read)
+     * @param requests
+     *            the ids of the requests to be indexed
+     */
+    public RelatednessIndex(double[][] relatedness, int[] requests) {
+        mNeighbors = new int[relatedness.length][];
+
+        double[] keys = new double[requests.length];
+        int[] ids = new int[requests.length];
+        for (int i : requests) {
+            int count = 0;
+            for (int j : requests) {
+                if (i == j)
+                    continue;
+                ids[count] = j;
+                keys[count] = relatedness[i][j];
+                count++;
+            }
+            PrimitiveSelect.sort(keys, ids, 0, count);
+            mNeighbors[i] = new int[count];
+            System.arraycopy(ids, 0, mNeighbors[i], 0, count);
+        }
+    }
+
+    /**
+     * Returns the requests sorted by decreasing relatedness to {@code request}
+     * 
+     * @param request
+     *            the request of interest
+     * @return the requests sorted by decreasing relatedness to {@code request}, or <code>null</code> if
+     *         {@code request} was not indexed
+     */
+    public int[] getNeighbors(int request) {
+        return mNeighbors[request];
+    }
+
+    /**
+     * Select the <code>(k+1)</code>-th candidate most related to {@code seed}
+     * 
+     * @param seed
+     *            the seed request
+     * @param candidates
+     *            the candidate requests
+     * @param k
+     *            the rank of the request to select (<code>0</code> for the most related)
+     * @return the <code>(k+1)</code>-th most related candidate, the least related candidate if there are less than
+     *         <code>k+1</code> candidates, or <code>-1</code> if there is no candidate
+     */
+    public int select(int seed, StampedIntSet candidates, int k) {
+        int[] neighbors = mNeighbors[seed];
+        if (neighbors == null)
+            return -1;
+        int last = -1;
+        for (int j : neighbors) {
+            if (candidates.contains(j)) {
+                if (k-- == 0)
+                    return j;
+                last = j;
+            }
+        }
+        return last;
+    }
+}
@@ -3,11 +3,19 @@
  */
 package vroom.trsp.optimization.alns;
 
+import java.util.Arrays;
 import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import vroom.common.heuristics.alns.IDestroy.IDestroyResult;
 import vroom.common.heuristics.alns.IRepair;
-import vroom.common.utilities.Utilities;
+import vroom.common.heuristics.alns.ScratchArena;
+import vroom.common.heuristics.alns.ScratchArena.Slot;
+import vroom.common.utilities.StampedDoubleArray;
+import vroom.common.utilities.math.TopKHeap;
 import vroom.common.utilities.optimization.IInstance;
 import vroom.common.utilities.optimization.IParameters;
 import vroom.trsp.datamodel.TRSPInstance;
@@ -28,6 +36,17 @@ import vroom.trsp.util.TRSPLogging;
  * Transportation Science, 2006, 40, 455-472
  * </p>
  * <p>
+ * The insertion matrix and regret values are borrowed from the {@link ScratchArena} of the current thread at each call
+ * to {@link #repair(TRSPSolution, IDestroyResult, IParameters)}.
+ * </p>
+ * <p>
+ * If {@link TRSPGlobalParameters#ALNS_REP_PARALLEL} is set and noise is disabled, the insertions of the different
+ * requests are evaluated in parallel on a fork/join pool shared by all the instances that use the same number of threads.
+ * Tours are only read during the evaluation, and the selection and execution of the best insertion remain sequential,
+ * so that the result is the same as with a sequential evaluation. The pool is acquired in {@link #initialize(IInstance)}
+ * and released in {@link #dispose()}, it is shut down when the last instance using it is disposed.
+ * </p>
+ * <p>
  * Creation date: May 13, 2011 - 3:20:23 PM
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
@@ -37,6 +56,56 @@ import vroom.trsp.util.TRSPLogging;
  */
 public class RepairRegret implements IRepair<TRSPSolution> {
 
+    /** Slot for the insertion matrix */
+    private static final Slot          INS_MATRIX    = new Slot("RepairRegret.insMatrix");
+    /** Slot for the regret values */
+    private static final Slot          REGRET_VALUES = new Slot("RepairRegret.regretValues");
+    /** Slot for the best insertions */
+    private static final Slot          BEST_INS      = new Slot("RepairRegret.bestIns");
+    /** Slot for the requests being evaluated in parallel */
+    private static final Slot          REQUESTS      = new Slot("RepairRegret.requests");
+
+    /** The maximum number of insertions evaluated by a single task in the parallel evaluation */
+    private static final int           PARALLEL_GRAIN = 16;
+    /** The pools used for the parallel evaluation of insertions, by number of threads */
+    private static final Map<Integer, ForkJoinPool> sPools     = new HashMap<>();
+    /** The number of instances using each pool, by number of threads */
+    private static final Map<Integer, Integer>      sPoolUsers = new HashMap<>();
+
+    /**
+     * Acquire the pool with a given number of threads, creating it if needed
+     * 
+     * @param threadCount
+     *            the number of threads of the pool
+     * @return the pool with {@code threadCount} threads
+     */
+    private static synchronized ForkJoinPool acquirePool(int threadCount) {
+        ForkJoinPool pool = sPools.get(threadCount);
+        if (pool == null) {
+            pool = new ForkJoinPool(threadCount);
+            sPools.put(threadCount, pool);
+            sPoolUsers.put(threadCount, 0);
+        }
+        sPoolUsers.put(threadCount, sPoolUsers.get(threadCount) + 1);
+        return pool;
+    }
+
+    /**
+     * Release the pool with a given number of threads, and shut it down if it is no longer used
+     * 
+     * @param threadCount
+     *            the number of threads of the pool
+     */
+    private static synchronized void releasePool(int threadCount) {
+        int users = sPoolUsers.get(threadCount) - 1;
+        if (users == 0) {
+            sPools.remove(threadCount).shutdown();
+            sPoolUsers.remove(threadCount);
+        } else {
+            sPoolUsers.put(threadCount, users);
+        }
+    }
+
     private final TRSPGlobalParameters mParams;
 
     /** the regret level **/
@@ -55,6 +124,11 @@ public class RepairRegret implements IRepair<TRSPSolution> {
     private final boolean mNoise;
     private double        mMaxNoise;
 
+    /** The number of threads used to evaluate insertions, or <code>1</code> for a sequential evaluation */
+    private int           mThreadCount = 1;
+    /** The pool used to evaluate insertions, or <code>null</code> for a sequential evaluation */
+    private ForkJoinPool  mPool;
+
     /**
      * Getter for the noise flag
      * 
@@ -69,14 +143,21 @@ public class RepairRegret implements IRepair<TRSPSolution> {
     /** The currently optimized solution */
     TRSPSolution                        mSolution;
 
-    /** A matrix containing the insertion cost of each request in each tour */
-    InsertionMove[][]                   mInsMatrix;
-    /** An array containing the regret value of each request */
-    Double[]                            mRegretValues;
-    /** An array containing the best insertion of each request */
+    /**
+     * A matrix containing the insertion cost of each request in each tour, stored by row: the insertion of request
+     * <code>r</code> in tour <code>t</code> is at index <code>r*{@link #mTourCount}+t</code>
+     */
+    InsertionMove[]                     mInsMatrix;
+    /** The number of tours, i.e. of columns of {@link #mInsMatrix} */
+    int                                 mTourCount;
+    /** An array containing the regret value of each request, unset if it has to be evaluated */
+    StampedDoubleArray                  mRegretValues;
+    /** An array containing the best insertion of each request, only valid if its regret value is set */
     InsertionMove[]                     mBestIns;
     /** The tour in which a request was inserted last */
     int                                 mLastInsTour;
+    /** A heap used to select the <em>q</em> best insertions of a request */
+    private final TopKHeap              mBestInsHeap;
 
     /** A constraint handler for this repair component **/
     private final TourConstraintHandler mConstraintHandler;
@@ -107,6 +188,7 @@ public class RepairRegret implements IRepair<TRSPSolution> {
         super();
         mConstraintHandler = constraintHandler;
         mLevel = level;
+        mBestInsHeap = new TopKHeap(level, true);
 
         mParams = params;
 
@@ -122,6 +204,24 @@ public class RepairRegret implements IRepair<TRSPSolution> {
         } else {
             mMaxNoise = 0;
         }
+        int threadCount = !isNoiseEnabled() && mParams.get(TRSPGlobalParameters.ALNS_REP_PARALLEL) ? mParams
+                .getThreadCount() : 1;
+        if (mPool != null && threadCount != mThreadCount) {
+            releasePool(mThreadCount);
+            mPool = null;
+        }
+        mThreadCount = threadCount;
+        if (mPool == null && mThreadCount > 1)
+            mPool = acquirePool(mThreadCount);
+    }
+
+    /**
+     * Returns the pool used to evaluate insertions
+     * 
+     * @return the pool used to evaluate insertions, or <code>null</code> if insertions are evaluated sequentially
+     */
+    ForkJoinPool getPool() {
+        return mPool;
     }
 
     @Override
@@ -135,11 +235,14 @@ public class RepairRegret implements IRepair<TRSPSolution> {
 
         mLastInsTour = -1;
 
-        mBestIns = new InsertionMove[solution.getInstance().getMaxId()];
-        mRegretValues = new Double[solution.getInstance().getMaxId()];
-        mInsMatrix = new InsertionMove[solution.getInstance().getMaxId()][];
+        ScratchArena arena = ScratchArena.current();
+        int maxId = solution.getInstance().getMaxId();
+        mTourCount = solution.getTourCount();
+        mBestIns = arena.objectArray(BEST_INS, InsertionMove.class, maxId);
+        mRegretValues = arena.stampedDoubleArray(REGRET_VALUES, maxId);
+        mInsMatrix = arena.objectArray(INS_MATRIX, InsertionMove.class, maxId * mTourCount);
         for (int r : solution.getUnservedRequests())
-            mInsMatrix[r] = new InsertionMove[solution.getTourCount()];
+            clearInsertions(r);
 
         while (!solution.getUnservedRequests().isEmpty()) {
             // Evaluate the insertion cost matrix
@@ -162,9 +265,7 @@ public class RepairRegret implements IRepair<TRSPSolution> {
                     mLastInsTour = bestInsOverall.getTour().getTechnicianId();
 
                     // Clear stored data
-                    mInsMatrix[bestInsOverall.getNodeId()] = null;
-                    mBestIns[bestInsOverall.getNodeId()] = null;
-                    mRegretValues[bestInsOverall.getNodeId()] = null;
+                    clearInsertions(bestInsOverall.getNodeId());
                 } else {
                     TRSPLogging.getOptimizationLogger().lowDebug(
                             "RepairBestInsertion.repair: insertion failed - %s", bestInsOverall);
@@ -184,10 +285,30 @@ public class RepairRegret implements IRepair<TRSPSolution> {
                             solution.getUnservedRequests());
         }
 
+        // Release the references to the insertions of infeasible requests
+        for (int r : solution.getUnservedRequests())
+            clearInsertions(r);
+        mInsMatrix = null;
+        mBestIns = null;
+        mRegretValues = null;
+
         mBusy = false;
         return solution.getUnservedRequests().isEmpty();
     }
 
+    /**
+     * Clear the insertions and regret value stored for a request
+     * 
+     * @param r
+     *            the request
+     */
+    private void clearInsertions(int r) {
+        int row = r * mTourCount;
+        Arrays.fill(mInsMatrix, row, row + mTourCount, null);
+        mBestIns[r] = null;
+        mRegretValues.unset(r);
+    }
+
     /**
      * Selects the best insertion among all candidates
      * 
@@ -198,95 +319,187 @@ public class RepairRegret implements IRepair<TRSPSolution> {
         double bestRegret = 0;
 
         for (int r : mSolution.getUnservedRequests()) {
-            if (mRegretValues[r] == null) {
-                // Get the q best insertions
-                InsertionMove[] bests = Utilities.Math.max(mInsMatrix[r], getLevel());
-
-                if (bests.length == 0) {
-                    // No feasible insertion was found
-                    mBestIns[r] = null;
-                    mRegretValues[r] = null;
-                    continue;
-                }
-
-                // Store the best insertion
-                mBestIns[r] = bests[bests.length - 1];
-
-                // Evaluate the regret
-                if (getLevel() == 1)
-                    mRegretValues[r] = -mBestIns[r].getCost();
-                else {
-                    mRegretValues[r] = 0d;
-                    for (int i = 0; i < bests.length - 1; i++) {
-                        mRegretValues[r] += bests[i].getCost() - mBestIns[r].getCost();
-                    }
-                }
-            }
+            if (!mRegretValues.isSet(r) && !evaluateRegret(r))
+                // No feasible insertion was found
+                continue;
 
             // Select the best insertion overall
-            if (bestIns == null || mRegretValues[r] > bestRegret || // Better insertion found
-                    (mRegretValues[r] == bestRegret && mBestIns[r].getCost() < bestIns.getCost())) {// Resolve ties
+            double regret = mRegretValues.get(r);
+            if (bestIns == null || regret > bestRegret || // Better insertion found
+                    (regret == bestRegret && mBestIns[r].getCost() < bestIns.getCost())) {// Resolve ties
                 bestIns = mBestIns[r];
-                bestRegret = mRegretValues[r];
+                bestRegret = regret;
             }
         }
 
         return bestIns;
     }
 
+    /**
+     * Evaluates the best insertion and the regret value of a request from the {@link #mInsMatrix insertion matrix}
+     * and stores them in {@link #mBestIns} and {@link #mRegretValues}
+     * 
+     * @param r
+     *            the request to evaluate
+     * @return {@code true} if a feasible insertion was found for {@code r}
+     */
+    protected boolean evaluateRegret(int r) {
+        InsertionMove[] insertions = mInsMatrix;
+        int row = r * mTourCount;
+        InsertionMove best = null;
+
+        // Get the q best insertions
+        mBestInsHeap.clear();
+        for (int t = 0; t < mTourCount; t++) {
+            InsertionMove ins = insertions[row + t];
+            if (ins != null) {
+                mBestInsHeap.offer(ins.getImprovement(), t);
+                if (best == null || ins.compareTo(best) > 0)
+                    best = ins;
+            }
+        }
+
+        // Store the best insertion
+        mBestIns[r] = best;
+        if (best == null) {
+            mRegretValues.unset(r);
+            return false;
+        }
+
+        // Evaluate the regret
+        if (getLevel() == 1) {
+            mRegretValues.set(r, -best.getCost());
+        } else {
+            double regret = 0;
+            for (int i = 0; i < mBestInsHeap.size(); i++)
+                regret += best.getImprovement() - mBestInsHeap.getKey(i);
+            mRegretValues.set(r, regret);
+        }
+        return true;
+    }
+
     /**
      * Evaluates the insertion cost matrix stored in {@link #mInsMatrix} and updates the best insertion for each request
-     * {@link #mBestInsTour} and overall {@link #mBestInsOverall}
+     * {@link #mBestIns} and its regret value {@link #mRegretValues}
      */
     void evaluateInsCostMatrix(IParameters params) {
-        for (int req : mSolution.getUnservedRequests()) {
-            // Select the tour cost delegate
-            // We do this to ensure we have good insertions within a tour
-            TRSPCostDelegate costDelegate = TRSPTourBalance.class.isInstance(mSolution
-                    .getCostDelegate()) ? ((TRSPTourBalance) mSolution.getCostDelegate())
-                    .getTourCostDelegate() : mSolution.getCostDelegate();
-            if (isNoiseEnabled())
-                costDelegate = new NoisyCostDelegate(costDelegate, params.getRandomStream(),
-                        mMaxNoise);
-
-            // Evaluate all tours in the first iteration, and only the last modified tour otherwise
-            int tmin = mLastInsTour < 0 ? 0 : mLastInsTour;
-            int tmax = mLastInsTour < 0 ? mSolution.getTourCount() : mLastInsTour + 1;
-            for (int t = tmin; t < tmax; t++) {
-                // Evaluate the insertion cost of the considered request in tour t
-                InsertionMove ins = InsertionMove.findInsertion(req, mSolution.getTour(t),
-                        costDelegate, getConstraintHandler(),
-                        TRSPGlobalParameters.CTR_CHK_FWD_FEAS, true);
-
-                if (!ins.isFeasible()) {
-                    if (mInsMatrix[req][t] != null) {
-                        // The insertion used to be feasible, the best insertion and regret value may have changed
-                        mBestIns[req] = null;
-                        mRegretValues[req] = null;
-                    }
-
-                    // The move cannot be inserted in this tour
-                    mInsMatrix[req][t] = null;
-                } else {
-                    // Reevaluate the insertion if needed to evaluate the insertion for the whole solution
-                    if (mSolution.getCostDelegate() instanceof TRSPTourBalance) {
-                        double scdImp = ins.getImprovement();
-                        mSolution.getCostDelegate().evaluateMove(ins);
-                        // The initial improvement is stored as secondary improvement
-                        ins.setSecondaryImprovement(scdImp);
-                    }
-
-                    // Store the value
-                    mInsMatrix[req][t] = ins;
-
-                    // The best insertion and regret value are likely to have changed
+        // Evaluate all tours in the first iteration, and only the last modified tour otherwise
+        int tmin = mLastInsTour < 0 ? 0 : mLastInsTour;
+        int tmax = mLastInsTour < 0 ? mSolution.getTourCount() : mLastInsTour + 1;
+
+        // Select the tour cost delegate
+        // We do this to ensure we have good insertions within a tour
+        TRSPCostDelegate costDelegate = TRSPTourBalance.class.isInstance(mSolution.getCostDelegate()) ? ((TRSPTourBalance) mSolution
+                .getCostDelegate()).getTourCostDelegate() : mSolution.getCostDelegate();
+
+        int reqCount = mSolution.getUnservedCount();
+        if (mPool != null && reqCount * (tmax - tmin) > 2 * PARALLEL_GRAIN) {
+            // Each task writes the rows of distinct requests
+            int[] requests = ScratchArena.current().intArray(REQUESTS, reqCount);
+            int i = 0;
+            for (int req : mSolution.getUnservedRequests())
+                requests[i++] = req;
+            mPool.invoke(
+                    new InsertionEvaluationTask(requests, 0, reqCount, tmin, tmax, costDelegate));
+        } else {
+            for (int req : mSolution.getUnservedRequests()) {
+                TRSPCostDelegate reqCostDelegate = costDelegate;
+                if (isNoiseEnabled())
+                    reqCostDelegate = new NoisyCostDelegate(costDelegate, params.getRandomStream(), mMaxNoise);
+                evaluateInsertions(req, tmin, tmax, reqCostDelegate);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the insertions of a request in a range of tours and stores them in {@link #mInsMatrix}.
+     * <p>
+     * This method only modifies the entries of {@link #mInsMatrix}, {@link #mBestIns} and {@link #mRegretValues}
+     * associated with {@code req}, it can therefore be called concurrently for different requests.
+     * </p>
+     * 
+     * @param req
+     *            the request to evaluate
+     * @param tmin
+     *            the first tour to evaluate
+     * @param tmax
+     *            the last tour to evaluate (exclusive)
+     * @param costDelegate
+     *            the cost delegate used to evaluate insertions within a tour
+     */
+    private void evaluateInsertions(int req, int tmin, int tmax, TRSPCostDelegate costDelegate) {
+        for (int t = tmin; t < tmax; t++) {
+            // Evaluate the insertion cost of the considered request in tour t
+            InsertionMove ins = InsertionMove.findInsertion(req, mSolution.getTour(t), costDelegate,
+                    getConstraintHandler(), TRSPGlobalParameters.CTR_CHK_FWD_FEAS, true);
+
+            int idx = req * mTourCount + t;
+            if (!ins.isFeasible()) {
+                if (mInsMatrix[idx] != null) {
+                    // The insertion used to be feasible, the best insertion and regret value may have changed
                     mBestIns[req] = null;
-                    mRegretValues[req] = null;
+                    mRegretValues.unset(req);
+                }
+
+                // The move cannot be inserted in this tour
+                mInsMatrix[idx] = null;
+            } else {
+                // Reevaluate the insertion if needed to evaluate the insertion for the whole solution
+                if (mSolution.getCostDelegate() instanceof TRSPTourBalance) {
+                    double scdImp = ins.getImprovement();
+                    mSolution.getCostDelegate().evaluateMove(ins);
+                    // The initial improvement is stored as secondary improvement
+                    ins.setSecondaryImprovement(scdImp);
                 }
+
+                // Store the value
+                mInsMatrix[idx] = ins;
+
+                // The best insertion and regret value are likely to have changed
+                mBestIns[req] = null;
+                mRegretValues.unset(req);
             }
         }
     }
 
+    /**
+     * <code>InsertionEvaluationTask</code> evaluates the insertions of a range of requests, recursively splitting it
+     * until each task evaluates at most {@link RepairRegret#PARALLEL_GRAIN} insertions
+     */
+    private class InsertionEvaluationTask extends RecursiveAction {
+        private static final long      serialVersionUID = 1L;
+
+        private final int[]            mRequests;
+        private final int              mFrom;
+        private final int              mTo;
+        private final int              mTMin;
+        private final int              mTMax;
+        private final TRSPCostDelegate mCostDelegate;
+
+        private InsertionEvaluationTask(int[] requests, int from, int to, int tmin, int tmax,
+                TRSPCostDelegate costDelegate) {
+            mRequests = requests;
+            mFrom = from;
+            mTo = to;
+            mTMin = tmin;
+            mTMax = tmax;
+            mCostDelegate = costDelegate;
+        }
+
+        @Override
+        protected void compute() {
+            if (mTo - mFrom > 1 && (mTo - mFrom) * (mTMax - mTMin) > PARALLEL_GRAIN) {
+                int mid = (mFrom + mTo) >>> 1;
+                invokeAll(new InsertionEvaluationTask(mRequests, mFrom, mid, mTMin, mTMax, mCostDelegate),
+                        new InsertionEvaluationTask(mRequests, mid, mTo, mTMin, mTMax, mCostDelegate));
+                return;
+            }
+
+            for (int i = mFrom; i < mTo; i++)
+                evaluateInsertions(mRequests[i], mTMin, mTMax, mCostDelegate);
+        }
+    }
+
     @Override
     public String toString() {
         return String.format("%s[%s]", getName(), getLevel());
@@ -307,6 +520,10 @@ public class RepairRegret implements IRepair<TRSPSolution> {
         mInsMatrix = null;
         mRegretValues = null;
         mBestIns = null;
+        if (mPool != null) {
+            releasePool(mThreadCount);
+            mPool = null;
+        }
     }
 
     @Override
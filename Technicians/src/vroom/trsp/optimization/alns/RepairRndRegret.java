@@ -5,7 +5,6 @@ package vroom.trsp.optimization.alns;
 
 import umontreal.iro.lecuyer.rng.RandomStream;
 import vroom.common.utilities.RouletteWheel;
-import vroom.common.utilities.Utilities;
 import vroom.trsp.optimization.InsertionMove;
 import vroom.trsp.optimization.constraints.TourConstraintHandler;
 import vroom.trsp.util.TRSPGlobalParameters;
@@ -42,32 +41,11 @@ public class RepairRndRegret extends RepairRegret {
         RouletteWheel<InsertionMove> wheel = new RouletteWheel<InsertionMove>();
 
         for (int r : mSolution.getUnservedRequests()) {
-            if (mRegretValues[r] == null) {
-                // Get the q best insertions
-                InsertionMove[] bests = Utilities.Math.max(mInsMatrix[r], getLevel());
+            if (!mRegretValues.isSet(r) && !evaluateRegret(r))
+                // No feasible insertion was found
+                continue;
 
-                if (bests.length == 0) {
-                    // No feasible insertion was found
-                    mBestIns[r] = null;
-                    mRegretValues[r] = null;
-                    continue;
-                }
-
-                // Store the best insertion
-                mBestIns[r] = bests[bests.length - 1];
-
-                // Evaluate the regret
-                if (getLevel() == 1)
-                    mRegretValues[r] = -mBestIns[r].getCost();
-                else {
-                    mRegretValues[r] = 0d;
-                    for (int i = 0; i < bests.length - 1; i++) {
-                        mRegretValues[r] += bests[i].getCost() - mBestIns[r].getCost();
-                    }
-                }
-            }
-
-            wheel.add(mBestIns[r], mRegretValues[r]);
+            wheel.add(mBestIns[r], mRegretValues.get(r));
         }
 
         return wheel.drawObject(mRndStream, false);
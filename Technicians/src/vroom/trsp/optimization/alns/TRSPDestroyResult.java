@@ -3,7 +3,7 @@
  */
 package vroom.trsp.optimization.alns;
 
-import java.util.Set;
+import java.util.Collection;
 
 import vroom.common.heuristics.alns.IDestroy;
 import vroom.common.heuristics.alns.IDestroy.IDestroyResult;
@@ -14,6 +14,10 @@ import vroom.trsp.datamodel.TRSPSolution;
  * {@link IDestroy#destroy(vroom.common.utilities.optimization.ISolution, vroom.common.utilities.optimization.IParameters, int)
  * destroy} operation in the form of a collection of removed requests
  * <p>
+ * The ids of the removed requests are stored in an array owned by the result, which therefore remains valid after
+ * subsequent destroy operations.
+ * </p>
+ * <p>
  * Creation date: May 13, 2011 - 1:35:47 PM
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
@@ -23,7 +27,18 @@ import vroom.trsp.datamodel.TRSPSolution;
  */
 public class TRSPDestroyResult implements IDestroyResult<TRSPSolution> {
 
-    private final Set<Integer> mRemovedRequests;
+    private final int[] mRemovedRequests;
+
+    /**
+     * Creates a new <code>TRSPDestroyResult</code>
+     * 
+     * @param remReq
+     *            the ids of the requests that were removed during the destroy operation, the array is not copied and
+     *            must not be modified afterwards
+     */
+    public TRSPDestroyResult(int[] remReq) {
+        mRemovedRequests = remReq != null ? remReq : new int[0];
+    }
 
     /**
      * Creates a new <code>TRSPDestroyResult</code>
@@ -31,26 +46,52 @@ public class TRSPDestroyResult implements IDestroyResult<TRSPSolution> {
      * @param remReq
      *            the requests that were removed during the destroy operation
      */
-    public TRSPDestroyResult(Set<Integer> remReq) {
-        mRemovedRequests = remReq;
+    public TRSPDestroyResult(Collection<Integer> remReq) {
+        mRemovedRequests = new int[remReq != null ? remReq.size() : 0];
+        if (remReq != null) {
+            int i = 0;
+            for (int r : remReq)
+                mRemovedRequests[i++] = r;
+        }
     }
 
     @Override
     public boolean isNull() {
-        return mRemovedRequests != null && !mRemovedRequests.isEmpty();
+        return mRemovedRequests.length > 0;
+    }
+
+    /**
+     * Returns the number of removed requests
+     * 
+     * @return the number of removed requests
+     */
+    public int getRemovedCount() {
+        return mRemovedRequests.length;
+    }
+
+    /**
+     * Returns the id of the {@code i}-th removed request
+     * 
+     * @param i
+     *            the index of the removed request, between <code>0</code> and
+     *            <code>{@link #getRemovedCount()}-1</code>
+     * @return the id of the {@code i}-th removed request
+     */
+    public int getRemovedRequest(int i) {
+        return mRemovedRequests[i];
     }
 
     /**
-     * Returns the list of removed requests
+     * Returns the ids of the removed requests
      * 
-     * @return the list of removed requests
+     * @return a copy of the ids of the removed requests
      */
-    public Set<Integer> getRemovedRequests() {
-        return mRemovedRequests;
+    public int[] getRemovedRequests() {
+        return mRemovedRequests.clone();
     }
 
     @Override
     public String toString() {
-        return mRemovedRequests != null ? vroom.common.utilities.Utilities.toShortString(mRemovedRequests) : "[]";
+        return vroom.common.utilities.Utilities.toShortString(mRemovedRequests);
     }
 }
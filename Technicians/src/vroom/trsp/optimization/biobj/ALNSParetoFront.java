@@ -116,8 +116,8 @@ public class ALNSParetoFront extends ParetoFront {
             if (!super.dominates(sol))
                 return false;
 
-            boolean tf = getSolution().getUnservedCount() == 0;
-            boolean sf = sol.getSolution().getUnservedCount() == 0;
+            boolean tf = getUnservedCount() == 0;
+            boolean sf = sol.getUnservedCount() == 0;
             return tf || (!tf && !sf);
         }
     }
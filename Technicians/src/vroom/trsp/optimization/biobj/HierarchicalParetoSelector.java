@@ -4,6 +4,7 @@
 package vroom.trsp.optimization.biobj;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.SortedSet;
 
 import vroom.trsp.datamodel.TRSPSolution;
@@ -56,7 +57,7 @@ public class HierarchicalParetoSelector implements IParetoSelector {
     @Override
     public ParetoSolution selectParetoSolution(ParetoFront pareto) {
         double allowedDeg = mAllowedDegradation;
-        SortedSet<ParetoSolution> solutions;
+        List<ParetoSolution> solutions;
         if (allowedDeg == Double.POSITIVE_INFINITY) {
             // We use the solutions sorted according to the first objective
             // Thus the first feasible will be the best according to the second objective
@@ -75,7 +76,7 @@ public class HierarchicalParetoSelector implements IParetoSelector {
         ParetoSolution selectedSolution = null;
         double threshold = Double.NaN;
         for (ParetoSolution sol : solutions) {
-            if (sol.getSolution().getUnservedCount() == 0) {
+            if (sol.getUnservedCount() == 0) {
                 if (allowedDeg == 1)
                     // We found the first (best) feasible solution, return it
                     return sol;
@@ -92,8 +93,7 @@ public class HierarchicalParetoSelector implements IParetoSelector {
                     selectedSolution = sol;
                 }
             } else if (selectedSolution == null
-                    || sol.getSolution().getUnservedCount() < selectedSolution.getSolution()
-                            .getUnservedCount()) {
+                    || sol.getUnservedCount() < selectedSolution.getUnservedCount()) {
                 // We found an infeasible solution with the lowest number of unserved requests so far
                 selectedSolution = sol;
             }
@@ -139,10 +139,10 @@ public class HierarchicalParetoSelector implements IParetoSelector {
         ParetoSolution best = null;
         while (it.hasNext()) {
             s = it.next();
-            if (s.getSolution().getUnservedCount() == 0)
+            if (s.getUnservedCount() == 0)
                 return s;
             else if (best == null
-                    || s.getSolution().getUnservedCount() < best.getSolution().getUnservedCount())
+                    || s.getUnservedCount() < best.getUnservedCount())
                 best = s;
         }
         return best;
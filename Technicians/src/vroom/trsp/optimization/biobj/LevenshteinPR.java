@@ -10,11 +10,12 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import vroom.common.heuristics.Move;
-import vroom.common.utilities.LevenshteinDistance;
-import vroom.common.utilities.LevenshteinDistance.Edit;
+import vroom.common.utilities.EditScript;
 import vroom.common.utilities.LevenshteinDistance.EditType;
 import vroom.common.utilities.Utilities;
 import vroom.common.utilities.optimization.IParameters;
@@ -22,6 +23,7 @@ import vroom.common.utilities.optimization.IPathRelinking;
 import vroom.trsp.datamodel.TRSPSolution;
 import vroom.trsp.datamodel.TRSPSolutionChecker;
 import vroom.trsp.datamodel.TRSPTour;
+import vroom.trsp.datamodel.TRSPTour.TRSPTourIterator;
 import vroom.trsp.datamodel.costDelegates.TRSPCostDelegate;
 import vroom.trsp.util.TRSPGlobalParameters;
 import vroom.trsp.util.TRSPLogging;
@@ -131,8 +133,9 @@ public class LevenshteinPR implements IPathRelinking<TRSPSolution> {
 
     private void checkTour(TRSPTour tour) {
         int last = 0;
-        for (int n : tour)
-            last = n;
+        TRSPTourIterator it = tour.iterator();
+        while (it.hasNext())
+            last = it.nextInt();
 
         if (!tour.getSolution().getInstance().isDepot(last) || last != tour.getLastNode())
             throw new IllegalStateException();
@@ -151,46 +154,46 @@ public class LevenshteinPR implements IPathRelinking<TRSPSolution> {
     @SuppressWarnings("unchecked")
     public List<PRMove> decomposeInMoves(TRSPSolution start, TRSPSolution target) {
         List<?>[] edits = new List<?>[start.getInstance().getMaxId()];
+        EditScript[] scripts = new EditScript[start.getTourCount()];
         int mveCount = 0;
+
+        EditScriptTask task = new EditScriptTask(start, target, scripts, 0, scripts.length);
+        if (ForkJoinTask.inForkJoinPool())
+            // Let idle workers of the current pool steal the evaluation of some tours
+            task.invoke();
+        else
+            task.compute();
+
         for (int techId = 0; techId < start.getTourCount(); techId++) {
             TRSPTour s = start.getTour(techId);
-            TRSPTour t = target.getTour(techId);
-            List<Edit<Integer>> editSequence = LevenshteinDistance.getEditSequence(s.asList(),
-                    t.asList());
+            EditScript script = scripts[techId];
 
-            ListIterator<Edit<Integer>> it = editSequence.listIterator();
-            while (it.hasNext()) {
-                Edit<Integer> e = it.next();
+            int k = 0;
+            while (k < script.size()) {
+                EditType type = script.getType(k);
+                int idx = script.getEditIndex(k);
+                Integer editedReq = idx > 0 ? script.getEditedElement(k) : null;
 
                 // Special case for insert: check for sequential insertions
                 List<Integer> newNodes = null;
-                if (e.getType() == EditType.INS) {
+                if (type == EditType.INS) {
                     newNodes = new ArrayList<Integer>(3);
-                    int idx = e.getEditIndex();
-                    newNodes.add(e.getNewElement());
-                    Edit<Integer> next = null;
+                    newNodes.add(script.getNewElement(k++));
                     // Step forward while we are on an sequence insertion
-                    boolean insSeq = true;
-                    while (it.hasNext() && insSeq) {
-                        next = it.next();
-                        insSeq = next.getType() == EditType.INS && next.getEditIndex() == idx;
-                        if (insSeq)
-                            newNodes.add(next.getNewElement());
-                    }
-                    // Step back if insertion sequence finished
-                    if (!insSeq)
-                        it.previous();
+                    while (k < script.size() && script.getType(k) == EditType.INS
+                            && script.getEditIndex(k) == idx)
+                        newNodes.add(script.getNewElement(k++));
                     // Reverse the insertion order
                     // Collections.reverse(newNodes);
                 } else {
-                    newNodes = Collections.singletonList(e.getNewElement());
+                    newNodes = Collections.singletonList(script.getNewElement(k++));
                 }
 
-                AtomicPRMove mve = new AtomicPRMove(e.getType(), s, e.getEditedElement(), newNodes);
+                AtomicPRMove mve = new AtomicPRMove(type, s, editedReq, newNodes);
                 for (Integer n : newNodes)
                     getEditList(edits, n).add(mve);
                 if (mve.getType() == EditType.SUB)
-                    getEditList(edits, e.getEditedElement()).add(mve);
+                    getEditList(edits, editedReq).add(mve);
                 mveCount++;
             }
         }
@@ -230,6 +233,51 @@ public class LevenshteinPR implements IPathRelinking<TRSPSolution> {
         return moveList;
     }
 
+    /**
+     * <code>EditScriptTask</code> evaluates the {@link EditScript edit scripts} of a range of tours, recursively
+     * splitting it when executed in a {@link ForkJoinPool}
+     */
+    private static class EditScriptTask extends RecursiveAction {
+        private static final long  serialVersionUID = 1L;
+
+        /** The minimum number of cells of the dynamic programming matrices evaluated by a single task */
+        private static final int   GRAIN            = 4096;
+
+        private final TRSPSolution mStart;
+        private final TRSPSolution mTarget;
+        private final EditScript[] mScripts;
+        private final int          mFrom;
+        private final int          mTo;
+
+        private EditScriptTask(TRSPSolution start, TRSPSolution target, EditScript[] scripts, int from,
+                int to) {
+            mStart = start;
+            mTarget = target;
+            mScripts = scripts;
+            mFrom = from;
+            mTo = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (mTo - mFrom > 1 && ForkJoinTask.inForkJoinPool()) {
+                long cells = 0;
+                for (int t = mFrom; t < mTo; t++)
+                    cells += (long) mStart.getTour(t).length() * mTarget.getTour(t).length();
+                if (cells > 2 * GRAIN) {
+                    int mid = (mFrom + mTo) >>> 1;
+                    invokeAll(new EditScriptTask(mStart, mTarget, mScripts, mFrom, mid), new EditScriptTask(
+                            mStart, mTarget, mScripts, mid, mTo));
+                    return;
+                }
+            }
+
+            for (int t = mFrom; t < mTo; t++)
+                mScripts[t] = EditScript.getEditScript(mStart.getTour(t).asArray(), mTarget.getTour(t)
+                        .asArray());
+        }
+    }
+
     /**
      * Get the id of the requests affected by a move
      * 
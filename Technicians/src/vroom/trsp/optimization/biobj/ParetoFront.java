@@ -3,14 +3,16 @@
  */
 package vroom.trsp.optimization.biobj;
 
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.SortedSet;
+import java.util.NoSuchElementException;
 import java.util.TreeSet;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
@@ -23,13 +25,22 @@ import vroom.common.utilities.Utilities.Random;
 import vroom.common.utilities.optimization.IInstance;
 import vroom.common.utilities.optimization.IParameters;
 import vroom.common.utilities.optimization.OptimizationSense;
+import vroom.trsp.datamodel.TRSPInstance;
 import vroom.trsp.datamodel.TRSPSolution;
+import vroom.trsp.datamodel.TRSPTour;
+import vroom.trsp.datamodel.TRSPTour.TRSPTourIterator;
 import vroom.trsp.datamodel.costDelegates.TRSPCostDelegate;
 
 /**
  * <code>ParetoFront</code> is an implementation of {@link IPALNSSolutionPool} that maintain a Pareto front for
  * {@link TRSPSolution solutions} according to 2 objectives.
  * <p>
+ * Modifications of the front are synchronized internally, while a snapshot of the front is published after each
+ * modification so that dominated candidates can be {@linkplain #isDominated(ParetoSolution) rejected} without locking.
+ * Solutions stored in the front are kept in a compact giant tour encoding and rehydrated on demand by
+ * {@link ParetoSolution#getSolution()}.
+ * </p>
+ * <p>
  * Creation date: Nov 23, 2011 - 1:55:52 PM
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
@@ -42,6 +53,10 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
 
     private final HashSet<ParetoSolution> mAllSolutions;
     private final TreeSet<ParetoSolution> mFirstObjSol;
+    private final ParetoSolutionComparator mFirstObjComparator;
+
+    /** The solutions of the front sorted according to the first objective, republished after each modification */
+    private volatile ParetoSolution[]     mSnapshot;
 
     private final OptimizationSense       mFirstObjSense;
     private final OptimizationSense       mSecondObjSense;
@@ -122,10 +137,10 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
         mSecondCostDelegate = secondCostDelegate;
         mSecondObjSense = secondObjSense;
 
-        mFirstObjSol = new TreeSet<ParetoSolution>(new ParetoSolutionComparator(true,
-                mFirstObjSense));
-        mSecondObjSol = Collections.unmodifiableSortedSet(mFirstObjSol.descendingSet());
+        mFirstObjComparator = new ParetoSolutionComparator(true, mFirstObjSense);
+        mFirstObjSol = new TreeSet<ParetoSolution>(mFirstObjComparator);
         mAllSolutions = new HashSet<ParetoFront.ParetoSolution>();
+        mSnapshot = new ParetoSolution[0];
 
         mLock = new ReentrantLock();
     }
@@ -142,10 +157,15 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
         mSecondCostDelegate = original.mSecondCostDelegate;
         mSecondObjSense = original.mSecondObjSense;
 
-        mFirstObjSol = (TreeSet<ParetoSolution>) original.mFirstObjSol.clone();
-        mSecondObjSol = Collections.unmodifiableSortedSet(mFirstObjSol.descendingSet());
-        mAllSolutions = (HashSet<ParetoSolution>) original.mAllSolutions.clone();
-
+        mFirstObjComparator = original.mFirstObjComparator;
+        original.mLock.lock();
+        try {
+            mFirstObjSol = (TreeSet<ParetoSolution>) original.mFirstObjSol.clone();
+            mAllSolutions = (HashSet<ParetoSolution>) original.mAllSolutions.clone();
+            mSnapshot = original.mSnapshot;
+        } finally {
+            original.mLock.unlock();
+        }
         mLock = new ReentrantLock();
     }
 
@@ -182,39 +202,34 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
 
     @Override
     public boolean add(TRSPSolution solution, boolean mainIteration) {
-        ParetoSolution sol = wrapSolution(solution);
+        return add(wrapSolution(solution));
+    }
 
-        if (mAllSolutions.contains(sol))
+    /**
+     * Add a {@linkplain #wrapSolution(TRSPSolution) wrapped solution} to this front, and remove the solutions it
+     * dominates
+     * 
+     * @param sol
+     *            the wrapped solution to add
+     * @return {@code true} if the solution was added, {@code false} if it was {@linkplain #isDominated(ParetoSolution)
+     *         dominated}
+     */
+    public boolean add(ParetoSolution sol) {
+        // Reject the solution without locking if it is dominated in the current snapshot
+        if (isDominated(sol))
             return false;
 
-        if (size() == 0) {
-            // Add the solution to the front
-            addInternal(sol);
-            return true;
-        }
-
-        SortedSet<ParetoSolution> bestFirstObj = mFirstObjSol.tailSet(sol, true);
+        mLock.lock();
+        try {
+            if (mAllSolutions.contains(sol))
+                return false;
 
-        boolean nonDominated = true;
-        if (bestFirstObj.isEmpty()) {
-            nonDominated = true;
-        } else {
             // Look for a dominating solution
-            Iterator<ParetoSolution> bfit = bestFirstObj.iterator();
-            while (bfit.hasNext() && nonDominated) {
-                ParetoSolution bettersolfo = bfit.next();
+            for (ParetoSolution bettersolfo : mFirstObjSol.tailSet(sol, true)) {
                 if (bettersolfo.dominates(sol))
-                    nonDominated = false;
-                // if (bettersolfo.getSolution().getUnservedCount() == 0)
-                // break;
+                    return false;
             }
 
-        }
-
-        if (nonDominated) { // && !bestSecondObj.first().dominates(sol))) {
-            // The solution is the best the first objective objectives
-            // Or is better than the closest solutions on the second objective
-
             // Check for strictly dominated solutions
             Iterator<ParetoSolution> it = mFirstObjSol.headSet(sol, true).descendingIterator();
             ParetoSolution s;
@@ -225,27 +240,92 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
 
             // Add the solution internally
             addInternal(sol);
+            publishSnapshot();
             return true;
-        } else {
-            // The solution is dominated
-            return false;
+        } finally {
+            mLock.unlock();
         }
     }
 
+    /**
+     * Returns {@code true} if a point of the objective space is dominated by, or equal to, a solution of this front
+     * <p>
+     * This method does not lock the front, it can be used to discard a candidate solution before it is cloned or
+     * checked for feasibility
+     * </p>
+     * 
+     * @param firstObj
+     *            the first objective value
+     * @param secondObj
+     *            the second objective value
+     * @return {@code true} if a solution with the given objective values would be rejected by this front
+     * @see #isDominated(ParetoSolution)
+     */
+    public boolean isDominated(double firstObj, double secondObj) {
+        return isDominated(newParetoPoint(firstObj, secondObj));
+    }
+
+    /**
+     * Returns {@code true} if {@code  sol} is dominated by, or equal to, a solution of this front
+     * <p>
+     * This method does not lock the front: it is evaluated against the last published snapshot, which may miss
+     * solutions being added concurrently. A {@code false} result therefore does not guarantee that
+     * {@link #add(ParetoSolution)} will accept the solution.
+     * </p>
+     * 
+     * @param sol
+     *            the solution to be tested
+     * @return {@code true} if {@code  sol} would be rejected by this front
+     */
+    public boolean isDominated(ParetoSolution sol) {
+        ParetoSolution[] front = mSnapshot;
+        for (int i = tailIndex(front, sol); i < front.length; i++) {
+            if (front[i].dominates(sol) || front[i].equals(sol))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the index of the first solution of {@code  front} that is not worse than {@code  sol} for the first
+     * objective
+     */
+    private int tailIndex(ParetoSolution[] front, ParetoSolution sol) {
+        int low = 0;
+        int high = front.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mFirstObjComparator.compare(front[mid], sol) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Publish a new snapshot of the front, must be called while holding the lock
+     */
+    private void publishSnapshot() {
+        mSnapshot = mFirstObjSol.toArray(new ParetoSolution[mFirstObjSol.size()]);
+    }
+
     /**
      * Return {@code true} if no solution of the front is dominated by another, {@code false} otherwise
      * 
      * @return {@code true} if no solution of the front is dominated by another, {@code false} otherwise
      */
     public boolean checkPareto() {
-        for (ParetoSolution s : mAllSolutions)
-            for (ParetoSolution t : mAllSolutions)
+        ParetoSolution[] front = mSnapshot;
+        for (ParetoSolution s : front)
+            for (ParetoSolution t : front)
                 if (s != t && s.dominates(t))
                     return false;
         return true;
     }
 
     void addInternal(ParetoSolution sol) {
+        sol.compact();
         mFirstObjSol.add(sol);
         mAllSolutions.add(sol);
     }
@@ -260,7 +340,8 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
 
     @Override
     public Collection<TRSPSolution> subset(int size, RandomStream rndStream) {
-        ArrayList<ParetoSolution> wrappedSubset = Random.sample(mFirstObjSol, size, rndStream);
+        ArrayList<ParetoSolution> wrappedSubset = Random.sample(Arrays.asList(mSnapshot), size,
+                rndStream);
         ArrayList<TRSPSolution> subset = new ArrayList<TRSPSolution>(wrappedSubset.size());
         for (ParetoSolution sol : wrappedSubset) {
             subset.add(sol.getSolution());
@@ -270,12 +351,12 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
 
     @Override
     public TRSPSolution getBest() {
-        return mFirstObjSol.last().getSolution();
+        return getBestFirstObj().getSolution();
     }
 
     @Override
     public int size() {
-        return mFirstObjSol.size();
+        return mSnapshot.length;
     }
 
     @Override
@@ -285,9 +366,15 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
 
     @Override
     public void clear() {
-        mFirstObjSol.clear();
-        mAllSolutions.clear();
-        // mSecondObjSol.clear();
+        mLock.lock();
+        try {
+            mFirstObjSol.clear();
+            mAllSolutions.clear();
+            // mSecondObjSol.clear();
+            publishSnapshot();
+        } finally {
+            mLock.unlock();
+        }
     }
 
     /**
@@ -298,7 +385,7 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
     public String toCSVString() {
         StringBuilder sb = new StringBuilder(size() * 50);
         sb.append("hash;first_obj;second_obj\n");
-        for (ParetoSolution s : mFirstObjSol) {
+        for (ParetoSolution s : mSnapshot) {
             sb.append(s.hashCode());
             sb.append(";");
             sb.append(s.getFirstObjValue());
@@ -311,19 +398,23 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
 
     @Override
     public String toString() {
-        return Utilities.toShortString(mFirstObjSol);
+        return Utilities.toShortString(Arrays.asList(mSnapshot));
     }
 
     /**
      * Returns the solutions in this Pareto front sorted according to the first objective
      * <p>
-     * The {@linkplain SortedSet#last() last solution} is the best
+     * The last solution is the best
+     * </p>
      * <p>
+     * The returned list is an unmodifiable view of the current snapshot of the front, it can be iterated without
+     * holding the {@linkplain #acquireLock() lock} and does not reflect solutions added afterwards
+     * </p>
      * 
      * @return the solutions in this Pareto front sorted according to the first objective
      */
-    public SortedSet<ParetoSolution> getSolutionsFirstObj() {
-        return Collections.unmodifiableSortedSet(mFirstObjSol);
+    public List<ParetoSolution> getSolutionsFirstObj() {
+        return Collections.unmodifiableList(Arrays.asList(mSnapshot));
     }
 
     /**
@@ -332,21 +423,30 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
      * @return the best solution according to the first objective
      */
     public ParetoSolution getBestFirstObj() {
-        return mFirstObjSol.last();
+        ParetoSolution[] front = mSnapshot;
+        if (front.length == 0)
+            throw new NoSuchElementException();
+        return front[front.length - 1];
     }
 
-    private final SortedSet<ParetoSolution> mSecondObjSol;
-
     /**
      * Returns the solutions in this Pareto front sorted according to the second objective
      * <p>
-     * The {@linkplain SortedSet#last() last solution} is the best
+     * The last solution is the best
+     * </p>
      * <p>
+     * The returned list is a copy of the current snapshot of the front, it can be iterated without holding the
+     * {@linkplain #acquireLock() lock} and does not reflect solutions added afterwards
+     * </p>
      * 
      * @return the solutions in this Pareto front sorted according to the second objective
      */
-    public SortedSet<ParetoSolution> getSolutionsSecondObj() {
-        return mSecondObjSol;
+    public List<ParetoSolution> getSolutionsSecondObj() {
+        ParetoSolution[] front = mSnapshot;
+        ParetoSolution[] reversed = new ParetoSolution[front.length];
+        for (int i = 0; i < front.length; i++)
+            reversed[i] = front[front.length - 1 - i];
+        return Collections.unmodifiableList(Arrays.asList(reversed));
     }
 
     /**
@@ -355,7 +455,10 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
      * @return the best solution according to the second objective
      */
     public ParetoSolution getBestSecondObj() {
-        return mFirstObjSol.first();
+        ParetoSolution[] front = mSnapshot;
+        if (front.length == 0)
+            throw new NoSuchElementException();
+        return front[0];
     }
 
     @Override
@@ -365,8 +468,9 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
 
     @Override
     public List<TRSPSolution> getSolutions() {
-        ArrayList<TRSPSolution> sol = new ArrayList<TRSPSolution>(size());
-        for (ParetoSolution s : mFirstObjSol)
+        ParetoSolution[] front = mSnapshot;
+        ArrayList<TRSPSolution> sol = new ArrayList<TRSPSolution>(front.length);
+        for (ParetoSolution s : front)
             sol.add(s.getSolution());
         return sol;
     }
@@ -375,6 +479,11 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
      * <code>ParetoSolution</code> is used to attach two objective values to a solution. It assumes that the solution
      * objective values will not change after the object creation.
      * <p>
+     * Once added to a front, the solution is stored as a compact giant tour and rehydrated when
+     * {@link #getSolution()} is called. The last rehydrated solution is softly cached, it should therefore not be
+     * modified.
+     * </p>
+     * <p>
      * Creation date: Nov 23, 2011 - 3:02:39 PM
      * 
      * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
@@ -383,9 +492,19 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
      * @version 1.0
      */
     public class ParetoSolution {
-        private final double       mFirstObjValue;
-        private final double       mSecondObjValue;
-        private final TRSPSolution mSolution;
+        private final double                mFirstObjValue;
+        private final double                mSecondObjValue;
+        private final int                   mUnservedCount;
+        /** The solution, until it is compacted */
+        private TRSPSolution                mSolution;
+        /** The compact encoding of the solution */
+        private int[]                       mEncoding;
+        /** The last rehydrated solution */
+        private SoftReference<TRSPSolution> mCache;
+        /** The instance of the compacted solution */
+        private TRSPInstance                mInstance;
+        /** The cost delegate of the compacted solution */
+        private TRSPCostDelegate            mCostDelegate;
 
         /**
          * Creates a new <code>ParetoSolution</code>
@@ -398,6 +517,7 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
             mSolution = solution;
             mFirstObjValue = firstObjValue;
             mSecondObjValue = secondObjValue;
+            mUnservedCount = solution != null ? solution.getUnservedCount() : 0;
         }
 
         /**
@@ -434,13 +554,107 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
                     sol.getSecondObjValue(), getSecondObjValue(), false)));
         }
 
+        /**
+         * Returns the number of unserved requests in the solution, without rehydrating it
+         * 
+         * @return the number of unserved requests in the solution, or {@code 0} for a point of the objective space
+         */
+        public int getUnservedCount() {
+            return mUnservedCount;
+        }
+
         /**
          * Getter for <code>solution</code>
          * 
-         * @return the solution
+         * @return the solution, rehydrated from its compact encoding if required
          */
-        public TRSPSolution getSolution() {
-            return mSolution;
+        public synchronized TRSPSolution getSolution() {
+            if (mEncoding == null)
+                return mSolution;
+
+            TRSPSolution solution = mCache.get();
+            if (solution == null) {
+                solution = rehydrate();
+                mCache = new SoftReference<TRSPSolution>(solution);
+            }
+            return solution;
+        }
+
+        /**
+         * Returns a new solution rehydrated from the compact encoding, ignoring the cached solution
+         * 
+         * @return a new solution rehydrated from the compact encoding, or the solution itself if it was not compacted
+         */
+        synchronized TRSPSolution rehydrate() {
+            return mEncoding != null ? decode(mEncoding) : mSolution;
+        }
+
+        /**
+         * Replace the reference to the solution by its compact encoding.
+         * <p>
+         * Only instances of {@link TRSPSolution} are compacted, subclasses may hold additional state and are kept as
+         * is
+         * </p>
+         */
+        synchronized void compact() {
+            if (mEncoding != null || mSolution == null || mSolution.getClass() != TRSPSolution.class)
+                return;
+            mEncoding = encode(mSolution);
+            mCache = new SoftReference<TRSPSolution>(mSolution);
+            mInstance = mSolution.getInstance();
+            mCostDelegate = mSolution.getCostDelegate();
+            mSolution = null;
+        }
+
+        /**
+         * Encode a solution as
+         * <code>[tourCount, length(0), tour(0), ..., length(tourCount-1), tour(tourCount-1), unservedCount, unserved]</code>
+         * , where the length of tours that are not {@linkplain TRSPTour#isAutoUpdated() auto-updated} is complemented
+         */
+        private int[] encode(TRSPSolution solution) {
+            int size = solution.getTourCount() + solution.getUnservedCount() + 2;
+            for (TRSPTour tour : solution)
+                size += tour.length();
+
+            int[] encoding = new int[size];
+            int k = 0;
+            encoding[k++] = solution.getTourCount();
+            for (TRSPTour tour : solution) {
+                encoding[k++] = tour.isAutoUpdated() ? tour.length() : ~tour.length();
+                TRSPTourIterator it = tour.iterator();
+                while (it.hasNext())
+                    encoding[k++] = it.nextInt();
+            }
+            encoding[k++] = solution.getUnservedCount();
+            for (int r : solution.getUnservedRequests())
+                encoding[k++] = r;
+            return encoding;
+        }
+
+        /**
+         * Rehydrate a solution from its {@linkplain #encode(TRSPSolution) encoding}
+         */
+        private TRSPSolution decode(int[] encoding) {
+            TRSPSolution solution = new TRSPSolution(mInstance, mCostDelegate);
+            int k = 0;
+            int tourCount = encoding[k++];
+            for (int t = 0; t < tourCount; t++) {
+                TRSPTour tour = solution.getTour(t);
+                int length = encoding[k++];
+                boolean autoUpdated = length >= 0;
+                if (!autoUpdated)
+                    length = ~length;
+                // Append the nodes before updating the tour
+                tour.setAutoUpdated(false);
+                for (int i = 0; i < length; i++)
+                    tour.appendNode(encoding[k++]);
+                tour.setAutoUpdated(autoUpdated);
+            }
+            solution.markAllAsServed();
+            int unserved = encoding[k++];
+            for (int i = 0; i < unserved; i++)
+                solution.markAsUnserved(encoding[k++]);
+            return solution;
         }
 
         /*
@@ -483,10 +697,10 @@ public class ParetoFront implements IPALNSSolutionPool<TRSPSolution>,
 
         @Override
         public String toString() {
-            return String.format("%s [%s,%s (%s)]",
-                    mSolution != null ? mSolution.hashCode() : null,
+            TRSPSolution solution = mEncoding != null ? mCache.get() : mSolution;
+            return String.format("%s [%s,%s (%s)]", solution != null ? solution.hashCode() : null,
                     Utilities.format(mFirstObjValue), Utilities.format(mSecondObjValue),
-                    mSolution != null ? mSolution.getUnservedCount() : "");
+                    mSolution != null || mEncoding != null ? mUnservedCount : "");
             // return String.format("%s [%.3f,%.3f (%s)]", mSolution != null ? mSolution.hashCode() : null,
             // mFirstObjValue, mSecondObjValue, mSolution != null ? mSolution.getUnservedCount() : "");
         }
@@ -39,7 +39,7 @@ public class MaxDurationConstraint extends TourConstraintBase {
     public int firstInfeasibleNode(ITRSPTour tour) {
         if (TRSPTour.class.isAssignableFrom(tour.getClass())) {
             TRSPTour t = (TRSPTour) tour;
-            for (int i : t) {
+            for (int i = t.getFirstNode(); i != ITRSPTour.UNDEFINED; i = t.getSucc(i)) {
                 if (t.getEarliestDepartureTime(i) > mMaxDuration)
                     return i;
             }
@@ -51,8 +51,8 @@ public class ServicedRequestsConstraint extends TourConstraintBase {
             ITourIterator it = tour.iterator();
             TRSPTourIterator refIt = refTour.iterator();
             while (refIt.hasNext()) {
-                int ref = refIt.next();
-                int n = it.next();
+                int ref = refIt.nextInt();
+                int n = it.nextInt();
                 if (ref != n) {
                     return new FeasibilityState(n, "Found %s when expecting %s (tour:%s ref:%s)",
                             n, ref, tour, refTour);
@@ -6,6 +6,7 @@ package vroom.trsp.optimization.constraints;
 import vroom.common.utilities.optimization.IConstraint;
 import vroom.common.utilities.optimization.IMove;
 import vroom.trsp.datamodel.ITRSPTour;
+import vroom.trsp.datamodel.ITourIterator;
 import vroom.trsp.optimization.InsertionMove;
 import vroom.trsp.optimization.localSearch.TRSPShift.TRSPShiftMove;
 import vroom.trsp.optimization.localSearch.TRSPTwoOpt.TRSPTwoOptMove;
@@ -36,7 +37,9 @@ public class SkillsConstraint extends TourConstraintBase {
 
     @Override
     protected FeasibilityState checkFeasibility(ITRSPTour tour) {
-        for (int node : tour) {
+        ITourIterator it = tour.iterator();
+        while (it.hasNext()) {
+            int node = it.nextInt();
             if (tour.getInstance().isRequest(node)
                     && !tour.getInstance().hasRequiredSkills(tour.getTechnicianId(), node))
                 return new FeasibilityState(node,
@@ -8,6 +8,7 @@ import java.util.Arrays;
 import vroom.common.utilities.optimization.IConstraint;
 import vroom.common.utilities.optimization.IMove;
 import vroom.trsp.datamodel.ITRSPTour;
+import vroom.trsp.datamodel.ITourIterator;
 import vroom.trsp.datamodel.TRSPInstance;
 import vroom.trsp.datamodel.TRSPTour;
 import vroom.trsp.datamodel.TRSPTour.TRSPTourIterator;
@@ -104,7 +105,7 @@ public class SparePartsConstraint extends TourConstraintBase {
             spares[s] = tour.getAvailableSpareParts(move.getFirst(), s);
         }
         // Start with node m and iterate backward
-        int node = it.previous();
+        int node = it.previousInt();
         while (it.hasNext() && node != tour.getMainDepotId()) {
             for (int s = 0; s < spares.length; s++) {
                 spares[s] -= tour.getRequiredSpareParts(node, s);
@@ -198,7 +199,9 @@ public class SparePartsConstraint extends TourConstraintBase {
         int[] spare = tour.getInstance().getFleet().getVehicle(tour.getTechnicianId())
                 .getSpareParts();
 
-        for (int node : tour) {
+        ITourIterator it = tour.iterator();
+        while (it.hasNext()) {
+            int node = it.nextInt();
             if (instance.isMainDepot(node)) {
                 Arrays.fill(spare, Integer.MAX_VALUE);
             } else if (!instance.isDepot(node)) {
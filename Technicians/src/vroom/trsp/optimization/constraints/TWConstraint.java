@@ -55,7 +55,7 @@ public class TWConstraint extends TourConstraintBase {
         int pred = i;
         TRSPTourIterator it = tour.iterator(m);
         while (pred != j && it.hasPrevious()) {
-            int node = it.previous();
+            int node = it.previousInt();
             // Update the arrival time
             arrival = tour.getTimeWindow(pred).getEarliestStartOfService(arrival)
                     + tour.getServiceTime(pred) + tour.getTravelTime(pred, node);
@@ -261,7 +261,7 @@ public class TWConstraint extends TourConstraintBase {
         else if (TRSPTour.class.isAssignableFrom(itour.getClass())) {
             // Fast check for instances of TRSPTour using stored info
             TRSPTour tour = (TRSPTour) itour;
-            for (int n : tour) {
+            for (int n = tour.getFirstNode(); n != ITRSPTour.UNDEFINED; n = tour.getSucc(n)) {
                 if (!tour.getTimeWindow(n).isFeasible(tour.getEarliestArrivalTime(n))) {
                     return new FeasibilityState(n, "%s:TW violated (twe:%s ea:%.1f)", n, tour
                             .getTimeWindow(n).endAsDouble(), tour.getEarliestArrivalTime(n));
@@ -273,9 +273,9 @@ public class TWConstraint extends TourConstraintBase {
             Technician tech = itour.getInstance().getFleet().getVehicle(itour.getTechnicianId());
             double time = itour.getInstance().getTimeWindow(itour.getFirstNode()).startAsDouble();
             ITourIterator it = itour.iterator();
-            int pred = it.next();
+            int pred = it.nextInt();
             while (it.hasNext()) {
-                int n = it.next();
+                int n = it.nextInt();
                 time = itour.getInstance().getTimeWindow(pred).getEarliestStartOfService(time);
                 time += itour.getInstance().getServiceTime(pred);
                 time += cd.getTravelTime(pred, n, tech);
@@ -117,7 +117,7 @@ public class ToolsConstraint extends TourConstraintBase {
         TRSPTourIterator it = tour.iterator(move.getSecond());
 
         // Start with node m and iterate backward
-        int node = it.previous();
+        int node = it.previousInt();
         while (node != tour.getMainDepotId() && it.hasNext()) {
             if (!tour.getInstance().hasRequiredTools(tour.getTechnician().getID(), node))
                 // The technician does not have the required tools for this request
@@ -214,7 +214,7 @@ public class ToolsConstraint extends TourConstraintBase {
         boolean checkTools = true;
 
         while (it.hasNext() && checkTools) {
-            int node = it.next();
+            int node = it.nextInt();
             if (instance.isMainDepot(node)) {
                 return true;
             } else if (instance.isRequest(node)) {
@@ -239,7 +239,7 @@ public class ToolsConstraint extends TourConstraintBase {
         boolean checkTools = true;
 
         while (it.hasNext() && checkTools) {
-            int node = it.next();
+            int node = it.nextInt();
             if (instance.isMainDepot(node)) {
                 // Assume all tools are now available
                 return new FeasibilityState();
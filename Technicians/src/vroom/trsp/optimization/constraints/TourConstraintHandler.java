@@ -13,6 +13,7 @@ import vroom.common.utilities.Utilities;
 import vroom.common.utilities.optimization.IConstraint;
 import vroom.common.utilities.optimization.IMove;
 import vroom.trsp.datamodel.ITRSPTour;
+import vroom.trsp.datamodel.ITourIterator;
 import vroom.trsp.datamodel.TRSPInstance;
 import vroom.trsp.datamodel.TRSPSolution;
 import vroom.trsp.datamodel.TRSPTour;
@@ -72,6 +73,18 @@ public class TourConstraintHandler extends ConstraintHandler<ITRSPTour> implemen
         return new TourConstraintHandler(ctr.toArray(new ITourConstraint[ctr.size()]));
     }
 
+    /**
+     * Returns {@code true} if this handler contains a {@link TWConstraint}
+     * 
+     * @return {@code true} if the time windows are enforced by this handler
+     */
+    public boolean isTWEnforced() {
+        for (IConstraint<ITRSPTour> c : this)
+            if (c instanceof TWConstraint)
+                return true;
+        return false;
+    }
+
     /**
      * Check the feasibility of a solution
      * 
@@ -108,9 +121,12 @@ public class TourConstraintHandler extends ConstraintHandler<ITRSPTour> implemen
         else if (infeasibleNodes.size() == 1)
             return infeasibleNodes.iterator().next();
         else {
-            for (Integer i : tour)
+            ITourIterator it = tour.iterator();
+            while (it.hasNext()) {
+                int i = it.nextInt();
                 if (infeasibleNodes.contains(i))
                     return i;
+            }
             return ITRSPTour.UNDEFINED;
         }
 
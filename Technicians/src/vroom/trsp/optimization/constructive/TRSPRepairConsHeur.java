@@ -63,4 +63,10 @@ public class TRSPRepairConsHeur extends TRSPConstructiveHeuristic {
                 .getInitRndStream());
         mRepair.repair(sol, null, params);
     }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        mRepair.dispose();
+    }
 }
@@ -6,12 +6,17 @@ package vroom.trsp.optimization.localSearch;
 import vroom.common.heuristics.ConstraintHandler;
 import vroom.common.heuristics.Move;
 import vroom.common.heuristics.NeighborhoodBase;
+import vroom.common.heuristics.alns.ScratchArena;
+import vroom.common.heuristics.alns.ScratchArena.Slot;
+import vroom.common.utilities.BitMatrix;
 import vroom.common.utilities.optimization.IInstance;
 import vroom.common.utilities.optimization.IMove;
 import vroom.common.utilities.optimization.INeighborhood;
 import vroom.common.utilities.optimization.IParameters;
+import vroom.trsp.datamodel.TRSPInstance;
 import vroom.trsp.datamodel.TRSPSolution;
 import vroom.trsp.datamodel.TRSPTour;
+import vroom.trsp.datamodel.TRSPTour.TRSPTourIterator;
 import vroom.trsp.optimization.InsertionMove;
 import vroom.trsp.optimization.RemoveMove;
 import vroom.trsp.optimization.constraints.TourConstraintHandler;
@@ -21,6 +26,11 @@ import vroom.trsp.optimization.localSearch.TRSPRelocate.RelocateMove;
  * <code>TRSPRelocate</code> is an implementation of {@link INeighborhood} that remove a request from a tour and insert
  * it in a different tour.
  * <p>
+ * When time windows are enforced, the requests that cannot be inserted in a tour because no position of the tour has
+ * both arcs in the {@linkplain TRSPInstance#isArcTWFeasible(int, int) time window graph} are identified beforehand, and
+ * their insertion in that tour is not evaluated.
+ * </p>
+ * <p>
  * Creation date: Feb 8, 2012 - 3:32:33 PM
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
@@ -30,6 +40,9 @@ import vroom.trsp.optimization.localSearch.TRSPRelocate.RelocateMove;
  */
 public class TRSPRelocate extends NeighborhoodBase<TRSPSolution, RelocateMove> {
 
+    /** Slot for the buffer of time window successors */
+    private static final Slot           SUCCESSORS = new Slot("TRSPRelocate.successors");
+
     private final TourConstraintHandler mTourCtrHandler;
 
     /**
@@ -93,6 +106,8 @@ public class TRSPRelocate extends NeighborhoodBase<TRSPSolution, RelocateMove> {
             boolean first) {
         RelocateMove bestMve = null;
 
+        BitMatrix candidates = mTourCtrHandler.isTWEnforced() ? getTWCandidates(solution) : null;
+
         for (TRSPTour src : solution) {
             for (Integer r : src) {
                 if (solution.getInstance().isDepot(r))
@@ -105,6 +120,10 @@ public class TRSPRelocate extends NeighborhoodBase<TRSPSolution, RelocateMove> {
                 for (TRSPTour dest : solution) {
                     if (dest == src)
                         continue;
+                    if (candidates != null && dest.length() > 1
+                            && !candidates.get(dest.getTechnicianId(), r))
+                        // No position of dest is feasible regarding time windows
+                        continue;
                     InsertionMove ins = InsertionMove.findInsertion(r, dest,
                             dest.getCostDelegate(), mTourCtrHandler, true, true);
                     RelocateMove mve = new RelocateMove(rem, ins);
@@ -121,6 +140,39 @@ public class TRSPRelocate extends NeighborhoodBase<TRSPSolution, RelocateMove> {
         return bestMve;
     }
 
+    /**
+     * Returns the requests that can be inserted in each tour without using an arc outside of the time window graph
+     * 
+     * @param solution
+     *            the current solution
+     * @return a matrix <code>m</code> such that <code>m.get(k,r)=true</code> iif there is a position in the tour of
+     *         technician <code>k</code> such that <code>r</code> can be visited after its predecessor and before its
+     *         successor without violating time window constraints
+     */
+    private static BitMatrix getTWCandidates(TRSPSolution solution) {
+        TRSPInstance instance = solution.getInstance();
+        BitMatrix candidates = new BitMatrix(instance.getFleet().size(), instance.getMaxId());
+        int[] successors = ScratchArena.current().intArray(SUCCESSORS, instance.getMaxId());
+        for (TRSPTour tour : solution) {
+            if (tour.length() < 2)
+                continue;
+            int tech = tour.getTechnicianId();
+            TRSPTourIterator it = tour.iterator();
+            int pred = it.nextInt();
+            while (it.hasNext()) {
+                int succ = it.nextInt();
+                // Nodes compatible with the technician that can follow pred
+                int count = instance.getCompatibleTWSuccessors(tech, pred, successors);
+                for (int c = 0; c < count; c++) {
+                    if (instance.isArcTWFeasible(successors[c], succ))
+                        candidates.set(tech, successors[c], true);
+                }
+                pred = succ;
+            }
+        }
+        return candidates;
+    }
+
     @Override
     public String getShortName() {
         return "reloc";
@@ -130,7 +130,7 @@ public class TRSPShift extends NeighborhoodBase<ITRSPTour, TRSPShiftMove> {
                 mChangedSequence.add(tour.getPred(getNode()));
                 ITourIterator it = tour.iterator(tour.getSucc(getNode()));
                 while (it.hasNext()) {
-                    int next = it.next();
+                    int next = it.nextInt();
                     if (next == getNewSucc()) // Insert the node
                         mChangedSequence.add(getNode());
                     mChangedSequence.add(next);
@@ -144,7 +144,7 @@ public class TRSPShift extends NeighborhoodBase<ITRSPTour, TRSPShiftMove> {
                 mChangedSequence.add(getNode());
                 ITourIterator it = tour.iterator(getNewSucc());
                 while (it.hasNext()) {
-                    int next = it.next();
+                    int next = it.nextInt();
                     if (next != getNode()) // Skip the node
                         mChangedSequence.add(next);
                 }
@@ -325,17 +325,17 @@ public class TRSPShift extends NeighborhoodBase<ITRSPTour, TRSPShiftMove> {
 
         boolean skip = false;
         if (mainIt.hasNext()) {
-            node = mainIt.next();
+            node = mainIt.nextInt();
             // Skip depot(s) and the first request which cannot be shifted backward
             while (mainIt.hasNext() && tour.getInstance().isDepot(node))
-                node = mainIt.next();
+                node = mainIt.nextInt();
         } else
             // No backward shift can be found
             return null;
 
         while (mainIt.hasNext()) {
             // Main iterator
-            node = mainIt.next();
+            node = mainIt.nextInt();
 
             // Ignore depots
             skip = tour.getInstance().isDepot(node);
@@ -348,10 +348,10 @@ public class TRSPShift extends NeighborhoodBase<ITRSPTour, TRSPShiftMove> {
                 if (!insIt.hasNext())
                     skip = true;
                 else {
-                    candSucc = insIt.next();
+                    candSucc = insIt.nextInt();
                     // Skip depot(s)
                     while (insIt.hasNext() && tour.getInstance().isDepot(candSucc))
-                        candSucc = insIt.next();
+                        candSucc = insIt.nextInt();
                 }
             }
 
@@ -370,7 +370,7 @@ public class TRSPShift extends NeighborhoodBase<ITRSPTour, TRSPShiftMove> {
                 }
 
                 // Move to next node
-                candSucc = insIt.next();
+                candSucc = insIt.nextInt();
             }
 
         }
@@ -402,17 +402,17 @@ public class TRSPShift extends NeighborhoodBase<ITRSPTour, TRSPShiftMove> {
 
         boolean skip = false;
         if (mainIt.hasNext()) {
-            node = mainIt.next();
+            node = mainIt.nextInt();
             // Skip depot(s) and the first request which cannot be shifted backward
             while (mainIt.hasNext() && tour.getInstance().isDepot(node))
-                node = mainIt.next();
+                node = mainIt.nextInt();
         } else
             // No shift can be found
             return null;
 
         while (mainIt.hasNext()) {
             // Main iterator
-            node = mainIt.next();
+            node = mainIt.nextInt();
 
             // Ignore violated requests, depots, and the last node
             skip = tour.getInstance().isDepot(node) || tour.getSucc(node) == ITRSPTour.UNDEFINED
@@ -426,7 +426,7 @@ public class TRSPShift extends NeighborhoodBase<ITRSPTour, TRSPShiftMove> {
                 if (!insIt.hasNext())
                     skip = true;
                 else
-                    candSucc = insIt.next();
+                    candSucc = insIt.nextInt();
             }
 
             // Consider all nodes that are after the node
@@ -448,7 +448,7 @@ public class TRSPShift extends NeighborhoodBase<ITRSPTour, TRSPShiftMove> {
 
                 // Move to next node
                 if (insIt.hasNext())
-                    candSucc = insIt.next();
+                    candSucc = insIt.nextInt();
                 else
                     // Append to the end of the tour
                     candSucc = ITRSPTour.UNDEFINED;
@@ -139,7 +139,7 @@ public class TRSPShiftLateness extends NeighborhoodBase<TRSPTour, TRSPShiftLaten
                 changedSequence.add(tour.getPred(getNode()));
                 TRSPTourIterator it = tour.iterator(tour.getSucc(getNode()));
                 while (it.hasNext()) {
-                    int next = it.next();
+                    int next = it.nextInt();
                     if (next == getNewSucc()) // Insert the node
                         changedSequence.add(getNode());
                     changedSequence.add(next);
@@ -153,7 +153,7 @@ public class TRSPShiftLateness extends NeighborhoodBase<TRSPTour, TRSPShiftLaten
                 changedSequence.add(getNode());
                 TRSPTourIterator it = tour.iterator(getNewSucc());
                 while (it.hasNext()) {
-                    int next = it.next();
+                    int next = it.nextInt();
                     if (next != getNode()) // Skip the node
                         changedSequence.add(next);
                 }
@@ -306,7 +306,9 @@ public class TRSPShiftLateness extends NeighborhoodBase<TRSPTour, TRSPShiftLaten
             int maxLatenessReq = ITRSPTour.UNDEFINED;
 
             if (move == null) {
-                for (int node : tour) {
+                TRSPTourIterator it = tour.iterator();
+                while (it.hasNext()) {
+                    int node = it.nextInt();
                     if (!tour.getInstance().isDepot(node) && tour.getLateness(node) > 0) {
                         violated.add(node);
                         if (tour.getLateness(node) > maxLateness) {
@@ -387,17 +389,17 @@ public class TRSPShiftLateness extends NeighborhoodBase<TRSPTour, TRSPShiftLaten
 
         boolean skip = false;
         if (mainIt.hasNext()) {
-            node = mainIt.next();
+            node = mainIt.nextInt();
             // Skip depot(s) and the first request which cannot be shifted backward
             while (mainIt.hasNext() && tour.getInstance().isDepot(node))
-                node = mainIt.next();
+                node = mainIt.nextInt();
         } else
             // No backward shift can be found
             return null;
 
         while (mainIt.hasNext()) {
             // Main iterator
-            node = mainIt.next();
+            node = mainIt.nextInt();
 
             // Ignore non-violated requests and depots
             skip = !violated.contains(node) || tour.getInstance().isDepot(node);
@@ -410,10 +412,10 @@ public class TRSPShiftLateness extends NeighborhoodBase<TRSPTour, TRSPShiftLaten
                 if (!insIt.hasNext())
                     skip = true;
                 else {
-                    candSucc = insIt.next();
+                    candSucc = insIt.nextInt();
                     // Skip depot(s)
                     while (insIt.hasNext() && tour.getInstance().isDepot(candSucc))
-                        candSucc = insIt.next();
+                        candSucc = insIt.nextInt();
                 }
             }
 
@@ -446,7 +448,7 @@ public class TRSPShiftLateness extends NeighborhoodBase<TRSPTour, TRSPShiftLaten
                 }
 
                 // Move to next node
-                candSucc = insIt.next();
+                candSucc = insIt.nextInt();
             }
 
             if (node == maxLatenessReq)
@@ -488,17 +490,17 @@ public class TRSPShiftLateness extends NeighborhoodBase<TRSPTour, TRSPShiftLaten
 
         boolean skip = false;
         if (mainIt.hasNext()) {
-            node = mainIt.next();
+            node = mainIt.nextInt();
             // Skip depot(s) and the first request which cannot be shifted backward
             while (mainIt.hasNext() && tour.getInstance().isDepot(node))
-                node = mainIt.next();
+                node = mainIt.nextInt();
         } else
             // No shift can be found
             return null;
 
         while (mainIt.hasNext()) {
             // Main iterator
-            node = mainIt.next();
+            node = mainIt.nextInt();
 
             // Ignore violated requests, depots, and the last node
             skip = violated.contains(node) || tour.getInstance().isDepot(node)
@@ -513,7 +515,7 @@ public class TRSPShiftLateness extends NeighborhoodBase<TRSPTour, TRSPShiftLaten
                 if (!insIt.hasNext())
                     skip = true;
                 else
-                    candSucc = insIt.next();
+                    candSucc = insIt.nextInt();
             }
             // Temporary values for lateness used to evaluate the new maximum lateness after a candidate move
             double maxLatenessTmp = Long.MIN_VALUE;
@@ -540,7 +542,7 @@ public class TRSPShiftLateness extends NeighborhoodBase<TRSPTour, TRSPShiftLaten
 
                 // Move to next node
                 if (insIt.hasNext())
-                    candSucc = insIt.next();
+                    candSucc = insIt.nextInt();
                 else
                     // Append to the end of the tour
                     candSucc = ITRSPTour.UNDEFINED;
@@ -9,6 +9,7 @@ import vroom.common.utilities.optimization.IInstance;
 import vroom.common.utilities.optimization.IMove;
 import vroom.common.utilities.optimization.IParameters;
 import vroom.trsp.datamodel.ITRSPTour;
+import vroom.trsp.datamodel.TRSPInstance;
 import vroom.trsp.datamodel.TRSPTour;
 import vroom.trsp.datamodel.TRSPTour.TRSPTourIterator;
 import vroom.trsp.optimization.TRSPMove;
@@ -18,6 +19,11 @@ import vroom.trsp.optimization.localSearch.TRSPTwoOpt.TRSPTwoOptMove;
 /**
  * <code>TRSPTwoOpt</code> is an implementation of the 2-opt neighborhood for the TRSP.
  * <p>
+ * When time windows are enforced, moves that would use an arc outside of the
+ * {@linkplain TRSPInstance#isArcTWFeasible(int, int) time window graph} are not evaluated, and the exploration of the
+ * <code>(i,*)</code> moves stops as soon as the reversed subtour contains such an arc.
+ * </p>
+ * <p>
  * Creation date: May 3, 2011 - 2:18:11 PM
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
@@ -91,6 +97,9 @@ public class TRSPTwoOpt extends NeighborhoodBase<ITRSPTour, TRSPTwoOptMove> impl
 
     }
 
+    /** {@code true} if the constraint handler enforces time windows */
+    private final boolean mTWEnforced;
+
     /**
      * Creates a new <code>TwoOptNeighborhood</code>
      * 
@@ -98,6 +107,7 @@ public class TRSPTwoOpt extends NeighborhoodBase<ITRSPTour, TRSPTwoOptMove> impl
      */
     public TRSPTwoOpt(TourConstraintHandler constraintHandler) {
         super(constraintHandler);
+        mTWEnforced = constraintHandler.isTWEnforced();
     }
 
     @Override
@@ -113,9 +123,9 @@ public class TRSPTwoOpt extends NeighborhoodBase<ITRSPTour, TRSPTwoOptMove> impl
 
         // Reverse j-m subtour
         TRSPTourIterator it = tour.iterator(j);
-        int pred = it.next();
+        int pred = it.nextInt();
         while (it.hasNext() && pred != m) {
-            int suc = it.next();
+            int suc = it.nextInt();
             tour.setPred(pred, suc);
             tour.setSucc(suc, pred);
             pred = suc;
@@ -174,34 +184,47 @@ public class TRSPTwoOpt extends NeighborhoodBase<ITRSPTour, TRSPTwoOptMove> impl
 
         TRSPTwoOptMove move = null;
         TRSPTour tour = (TRSPTour) itour;
+        TRSPInstance instance = tour.getInstance();
 
         TRSPTourIterator firstIt = tour.iterator();
 
         // Skip first node (depot)
-        // firstIt.next();
+        // firstIt.nextInt();
 
         while (firstIt.hasNext()) {
-            int i = firstIt.next();
+            int i = firstIt.nextInt();
 
             TRSPTourIterator secondIt = tour.iterator(i);
 
             // Skip first node (i)
             if (secondIt.hasNext())
-                secondIt.next();
+                secondIt.nextInt();
             else
                 break;
             // Skip second node (j)
             // if (secondIt.hasNext())
-            // secondIt.next();
+            // secondIt.nextInt();
             // else
             // break;
 
+            int j = tour.getSucc(i);
+            int prev = ITRSPTour.UNDEFINED;
             while (secondIt.hasNext()) {
-                int m = secondIt.next();
+                int m = secondIt.nextInt();
                 if (!secondIt.hasNext())
                     // m is the last node
                     break;
 
+                if (mTWEnforced) {
+                    if (prev != ITRSPTour.UNDEFINED && !instance.isArcTWFeasible(m, prev))
+                        // The reversed subtour visits prev after m for all the remaining (i,*) moves
+                        break;
+                    prev = m;
+                    if (!instance.isArcTWFeasible(i, m) || !instance.isArcTWFeasible(j, tour.getSucc(m)))
+                        // The new arcs (i,m) or (j,n) are not feasible
+                        continue;
+                }
+
                 TRSPTwoOptMove tmp = new TRSPTwoOptMove(tour, i, m);
                 tour.getCostDelegate().evaluateMove(tmp);
 
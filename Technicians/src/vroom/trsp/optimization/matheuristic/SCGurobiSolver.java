@@ -316,7 +316,9 @@ public class SCGurobiSolver extends SCSolverBase {
             col[i] = new GRBColumn();
 
             // Add a coefficient of 1 in each constraint corresponding to a visited request
-            for (int reqId : tour) {
+            ITourIterator it = tour.iterator();
+            while (it.hasNext()) {
+                int reqId = it.nextInt();
                 if (mCoverCtrs[reqId] != null) {
                     col[i].addTerm(1, mCoverCtrs[reqId]);
                     mCoverUseds[reqId] = true;
@@ -609,7 +611,7 @@ public class SCGurobiSolver extends SCSolverBase {
                 ITourIterator it = itour.iterator();
                 int node;
                 while (it.hasNext()) {
-                    node = it.next();
+                    node = it.nextInt();
 
                     if (mCVRPSolver) {
                         // Fix possible incoherences
@@ -634,12 +636,12 @@ public class SCGurobiSolver extends SCSolverBase {
                         double otherDetour = otherTour.getCostDelegate().evaluateDetour(otherTour,
                                 otherPred, node, otherSucc, true);
 
-                        int nodeRealId = it.previous();
-                        int pred = it.previous();
-                        it.next();
-                        it.next();
-                        int succ = it.next();
-                        it.previous(); // Reset the iterator to the good position
+                        int nodeRealId = it.previousInt();
+                        int pred = it.previousInt();
+                        it.nextInt();
+                        it.nextInt();
+                        int succ = it.nextInt();
+                        it.previousInt(); // Reset the iterator to the good position
                         double detour = tour.getCostDelegate().evaluateDetour(itour, pred,
                                 nodeRealId, succ, true);
 
@@ -650,8 +652,9 @@ public class SCGurobiSolver extends SCSolverBase {
                     }
                 }
 
-                for (int req : itour) {
-                    getSolution().markAsServed(req);
+                ITourIterator served = itour.iterator();
+                while (served.hasNext()) {
+                    getSolution().markAsServed(served.nextInt());
                 }
                 k++;
                 if (mCVRPSolver && k > getInstance().getFleet().size()) {
@@ -11,6 +11,7 @@ import vroom.common.utilities.Stopwatch;
 import vroom.common.utilities.Stopwatch.ReadOnlyStopwatch;
 import vroom.common.utilities.lp.SolverStatus;
 import vroom.trsp.datamodel.ITRSPTour;
+import vroom.trsp.datamodel.ITourIterator;
 import vroom.trsp.datamodel.TRSPInstance;
 import vroom.trsp.datamodel.TRSPRequest;
 import vroom.trsp.datamodel.TRSPSolution;
@@ -164,7 +165,9 @@ public abstract class SCSolverBase implements IDisposable {
         for (int t = 0; t < getSolution().getTourCount(); t++) {
             TRSPTour tour = getSolution().getTour(t);
             tour.setAutoUpdated(true);
-            for (int node : tour) {
+            ITourIterator it = tour.iterator();
+            while (it.hasNext()) {
+                int node = it.nextInt();
                 if (!getInstance().isRequest(node))
                     continue;
 
@@ -18,6 +18,7 @@ import java.util.concurrent.Callable;
 import vroom.common.utilities.IDisposable;
 import vroom.common.utilities.StatCollector;
 import vroom.common.utilities.StatCollector.Label;
+import vroom.common.utilities.StatCollector.RowWriter;
 import vroom.common.utilities.gurobi.GRBStatCollector;
 import vroom.common.utilities.gurobi.GRBUtilities;
 import vroom.common.utilities.lp.SolverStatus;
@@ -184,32 +185,34 @@ public class TRSPGRBStatCollector implements Callable<SolverStatus>, IDisposable
         mCallback.solverStopped(mStatus);
 
         // Collect stats
-        Object[] stats = new Object[TT_LABELS.length];
+        String name = null;
+        double obj = Double.NaN;
+        double bnd = Double.NaN;
         try {
-            stats[0] = mModel.get(StringAttr.ModelName);
-            double obj = mModel.get(DoubleAttr.ObjVal);
-            double bnd = mModel.get(DoubleAttr.ObjBound);
-            stats[7] = obj;
-            stats[8] = bnd;
-            stats[9] = Math.abs((obj - bnd) / obj);
+            name = mModel.get(StringAttr.ModelName);
+            obj = mModel.get(DoubleAttr.ObjVal);
+            bnd = mModel.get(DoubleAttr.ObjBound);
         } catch (GRBException e) {
             TRSPLogging.getBaseLogger().exception("GurobiRun.collectStats", e);
         }
-        stats[1] = mStartDefined;
-        stats[2] = mStatus;
-        stats[3] = mModel.getVars().length;
-        stats[4] = mCallback.getRemovedColumns();
-        stats[5] = mModel.getConstrs().length;
-        stats[6] = mInitialObj;
+        RowWriter row = mTargetCollector.row();
+        row.add(name)//
+                .add(mStartDefined)//
+                .add(mStatus)//
+                .add(mModel.getVars().length)//
+                .add(mCallback.getRemovedColumns())//
+                .add(mModel.getConstrs().length)//
+                .add(mInitialObj)//
+                .add(obj)//
+                .add(bnd)//
+                .add(Math.abs((obj - bnd) / obj));
         for (int j = 0; j < TARGET_GAPS.length; j++) {
-            stats[j + TT_LAB_OFFSET] = mCallback.getTimeToTarget(j);
+            row.add(mCallback.getTimeToTarget(j));
         }
         for (int j = 0; j < TIME_SLICES.length; j++) {
-            stats[j + TT_LAB_OFFSET + TARGET_GAPS.length] = mCallback.getImpAtTime(j);
+            row.add(mCallback.getImpAtTime(j));
         }
-        // TRSPLogging.getRunLogger().info(" Collecting stats: %s", Utilities.toShortString(stats));
-
-        mTargetCollector.collect(stats);
+        row.commit();
 
         if (mCallback.getRemovedColumns() < mModel.getVars().length
                 && (mStatus == SolverStatus.OPTIMAL || mStatus == SolverStatus.INTERRUPTED || mStatus == SolverStatus.TIME_LIMIT)) {
@@ -330,8 +333,8 @@ public class TRSPGRBStatCollector implements Callable<SolverStatus>, IDisposable
         }
 
         @Override
-        protected Object[] getAdditionalStatArray() throws GRBException {
-            return new Object[] { mComment, mStart };
+        protected void addAdditionalStats(RowWriter row) {
+            row.add(mComment).add(mStart);
         }
 
         /**
@@ -7,11 +7,13 @@ import vroom.common.heuristics.alns.ALNSEventType;
 import vroom.common.heuristics.alns.AdaptiveLargeNeighborhoodSearch;
 import vroom.common.utilities.callbacks.CallbackBase;
 import vroom.common.utilities.callbacks.ICallbackEvent;
+import vroom.common.utilities.checkpoint.ICheckpointable;
 import vroom.trsp.datamodel.HashTourPool;
 import vroom.trsp.datamodel.ITRSPSolutionHasher;
 import vroom.trsp.datamodel.ITRSPTourPool;
 import vroom.trsp.datamodel.TRSPInstance;
 import vroom.trsp.datamodel.TRSPSolution;
+import vroom.trsp.datamodel.TourPoolCheckpoint;
 
 /**
  * JAVADOC <code>SolutionPoolCallBack</code>
@@ -24,7 +26,10 @@ import vroom.trsp.datamodel.TRSPSolution;
  * @version 1.0
  */
 public class TourPoolCallBack extends
-        CallbackBase<AdaptiveLargeNeighborhoodSearch<TRSPSolution>, ALNSEventType> {
+        CallbackBase<AdaptiveLargeNeighborhoodSearch<TRSPSolution>, ALNSEventType> implements
+        ICheckpointable<TourPoolCheckpoint> {
+
+    private final TRSPInstance        mInstance;
 
     private final ITRSPSolutionHasher mHasher;
 
@@ -56,6 +61,7 @@ public class TourPoolCallBack extends
      */
     public TourPoolCallBack(TRSPInstance instance, int numIterations, ITRSPSolutionHasher hasher) {
         super();
+        mInstance = instance;
         mTourPool = new HashTourPool(instance.getFleet().size(), numIterations, hasher);
 
         mHasher = hasher;
@@ -69,4 +75,15 @@ public class TourPoolCallBack extends
         }
     }
 
+    @Override
+    public TourPoolCheckpoint getCheckpoint() {
+        return new TourPoolCheckpoint(getTourPool(), mInstance);
+    }
+
+    @Override
+    public void restoreCheckpoint(TourPoolCheckpoint checkpoint) {
+        getTourPool().clear();
+        checkpoint.restore(getTourPool(), mInstance);
+    }
+
 }
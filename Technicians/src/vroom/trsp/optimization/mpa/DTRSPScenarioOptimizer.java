@@ -38,6 +38,7 @@ import vroom.trsp.optimization.localSearch.TRSPCompositeNeighborhood;
 import vroom.trsp.optimization.localSearch.TRSPRelocate;
 import vroom.trsp.optimization.localSearch.TRSPTwoOpt;
 import vroom.trsp.optimization.localSearch.TRSPTwoOpt.TRSPTwoOptMove;
+import vroom.trsp.sim.TRSPSimulator;
 import vroom.trsp.util.TRSPGlobalParameters;
 import vroom.trsp.util.TRSPLogging;
 
@@ -174,17 +175,40 @@ public class DTRSPScenarioOptimizer extends ScenarioOptimizerBase<DTRSPSolution>
         mALNSParams.setStoppingCriterion(getMSAProxy().newStoppingCriterion(
                 new SimpleStoppingCriterion(maxTime, maxIt), true));
 
+        TRSPSimulator.State state = getSolver().getInstance().getSimulator().getState();
         TRSPSolution sol = mALNS.localSearch(getInstance(), scenario, mALNSParams);
         checkScenario(sol, "optimize-?");
-        scenario.importSolution(sol);
+        importSolution(scenario, sol, state);
     }
 
     private void optimizeVNS(DTRSPSolution scenario, int maxIt, int maxTime) {
         mVNSParams.setStoppingCriterion(getMSAProxy().newStoppingCriterion(
                 new SimpleStoppingCriterion(maxTime, maxIt), true));
 
+        TRSPSimulator.State state = getSolver().getInstance().getSimulator().getState();
         TRSPSolution sol = mVNS.localSearch(getInstance(), scenario, mVNSParams);
-        scenario.importSolution(sol);
+        importSolution(scenario, sol, state);
+    }
+
+    /**
+     * Import the result of the optimization of a scenario, unless the state of the simulation changed since the
+     * optimization started
+     * 
+     * @param scenario
+     *            the optimized scenario
+     * @param sol
+     *            the solution found by the optimization
+     * @param state
+     *            the state of the simulation when the optimization started
+     */
+    private void importSolution(DTRSPSolution scenario, TRSPSolution sol, TRSPSimulator.State state) {
+        if (getSolver().getInstance().getSimulator().isCurrent(state))
+            scenario.importSolution(sol);
+        else
+            TRSPLogging.getOptimizationLogger().lowDebug(
+                    "DTRSPScenarioOptimizer.importSolution: the simulation changed during the optimization of "
+                            + "scenario %s (state v%s), solution discarded", scenario.hashCode(),
+                    state.getVersion());
     }
 
     @Override
@@ -4,7 +4,6 @@
 package vroom.trsp.optimization.mpa;
 
 import java.util.LinkedList;
-import java.util.List;
 
 import vroom.optimization.online.jmsa.IActualRequest;
 import vroom.optimization.online.jmsa.IMSARequest;
@@ -83,6 +82,7 @@ public class DTRSPScenarioUpdater extends ScenarioUpdaterBase {
                 DTRSPTour tour = sol.getTour(technician);
                 // We freeze the node and update the earliest departure time
                 sol.freeze(node.getID(), tour.getEarliestArrivalTime(node.getID()), time);
+                getMSAProxy().getScenarioPool().scenarioUpdated(scen);
             } else {
                 outdatedScen.add(scen);
             }
@@ -106,7 +106,7 @@ public class DTRSPScenarioUpdater extends ScenarioUpdaterBase {
             // The node is the technician home, remove all unserved requests
             TRSPTourIterator it = targetTour.iterator();
             while (it.hasNext()) {
-                int n = it.next();
+                int n = it.nextInt();
                 if (!scen.getInstance().isServedOrAssignedOrRejected(n)) {
                     it.remove();
                     scen.markAsUnserved(n);
@@ -145,8 +145,8 @@ public class DTRSPScenarioUpdater extends ScenarioUpdaterBase {
                                                                                                    // the main depot
             // Incrementally check the feasibility of targetTour, remove infeasible requests when detected, attempt to
             // reinsert them
-            List<Integer> removedNodes = tour.truncate(tour.getPred(infeasNode));
-            for (Integer n : removedNodes)
+            int[] removedNodes = tour.truncate(tour.getPred(infeasNode));
+            for (int n : removedNodes)
                 scenario.markAsUnserved(n);
             return mRepairRegret.repair(scenario, null, null);
         } else {
@@ -3,11 +3,14 @@
  */
 package vroom.trsp.optimization.mpa;
 
+import java.util.ArrayList;
+
 import vroom.optimization.online.jmsa.IActualRequest;
 import vroom.optimization.online.jmsa.IDistinguishedSolution;
 import vroom.optimization.online.jmsa.ScenarioPool;
 import vroom.optimization.online.jmsa.components.ComponentManager;
 import vroom.optimization.online.jmsa.components.ISolutionBuilderParam;
+import vroom.optimization.online.jmsa.components.ScenarioCache;
 import vroom.optimization.online.jmsa.components.SolutionBuilderBase;
 import vroom.trsp.datamodel.TRSPInstance;
 import vroom.trsp.datamodel.Technician;
@@ -24,7 +27,10 @@ import vroom.trsp.datamodel.Technician;
  */
 public class DTRSPSolutionBuilder extends SolutionBuilderBase {
 
-    private final TRSPInstance mInstance;
+    private final TRSPInstance                                   mInstance;
+
+    /** The first request of each technician in each scenario, lazily registered in the scenario pool */
+    private ScenarioCache<DTRSPSolution, ScenarioFirstRequests> mFirstRequests;
 
     /**
      * Creates a new <code>DTRSPSolutionBuilder</code>
@@ -43,25 +49,35 @@ public class DTRSPSolutionBuilder extends SolutionBuilderBase {
                 .getParentMSAProxy().getScenarioPool();
         double[] nodeEval = new double[mInstance.getMaxId()];
 
+        // Read the first requests of the scenarios that changed since the last decision
+        ScenarioCache<DTRSPSolution, ScenarioFirstRequests> cache = getFirstRequests(pool);
+        ArrayList<DTRSPSolution> scenarios = new ArrayList<DTRSPSolution>(pool.size());
+        ArrayList<ScenarioFirstRequests> firstRequests = new ArrayList<ScenarioFirstRequests>(pool.size());
         double bestScen = Double.POSITIVE_INFINITY;
         for (DTRSPSolution scen : pool) {
-            if (bestScen > scen.getObjectiveValue())
-                bestScen = scen.getObjectiveValue();
+            ScenarioFirstRequests f = cache.get(scen);
+            if (f == null) {
+                f = new ScenarioFirstRequests(scen);
+                cache.put(scen, f);
+            }
+            scenarios.add(scen);
+            firstRequests.add(f);
+            if (bestScen > f.mObjectiveValue)
+                bestScen = f.mObjectiveValue;
         }
 
         // Evaluate all requests in all scenarios
-        for (DTRSPSolution scen : pool) {
-            if (scen.getUnservedCount() > 0)
+        for (ScenarioFirstRequests f : firstRequests) {
+            if (!f.mComplete)
                 continue;
-            for (Technician t : mInstance.getFleet()) {
-                IActualRequest first = scen.getFirstActualRequest(t.getID());
-                if (first != null)
-                    // nodeEval[first.getID()] += 1; // A request receive a score of 1 each time it appears in first
+            for (int first : f.mFirsts) {
+                if (first >= 0)
+                    // nodeEval[first] += 1; // A request receive a score of 1 each time it appears in first
                     // position
-                    nodeEval[first.getID()] += bestScen / scen.getObjectiveValue(); // A request receive a score of
-                                                                                    // proportional to the scenario
-                                                                                    // relative cost each time it
-                                                                                    // appears in first
+                    nodeEval[first] += bestScen / f.mObjectiveValue; // A request receive a score of
+                                                                     // proportional to the scenario
+                                                                     // relative cost each time it
+                                                                     // appears in first
                 // position
             }
         }
@@ -69,14 +85,14 @@ public class DTRSPSolutionBuilder extends SolutionBuilderBase {
         // Select the best scenario depending on the evaluation of its requests
         DTRSPSolution best = null;
         double bestScenEval = Double.NEGATIVE_INFINITY;
-        for (DTRSPSolution scen : pool) {
+        for (int s = 0; s < scenarios.size(); s++) {
+            DTRSPSolution scen = scenarios.get(s);
             // if (scen.getUnservedCount() > 0)
             // continue;
             double scenEval = 0;
-            for (Technician t : mInstance.getFleet()) {
-                IActualRequest first = scen.getFirstActualRequest(t.getID());
-                if (first != null)
-                    scenEval += nodeEval[first.getID()];
+            for (int first : firstRequests.get(s).mFirsts) {
+                if (first >= 0)
+                    scenEval += nodeEval[first];
             }
             if (scenEval > bestScenEval) {
                 bestScenEval = scenEval;
@@ -86,4 +102,44 @@ public class DTRSPSolutionBuilder extends SolutionBuilderBase {
 
         return best;
     }
+
+    /**
+     * Returns the cache of the first requests of the scenarios, registering it in the pool on the first call.
+     * <p>
+     * Cached values are invalidated when a scenario is updated or when the state of the simulation changes
+     * </p>
+     */
+    private synchronized ScenarioCache<DTRSPSolution, ScenarioFirstRequests> getFirstRequests(
+            ScenarioPool<DTRSPSolution> pool) {
+        if (mFirstRequests == null) {
+            mFirstRequests = new ScenarioCache<DTRSPSolution, ScenarioFirstRequests>();
+            pool.addListener(mFirstRequests);
+        }
+        if (mInstance.getSimulator() != null)
+            mFirstRequests.setVersion(mInstance.getSimulator().getState().getVersion());
+        return mFirstRequests;
+    }
+
+    /**
+     * <code>ScenarioFirstRequests</code> stores the objective value and the first request of each technician in a
+     * scenario
+     */
+    private static class ScenarioFirstRequests {
+        /** The objective value of the scenario */
+        private final double  mObjectiveValue;
+        /** <code>true</code> if all requests are served in the scenario */
+        private final boolean mComplete;
+        /** The id of the first request of each technician, <code>-1</code> if none */
+        private final int[]   mFirsts;
+
+        private ScenarioFirstRequests(DTRSPSolution scen) {
+            mObjectiveValue = scen.getObjectiveValue();
+            mComplete = scen.getUnservedCount() == 0;
+            mFirsts = new int[scen.getInstance().getFleet().size()];
+            for (Technician t : scen.getInstance().getFleet()) {
+                IActualRequest first = scen.getFirstActualRequest(t.getID());
+                mFirsts[t.getID()] = first != null ? first.getID() : -1;
+            }
+        }
+    }
 }
@@ -123,7 +123,7 @@ public class RndBestIns extends TRSPRndConstructiveHeuristic {
         tour.add(tech.getHome().getID());
 
         // Add a random node
-        int rnd = getParameters().getRCHRndStream().nextInt(0, mBestNeighbors.size() - 1);
+        int rnd = getRndStream().nextInt(0, mBestNeighbors.size() - 1);
         Neighbor seed = mBestNeighbors.remove(rnd);
         tour.add(seed.getNode().getId());
         nodeInserted(tour, seed, tech);
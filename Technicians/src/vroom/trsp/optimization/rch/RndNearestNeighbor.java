@@ -190,7 +190,7 @@ public class RndNearestNeighbor extends TRSPRndConstructiveHeuristic {
         for (Technician technician : getInstance().getFleet()) {
             fleet[v++] = technician;
         }
-        RandomPermutation.shuffle(fleet, getParameters().getRCHRndStream());
+        RandomPermutation.shuffle(fleet, getRndStream());
 
         // We abort the heuristic if all tours are "finished"
         boolean abort = false;
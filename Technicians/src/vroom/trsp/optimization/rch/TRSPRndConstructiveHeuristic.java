@@ -10,6 +10,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
 
+import umontreal.iro.lecuyer.rng.RandomStream;
+
 import vroom.common.heuristics.ProcedureStatus;
 import vroom.common.utilities.IDisposable;
 import vroom.common.utilities.IObservable;
@@ -91,6 +93,32 @@ public abstract class TRSPRndConstructiveHeuristic extends TRSPHeuristic {
     /** The randomized factor, read at construction time for performance */
     private final double             mRndFact;
 
+    /** The random stream used to randomize decisions */
+    private RandomStream             mRndStream;
+
+    /**
+     * Returns the random stream used to randomize decisions, by default the
+     * {@linkplain TRSPGlobalParameters#getRCHRndStream() shared RCH stream}
+     * 
+     * @return the random stream used to randomize decisions
+     */
+    public RandomStream getRndStream() {
+        return mRndStream;
+    }
+
+    /**
+     * Sets the random stream used to randomize decisions
+     * <p>
+     * Heuristics running concurrently should each be given their own stream
+     * </p>
+     * 
+     * @param rndStream
+     *            the random stream used to randomize decisions
+     */
+    public void setRndStream(RandomStream rndStream) {
+        mRndStream = rndStream;
+    }
+
     /** The spliting procedure */
     private final TRSPSplit          mSplit;
 
@@ -135,6 +163,7 @@ public abstract class TRSPRndConstructiveHeuristic extends TRSPHeuristic {
 
         // The randomized factor, read at construction time for performance
         mRndFact = parameters.get(TRSPGlobalParameters.RCH_RND_FACTOR);
+        mRndStream = parameters.getRCHRndStream();
 
         mSplit = new TRSPSplit(new SplitTourArcBuilder(constraintHandler, costDelegate, parameters));
         Collection<Integer> requests = getInstance().getReleasedRequests();
@@ -332,7 +361,7 @@ public abstract class TRSPRndConstructiveHeuristic extends TRSPHeuristic {
     protected int nextIdx(int max) {
         if (max == 0)
             return 0;
-        return getParameters().getRCHRndStream().nextInt(0, Math.min(max - 1, mKmax));
+        return getRndStream().nextInt(0, Math.min(max - 1, mKmax));
         // double rnd = getRandomStream().nextDouble();
         // return (int) (Math.pow(rnd, mRndFact) * max);
     }
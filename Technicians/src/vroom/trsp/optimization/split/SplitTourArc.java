@@ -27,16 +27,16 @@ public class SplitTourArc extends TRSPTourBase {
     public static final int DEPOT_NOT_VISITED = -1;
 
     /** the parent giant tour */
-    private final ITRSPTour mGiantTour;
+    private ITRSPTour       mGiantTour;
     /** the start index of this tour */
-    private final int       mStart;
+    private int             mStart;
     /** the end index of this tour */
-    private final int       mEnd;
+    private int             mEnd;
     /** the index of the visit to the depot */
     private int             mDepotIndex       = DEPOT_NOT_VISITED;
     /** the id of the technician home */
-    private final int       mHomeS;
-    private final int       mHomeE;
+    private int             mHomeS;
+    private int             mHomeE;
 
     /** the length of this tour */
     private int             mLength;
@@ -95,14 +95,34 @@ public class SplitTourArc extends TRSPTourBase {
      */
     public SplitTourArc(ITRSPTour giantTour, int start, int end) {
         super();
+        reset(giantTour, start, end);
+    }
+
+    /**
+     * Reset this arc so that it represents another section of a giant tour.
+     * <p>
+     * This allows {@link TRSPSplit} to evaluate candidate arcs without allocating a new object for each of them
+     * </p>
+     * 
+     * @param giantTour
+     *            the parent giant tour
+     * @param start
+     *            the start index of this tour
+     * @param end
+     *            the end index of this tour
+     * @return this arc
+     */
+    SplitTourArc reset(ITRSPTour giantTour, int start, int end) {
         mGiantTour = giantTour;
-        mStart = start;
-        mEnd = end;
-        mTotalCost = Double.NaN;
         mHomeS = giantTour.getInstance().getTechnician(giantTour.getTechnicianId()).getHome()
                 .getID();
         mHomeE = giantTour.getInstance().getHomeDuplicate(mHomeS);
+        mStart = start;
+        mEnd = end;
+        mDepotIndex = DEPOT_NOT_VISITED;
+        mTotalCost = Double.NaN;
         mLength = mEnd - mStart + 3;
+        return this;
     }
 
     @Override
@@ -119,8 +139,9 @@ public class SplitTourArc extends TRSPTourBase {
     public int[] asArray() {
         int[] array = new int[length()];
         int idx = 0;
-        for (int i : this)
-            array[idx++] = i;
+        ITourIterator it = iterator();
+        while (it.hasNext())
+            array[idx++] = it.nextInt();
         return array;
     }
 
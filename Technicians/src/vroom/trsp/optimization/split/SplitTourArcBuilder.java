@@ -58,6 +58,16 @@ public class SplitTourArcBuilder {
         mArc = arc;
     }
 
+    /**
+     * Returns <code>true</code> if the instance is a CVRPTW, in which case a violation of the spare parts constraint
+     * cannot be fixed with a visit to the main depot
+     * 
+     * @return <code>true</code> if the instance is a CVRPTW
+     */
+    boolean isCVRPTW() {
+        return mCVRPTW;
+    }
+
     /**
      * Returns the constraint handler defined in this instance
      * 
@@ -105,8 +115,21 @@ public class SplitTourArcBuilder {
      *         <code>end</code>, or <code>null</code> if such arc does not exist
      */
     public SplitTourArc buildArc(ITRSPTour giantTour, int start, int end) {
+        return buildArc(new SplitTourArc(giantTour, start, end));
+    }
+
+    /**
+     * Build a arc of the split procedure auxiliary graph reusing an existing arc instance
+     * 
+     * @param arc
+     *            the arc to be completed, already {@linkplain SplitTourArc#reset(ITRSPTour, int, int) reset} to the
+     *            considered section of the giant tour
+     * @return <code>arc</code>, or <code>null</code> if it is infeasible
+     * @see #buildArc(ITRSPTour, int, int)
+     */
+    SplitTourArc buildArc(SplitTourArc arc) {
         mTWChecked = false;
-        setArc(new SplitTourArc(giantTour, start, end));
+        setArc(arc);
 
         // Add a visit to the main depot if required
         boolean feasible = fixArc();
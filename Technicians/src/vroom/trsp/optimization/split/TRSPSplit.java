@@ -3,21 +3,49 @@
  */
 package vroom.trsp.optimization.split;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 
+import vroom.common.modeling.dataModel.attributes.ITimeWindow;
+import vroom.common.utilities.optimization.IConstraint;
 import vroom.trsp.datamodel.ITRSPTour;
+import vroom.trsp.datamodel.ITourIterator;
+import vroom.trsp.datamodel.TRSPDistanceMatrix;
+import vroom.trsp.datamodel.TRSPInstance;
 import vroom.trsp.datamodel.TRSPSimpleTour;
+import vroom.trsp.datamodel.Technician;
+import vroom.trsp.datamodel.costDelegates.TRSPDistance;
+import vroom.trsp.datamodel.costDelegates.TRSPWorkingTime;
+import vroom.trsp.optimization.constraints.HomeConstraint;
+import vroom.trsp.optimization.constraints.SkillsConstraint;
+import vroom.trsp.optimization.constraints.SparePartsConstraint;
+import vroom.trsp.optimization.constraints.TWConstraint;
+import vroom.trsp.optimization.constraints.ToolsConstraint;
 import vroom.trsp.util.TRSPLogging;
 
 /**
  * <code>TRSPSplit</code> is an implementation of the split procedure that optimally splits a giant tour into a set of
  * feasible tours.
  * <p>
+ * The shortest path is computed on primitive arrays, and {@link SplitTourArc} instances are only created for the arcs
+ * of the optimal path. Two labelling procedures are used:
+ * <ul>
+ * <li>a linear-time deque-based Split (Vidal, 2016) when the cost is the distance or working time, the time windows
+ * of the requests do not restrict the tours beyond the technician horizon, and only capacity-like constraints apply
+ * (spare parts in the CVRPTW, horizon)</li>
+ * <li>a bounded window labelling otherwise, in which each arc is extended from its tail while it remains feasible,
+ * propagating arrival times and spare parts incrementally. Arcs that require a visit to the main depot are delegated to
+ * the {@link SplitTourArcBuilder}.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Instances of this class reuse internal buffers and are not thread-safe.
+ * </p>
+ * <p>
  * Creation date: Sep 26, 2011 - 4:09:20 PM
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
@@ -27,7 +55,34 @@ import vroom.trsp.util.TRSPLogging;
  */
 public class TRSPSplit {
 
-    private final SplitTourArcBuilder mArcBuilder;
+    private final SplitTourArcBuilder          mArcBuilder;
+
+    /** the constraints that are not checked directly on the primitive arrays */
+    private final List<IConstraint<ITRSPTour>> mResidualConstraints;
+
+    private final boolean                      mCheckTW;
+    private final boolean                      mCheckSkills;
+    private final boolean                      mCheckTools;
+    private final boolean                      mCheckParts;
+    private final boolean                      mCVRPTW;
+    /** <code>true</code> if the cost of a tour is its length */
+    private final boolean                      mDistanceCost;
+    /** <code>true</code> if the linear split can be used when time windows are not binding */
+    private final boolean                      mLinearSplit;
+
+    private int                                mMaxTourLength = Integer.MAX_VALUE;
+
+    // Buffers reused between calls
+    private int[]                              mNodes;
+    private double[]                           mLabels;
+    private int[]                              mPred;
+    private double[]                           mPrefixCost;
+    private double[]                           mPrefixTime;
+    private int[][]                            mPrefixParts;
+    private double[]                           mDequeValues;
+    private int[]                              mDeque;
+    private int[]                              mParts;
+    private SplitTourArc                       mScratchArc;
 
     /**
      * Creates a new <code>TRSPSplit</code>
@@ -38,6 +93,53 @@ public class TRSPSplit {
     public TRSPSplit(SplitTourArcBuilder arcBuilder) {
         super();
         mArcBuilder = arcBuilder;
+        mCVRPTW = arcBuilder.isCVRPTW();
+
+        boolean tw = false, skills = false, tools = false, parts = false;
+        mResidualConstraints = new ArrayList<IConstraint<ITRSPTour>>();
+        for (IConstraint<ITRSPTour> ctr : arcBuilder.getConstraints()) {
+            if (ctr instanceof TWConstraint)
+                tw = true;
+            else if (ctr instanceof SkillsConstraint)
+                skills = true;
+            else if (ctr instanceof ToolsConstraint)
+                tools = true;
+            else if (ctr instanceof SparePartsConstraint)
+                parts = true;
+            else if (!(ctr instanceof HomeConstraint))
+                // Split arcs always start and end at the technician home
+                mResidualConstraints.add(ctr);
+        }
+        mCheckTW = tw;
+        mCheckSkills = skills;
+        mCheckTools = tools;
+        mCheckParts = parts;
+
+        Class<?> costClass = arcBuilder.getCostDelegate().getClass();
+        mDistanceCost = costClass == TRSPDistance.class;
+        mLinearSplit = (mDistanceCost || costClass == TRSPWorkingTime.class)
+                && mResidualConstraints.isEmpty() && !mCheckTools && (!mCheckParts || mCVRPTW);
+    }
+
+    /**
+     * Returns the maximum number of requests in a tour
+     * 
+     * @return the maximum number of requests in a tour
+     */
+    public int getMaxTourLength() {
+        return mMaxTourLength;
+    }
+
+    /**
+     * Sets the maximum number of requests in a tour, bounding the window of heads explored for each arc tail
+     * 
+     * @param maxTourLength
+     *            the maximum number of requests in a tour
+     */
+    public void setMaxTourLength(int maxTourLength) {
+        if (maxTourLength < 1)
+            throw new IllegalArgumentException("The maximum tour length must be positive: " + maxTourLength);
+        mMaxTourLength = maxTourLength;
     }
 
     /**
@@ -51,101 +153,351 @@ public class TRSPSplit {
         if (giantTour.length() == 0)
             return Collections.<ITRSPTour> emptySet();
 
-        // Array of labels (costs)
-        double[] labels = new double[giantTour.length()];
-        Arrays.fill(labels, Double.POSITIVE_INFINITY);
+        int length = giantTour.length();
+        ensureCapacity(giantTour, length);
 
-        // Array of predecessors
-        SplitTourArc[] arcs = new SplitTourArc[giantTour.length()];
+        ITourIterator it = giantTour.iterator();
+        int n = 0;
+        while (it.hasNext())
+            mNodes[n++] = it.nextInt();
 
-        // Main loop iterator
-        int i = 0;
+        // --------------------------------------
+        // Shortest path
+        // --------------------------------------
+        boolean feasible;
+        if (mLinearSplit && !hasBindingTimeWindows(giantTour, length))
+            feasible = linearSplit(giantTour, length);
+        else
+            feasible = windowSplit(giantTour, length);
 
-        labels[i] = 0;
+        if (!feasible)
+            return Collections.<ITRSPTour> emptySet();
 
         // --------------------------------------
-        // Shortest path
+        // Extract the arcs from the shortest path
         // --------------------------------------
+        ArrayList<ITRSPTour> tours = new ArrayList<ITRSPTour>();
+        int idx = length - 1;
+        while (idx != 0) {
+            int tail = mPred[idx];
+            SplitTourArc arc = mArcBuilder.buildArc(giantTour, tail + 1, idx);
+            if (arc == null)
+                throw new IllegalStateException(String.format(
+                        "Arc (%s,%s) of the shortest path is infeasible in giant tour %s", tail, idx,
+                        giantTour));
+            mArcBuilder.evaluateArc();
+            tours.add(arc);
+            // Walk back to the tail
+            idx = tail;
+        }
+
+        TRSPLogging.getOptimizationLogger().lowDebug("TRSPSplit.splitTour: Giant tour split in %s tours", tours.size());
+        return tours;
+    }
+
+    /**
+     * Make sure the buffers can hold a giant tour of the given length
+     * 
+     * @param giantTour
+     * @param length
+     */
+    private void ensureCapacity(ITRSPTour giantTour, int length) {
+        if (mNodes == null || mNodes.length < length) {
+            int size = Math.max(length, mNodes == null ? 16 : 2 * mNodes.length);
+            mNodes = new int[size];
+            mLabels = new double[size];
+            mPred = new int[size];
+            mPrefixCost = new double[size];
+            mPrefixTime = new double[size];
+            mDequeValues = new double[size];
+            mDeque = new int[size];
+            mPrefixParts = null;
+        }
+        int spareCount = giantTour.getInstance().getSpareCount();
+        if (mPrefixParts == null || mPrefixParts.length != spareCount
+                || (spareCount > 0 && mPrefixParts[0].length < mNodes.length)) {
+            mPrefixParts = new int[spareCount][mNodes.length];
+            mParts = new int[spareCount];
+        }
+    }
+
+    /**
+     * Check whether the time windows of the requests of the giant tour may force waiting or restrict tours beyond the
+     * technician horizon, or whether the horizon is open, in which case the working time is not additive
+     * 
+     * @param giantTour
+     * @param length
+     * @return <code>true</code> if some time windows are binding
+     */
+    private boolean hasBindingTimeWindows(ITRSPTour giantTour, int length) {
+        TRSPInstance ins = giantTour.getInstance();
+        int home = ins.getTechnician(giantTour.getTechnicianId()).getHome().getID();
+        double start = ins.getTimeWindow(home).startAsDouble();
+        ITimeWindow end = ins.getTimeWindow(ins.getHomeDuplicate(home));
+        if (end.startAsDouble() > start || !mDistanceCost && Double.isInfinite(start))
+            return true;
+        for (int k = 1; k < length; k++) {
+            ITimeWindow tw = ins.getTimeWindow(mNodes[k]);
+            if (tw.startAsDouble() > start || tw.endAsDouble() < end.endAsDouble())
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Linear split for giant tours in which the time windows are not binding.
+     * <p>
+     * The cost of an arc <code>(i,j)</code> is decomposed as <code>f(i) + P[j] + c(j,home)</code>, the tails are kept
+     * in a deque ordered by index and increasing <code>f</code>, so that the head of the deque is the best feasible
+     * predecessor. Feasibility (spare parts, horizon and maximum length) is assumed to be monotone, which holds when
+     * travel times satisfy the triangle inequality.
+     * </p>
+     * 
+     * @param giantTour
+     * @param length
+     * @return <code>true</code> if the giant tour could be split
+     */
+    private boolean linearSplit(ITRSPTour giantTour, int length) {
+        TRSPInstance ins = giantTour.getInstance();
+        TRSPDistanceMatrix cd = ins.getCostDelegate();
+        Technician tech = ins.getTechnician(giantTour.getTechnicianId());
+        int home = tech.getHome().getID();
+        int homeE = ins.getHomeDuplicate(home);
+        double horizonStart = ins.getTimeWindow(home).startAsDouble();
+        ITimeWindow horizon = ins.getTimeWindow(homeE);
+        int[] capacity = mCheckParts ? tech.getSpareParts() : null;
+
+        // Prefix arrays over the requests of the giant tour (index 0 is the technician home)
+        mPrefixCost[1] = 0;
+        mPrefixTime[1] = 0;
+        for (int k = 2; k < length; k++) {
+            int pred = mNodes[k - 1], node = mNodes[k];
+            double time = ins.getServiceTime(pred) + cd.getTravelTime(pred, node, tech);
+            mPrefixTime[k] = mPrefixTime[k - 1] + time;
+            mPrefixCost[k] = mPrefixCost[k - 1] + (mDistanceCost ? cd.getDistance(pred, node) : time);
+        }
+        if (mCheckParts)
+            for (int p = 0; p < mPrefixParts.length; p++) {
+                mPrefixParts[p][0] = 0;
+                for (int k = 1; k < length; k++)
+                    mPrefixParts[p][k] = mPrefixParts[p][k - 1] + ins.getSparePartReq(mNodes[k], p);
+            }
+
+        mLabels[0] = 0;
+        mDeque[0] = 0;
+        mDequeValues[0] = outCost(ins, cd, tech, home, 0);
+        int head = 0, tail = 1;
+
+        for (int j = 1; j < length; j++) {
+            int node = mNodes[j];
+            if (mCheckSkills && !ins.hasRequiredSkills(tech.getID(), node))
+                // No tour can contain this request
+                head = tail;
+            // Remove the tails that cannot reach j, they will not reach further nodes either
+            while (head < tail && !isLinearArcFeasible(ins, cd, tech, homeE, horizonStart, horizon, capacity,
+                    mDeque[head], j))
+                head++;
+            if (head == tail) {
+                warnInfeasible(giantTour, j);
+                return false;
+            }
+
+            mPred[j] = mDeque[head];
+            mLabels[j] = mDequeValues[head] + mPrefixCost[j] + inCost(ins, cd, tech, homeE, node);
+
+            if (j < length - 1) {
+                // j dominates the tails with a greater or equal value as it will remain feasible longer
+                double value = outCost(ins, cd, tech, home, j);
+                while (head < tail && mDequeValues[tail - 1] >= value)
+                    tail--;
+                mDeque[tail] = j;
+                mDequeValues[tail] = value;
+                tail++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the part of the cost of an arc that only depends on its tail <code>i</code>
+     */
+    private double outCost(TRSPInstance ins, TRSPDistanceMatrix cd, Technician tech, int home, int i) {
+        int first = mNodes[i + 1];
+        double out = mDistanceCost ? cd.getDistance(home, first) : ins.getServiceTime(home)
+                + cd.getTravelTime(home, first, tech);
+        return mLabels[i] + out - mPrefixCost[i + 1];
+    }
+
+    /**
+     * Returns the cost of returning home from <code>node</code>
+     */
+    private double inCost(TRSPInstance ins, TRSPDistanceMatrix cd, Technician tech, int homeE, int node) {
+        return mDistanceCost ? cd.getDistance(node, homeE) : ins.getServiceTime(node)
+                + cd.getTravelTime(node, homeE, tech) + ins.getServiceTime(homeE);
+    }
+
+    /**
+     * Feasibility of the arc <code>(i,j)</code> in the linear split
+     */
+    private boolean isLinearArcFeasible(TRSPInstance ins, TRSPDistanceMatrix cd, Technician tech, int homeE,
+            double horizonStart, ITimeWindow horizon, int[] capacity, int i, int j) {
+        if (j - i > mMaxTourLength)
+            return false;
+        if (capacity != null)
+            for (int p = 0; p < capacity.length; p++)
+                if (mPrefixParts[p][j] - mPrefixParts[p][i] > capacity[p])
+                    return false;
+        if (mCheckTW) {
+            int home = tech.getHome().getID();
+            int first = mNodes[i + 1], last = mNodes[j];
+            double arrival = horizonStart + ins.getServiceTime(home) + cd.getTravelTime(home, first, tech)
+                    + mPrefixTime[j] - mPrefixTime[i + 1] + ins.getServiceTime(last)
+                    + cd.getTravelTime(last, homeE, tech);
+            if (!horizon.isFeasible(arrival))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Bounded window labelling: each arc is extended from its tail while it remains feasible, arrival times and spare
+     * parts being propagated incrementally.
+     * 
+     * @param giantTour
+     * @param length
+     * @return <code>true</code> if the giant tour could be split
+     */
+    private boolean windowSplit(ITRSPTour giantTour, int length) {
+        TRSPInstance ins = giantTour.getInstance();
+        TRSPDistanceMatrix cd = ins.getCostDelegate();
+        int techId = giantTour.getTechnicianId();
+        Technician tech = ins.getTechnician(techId);
+        int home = tech.getHome().getID();
+        int homeE = ins.getHomeDuplicate(home);
+        double horizonStart = ins.getTimeWindow(home).startAsDouble();
+
+        Arrays.fill(mLabels, 0, length, Double.POSITIVE_INFINITY);
+        mLabels[0] = 0;
+
         // Loop for the arc tail
-        // TRSPLogging.getOptimizationLogger().lowDebug(
-        // "TRSPSplit.splitTour: Splitting giant tour %s", giantTour);
-
-        while (i < giantTour.length()) {
-            if (labels[i] == Double.POSITIVE_INFINITY) {
-                TRSPLogging
-                        .getOptimizationLogger()
-                        .warn("TRSPSplit.splitTour: request %s seems to be incompatibel with technician %s, check preprocessing (aborting)",
-                                giantTour.getNodeAt(i), giantTour.getTechnicianId());
-                return Collections.<ITRSPTour> emptySet();
+        for (int i = 0; i < length - 1; i++) {
+            if (mLabels[i] == Double.POSITIVE_INFINITY) {
+                warnInfeasible(giantTour, i);
+                return false;
+            }
+
+            if (mCheckParts) {
+                int[] spare = tech.getSpareParts();
+                System.arraycopy(spare, 0, mParts, 0, spare.length);
             }
+            double arrival = horizonStart;
+            double dist = 0;
+            int pred = home;
+            // true when the arc requires a visit to the main depot
+            boolean depot = false;
 
-            boolean feasible = true;
-            int j = i + 1;
-            SplitTourArc arc = null;
             // Loop for the arc head
             // Abort when an arc is infeasible, as longer arcs will also be infeasible
-            while (j < giantTour.length() && feasible) {
-                // Generate the arc
-                arc = mArcBuilder.buildArc(giantTour, i + 1, j);
-
-                if (arc == null) {
-                    // TRSPLogging.getOptimizationLogger().lowDebug(
-                    // "TRSPSplit.splitTour: ([%s]%s,[%s]%s) is infeasible", i,
-                    // giantTour.getNodeAt(i), j, giantTour.getNodeAt(j));
-                    feasible = false;
+            for (int j = i + 1; j < length && j - i <= mMaxTourLength; j++) {
+                int node = mNodes[j];
+                if (mCheckSkills && !ins.hasRequiredSkills(techId, node))
                     break;
+
+                if (!depot) {
+                    if (mCheckTools && !ins.hasRequiredTools(techId, node))
+                        depot = true;
+                    if (mCheckParts) {
+                        boolean missing = false;
+                        for (int p = 0; p < mParts.length; p++) {
+                            mParts[p] -= ins.getSparePartReq(node, p);
+                            missing |= mParts[p] < 0;
+                        }
+                        if (missing && mCVRPTW)
+                            break;
+                        depot |= missing;
+                    }
                 }
 
-                // Evaluate cost
-                double arcCost = mArcBuilder.evaluateArc();
+                double cost;
+                if (depot) {
+                    // Let the arc builder find the best visit to the main depot
+                    if (mArcBuilder.buildArc(getScratchArc(giantTour, i + 1, j)) == null)
+                        break;
+                    cost = mArcBuilder.evaluateArc();
+                    if (mLabels[i] + cost < mLabels[j]) {
+                        if (!mArcBuilder.isFeasible())
+                            break;
+                        mLabels[j] = mLabels[i] + cost;
+                        mPred[j] = i;
+                    }
+                    continue;
+                }
 
-                double candLabel = labels[i] + arcCost;
-                double oldLabel = labels[j];
+                arrival = ins.calculateArrivalTime(node, pred, arrival, techId);
+                if (mCheckTW
+                        && (!ins.getTimeWindow(node).isFeasible(arrival) || !ins.getTimeWindow(homeE).isFeasible(
+                                ins.calculateArrivalTime(homeE, node, arrival, techId))))
+                    break;
+                if (mDistanceCost)
+                    dist += cd.getDistance(pred, node);
+                pred = node;
 
-                if (candLabel < oldLabel) {
-                    // Promising new path
-                    // Check feasibility
-                    feasible = mArcBuilder.isFeasible();
+                boolean arcSet = false;
+                if (mDistanceCost) {
+                    cost = dist + cd.getDistance(node, homeE);
+                } else {
+                    mArcBuilder.setArc(getScratchArc(giantTour, i + 1, j));
+                    arcSet = true;
+                    cost = mArcBuilder.evaluateArc();
+                }
 
-                    if (feasible) {
-                        // The new path is feasible and improves the label
-                        labels[j] = candLabel;
-                        arcs[j] = arc;
+                if (mLabels[i] + cost < mLabels[j]) {
+                    // Promising new path, check the remaining constraints
+                    if (!mResidualConstraints.isEmpty()) {
+                        if (!arcSet)
+                            mArcBuilder.setArc(getScratchArc(giantTour, i + 1, j));
+                        if (!isResidualFeasible(mArcBuilder.getArc()))
+                            break;
                     }
+                    mLabels[j] = mLabels[i] + cost;
+                    mPred[j] = i;
                 }
-                // TRSPLogging
-                // .getOptimizationLogger()
-                // .lowDebug(
-                // "TRSPSplit.splitTour: ([%s]%s,[%s]%s) cost:%.3f feas:%s imp:%s oldLabel:%.3f candLabel:%.3f",
-                // i, giantTour.getNodeAt(i), j, giantTour.getNodeAt(j),
-                // arc.getTotalCost(), feasible, candLabel < oldLabel, oldLabel,
-                // candLabel);
-                j++;
             }
-            i++;
         }
 
-        // --------------------------------------
-        // Extract the arcs from the shortest path
-        // --------------------------------------
-        LinkedList<ITRSPTour> tours = new LinkedList<ITRSPTour>();
-
-        int idx = giantTour.length() - 1;
-        while (idx != 0) {
-            if (arcs[idx] != null) {
-                // Add the current arc
-                tours.add(arcs[idx]);
-                // Walk back to the tail
-                idx = arcs[idx].getStart() - 1;
-            } else {
-                idx--;
-            }
+        if (mLabels[length - 1] == Double.POSITIVE_INFINITY) {
+            warnInfeasible(giantTour, length - 1);
+            return false;
         }
+        return true;
+    }
 
-        // boolean check = checkSplit(giantTour, tours);
+    /**
+     * Returns the scratch arc reset to the given section of the giant tour
+     */
+    private SplitTourArc getScratchArc(ITRSPTour giantTour, int start, int end) {
+        if (mScratchArc == null)
+            mScratchArc = new SplitTourArc(giantTour, start, end);
+        else
+            mScratchArc.reset(giantTour, start, end);
+        return mScratchArc;
+    }
 
-        TRSPLogging.getOptimizationLogger().lowDebug("TRSPSplit.splitTour: Giant tour split in %s tours", tours.size());
-        return tours;
+    /**
+     * Check the constraints that are not handled on the primitive arrays
+     */
+    private boolean isResidualFeasible(SplitTourArc arc) {
+        for (IConstraint<ITRSPTour> ctr : mResidualConstraints)
+            if (!ctr.isFeasible(arc))
+                return false;
+        return true;
+    }
+
+    private static void warnInfeasible(ITRSPTour giantTour, int idx) {
+        TRSPLogging
+                .getOptimizationLogger()
+                .warn("TRSPSplit.splitTour: request %s seems to be incompatibel with technician %s, check preprocessing (aborting)",
+                        giantTour.getNodeAt(idx), giantTour.getTechnicianId());
     }
 
     public static boolean checkSplit(TRSPSimpleTour giantTour, List<ITRSPTour> splittedTours) {
@@ -154,7 +506,9 @@ public class TRSPSplit {
         ListIterator<ITRSPTour> it = splittedTours.listIterator(splittedTours.size());
         while (idx < giantTour.length()) {
             ITRSPTour splitTour = it.previous();
-            for (int node : splitTour) {
+            ITourIterator nodes = splitTour.iterator();
+            while (nodes.hasNext()) {
+                int node = nodes.nextInt();
                 if (giantTour.getInstance().isRequest(node)) {
                     if (node != giantTour.getNodeAt(idx))
                         return false;
@@ -34,6 +34,12 @@ import vroom.trsp.util.TRSPLogging;
 /**
  * <code>TRSPSimulator</code>
  * <p>
+ * The released, served and rejected requests, and the assigned and current node of each technician are published as
+ * an immutable {@link State} after each change, so that they can be read from optimization threads while the
+ * simulation advances. An optimizer can work against the snapshot returned by {@link #getState()} and check with
+ * {@link #isCurrent(State)} that it is still valid before committing its result.
+ * </p>
+ * <p>
  * Creation date: Nov 8, 2011 - 4:53:20 PM
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
@@ -64,17 +70,21 @@ public class TRSPSimulator extends Observable {
 
     /** A list of the requests that have already been released */
     private final IntegerSet              mReleasedRequests;
-    private final Set<Integer>            mReleasedRequestsView;
 
     /** A list of the unserved requests that have already been released */
     private final IntegerSet              mUnservedReleasedRequests;
-    private final Set<Integer>            mUnservedReleasedRequestsView;
 
     private final IntegerSet              mServedRequests;
-    private final Set<Integer>            mServedRequestsView;
 
     private final IntegerSet              mRejectedRequests;
-    private final Set<Integer>            mRejectedRequestsView;
+
+    /** Flags used to mark the sets that changed since the last published state */
+    private static final int              RELEASED = 1, UNSERVED = 2, SERVED = 4, REJECTED = 8;
+
+    /** The last published snapshot of the state of the simulation */
+    private volatile State                mState;
+    /** The version of the state of the simulation */
+    private long                          mVersion;
 
     private final LinkedList<TRSPRequest> mReleaseQueue;
     private final List<TRSPRequest>       mReleaseQueueView;
@@ -114,15 +124,11 @@ public class TRSPSimulator extends Observable {
         mStaticSetting = false;
         mInstance = instance;
         mServedRequests = new IntegerSet(mInstance.getMaxId());
-        mServedRequestsView = Collections.unmodifiableSet(mServedRequests);
         mRejectedRequests = new IntegerSet(mInstance.getMaxId());
-        mRejectedRequestsView = Collections.unmodifiableSet(mRejectedRequests);
         mReleaseQueue = new LinkedList<TRSPRequest>();
         mReleaseQueueView = Collections.unmodifiableList(mReleaseQueue);
         mReleasedRequests = new IntegerSet(mInstance.getMaxId());
-        mReleasedRequestsView = Collections.unmodifiableSet(mReleasedRequests);
         mUnservedReleasedRequests = new IntegerSet(mInstance.getMaxId());
-        mUnservedReleasedRequestsView = Collections.unmodifiableSet(mUnservedReleasedRequests);
 
         for (TRSPRequest r : mInstance.getRequests()) {
             if (r.getReleaseDate() >= 0) {
@@ -150,6 +156,8 @@ public class TRSPSimulator extends Observable {
             t.setAutoUpdated(true);
         mCurrentSolution.freeze();
 
+        publishState(RELEASED | UNSERVED | SERVED | REJECTED);
+
         // TODO Find more robust way of setting the cutoff
         if (!instance.isCVRPTW() && CUTOFF_TIMES.containsKey(instance.getGroup())) {
             params.set(TRSPGlobalParameters.RUN_CUTOFF_TIME, CUTOFF_TIMES.get(instance.getGroup()));
@@ -181,6 +189,61 @@ public class TRSPSimulator extends Observable {
         return mCurrentSolution;
     }
 
+    /**
+     * Returns the current snapshot of the state of the simulation.
+     * <p>
+     * The returned snapshot is immutable and will not reflect later changes
+     * </p>
+     * 
+     * @return the current snapshot of the state of the simulation
+     */
+    public State getState() {
+        return mState;
+    }
+
+    /**
+     * Returns <code>true</code> if the state of the simulation did not change since a snapshot was taken
+     * 
+     * @param state
+     *            a snapshot previously returned by {@link #getState()}
+     * @return <code>true</code> if <code>state</code> is the current snapshot
+     */
+    public boolean isCurrent(State state) {
+        return mState == state;
+    }
+
+    /**
+     * Publish a new snapshot of the state of the simulation
+     * 
+     * @param changes
+     *            a combination of flags describing the sets that changed
+     */
+    private void publishState(int changes) {
+        State prev = mState;
+        mState = new State(++mVersion, //
+                copy(prev, changes, RELEASED, mReleasedRequests), //
+                copy(prev, changes, UNSERVED, mUnservedReleasedRequests), //
+                copy(prev, changes, SERVED, mServedRequests), //
+                copy(prev, changes, REJECTED, mRejectedRequests), //
+                mAssignedNodes.clone(), mCurrentNode.clone());
+    }
+
+    /**
+     * Returns an immutable copy of {@code  set} if it changed, or its copy from the previous state otherwise
+     */
+    private Set<Integer> copy(State prev, int changes, int flag, IntegerSet set) {
+        if (prev == null || (changes & flag) != 0)
+            return Collections.unmodifiableSet(new IntegerSet(set, mInstance.getMaxId()));
+        else if (flag == RELEASED)
+            return prev.mReleasedRequests;
+        else if (flag == UNSERVED)
+            return prev.mUnservedReleasedRequests;
+        else if (flag == SERVED)
+            return prev.mServedRequests;
+        else
+            return prev.mRejectedRequests;
+    }
+
     /**
      * Setter for <code>clock</code>
      * 
@@ -268,6 +331,7 @@ public class TRSPSimulator extends Observable {
         mReleasedRequests.add(request.getID());
         mUnservedReleasedRequests.add(request.getID());
         mCurrentSolution.markAsUnserved(request.getID());
+        publishState(RELEASED | UNSERVED);
         notifyUpdate(NotificationType.REQ_RELEASED, -1, request.getID());
     }
 
@@ -275,9 +339,10 @@ public class TRSPSimulator extends Observable {
      * Returns all the released requests in this instance (i.e. that have been made known to the system).
      * 
      * @return a list containing all the released requests in this instance
+     * @see #getState()
      */
     public Set<Integer> getReleasedRequests() {
-        return mReleasedRequestsView;
+        return mState.getReleasedRequests();
     }
 
     /**
@@ -285,9 +350,10 @@ public class TRSPSimulator extends Observable {
      * are neither served or rejected).
      * 
      * @return a list containing all the unserved released requests in this instance
+     * @see #getState()
      */
     public Set<Integer> getUnservedReleasedRequests() {
-        return mUnservedReleasedRequestsView;
+        return mState.getUnservedReleasedRequests();
     }
 
     /**
@@ -321,7 +387,7 @@ public class TRSPSimulator extends Observable {
      * @return {@code true} iif the request has been served
      */
     public boolean isServed(int id) {
-        return mServedRequests.contains(id);
+        return mState.getServedRequests().contains(id);
     }
 
     /**
@@ -331,7 +397,7 @@ public class TRSPSimulator extends Observable {
      * @return {@code true} iif the request has been rejected
      */
     public boolean isRejected(int id) {
-        return mRejectedRequests.contains(id);
+        return mState.getRejectedRequests().contains(id);
     }
 
     /**
@@ -340,7 +406,7 @@ public class TRSPSimulator extends Observable {
      * @return the set of served requests
      */
     public Set<Integer> getServedRequests() {
-        return mServedRequestsView;
+        return mState.getServedRequests();
     }
 
     /**
@@ -354,6 +420,7 @@ public class TRSPSimulator extends Observable {
             mReleasedRequests.remove(reqId);
             mUnservedReleasedRequests.remove(reqId);
             getCurrentSolution().markAsServed(reqId);
+            publishState(RELEASED | UNSERVED | REJECTED);
             notifyUpdate(NotificationType.REQ_REJECTED, -1, reqId);
         }
     }
@@ -364,7 +431,7 @@ public class TRSPSimulator extends Observable {
      * @return the set of rejected requests
      */
     public Set<Integer> getRejectedRequests() {
-        return mRejectedRequestsView;
+        return mState.getRejectedRequests();
     }
 
     /**
@@ -393,7 +460,10 @@ public class TRSPSimulator extends Observable {
         mAssignedNodes[technician] = node;
         if (node != null) {
             appendToCurrentSolution(node.getID(), technician, arrivalTime);
+            publishState(UNSERVED);
             notifyUpdate(NotificationType.NODE_ASSIGNED, technician, node.getID());
+        } else {
+            publishState(0);
         }
         return prev;
     }
@@ -426,7 +496,7 @@ public class TRSPSimulator extends Observable {
      * @return the node assigned to {@code  technician}
      */
     public ITRSPNode getAssignedNode(int technician) {
-        return mAssignedNodes[technician];
+        return mState.getAssignedNode(technician);
     }
 
     /**
@@ -436,7 +506,7 @@ public class TRSPSimulator extends Observable {
      */
     public List<ITRSPNode> getAssignedNodes() {
         ArrayList<ITRSPNode> nodes = new ArrayList<>(mAssignedNodes.length);
-        for (ITRSPNode n : mAssignedNodes)
+        for (ITRSPNode n : mState.mAssignedNodes)
             if (n != null)
                 nodes.add(n);
         return nodes;
@@ -449,7 +519,7 @@ public class TRSPSimulator extends Observable {
      * @return the current (or last known) location of a technician
      */
     public ITRSPNode getCurrentNode(int technician) {
-        return mCurrentNode[technician];
+        return mState.getCurrentNode(technician);
     }
 
     /**
@@ -467,6 +537,7 @@ public class TRSPSimulator extends Observable {
             throw new IllegalStateException(String.format("Technician %s has no assigned node",
                     technician));
         mCurrentNode[technician] = node;
+        publishState(0);
         notifyUpdate(NotificationType.NODE_SET_AS_CURRENT, technician, node.getID());
         return node;
     }
@@ -488,6 +559,7 @@ public class TRSPSimulator extends Observable {
         if (node.getType() == NodeType.REQUEST) {
             mServedRequests.add(node.getID());
             mUnservedReleasedRequests.remove(node.getID());
+            publishState(SERVED | UNSERVED);
         }
         notifyUpdate(NotificationType.NODE_SERVED, technician, node.getID());
         assignNodeToTechnician(technician, null, 0);
@@ -640,6 +712,7 @@ public class TRSPSimulator extends Observable {
         mCurrentSolution.unfreeze();
         mCurrentSolution.clear();
         mCurrentSolution.freeze();
+        publishState(SERVED | UNSERVED);
     }
 
     /**
@@ -677,10 +750,11 @@ public class TRSPSimulator extends Observable {
 
     @Override
     public String toString() {
+        State state = mState;
         return String.format("Time:%s Served:%s Rejected:%s Unserved:%s Unreleased:%s",
-                simulationTime(), Utilities.toShortString(mServedRequestsView),
-                Utilities.toShortString(mRejectedRequestsView),
-                Utilities.toShortString(mUnservedReleasedRequestsView),
+                simulationTime(), Utilities.toShortString(state.getServedRequests()),
+                Utilities.toShortString(state.getRejectedRequests()),
+                Utilities.toShortString(state.getUnservedReleasedRequests()),
                 Utilities.toShortString(mReleaseQueueView));
     }
 
@@ -714,4 +788,101 @@ public class TRSPSimulator extends Observable {
         }
     }
 
+    /**
+     * The class <code>State</code> is an immutable snapshot of the state of a {@link TRSPSimulator}
+     * <p>
+     * Creation date: Oct 19, 2026 - 8:14:37 PM
+     * 
+     * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+     *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+     *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+     * @version 1.0
+     */
+    public static final class State {
+        private final long         mVersion;
+        private final Set<Integer> mReleasedRequests;
+        private final Set<Integer> mUnservedReleasedRequests;
+        private final Set<Integer> mServedRequests;
+        private final Set<Integer> mRejectedRequests;
+        private final ITRSPNode[]  mAssignedNodes;
+        private final ITRSPNode[]  mCurrentNodes;
+
+        private State(long version, Set<Integer> releasedRequests, Set<Integer> unservedReleasedRequests,
+                Set<Integer> servedRequests, Set<Integer> rejectedRequests, ITRSPNode[] assignedNodes,
+                ITRSPNode[] currentNodes) {
+            mVersion = version;
+            mReleasedRequests = releasedRequests;
+            mUnservedReleasedRequests = unservedReleasedRequests;
+            mServedRequests = servedRequests;
+            mRejectedRequests = rejectedRequests;
+            mAssignedNodes = assignedNodes;
+            mCurrentNodes = currentNodes;
+        }
+
+        /**
+         * Returns the version of this snapshot, incremented each time the state of the simulation changes
+         * 
+         * @return the version of this snapshot
+         */
+        public long getVersion() {
+            return mVersion;
+        }
+
+        /**
+         * Returns the released requests
+         * 
+         * @return an unmodifiable set containing the released requests
+         */
+        public Set<Integer> getReleasedRequests() {
+            return mReleasedRequests;
+        }
+
+        /**
+         * Returns the released requests that are neither served nor rejected
+         * 
+         * @return an unmodifiable set containing the unserved released requests
+         */
+        public Set<Integer> getUnservedReleasedRequests() {
+            return mUnservedReleasedRequests;
+        }
+
+        /**
+         * Returns the served requests
+         * 
+         * @return an unmodifiable set containing the served requests
+         */
+        public Set<Integer> getServedRequests() {
+            return mServedRequests;
+        }
+
+        /**
+         * Returns the rejected requests
+         * 
+         * @return an unmodifiable set containing the rejected requests
+         */
+        public Set<Integer> getRejectedRequests() {
+            return mRejectedRequests;
+        }
+
+        /**
+         * Returns the node assigned to a technician
+         * 
+         * @param technician
+         * @return the node assigned to {@code  technician}
+         */
+        public ITRSPNode getAssignedNode(int technician) {
+            return mAssignedNodes[technician];
+        }
+
+        /**
+         * Returns the current (or last known) location of a technician
+         * 
+         * @param technician
+         * @return the current (or last known) location of a technician
+         */
+        public ITRSPNode getCurrentNode(int technician) {
+            return mCurrentNodes[technician];
+        }
+    }
+
 }
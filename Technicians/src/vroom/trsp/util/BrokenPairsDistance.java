@@ -53,9 +53,9 @@ public class BrokenPairsDistance implements IDistance<TRSPSolution> {
                 if (t.length() <= 1)
                     continue;
                 TRSPTourIterator it = t.iterator();
-                int pred = it.next();
+                int pred = it.nextInt();
                 while (it.hasNext()) {
-                    int node = it.next();
+                    int node = it.nextInt();
                     mPairs[pred][node] = true;
                     mPairCount++;
                     pred = node;
@@ -69,9 +69,9 @@ public class BrokenPairsDistance implements IDistance<TRSPSolution> {
             if (t.length() <= 1)
                 continue;
             TRSPTourIterator it = t.iterator();
-            int pred = it.next();
+            int pred = it.nextInt();
             while (it.hasNext()) {
-                int node = it.next();
+                int node = it.nextInt();
                 pairCount2++;
                 if (mPairs[pred][node])
                     inter++;
@@ -107,6 +107,14 @@ public class TRSPGlobalParameters extends GlobalParameters implements IRandomSou
     public static final DoubleParameterKey                           ALNS_REP_ETA                  = new DoubleParameterKey(
                                                                                                            "ALNS_REP_ETA",
                                                                                                            0.025d);
+
+    /**
+     * {@code true} if the insertions of the different requests should be evaluated in parallel within a single call to
+     * a regret repair, using up to {@link #THREAD_COUNT} threads. Only applies to repair operators without noise
+     */
+    public static final BooleanParameterKey                          ALNS_REP_PARALLEL             = new BooleanParameterKey(
+                                                                                                           "ALNS_REP_PARALLEL",
+                                                                                                           Boolean.FALSE);
     @RequiredParameter
     /** The maximum number of iterations*/
     public static final IntegerParameterKey                          ALNS_MAX_IT                   = new IntegerParameterKey(
@@ -236,6 +244,14 @@ public class TRSPGlobalParameters extends GlobalParameters implements IRandomSou
                                                                                                            TRSPCostDelegate.class,
                                                                                                            TRSPTourBalance.class);
 
+    /**
+     * The number of iterations of a randomized constructive heuristic executed as a single task when the tour pool is
+     * generated in parallel (default: 10)
+     */
+    public static final IntegerParameterKey                          RCH_CHUNK_SIZE                = new IntegerParameterKey(
+                                                                                                           "RCH_CHUNK_SIZE",
+                                                                                                           10);
+
     /** The cost delegate used in the randomized heuristic solver procedure */
     public static final ClassParameterKey<TRSPCostDelegate>          RCH_COST_DELEGATE             = new ClassParameterKey<TRSPCostDelegate>(
                                                                                                            "RCH_COST_DELEGATE",
@@ -379,6 +395,20 @@ public class TRSPGlobalParameters extends GlobalParameters implements IRandomSou
      */
     public static final DoubleParameterKey                           RUN_SIM_DURATION              = new DoubleParameterKey(
                                                                                                            "RUN_SIM_DURATION");
+    /**
+     * {@code true} if the simulation should use a virtual clock that jumps from one event to the next instead of the
+     * wall clock
+     */
+    public static final BooleanParameterKey                          RUN_SIM_VIRTUAL_TIME          = new BooleanParameterKey(
+                                                                                                           "RUN_SIM_VIRTUAL_TIME",
+                                                                                                           false);
+    /**
+     * The maximum CPU time (in s) granted to the MSA for background optimization between two events when
+     * {@link #RUN_SIM_VIRTUAL_TIME} is enabled ({@code 0} for a purely event-driven simulation)
+     */
+    public static final DoubleParameterKey                           RUN_SIM_CPU_BUDGET            = new DoubleParameterKey(
+                                                                                                           "RUN_SIM_CPU_BUDGET",
+                                                                                                           0d);
     /** A value between 0 and 1 indicating until which time of the horizon the algorithm should expect new requests */
     @RequiredParameter
     public static final DoubleParameterKey                           RUN_CUTOFF_TIME               = new DoubleParameterKey(
@@ -447,6 +477,18 @@ public class TRSPGlobalParameters extends GlobalParameters implements IRandomSou
     /** The path of a file that contains the experimental setting */
     public static final StringParameterKey                           EXPE_CONFIG_FILE              = new StringParameterKey(
                                                                                                            "EXPE_CONFIG_FILE");
+    /**
+     * The directory in which checkpoints are written, if set the state of the solver is saved periodically to a file
+     * named after the instance, the solver and the run, and the run is resumed from this file if it already exists
+     * 
+     * @see TRSPSolver#getCheckpointFile()
+     */
+    public static final StringParameterKey                           CHECKPOINT_DIR                = new StringParameterKey(
+                                                                                                           "CHECKPOINT_DIR");
+    /** The number of ALNS iterations between two checkpoints (default: 1000) */
+    public static final IntegerParameterKey                          CHECKPOINT_PERIOD             = new IntegerParameterKey(
+                                                                                                           "CHECKPOINT_PERIOD",
+                                                                                                           1000);
 
     private RandomStream                                             mALNSRndStream;
     private RandomStream                                             mInitRndStream;
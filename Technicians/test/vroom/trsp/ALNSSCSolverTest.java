@@ -0,0 +1,162 @@
+package vroom.trsp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import vroom.common.heuristics.alns.ALNSCheckpoint;
+import vroom.common.heuristics.alns.ALNSEventType;
+import vroom.common.heuristics.alns.AdaptiveLargeNeighborhoodSearch;
+import vroom.common.utilities.callbacks.CallbackBase;
+import vroom.common.utilities.callbacks.ICallbackEvent;
+import vroom.common.utilities.checkpoint.CheckpointWriter;
+import vroom.common.utilities.metrics.Metrics;
+import vroom.trsp.datamodel.TRSPInstance;
+import vroom.trsp.datamodel.TRSPSolution;
+import vroom.trsp.optimization.TRSPUtilities;
+import vroom.trsp.util.TRSPGlobalParameters;
+
+/**
+ * <code>ALNSSCSolverTest</code> is a test case for the checkpoints of the {@link ALNSSCSolver}
+ * <p>
+ * Creation date: Oct 19, 2026 - 11:42:18 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class ALNSSCSolverTest {
+
+    private static final String CONFIG_FILE   = "./config/bench/bench_base_1threads_x10.cfg";
+    private static final String INSTANCE_FILE = "../Instances/trsp/pillac/crew25/C101.100_25-5-5-5.txt";
+    private static final int    MAX_IT        = 600;
+    private static final int    CRASH_IT      = 350;
+
+    /**
+     * A callback that simulates a crash of the JVM after a given number of iterations
+     */
+    private static class CrashCallback extends
+            CallbackBase<AdaptiveLargeNeighborhoodSearch<TRSPSolution>, ALNSEventType> {
+        private final int mCrashIt;
+        private int       mIt;
+
+        CrashCallback(int crashIt) {
+            super(0, true);
+            mCrashIt = crashIt;
+        }
+
+        @Override
+        public void execute(ICallbackEvent<AdaptiveLargeNeighborhoodSearch<TRSPSolution>, ALNSEventType> event) {
+            if (++mIt == mCrashIt)
+                throw new IllegalStateException("Simulated crash");
+        }
+    }
+
+    private File mDir;
+
+    @Before
+    public void setUp() throws IOException {
+        mDir = Files.createTempDirectory("checkpoints").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        for (File f : mDir.listFiles())
+            f.delete();
+        mDir.delete();
+    }
+
+    /**
+     * Creates a new solver with the parameters used in the tests
+     */
+    private ALNSSCSolver newSolver(boolean checkpoint, int runId) throws Exception {
+        TRSPGlobalParameters params = new TRSPGlobalParameters();
+        params.loadParameters(new File(CONFIG_FILE));
+        params.set(TRSPGlobalParameters.ALNS_MAX_IT, MAX_IT);
+        params.set(TRSPGlobalParameters.SC_ENABLED, false);
+        params.set(TRSPGlobalParameters.TOUR_POOL_ENABLED, false);
+        params.set(TRSPGlobalParameters.CHECKPOINT_PERIOD, 100);
+        if (checkpoint)
+            params.set(TRSPGlobalParameters.CHECKPOINT_DIR, mDir.getPath());
+
+        TRSPInstance instance = TRSPUtilities.getPersistenceHelper(INSTANCE_FILE).readInstance(
+                new File(INSTANCE_FILE), false);
+        ALNSSCSolver solver = new ALNSSCSolver(instance, params);
+        solver.setRun(runId, 0);
+        return solver;
+    }
+
+    @Test
+    public void testCheckpointFile() throws Exception {
+        ALNSSCSolver s1 = newSolver(true, 1);
+        ALNSSCSolver s2 = newSolver(true, 2);
+        assertEquals(mDir, s1.getCheckpointFile().getParentFile());
+        assertTrue(s1.getCheckpointFile().getName().startsWith(s1.getInstance().getName() + "_ALNSSCSolver_1-0_"));
+        assertFalse(s1.getCheckpointFile().equals(s2.getCheckpointFile()));
+        assertEquals(null, newSolver(false, 1).getCheckpointFile());
+    }
+
+    @Test
+    public void testResume() throws Exception {
+        // Uninterrupted run
+        TRSPSolution expected = newSolver(false, 1).call();
+
+        // Interrupted run
+        ALNSSCSolver crashed = newSolver(true, 1);
+        crashed.initialization();
+        crashed.setupALNS();
+        crashed.getALNS().registerCallback(new CrashCallback(CRASH_IT), ALNSEventType.IT_FINISHED);
+        try {
+            crashed.alns();
+            throw new AssertionError("The run was not interrupted");
+        } catch (IllegalStateException e) {
+            // Simulated crash, make sure the last checkpoint is on disk
+            crashed.getALNS().getCheckpointWriter().close();
+        }
+        File file = crashed.getCheckpointFile();
+        assertTrue(file.exists());
+        ALNSCheckpoint checkpoint = CheckpointWriter.read(file, ALNSCheckpoint.class);
+        assertEquals(crashed.getInstance().getName(), checkpoint.getInstanceName());
+        assertEquals(300, checkpoint.getIteration());
+
+        // Resumed run: only the remaining iterations are performed, the result is the same as the uninterrupted run,
+        // and the checkpoint is deleted
+        ALNSSCSolver resumed = newSolver(true, 1);
+        long iterations = Metrics.counter("alns.iterations").getCount();
+        TRSPSolution actual = resumed.call();
+        assertEquals(MAX_IT - checkpoint.getIteration(), Metrics.counter("alns.iterations").getCount() - iterations);
+        assertEquals(MAX_IT, resumed.getALNS().getStoppingCriterion().getIterationCount());
+        assertEquals(expected.getObjectiveValue(), actual.getObjectiveValue(), 1e-6);
+        assertEquals(expected.toShortString(), actual.toShortString());
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testOtherRun() throws Exception {
+        // A checkpoint of another run is not used
+        ALNSSCSolver crashed = newSolver(true, 1);
+        crashed.initialization();
+        crashed.setupALNS();
+        crashed.getALNS().registerCallback(new CrashCallback(CRASH_IT), ALNSEventType.IT_FINISHED);
+        try {
+            crashed.alns();
+        } catch (IllegalStateException e) {
+            crashed.getALNS().getCheckpointWriter().close();
+        }
+
+        ALNSSCSolver other = newSolver(true, 2);
+        other.call();
+        assertEquals(MAX_IT, other.getALNS().getStoppingCriterion().getIterationCount());
+        assertTrue(crashed.getCheckpointFile().exists());
+        assertFalse(other.getCheckpointFile().exists());
+    }
+}
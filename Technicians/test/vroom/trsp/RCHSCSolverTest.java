@@ -0,0 +1,70 @@
+package vroom.trsp;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import vroom.trsp.datamodel.ITRSPTour;
+import vroom.trsp.datamodel.TRSPInstance;
+import vroom.trsp.optimization.TRSPUtilities;
+import vroom.trsp.util.TRSPGlobalParameters;
+
+/**
+ * <code>RCHSCSolverTest</code> is a test case for the parallel generation of the tour pool of the {@link RCHSCSolver}
+ * <p>
+ * Creation date: Oct 19, 2026 - 6:14:53 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class RCHSCSolverTest {
+
+    private static final String CONFIG_FILE   = "./config/bench/bench_base_1threads_x10.cfg";
+    private static final String INSTANCE_FILE = "../Instances/trsp/pillac/crew25/C101.100_25-5-5-5.txt";
+    private static final int    MAX_IT        = 250;
+
+    /**
+     * Generates the tour pool with a given number of threads and returns its content
+     */
+    private static List<ITRSPTour> generatePool(int threadCount) throws Exception {
+        TRSPGlobalParameters params = new TRSPGlobalParameters();
+        params.loadParameters(new File(CONFIG_FILE));
+        params.set(TRSPGlobalParameters.RCH_MAX_IT, MAX_IT);
+        params.set(TRSPGlobalParameters.RCH_CHUNK_SIZE, 5);
+
+        TRSPInstance instance = TRSPUtilities.getPersistenceHelper(INSTANCE_FILE).readInstance(
+                new File(INSTANCE_FILE), false);
+        RCHSCSolver solver = new RCHSCSolver(instance, params);
+        solver.resetMonitor();
+        solver.generateToursParallel(threadCount);
+        List<ITRSPTour> tours = new ArrayList<ITRSPTour>(solver.getTourPool().getAllTours());
+        assertEquals(solver.getTourPool().size(), tours.size());
+        solver.dispose();
+        return tours;
+    }
+
+    @Test
+    public void testParallelPool() throws Exception {
+        List<ITRSPTour> expected = generatePool(1);
+        assertTrue("The pool is empty", !expected.isEmpty());
+
+        for (int threads : new int[] { 2, 4 }) {
+            List<ITRSPTour> actual = generatePool(threads);
+            assertEquals(threads + " threads", expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                ITRSPTour e = expected.get(i), a = actual.get(i);
+                assertEquals(threads + " threads", e.getTechnicianId(), a.getTechnicianId());
+                assertArrayEquals(threads + " threads", e.asArray(), a.asArray());
+                assertEquals(threads + " threads", e.getTotalCost(), a.getTotalCost(), 0);
+            }
+        }
+    }
+}
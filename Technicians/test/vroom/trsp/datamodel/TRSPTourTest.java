@@ -0,0 +1,114 @@
+package vroom.trsp.datamodel;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import vroom.trsp.datamodel.TRSPTour.TRSPTourIterator;
+import vroom.trsp.datamodel.costDelegates.TRSPDistance;
+import vroom.trsp.io.PillacSimplePersistenceHelper;
+
+/**
+ * <code>TRSPTourTest</code> is a test case for the primitive node accessors of {@link TRSPTour}
+ * <p>
+ * Creation date: Oct 19, 2026 - 4:38:12 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class TRSPTourTest {
+
+    private static TRSPInstance sInstance;
+
+    private TRSPTour            mTour;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        sInstance = new PillacSimplePersistenceHelper().readInstance(new File(
+                "../Instances/trsp/pillac/crew25/C101.100_25-5-5-5.txt"), false);
+    }
+
+    @Before
+    public void setUp() {
+        TRSPSolution solution = new TRSPSolution(sInstance, new TRSPDistance());
+        mTour = solution.getTour(0);
+        mTour.initialize();
+        int count = 0;
+        for (TRSPRequest r : sInstance.getRequests()) {
+            if (count < 10 && sInstance.isCompatible(mTour.getTechnicianId(), r.getID())) {
+                mTour.insertBefore(mTour.getLastNode(), r.getID());
+                solution.markAsServed(r.getID());
+                count++;
+            }
+        }
+        assertEquals(12, mTour.length());
+    }
+
+    @Test
+    public void testNextPreviousInt() {
+        final int[] nodes = mTour.asArray();
+
+        TRSPTourIterator it = mTour.iterator();
+        int k = 0;
+        while (it.hasNext())
+            assertEquals(nodes[k++], it.nextInt());
+        assertEquals(nodes.length, k);
+
+        it = mTour.iterator(mTour.getLastNode());
+        while (it.hasPrevious())
+            assertEquals(nodes[--k], it.previousInt());
+        assertEquals(0, k);
+
+        final int[] visited = new int[nodes.length];
+        assertTrue(mTour.forEachNode(new INodeProcedure() {
+            private int mIdx = 0;
+
+            @Override
+            public boolean execute(int node) {
+                visited[mIdx++] = node;
+                return true;
+            }
+        }));
+        assertArrayEquals(nodes, visited);
+    }
+
+    @Test
+    public void testTruncate() {
+        int[] nodes = mTour.asArray();
+        int[] removed = mTour.truncate(nodes[4]);
+
+        assertArrayEquals(Arrays.copyOfRange(nodes, 5, nodes.length - 1), removed);
+        assertEquals(6, mTour.length());
+        assertEquals(nodes[4], mTour.getPred(mTour.getLastNode()));
+        for (int n : removed)
+            assertFalse(mTour.isVisited(n));
+
+        // Nothing is removed after the last node
+        assertEquals(0, mTour.truncate(mTour.getLastNode()).length);
+    }
+
+    @Test
+    public void testExtractSubtour() {
+        int[] nodes = mTour.asArray();
+        int[] subtour = mTour.extractSubtour(2, 5);
+
+        assertArrayEquals(Arrays.copyOfRange(nodes, 2, 6), subtour);
+        assertEquals(nodes.length - 4, mTour.length());
+        int[] expected = new int[nodes.length - 4];
+        System.arraycopy(nodes, 0, expected, 0, 2);
+        System.arraycopy(nodes, 6, expected, 2, nodes.length - 6);
+        assertArrayEquals(expected, mTour.asArray());
+        for (int n : subtour)
+            assertFalse(mTour.isVisited(n));
+    }
+}
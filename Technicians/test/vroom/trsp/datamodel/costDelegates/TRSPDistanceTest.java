@@ -0,0 +1,230 @@
+/**
+ * 
+ */
+package vroom.trsp.datamodel.costDelegates;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import vroom.common.utilities.Utilities;
+import vroom.trsp.datamodel.ITRSPTour;
+import vroom.trsp.datamodel.TRSPDistanceMatrix;
+import vroom.trsp.datamodel.TRSPInstance;
+import vroom.trsp.datamodel.TRSPSolution;
+import vroom.trsp.datamodel.TRSPTour;
+import vroom.trsp.io.PillacSimplePersistenceHelper;
+import vroom.trsp.optimization.InsertionMove;
+
+/**
+ * <code>TRSPDistanceTest</code> is a test case for {@link TRSPDistance}
+ * <p>
+ * Creation date: Oct 19, 2026 - 5:12:40 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class TRSPDistanceTest {
+
+    private static TRSPInstance sInstance;
+
+    private static TRSPInstance readInstance() throws Exception {
+        return new PillacSimplePersistenceHelper().readInstance(new File(
+                "../Instances/trsp/pillac/crew25/C101.100_25-5-5-5.txt"), false);
+    }
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        sInstance = readInstance();
+    }
+
+    /**
+     * Test method for {@link TRSPDistance#evaluateInsertions(TRSPTour, int, double[])}: the batch evaluation should
+     * return the same values as {@link TRSPDistance#evaluateMove(vroom.common.utilities.optimization.IMove)}
+     */
+    @Test
+    public void testEvaluateInsertions() {
+        Random rnd = new Random(0);
+        TRSPDistance cd = new TRSPDistance();
+        TRSPSolution solution = new TRSPSolution(sInstance, cd);
+        TRSPTour tour = solution.getTour(0);
+        tour.initialize();
+
+        ArrayList<Integer> requests = new ArrayList<>(solution.getUnservedRequests());
+        Collections.shuffle(requests, rnd);
+        double[] improvements = new double[sInstance.getMaxId()];
+        for (int r = 0; r < requests.size() / 2; r++) {
+            int node = requests.get(r);
+            int count = cd.evaluateInsertions(tour, node, improvements);
+            assertEquals(tour.length() - 1, count);
+
+            int k = 0;
+            int pred = tour.getFirstNode();
+            for (int succ = tour.getSucc(pred); succ != ITRSPTour.UNDEFINED; succ = tour.getSucc(succ)) {
+                double expected = cd.evaluateMove(new InsertionMove(node, tour, 0, pred, succ));
+                assertEquals(String.format("Insertion of %s between %s and %s", node, pred, succ), expected,
+                        improvements[k++], 0);
+                pred = succ;
+            }
+
+            // Insert the request at a random position
+            int pos = rnd.nextInt(tour.length() - 1) + 1;
+            tour.insertBefore(tour.getNodeAt(pos), node);
+        }
+    }
+
+    /**
+     * Test the fixed-point evaluation of tours and insertions
+     */
+    @Test
+    public void testFixedPoint() throws Exception {
+        TRSPInstance instance = readInstance();
+        TRSPDistanceMatrix c = instance.getCostDelegate();
+        c.setPrecision(2, RoundingMode.HALF_EVEN);
+        // Fixed point has to be enabled explicitly
+        assertEquals(false, c.isFixedPoint());
+        c.setFixedPoint(true);
+        assertEquals(true, c.isFixedPoint());
+        assertEquals(100, c.getFixedPointScale());
+        assertEquals(true, cdSupportsFixedPoint(instance));
+
+        Random rnd = new Random(1);
+        TRSPDistance cd = new TRSPDistance();
+        TRSPSolution solution = new TRSPSolution(instance, cd);
+        TRSPTour tour = solution.getTour(0);
+        tour.initialize();
+
+        ArrayList<Integer> requests = new ArrayList<>(solution.getUnservedRequests());
+        Collections.shuffle(requests, rnd);
+        double[] improvements = new double[instance.getMaxId()];
+        long[] fixedImprovements = new long[instance.getMaxId()];
+        for (int r = 0; r < requests.size() / 2; r++) {
+            int node = requests.get(r);
+            cd.evaluateInsertions(tour, node, improvements);
+            assertEquals(tour.length() - 1, cd.evaluateInsertions(tour, node, fixedImprovements));
+            int k = 0;
+            int pred = tour.getFirstNode();
+            for (int succ = tour.getSucc(pred); succ != ITRSPTour.UNDEFINED; succ = tour.getSucc(succ)) {
+                double expected = c.getDistance(pred, succ) - c.getDistance(pred, node) - c.getDistance(node, succ);
+                InsertionMove mve = new InsertionMove(node, tour, 0, pred, succ);
+                assertEquals(improvements[k], cd.evaluateMove(mve), 0);
+                assertEquals(expected, improvements[k], 1e-9);
+                // Improvements are exact multiples of the precision
+                assertEquals(c.fromFixedPoint(c.toFixedPoint(improvements[k])), improvements[k], 0);
+                assertEquals(c.toFixedPoint(improvements[k]), fixedImprovements[k]);
+                k++;
+                pred = succ;
+            }
+
+            int pos = rnd.nextInt(tour.length() - 1) + 1;
+            tour.insertBefore(tour.getNodeAt(pos), node);
+
+            // The tour cost is the exact sum of the rounded distances
+            long fixed = 0;
+            pred = tour.getFirstNode();
+            for (int succ = tour.getSucc(pred); succ != ITRSPTour.UNDEFINED; succ = tour.getSucc(succ)) {
+                fixed += c.getFixedDistance(pred, succ);
+                pred = succ;
+            }
+            assertEquals(c.fromFixedPoint(fixed), cd.evaluateTour(tour, false), 0);
+        }
+    }
+
+    private static boolean cdSupportsFixedPoint(TRSPInstance instance) {
+        TRSPSolution solution = new TRSPSolution(instance, new TRSPDistance());
+        return new TRSPDistance().isFixedPointBatchInsertionSupported(solution.getTour(0));
+    }
+
+    /**
+     * Test method for {@link TRSPDistanceMatrix#setFixedPoint(boolean)}
+     */
+    @Test
+    public void testFixedPointOptIn() throws Exception {
+        TRSPInstance instance = readInstance();
+        TRSPDistanceMatrix c = instance.getCostDelegate();
+        assertEquals(false, c.isFixedPoint());
+        assertEquals(false, cdSupportsFixedPoint(instance));
+        try {
+            // Distances are not rounded
+            c.setFixedPoint(true);
+            fail("Fixed point should require a finite precision");
+        } catch (IllegalStateException e) {
+            assertEquals(false, c.isFixedPoint());
+        }
+
+        c.setPrecision(3, RoundingMode.HALF_UP);
+        assertEquals(false, c.isFixedPoint());
+        c.setFixedPoint(true);
+        assertEquals(1000, c.getFixedPointScale());
+
+        c.setFixedPoint(false);
+        assertEquals(false, c.isFixedPoint());
+        assertEquals(0, c.getFixedPointScale());
+        // Distances are still rounded
+        for (int i = 0; i < instance.getMaxId(); i++)
+            for (int j = 0; j < instance.getMaxId(); j++)
+                assertEquals(Utilities.Math.round(sInstance.getCostDelegate().getDistance(i, j), 3,
+                        RoundingMode.HALF_UP), c.getDistance(i, j), 0);
+    }
+
+    /**
+     * Test method for {@link TRSPDistance#evaluateRemoval(TRSPTour, int)} with distances that are not rounded
+     */
+    @Test
+    public void testEvaluateRemoval() {
+        Random rnd = new Random(2);
+        TRSPDistance cd = new TRSPDistance();
+        TRSPDistanceMatrix c = sInstance.getCostDelegate();
+        TRSPSolution solution = new TRSPSolution(sInstance, cd);
+        TRSPTour tour = solution.getTour(0);
+        tour.initialize();
+
+        ArrayList<Integer> requests = new ArrayList<>(solution.getUnservedRequests());
+        Collections.shuffle(requests, rnd);
+        for (int r = 0; r < 20; r++)
+            tour.insertBefore(tour.getLastNode(), requests.get(r));
+
+        for (int r = 0; r < 20; r++) {
+            int node = requests.get(r);
+            int pred = tour.getPred(node), succ = tour.getSucc(node);
+            double expected = c.getDistance(pred, node) + c.getDistance(node, succ) - c.getDistance(pred, succ);
+            assertEquals(String.format("Removal of %s", node), expected, cd.evaluateRemoval(tour, node), 1e-9);
+        }
+    }
+
+    /**
+     * The distances derived from the fixed-point representation should be equal to the rounded distances
+     */
+    @Test
+    public void testFixedPointDistances() throws Exception {
+        TRSPDistanceMatrix c = readInstance().getCostDelegate();
+        c.setPrecision(2, RoundingMode.HALF_EVEN);
+        c.setFixedPoint(true);
+        TRSPDistanceMatrix ref = sInstance.getCostDelegate();
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < sInstance.getMaxId(); i++)
+            for (int j = 0; j < sInstance.getMaxId(); j++) {
+                double expected = Utilities.Math.round(ref.getDistance(i, j), 2, RoundingMode.HALF_EVEN);
+                assertEquals(expected, c.getDistance(i, j), 0);
+                max = Math.max(max, expected);
+            }
+        assertEquals(max, c.getMaxDistance(), 0);
+
+        // Lowering the precision again rounds the fixed-point distances
+        c.setPrecision(1, RoundingMode.HALF_EVEN);
+        assertEquals(10, c.getFixedPointScale());
+        for (int i = 0; i < sInstance.getMaxId(); i++)
+            for (int j = 0; j < sInstance.getMaxId(); j++)
+                assertEquals(c.fromFixedPoint(c.getFixedDistance(i, j)), c.getDistance(i, j), 0);
+    }
+}
@@ -0,0 +1,163 @@
+package vroom.trsp.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import vroom.trsp.datamodel.TRSPDistTimeMatrix;
+import vroom.trsp.datamodel.TRSPInstance;
+import vroom.trsp.datamodel.TRSPRequest;
+import vroom.trsp.datamodel.TRSPSolution;
+import vroom.trsp.datamodel.TRSPTour;
+import vroom.trsp.datamodel.Technician;
+import vroom.trsp.datamodel.costDelegates.TRSPDistance;
+
+public class TRSPBinaryPersistenceHelperTest {
+
+    private final static File           INSTANCE = new File(
+                                                         "../Instances/trsp/pillac/crew25/C101.100_25-5-5-5.txt");
+
+    private TRSPBinaryPersistenceHelper mHelper;
+    private TRSPInstance                mInstance;
+
+    @Before
+    public void setUp() throws Exception {
+        mHelper = new TRSPBinaryPersistenceHelper();
+        mInstance = new PillacSimplePersistenceHelper().readInstance(INSTANCE, false);
+    }
+
+    @Test
+    public void testReadWriteInstance() throws Exception {
+        File file = File.createTempFile("trsp", TRSPBinaryPersistenceHelper.EXTENSION);
+        file.deleteOnExit();
+
+        mHelper.writeInstance(mInstance, file);
+        TRSPInstance read = mHelper.readInstance(file);
+
+        assertEquals(mInstance.getName(), read.getName());
+        assertEquals(mInstance.getMaxId(), read.getMaxId());
+        assertEquals(mInstance.getSkillCount(), read.getSkillCount());
+        assertEquals(mInstance.getToolCount(), read.getToolCount());
+        assertEquals(mInstance.getSpareCount(), read.getSpareCount());
+        assertEquals(mInstance.getFleet().size(), read.getFleet().size());
+        assertEquals(mInstance.getRequestCount(), read.getRequestCount());
+
+        for (Technician t : mInstance.getFleet()) {
+            Technician r = read.getTechnician(t.getID());
+            assertEquals(t.getHome().getID(), r.getHome().getID());
+            assertEquals(t.getSkillSet(), r.getSkillSet());
+            assertEquals(t.getToolSet(), r.getToolSet());
+            assertArrayEquals(t.getSpareParts(), r.getSpareParts());
+        }
+        for (TRSPRequest q : mInstance.getRequests()) {
+            TRSPRequest r = read.getRequest(q.getID());
+            assertEquals(q.getTimeWindow().startAsDouble(), r.getTimeWindow().startAsDouble(), 0);
+            assertEquals(q.getTimeWindow().endAsDouble(), r.getTimeWindow().endAsDouble(), 0);
+            assertEquals(q.getServiceTime(), r.getServiceTime(), 0);
+            assertEquals(q.getSkillSet(), r.getSkillSet());
+            assertArrayEquals(q.getSparePartRequirements(), r.getSparePartRequirements());
+        }
+        for (int i = 0; i < mInstance.getMaxId(); i++)
+            for (int j = 0; j < mInstance.getMaxId(); j++)
+                assertEquals(mInstance.getCostDelegate().getDistance(i, j), read.getCostDelegate()
+                        .getDistance(i, j), 1e-9);
+    }
+
+    private static File newFile() throws IOException {
+        File file = File.createTempFile("trsp", TRSPBinaryPersistenceHelper.EXTENSION);
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    public void testReadWriteSolution() throws Exception {
+        Random rnd = new Random(0);
+        TRSPSolution solution = new TRSPSolution(mInstance, new TRSPDistance());
+        for (TRSPTour tour : solution)
+            tour.initialize();
+        for (TRSPRequest r : mInstance.getRequests()) {
+            // Leave some requests unserved
+            if (rnd.nextInt(4) == 0)
+                continue;
+            TRSPTour tour = solution.getTour(rnd.nextInt(solution.getTourCount()));
+            if (mInstance.isCompatible(tour.getTechnicianId(), r.getID())) {
+                tour.insertBefore(tour.getLastNode(), r.getID());
+                solution.markAsServed(r.getID());
+            }
+        }
+
+        File file = newFile();
+        mHelper.writeSnapshot(mInstance, solution, file);
+        TRSPInstance instance = mHelper.readInstance(file);
+        TRSPSolution read = mHelper.readSolution(instance, file, new TRSPDistance());
+
+        assertEquals(solution.getTourCount(), read.getTourCount());
+        for (TRSPTour tour : solution)
+            assertArrayEquals(tour.asArray(), read.getTour(tour.getTechnicianId()).asArray());
+        assertEquals(solution.getUnservedRequests(), read.getUnservedRequests());
+        assertEquals(solution.toShortString(), read.toShortString());
+
+        // A snapshot without solution
+        mHelper.writeInstance(mInstance, file);
+        assertNull(mHelper.readSolution(mHelper.readInstance(file), file, new TRSPDistance()));
+    }
+
+    @Test
+    public void testReadWriteMatrix() throws Exception {
+        int size = mInstance.getMaxId();
+        double[][][] distTime = new double[2][size][size];
+        for (int i = 0; i < size; i++)
+            for (int j = 0; j < size; j++) {
+                distTime[0][i][j] = mInstance.getCostDelegate().getDistance(i, j);
+                // Times that cannot be derived from the distances
+                distTime[1][i][j] = 2 * distTime[0][i][j] + (i * 31 + j) % 7;
+            }
+        mInstance.setCostDelegate(new TRSPDistTimeMatrix(mInstance, distTime));
+
+        File file = newFile();
+        mHelper.writeInstance(mInstance, file);
+        TRSPInstance read = mHelper.readInstance(file);
+
+        assertTrue(read.getCostDelegate() instanceof TRSPDistTimeMatrix);
+        for (int i = 0; i < size; i++)
+            for (int j = 0; j < size; j++) {
+                assertEquals(distTime[0][i][j], read.getCostDelegate().getDistance(i, j), 0);
+                assertEquals(distTime[1][i][j], read.getCostDelegate().getTravelTime(i, j, null), 0);
+            }
+
+        // Matrices are not written when disabled
+        mHelper.setWriteMatrix(false);
+        mHelper.writeInstance(mInstance, file);
+        assertEquals(false, mHelper.readInstance(file).getCostDelegate() instanceof TRSPDistTimeMatrix);
+    }
+
+    @Test
+    public void testInvalidDepotId() throws Exception {
+        File file = newFile();
+        mHelper.writeInstance(mInstance, file);
+
+        // Overwrite the id of the first depot: header, name, info, depot count
+        int offset = 16 + 4 + mInstance.getName().getBytes(StandardCharsets.UTF_8).length + 21 + 4;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(offset);
+            raf.writeInt(Integer.reverseBytes(mInstance.getDepotCount()));
+        }
+        try {
+            mHelper.readInstance(file);
+            fail("Invalid depot id should be rejected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("depot id"));
+        }
+    }
+}
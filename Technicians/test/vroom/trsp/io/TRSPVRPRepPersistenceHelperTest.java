@@ -0,0 +1,203 @@
+package vroom.trsp.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import vroom.common.modeling.vrprep.Demand;
+import vroom.common.modeling.vrprep.Instance;
+import vroom.common.modeling.vrprep.Instance.Fleet.Vehicle;
+import vroom.common.modeling.vrprep.Instance.Network.Links.Link;
+import vroom.common.modeling.vrprep.Instance.Network.Nodes.Node;
+import vroom.common.modeling.vrprep.Instance.Requests.Request;
+import vroom.common.modeling.vrprep.Skill;
+import vroom.common.modeling.vrprep.Tool;
+import vroom.common.modeling.vrprep.VRPRepJAXBUtilities;
+import vroom.common.modeling.vrprep.VRPRepStreamReader;
+import vroom.trsp.datamodel.TRSPDistTimeMatrix;
+import vroom.trsp.datamodel.TRSPInstance;
+import vroom.trsp.datamodel.TRSPRequest;
+import vroom.trsp.datamodel.Technician;
+
+/**
+ * <code>TRSPVRPRepPersistenceHelperTest</code> checks that the streaming reader ({@link VRPRepStreamReader} and
+ * {@link TRSPVRPRepPersistenceHelper#readInstance(File, Object...)}) reads the same data as the JAXB (DOM) reader
+ * {@link VRPRepJAXBUtilities#readInstance(File)}
+ * <p>
+ * Creation date: Oct 19, 2026 - 5:21:47 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class TRSPVRPRepPersistenceHelperTest {
+
+    private final static File           INSTANCE = new File(
+                                                         "../Instances/trsp/pillac/crew25/C101.100_25-5-5-5.txt");
+
+    private TRSPVRPRepPersistenceHelper mHelper;
+    private TRSPInstance                mInstance;
+
+    @Before
+    public void setUp() throws Exception {
+        mHelper = new TRSPVRPRepPersistenceHelper();
+        mHelper.setCompress(false);
+        mInstance = new PillacSimplePersistenceHelper().readInstance(INSTANCE, false);
+    }
+
+    private File writeInstance() throws Exception {
+        File file = File.createTempFile("trsp", ".xml");
+        file.deleteOnExit();
+        mHelper.writeInstance(mInstance, file);
+        return file;
+    }
+
+    private static double parse(String value) {
+        value = value.trim();
+        return value.equals("INF") ? Double.POSITIVE_INFINITY : Double.parseDouble(value);
+    }
+
+    private static int[] skills(List<Skill> skills) {
+        int[] ids = new int[skills.size()];
+        for (int i = 0; i < ids.length; i++)
+            ids[i] = skills.get(i).getId().intValue();
+        return ids;
+    }
+
+    private static int[] tools(List<Tool> tools) {
+        int[] ids = new int[tools.size()];
+        for (int i = 0; i < ids.length; i++)
+            ids[i] = tools.get(i).getId().intValue();
+        return ids;
+    }
+
+    /**
+     * Compares the content read by the stream reader with the JAXB model of the same file
+     */
+    private static void compare(Instance dom, VRPRepStreamReader stream) {
+        assertEquals(dom.getInfo().getName(), stream.getName());
+
+        List<Node> nodes = dom.getNetwork().getNodes().getNode();
+        assertEquals(nodes.size(), stream.getNodes().size());
+        for (int i = 0; i < nodes.size(); i++) {
+            Node n = nodes.get(i);
+            VRPRepStreamReader.Node s = stream.getNodes().get(i);
+            assertEquals(n.getId().intValue(), s.getId());
+            assertEquals(n.getType().intValue(), s.getType());
+            assertEquals(n.getLocation().getEuclidean().getCx(), s.getX(), 0);
+            assertEquals(n.getLocation().getEuclidean().getCy(), s.getY(), 0);
+        }
+
+        List<Vehicle> vehicles = dom.getFleet().getVehicle();
+        assertEquals(vehicles.size(), stream.getVehicles().size());
+        for (int i = 0; i < vehicles.size(); i++) {
+            Vehicle v = vehicles.get(i);
+            VRPRepStreamReader.Vehicle s = stream.getVehicles().get(i);
+            assertEquals(v.getType().intValue(), s.getType());
+            assertEquals(v.getDepartureNode().intValue(), s.getDepartureNode());
+            assertEquals(v.getArrivalNode().intValue(), s.getArrivalNode());
+            if (!v.getFixedCost().isEmpty())
+                assertEquals(v.getFixedCost().get(0), s.getFixedCost(), 0);
+            if (!v.getVariableCost().isEmpty())
+                assertEquals(v.getVariableCost().get(0), s.getVariableCost(), 0);
+            assertArrayEquals(skills(v.getSkill()), s.getSkills());
+            assertArrayEquals(tools(v.getTool()), s.getTools());
+        }
+
+        List<Request> requests = dom.getRequests().getRequest();
+        assertEquals(requests.size(), stream.getRequests().size());
+        for (int i = 0; i < requests.size(); i++) {
+            Request r = requests.get(i);
+            VRPRepStreamReader.Request s = stream.getRequests().get(i);
+            assertEquals(r.getId().intValue(), s.getId());
+            assertEquals(r.getNode().intValue(), s.getNode());
+            assertEquals(r.getDemand().size(), s.getDemands().length);
+            for (Demand d : r.getDemand())
+                assertEquals(parse((String) d.getContent().get(0)), s.getDemands()[d.getType().intValue()], 0);
+            assertTrue(s.hasTimeWindow());
+            assertEquals(parse(r.getTw().get(0).getStart().getContent()), s.getTWStart(), 0);
+            assertEquals(parse(r.getTw().get(0).getEnd().getContent()), s.getTWEnd(), 0);
+            assertEquals(parse((String) r.getServiceTime().getContent().get(0)), s.getServiceTime(), 0);
+            assertArrayEquals(skills(r.getSkill()), s.getSkills());
+            assertArrayEquals(tools(r.getTool()), s.getTools());
+        }
+    }
+
+    /**
+     * Compares the instance read from a VRPRep file with the one that was written
+     */
+    private void compare(TRSPInstance read) {
+        assertEquals(mInstance.getName(), read.getName());
+        assertEquals(mInstance.getMaxId(), read.getMaxId());
+        assertEquals(mInstance.getDepotCount(), read.getDepotCount());
+        assertEquals(mInstance.getRequestCount(), read.getRequestCount());
+        assertEquals(mInstance.getFleet().size(), read.getFleet().size());
+
+        for (Technician t : mInstance.getFleet()) {
+            Technician r = read.getTechnician(t.getID());
+            assertEquals(t.getHome().getID(), r.getHome().getID());
+            assertEquals(t.getSkillSet(), r.getSkillSet());
+            assertEquals(t.getToolSet(), r.getToolSet());
+        }
+        for (TRSPRequest q : mInstance.getRequests()) {
+            TRSPRequest r = read.getRequest(q.getID());
+            assertEquals(q.getNode().getLocation().getX(), r.getNode().getLocation().getX(), 0);
+            assertEquals(q.getNode().getLocation().getY(), r.getNode().getLocation().getY(), 0);
+            assertEquals(q.getTimeWindow().startAsDouble(), r.getTimeWindow().startAsDouble(), 0);
+            assertEquals(q.getTimeWindow().endAsDouble(), r.getTimeWindow().endAsDouble(), 0);
+            assertEquals(q.getServiceTime(), r.getServiceTime(), 0);
+            assertEquals(q.getSkillSet(), r.getSkillSet());
+            assertEquals(q.getToolSet(), r.getToolSet());
+            assertArrayEquals(q.getSparePartRequirements(), r.getSparePartRequirements());
+        }
+        for (int i = 0; i < mInstance.getMaxId(); i++)
+            for (int j = 0; j < mInstance.getMaxId(); j++)
+                assertEquals(mInstance.getCostDelegate().getDistance(i, j), read.getCostDelegate().getDistance(i,
+                        j), 1e-9);
+    }
+
+    @Test
+    public void testReadInstance() throws Exception {
+        File file = writeInstance();
+        compare(VRPRepJAXBUtilities.readInstance(file), VRPRepStreamReader.read(file));
+        compare(mHelper.readInstance(file, false));
+    }
+
+    @Test
+    public void testReadInstanceLinks() throws Exception {
+        // Explicit distance and time matrices
+        int size = mInstance.getMaxId();
+        double[][][] distTime = new double[2][size][size];
+        for (int i = 0; i < size; i++)
+            for (int j = 0; j < size; j++) {
+                distTime[0][i][j] = mInstance.getCostDelegate().getDistance(i, j);
+                distTime[1][i][j] = 2 * distTime[0][i][j];
+            }
+        mInstance.setCostDelegate(new TRSPDistTimeMatrix(mInstance, distTime));
+
+        File file = writeInstance();
+        Instance dom = VRPRepJAXBUtilities.readInstance(file);
+        VRPRepStreamReader stream = VRPRepStreamReader.read(file);
+        compare(dom, stream);
+
+        assertTrue(stream.hasLinks());
+        double[][][] matrices = stream.getLinkMatrices(size);
+        for (Link l : dom.getNetwork().getLinks().getLink()) {
+            int tail = l.getTail().intValue(), head = l.getHead().intValue();
+            assertEquals(l.getLength(), matrices[0][tail][head], 0);
+            assertEquals(l.getLength(), matrices[0][head][tail], 0);
+            assertEquals(parse((String) l.getTime().getContent().get(0)), matrices[1][tail][head], 0);
+        }
+
+        TRSPInstance read = mHelper.readInstance(file, false);
+        assertTrue(read.getCostDelegate() instanceof TRSPDistTimeMatrix);
+        compare(read);
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * 
+ */
+package vroom.trsp.optimization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import vroom.trsp.datamodel.TRSPInstance;
+import vroom.trsp.datamodel.TRSPRequest;
+import vroom.trsp.datamodel.TRSPSolution;
+import vroom.trsp.datamodel.TRSPTour;
+import vroom.trsp.datamodel.TRSPTour.TRSPTourIterator;
+import vroom.trsp.datamodel.costDelegates.TRSPCostDelegate;
+import vroom.trsp.datamodel.costDelegates.TRSPDistance;
+import vroom.trsp.datamodel.costDelegates.TRSPWorkingTime;
+import vroom.trsp.io.PillacSimplePersistenceHelper;
+import vroom.trsp.optimization.constraints.TourConstraintHandler;
+
+/**
+ * <code>InsertionMoveTest</code> is a test case for {@link InsertionMove#findInsertion(int, TRSPTour,
+ * vroom.trsp.datamodel.costDelegates.TRSPCostDelegate, TourConstraintHandler, boolean, boolean)} that checks that
+ * skipping the positions that are not in the time window graph does not change the best insertion.
+ * <p>
+ * Creation date: Oct 19, 2026 - 11:02:17 AM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class InsertionMoveTest {
+
+    private static TRSPInstance          sInstance;
+    private static TourConstraintHandler sCtr;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        sInstance = new PillacSimplePersistenceHelper().readInstance(new File(
+                "../Instances/trsp/pillac/crew25/C101.100_25-5-5-5.txt"), false);
+        sCtr = TourConstraintHandler.newConstraintHandler(sInstance);
+    }
+
+    /**
+     * Returns the cost of the best feasible insertion of <code>node</code> without visit to the main depot, evaluating
+     * every position of the tour
+     */
+    private static double bestInsertionCost(TRSPTour tour, int node, TourConstraintHandler ctr) {
+        double best = Double.POSITIVE_INFINITY;
+        TRSPTourIterator it = tour.iterator();
+        int pred = it.nextInt();
+        while (it.hasNext()) {
+            int succ = it.nextInt();
+            InsertionMove move = new InsertionMove(node, tour, 0, pred, succ);
+            double cost = -tour.getCostDelegate().evaluateMove(move);
+            if (cost < best && ctr.isFeasible(tour, move))
+                best = cost;
+            pred = succ;
+        }
+        return best;
+    }
+
+    @Test
+    public void testFindInsertion() {
+        checkFindInsertion(sInstance, new TRSPWorkingTime(), sCtr);
+    }
+
+    /**
+     * With fixed-point distances, insertions are compared in fixed point and the selected cost is the exact sum of the
+     * rounded distances
+     */
+    @Test
+    public void testFindInsertionFixedPoint() throws Exception {
+        TRSPInstance instance = new PillacSimplePersistenceHelper().readInstance(new File(
+                "../Instances/trsp/pillac/crew25/C101.100_25-5-5-5.txt"), false);
+        instance.getCostDelegate().setPrecision(2, RoundingMode.HALF_EVEN);
+        instance.getCostDelegate().setFixedPoint(true);
+        checkFindInsertion(instance, new TRSPDistance(), TourConstraintHandler.newConstraintHandler(instance));
+    }
+
+    /**
+     * Compares the best insertion found by
+     * {@link InsertionMove#findInsertion(int, TRSPTour, TRSPCostDelegate, TourConstraintHandler, boolean, boolean)}
+     * with an exhaustive evaluation of all positions
+     */
+    private static void checkFindInsertion(TRSPInstance instance, TRSPCostDelegate costDelegate,
+            TourConstraintHandler ctr) {
+        Random rnd = new Random(0);
+        int compared = 0;
+        for (int rep = 0; rep < 20; rep++) {
+            TRSPSolution solution = new TRSPSolution(instance, costDelegate);
+            int tech = rnd.nextInt(instance.getFleet().size());
+            TRSPTour tour = solution.getTour(tech);
+            tour.initialize();
+
+            List<Integer> requests = new ArrayList<Integer>();
+            for (TRSPRequest r : instance.getRequests())
+                if (instance.isCompatible(tech, r.getID()))
+                    requests.add(r.getID());
+            Collections.shuffle(requests, rnd);
+
+            for (int r : requests) {
+                boolean direct = tour.length() > 1
+                        && (tour.isMainDepotVisited() || instance.hasRequiredTools(tech, r) || instance
+                                .hasRequiredSpareParts(tech, r));
+                double expected = direct ? bestInsertionCost(tour, r, ctr) : Double.POSITIVE_INFINITY;
+
+                solution.markAsServed(r);
+                InsertionMove move = InsertionMove.findInsertion(r, tour, tour.getCostDelegate(), ctr, false,
+                        true);
+                if (expected < Double.POSITIVE_INFINITY) {
+                    assertNotNull(move);
+                    assertTrue("Insertion of " + r + " in " + tour, move.isFeasible());
+                    assertEquals("Insertion of " + r + " in " + tour, expected, move.getCost(), 1e-6);
+                    compared++;
+                }
+                if (move == null || !move.isFeasible() || !InsertionMove.executeMove(move))
+                    solution.markAsUnserved(r);
+            }
+        }
+        assertTrue("No insertion was compared", compared > 0);
+    }
+}
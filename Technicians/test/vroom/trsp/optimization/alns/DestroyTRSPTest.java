@@ -0,0 +1,71 @@
+package vroom.trsp.optimization.alns;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import vroom.common.utilities.optimization.IParameters;
+import vroom.common.utilities.optimization.IParameters.LSStrategy;
+import vroom.common.utilities.optimization.SimpleParameters;
+import vroom.trsp.ALNSSCSolver;
+import vroom.trsp.datamodel.TRSPSolution;
+import vroom.trsp.optimization.TRSPUtilities;
+import vroom.trsp.util.TRSPGlobalParameters;
+
+/**
+ * <code>DestroyTRSPTest</code> is a test case for the {@link TRSPDestroyResult} returned by {@link DestroyTRSP}
+ * <p>
+ * Creation date: Oct 19, 2026 - 2:14:37 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class DestroyTRSPTest {
+
+    private static final String CONFIG_FILE   = "./config/bench/bench_base_1threads_x10.cfg";
+    private static final String INSTANCE_FILE = "../Instances/trsp/pillac/crew25/C101.100_25-5-5-5.txt";
+
+    private TRSPSolution        mSolution;
+
+    @Before
+    public void setUp() throws Exception {
+        TRSPGlobalParameters params = new TRSPGlobalParameters();
+        params.loadParameters(new File(CONFIG_FILE));
+        ALNSSCSolver solver = new ALNSSCSolver(TRSPUtilities.getPersistenceHelper(INSTANCE_FILE).readInstance(
+                new File(INSTANCE_FILE), false), params);
+        solver.initialization();
+        mSolution = solver.getInitSol();
+    }
+
+    @Test
+    public void testResultOwnership() {
+        IParameters params = new SimpleParameters(LSStrategy.DET_BEST_IMPROVEMENT, Long.MAX_VALUE,
+                Integer.MAX_VALUE, 1);
+        DestroyTRSP[] destroys = new DestroyTRSP[] { new DestroyRandom(), new DestroyCritical(3),
+                new DestroyTimeRelated(3) };
+        for (DestroyTRSP destroy : destroys) {
+            destroy.initialize(mSolution.getInstance());
+            TRSPSolution first = mSolution.clone();
+            TRSPDestroyResult r1 = (TRSPDestroyResult) destroy.destroy(first, params, 0.2);
+            int[] removed = r1.getRemovedRequests();
+            assertTrue(destroy.getName(), removed.length > 0);
+            for (int r : removed)
+                assertTrue(destroy.getName(), first.getUnservedRequests().contains(r));
+
+            // A second destroy on the same thread reuses the scratch buffers but must not alter the first result
+            TRSPDestroyResult r2 = (TRSPDestroyResult) destroy.destroy(mSolution.clone(), params, 0.2);
+            assertArrayEquals(destroy.getName(), removed, r1.getRemovedRequests());
+            assertEquals(removed.length, r1.getRemovedCount());
+            assertFalse(destroy.getName(), Arrays.equals(removed, r2.getRemovedRequests()));
+        }
+    }
+}
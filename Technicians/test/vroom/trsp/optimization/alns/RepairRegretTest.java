@@ -0,0 +1,118 @@
+package vroom.trsp.optimization.alns;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import vroom.common.utilities.optimization.IParameters;
+import vroom.common.utilities.optimization.IParameters.LSStrategy;
+import vroom.common.utilities.optimization.SimpleParameters;
+import vroom.trsp.ALNSSCSolver;
+import vroom.trsp.datamodel.TRSPInstance;
+import vroom.trsp.datamodel.TRSPSolution;
+import vroom.trsp.optimization.TRSPUtilities;
+import vroom.trsp.optimization.constraints.TourConstraintHandler;
+import vroom.trsp.util.TRSPGlobalParameters;
+
+/**
+ * <code>RepairRegretTest</code> is a test case for the parallel evaluation of insertions in {@link RepairRegret}
+ * <p>
+ * Creation date: Oct 19, 2026 - 4:02:45 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class RepairRegretTest {
+
+    private static final String          CONFIG_FILE   = "./config/bench/bench_base_1threads_x10.cfg";
+    private static final String          INSTANCE_FILE = "../Instances/trsp/pillac/crew25/C101.100_25-5-5-5.txt";
+    private static final int             THREADS       = 4;
+
+    private static TRSPInstance          sInstance;
+    private static TRSPSolution          sSolution;
+    private static TourConstraintHandler sCtr;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        sInstance = TRSPUtilities.getPersistenceHelper(INSTANCE_FILE).readInstance(new File(INSTANCE_FILE), false);
+        ALNSSCSolver solver = new ALNSSCSolver(sInstance, newParams(false));
+        solver.initialization();
+        sSolution = solver.getInitSol();
+        sCtr = solver.getTourCtrHandler();
+    }
+
+    private static TRSPGlobalParameters newParams(boolean parallel) throws Exception {
+        TRSPGlobalParameters params = new TRSPGlobalParameters();
+        params.loadParameters(new File(CONFIG_FILE));
+        params.set(TRSPGlobalParameters.ALNS_REP_PARALLEL, parallel);
+        params.set(TRSPGlobalParameters.THREAD_COUNT, THREADS);
+        return params;
+    }
+
+    private static RepairRegret newRepair(boolean parallel, int level) throws Exception {
+        RepairRegret repair = new RepairRegret(newParams(parallel), sCtr, level, false);
+        repair.initialize(sInstance);
+        return repair;
+    }
+
+    @Test
+    public void testParallelEvaluation() throws Exception {
+        for (int level = 1; level <= 3; level++) {
+            RepairRegret sequential = newRepair(false, level);
+            RepairRegret parallel = newRepair(true, level);
+            assertNull(sequential.getPool());
+            assertNotNull(parallel.getPool());
+
+            for (int seed = 1; seed <= 5; seed++) {
+                IParameters params = new SimpleParameters(LSStrategy.DET_BEST_IMPROVEMENT, Long.MAX_VALUE,
+                        Integer.MAX_VALUE, seed);
+                TRSPSolution destroyed = sSolution.clone();
+                new DestroyRandom().destroy(destroyed, params, 0.5);
+
+                TRSPSolution expected = destroyed.clone();
+                sequential.repair(expected, null, params);
+                TRSPSolution actual = destroyed.clone();
+                parallel.repair(actual, null, params);
+
+                String msg = String.format("regret-%s seed %s", level, seed);
+                assertEquals(msg, expected.toShortString(), actual.toShortString());
+                assertEquals(msg, expected.getObjectiveValue(), actual.getObjectiveValue(), 0);
+            }
+            sequential.dispose();
+            parallel.dispose();
+        }
+    }
+
+    @Test
+    public void testPoolLifecycle() throws Exception {
+        RepairRegret r1 = newRepair(true, 2);
+        RepairRegret r2 = newRepair(true, 3);
+        ForkJoinPool pool = r1.getPool();
+        assertSame(pool, r2.getPool());
+        assertEquals(THREADS, pool.getParallelism());
+
+        r1.dispose();
+        assertNull(r1.getPool());
+        assertFalse(pool.isShutdown());
+
+        // The last user shuts the pool down
+        r2.dispose();
+        assertTrue(pool.isShutdown());
+
+        // A new pool is created for the next users
+        RepairRegret r3 = newRepair(true, 2);
+        assertFalse(r3.getPool().isShutdown());
+        r3.dispose();
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * 
+ */
+package vroom.trsp.optimization.biobj;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import vroom.common.utilities.optimization.OptimizationSense;
+import vroom.trsp.datamodel.TRSPInstance;
+import vroom.trsp.datamodel.TRSPSolution;
+import vroom.trsp.datamodel.TRSPTour;
+import vroom.trsp.datamodel.costDelegates.TRSPDistance;
+import vroom.trsp.datamodel.costDelegates.TRSPWorkingTime;
+import vroom.trsp.io.PillacSimplePersistenceHelper;
+import vroom.trsp.optimization.biobj.ParetoFront.ParetoSolution;
+
+/**
+ * <code>ParetoFrontTest</code> is a test case for {@link ParetoFront}
+ * <p>
+ * Creation date: Oct 19, 2026 - 7:02:15 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class ParetoFrontTest {
+
+    private static TRSPInstance       sInstance;
+    private static List<TRSPSolution> sSolutions;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        sInstance = new PillacSimplePersistenceHelper().readInstance(new File(
+                "../Instances/trsp/pillac/crew25/C101.100_25-5-5-5.txt"), false);
+
+        // Random solutions in which some requests are left unserved
+        Random rnd = new Random(0);
+        TRSPDistance cd = new TRSPDistance();
+        sSolutions = new ArrayList<TRSPSolution>();
+        for (int s = 0; s < 200; s++) {
+            TRSPSolution solution = new TRSPSolution(sInstance, cd);
+            for (TRSPTour tour : solution)
+                tour.initialize();
+            ArrayList<Integer> requests = new ArrayList<Integer>(solution.getUnservedRequests());
+            Collections.shuffle(requests, rnd);
+            for (int r : requests.subList(0, rnd.nextInt(requests.size()))) {
+                TRSPTour tour = solution.getTour(rnd.nextInt(solution.getTourCount()));
+                tour.insertBefore(tour.getNodeAt(rnd.nextInt(tour.length() - 1) + 1), r);
+                solution.markAsServed(r);
+            }
+            sSolutions.add(solution);
+        }
+    }
+
+    private static ParetoFront newFront() {
+        return new ParetoFront(new TRSPDistance(), OptimizationSense.MINIMIZATION,
+                new TRSPWorkingTime(), OptimizationSense.MINIMIZATION);
+    }
+
+    /**
+     * Test that solutions stored in the front are rehydrated identically
+     */
+    @Test
+    public void testCompactSolutions() {
+        ParetoFront front = newFront();
+        for (TRSPSolution s : sSolutions) {
+            ParetoSolution sol = front.wrapSolution(s);
+            if (front.add(sol)) {
+                TRSPSolution r = sol.rehydrate();
+                assertTrue(r != s);
+                assertEquals(s.toShortString(), r.toShortString());
+                assertEquals(s.getUnservedRequests(), r.getUnservedRequests());
+                assertEquals(s.getObjectiveValue(), r.getObjectiveValue(), 1e-9);
+                assertEquals(sol.getFirstObjValue(), front.wrapSolution(r).getFirstObjValue(), 1e-9);
+                assertEquals(sol.getSecondObjValue(), front.wrapSolution(r).getSecondObjValue(), 1e-9);
+            }
+        }
+    }
+
+    /**
+     * Test that concurrent insertions lead to the same front as sequential insertions
+     */
+    @Test
+    public void testConcurrentAdd() throws Exception {
+        ParetoFront expected = newFront();
+        for (TRSPSolution s : sSolutions)
+            expected.add(s, false);
+        assertTrue(expected.checkPareto());
+        for (ParetoSolution s : expected.getSolutionsFirstObj())
+            assertTrue(expected.isDominated(s.getFirstObjValue(), s.getSecondObjValue()));
+
+        final ParetoFront front = newFront();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (final TRSPSolution s : sSolutions) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    front.add(s, false);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertTrue(front.checkPareto());
+        assertEquals(expected.size(), front.size());
+        assertEquals(expected.toCSVString(), front.toCSVString());
+    }
+
+    /**
+     * Test that the sorted solutions are taken from a snapshot that is not affected by later additions
+     */
+    @Test
+    public void testSortedSnapshots() {
+        ParetoFront front = newFront();
+        int half = sSolutions.size() / 2;
+        for (TRSPSolution s : sSolutions.subList(0, half))
+            front.add(s, false);
+
+        List<ParetoSolution> first = front.getSolutionsFirstObj();
+        List<ParetoSolution> second = front.getSolutionsSecondObj();
+        assertEquals(front.size(), first.size());
+        assertEquals(front.size(), second.size());
+        assertEquals(front.getBestFirstObj(), first.get(first.size() - 1));
+        assertEquals(front.getBestSecondObj(), second.get(second.size() - 1));
+        for (int i = 0; i < first.size(); i++)
+            assertEquals(first.get(i), second.get(second.size() - 1 - i));
+        try {
+            first.clear();
+            fail("The returned list should not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+
+        ArrayList<ParetoSolution> firstCopy = new ArrayList<ParetoSolution>(first);
+        ArrayList<ParetoSolution> secondCopy = new ArrayList<ParetoSolution>(second);
+        boolean changed = false;
+        for (TRSPSolution s : sSolutions.subList(half, sSolutions.size()))
+            changed |= front.add(s, false);
+        assertTrue("The front was not modified", changed);
+        assertEquals(firstCopy, first);
+        assertEquals(secondCopy, second);
+    }
+}
@@ -0,0 +1,184 @@
+package vroom.trsp.optimization.localSearch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import vroom.common.utilities.optimization.IParameters;
+import vroom.common.utilities.optimization.IParameters.LSStrategy;
+import vroom.common.utilities.optimization.SimpleParameters;
+import vroom.trsp.ALNSSCSolver;
+import vroom.trsp.datamodel.TRSPInstance;
+import vroom.trsp.datamodel.TRSPSolution;
+import vroom.trsp.datamodel.TRSPTour;
+import vroom.trsp.datamodel.TRSPTour.TRSPTourIterator;
+import vroom.trsp.datamodel.costDelegates.TRSPDistance;
+import vroom.trsp.optimization.InsertionMove;
+import vroom.trsp.optimization.RemoveMove;
+import vroom.trsp.optimization.TRSPUtilities;
+import vroom.trsp.optimization.alns.DestroyRandom;
+import vroom.trsp.optimization.constraints.SolutionConstraintHandler;
+import vroom.trsp.optimization.constraints.TourConstraintHandler;
+import vroom.trsp.optimization.localSearch.TRSPRelocate.RelocateMove;
+import vroom.trsp.optimization.localSearch.TRSPTwoOpt.TRSPTwoOptMove;
+import vroom.trsp.util.TRSPGlobalParameters;
+
+/**
+ * <code>TWGraphPruningTest</code> is a test case for the time window graph queries of {@link TRSPInstance} and their
+ * use to prune the {@link TRSPRelocate} and {@link TRSPTwoOpt} neighborhoods
+ * <p>
+ * Creation date: Oct 19, 2026 - 3:08:52 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class TWGraphPruningTest {
+
+    private static final String             CONFIG_FILE   = "./config/bench/bench_base_1threads_x10.cfg";
+    private static final String             INSTANCE_FILE = "../Instances/trsp/pillac/crew25/C101.100_25-5-5-5.txt";
+
+    private static TRSPInstance              sInstance;
+    private static TourConstraintHandler     sTourCtr;
+    private static SolutionConstraintHandler sSolCtr;
+    /** Solutions on which the neighborhoods are explored */
+    private static List<TRSPSolution>        sSolutions;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        TRSPGlobalParameters params = new TRSPGlobalParameters();
+        params.loadParameters(new File(CONFIG_FILE));
+        // The working time does not support the evaluation of removals
+        params.set(TRSPGlobalParameters.INIT_COST_DELEGATE, TRSPDistance.class);
+        sInstance = TRSPUtilities.getPersistenceHelper(INSTANCE_FILE).readInstance(new File(INSTANCE_FILE), false);
+        ALNSSCSolver solver = new ALNSSCSolver(sInstance, params);
+        solver.initialization();
+        sTourCtr = solver.getTourCtrHandler();
+        sSolCtr = solver.getSolCtrHandler();
+        assertTrue(sTourCtr.isTWEnforced());
+
+        // The initial solution and partially destroyed copies of it
+        sSolutions = new ArrayList<TRSPSolution>();
+        sSolutions.add(solver.getInitSol());
+        for (int seed = 1; seed <= 5; seed++) {
+            TRSPSolution sol = solver.getInitSol().clone();
+            new DestroyRandom().destroy(sol,
+                    new SimpleParameters(LSStrategy.DET_BEST_IMPROVEMENT, Long.MAX_VALUE, Integer.MAX_VALUE, seed),
+                    0.3);
+            sSolutions.add(sol);
+        }
+    }
+
+    @Test
+    public void testTWGraphQueries() {
+        int[] buffer = new int[sInstance.getMaxId()];
+        for (int i = 0; i < sInstance.getMaxId(); i++) {
+            List<Integer> succ = new ArrayList<Integer>();
+            List<Integer> pred = new ArrayList<Integer>();
+            for (int j = 0; j < sInstance.getMaxId(); j++) {
+                if (sInstance.isArcTWFeasible(i, j))
+                    succ.add(j);
+                if (sInstance.isArcTWFeasible(j, i))
+                    pred.add(j);
+            }
+            assertEquals(succ, toList(sInstance.getTWSuccessors(i), sInstance.getTWSuccessors(i).length));
+            assertEquals(pred, toList(sInstance.getTWPredecessors(i), sInstance.getTWPredecessors(i).length));
+
+            for (int k = 0; k < sInstance.getFleet().size(); k++) {
+                List<Integer> comp = new ArrayList<Integer>();
+                for (int j : succ)
+                    if (sInstance.isCompatible(k, j))
+                        comp.add(j);
+                assertEquals(comp, toList(buffer, sInstance.getCompatibleTWSuccessors(k, i, buffer)));
+            }
+        }
+    }
+
+    private static List<Integer> toList(int[] array, int length) {
+        List<Integer> list = new ArrayList<Integer>(length);
+        for (int i = 0; i < length; i++)
+            list.add(array[i]);
+        return list;
+    }
+
+    /**
+     * Exhaustive exploration of the relocate neighborhood, evaluating the insertion of each request in each tour
+     */
+    private static RelocateMove exhaustiveRelocate(TRSPSolution solution) {
+        RelocateMove bestMve = null;
+        for (TRSPTour src : solution) {
+            for (Integer r : src) {
+                if (solution.getInstance().isDepot(r))
+                    continue;
+                RemoveMove rem = new RemoveMove(r, src);
+                src.getCostDelegate().evaluateMove(rem);
+                for (TRSPTour dest : solution) {
+                    if (dest == src)
+                        continue;
+                    InsertionMove ins = InsertionMove.findInsertion(r, dest, dest.getCostDelegate(), sTourCtr, true,
+                            true);
+                    RelocateMove mve = new RelocateMove(rem, ins);
+                    if (mve.isImproving() && sSolCtr.isFeasible(solution, mve)
+                            && (bestMve == null || mve.compareTo(bestMve) > 0))
+                        bestMve = mve;
+                }
+            }
+        }
+        return bestMve;
+    }
+
+    @Test
+    public void testRelocate() {
+        TRSPRelocate relocate = new TRSPRelocate(sSolCtr, sTourCtr);
+        IParameters params = new SimpleParameters(LSStrategy.DET_BEST_IMPROVEMENT, Long.MAX_VALUE,
+                Integer.MAX_VALUE, 0);
+        for (TRSPSolution sol : sSolutions) {
+            RelocateMove expected = exhaustiveRelocate(sol);
+            RelocateMove actual = relocate.exploreNeighborhood(sol, params);
+            assertEquals(String.valueOf(expected), String.valueOf(actual));
+        }
+    }
+
+    @Test
+    public void testTwoOpt() {
+        int pruned = 0;
+        for (TRSPSolution sol : sSolutions) {
+            for (TRSPTour tour : sol) {
+                if (tour.length() < 4)
+                    continue;
+                TRSPTourIterator firstIt = tour.iterator();
+                while (firstIt.hasNext()) {
+                    int i = firstIt.nextInt();
+                    int j = tour.getSucc(i);
+                    TRSPTourIterator secondIt = tour.iterator(i);
+                    secondIt.nextInt();
+                    boolean reversedInfeasible = false;
+                    int prev = -1;
+                    while (secondIt.hasNext()) {
+                        int m = secondIt.nextInt();
+                        if (!secondIt.hasNext())
+                            break;
+                        reversedInfeasible |= prev >= 0 && !sInstance.isArcTWFeasible(m, prev);
+                        prev = m;
+                        // Every move pruned by TRSPTwoOpt must be infeasible
+                        if (reversedInfeasible || !sInstance.isArcTWFeasible(i, m)
+                                || !sInstance.isArcTWFeasible(j, tour.getSucc(m))) {
+                            assertFalse(String.format("2opt(%s,%s) in %s", i, m, tour),
+                                    sTourCtr.isFeasible(tour, new TRSPTwoOptMove(tour, i, m)));
+                            pruned++;
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue("No move was pruned", pruned > 0);
+    }
+}
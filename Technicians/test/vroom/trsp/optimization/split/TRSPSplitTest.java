@@ -0,0 +1,191 @@
+/**
+ * 
+ */
+package vroom.trsp.optimization.split;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import vroom.trsp.datamodel.ITRSPTour;
+import vroom.trsp.datamodel.TRSPInstance;
+import vroom.trsp.datamodel.TRSPRequest;
+import vroom.trsp.datamodel.TRSPSimpleTour;
+import vroom.trsp.datamodel.costDelegates.TRSPCostDelegate;
+import vroom.trsp.datamodel.costDelegates.TRSPDistance;
+import vroom.trsp.datamodel.costDelegates.TRSPWorkingTime;
+import vroom.trsp.optimization.TRSPUtilities;
+import vroom.trsp.optimization.constraints.TourConstraintHandler;
+import vroom.trsp.util.TRSPGlobalParameters;
+
+/**
+ * <code>TRSPSplitTest</code> is a test case for {@link TRSPSplit} that compares the cost of the split of random giant
+ * tours with the one obtained with the quadratic labelling procedure that relies on the {@link SplitTourArcBuilder}
+ * for every arc.
+ * <p>
+ * Creation date: Oct 19, 2026 - 10:12:41 AM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class TRSPSplitTest {
+
+    private static final int    GIANT_TOURS = 200;
+
+    private static final String TRSP_FILE   = "../Instances/trsp/pillac/crew25/C101.100_25-5-5-5.txt";
+    private static final String CVRPTW_FILE = "../Instances/cvrptw/solomon/R101.txt";
+    private static final String CVRP_FILE   = "../Instances/cvrp/augerat/A-n32-k5.vrp";
+
+    private static TRSPInstance readInstance(String file, boolean cvrptw) throws Exception {
+        return TRSPUtilities.getPersistenceHelper(file).readInstance(new File(file), cvrptw);
+    }
+
+    private static TRSPGlobalParameters newParameters(boolean cvrptw) {
+        TRSPGlobalParameters params = new TRSPGlobalParameters();
+        params.set(TRSPGlobalParameters.RUN_CVRPTW, cvrptw);
+        return params;
+    }
+
+    private static SplitTourArcBuilder newBuilder(TRSPInstance instance, TRSPCostDelegate cd,
+            TRSPGlobalParameters params) {
+        return new SplitTourArcBuilder(TourConstraintHandler.newConstraintHandler(instance), cd, params);
+    }
+
+    /**
+     * Quadratic split in which every arc is built and checked with the {@link SplitTourArcBuilder}
+     * 
+     * @param builder
+     * @param giantTour
+     * @return the cost of the optimal split, or {@link Double#POSITIVE_INFINITY} if the giant tour cannot be split
+     */
+    private static double referenceSplit(SplitTourArcBuilder builder, ITRSPTour giantTour) {
+        double[] labels = new double[giantTour.length()];
+        Arrays.fill(labels, Double.POSITIVE_INFINITY);
+        labels[0] = 0;
+        for (int i = 0; i < giantTour.length(); i++) {
+            if (labels[i] == Double.POSITIVE_INFINITY)
+                return Double.POSITIVE_INFINITY;
+            boolean feasible = true;
+            for (int j = i + 1; j < giantTour.length() && feasible; j++) {
+                if (builder.buildArc(giantTour, i + 1, j) == null)
+                    break;
+                double cand = labels[i] + builder.evaluateArc();
+                if (cand < labels[j]) {
+                    feasible = builder.isFeasible();
+                    if (feasible)
+                        labels[j] = cand;
+                }
+            }
+        }
+        return labels[giantTour.length() - 1];
+    }
+
+    /**
+     * Generates a random giant tour starting at the home of technician <code>tech</code> and visiting the
+     * <code>requests</code>
+     */
+    private static TRSPSimpleTour newGiantTour(TRSPInstance instance, int tech, List<Integer> requests, Random rnd) {
+        ArrayList<Integer> nodes = new ArrayList<Integer>(requests.size() + 1);
+        nodes.add(instance.getTechnician(tech).getHome().getID());
+        Collections.shuffle(requests, rnd);
+        nodes.addAll(requests);
+        return new TRSPSimpleTour(tech, instance, nodes);
+    }
+
+    /**
+     * Returns the requests that technician <code>tech</code> can serve
+     */
+    private static List<Integer> compatibleRequests(TRSPInstance instance, int tech) {
+        ArrayList<Integer> requests = new ArrayList<Integer>();
+        for (TRSPRequest r : instance.getRequests())
+            if (instance.isCompatible(tech, r.getID()))
+                requests.add(r.getID());
+        return requests;
+    }
+
+    private static void assertEquivalent(TRSPInstance instance, TRSPCostDelegate cd, boolean cvrptw, long seed) {
+        TRSPGlobalParameters params = newParameters(cvrptw);
+        TRSPSplit split = new TRSPSplit(newBuilder(instance, cd, params));
+        SplitTourArcBuilder reference = newBuilder(instance, cd, params);
+        List<Integer> requests = compatibleRequests(instance, 0);
+        Random rnd = new Random(seed);
+
+        for (int k = 0; k < GIANT_TOURS; k++) {
+            TRSPSimpleTour giantTour = newGiantTour(instance, 0, requests, rnd);
+            double expected = referenceSplit(reference, giantTour);
+            Collection<ITRSPTour> tours = split.splitTour(giantTour);
+
+            if (expected == Double.POSITIVE_INFINITY) {
+                assertTrue("Giant tour " + giantTour + " should not be splittable", tours.isEmpty());
+                continue;
+            }
+            assertFalse("Giant tour " + giantTour + " should be splittable", tours.isEmpty());
+            double cost = 0;
+            for (ITRSPTour t : tours)
+                cost += t.getTotalCost();
+            assertEquals("Cost of the split of " + giantTour, expected, cost, 1e-6);
+            assertTrue("Split of " + giantTour, TRSPSplit.checkSplit(giantTour, new ArrayList<ITRSPTour>(tours)));
+        }
+    }
+
+    @Test
+    public void testWindowSplit() throws Exception {
+        assertEquivalent(readInstance(TRSP_FILE, false), new TRSPWorkingTime(), false, 0);
+    }
+
+    @Test
+    public void testWindowSplitCVRPTW() throws Exception {
+        assertEquivalent(readInstance(CVRPTW_FILE, true), new TRSPDistance(), true, 1);
+    }
+
+    @Test
+    public void testLinearSplit() throws Exception {
+        assertEquivalent(readInstance(CVRP_FILE, true), new TRSPDistance(), true, 2);
+    }
+
+    /**
+     * The working time of a tour is not defined when the technician horizon is open, no split should be returned
+     */
+    @Test
+    public void testOpenHorizonWorkingTime() throws Exception {
+        assertEquivalent(readInstance(CVRP_FILE, true), new TRSPWorkingTime(), true, 3);
+    }
+
+    @Test
+    public void testSkillInfeasible() throws Exception {
+        TRSPInstance instance = readInstance(TRSP_FILE, false);
+        TRSPGlobalParameters params = newParameters(false);
+        TRSPSplit split = new TRSPSplit(newBuilder(instance, new TRSPWorkingTime(), params));
+        SplitTourArcBuilder reference = newBuilder(instance, new TRSPWorkingTime(), params);
+
+        int incompatible = -1;
+        for (TRSPRequest r : instance.getRequests())
+            if (!instance.hasRequiredSkills(0, r.getID())) {
+                incompatible = r.getID();
+                break;
+            }
+        assertTrue("No request is incompatible with technician 0", incompatible >= 0);
+
+        List<Integer> requests = compatibleRequests(instance, 0);
+        requests.add(incompatible);
+        Random rnd = new Random(4);
+        for (int k = 0; k < GIANT_TOURS; k++) {
+            TRSPSimpleTour giantTour = newGiantTour(instance, 0, requests, rnd);
+            assertEquals(Double.POSITIVE_INFINITY, referenceSplit(reference, giantTour), 0);
+            assertTrue("Giant tour " + giantTour + " should not be splittable", split.splitTour(giantTour)
+                    .isEmpty());
+        }
+    }
+}
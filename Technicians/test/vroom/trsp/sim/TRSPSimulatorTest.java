@@ -0,0 +1,108 @@
+/**
+ * 
+ */
+package vroom.trsp.sim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Collection;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import vroom.common.modeling.dataModel.attributes.ReleaseDate;
+import vroom.common.modeling.dataModel.attributes.RequestAttributeKey;
+import vroom.trsp.datamodel.ITRSPNode;
+import vroom.trsp.datamodel.TRSPInstance;
+import vroom.trsp.datamodel.TRSPRequest;
+import vroom.trsp.datamodel.costDelegates.TRSPWorkingTime;
+import vroom.trsp.io.PillacSimplePersistenceHelper;
+import vroom.trsp.util.TRSPGlobalParameters;
+
+/**
+ * <code>TRSPSimulatorTest</code> is a test case for the {@link TRSPSimulator.State snapshots} published by the
+ * {@link TRSPSimulator}
+ * <p>
+ * Creation date: Oct 19, 2026 - 05:31:08 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class TRSPSimulatorTest {
+
+    private TRSPInstance  mInstance;
+    private TRSPSimulator mSimulator;
+    private TRSPRequest   mDynamic;
+    private TRSPRequest   mRejected;
+
+    @Before
+    public void setUp() throws Exception {
+        mInstance = new PillacSimplePersistenceHelper().readInstance(new File(
+                "../Instances/trsp/pillac/crew25/C101.100_25-5-5-5.txt"), false);
+        mDynamic = mInstance.getRequests().get(0);
+        mRejected = mInstance.getRequests().get(1);
+        mDynamic.setAttribute(RequestAttributeKey.RELEASE_DATE, new ReleaseDate(10));
+        mInstance.setupSimulator(new TRSPWorkingTime(), new TRSPGlobalParameters());
+        mSimulator = mInstance.getSimulator();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        mSimulator.getState().getReleasedRequests().clear();
+    }
+
+    @Test
+    public void testState() {
+        TRSPSimulator.State s0 = mSimulator.getState();
+        assertTrue(mSimulator.isCurrent(s0));
+        assertFalse(s0.getReleasedRequests().contains(mDynamic.getID()));
+        assertTrue(s0.getReleasedRequests().contains(mRejected.getID()));
+
+        // Release: only the released and unserved requests change
+        Collection<TRSPRequest> release = mSimulator.nextRelease();
+        assertEquals(1, release.size());
+        TRSPSimulator.State s1 = mSimulator.getState();
+        assertFalse(mSimulator.isCurrent(s0));
+        assertTrue(mSimulator.isCurrent(s1));
+        assertEquals(s0.getVersion() + 1, s1.getVersion());
+        assertTrue(s1.getReleasedRequests().contains(mDynamic.getID()));
+        assertTrue(s1.getUnservedReleasedRequests().contains(mDynamic.getID()));
+        assertFalse(s0.getReleasedRequests().contains(mDynamic.getID()));
+        assertSame(s0.getServedRequests(), s1.getServedRequests());
+        assertSame(s0.getRejectedRequests(), s1.getRejectedRequests());
+
+        // Rejection
+        mSimulator.markAsRejected(mRejected.getID());
+        TRSPSimulator.State s2 = mSimulator.getState();
+        assertTrue(s2.getRejectedRequests().contains(mRejected.getID()));
+        assertFalse(s2.getReleasedRequests().contains(mRejected.getID()));
+        assertTrue(s1.getReleasedRequests().contains(mRejected.getID()));
+        assertSame(s1.getServedRequests(), s2.getServedRequests());
+
+        // Assignment: only the unserved requests change
+        ITRSPNode home = mInstance.getTRSPNode(mInstance.getTechnician(0).getHome().getID());
+        mSimulator.assignNodeToTechnician(0, home, 0);
+        TRSPSimulator.State s3 = mSimulator.getState();
+        assertSame(s2.getReleasedRequests(), s3.getReleasedRequests());
+        assertSame(s2.getServedRequests(), s3.getServedRequests());
+        assertSame(s2.getRejectedRequests(), s3.getRejectedRequests());
+        assertNotSame(s2.getUnservedReleasedRequests(), s3.getUnservedReleasedRequests());
+        assertEquals(home, s3.getAssignedNode(0));
+        assertNull(s2.getAssignedNode(0));
+
+        mSimulator.setAssignedNodeAsCurrent(0);
+        TRSPSimulator.State s4 = mSimulator.getState();
+        assertFalse(mSimulator.isCurrent(s3));
+        assertSame(s3.getUnservedReleasedRequests(), s4.getUnservedReleasedRequests());
+        assertEquals(home, s4.getCurrentNode(0));
+        assertNull(s3.getCurrentNode(0));
+    }
+}
@@ -0,0 +1,186 @@
+package vroom.common.graphs;
+
+/**
+ * The class <code>GomoryHuTree</code> builds the Gomory-Hu cut tree of an undirected graph with Gusfield's algorithm.
+ * <p>
+ * The tree is rooted at node <code>0</code>. Each node <code>i&gt;0</code> is linked to its {@linkplain #getParent(int)
+ * parent} by an edge whose weight is the value of a minimum cut between <code>i</code> and its parent, and the
+ * {@linkplain #getSubtree(int, boolean[]) subtree} rooted at <code>i</code> is the side of that cut containing
+ * <code>i</code>. The minimum cut between any two nodes is given by the lightest edge on the path between them.
+ * </p>
+ * <p>
+ * Building the tree requires <code>n-1</code> max flow computations on the original graph, no contraction is needed.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 1:41:03 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class GomoryHuTree {
+
+    /** The max flow algorithm, which also holds the graph */
+    private final MaxFlowPushRelabel mMaxFlow;
+
+    /** The parent of each node */
+    private final int[]              mParent;
+    /** The weight of the edge between each node and its parent */
+    private final double[]           mCutValue;
+
+    /** The nodes in breadth first order from the root */
+    private final int[]              mOrder;
+    /** The index of the first child of each node in {@link #mChildren} */
+    private final int[]              mChildStart;
+    /** The children of each node, stored contiguously */
+    private final int[]              mChildren;
+    /** The number of nodes in the tree */
+    private int                      mSize;
+
+    /**
+     * Creates a new <code>GomoryHuTree</code>
+     * 
+     * @param maxFlow
+     *            the max flow algorithm holding the graph
+     */
+    public GomoryHuTree(MaxFlowPushRelabel maxFlow) {
+        mMaxFlow = maxFlow;
+        int n = maxFlow.getNodeCount();
+        mParent = new int[n];
+        mCutValue = new double[n];
+        mOrder = new int[n];
+        mChildStart = new int[n + 1];
+        mChildren = new int[n];
+        mSize = n;
+    }
+
+    /**
+     * Returns the number of nodes in the tree
+     * 
+     * @return the number of nodes in the tree
+     */
+    public int getNodeCount() {
+        return mSize;
+    }
+
+    /**
+     * Build the tree for the current graph of the max flow algorithm
+     */
+    public void build() {
+        build(getNodeCount());
+    }
+
+    /**
+     * Build the tree for the subgraph induced by the first <code>nodeCount</code> nodes of the current graph of the max
+     * flow algorithm, other nodes are expected to be isolated.
+     * 
+     * @param nodeCount
+     *            the number of nodes to consider
+     */
+    public void build(int nodeCount) {
+        int n = nodeCount;
+        mSize = nodeCount;
+        for (int i = 0; i < n; i++) {
+            mParent[i] = 0;
+            mCutValue[i] = 0;
+        }
+
+        // Gusfield's algorithm
+        for (int s = 1; s < n; s++) {
+            int t = mParent[s];
+            double flow = mMaxFlow.maxFlow(s, t);
+            mCutValue[s] = flow;
+            for (int i = 0; i < n; i++) {
+                if (i != s && mParent[i] == t && mMaxFlow.isOnSourceSide(i))
+                    mParent[i] = s;
+            }
+            if (mMaxFlow.isOnSourceSide(mParent[t])) {
+                mParent[s] = mParent[t];
+                mParent[t] = s;
+                mCutValue[s] = mCutValue[t];
+                mCutValue[t] = flow;
+            }
+        }
+        mParent[0] = -1;
+
+        // Build the children lists (counting sort on the parent)
+        for (int i = 0; i <= n; i++)
+            mChildStart[i] = 0;
+        for (int i = 1; i < n; i++)
+            mChildStart[mParent[i] + 1]++;
+        for (int i = 0; i < n; i++)
+            mChildStart[i + 1] += mChildStart[i];
+        int[] pos = mOrder; // used as temporary buffer
+        System.arraycopy(mChildStart, 0, pos, 0, n);
+        for (int i = 1; i < n; i++)
+            mChildren[pos[mParent[i]]++] = i;
+
+        // Breadth first order from the root
+        int head = 0, tail = 0;
+        mOrder[tail++] = 0;
+        while (head < tail) {
+            int v = mOrder[head++];
+            for (int c = mChildStart[v]; c < mChildStart[v + 1]; c++)
+                mOrder[tail++] = mChildren[c];
+        }
+    }
+
+    /**
+     * Returns the parent of a node
+     * 
+     * @param i
+     *            the node of interest
+     * @return the parent of node <code>i</code>, or <code>-1</code> for the root <code>0</code>
+     */
+    public int getParent(int i) {
+        return mParent[i];
+    }
+
+    /**
+     * Returns the weight of the edge between a node and its parent
+     * 
+     * @param i
+     *            the node of interest, different from <code>0</code>
+     * @return the value of the minimum cut between <code>i</code> and its parent
+     */
+    public double getCutValue(int i) {
+        return mCutValue[i];
+    }
+
+    /**
+     * Returns the <code>k</code>-th node in breadth first order, a node always appears after its parent
+     * 
+     * @param k
+     *            the rank of the node
+     * @return the <code>k</code>-th node in breadth first order
+     */
+    public int getNodeInOrder(int k) {
+        return mOrder[k];
+    }
+
+    /**
+     * Mark the nodes of the subtree rooted at a node
+     * 
+     * @param i
+     *            the root of the subtree
+     * @param subtree
+     *            an array of length at least {@link #getNodeCount()}, in which the nodes of the subtree will be set
+     *            to <code>true</code> (other entries are not modified)
+     * @return the number of nodes in the subtree
+     */
+    public int getSubtree(int i, boolean[] subtree) {
+        int count = 0;
+        int[] stack = new int[getNodeCount()];
+        int size = 0;
+        stack[size++] = i;
+        while (size > 0) {
+            int v = stack[--size];
+            subtree[v] = true;
+            count++;
+            for (int c = mChildStart[v]; c < mChildStart[v + 1]; c++)
+                stack[size++] = mChildren[c];
+        }
+        return count;
+    }
+}
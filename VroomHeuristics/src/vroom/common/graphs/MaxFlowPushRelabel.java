@@ -0,0 +1,358 @@
+package vroom.common.graphs;
+
+import java.util.Arrays;
+
+/**
+ * The class <code>MaxFlowPushRelabel</code> is an implementation of the push-relabel max flow / min cut algorithm on a
+ * sparse undirected graph.
+ * <p>
+ * Edges are stored in adjacency lists, each undirected edge <code>{i,j}</code> being represented by two opposite arcs
+ * of capacity <code>c(i,j)</code>. The algorithm processes active nodes in FIFO order, starts with exact distance
+ * labels and uses the gap heuristic. Only the first phase is performed: it is sufficient to compute the max flow value
+ * and a minimum cut.
+ * </p>
+ * <p>
+ * Contrary to {@link MaxFlowFordFulkerson} the graph does not need to be complete and the instance can be
+ * {@linkplain #clear() cleared} and reused without allocation once its arrays have grown to the required size.
+ * </p>
+ * <p>
+ * Instances of this class are not thread-safe.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 1:12:26 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ * @see GomoryHuTree
+ */
+public class MaxFlowPushRelabel {
+
+    public static double     ZERO_TOLERANCE = 1e-10;
+
+    /** The number of nodes */
+    private final int        mNodeCount;
+
+    /** The first arc leaving each node, or <code>-1</code> */
+    private final int[]      mFirst;
+    /** The next arc leaving the same node as each arc, or <code>-1</code> */
+    private int[]            mNext;
+    /** The head of each arc, the reverse of arc <code>a</code> is <code>a^1</code> */
+    private int[]            mHead;
+    /** The capacity of each arc */
+    private double[]         mCapacity;
+    /** The residual capacity of each arc */
+    private double[]         mResidual;
+    /** The number of arcs */
+    private int              mArcCount;
+
+    /** The excess of each node */
+    private final double[]   mExcess;
+    /** The distance label of each node */
+    private final int[]      mLabel;
+    /** The number of nodes with each label lower than the node count */
+    private final int[]      mLabelCount;
+    /** The current arc of each node */
+    private final int[]      mCurrent;
+    /** The FIFO queue of active nodes */
+    private final int[]      mQueue;
+    /** <code>true</code> if the node is in the queue */
+    private final boolean[]  mActive;
+
+    /** <code>true</code> if the node is on the source side of the last min cut */
+    private final boolean[]  mSourceSide;
+
+    /** The source of the last call to {@link #maxFlow(int, int)} */
+    private int              mSource;
+    /** The sink of the last call to {@link #maxFlow(int, int)} */
+    private int              mSink;
+
+    /** The max flow from the last call to {@link #maxFlow(int, int)} */
+    private double           mCurrentMaxFlow;
+
+    /**
+     * Creates a new <code>MaxFlowPushRelabel</code>
+     * 
+     * @param nodeCount
+     *            the number of nodes in the graph
+     * @param expectedEdges
+     *            the expected number of edges, used to size the internal arrays
+     */
+    public MaxFlowPushRelabel(int nodeCount, int expectedEdges) {
+        mNodeCount = nodeCount;
+        mFirst = new int[nodeCount];
+        Arrays.fill(mFirst, -1);
+
+        int arcs = 2 * Math.max(expectedEdges, 1);
+        mNext = new int[arcs];
+        mHead = new int[arcs];
+        mCapacity = new double[arcs];
+        mResidual = new double[arcs];
+
+        mExcess = new double[nodeCount];
+        mLabel = new int[nodeCount];
+        mLabelCount = new int[nodeCount + 1];
+        mCurrent = new int[nodeCount];
+        mQueue = new int[nodeCount];
+        mActive = new boolean[nodeCount];
+        mSourceSide = new boolean[nodeCount];
+    }
+
+    /**
+     * Returns the number of nodes in the graph
+     * 
+     * @return the number of nodes in the graph
+     */
+    public int getNodeCount() {
+        return mNodeCount;
+    }
+
+    /**
+     * Returns the number of undirected edges in the graph
+     * 
+     * @return the number of undirected edges in the graph
+     */
+    public int getEdgeCount() {
+        return mArcCount / 2;
+    }
+
+    /**
+     * Remove all the edges of the graph
+     */
+    public void clear() {
+        Arrays.fill(mFirst, -1);
+        mArcCount = 0;
+        mCurrentMaxFlow = 0;
+    }
+
+    /**
+     * Add an undirected edge to the graph.
+     * <p>
+     * Parallel edges are allowed, their capacities are implicitly summed.
+     * </p>
+     * 
+     * @param i
+     *            the first end of the edge
+     * @param j
+     *            the second end of the edge
+     * @param capacity
+     *            the capacity of the edge
+     */
+    public void addEdge(int i, int j, double capacity) {
+        if (i == j)
+            return;
+        if (mArcCount + 2 > mHead.length) {
+            int newLength = 2 * mHead.length;
+            mNext = Arrays.copyOf(mNext, newLength);
+            mHead = Arrays.copyOf(mHead, newLength);
+            mCapacity = Arrays.copyOf(mCapacity, newLength);
+            mResidual = Arrays.copyOf(mResidual, newLength);
+        }
+        addArc(i, j, capacity);
+        addArc(j, i, capacity);
+    }
+
+    private void addArc(int tail, int head, double capacity) {
+        int a = mArcCount++;
+        mHead[a] = head;
+        mCapacity[a] = capacity;
+        mNext[a] = mFirst[tail];
+        mFirst[tail] = a;
+    }
+
+    /**
+     * Max flow algorithm
+     * 
+     * @param s
+     *            the source node
+     * @param t
+     *            the sink node
+     * @return the max flow between <code>s</code> and <code>t</code>
+     */
+    public double maxFlow(int s, int t) {
+        if (s == t)
+            throw new IllegalArgumentException("The source and sink must be different: " + s);
+        mSource = s;
+        mSink = t;
+
+        System.arraycopy(mCapacity, 0, mResidual, 0, mArcCount);
+        Arrays.fill(mExcess, 0);
+        Arrays.fill(mActive, false);
+        for (int i = 0; i < mNodeCount; i++)
+            mCurrent[i] = mFirst[i];
+
+        globalRelabel();
+
+        int qHead = 0, qSize = 0;
+
+        // Saturate all the arcs leaving the source
+        for (int a = mFirst[s]; a != -1; a = mNext[a]) {
+            double d = mResidual[a];
+            if (d > ZERO_TOLERANCE) {
+                int v = mHead[a];
+                mResidual[a] = 0;
+                mResidual[a ^ 1] += d;
+                mExcess[s] -= d;
+                mExcess[v] += d;
+                if (v != t && !mActive[v] && mLabel[v] < mNodeCount) {
+                    mActive[v] = true;
+                    mQueue[(qHead + qSize++) % mNodeCount] = v;
+                }
+            }
+        }
+
+        // Discharge active nodes in FIFO order
+        while (qSize > 0) {
+            int u = mQueue[qHead];
+            qHead = (qHead + 1) % mNodeCount;
+            qSize--;
+            mActive[u] = false;
+
+            while (mExcess[u] > ZERO_TOLERANCE && mLabel[u] < mNodeCount) {
+                int a = mCurrent[u];
+                if (a == -1) {
+                    relabel(u);
+                    mCurrent[u] = mFirst[u];
+                    continue;
+                }
+                int v = mHead[a];
+                if (mResidual[a] > ZERO_TOLERANCE && mLabel[u] == mLabel[v] + 1) {
+                    // Push
+                    double d = Math.min(mExcess[u], mResidual[a]);
+                    mResidual[a] -= d;
+                    mResidual[a ^ 1] += d;
+                    mExcess[u] -= d;
+                    mExcess[v] += d;
+                    if (v != s && v != t && !mActive[v]) {
+                        mActive[v] = true;
+                        mQueue[(qHead + qSize++) % mNodeCount] = v;
+                    }
+                } else {
+                    mCurrent[u] = mNext[a];
+                }
+            }
+        }
+
+        mCurrentMaxFlow = mExcess[t];
+        updateMinCut();
+
+        return mCurrentMaxFlow;
+    }
+
+    /**
+     * Set the labels to the exact distances to the sink in the residual graph
+     */
+    private void globalRelabel() {
+        Arrays.fill(mLabel, mNodeCount);
+        Arrays.fill(mLabelCount, 0);
+
+        // Reverse breadth first search from the sink, using the queue as buffer
+        int head = 0, tail = 0;
+        mLabel[mSink] = 0;
+        mQueue[tail++] = mSink;
+        while (head < tail) {
+            int v = mQueue[head++];
+            mLabelCount[mLabel[v]]++;
+            for (int a = mFirst[v]; a != -1; a = mNext[a]) {
+                int u = mHead[a];
+                // Residual capacity of the reverse arc u->v
+                if (u != mSource && mLabel[u] == mNodeCount && mResidual[a ^ 1] > ZERO_TOLERANCE) {
+                    mLabel[u] = mLabel[v] + 1;
+                    mQueue[tail++] = u;
+                }
+            }
+        }
+        mLabel[mSource] = mNodeCount;
+    }
+
+    /**
+     * Relabel a node, applying the gap heuristic if its previous label becomes empty
+     */
+    private void relabel(int u) {
+        int old = mLabel[u];
+        int label = mNodeCount;
+        for (int a = mFirst[u]; a != -1; a = mNext[a]) {
+            if (mResidual[a] > ZERO_TOLERANCE && mLabel[mHead[a]] + 1 < label)
+                label = mLabel[mHead[a]] + 1;
+        }
+
+        mLabelCount[old]--;
+        if (mLabelCount[old] == 0) {
+            // Gap: nodes above the old label can no longer reach the sink
+            for (int i = 0; i < mNodeCount; i++) {
+                if (mLabel[i] > old && mLabel[i] < mNodeCount) {
+                    mLabelCount[mLabel[i]]--;
+                    mLabel[i] = mNodeCount;
+                }
+            }
+            mLabel[u] = mNodeCount;
+        } else {
+            mLabel[u] = label;
+            if (label < mNodeCount)
+                mLabelCount[label]++;
+        }
+    }
+
+    /**
+     * Compute the source side of the min cut: nodes from which the sink is not reachable in the residual graph
+     */
+    private void updateMinCut() {
+        Arrays.fill(mSourceSide, true);
+        int head = 0, tail = 0;
+        mSourceSide[mSink] = false;
+        mQueue[tail++] = mSink;
+        while (head < tail) {
+            int v = mQueue[head++];
+            for (int a = mFirst[v]; a != -1; a = mNext[a]) {
+                int u = mHead[a];
+                if (mSourceSide[u] && mResidual[a ^ 1] > ZERO_TOLERANCE) {
+                    mSourceSide[u] = false;
+                    mQueue[tail++] = u;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the max flow from the last call to {@link #maxFlow(int, int)}
+     * 
+     * @return the previously calculated max flow
+     */
+    public double getCurrentMaxFlow() {
+        return mCurrentMaxFlow;
+    }
+
+    /**
+     * Returns <code>true</code> if node <code>i</code> is on the source side of the min cut computed in the last call
+     * to {@link #maxFlow(int, int)}
+     * 
+     * @param i
+     *            the node of interest
+     * @return <code>true</code> if node <code>i</code> is on the source side of the last min cut
+     */
+    public boolean isOnSourceSide(int i) {
+        return mSourceSide[i];
+    }
+
+    /**
+     * Returns the flow on the arcs from <code>i</code> to <code>j</code> in the last call to {@link #maxFlow(int, int)}
+     * <p>
+     * This method runs in <code>O(deg(i))</code>
+     * </p>
+     * 
+     * @param i
+     *            the tail node
+     * @param j
+     *            the head node
+     * @return the net flow from <code>i</code> to <code>j</code>
+     */
+    public double getCurrentFlow(int i, int j) {
+        double flow = 0;
+        for (int a = mFirst[i]; a != -1; a = mNext[a]) {
+            if (mHead[a] == j)
+                flow += mCapacity[a] - mResidual[a];
+        }
+        return flow;
+    }
+}
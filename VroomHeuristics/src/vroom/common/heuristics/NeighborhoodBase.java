@@ -4,6 +4,8 @@
 package vroom.common.heuristics;
 
 import vroom.common.heuristics.utils.HeuristicsLogging;
+import vroom.common.modeling.dataModel.IVRPSolution;
+import vroom.common.modeling.dataModel.RouteBase;
 import vroom.common.utilities.optimization.IAcceptanceCriterion;
 import vroom.common.utilities.optimization.IInstance;
 import vroom.common.utilities.optimization.IMove;
@@ -176,7 +178,16 @@ public abstract class NeighborhoodBase<S extends ISolution, M extends Move> impl
     public S localSearch(IInstance instance, S solution, IParameters param) {
         @SuppressWarnings("unchecked")
         S clone = (S) solution.clone();
-        localSearch(clone, param);
+        // The clone is only accessed by the current thread until it is returned
+        IVRPSolution<?> vrpSol = clone instanceof IVRPSolution ? (IVRPSolution<?>) clone : null;
+        if (vrpSol != null)
+            RouteBase.setThreadConfined(vrpSol, true);
+        try {
+            localSearch(clone, param);
+        } finally {
+            if (vrpSol != null)
+                RouteBase.setThreadConfined(vrpSol, false);
+        }
         return clone;
     };
 
@@ -0,0 +1,99 @@
+/**
+ * 
+ */
+package vroom.common.heuristics.alns;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * <code>ALNSCheckpoint</code> contains the state of an {@link AdaptiveLargeNeighborhoodSearch} at the end of an
+ * iteration: the encoded solutions, and the state of the components, criteria and random streams.
+ * <p>
+ * Creation date: Oct 20, 2026 - 12:04:12 AM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ * @see AdaptiveLargeNeighborhoodSearch#setCheckpointing(vroom.common.utilities.checkpoint.CheckpointWriter,
+ *      vroom.common.utilities.checkpoint.ICheckpointCodec, int)
+ */
+public class ALNSCheckpoint implements Serializable {
+
+    private static final long                   serialVersionUID = 1L;
+
+    private final String                        mInstanceName;
+
+    private final int                           mIteration;
+
+    private final ArrayList<Serializable>       mSolutions;
+
+    private final HashMap<String, Serializable> mStates;
+
+    /**
+     * Creates a new <code>ALNSCheckpoint</code>
+     * 
+     * @param instanceName
+     *            the name of the instance being solved
+     * @param iteration
+     *            the number of iterations performed
+     * @param solutions
+     *            the encoded solutions
+     * @param states
+     *            the state of the stateful objects, indexed by a unique key
+     */
+    ALNSCheckpoint(String instanceName, int iteration, ArrayList<Serializable> solutions,
+            HashMap<String, Serializable> states) {
+        mInstanceName = instanceName;
+        mIteration = iteration;
+        mSolutions = solutions;
+        mStates = states;
+    }
+
+    /**
+     * Returns the name of the instance being solved when this checkpoint was taken
+     * 
+     * @return the name of the instance being solved when this checkpoint was taken
+     */
+    public String getInstanceName() {
+        return mInstanceName;
+    }
+
+    /**
+     * Returns the number of iterations performed when this checkpoint was taken
+     * 
+     * @return the number of iterations performed when this checkpoint was taken
+     */
+    public int getIteration() {
+        return mIteration;
+    }
+
+    /**
+     * Returns the encoded solutions, the best solution being the first one
+     * 
+     * @return the encoded solutions
+     */
+    public List<Serializable> getSolutions() {
+        return Collections.unmodifiableList(mSolutions);
+    }
+
+    /**
+     * Returns the state of an object
+     * 
+     * @param key
+     *            the key associated with the object
+     * @return the state of the object associated with {@code key}, or {@code null} if it was not checkpointed
+     */
+    public Serializable getState(String key) {
+        return mStates.get(key);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s it:%s solutions:%s states:%s", getInstanceName(), getIteration(), mSolutions.size(), mStates.keySet());
+    }
+}
@@ -3,18 +3,21 @@
  */
 package vroom.common.heuristics.alns;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import umontreal.iro.lecuyer.rng.RandomStream;
 import vroom.common.utilities.RouletteWheel;
+import vroom.common.utilities.checkpoint.ICheckpointable;
 import vroom.common.utilities.optimization.IComponentHandler;
 import vroom.common.utilities.optimization.IInstance;
+import vroom.common.utilities.ssj.SSJUtilities;
 
 /**
  * <code>ALNSComponentHandler</code> is a generic implementation of the ALNS destroy/repair selection process presented
@@ -32,7 +35,8 @@ import vroom.common.utilities.optimization.IInstance;
  *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
  * @version 1.0
  */
-public class ALNSComponentHandler<M extends IALNSComponent<?>> implements IComponentHandler<M> {
+public class ALNSComponentHandler<M extends IALNSComponent<?>> implements IComponentHandler<M>,
+        ICheckpointable<ALNSComponentHandler.HandlerCheckpoint> {
 
     public static boolean sNewWeightUpdate = true;
 
@@ -96,7 +100,7 @@ public class ALNSComponentHandler<M extends IALNSComponent<?>> implements ICompo
         return this.mTimeSegmentLength;
     }
 
-    /** the score of each component */
+    /** the score of each component, in the order in which components were given to the constructor */
     private final Map<M, Evaluation> mEvaluations;
 
     /** the current selection wheel, replaced at the beginning of each segment (to prevent unecessary synchronization) */
@@ -124,7 +128,7 @@ public class ALNSComponentHandler<M extends IALNSComponent<?>> implements ICompo
     public ALNSComponentHandler(RandomStream rndStream, Collection<M> components, double sigma1, double sigma2,
             double sigma3, double reactionFactor, int timeSegLength) {
         mRndStream = rndStream;
-        mEvaluations = new HashMap<M, Evaluation>();
+        mEvaluations = new LinkedHashMap<M, Evaluation>();
         mWheel = new RouletteWheel<M>();
 
         mSigmaOne = sigma1;
@@ -250,6 +254,36 @@ public class ALNSComponentHandler<M extends IALNSComponent<?>> implements ICompo
         mWheel = wheel;
     }
 
+    /**
+     * Returns the count, score, and weight of each component, in the order in which components were given to the
+     * constructor, and the state of the random stream
+     */
+    @Override
+    public HandlerCheckpoint getCheckpoint() {
+        double[][] evaluations = new double[mEvaluations.size()][];
+        int i = 0;
+        for (Evaluation e : mEvaluations.values())
+            evaluations[i++] = new double[] { e.getCount(), e.getScore(), e.getWeight() };
+        return new HandlerCheckpoint(evaluations, SSJUtilities.getState(mRndStream));
+    }
+
+    @Override
+    public void restoreCheckpoint(HandlerCheckpoint checkpoint) {
+        if (checkpoint.mEvaluations.length != mEvaluations.size())
+            throw new IllegalArgumentException(String.format(
+                    "The checkpoint contains %s components while this handler contains %s",
+                    checkpoint.mEvaluations.length, mEvaluations.size()));
+        RouletteWheel<M> wheel = new RouletteWheel<>();
+        int i = 0;
+        for (Entry<M, Evaluation> eval : mEvaluations.entrySet()) {
+            double[] e = checkpoint.mEvaluations[i++];
+            eval.setValue(new Evaluation((int) e[0], e[1], e[2]));
+            wheel.add(eval.getKey(), e[2]);
+        }
+        mWheel = wheel;
+        SSJUtilities.setState(mRndStream, checkpoint.mStreamState);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -391,4 +425,25 @@ public class ALNSComponentHandler<M extends IALNSComponent<?>> implements ICompo
         mWheel.clear();
     }
 
+    /**
+     * <code>HandlerCheckpoint</code> contains the state of an {@link ALNSComponentHandler}
+     * <p>
+     * Creation date: Oct 19, 2026 - 11:52:36 PM
+     * 
+     * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+     *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+     *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+     * @version 1.0
+     */
+    public static class HandlerCheckpoint implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final double[][]  mEvaluations;
+        private final long[]      mStreamState;
+
+        private HandlerCheckpoint(double[][] evaluations, long[] streamState) {
+            mEvaluations = evaluations;
+            mStreamState = streamState;
+        }
+    }
 }
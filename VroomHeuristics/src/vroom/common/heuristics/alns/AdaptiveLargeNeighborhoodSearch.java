@@ -3,6 +3,15 @@
  */
 package vroom.common.heuristics.alns;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
 import umontreal.iro.lecuyer.rng.RandomStream;
 import vroom.common.heuristics.LocalSearchBase;
 import vroom.common.heuristics.alns.IDestroy.IDestroyResult;
@@ -11,13 +20,20 @@ import vroom.common.utilities.ProgressMonitor;
 import vroom.common.utilities.Stopwatch;
 import vroom.common.utilities.callbacks.CallbackManagerDelegate;
 import vroom.common.utilities.callbacks.ICallback;
+import vroom.common.utilities.checkpoint.CheckpointWriter;
+import vroom.common.utilities.checkpoint.ICheckpointCodec;
+import vroom.common.utilities.checkpoint.ICheckpointable;
 import vroom.common.utilities.logging.LoggerHelper;
+import vroom.common.utilities.metrics.Counter;
+import vroom.common.utilities.metrics.Histogram;
+import vroom.common.utilities.metrics.Metrics;
 import vroom.common.utilities.optimization.IComponentHandler;
 import vroom.common.utilities.optimization.IComponentHandler.Outcome;
 import vroom.common.utilities.optimization.IInstance;
 import vroom.common.utilities.optimization.IParameters;
 import vroom.common.utilities.optimization.ISolution;
 import vroom.common.utilities.optimization.OptimizationSense;
+import vroom.common.utilities.ssj.SSJUtilities;
 
 /**
  * <code>AdaptiveLargeNeighborhoodSearch</code> is a generic implementation of the ALNS algorithm as presented in
@@ -48,6 +64,14 @@ public class AdaptiveLargeNeighborhoodSearch<S extends ISolution> extends LocalS
         return sLogger;
     }
 
+    /** The number of iterations performed by all the ALNS procedures */
+    private static final Counter   sIterations    = Metrics.counter("alns.iterations");
+    /** The duration of the iterations, in microseconds */
+    private static final Histogram sIterationTime = Metrics.histogram("alns.iteration_us");
+
+    /** The counters of the outcomes of each component, indexed by {@link Outcome#ordinal()} */
+    private final Map<IALNSComponent<?>, Counter[]> mOutcomeCounters = new ConcurrentHashMap<>();
+
     /** A callback handler for this procedure */
     private final CallbackManagerDelegate<AdaptiveLargeNeighborhoodSearch<S>, ALNSEventType> mCallbacks;
 
@@ -127,6 +151,19 @@ public class AdaptiveLargeNeighborhoodSearch<S extends ISolution> extends LocalS
         return mCurrentInstance;
     }
 
+    /** The writer used to save checkpoints, {@code null} if checkpointing is disabled */
+    private CheckpointWriter                      mCheckpointWriter;
+    /** The codec used to encode solutions in checkpoints */
+    private ICheckpointCodec<S>                   mCheckpointCodec;
+    /** The minimum number of iterations between two checkpoints */
+    private int                                   mCheckpointPeriod;
+    /** The iteration at which the last checkpoint was taken */
+    private int                                   mLastCheckpoint;
+    /** Additional objects whose state is saved in checkpoints */
+    private final Map<String, ICheckpointable<?>> mCheckpointables = new LinkedHashMap<String, ICheckpointable<?>>();
+    /** The checkpoint from which the next run will be resumed, if any */
+    private ALNSCheckpoint                        mResumeCheckpoint;
+
     /**
      * Creates a new <code>AdaptiveLargeNeighborhoodSearch</code>
      * 
@@ -172,6 +209,7 @@ public class AdaptiveLargeNeighborhoodSearch<S extends ISolution> extends LocalS
         mCurrentInstance = instance;
 
         mProgress = new ProgressMonitor(params.getMaxIterations(), false);
+        mLastCheckpoint = 0;
 
         if (params.getAcceptanceCriterion() != null)
             setAcceptanceCriterion(params.getAcceptanceCriterion().clone());
@@ -202,6 +240,11 @@ public class AdaptiveLargeNeighborhoodSearch<S extends ISolution> extends LocalS
         S current = solution;
 
         getProgress().start();
+        if (isResuming()) {
+            List<S> solutions = restore(params);
+            best = solutions.get(0);
+            current = solutions.get(1);
+        }
         Stopwatch itTimer = new Stopwatch();
         while (!getStoppingCriterion().isStopCriterionMet()) {
             itTimer.reset();
@@ -257,10 +300,12 @@ public class AdaptiveLargeNeighborhoodSearch<S extends ISolution> extends LocalS
             // Test the solution and update the acceptance criterion
             boolean accept = getAcceptanceCriterion().accept(current, tmp);
             boolean compUpdated = false;
+            Outcome outcome;
             if (getOptimizationSense().isBetter(best.getObjectiveValue(), tmp.getObjectiveValue(), false) && accept) {
                 // A new best solution was found
                 best = tmp;
                 current = tmp;
+                outcome = Outcome.NEW_BEST;
 
                 // Update the component evaluation
                 compUpdated |= mDestroyComponents.updateStats(destroy, improvement, itTimer.readTimeMS(), getProgress()
@@ -276,6 +321,7 @@ public class AdaptiveLargeNeighborhoodSearch<S extends ISolution> extends LocalS
             } else if (accept) {
                 // The new solution is accepted as current solution
                 current = tmp;
+                outcome = Outcome.ACCEPTED;
 
                 // Update the component evaluation
                 compUpdated |= mDestroyComponents.updateStats(destroy, improvement, itTimer.readTimeMS(), getProgress()
@@ -291,6 +337,7 @@ public class AdaptiveLargeNeighborhoodSearch<S extends ISolution> extends LocalS
             } else {
                 getLogger().lowDebug("ALNS %s: Solution rejected    (d:%s,r:%s) %s", getProgress(), destroy, repair,
                         tmp);
+                outcome = Outcome.REJECTED;
 
                 // Update the component evaluation
                 compUpdated |= mDestroyComponents.updateStats(destroy, improvement, itTimer.readTimeMS(), getProgress()
@@ -302,6 +349,8 @@ public class AdaptiveLargeNeighborhoodSearch<S extends ISolution> extends LocalS
                                 getProgress().getIteration(), best, current, tmp));
             }
 
+            recordIteration(destroy, repair, outcome, itTimer.readTimeMS());
+
             if (compUpdated)
                 getCallbacks().callbacks(
                         new ALNSCallbackEvent<S>(ALNSEventType.COMP_UPDATED, this, getTimer().readTimeMS(),
@@ -314,9 +363,13 @@ public class AdaptiveLargeNeighborhoodSearch<S extends ISolution> extends LocalS
                             .getIteration(), best, current, tmp, itTimer.getReadOnlyStopwatch()));
 
             getProgress().iterationFinished();
+
+            if (isCheckpointDue())
+                checkpoint(params, toList(best, current));
         }
         getProgress().stop();
-        //
+        if (mCheckpointWriter != null)
+            checkpoint(params, toList(best, current));
 
         setStopped();
         getCallbacks().callbacks(
@@ -326,6 +379,213 @@ public class AdaptiveLargeNeighborhoodSearch<S extends ISolution> extends LocalS
         return best;
     }
 
+    /**
+     * Update the {@linkplain Metrics metrics} at the end of an iteration
+     * 
+     * @param destroy
+     *            the destroy component used in the iteration
+     * @param repair
+     *            the repair component used in the iteration
+     * @param outcome
+     *            the outcome of the iteration
+     * @param timeMS
+     *            the duration of the iteration in milliseconds
+     */
+    void recordIteration(IDestroy<S> destroy, IRepair<S> repair, Outcome outcome, double timeMS) {
+        sIterations.increment();
+        sIterationTime.record((long) (timeMS * 1000));
+        getOutcomeCounters(destroy, "destroy")[outcome.ordinal()].increment();
+        getOutcomeCounters(repair, "repair")[outcome.ordinal()].increment();
+    }
+
+    /**
+     * Returns the counters of the outcomes of a component, named
+     * <code>alns.&lt;type&gt;.&lt;class&gt;.&lt;outcome&gt;</code>
+     */
+    private Counter[] getOutcomeCounters(IALNSComponent<?> component, String type) {
+        Counter[] counters = mOutcomeCounters.get(component);
+        if (counters == null) {
+            String name = component.getClass().getSimpleName();
+            if (name.isEmpty())
+                name = component.getClass().getName();
+            counters = new Counter[Outcome.values().length];
+            for (Outcome o : Outcome.values())
+                counters[o.ordinal()] = Metrics.counter(String.format("alns.%s.%s.%s", type, name, o.toString()
+                        .toLowerCase()));
+            mOutcomeCounters.put(component, counters);
+        }
+        return counters;
+    }
+
+    /**
+     * Enable the periodic checkpointing of this ALNS.
+     * <p>
+     * Checkpoints are taken at the end of iterations, and once the ALNS terminates. They contain the state of the
+     * component handlers, acceptance and stopping criteria, and random streams, provided that they implement
+     * {@link ICheckpointable}, and of the objects {@linkplain #addCheckpointable(String, ICheckpointable) registered}
+     * with this ALNS.
+     * </p>
+     * 
+     * @param writer
+     *            the writer used to save checkpoints, or {@code null} to disable checkpointing
+     * @param codec
+     *            the codec used to encode solutions
+     * @param period
+     *            the minimum number of iterations between two checkpoints
+     * @see #resume(ALNSCheckpoint)
+     */
+    public void setCheckpointing(CheckpointWriter writer, ICheckpointCodec<S> codec, int period) {
+        mCheckpointWriter = writer;
+        mCheckpointCodec = codec;
+        mCheckpointPeriod = period;
+    }
+
+    /**
+     * Returns the writer used to save checkpoints
+     * 
+     * @return the writer used to save checkpoints, {@code null} if checkpointing is disabled
+     */
+    public CheckpointWriter getCheckpointWriter() {
+        return mCheckpointWriter;
+    }
+
+    /**
+     * Register an object whose state will be saved in checkpoints and restored when resuming, for instance a callback
+     * collecting information during the search
+     * 
+     * @param key
+     *            a unique key for {@code object}
+     * @param object
+     *            the object to be checkpointed
+     */
+    public void addCheckpointable(String key, ICheckpointable<?> object) {
+        mCheckpointables.put(key, object);
+    }
+
+    /**
+     * Resume the next run of this ALNS from a checkpoint.
+     * <p>
+     * The next call to {@link #localSearch(IInstance, ISolution, IParameters)} should be done with the same instance
+     * and parameters as the run in which {@code checkpoint} was taken, an {@link IllegalStateException} is thrown if
+     * the name of the instance differs. After the usual initialization, the state of
+     * this ALNS is restored, and the search continues from the iteration at which {@code checkpoint} was taken.
+     * </p>
+     * 
+     * @param checkpoint
+     *            the checkpoint from which the search will be resumed
+     */
+    public void resume(ALNSCheckpoint checkpoint) {
+        if (mCheckpointCodec == null)
+            throw new IllegalStateException("A codec must be set before resuming from a checkpoint");
+        mResumeCheckpoint = checkpoint;
+    }
+
+    /**
+     * Returns {@code true} if the next run will be resumed from a checkpoint
+     * 
+     * @return {@code true} if the next run will be resumed from a checkpoint
+     */
+    protected boolean isResuming() {
+        return mResumeCheckpoint != null;
+    }
+
+    /**
+     * Returns {@code true} if enough iterations were performed since the last checkpoint
+     * 
+     * @return {@code true} if a checkpoint should be taken
+     */
+    protected boolean isCheckpointDue() {
+        return mCheckpointWriter != null && getProgress().getIteration() - mLastCheckpoint >= mCheckpointPeriod;
+    }
+
+    /**
+     * Take a checkpoint and submit it to the {@linkplain #getCheckpointWriter() checkpoint writer}
+     * 
+     * @param params
+     *            the parameters of the current run
+     * @param solutions
+     *            the solutions to be saved, the best solution being the first one
+     */
+    protected void checkpoint(IParameters params, List<S> solutions) {
+        ArrayList<Serializable> encoded = new ArrayList<Serializable>(solutions.size());
+        for (S s : solutions)
+            encoded.add(mCheckpointCodec.encode(s));
+
+        HashMap<String, Serializable> states = new HashMap<String, Serializable>();
+        states.put("destroy", getCheckpoint(getDestroyComponents()));
+        states.put("repair", getCheckpoint(getRepairComponents()));
+        states.put("acceptance", getCheckpoint(getAcceptanceCriterion()));
+        states.put("stopping", getCheckpoint(getStoppingCriterion()));
+        states.put("stream", SSJUtilities.getState(getRandomStream()));
+        states.put("stream.params", SSJUtilities.getState(params.getRandomStream()));
+        for (Entry<String, ICheckpointable<?>> c : mCheckpointables.entrySet())
+            states.put(c.getKey(), c.getValue().getCheckpoint());
+
+        mLastCheckpoint = getProgress().getIteration();
+        mCheckpointWriter.submit(new ALNSCheckpoint(mCurrentInstance.getName(), mLastCheckpoint, encoded, states));
+    }
+
+    /**
+     * Restore the state of this ALNS from the checkpoint set in {@link #resume(ALNSCheckpoint)}, this method should be
+     * called after the progress monitor is started
+     * 
+     * @param params
+     *            the parameters of the current run
+     * @return the decoded solutions, the best solution being the first one
+     * @throws IllegalStateException
+     *             if the checkpoint was taken on a different instance
+     */
+    protected List<S> restore(IParameters params) {
+        ALNSCheckpoint checkpoint = mResumeCheckpoint;
+        mResumeCheckpoint = null;
+        if (!mCurrentInstance.getName().equals(checkpoint.getInstanceName()))
+            throw new IllegalStateException(String.format(
+                    "Cannot resume the search on instance %s from a checkpoint taken on instance %s",
+                    mCurrentInstance.getName(), checkpoint.getInstanceName()));
+
+        restoreCheckpoint(getDestroyComponents(), checkpoint.getState("destroy"));
+        restoreCheckpoint(getRepairComponents(), checkpoint.getState("repair"));
+        restoreCheckpoint(getAcceptanceCriterion(), checkpoint.getState("acceptance"));
+        restoreCheckpoint(getStoppingCriterion(), checkpoint.getState("stopping"));
+        SSJUtilities.setState(getRandomStream(), (long[]) checkpoint.getState("stream"));
+        SSJUtilities.setState(params.getRandomStream(), (long[]) checkpoint.getState("stream.params"));
+        for (Entry<String, ICheckpointable<?>> c : mCheckpointables.entrySet())
+            restoreCheckpoint(c.getValue(), checkpoint.getState(c.getKey()));
+
+        getProgress().iterationsFinished(checkpoint.getIteration());
+        mLastCheckpoint = checkpoint.getIteration();
+
+        List<S> solutions = new ArrayList<S>(checkpoint.getSolutions().size());
+        for (Serializable s : checkpoint.getSolutions())
+            solutions.add(mCheckpointCodec.decode(s));
+
+        getLogger().info("ALNS %s: Resumed from checkpoint (%s)", getProgress(), checkpoint);
+        return solutions;
+    }
+
+    /**
+     * Returns the checkpoint of an object if it implements {@link ICheckpointable}
+     */
+    private static Serializable getCheckpoint(Object object) {
+        return object instanceof ICheckpointable ? ((ICheckpointable<?>) object).getCheckpoint() : null;
+    }
+
+    /**
+     * Restore the state of an object if it implements {@link ICheckpointable} and {@code checkpoint} is not null
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static void restoreCheckpoint(Object object, Serializable checkpoint) {
+        if (checkpoint != null && object instanceof ICheckpointable)
+            ((ICheckpointable) object).restoreCheckpoint(checkpoint);
+    }
+
+    private List<S> toList(S best, S current) {
+        List<S> list = new ArrayList<S>(2);
+        list.add(best);
+        list.add(current);
+        return list;
+    }
+
     /**
      * This methods should be called when the ALNS will no longer be used. It stops the callback threads.
      */
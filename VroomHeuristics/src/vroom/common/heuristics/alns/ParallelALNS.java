@@ -6,6 +6,7 @@ package vroom.common.heuristics.alns;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ArrayBlockingQueue;
@@ -21,6 +22,8 @@ import vroom.common.utilities.BatchThreadPoolExecutor;
 import vroom.common.utilities.BatchThreadPoolExecutor.NameThreadFactory;
 import vroom.common.utilities.Stopwatch;
 import vroom.common.utilities.logging.Logging;
+import vroom.common.utilities.metrics.Gauge;
+import vroom.common.utilities.metrics.Metrics;
 import vroom.common.utilities.optimization.IComponentHandler;
 import vroom.common.utilities.optimization.IComponentHandler.Outcome;
 import vroom.common.utilities.optimization.IInstance;
@@ -118,68 +121,114 @@ public class ParallelALNS<S extends ISolution> extends AdaptiveLargeNeighborhood
 
         if (mSolPool.size() == 0)
             mSolPool.add(solution, true);
-        getProgress().start();
-        while (!getStoppingCriterion().isStopCriterionMet()) {
-            // Select a subset of solutions
-            Collection<S> solSubset = mSolPool.subset(mExecutor.getMaximumPoolSize(),
-                    getRandomStream());
-            // Collection<S> solSubset = mSolPool.subset(Math.max(1, mExecutor.getMaximumPoolSize() - 1),
-            // getRandomStream());
-            getLogger().debug(
-                    "ALNS %s: New iteration batch, stopping criterion: %s, solution pool size:%s",
-                    getProgress(), getStoppingCriterion(), mSolPool.size());
-
-            // Parallel forall
-            // - Batch of subprocesses
-            ArrayList<PALNSSubprocess> batch = new ArrayList<PALNSSubprocess>(solSubset.size());
-
-            // Add the current best solution
-            // if (mExecutor.getMaximumPoolSize() > 1)
-            // batch.add(new PALNSSubprocess(mSolPool.getBest(), params));
-            while (batch.size() < mExecutor.getMaximumPoolSize())
-                for (S sol : solSubset) {
-                    batch.add(new PALNSSubprocess(sol, params));
-                    if (batch.size() == mExecutor.getMaximumPoolSize())
-                        break;
-                }
 
-            // - Execute the subprocesses
-            Map<PALNSSubprocess, Future<S>> results = null;
-            try {
-                results = mExecutor.submitBatch(batch, false);
-            } catch (InterruptedException e) {
-                getLogger().fatalException("ParallelALNS.perfomLocalSearch", e);
-                Logging.awaitLogging(5000);
-                System.exit(1);
+        // Gauges are qualified with the instance and run as several pALNS can run concurrently
+        int runId = Metrics.newRunId();
+        Gauge poolSize = Metrics.register(new Gauge(Metrics.qualify("palns.pool_size", instance.getName(), runId)) {
+            @Override
+            public double getValue() {
+                return mSolPool.size();
             }
-            // - Synchronize with the results
-            synchronize();
+        });
+        Gauge queueSize = Metrics.register(new Gauge(Metrics.qualify("palns.results_queue", instance.getName(),
+                runId)) {
+            @Override
+            public double getValue() {
+                return mResultsQueue.size();
+            }
+        });
+
+        try {
+            getProgress().start();
+            if (isResuming()) {
+                mSolPool.clear();
+                for (S s : restore(params))
+                    mSolPool.add(s, true);
+            }
+            while (!getStoppingCriterion().isStopCriterionMet()) {
+                // Select a subset of solutions
+                Collection<S> solSubset = mSolPool.subset(mExecutor.getMaximumPoolSize(),
+                        getRandomStream());
+                // Collection<S> solSubset = mSolPool.subset(Math.max(1, mExecutor.getMaximumPoolSize() - 1),
+                // getRandomStream());
+                getLogger().debug(
+                        "ALNS %s: New iteration batch, stopping criterion: %s, solution pool size:%s",
+                        getProgress(), getStoppingCriterion(), mSolPool.size());
+
+                // Parallel forall
+                // - Batch of subprocesses
+                ArrayList<PALNSSubprocess> batch = new ArrayList<PALNSSubprocess>(solSubset.size());
+
+                // Add the current best solution
+                // if (mExecutor.getMaximumPoolSize() > 1)
+                // batch.add(new PALNSSubprocess(mSolPool.getBest(), params));
+                while (batch.size() < mExecutor.getMaximumPoolSize())
+                    for (S sol : solSubset) {
+                        batch.add(new PALNSSubprocess(sol, params));
+                        if (batch.size() == mExecutor.getMaximumPoolSize())
+                            break;
+                    }
 
-            for (Entry<PALNSSubprocess, Future<S>> r : results.entrySet()) {
+                // - Execute the subprocesses
+                Map<PALNSSubprocess, Future<S>> results = null;
                 try {
-                    r.getValue().get();
-                } catch (Exception e) {
-                    throw new IllegalStateException("pALNS subprocess terminated abnormally", e);
+                    results = mExecutor.submitBatch(batch, false);
+                } catch (InterruptedException e) {
+                    getLogger().fatalException("ParallelALNS.perfomLocalSearch", e);
+                    Logging.awaitLogging(5000);
+                    System.exit(1);
                 }
-                getSolPool().add(r.getKey().mSolution, true);
-            }
+                // - Synchronize with the results
+                synchronize();
 
-            // Update the number of iterations
-            getProgress().iterationsFinished(mItP * solSubset.size());
-            // Update the global stopping criterion
-            getStoppingCriterion().update(mItP * solSubset.size(), new Object[0]);
+                for (Entry<PALNSSubprocess, Future<S>> r : results.entrySet()) {
+                    try {
+                        r.getValue().get();
+                    } catch (Exception e) {
+                        throw new IllegalStateException("pALNS subprocess terminated abnormally", e);
+                    }
+                    getSolPool().add(r.getKey().mSolution, true);
+                }
 
-        }
-        getProgress().stop();
+                // Update the number of iterations
+                getProgress().iterationsFinished(mItP * solSubset.size());
+                // Update the global stopping criterion
+                getStoppingCriterion().update(mItP * solSubset.size(), new Object[0]);
 
-        setStopped();
-        getCallbacks().callbacks(
-                new ALNSCallbackEvent<S>(ALNSEventType.FINISHED, this, getTimer().readTimeMS(),
-                        getProgress().getIteration(), instance, mSolPool.getBest()));
+                if (isCheckpointDue())
+                    checkpoint(params, getPoolSolutions());
+            }
+            getProgress().stop();
+            if (getCheckpointWriter() != null)
+                checkpoint(params, getPoolSolutions());
+
+            setStopped();
+            getCallbacks().callbacks(
+                    new ALNSCallbackEvent<S>(ALNSEventType.FINISHED, this, getTimer().readTimeMS(),
+                            getProgress().getIteration(), instance, mSolPool.getBest()));
+
+            mExecutor.shutdownNow();
 
-        mExecutor.shutdownNow();
+            return mSolPool.getBest();
+        } finally {
+            Metrics.remove(poolSize);
+            Metrics.remove(queueSize);
+        }
+    }
 
-        return mSolPool.getBest();
+    /**
+     * Returns the solutions of the pool, the best solution being the first one
+     * 
+     * @return the solutions of the pool
+     */
+    private List<S> getPoolSolutions() {
+        S best = mSolPool.getBest();
+        List<S> solutions = new ArrayList<S>(mSolPool.size());
+        solutions.add(best);
+        for (S s : mSolPool.getSolutions())
+            if (s != best)
+                solutions.add(s);
+        return solutions;
     }
 
     /**
@@ -221,6 +270,8 @@ public class ParallelALNS<S extends ISolution> extends AdaptiveLargeNeighborhood
                 getAcceptanceCriterion().getImprovement(result.mCurrentSol, result.mTempSol),
                 result.mTime, result.mIteration, state);
 
+        recordIteration(result.mDestroy, result.mRepair, state, result.mTime);
+
         // Execute callbacks
         getCallbacks().callbacks(
                 new ALNSCallbackEvent<S>(ALNSEventType.REPAIRED, this, getTimer().readTimeMS(),
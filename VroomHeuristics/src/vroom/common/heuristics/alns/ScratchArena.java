@@ -0,0 +1,255 @@
+package vroom.common.heuristics.alns;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import vroom.common.utilities.StampedDoubleArray;
+import vroom.common.utilities.StampedIntSet;
+
+/**
+ * <code>ScratchArena</code> is a per-thread pool of scratch buffers from which {@link IDestroy} and {@link IRepair}
+ * implementations borrow the working data structures they need at each call.
+ * <p>
+ * Each buffer is identified by a {@link Slot}, usually declared as a <code>static final</code> constant by the
+ * component that uses it. A buffer borrowed from the {@linkplain #current() arena of the current thread} is only grown
+ * when a larger size is requested, and stamped structures are reset in constant time, so that steady-state ALNS
+ * iterations do not allocate. As arenas are thread-confined, components that are cloned per thread (e.g., in
+ * {@link ParallelALNS}) can share the same slots.
+ * </p>
+ * <p>
+ * A borrowed buffer remains valid until the same slot is borrowed again on the same thread: a component must therefore
+ * not use a slot that is also used by a component it calls. Buffers are not cleared when returned unless stated
+ * otherwise.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 3:21:06 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public final class ScratchArena {
+
+    /** The number of slots created so far */
+    private static final AtomicInteger           sSlotCount = new AtomicInteger();
+
+    /** The arena of each thread */
+    private static final ThreadLocal<ScratchArena> sArenas    = new ThreadLocal<ScratchArena>() {
+                                                                  @Override
+                                                                  protected ScratchArena initialValue() {
+                                                                      return new ScratchArena();
+                                                                  }
+                                                              };
+
+    /**
+     * Returns the arena of the current thread
+     * 
+     * @return the arena of the current thread
+     */
+    public static ScratchArena current() {
+        return sArenas.get();
+    }
+
+    /** The buffer of each slot */
+    private Object[] mBuffers;
+
+    private ScratchArena() {
+        mBuffers = new Object[Math.max(16, sSlotCount.get())];
+    }
+
+    /**
+     * Returns the buffer currently associated with a slot
+     */
+    private Object getBuffer(Slot slot) {
+        return slot.mIndex < mBuffers.length ? mBuffers[slot.mIndex] : null;
+    }
+
+    /**
+     * Associate a buffer with a slot
+     */
+    private void setBuffer(Slot slot, Object buffer) {
+        if (slot.mIndex >= mBuffers.length)
+            mBuffers = Arrays.copyOf(mBuffers, Math.max(slot.mIndex + 1, 2 * mBuffers.length));
+        mBuffers[slot.mIndex] = buffer;
+    }
+
+    /**
+     * Borrow an array of <code>int</code>
+     * 
+     * @param slot
+     *            the slot of the buffer
+     * @param length
+     *            the minimum length of the array
+     * @return an array of length at least {@code length}, with unspecified content
+     */
+    public int[] intArray(Slot slot, int length) {
+        int[] buffer = (int[]) getBuffer(slot);
+        if (buffer == null || buffer.length < length) {
+            buffer = new int[length];
+            setBuffer(slot, buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Borrow an array of <code>long</code>
+     * 
+     * @param slot
+     *            the slot of the buffer
+     * @param length
+     *            the minimum length of the array
+     * @return an array of length at least {@code length}, with unspecified content
+     */
+    public long[] longArray(Slot slot, int length) {
+        long[] buffer = (long[]) getBuffer(slot);
+        if (buffer == null || buffer.length < length) {
+            buffer = new long[length];
+            setBuffer(slot, buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Borrow an array of <code>double</code>
+     * 
+     * @param slot
+     *            the slot of the buffer
+     * @param length
+     *            the minimum length of the array
+     * @return an array of length at least {@code length}, with unspecified content
+     */
+    public double[] doubleArray(Slot slot, int length) {
+        double[] buffer = (double[]) getBuffer(slot);
+        if (buffer == null || buffer.length < length) {
+            buffer = new double[length];
+            setBuffer(slot, buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Borrow an array of objects.
+     * <p>
+     * Callers should set to <code>null</code> the entries they no longer need so that the arena does not retain
+     * references to stale objects.
+     * </p>
+     * 
+     * @param slot
+     *            the slot of the buffer
+     * @param type
+     *            the component type of the array
+     * @param length
+     *            the minimum length of the array
+     * @return an array of length at least {@code length}, with unspecified content
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T[] objectArray(Slot slot, Class<T> type, int length) {
+        T[] buffer = (T[]) getBuffer(slot);
+        if (buffer == null || buffer.length < length) {
+            buffer = (T[]) Array.newInstance(type, length);
+            setBuffer(slot, buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Borrow an empty {@link StampedIntSet}
+     * 
+     * @param slot
+     *            the slot of the buffer
+     * @param maxValue
+     *            the maximum value that will be contained in the set
+     * @return an empty set that can contain values up to {@code maxValue}
+     */
+    public StampedIntSet intSet(Slot slot, int maxValue) {
+        StampedIntSet buffer = (StampedIntSet) getBuffer(slot);
+        if (buffer == null) {
+            buffer = new StampedIntSet(maxValue);
+            setBuffer(slot, buffer);
+        } else {
+            buffer.ensureCapacity(maxValue);
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    /**
+     * Borrow a {@link StampedDoubleArray} in which no value is set
+     * 
+     * @param slot
+     *            the slot of the buffer
+     * @param length
+     *            the minimum length of the array
+     * @return an array of length at least {@code length} in which no value is set
+     */
+    public StampedDoubleArray stampedDoubleArray(Slot slot, int length) {
+        StampedDoubleArray buffer = (StampedDoubleArray) getBuffer(slot);
+        if (buffer == null) {
+            buffer = new StampedDoubleArray(length);
+            setBuffer(slot, buffer);
+        } else {
+            buffer.ensureCapacity(length);
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    /**
+     * Borrow an empty {@link ArrayList}
+     * 
+     * @param slot
+     *            the slot of the buffer
+     * @param capacity
+     *            the expected number of elements
+     * @return an empty list
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ArrayList<T> list(Slot slot, int capacity) {
+        ArrayList<T> buffer = (ArrayList<T>) getBuffer(slot);
+        if (buffer == null) {
+            buffer = new ArrayList<T>(capacity);
+            setBuffer(slot, buffer);
+        } else {
+            buffer.clear();
+            buffer.ensureCapacity(capacity);
+        }
+        return buffer;
+    }
+
+    /**
+     * <code>Slot</code> identifies a buffer in the {@link ScratchArena} of each thread.
+     * <p>
+     * A slot should always be used to borrow the same type of buffer.
+     * </p>
+     * <p>
+     * Creation date: Oct 19, 2026 - 3:21:06 PM
+     * 
+     * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+     *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+     *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+     * @version 1.0
+     */
+    public static final class Slot {
+        private final int    mIndex;
+        private final String mName;
+
+        /**
+         * Creates a new <code>Slot</code>
+         * 
+         * @param name
+         *            a name for this slot, used for debugging purposes
+         */
+        public Slot(String name) {
+            mIndex = sSlotCount.getAndIncrement();
+            mName = name;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s#%s", mName, mIndex);
+        }
+    }
+}
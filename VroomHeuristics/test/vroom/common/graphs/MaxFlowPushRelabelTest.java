@@ -0,0 +1,120 @@
+package vroom.common.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import vroom.common.utilities.graphs.CompleteGraph;
+
+public class MaxFlowPushRelabelTest {
+
+    int repetitions = 10;
+
+    /**
+     * Generate a random sparse graph, stored in both a {@link CompleteGraph} and a {@link MaxFlowPushRelabel}
+     */
+    private static MaxFlowPushRelabel randomGraph(Random rnd, CompleteGraph graph) {
+        int size = graph.getNodeCount();
+        MaxFlowPushRelabel mf = new MaxFlowPushRelabel(size, size);
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                double cap = rnd.nextDouble() < 0.3 ? rnd.nextDouble() * 2 : 0;
+                graph.setArcCapacity(i, j, cap);
+                if (cap > 0)
+                    mf.addEdge(i, j, cap);
+            }
+        }
+        return mf;
+    }
+
+    @Test
+    public void testMaxFlow() {
+        Random rnd = new Random(0);
+
+        for (int r = 0; r < repetitions; r++) {
+            int size = (rnd.nextInt(3) + 1) * 10;
+            CompleteGraph graph = new CompleteGraph(true, size);
+            MaxFlowPushRelabel mf = randomGraph(rnd, graph);
+            MaxFlowFordFulkerson ff = new MaxFlowFordFulkerson(graph);
+
+            for (int k = 0; k < 20; k++) {
+                int s = rnd.nextInt(size);
+                int t = rnd.nextInt(size - 1);
+                if (t >= s)
+                    t++;
+
+                ff.reset();
+                double expected = ff.maxFlow(s, t);
+                double flow = mf.maxFlow(s, t);
+                assertEquals(String.format("Max flow (%s,%s)", s, t), expected, flow, 1e-8);
+
+                // The min cut capacity should be equal to the max flow
+                assertTrue(mf.isOnSourceSide(s));
+                assertFalse(mf.isOnSourceSide(t));
+                double cut = 0;
+                for (int i = 0; i < size; i++) {
+                    for (int j = 0; j < size; j++) {
+                        if (i != j && mf.isOnSourceSide(i) && !mf.isOnSourceSide(j))
+                            cut += graph.getArcCapacity(i, j);
+                    }
+                }
+                assertEquals(String.format("Min cut (%s,%s)", s, t), flow, cut, 1e-8);
+            }
+        }
+    }
+
+    @Test
+    public void testGomoryHuTree() {
+        Random rnd = new Random(1);
+
+        for (int r = 0; r < repetitions; r++) {
+            int size = (rnd.nextInt(3) + 1) * 10;
+            CompleteGraph graph = new CompleteGraph(true, size);
+            MaxFlowPushRelabel mf = randomGraph(rnd, graph);
+            MaxFlowFordFulkerson ff = new MaxFlowFordFulkerson(graph);
+
+            GomoryHuTree tree = new GomoryHuTree(mf);
+            tree.build();
+
+            for (int s = 0; s < size; s++) {
+                for (int t = s + 1; t < size; t++) {
+                    // Lightest edge on the tree path between s and t
+                    boolean[] ancestors = new boolean[size];
+                    for (int v = s; v != -1; v = tree.getParent(v))
+                        ancestors[v] = true;
+                    double min = Double.POSITIVE_INFINITY;
+                    int v = t;
+                    while (!ancestors[v]) {
+                        min = Math.min(min, tree.getCutValue(v));
+                        v = tree.getParent(v);
+                    }
+                    for (int u = s; u != v; u = tree.getParent(u))
+                        min = Math.min(min, tree.getCutValue(u));
+
+                    ff.reset();
+                    assertEquals(String.format("Min cut (%s,%s)", s, t), ff.maxFlow(s, t), min, 1e-8);
+                }
+            }
+
+            // Subtrees are the sides of the tree edges cuts
+            for (int i = 1; i < size; i++) {
+                boolean[] subtree = new boolean[size];
+                tree.getSubtree(i, subtree);
+                assertTrue(subtree[i]);
+                assertFalse(subtree[0]);
+                double cut = 0;
+                for (int a = 0; a < size; a++) {
+                    for (int b = 0; b < size; b++) {
+                        if (a != b && subtree[a] && !subtree[b])
+                            cut += graph.getArcCapacity(a, b);
+                    }
+                }
+                assertEquals("Cut of subtree " + i, tree.getCutValue(i), cut, 1e-8);
+            }
+        }
+    }
+}
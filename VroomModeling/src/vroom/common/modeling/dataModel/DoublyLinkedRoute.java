@@ -12,8 +12,11 @@ import vroom.common.utilities.Utilities;
  * The Class <code>DoublyLinkedRoute</code> is an extension of {@link RouteBase} that stores a route in the form of a
  * permutation.
  * <ul>
- * <li>{@link #getNodePosition(INodeVisit)} : O(n)</li>
+ * <li>{@link #getNodePosition(INodeVisit)} : O(1)</li>
+ * <li>{@link #getNodeAt(int)} : O(1)</li>
  * </ul>
+ * Positions are stored in an index that is invalidated by any modification of the route and lazily rebuilt in O(n)
+ * on the next positional access, so that sequences of lookups between two moves are O(1).
  * <p>
  * <p>
  * <b>WARNING: This implementation needs debugging and refactoring, in particular it does not support repeated depot id,
@@ -57,6 +60,18 @@ public class DoublyLinkedRoute extends RouteBase {
     /** The max id of the parent instance nodevisits */
     private final int          mOriginalMaxId;
 
+    /** The id of the node at each position */
+    private final int[]        mIdAt;
+
+    /** The position of each node, {@code -1} if the node is not in this route */
+    private final int[]        mPositionOf;
+
+    /** The number of nodes in the position index */
+    private int                mPositionCount;
+
+    /** {@code true} if the position index is up to date */
+    private boolean            mPositionsValid;
+
     /**
      * Instantiates a new doubly linked tsp route.
      * 
@@ -79,6 +94,8 @@ public class DoublyLinkedRoute extends RouteBase {
         mSucc = new int[maxId];
         mCumulatedCost = new double[maxId];
         mNodes = new INodeVisit[maxId];
+        mIdAt = new int[maxId];
+        mPositionOf = new int[maxId];
 
         Arrays.fill(mPred, UNDEFINED);
         Arrays.fill(mSucc, UNDEFINED);
@@ -146,6 +163,9 @@ public class DoublyLinkedRoute extends RouteBase {
         this.mLength = original.mLength;
 
         mOriginalMaxId = original.mOriginalMaxId;
+
+        this.mIdAt = new int[original.mIdAt.length];
+        this.mPositionOf = new int[original.mPositionOf.length];
     }
 
     /*
@@ -156,15 +176,43 @@ public class DoublyLinkedRoute extends RouteBase {
      */
     @Override
     public int getNodePosition(INodeVisit node) {
-        // Complexity : O(n)
-        int cursor = 0;
-        int pred = node.getID();
+        // Complexity : O(1) (O(n) if the route was changed since the last positional access)
+        if (isThreadConfined()) {
+            updatePositions();
+            return mPositionOf[node.getID()];
+        }
+        // The index is shared by all readers: rebuild and read it under the route monitor
+        synchronized (this) {
+            updatePositions();
+            return mPositionOf[node.getID()];
+        }
+    }
 
-        while (this.mPred[pred] != UNDEFINED) {
-            pred = this.mPred[pred];
-            cursor++;
+    /**
+     * Rebuild the position index if the route was modified since it was last built, should only be called by the
+     * thread to which this route is confined or while holding the route monitor
+     */
+    private void updatePositions() {
+        if (mPositionsValid)
+            return;
+        Arrays.fill(mPositionOf, -1);
+        int pos = 0;
+        int node = mFirst;
+        while (node != UNDEFINED) {
+            mIdAt[pos] = node;
+            mPositionOf[node] = pos;
+            pos++;
+            node = this.mSucc[node];
         }
-        return cursor;
+        mPositionCount = pos;
+        mPositionsValid = true;
+    }
+
+    /**
+     * Invalidate the position index, should be called by all methods that modify the sequence of nodes
+     */
+    private void invalidatePositions() {
+        mPositionsValid = false;
     }
 
     /*
@@ -205,25 +253,27 @@ public class DoublyLinkedRoute extends RouteBase {
      * @return the node id at
      */
     private int getNodeIdAt(int index) {
-        if (index < length() / 2) {
-            int cursor = 0;
-            int node = mFirst;
-            while (cursor < index) {
-                cursor++;
-                node = this.mSucc[node];
-            }
-            return node;
-        } else {
-            int cursor = length() - 1;
-            int node = mLast;
-            while (cursor > index) {
-                cursor--;
-                node = this.mPred[node];
-            }
-            return node;
+        if (isThreadConfined())
+            return getNodeIdAtIndexed(index);
+        synchronized (this) {
+            return getNodeIdAtIndexed(index);
         }
     }
 
+    /**
+     * Returns the id of the node at a given position using the position index
+     * 
+     * @param index
+     *            the index
+     * @return the node id at {@code index}
+     * @see #updatePositions()
+     */
+    private int getNodeIdAtIndexed(int index) {
+        updatePositions();
+        // Positions past the end are mapped to the last node
+        return index < mPositionCount ? mIdAt[index] : mLast;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -279,6 +329,7 @@ public class DoublyLinkedRoute extends RouteBase {
 
         mLength++;
 
+        invalidatePositions();
         return true;
     }
 
@@ -331,6 +382,7 @@ public class DoublyLinkedRoute extends RouteBase {
             this.mPred[current] = UNDEFINED;
             this.mSucc[current] = UNDEFINED;
         }
+        invalidatePositions();
         return new INodeVisit[] { getNode(this.mPred[node.getID()]), getNode(current),
                 getNode(this.mSucc[node.getID()]) };
     }
@@ -355,7 +407,9 @@ public class DoublyLinkedRoute extends RouteBase {
 
         this.mPred[node] = UNDEFINED;
         this.mSucc[node] = UNDEFINED;
+        mLength--;
 
+        invalidatePositions();
         return new INodeVisit[] { getNode(this.mPred[node]), getNode(node),
                 getNode(this.mSucc[node]) };
     }
@@ -366,28 +420,15 @@ public class DoublyLinkedRoute extends RouteBase {
      * @see vroom.common.modeling.dataModel.RouteBase#extractSubrouteImplem(int,
      * int)
      */
+    @SuppressWarnings("unchecked")
     @Override
     protected Object[] extractSubrouteImplem(int start, int end) {
-        List<INodeVisit> subroute = new ArrayList<INodeVisit>(end - start + 1);
-
-        int node = getNodeIdAt(start);
-        int pred = getPred(node);
-        int succ = getSucc(node);
-
-        int index = start;
-
-        while (index <= end) {
-            subroute.add(getNode(node));
-            succ = getSucc(node);
-            this.mPred[node] = UNDEFINED;
-            this.mSucc[node] = UNDEFINED;
-            node = succ;
-            index++;
-        }
-        this.mSucc[pred] = succ;
-        this.mPred[succ] = pred;
+        DoublyLinkedRoute subroute = new DoublyLinkedRoute(getParentSolution(), getVehicle());
 
-        return new Object[] { getNode(pred), subroute, getNode(succ) };
+        Object[] r = extractNodesImplem(start, end);
+        subroute.appendNodes((List<INodeVisit>) r[1]);
+        r[1] = subroute;
+        return r;
     }
 
     /*
@@ -407,16 +448,25 @@ public class DoublyLinkedRoute extends RouteBase {
         int cursor = start;
 
         while (cursor <= end && current != UNDEFINED) {
+            nodes.add(getNode(current));
             next = this.mSucc[current];
             this.mPred[current] = UNDEFINED;
             this.mSucc[current] = UNDEFINED;
             current = next;
             cursor++;
+            mLength--;
         }
 
-        this.mSucc[predecessor] = next;
-        this.mPred[next] = predecessor;
+        if (predecessor != UNDEFINED)
+            this.mSucc[predecessor] = next;
+        else
+            mFirst = next;
+        if (next != UNDEFINED)
+            this.mPred[next] = predecessor;
+        else
+            mLast = predecessor;
 
+        invalidatePositions();
         return new Object[] { getNode(predecessor), nodes, getNode(next) };
     }
 
@@ -429,6 +479,8 @@ public class DoublyLinkedRoute extends RouteBase {
     @Override
     protected INodeVisit[] removeImplem(INodeVisit node) {
         int n = node.getID();
+        if (!contains(n))
+            return null;
         int pred = this.mPred[n];
         int succ = this.mSucc[n];
 
@@ -439,7 +491,9 @@ public class DoublyLinkedRoute extends RouteBase {
 
         this.mPred[n] = UNDEFINED;
         this.mSucc[n] = UNDEFINED;
+        mLength--;
 
+        invalidatePositions();
         return new INodeVisit[] { getNode(pred), getNode(succ) };
     }
 
@@ -459,7 +513,9 @@ public class DoublyLinkedRoute extends RouteBase {
 
         this.mPred[current] = nodeId;
         this.mSucc[nodeId] = current;
+        mLength++;
 
+        invalidatePositions();
         return new INodeVisit[] { getPredecessor(node), getSuccessor(node) };
     }
 
@@ -498,7 +554,9 @@ public class DoublyLinkedRoute extends RouteBase {
 
         this.mPred[current] = last;
         this.mSucc[last] = current;
+        mLength += subroute.size();
 
+        invalidatePositions();
         return r;
     }
 
@@ -525,12 +583,19 @@ public class DoublyLinkedRoute extends RouteBase {
             index++;
         }
 
-        // Relink the subroute extremities
+        // Relink the subroute extremities: pred -> last -> ... -> first -> succ
         this.mSucc[first] = succ;
-        this.mPred[succ] = first;
-        this.mSucc[last] = pred;
-        this.mPred[pred] = last;
+        if (succ != UNDEFINED)
+            this.mPred[succ] = first;
+        else
+            mLast = first;
+        this.mPred[last] = pred;
+        if (pred != UNDEFINED)
+            this.mSucc[pred] = last;
+        else
+            mFirst = last;
 
+        invalidatePositions();
         return new INodeVisit[] { getNode(pred), getNode(first), getNode(last), getNode(succ) };
     }
 
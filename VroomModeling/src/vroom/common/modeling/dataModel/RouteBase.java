@@ -40,12 +40,67 @@ public abstract class RouteBase implements IRoute<INodeVisit> {
     /** The m cap changed. */
     private boolean        mCapChanged  = true;
 
+    /**
+     * {@code true} if this route is only accessed by a single thread, in which case monitors are not acquired
+     */
+    private volatile boolean mThreadConfined;
+
     /**
      * Sets the changed flags to true.
      */
-    protected synchronized final void setChanged() {
-        mCostChanged = true;
-        mCapChanged = true;
+    protected final void setChanged() {
+        if (mThreadConfined) {
+            mCostChanged = true;
+            mCapChanged = true;
+        } else {
+            synchronized (this) {
+                mCostChanged = true;
+                mCapChanged = true;
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if this route is confined to a single thread
+     * 
+     * @return {@code true} if this route is confined to a single thread
+     * @see #setThreadConfined(boolean)
+     */
+    public boolean isThreadConfined() {
+        return mThreadConfined;
+    }
+
+    /**
+     * Sets whether this route is confined to a single thread.
+     * <p>
+     * When confined, accessors such as {@link #getCost()}, {@link #getLoad()} or {@link #getNodeAt(int)} do not
+     * acquire the route monitor, which removes the synchronization overhead from single threaded local searches. The
+     * route should not be shared between threads while it is confined, and should be handed over to another thread
+     * after a call to this method (for instance through a concurrent queue or executor).
+     * </p>
+     * 
+     * @param confined
+     *            {@code true} if this route will only be accessed by a single thread
+     */
+    public void setThreadConfined(boolean confined) {
+        synchronized (this) {
+            mThreadConfined = confined;
+        }
+    }
+
+    /**
+     * Sets whether the routes of a solution are confined to a single thread
+     * 
+     * @param solution
+     *            the solution which routes will be confined or released
+     * @param confined
+     *            {@code true} if the routes will only be accessed by a single thread
+     * @see #setThreadConfined(boolean)
+     */
+    public static void setThreadConfined(IVRPSolution<?> solution, boolean confined) {
+        for (IRoute<?> route : solution)
+            if (route instanceof RouteBase)
+                ((RouteBase) route).setThreadConfined(confined);
     }
 
     /** The cost. */
@@ -156,10 +211,13 @@ public abstract class RouteBase implements IRoute<INodeVisit> {
      * @see vroom.common.modeling.dataModel.Route#getCost()
      */
     @Override
-    public synchronized final double getCost() {
+    public final double getCost() {
         // calculateCost(false);
-
-        return mCost;
+        if (mThreadConfined)
+            return mCost;
+        synchronized (this) {
+            return mCost;
+        }
     }
 
     /*
@@ -195,8 +253,14 @@ public abstract class RouteBase implements IRoute<INodeVisit> {
      * @see vroom.common.modeling.dataModel.Route#updateCost(double)
      */
     @Override
-    public final synchronized void updateCost(double delta) {
-        mCost += delta;
+    public final void updateCost(double delta) {
+        if (mThreadConfined) {
+            mCost += delta;
+        } else {
+            synchronized (this) {
+                mCost += delta;
+            }
+        }
     }
 
     /*
@@ -205,9 +269,9 @@ public abstract class RouteBase implements IRoute<INodeVisit> {
      * @see vroom.common.modeling.dataModel.Route#getRemainingCapacity()
      */
     @Override
-    public synchronized final double getLoad() {
+    public final double getLoad() {
         // calculateLoad(false);
-        return mLoads[0];
+        return getLoad(0);
     }
 
     /*
@@ -216,9 +280,13 @@ public abstract class RouteBase implements IRoute<INodeVisit> {
      * @see vroom.common.modeling.dataModel.Route#getRemainingCapacity(int)
      */
     @Override
-    public synchronized final double getLoad(int product) {
+    public final double getLoad(int product) {
         // calculateLoad(false);
-        return mLoads[product];
+        if (mThreadConfined)
+            return mLoads[product];
+        synchronized (this) {
+            return mLoads[product];
+        }
     }
 
     /*
@@ -227,9 +295,13 @@ public abstract class RouteBase implements IRoute<INodeVisit> {
      * @see vroom.common.modeling.dataModel.Route#getRemainingCapacities()
      */
     @Override
-    public synchronized final double[] getLoads() {
+    public final double[] getLoads() {
         // calculateLoad(false);
-        return Arrays.copyOf(mLoads, mLoads.length);
+        if (mThreadConfined)
+            return Arrays.copyOf(mLoads, mLoads.length);
+        synchronized (this) {
+            return Arrays.copyOf(mLoads, mLoads.length);
+        }
     }
 
     /*
@@ -240,7 +312,22 @@ public abstract class RouteBase implements IRoute<INodeVisit> {
      * )
      */
     @Override
-    public final synchronized void calculateLoad(boolean force) {
+    public final void calculateLoad(boolean force) {
+        if (mThreadConfined) {
+            calculateLoadImplem(force);
+        } else {
+            synchronized (this) {
+                calculateLoadImplem(force);
+            }
+        }
+    }
+
+    /**
+     * Implementation of {@link #calculateLoad(boolean)}
+     * 
+     * @param force
+     */
+    private void calculateLoadImplem(boolean force) {
         if (force || mCapChanged) {
             for (int i = 0; i < mLoads.length; i++) {
                 mLoads[i] = 0;
@@ -264,8 +351,14 @@ public abstract class RouteBase implements IRoute<INodeVisit> {
      *            the value to be added to the currently stored load
      */
     @Override
-    public final synchronized void updateLoad(int product, double delta) {
-        mLoads[product] += delta;
+    public final void updateLoad(int product, double delta) {
+        if (mThreadConfined) {
+            mLoads[product] += delta;
+        } else {
+            synchronized (this) {
+                mLoads[product] += delta;
+            }
+        }
     }
 
     /**
@@ -275,15 +368,17 @@ public abstract class RouteBase implements IRoute<INodeVisit> {
      * @param nodes
      *            the nodes
      */
-    final public synchronized void updateLoad(boolean isInsertion, INodeVisit... nodes) {
+    final public void updateLoad(boolean isInsertion, INodeVisit... nodes) {
         double sign = isInsertion ? 1 : -1;
-        for (INodeVisit n : nodes) {
-            for (int p = 0; p < mLoads.length; p++) {
-                double demand = n.getDemand(p);
-                updateLoad(p, sign * demand);
+        if (mThreadConfined) {
+            for (INodeVisit n : nodes)
+                updateLoadImplem(sign, n);
+        } else {
+            synchronized (this) {
+                for (INodeVisit n : nodes)
+                    updateLoadImplem(sign, n);
             }
         }
-
     }
 
     /**
@@ -293,15 +388,30 @@ public abstract class RouteBase implements IRoute<INodeVisit> {
      * @param nodes
      *            the nodes
      */
-    final public synchronized void updateLoad(boolean isInsertion, Collection<? extends INodeVisit> nodes) {
+    final public void updateLoad(boolean isInsertion, Collection<? extends INodeVisit> nodes) {
         double sign = isInsertion ? 1 : -1;
-        for (INodeVisit n : nodes) {
-            for (int p = 0; p < mLoads.length; p++) {
-                double demand = n.getDemand(p);
-                updateLoad(p, sign * demand);
+        if (mThreadConfined) {
+            for (INodeVisit n : nodes)
+                updateLoadImplem(sign, n);
+        } else {
+            synchronized (this) {
+                for (INodeVisit n : nodes)
+                    updateLoadImplem(sign, n);
             }
         }
+    }
 
+    /**
+     * Implementation of {@link #updateLoad(boolean, INodeVisit...)}, the caller is responsible for the synchronization
+     * 
+     * @param sign
+     *            {@code 1} for an insertion, {@code -1} for a removal
+     * @param node
+     *            the inserted or removed node
+     */
+    private void updateLoadImplem(double sign, INodeVisit node) {
+        for (int p = 0; p < mLoads.length; p++)
+            mLoads[p] += sign * node.getDemand(p);
     }
 
     /*
@@ -330,9 +440,23 @@ public abstract class RouteBase implements IRoute<INodeVisit> {
      * @see vroom.common.modeling.dataModel.Route#getNodeAt(int)
      */
     @Override
-    public synchronized INodeVisit getNodeAt(int index) {
+    public INodeVisit getNodeAt(int index) {
+        if (mThreadConfined)
+            return getNodeAtChecked(index);
+        synchronized (this) {
+            return getNodeAtChecked(index);
+        }
+    }
+
+    /**
+     * Check {@code  index} and return the node at this position
+     * 
+     * @param index
+     * @return the node at position {@code  index}
+     */
+    private INodeVisit getNodeAtChecked(int index) {
         // Check indices
-        String e = checkIndex(index, "index", false);
+        String e = checkIndexImplem(index, "index", false);
         if (e != null) {
             throw new IllegalArgumentException(e);
         }
@@ -356,7 +480,22 @@ public abstract class RouteBase implements IRoute<INodeVisit> {
      * @see vroom.common.modeling.dataModel.Route#subroute(int, int)
      */
     @Override
-    public synchronized List<INodeVisit> subroute(int start, int end) {
+    public List<INodeVisit> subroute(int start, int end) {
+        if (mThreadConfined)
+            return subrouteChecked(start, end);
+        synchronized (this) {
+            return subrouteChecked(start, end);
+        }
+    }
+
+    /**
+     * Check the indices and return the subroute between {@code  start} and {@code  end}
+     * 
+     * @param start
+     * @param end
+     * @return the subroute between {@code  start} and {@code  end}
+     */
+    private List<INodeVisit> subrouteChecked(int start, int end) {
         // Check indices
         String e = checkSequenceIndexes(start, "start", end, "end", false);
         if (e != null) {
@@ -506,7 +645,22 @@ public abstract class RouteBase implements IRoute<INodeVisit> {
      * vroom.common.modeling.dataModel.INodeVisit)
      */
     @Override
-    public synchronized final INodeVisit setNodeAt(int index, INodeVisit node) {
+    public final INodeVisit setNodeAt(int index, INodeVisit node) {
+        if (mThreadConfined)
+            return setNodeAtChecked(index, node);
+        synchronized (this) {
+            return setNodeAtChecked(index, node);
+        }
+    }
+
+    /**
+     * Check {@code  index} and set the node at this position
+     * 
+     * @param index
+     * @param node
+     * @return the node previously at position {@code  index}
+     */
+    private INodeVisit setNodeAtChecked(int index, INodeVisit node) {
         String e = checkIndex(index, "index", true);
         if (e != null) {
             throw new IllegalArgumentException(e);
@@ -1086,9 +1240,21 @@ public abstract class RouteBase implements IRoute<INodeVisit> {
      *            <code>true</code> if <code>index</code> can take the value of length (used in set* and insert methods)
      * @return a String describing the detected error if any, otherwise
      */
-    synchronized String checkIndex(int index, String argName, boolean allowLength) {
-        if (!(allowLength && index == length()) && (index < 0 || index >= length())) {
-            return String.format("%1$s is out of range (%1$s=%2$s, length=%3$s)", argName, index, length());
+    String checkIndex(int index, String argName, boolean allowLength) {
+        if (mThreadConfined)
+            return checkIndexImplem(index, argName, allowLength);
+        synchronized (this) {
+            return checkIndexImplem(index, argName, allowLength);
+        }
+    }
+
+    /**
+     * Implementation of {@link #checkIndex(int, String, boolean)}, the caller is responsible for the synchronization
+     */
+    private String checkIndexImplem(int index, String argName, boolean allowLength) {
+        int length = length();
+        if (!(allowLength && index == length) && (index < 0 || index >= length)) {
+            return String.format("%1$s is out of range (%1$s=%2$s, length=%3$s)", argName, index, length);
         } else {
             return null;
         }
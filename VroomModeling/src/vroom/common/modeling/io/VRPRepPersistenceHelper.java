@@ -6,8 +6,10 @@ package vroom.common.modeling.io;
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import javax.xml.bind.JAXBException;
 
@@ -18,19 +20,18 @@ import vroom.common.modeling.dataModel.IVRPInstance;
 import vroom.common.modeling.dataModel.IVRPRequest;
 import vroom.common.modeling.dataModel.StaticInstance;
 import vroom.common.modeling.dataModel.VehicleRoutingProblemDefinition;
+import vroom.common.modeling.dataModel.attributes.Duration;
 import vroom.common.modeling.dataModel.attributes.ILocation;
 import vroom.common.modeling.dataModel.attributes.PointLocation;
+import vroom.common.modeling.dataModel.attributes.RequestAttributeKey;
+import vroom.common.modeling.dataModel.attributes.SimpleTimeWindow;
 import vroom.common.modeling.util.CostCalculationDelegate;
 import vroom.common.modeling.util.EuclidianDistance;
-import vroom.common.modeling.vrprep.Demand;
 import vroom.common.modeling.vrprep.Instance;
-import vroom.common.modeling.vrprep.Instance.Fleet.Vehicle;
 import vroom.common.modeling.vrprep.Instance.Info;
-import vroom.common.modeling.vrprep.Instance.Network.Nodes.Node;
-import vroom.common.modeling.vrprep.Instance.Requests.Request;
-import vroom.common.modeling.vrprep.Location;
 import vroom.common.modeling.vrprep.VRPRepFactory;
 import vroom.common.modeling.vrprep.VRPRepJAXBUtilities;
+import vroom.common.modeling.vrprep.VRPRepStreamReader;
 import vroom.common.utilities.GeoTools.CoordinateSytem;
 import vroom.common.utilities.logging.Logging;
 
@@ -68,15 +69,22 @@ public class VRPRepPersistenceHelper implements IPersistenceHelper<File> {
         mDefaultInfo = mFactory.createInstanceInfo("Unknown", "na", "", "na", "");
     }
 
+    /**
+     * Reads an instance from a VRPRep file.
+     * <p>
+     * The file is parsed in a single pass with a {@link VRPRepStreamReader}, which avoids building the intermediate
+     * JAXB object model
+     * </p>
+     */
     @Override
     public IVRPInstance readInstance(File input, Object... params) throws Exception {
-        Instance vrpIns = VRPRepJAXBUtilities.readInstance(input);
+        VRPRepStreamReader vrpIns = VRPRepStreamReader.read(input);
 
         VehicleRoutingProblemDefinition routingProblem = convertProbDef(vrpIns);
         List<Depot> depots = convertDepotList(vrpIns);
         Fleet<?> fleet = convertFleet(vrpIns);
         CostCalculationDelegate costHelper = convertCostDel(vrpIns);
-        IVRPInstance instance = new StaticInstance(vrpIns.getInfo().getName(), 0, fleet, depots,
+        IVRPInstance instance = new StaticInstance(vrpIns.getName(), 0, fleet, depots,
                 routingProblem, costHelper);
 
         instance.addRequests(convertRequests(vrpIns));
@@ -86,59 +94,46 @@ public class VRPRepPersistenceHelper implements IPersistenceHelper<File> {
         return instance;
     }
 
-    private Collection<IVRPRequest> convertRequests(Instance vrpIns) {
+    private Collection<IVRPRequest> convertRequests(VRPRepStreamReader vrpIns) {
+        Map<Integer, VRPRepStreamReader.Node> nodes = new HashMap<>();
+        for (VRPRepStreamReader.Node n : vrpIns.getNodes())
+            nodes.put(n.getId(), n);
+
         List<IVRPRequest> requests = new LinkedList<>();
-        for (Request r : vrpIns.getRequests().getRequest()) {
-            IVRPRequest req = new vroom.common.modeling.dataModel.Request(r.getId().intValue(),
-                    convertNode(findNode(vrpIns, r.getNode().intValue())));
-
-            double demands[] = new double[r.getDemand().size()];
-            int i = 0;
-            for (Demand d : r.getDemand()) {
-                demands[i++] = Double.valueOf((String) d.getContent().get(0));
-            }
-            req.setDemands(demands);
+        for (VRPRepStreamReader.Request r : vrpIns.getRequests()) {
+            VRPRepStreamReader.Node n = nodes.get(r.getNode());
+            if (n == null)
+                throw new IllegalStateException("Unknown node " + r.getNode() + " for request "
+                        + r.getId());
+            IVRPRequest req = new vroom.common.modeling.dataModel.Request(r.getId(),
+                    new vroom.common.modeling.dataModel.Node(n.getId(), convertLocation(n)));
+
+            req.setDemands(r.getDemands());
+
+            if (r.hasTimeWindow())
+                req.setAttribute(RequestAttributeKey.TIME_WINDOW,
+                        new SimpleTimeWindow(r.getTWStart(), r.getTWEnd()));
+            if (r.getServiceTime() > 0)
+                req.setAttribute(RequestAttributeKey.SERVICE_TIME,
+                        new Duration(r.getServiceTime()));
 
             requests.add(req);
         }
         return requests;
     }
 
-    private Node findNode(Instance vrpIns, int id) {
-        for (Node n : vrpIns.getNetwork().getNodes().getNode()) {
-            if (n.getId().intValue() == id)
-                return n;
-        }
-        throw new IllegalStateException();
-    }
-
-    private vroom.common.modeling.dataModel.Node convertNode(Node n) {
-        return new vroom.common.modeling.dataModel.Node(n.getId().intValue(),
-                convertLocation(n.getLocation()));
-    }
-
-    private CostCalculationDelegate convertCostDel(Instance vrpIns) {
+    private CostCalculationDelegate convertCostDel(VRPRepStreamReader vrpIns) {
         return new EuclidianDistance();
     }
 
-    private Fleet<?> convertFleet(Instance vrpIns) {
-        // Fleet<vroom.common.modeling.dataModel.Vehicle> fleet = Fleet.
+    private Fleet<?> convertFleet(VRPRepStreamReader vrpIns) {
         List<vroom.common.modeling.dataModel.Vehicle> vehicles = new LinkedList<>();
         int id = 0;
-        for (Vehicle v : vrpIns.getFleet().getVehicle()) {
-            int n = v.getNumber().intValue();
-            double[] capacities = new double[v.getCapacity().size()];
-            for (int i = 0; i < capacities.length; i++) {
-                capacities[i] = v.getCapacity().get(i);
-            }
-
-            double fixedCost = v.getFixedCost().isEmpty() ? 0 : v.getFixedCost().get(0)
-                    .doubleValue();
-            double varCost = v.getVariableCost().isEmpty() ? 1 : v.getVariableCost().get(0)
-                    .doubleValue();
+        for (VRPRepStreamReader.Vehicle v : vrpIns.getVehicles()) {
+            int n = v.getNumber();
 
             vroom.common.modeling.dataModel.Vehicle veh = new vroom.common.modeling.dataModel.Vehicle(
-                    id, "veh" + id, fixedCost, varCost, 1, capacities);
+                    id, "veh" + id, v.getFixedCost(), v.getVariableCost(), 1, v.getCapacities());
             if (n < 0)
                 return Fleet.newUnlimitedFleet(veh);
             else if (n > 1)
@@ -151,38 +146,30 @@ public class VRPRepPersistenceHelper implements IPersistenceHelper<File> {
         return Fleet.newHeterogenousFleet(vehicles);
     }
 
-    private List<Depot> convertDepotList(Instance vrpIns) {
+    private List<Depot> convertDepotList(VRPRepStreamReader vrpIns) {
         List<Depot> depots = new LinkedList<>();
-        for (Node n : vrpIns.getNetwork().getNodes().getNode()) {
-            if (n.getType().intValue() == 0) {
-                depots.add(new Depot(n.getId().intValue(), convertLocation(n.getLocation())));
+        for (VRPRepStreamReader.Node n : vrpIns.getNodes()) {
+            if (n.getType() == 0) {
+                depots.add(new Depot(n.getId(), convertLocation(n)));
             }
         }
         return depots;
     }
 
-    private ILocation convertLocation(Location location) {
-        if (location.getEuclidean() != null) {
-            double x = location.getEuclidean().getCx();
-            double y = location.getEuclidean().getCy();
-            // Double z = location.getEuclidean().getCz();
-
-            return new PointLocation(x, y);
-        } else if (location.getGPSCoordinates() != null) {
-            double x = location.getGPSCoordinates().getLat();
-            double y = location.getGPSCoordinates().getLon();
-            // Double z = location.getEuclidean().getCz();
-
-            return new PointLocation(CoordinateSytem.LAT_LON_DEC_DEG, x, y);
-        }
-        return null;
+    private ILocation convertLocation(VRPRepStreamReader.Node node) {
+        if (Double.isNaN(node.getX()))
+            return null;
+        else if (node.isGPS())
+            return new PointLocation(CoordinateSytem.LAT_LON_DEC_DEG, node.getX(), node.getY());
+        else
+            return new PointLocation(node.getX(), node.getY());
     }
 
-    private VehicleRoutingProblemDefinition convertProbDef(Instance vrpIns) {
+    private VehicleRoutingProblemDefinition convertProbDef(VRPRepStreamReader vrpIns) {
         VehicleRoutingProblemDefinition def = VehicleRoutingProblemDefinition.VRP;
         try {
             def = (VehicleRoutingProblemDefinition) VehicleRoutingProblemDefinition.class.getField(
-                    vrpIns.getInfo().getProblem()).get(null);
+                    vrpIns.getProblem()).get(null);
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -3,12 +3,17 @@
  */
 package vroom.common.modeling.vrprep;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -21,6 +26,10 @@ import javax.xml.bind.Unmarshaller;
 /**
  * The class <code>VRPRepUtilities</code> contains utility methods to read/write instances in xml and compressed formats
  * <p>
+ * The {@link JAXBContext} is created once and shared, as it is thread safe and expensive to build. Files with the
+ * {@code .zip} or {@code .gz} suffix are transparently (de)compressed.
+ * </p>
+ * <p>
  * Creation date: Jun 22, 2012 - 4:07:58 PM
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
@@ -30,6 +39,36 @@ import javax.xml.bind.Unmarshaller;
  */
 public class VRPRepJAXBUtilities {
 
+    /** The size of the buffers used for file IO */
+    public static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Lazy holder for the shared {@link JAXBContext}
+     */
+    private static class ContextHolder {
+        private static final JAXBContext CONTEXT;
+        static {
+            try {
+                CONTEXT = JAXBContext.newInstance(Instance.class.getPackage().getName());
+            } catch (JAXBException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the shared {@link JAXBContext} for the VRPRep model
+     * <p>
+     * The context is thread safe, but the {@link Marshaller} and {@link Unmarshaller} it creates are not and should not
+     * be shared between threads.
+     * </p>
+     * 
+     * @return the shared {@link JAXBContext} for the VRPRep model
+     */
+    public static JAXBContext getContext() {
+        return ContextHolder.CONTEXT;
+    }
+
     /**
      * Write an instance in a file
      * 
@@ -39,38 +78,21 @@ public class VRPRepJAXBUtilities {
      *            the destination file
      * @param compress
      *            {@code true} if the instance should be compressed, in which case the suffix {@code  .zip} will be added
-     *            to the file name
+     *            to the file name (unless it already ends with {@code .zip} or {@code .gz})
      * @throws JAXBException
      * @throws IOException
      */
     public static void writeInstance(Instance instance, File destFile, boolean compress)
             throws JAXBException, IOException {
-        JAXBContext context = JAXBContext.newInstance(Instance.class.getPackage().getName());
-
-        Marshaller marshaller = context.createMarshaller();
+        Marshaller marshaller = getContext().createMarshaller();
 
         // Nicelly format the output XML
-        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, new Boolean(true));
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
 
         // Write the instance
-        destFile.getParentFile().mkdirs();
-        OutputStream os;
-        if (compress) {
-            String zipFile = destFile.getAbsolutePath().endsWith(".zip") ? destFile
-                    .getAbsolutePath() : destFile.getAbsolutePath() + ".zip";
-            ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(zipFile));
-            ZipEntry ze = new ZipEntry(destFile.getName());
-            zos.putNextEntry(ze);
-
-            os = zos;
-        } else {
-            os = new FileOutputStream(destFile);
+        try (OutputStream os = openOutputStream(destFile, compress)) {
+            marshaller.marshal(instance, os);
         }
-
-        marshaller.marshal(instance, os);
-
-        os.flush();
-        os.close();
     }
 
     /**
@@ -83,25 +105,68 @@ public class VRPRepJAXBUtilities {
      * @return the instance contained in {@code  file}
      * @throws JAXBException
      * @throws IOException
+     * @see VRPRepStreamReader
      */
     public static Instance readInstance(File file) throws JAXBException, IOException {
-        JAXBContext context = JAXBContext.newInstance(Instance.class.getPackage().getName());
+        Unmarshaller unmarshaller = getContext().createUnmarshaller();
 
-        Unmarshaller unmarshaller = context.createUnmarshaller();
+        try (InputStream is = openInputStream(file)) {
+            return (Instance) unmarshaller.unmarshal(is);
+        }
+    }
 
-        InputStream is;
+    /**
+     * Open a buffered input stream on a file, decompressing it if its name ends with {@code .zip} (first entry) or
+     * {@code .gz}
+     * 
+     * @param file
+     *            the file to be read
+     * @return a buffered input stream on the (decompressed) content of {@code  file}
+     * @throws IOException
+     */
+    public static InputStream openInputStream(File file) throws IOException {
+        InputStream is = new BufferedInputStream(Channels.newInputStream(FileChannel.open(
+                file.toPath(), StandardOpenOption.READ)), BUFFER_SIZE);
         if (file.getName().endsWith(".zip")) {
-            ZipInputStream zis = new ZipInputStream(new FileInputStream(file));
+            ZipInputStream zis = new ZipInputStream(is);
             zis.getNextEntry();
-            is = zis;
+            return new BufferedInputStream(zis, BUFFER_SIZE);
+        } else if (file.getName().endsWith(".gz")) {
+            return new BufferedInputStream(new GZIPInputStream(is, BUFFER_SIZE), BUFFER_SIZE);
         } else {
-            is = new FileInputStream(file);
+            return is;
         }
+    }
 
-        Instance instance = (Instance) unmarshaller.unmarshal(is);
-
-        is.close();
-
-        return instance;
+    /**
+     * Open a buffered output stream on a file, creating its parent directories if required
+     * 
+     * @param destFile
+     *            the destination file
+     * @param compress
+     *            {@code true} if the content should be compressed: in gzip format if the name of {@code  destFile} ends
+     *            with {@code .gz}, in zip format otherwise (the suffix {@code .zip} is added if required)
+     * @return a buffered output stream on {@code  destFile}
+     * @throws IOException
+     */
+    public static OutputStream openOutputStream(File destFile, boolean compress) throws IOException {
+        File dest = destFile.getAbsoluteFile();
+        dest.getParentFile().mkdirs();
+        if (compress && !dest.getName().endsWith(".gz") && !dest.getName().endsWith(".zip"))
+            dest = new File(dest.getPath() + ".zip");
+
+        OutputStream os = Channels.newOutputStream(FileChannel.open(dest.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING));
+        if (!compress) {
+            return new BufferedOutputStream(os, BUFFER_SIZE);
+        } else if (dest.getName().endsWith(".gz")) {
+            return new BufferedOutputStream(new GZIPOutputStream(os, BUFFER_SIZE), BUFFER_SIZE);
+        } else {
+            ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(os, BUFFER_SIZE));
+            // The entry is named after the uncompressed file
+            zos.putNextEntry(new ZipEntry(destFile.getName().replaceFirst("\\.zip$", "")));
+            return new BufferedOutputStream(zos, BUFFER_SIZE);
+        }
     }
 }
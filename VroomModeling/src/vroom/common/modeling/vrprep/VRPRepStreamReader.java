@@ -0,0 +1,598 @@
+/**
+ *
+ */
+package vroom.common.modeling.vrprep;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * The class <code>VRPRepStreamReader</code> is a streaming (StAX) reader for instances in the VRPRep xml format.
+ * <p>
+ * Contrary to {@link VRPRepJAXBUtilities#readInstance(File)}, it does not build the full {@link Instance} object tree
+ * but only extracts the nodes, links, vehicles and requests into compact structures that can be directly converted
+ * into a problem-specific instance. Stochastic values and custom elements are ignored.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 10:12:41 AM
+ *
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class VRPRepStreamReader {
+
+    /** A shared factory, configured once to coalesce text */
+    private static final XMLInputFactory sFactory;
+    static {
+        sFactory = XMLInputFactory.newInstance();
+        sFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        sFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+    }
+
+    /**
+     * Read an instance from a file.
+     * <p>
+     * Note that this method will detect automatically if the file is compressed
+     * </p>
+     *
+     * @param file
+     *            the file to be read
+     * @return a reader containing the data read from {@code  file}
+     * @throws IOException
+     * @throws XMLStreamException
+     */
+    public static VRPRepStreamReader read(File file) throws IOException, XMLStreamException {
+        VRPRepStreamReader reader = new VRPRepStreamReader();
+        try (InputStream is = VRPRepJAXBUtilities.openInputStream(file)) {
+            XMLStreamReader xml = sFactory.createXMLStreamReader(is);
+            try {
+                reader.parse(xml);
+            } finally {
+                xml.close();
+            }
+        }
+        return reader;
+    }
+
+    private String              mName;
+    private String              mProblem;
+    private final List<Node>    mNodes;
+    private final List<Vehicle> mVehicles;
+    private final List<Request> mRequests;
+
+    private int                 mLinkCount;
+    private int[]               mLinkTails;
+    private int[]               mLinkHeads;
+    private boolean[]           mLinkDirected;
+    private double[]            mLinkLengths;
+    private double[]            mLinkTimes;
+
+    private VRPRepStreamReader() {
+        mNodes = new ArrayList<>();
+        mVehicles = new ArrayList<>();
+        mRequests = new ArrayList<>();
+        mLinkTails = new int[16];
+        mLinkHeads = new int[16];
+        mLinkDirected = new boolean[16];
+        mLinkLengths = new double[16];
+        mLinkTimes = new double[16];
+    }
+
+    /**
+     * Returns the name of the instance
+     *
+     * @return the name of the instance
+     */
+    public String getName() {
+        return mName;
+    }
+
+    /**
+     * Returns the problem definition of the instance
+     *
+     * @return the problem definition of the instance
+     */
+    public String getProblem() {
+        return mProblem;
+    }
+
+    /**
+     * Returns the nodes, in the order in which they were read
+     *
+     * @return the nodes, in the order in which they were read
+     */
+    public List<Node> getNodes() {
+        return Collections.unmodifiableList(mNodes);
+    }
+
+    /**
+     * Returns the vehicles, in the order in which they were read
+     *
+     * @return the vehicles, in the order in which they were read
+     */
+    public List<Vehicle> getVehicles() {
+        return Collections.unmodifiableList(mVehicles);
+    }
+
+    /**
+     * Returns the requests, in the order in which they were read
+     *
+     * @return the requests, in the order in which they were read
+     */
+    public List<Request> getRequests() {
+        return Collections.unmodifiableList(mRequests);
+    }
+
+    /**
+     * Returns {@code true} if the instance explicitly defines links
+     *
+     * @return {@code true} if the instance explicitly defines links
+     */
+    public boolean hasLinks() {
+        return mLinkCount > 0;
+    }
+
+    /**
+     * Returns the explicit distance and travel time matrices defined by the links of the instance
+     *
+     * @param size
+     *            the size of the matrices, it should be greater than the maximum node id
+     * @return an array of dimension [2][size][size] containing the distances in the first index and the times in the
+     *         second (times default to distances when not defined)
+     */
+    public double[][][] getLinkMatrices(int size) {
+        double[][][] matrix = new double[2][size][size];
+        for (int l = 0; l < mLinkCount; l++) {
+            int t = mLinkTails[l], h = mLinkHeads[l];
+            // Travel time defaults to the length of the link
+            double time = Double.isNaN(mLinkTimes[l]) ? mLinkLengths[l] : mLinkTimes[l];
+            matrix[0][t][h] = mLinkLengths[l];
+            matrix[1][t][h] = time;
+            if (!mLinkDirected[l]) {
+                matrix[0][h][t] = mLinkLengths[l];
+                matrix[1][h][t] = time;
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Parse the xml stream
+     *
+     * @param xml
+     * @throws XMLStreamException
+     */
+    private void parse(XMLStreamReader xml) throws XMLStreamException {
+        // The elements being read
+        Node node = null;
+        Vehicle vehicle = null;
+        Request request = null;
+        boolean inInfo = false;
+        boolean inContributor = false;
+        boolean inLink = false;
+        boolean inTw = false;
+        int demandType = 0;
+
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                switch (xml.getLocalName()) {
+                case "info":
+                    inInfo = false;
+                    break;
+                case "contributor":
+                    inContributor = false;
+                    break;
+                case "node":
+                    node = null;
+                    break;
+                case "link":
+                    inLink = false;
+                    break;
+                case "vehicle":
+                case "vehicle_profile":
+                    vehicle = null;
+                    break;
+                case "request":
+                    request = null;
+                    break;
+                case "tw":
+                    inTw = false;
+                    break;
+                default:
+                    break;
+                }
+                continue;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT)
+                continue;
+
+            String name = xml.getLocalName();
+            switch (name) {
+            case "info":
+                inInfo = true;
+                break;
+            case "contributor":
+                inContributor = true;
+                break;
+            case "name":
+                if (inInfo && !inContributor)
+                    mName = readText(xml);
+                break;
+            case "problem":
+                if (inInfo)
+                    mProblem = readText(xml);
+                break;
+            case "node":
+                node = new Node(intAttribute(xml, "id", -1), intAttribute(xml, "type", 1));
+                mNodes.add(node);
+                break;
+            case "cx":
+                if (node != null)
+                    node.mX = parseDouble(readText(xml));
+                break;
+            case "cy":
+                if (node != null)
+                    node.mY = parseDouble(readText(xml));
+                break;
+            case "GPSCoordinates":
+                if (node != null) {
+                    node.mGPS = true;
+                    node.mX = parseDouble(xml.getAttributeValue(null, "lat"));
+                    node.mY = parseDouble(xml.getAttributeValue(null, "lon"));
+                }
+                break;
+            case "link":
+                inLink = true;
+                ensureLinkCapacity();
+                mLinkTails[mLinkCount] = intAttribute(xml, "tail", -1);
+                mLinkHeads[mLinkCount] = intAttribute(xml, "head", -1);
+                String directed = xml.getAttributeValue(null, "directed");
+                mLinkDirected[mLinkCount] = directed != null && Boolean.parseBoolean(directed);
+                mLinkLengths[mLinkCount] = Double.NaN;
+                mLinkTimes[mLinkCount] = Double.NaN;
+                mLinkCount++;
+                break;
+            case "length":
+                if (inLink)
+                    mLinkLengths[mLinkCount - 1] = parseDouble(readText(xml));
+                break;
+            case "vehicle":
+            case "vehicle_profile":
+                vehicle = new Vehicle(intAttribute(xml, "type", mVehicles.size()));
+                String number = xml.getAttributeValue(null, "number");
+                if (number != null)
+                    vehicle.mNumber = Integer.parseInt(number.trim());
+                mVehicles.add(vehicle);
+                break;
+            case "request":
+                request = new Request(intAttribute(xml, "id", -1), intAttribute(xml, "node", -1));
+                mRequests.add(request);
+                demandType = 0;
+                break;
+            case "tw":
+                inTw = true;
+                break;
+            case "start":
+                if (inTw && request != null)
+                    request.mTWStart = parseDouble(readText(xml));
+                break;
+            case "end":
+                if (inTw && request != null)
+                    request.mTWEnd = parseDouble(readText(xml));
+                break;
+            case "demand":
+                if (request != null) {
+                    int type = intAttribute(xml, "type", demandType);
+                    request.mDemands = add(request.mDemands, type, parseDouble(readText(xml)));
+                    demandType = type + 1;
+                }
+                break;
+            case "serviceTime":
+                if (request != null)
+                    request.mServiceTime = parseDouble(readText(xml));
+                break;
+            case "time":
+                if (inLink)
+                    mLinkTimes[mLinkCount - 1] = parseDouble(readText(xml));
+                break;
+            case "skill":
+                // The skill id is either an attribute or the content of the element
+                String skillId = xml.getAttributeValue(null, "id");
+                int skill = Integer.parseInt((skillId != null ? skillId : readText(xml)).trim());
+                if (request != null)
+                    request.mSkills = add(request.mSkills, skill);
+                else if (vehicle != null)
+                    vehicle.mSkills = add(vehicle.mSkills, skill);
+                break;
+            case "tool":
+                int tool = intAttribute(xml, "id", -1);
+                if (request != null)
+                    request.mTools = add(request.mTools, tool);
+                else if (vehicle != null)
+                    vehicle.mTools = add(vehicle.mTools, tool);
+                break;
+            case "number":
+                if (vehicle != null)
+                    vehicle.mNumber = Integer.parseInt(readText(xml).trim());
+                break;
+            case "departureNode":
+            case "departure_node":
+                if (vehicle != null)
+                    vehicle.mDepartureNode = Integer.parseInt(readText(xml).trim());
+                break;
+            case "arrivalNode":
+            case "arrival_node":
+                if (vehicle != null)
+                    vehicle.mArrivalNode = Integer.parseInt(readText(xml).trim());
+                break;
+            case "fixedCost":
+            case "fix_cost":
+                if (vehicle != null)
+                    vehicle.mFixedCost = parseDouble(readText(xml));
+                break;
+            case "variableCost":
+            case "cost_x_distance":
+                if (vehicle != null)
+                    vehicle.mVariableCost = parseDouble(readText(xml));
+                break;
+            case "capacity":
+                if (vehicle != null)
+                    vehicle.mCapacities = add(vehicle.mCapacities, vehicle.mCapacities.length,
+                            parseDouble(readText(xml)));
+                break;
+            default:
+                break;
+            }
+        }
+    }
+
+    /**
+     * Read the text content of the current element, ignoring any nested element
+     *
+     * @param xml
+     * @return the text content of the current element
+     * @throws XMLStreamException
+     */
+    private static String readText(XMLStreamReader xml) throws XMLStreamException {
+        StringBuilder sb = null;
+        String text = null;
+        int depth = 1;
+        while (depth > 0) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (depth == 1
+                    && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+                if (text == null) {
+                    text = xml.getText();
+                } else {
+                    if (sb == null)
+                        sb = new StringBuilder(text);
+                    sb.append(xml.getText());
+                }
+            }
+        }
+        return sb != null ? sb.toString() : text != null ? text : "";
+    }
+
+    private static int intAttribute(XMLStreamReader xml, String name, int defaultValue) {
+        String value = xml.getAttributeValue(null, name);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    private static double parseDouble(String value) {
+        if (value == null)
+            return Double.NaN;
+        value = value.trim();
+        if (value.equals("INF"))
+            return Double.POSITIVE_INFINITY;
+        return value.isEmpty() ? Double.NaN : Double.parseDouble(value);
+    }
+
+    private static int[] add(int[] array, int value) {
+        int[] a = Arrays.copyOf(array, array.length + 1);
+        a[array.length] = value;
+        return a;
+    }
+
+    private static double[] add(double[] array, int index, double value) {
+        double[] a = index < array.length ? array : Arrays.copyOf(array, index + 1);
+        a[index] = value;
+        return a;
+    }
+
+    private void ensureLinkCapacity() {
+        if (mLinkCount == mLinkTails.length) {
+            int size = mLinkCount * 2;
+            mLinkTails = Arrays.copyOf(mLinkTails, size);
+            mLinkHeads = Arrays.copyOf(mLinkHeads, size);
+            mLinkDirected = Arrays.copyOf(mLinkDirected, size);
+            mLinkLengths = Arrays.copyOf(mLinkLengths, size);
+            mLinkTimes = Arrays.copyOf(mLinkTimes, size);
+        }
+    }
+
+    /**
+     * The class <code>Node</code> contains the information read for a node of the network
+     */
+    public static class Node {
+        private final int mId;
+        private final int mType;
+        private double    mX   = Double.NaN;
+        private double    mY   = Double.NaN;
+        private boolean   mGPS = false;
+
+        private Node(int id, int type) {
+            mId = id;
+            mType = type;
+        }
+
+        /** @return the id of this node */
+        public int getId() {
+            return mId;
+        }
+
+        /** @return the type of this node */
+        public int getType() {
+            return mType;
+        }
+
+        /** @return the x coordinate (or latitude) of this node */
+        public double getX() {
+            return mX;
+        }
+
+        /** @return the y coordinate (or longitude) of this node */
+        public double getY() {
+            return mY;
+        }
+
+        /** @return {@code true} if the coordinates of this node are GPS coordinates */
+        public boolean isGPS() {
+            return mGPS;
+        }
+    }
+
+    /**
+     * The class <code>Vehicle</code> contains the information read for a vehicle (or vehicle profile)
+     */
+    public static class Vehicle {
+        private final int mType;
+        private int       mNumber        = 1;
+        private int       mDepartureNode = -1;
+        private int       mArrivalNode   = -1;
+        private double    mFixedCost     = 0;
+        private double    mVariableCost  = 1;
+        private double[]  mCapacities    = new double[0];
+        private int[]     mSkills        = new int[0];
+        private int[]     mTools         = new int[0];
+
+        private Vehicle(int type) {
+            mType = type;
+        }
+
+        /** @return the type of this vehicle */
+        public int getType() {
+            return mType;
+        }
+
+        /** @return the number of vehicles of this type, {@code -1} for an unlimited number */
+        public int getNumber() {
+            return mNumber;
+        }
+
+        /** @return the id of the departure node, {@code -1} if undefined */
+        public int getDepartureNode() {
+            return mDepartureNode;
+        }
+
+        /** @return the id of the arrival node, {@code -1} if undefined */
+        public int getArrivalNode() {
+            return mArrivalNode;
+        }
+
+        /** @return the fixed cost of this vehicle */
+        public double getFixedCost() {
+            return mFixedCost;
+        }
+
+        /** @return the variable cost of this vehicle */
+        public double getVariableCost() {
+            return mVariableCost;
+        }
+
+        /** @return the capacities of this vehicle */
+        public double[] getCapacities() {
+            return mCapacities;
+        }
+
+        /** @return the skills of this vehicle */
+        public int[] getSkills() {
+            return mSkills;
+        }
+
+        /** @return the tools of this vehicle */
+        public int[] getTools() {
+            return mTools;
+        }
+    }
+
+    /**
+     * The class <code>Request</code> contains the information read for a request
+     */
+    public static class Request {
+        private final int mId;
+        private final int mNode;
+        private double[]  mDemands     = new double[0];
+        private double    mTWStart     = Double.NaN;
+        private double    mTWEnd       = Double.NaN;
+        private double    mServiceTime = 0;
+        private int[]     mSkills      = new int[0];
+        private int[]     mTools       = new int[0];
+
+        private Request(int id, int node) {
+            mId = id;
+            mNode = node;
+        }
+
+        /** @return the id of this request */
+        public int getId() {
+            return mId;
+        }
+
+        /** @return the id of the node of this request */
+        public int getNode() {
+            return mNode;
+        }
+
+        /** @return the deterministic demands of this request, indexed by product type */
+        public double[] getDemands() {
+            return mDemands;
+        }
+
+        /** @return {@code true} if this request has a time window */
+        public boolean hasTimeWindow() {
+            return !Double.isNaN(mTWStart) || !Double.isNaN(mTWEnd);
+        }
+
+        /** @return the start of the time window of this request, {@code NaN} if undefined */
+        public double getTWStart() {
+            return mTWStart;
+        }
+
+        /** @return the end of the time window of this request, {@code NaN} if undefined */
+        public double getTWEnd() {
+            return mTWEnd;
+        }
+
+        /** @return the service time of this request */
+        public double getServiceTime() {
+            return mServiceTime;
+        }
+
+        /** @return the skills required by this request */
+        public int[] getSkills() {
+            return mSkills;
+        }
+
+        /** @return the tools required by this request */
+        public int[] getTools() {
+            return mTools;
+        }
+    }
+}
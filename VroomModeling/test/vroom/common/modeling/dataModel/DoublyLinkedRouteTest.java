@@ -0,0 +1,264 @@
+package vroom.common.modeling.dataModel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import vroom.common.modeling.dataModel.attributes.DeterministicDemand;
+import vroom.common.modeling.dataModel.attributes.PointLocation;
+import vroom.common.modeling.dataModel.attributes.RequestAttributeKey;
+import vroom.common.modeling.util.EuclidianDistance;
+
+public class DoublyLinkedRouteTest {
+
+    private static final int             NUM_NODES = 12;
+
+    private Solution<IRoute<INodeVisit>> mSolution;
+    private Vehicle                      mVehicle;
+    private List<INodeVisit>             mVisits;
+
+    @Before
+    public void setUp() {
+        Depot depot = new Depot(0, new PointLocation(0, 0));
+        mVehicle = new Vehicle(0, "TestTruck", NUM_NODES);
+        StaticInstance instance = new StaticInstance("TestInstance", 0, Fleet.newHomogenousFleet(1, mVehicle),
+                Collections.singletonList(depot), null, new EuclidianDistance());
+        for (int n = 1; n <= NUM_NODES; n++) {
+            Request r = new Request(n, new Node(n, new PointLocation(n, n % 3)));
+            r.setAttribute(RequestAttributeKey.DEMAND, new DeterministicDemand(1));
+            instance.addRequest(r);
+        }
+        mSolution = new Solution<IRoute<INodeVisit>>(instance);
+
+        mVisits = new ArrayList<INodeVisit>();
+        for (IVRPRequest r : instance.getRequests())
+            Collections.addAll(mVisits, instance.getNodeVisits(r));
+        Collections.sort(mVisits, new Comparator<INodeVisit>() {
+            @Override
+            public int compare(INodeVisit o1, INodeVisit o2) {
+                return Integer.compare(o1.getID(), o2.getID());
+            }
+        });
+    }
+
+    private DoublyLinkedRoute newRoute(List<INodeVisit> expected) {
+        DoublyLinkedRoute route = new DoublyLinkedRoute(mSolution, mVehicle);
+        for (INodeVisit v : mVisits) {
+            route.appendNode(v);
+            expected.add(v);
+        }
+        return route;
+    }
+
+    /**
+     * Check the length, sequence and position index of a route against the expected sequence
+     */
+    private static void assertRoute(List<INodeVisit> expected, DoublyLinkedRoute route) {
+        assertEquals("length", expected.size(), route.length());
+        assertEquals("sequence", expected, route.getNodeSequence());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals("node at " + i, expected.get(i), route.getNodeAt(i));
+            assertEquals("position of " + expected.get(i), i, route.getNodePosition(expected.get(i)));
+        }
+        if (!expected.isEmpty()) {
+            assertEquals("first", expected.get(0), route.getFirstNode());
+            assertEquals("last", expected.get(expected.size() - 1), route.getLastNode());
+        }
+    }
+
+    @Test
+    public void testLength() {
+        List<INodeVisit> expected = new ArrayList<INodeVisit>();
+        DoublyLinkedRoute route = newRoute(expected);
+        assertRoute(expected, route);
+
+        expected.remove(3);
+        route.extractNode(3);
+        assertRoute(expected, route);
+
+        INodeVisit removed = expected.remove(5);
+        route.remove(removed);
+        assertRoute(expected, route);
+        // Removing a node that is not in the route does not change its length
+        assertFalse(route.remove(removed));
+        assertRoute(expected, route);
+
+        expected.add(2, removed);
+        route.insertNode(2, removed);
+        assertRoute(expected, route);
+
+        List<INodeVisit> sub = new ArrayList<INodeVisit>(expected.subList(4, 7));
+        expected.subList(4, 7).clear();
+        route.extractNodes(4, 6);
+        assertRoute(expected, route);
+
+        expected.addAll(1, sub);
+        route.insertNodes(1, sub);
+        assertRoute(expected, route);
+
+        IRoute<INodeVisit> extracted = route.extractSubroute(2, 4);
+        List<INodeVisit> extractedNodes = new ArrayList<INodeVisit>(expected.subList(2, 5));
+        expected.subList(2, 5).clear();
+        assertEquals(extractedNodes, extracted.getNodeSequence());
+        assertRoute(expected, route);
+
+        expected.addAll(3, extractedNodes);
+        route.insertSubroute(3, extracted);
+        assertRoute(expected, route);
+
+        // Extraction of the first and last nodes
+        sub = new ArrayList<INodeVisit>(expected.subList(0, 2));
+        expected.subList(0, 2).clear();
+        assertEquals(sub, route.extractNodes(0, 1));
+        assertRoute(expected, route);
+        int n = expected.size();
+        sub = new ArrayList<INodeVisit>(expected.subList(n - 2, n));
+        expected.subList(n - 2, n).clear();
+        assertEquals(sub, route.extractNodes(n - 2, n - 1));
+        assertRoute(expected, route);
+    }
+
+    @Test
+    public void testReverseSubroute() {
+        testReverseSubroute(false);
+    }
+
+    @Test
+    public void testReverseSubrouteConfined() {
+        testReverseSubroute(true);
+    }
+
+    private void testReverseSubroute(boolean confined) {
+        List<INodeVisit> expected = new ArrayList<INodeVisit>();
+        DoublyLinkedRoute route = newRoute(expected);
+        route.setThreadConfined(confined);
+
+        int n = expected.size();
+        // Inner subroute, prefix, suffix and whole route
+        int[][] ranges = { { 3, 7 }, { 0, 4 }, { n - 5, n - 1 }, { 0, n - 1 }, { 5, 6 }, { 2, 2 } };
+        for (int[] r : ranges) {
+            Collections.reverse(expected.subList(r[0], r[1] + 1));
+            route.reverseSubRoute(r[0], r[1]);
+            assertRoute(expected, route);
+        }
+
+        Random rnd = new Random(0);
+        for (int k = 0; k < 100; k++) {
+            int i = rnd.nextInt(n), j = rnd.nextInt(n);
+            int start = Math.min(i, j), end = Math.max(i, j);
+            Collections.reverse(expected.subList(start, end + 1));
+            route.reverseSubRoute(start, end);
+            assertRoute(expected, route);
+        }
+    }
+
+    @Test
+    public void testConfinedLocking() throws Exception {
+        List<INodeVisit> expected = new ArrayList<INodeVisit>();
+        final DoublyLinkedRoute route = newRoute(expected);
+        final INodeVisit node = expected.get(3);
+        double load = route.getLoad();
+
+        List<Callable<Object>> calls = new ArrayList<Callable<Object>>();
+        calls.add(new Callable<Object>() {
+            @Override
+            public Object call() {
+                return route.getNodeAt(3);
+            }
+        });
+        calls.add(new Callable<Object>() {
+            @Override
+            public Object call() {
+                return route.subroute(2, 5);
+            }
+        });
+        calls.add(new Callable<Object>() {
+            @Override
+            public Object call() {
+                route.updateLoad(true, node);
+                return null;
+            }
+        });
+        calls.add(new Callable<Object>() {
+            @Override
+            public Object call() {
+                route.updateLoad(false, Collections.singletonList(node));
+                return null;
+            }
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Confined: the calls do not wait for the monitor held by another thread
+            route.setThreadConfined(true);
+            CountDownLatch release = lockRoute(route);
+            try {
+                for (Callable<Object> c : calls)
+                    executor.submit(c).get(5, TimeUnit.SECONDS);
+            } finally {
+                release.countDown();
+            }
+            assertEquals(load, route.getLoad(), 0);
+
+            // Shared: the calls wait until the monitor is released
+            route.setThreadConfined(false);
+            for (Callable<Object> c : calls) {
+                release = lockRoute(route);
+                Future<Object> f = executor.submit(c);
+                try {
+                    f.get(100, TimeUnit.MILLISECONDS);
+                    fail("The call did not acquire the route monitor");
+                } catch (TimeoutException e) {
+                    // Expected
+                } finally {
+                    release.countDown();
+                }
+                f.get(5, TimeUnit.SECONDS);
+            }
+            assertEquals(load, route.getLoad(), 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Acquire the monitor of a route in another thread
+     * 
+     * @return a latch that releases the monitor when counted down
+     */
+    private static CountDownLatch lockRoute(final DoublyLinkedRoute route) throws InterruptedException {
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        new Thread() {
+            @Override
+            public void run() {
+                synchronized (route) {
+                    locked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        // Release the monitor
+                    }
+                }
+            }
+        }.start();
+        locked.await();
+        return release;
+    }
+}
@@ -8,6 +8,7 @@ import gurobi.GRBException;
 import gurobi.GRBLinExpr;
 
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 
 import vroom.common.modeling.dataModel.IVRPInstance;
@@ -25,6 +26,10 @@ import vroom.common.utilities.lp.SolverStatus;
  * of each iteration
  * </p>
  * <p>
+ * Violated capacity constraints are separated with a {@link CapacityCutSeparator}, which also handles fractional
+ * solutions
+ * </p>
+ * <p>
  * Creation date: 3/09/2010 - 14:51:17
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
@@ -36,6 +41,8 @@ public class CVRPCuttingPlaneSolver extends CVRPSolverBase {
 
     private GRBConstraintManager                 mCtrManager;
 
+    private CapacityCutSeparator                 mSeparator;
+
     private final int                            mInjectedSolutions = 1;
     private final int                            mSavedSolutions    = 1;
 
@@ -85,6 +92,7 @@ public class CVRPCuttingPlaneSolver extends CVRPSolverBase {
     public void reset() {
         super.reset();
         mCtrManager = null;
+        mSeparator = null;
         mCutCount = 0;
         mIterations = 0;
         mPartialSolution.clear();
@@ -101,6 +109,12 @@ public class CVRPCuttingPlaneSolver extends CVRPSolverBase {
         super.readInstance(instance);
         mCtrManager = new GRBConstraintManager(getModel(), OrderingCriterion.INACTIVE_COUNT, 100);
         mCtrManager.setMaxConstraints(10000);
+
+        int[][] arcs = new int[getArcVars().length][];
+        for (int e = 0; e < arcs.length; e++) {
+            arcs[e] = getArc(e);
+        }
+        mSeparator = new CapacityCutSeparator(getSize(), arcs, getDemands(), getCapacity());
     }
 
     @Override
@@ -206,63 +220,35 @@ public class CVRPCuttingPlaneSolver extends CVRPSolverBase {
 
         double[] vars = getModel().get(DoubleAttr.X, getArcVars());
 
-        Set<Set<Integer>> conComp = findConnectedComponents(vars);
-        boolean subtourFound;
-        if (conComp.size() > 1) {
-            subtourFound = false;
-            // Solution contains subtours
-            for (Set<Integer> subtour : conComp) {
-                double[] coefs = new double[getArcVars().length];
-
-                double load = 0;
-                double outter = 0;
-
-                for (int i : subtour) {
-                    load += getDemands()[i];
-                    if (i != 0) {
-                        for (int j = 0; j < getSize(); j++) {
-                            if (j == 0 || !subtour.contains(j)) {
-                                coefs[getArcIdx(j, i)] = 1;
-                                outter += vars[getArcIdx(j, i)];
-                            }
-                        }
-                    }
-                }
+        List<ViolatedSubtour> violated = mSeparator.separate(vars);
+        for (ViolatedSubtour v : violated) {
+            Set<Integer> subtour = v.getCut().getCut();
+            double[] coefs = new double[getArcVars().length];
 
-                if (!subtour.contains(0)) {
-                    LOGGER.debug("Disconnected subtour found (load:%s/%s): %s", load,
-                            getCapacity(), subtour);
-                } else if (load > getCapacity()) {
-                    LOGGER.debug("Capacity constraint violation found(load:%s/%s): %s", load,
-                            getCapacity(), subtour);
+            for (int i : subtour) {
+                for (int j = 0; j < getSize(); j++) {
+                    if (!subtour.contains(j)) {
+                        coefs[getArcIdx(j, i)] = 1;
+                    }
                 }
+            }
 
-                if (load > getCapacity() || !subtour.contains(0)) {
-                    subtourFound = true;
-                    double rhs = 2 * Math.ceil(load / getCapacity());
+            LOGGER.debug("Violated capacity constraint found: %s", v);
 
-                    GRBLinExpr cut = new GRBLinExpr();
-                    cut.addTerms(coefs, getArcVars());
+            GRBLinExpr cut = new GRBLinExpr();
+            cut.addTerms(coefs, getArcVars());
 
-                    GRBConstraint cons = new GRBConstraint(cut, GRB.GREATER_EQUAL, rhs, "cut"
-                            + mCutCount);
+            GRBConstraint cons = new GRBConstraint(cut, GRB.GREATER_EQUAL, v.getRhs(), "cut"
+                    + mCutCount);
 
-                    // add the subtour elimitation cut
-                    mCtrManager.addConstraint(cons);
+            // add the subtour elimitation cut
+            mCtrManager.addConstraint(cons);
 
-                    LOGGER.debug("Cut added: %s", cons);
+            LOGGER.debug("Cut added: %s", cons);
 
-                    mCutCount++;
-                } else {
-                    // LOGGER.debug("Route is feasible (load:%s/%s): %s",
-                    // load,getCapacity(),
-                    // subtour);
-                }
-            }
-        } else {
-            subtourFound = true;
+            mCutCount++;
         }
-        return subtourFound;
+        return !violated.isEmpty();
     }
 
     public class CVRPCuttingPlaneCallback extends GRBCallback {
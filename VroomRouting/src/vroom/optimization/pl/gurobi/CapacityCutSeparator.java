@@ -0,0 +1,298 @@
+package vroom.optimization.pl.gurobi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import vroom.common.graphs.GomoryHuTree;
+import vroom.common.graphs.MaxFlowPushRelabel;
+
+/**
+ * <code>CapacityCutSeparator</code> separates rounded capacity inequalities
+ * <code>x(&delta;(S)) &ge; 2&lceil;d(S)/Q&rceil;</code> for a (possibly fractional) CVRP solution.
+ * <p>
+ * The separation works on the sparse support graph of the solution, in which edges with a value of at least
+ * <code>1</code> between two customers are first shrunk. The connected components of the shrunk graph (without the
+ * depot) are checked first, and if none of them is violated a Gomory-Hu tree of the shrunk graph is built with a
+ * push-relabel max flow. Each edge of the tree defines a set of customers (the side not containing the depot) which is
+ * checked in the same pass, so that all the violated sets found are returned at once.
+ * </p>
+ * <p>
+ * The minimum cuts of the Gomory-Hu tree include the minimum cut between the depot and any customer, thus all violated
+ * subtour elimination constraints are found. Capacity inequalities are separated heuristically.
+ * </p>
+ * <p>
+ * Instances of this class are not thread-safe.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 2:05:38 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class CapacityCutSeparator {
+
+    /** The default minimum violation of a cut */
+    public static final double       DEFAULT_MIN_VIOLATION = 1e-6;
+
+    /** The number of nodes, including the depot <code>0</code> */
+    private final int                mSize;
+    /** The arcs, as pairs <code>[i,j]</code> indexed like the variables */
+    private final int[][]            mArcs;
+    /** The demand of each node */
+    private final double[]           mDemands;
+    /** The vehicle capacity */
+    private final double             mCapacity;
+
+    /** The minimum violation for a cut to be reported */
+    private double                   mMinViolation;
+
+    /** Union-find structure used to shrink the support graph */
+    private final int[]              mUnion;
+    /** The shrunk node of each node */
+    private final int[]              mShrunk;
+    /** The demand of each shrunk node */
+    private final double[]           mShrunkDemand;
+    /** The cut value of each component or subtree */
+    private final double[]           mCutValue;
+    /** The marked shrunk nodes */
+    private final boolean[]          mMarked;
+
+    /** The max flow algorithm, holding the shrunk support graph */
+    private final MaxFlowPushRelabel mMaxFlow;
+    /** The Gomory-Hu tree of the shrunk support graph */
+    private final GomoryHuTree       mTree;
+
+    /**
+     * Creates a new <code>CapacityCutSeparator</code>
+     * 
+     * @param size
+     *            the number of nodes, including the depot <code>0</code>
+     * @param arcs
+     *            the arcs, as pairs <code>[i,j]</code> indexed like the variables
+     * @param demands
+     *            the demand of each node
+     * @param capacity
+     *            the vehicle capacity
+     */
+    public CapacityCutSeparator(int size, int[][] arcs, double[] demands, double capacity) {
+        mSize = size;
+        mArcs = arcs;
+        mDemands = demands;
+        mCapacity = capacity;
+        mMinViolation = DEFAULT_MIN_VIOLATION;
+
+        mUnion = new int[size];
+        mShrunk = new int[size];
+        mShrunkDemand = new double[size];
+        mCutValue = new double[size];
+        mMarked = new boolean[size];
+
+        mMaxFlow = new MaxFlowPushRelabel(size, 2 * size);
+        mTree = new GomoryHuTree(mMaxFlow);
+    }
+
+    /**
+     * Returns the minimum violation for a cut to be reported
+     * 
+     * @return the minimum violation for a cut to be reported
+     */
+    public double getMinViolation() {
+        return mMinViolation;
+    }
+
+    /**
+     * Sets the minimum violation for a cut to be reported
+     * 
+     * @param minViolation
+     *            the minimum violation for a cut to be reported
+     */
+    public void setMinViolation(double minViolation) {
+        mMinViolation = minViolation;
+    }
+
+    /**
+     * Find the violated capacity inequalities for a solution
+     * 
+     * @param vars
+     *            the value of the arc variables
+     * @return a list containing the violated sets, sorted by decreasing violation, the depot is never part of a set
+     */
+    public List<ViolatedSubtour> separate(double[] vars) {
+        shrink(vars);
+
+        List<ViolatedSubtour> violated = separateComponents(vars);
+        if (violated.isEmpty())
+            violated = separateGomoryHu(vars);
+
+        Collections.sort(violated, Collections.reverseOrder());
+        return violated;
+    }
+
+    /**
+     * Shrink the edges of value at least <code>1</code> between two customers
+     */
+    private void shrink(double[] vars) {
+        for (int i = 0; i < mSize; i++)
+            mUnion[i] = i;
+        for (int e = 0; e < vars.length; e++) {
+            int i = mArcs[e][0], j = mArcs[e][1];
+            if (i != 0 && j != 0 && vars[e] >= 1 - CVRPSolverBase.ZERO_TOLERANCE)
+                union(i, j);
+        }
+        mapShrunkNodes();
+    }
+
+    /**
+     * Check the connected components of the support graph, without the depot
+     */
+    private List<ViolatedSubtour> separateComponents(double[] vars) {
+        int shrunkCount = getShrunkCount();
+        // Merge shrunk nodes connected by a support edge
+        for (int i = 0; i < shrunkCount; i++)
+            mUnion[i] = i;
+        for (int e = 0; e < vars.length; e++) {
+            int i = mArcs[e][0], j = mArcs[e][1];
+            if (i != 0 && j != 0 && vars[e] > CVRPSolverBase.ZERO_TOLERANCE)
+                union(mShrunk[i], mShrunk[j]);
+        }
+
+        Arrays.fill(mCutValue, 0);
+        double[] load = new double[mSize];
+        int[] comp = new int[mSize];
+        for (int i = 1; i < mSize; i++) {
+            comp[i] = find(mShrunk[i]);
+            load[comp[i]] += mDemands[i];
+        }
+        int compCount = 0;
+        for (int e = 0; e < vars.length; e++) {
+            int i = mArcs[e][0], j = mArcs[e][1];
+            if (vars[e] > CVRPSolverBase.ZERO_TOLERANCE && (i == 0 || j == 0 || comp[i] != comp[j])) {
+                if (i != 0)
+                    mCutValue[comp[i]] += vars[e];
+                if (j != 0)
+                    mCutValue[comp[j]] += vars[e];
+            }
+        }
+
+        List<ViolatedSubtour> violated = new ArrayList<ViolatedSubtour>();
+        Arrays.fill(mMarked, false);
+        for (int i = 1; i < mSize; i++) {
+            int c = comp[i];
+            if (!mMarked[c]) {
+                mMarked[c] = true;
+                compCount++;
+                double rhs = rhs(load[c]);
+                if (rhs - mCutValue[c] > mMinViolation) {
+                    Set<Integer> set = new HashSet<Integer>();
+                    for (int j = 1; j < mSize; j++) {
+                        if (comp[j] == c)
+                            set.add(j);
+                    }
+                    violated.add(new ViolatedSubtour(rhs - mCutValue[c], set, rhs, mSize));
+                }
+            }
+        }
+
+        CVRPSolverBase.LOGGER.debug("CapacityCutSeparator: %s components, %s violated", compCount,
+                violated.size());
+        return violated;
+    }
+
+    /**
+     * Check the sets defined by the Gomory-Hu tree of the shrunk support graph
+     */
+    private List<ViolatedSubtour> separateGomoryHu(double[] vars) {
+        int shrunkCount = getShrunkCount();
+        List<ViolatedSubtour> violated = new ArrayList<ViolatedSubtour>();
+        if (shrunkCount < 2)
+            return violated;
+
+        mMaxFlow.clear();
+        for (int e = 0; e < vars.length; e++) {
+            if (vars[e] > CVRPSolverBase.ZERO_TOLERANCE) {
+                int i = mShrunk[mArcs[e][0]], j = mShrunk[mArcs[e][1]];
+                if (i != j)
+                    mMaxFlow.addEdge(i, j, vars[e]);
+            }
+        }
+
+        GomoryHuTree tree = mTree;
+        tree.build(shrunkCount);
+
+        // Accumulate the demand of each subtree bottom-up
+        double[] load = Arrays.copyOf(mShrunkDemand, shrunkCount);
+        for (int k = shrunkCount - 1; k > 0; k--) {
+            int v = tree.getNodeInOrder(k);
+            load[tree.getParent(v)] += load[v];
+        }
+
+        for (int v = 1; v < shrunkCount; v++) {
+            double rhs = rhs(load[v]);
+            double violation = rhs - tree.getCutValue(v);
+            if (load[v] > 0 && violation > mMinViolation) {
+                Arrays.fill(mMarked, false);
+                tree.getSubtree(v, mMarked);
+                Set<Integer> set = new HashSet<Integer>();
+                for (int j = 1; j < mSize; j++) {
+                    if (mMarked[mShrunk[j]])
+                        set.add(j);
+                }
+                violated.add(new ViolatedSubtour(violation, set, rhs, mSize));
+            }
+        }
+
+        CVRPSolverBase.LOGGER.debug("CapacityCutSeparator: Gomory-Hu tree on %s nodes and %s edges, %s violated",
+                shrunkCount, mMaxFlow.getEdgeCount(), violated.size());
+        return violated;
+    }
+
+    /**
+     * Right hand side of the rounded capacity inequality for a set of the given demand
+     */
+    private double rhs(double load) {
+        return 2 * Math.max(1, Math.ceil(load / mCapacity - CVRPSolverBase.ZERO_TOLERANCE));
+    }
+
+    /**
+     * Number the shrunk nodes, the depot being shrunk node <code>0</code>
+     */
+    private void mapShrunkNodes() {
+        Arrays.fill(mShrunk, -1);
+        Arrays.fill(mShrunkDemand, 0);
+        int count = 0;
+        for (int i = 0; i < mSize; i++) {
+            int r = find(i);
+            if (mShrunk[r] == -1)
+                mShrunk[r] = count++;
+            mShrunk[i] = mShrunk[r];
+            mShrunkDemand[mShrunk[i]] += mDemands[i];
+        }
+    }
+
+    private int getShrunkCount() {
+        int count = 0;
+        for (int i = 0; i < mSize; i++)
+            count = Math.max(count, mShrunk[i] + 1);
+        return count;
+    }
+
+    private int find(int i) {
+        while (mUnion[i] != i) {
+            mUnion[i] = mUnion[mUnion[i]];
+            i = mUnion[i];
+        }
+        return i;
+    }
+
+    private void union(int i, int j) {
+        int ri = find(i), rj = find(j);
+        if (ri != rj)
+            mUnion[Math.max(ri, rj)] = Math.min(ri, rj);
+    }
+}
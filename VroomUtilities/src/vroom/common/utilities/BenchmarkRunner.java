@@ -0,0 +1,508 @@
+/**
+ *
+ */
+package vroom.common.utilities;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+
+import vroom.common.utilities.StatCollector.Label;
+import vroom.common.utilities.logging.LoggerHelper;
+
+/**
+ * <code>BenchmarkRunner</code> executes a batch of independent {@link IBenchmarkRun benchmark runs} on a fixed number
+ * of threads and measures the resources consumed by each run.
+ * <p>
+ * Runs are sorted by decreasing {@linkplain IBenchmarkRun#getExpectedDuration() expected duration} and dealt to the
+ * workers, each worker executing the longest runs of its own queue first and stealing from the most loaded worker when
+ * its queue is empty. This longest-expected-first policy keeps all threads busy until the end of the batch.
+ * </p>
+ * <p>
+ * The CPU time, user time and allocated bytes of each run are read from the {@link ThreadMXBean} of the worker thread.
+ * Note that the resources consumed by threads started by the run itself are not accounted for.
+ * </p>
+ * <p>
+ * Stats are collected as soon as a run finishes, and the ids of finished runs are appended to an optional
+ * {@linkplain #setCheckpointFile(File) checkpoint file} so that an interrupted batch can be resumed.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 2:15:04 PM
+ *
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Getter for this class logger
+     *
+     * @return the logger associated with this class
+     */
+    public static LoggerHelper getLogger() {
+        return LoggerHelper.getLogger(BenchmarkRunner.class);
+    }
+
+    /** The labels used to collect the {@link RunMeasures} of each run */
+    public static final Label<?>[] MEASURE_LABELS = new Label<?>[] {
+            new Label<Integer>("run_id", Integer.class), // run id
+            new Label<String>("thread", String.class), // worker thread
+            new Label<Boolean>("failed", Boolean.class), // exception flag
+            new Label<Double>("wall_ms", Double.class), // wall clock time
+            new Label<Double>("cpu_ms", Double.class), // cpu time
+            new Label<Double>("user_ms", Double.class), // user time
+            new Label<Double>("alloc_mb", Double.class) // allocated memory
+                                                  };
+
+    /** A flag that will run all tasks sequentially in the calling thread */
+    public static boolean          sDebugSequential = false;
+
+    private final int              mThreadCount;
+    private final ThreadFactory    mThreadFactory;
+
+    private File                   mCheckpointFile;
+    private BufferedWriter         mCheckpointWriter;
+
+    private StatCollector          mCollector;
+    private StatCollector          mMeasuresCollector;
+    private ProgressMonitor        mProgress;
+
+    /**
+     * Creates a new <code>BenchmarkRunner</code>
+     *
+     * @param threadCount
+     *            the number of worker threads
+     * @param poolName
+     *            a name for the worker threads
+     */
+    public BenchmarkRunner(int threadCount, String poolName) {
+        mThreadCount = sDebugSequential ? 1 : Math.max(1, threadCount);
+        mThreadFactory = new BatchThreadPoolExecutor.NameThreadFactory(poolName);
+
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean.isThreadCpuTimeSupported() && !bean.isThreadCpuTimeEnabled())
+            bean.setThreadCpuTimeEnabled(true);
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()
+                    && !sunBean.isThreadAllocatedMemoryEnabled())
+                sunBean.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    /**
+     * Sets the checkpoint file in which the ids of finished runs are recorded.
+     * <p>
+     * Runs already listed in the file will be skipped by {@link #run(Collection)}
+     * </p>
+     *
+     * @param checkpointFile
+     *            the checkpoint file, {@code null} to disable checkpointing
+     */
+    public void setCheckpointFile(File checkpointFile) {
+        mCheckpointFile = checkpointFile;
+    }
+
+    /**
+     * Sets the collector that will be passed to {@link IBenchmarkRun#collectStats(StatCollector, RunMeasures, boolean)}
+     *
+     * @param collector
+     *            the collector for the run statistics
+     */
+    public void setCollector(StatCollector collector) {
+        mCollector = collector;
+    }
+
+    /**
+     * Sets the collector in which the {@link RunMeasures} of each run are recorded
+     *
+     * @param measuresCollector
+     *            a collector defined with the {@link #MEASURE_LABELS}
+     */
+    public void setMeasuresCollector(StatCollector measuresCollector) {
+        mMeasuresCollector = measuresCollector;
+    }
+
+    /**
+     * Sets a progress monitor that will be notified of each finished run
+     *
+     * @param progress
+     */
+    public void setProgress(ProgressMonitor progress) {
+        mProgress = progress;
+    }
+
+    /**
+     * Reads the ids of the runs recorded in a checkpoint file
+     *
+     * @param checkpointFile
+     *            the checkpoint file
+     * @return the set of the ids recorded in {@code  checkpointFile}, or an empty set if the file does not exist
+     */
+    public static Set<Integer> readCheckpoint(File checkpointFile) {
+        if (checkpointFile == null || !checkpointFile.exists())
+            return Collections.emptySet();
+
+        Set<Integer> done = new HashSet<Integer>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(checkpointFile))) {
+            String line = reader.readLine();
+            while (line != null) {
+                line = line.trim();
+                if (!line.isEmpty())
+                    done.add(Integer.valueOf(line));
+                line = reader.readLine();
+            }
+        } catch (IOException | NumberFormatException e) {
+            getLogger().exception("BenchmarkRunner.readCheckpoint", e);
+        }
+        return done;
+    }
+
+    /**
+     * Execute a batch of runs and wait for their completion
+     *
+     * @param runs
+     *            the runs to be executed
+     * @return the number of runs that were executed
+     * @throws InterruptedException
+     */
+    public int run(Collection<? extends IBenchmarkRun> runs) throws InterruptedException {
+        // Skip finished runs
+        Set<Integer> done = readCheckpoint(mCheckpointFile);
+        List<IBenchmarkRun> todo = new ArrayList<IBenchmarkRun>(runs.size());
+        for (IBenchmarkRun r : runs) {
+            if (done.contains(r.getRunId())) {
+                getLogger().info("BenchmarkRunner.run: skipping run %s (checkpoint)",
+                        r.getRunId());
+                r.dispose();
+            } else {
+                todo.add(r);
+            }
+        }
+
+        // Longest expected first
+        Collections.sort(todo, new Comparator<IBenchmarkRun>() {
+            @Override
+            public int compare(IBenchmarkRun o1, IBenchmarkRun o2) {
+                return Double.compare(o2.getExpectedDuration(), o1.getExpectedDuration());
+            }
+        });
+
+        openCheckpoint();
+        try {
+            if (mThreadCount == 1) {
+                for (IBenchmarkRun r : todo)
+                    execute(r);
+            } else {
+                runParallel(todo);
+            }
+        } finally {
+            closeCheckpoint();
+        }
+
+        return todo.size();
+    }
+
+    /**
+     * Execute the runs in parallel
+     *
+     * @param todo
+     *            the runs sorted by decreasing expected duration
+     * @throws InterruptedException
+     */
+    private void runParallel(List<IBenchmarkRun> todo) throws InterruptedException {
+        int workers = Math.min(mThreadCount, Math.max(1, todo.size()));
+
+        // Deal the runs to the workers
+        final List<ConcurrentLinkedDeque<IBenchmarkRun>> queues = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++)
+            queues.add(new ConcurrentLinkedDeque<IBenchmarkRun>());
+        int w = 0;
+        for (IBenchmarkRun r : todo) {
+            queues.get(w).addLast(r);
+            w = (w + 1) % workers;
+        }
+
+        final CountDownLatch latch = new CountDownLatch(workers);
+        for (int i = 0; i < workers; i++) {
+            final int id = i;
+            Thread t = mThreadFactory.newThread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        IBenchmarkRun r = next(queues, id);
+                        while (r != null) {
+                            execute(r);
+                            r = next(queues, id);
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            });
+            t.start();
+        }
+
+        latch.await();
+    }
+
+    /**
+     * Returns the next run for a worker, stealing from the most loaded worker if its own queue is empty
+     *
+     * @param queues
+     *            the queues of all workers
+     * @param worker
+     *            the index of the worker
+     * @return the next run to be executed, {@code null} if all queues are empty
+     */
+    private static IBenchmarkRun next(List<ConcurrentLinkedDeque<IBenchmarkRun>> queues, int worker) {
+        IBenchmarkRun r = queues.get(worker).pollFirst();
+        while (r == null) {
+            ConcurrentLinkedDeque<IBenchmarkRun> victim = null;
+            int max = 0;
+            for (ConcurrentLinkedDeque<IBenchmarkRun> q : queues) {
+                int size = q.size();
+                if (size > max) {
+                    max = size;
+                    victim = q;
+                }
+            }
+            if (victim == null)
+                return null;
+            r = victim.pollFirst();
+        }
+        return r;
+    }
+
+    /**
+     * Execute a single run, measure its resource usage, and collect its stats
+     *
+     * @param run
+     *            the run to execute
+     */
+    private void execute(IBenchmarkRun run) {
+        RunMeasures measures = new RunMeasures(run.getRunId());
+        boolean failed = false;
+        measures.start();
+        try {
+            run.execute();
+        } catch (Exception e) {
+            failed = true;
+            getLogger().exception("BenchmarkRunner.execute (%s)", e, run);
+        } finally {
+            measures.stop();
+        }
+
+        try {
+            if (mCollector != null)
+                run.collectStats(mCollector, measures, failed);
+            if (mMeasuresCollector != null)
+                mMeasuresCollector.collect(measures.getRunId(), measures.getThread(), failed,
+                        measures.getWallTimeMS(), measures.getCpuTimeMS(),
+                        measures.getUserTimeMS(), measures.getAllocatedMB());
+            checkpoint(run);
+        } catch (Exception e) {
+            getLogger().exception("BenchmarkRunner.execute (%s)", e, run);
+        } finally {
+            // Free up resources
+            run.dispose();
+            if (mProgress != null)
+                mProgress.iterationFinished();
+        }
+
+        getLogger().debug("BenchmarkRunner.execute: %s", measures);
+    }
+
+    private void openCheckpoint() {
+        if (mCheckpointFile == null)
+            return;
+        try {
+            mCheckpointWriter = new BufferedWriter(new FileWriter(mCheckpointFile, true));
+        } catch (IOException e) {
+            getLogger().exception("BenchmarkRunner.openCheckpoint", e);
+            mCheckpointWriter = null;
+        }
+    }
+
+    private synchronized void checkpoint(IBenchmarkRun run) throws IOException {
+        if (mCheckpointWriter == null)
+            return;
+        // Stats are written asynchronously, make sure they are on disk before the run is marked as done
+        if (mCollector != null)
+            mCollector.flush();
+        if (mMeasuresCollector != null)
+            mMeasuresCollector.flush();
+        mCheckpointWriter.write(Integer.toString(run.getRunId()));
+        mCheckpointWriter.newLine();
+        mCheckpointWriter.flush();
+    }
+
+    private synchronized void closeCheckpoint() {
+        if (mCheckpointWriter == null)
+            return;
+        try {
+            mCheckpointWriter.close();
+        } catch (IOException e) {
+            getLogger().exception("BenchmarkRunner.closeCheckpoint", e);
+        }
+        mCheckpointWriter = null;
+    }
+
+    /**
+     * <code>IBenchmarkRun</code> is the interface for runs executed by a {@link BenchmarkRunner}
+     * <p>
+     * Creation date: Oct 19, 2026 - 2:15:04 PM
+     *
+     * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+     *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+     *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+     * @version 1.0
+     */
+    public static interface IBenchmarkRun extends IDisposable {
+
+        /**
+         * Returns the unique id of this run, used for checkpointing
+         *
+         * @return the unique id of this run
+         */
+        public int getRunId();
+
+        /**
+         * Returns an estimation of the duration of this run, only used to order runs
+         *
+         * @return an estimation of the duration of this run, in any unit
+         */
+        public double getExpectedDuration();
+
+        /**
+         * Execute this run
+         *
+         * @throws Exception
+         */
+        public void execute() throws Exception;
+
+        /**
+         * Collect the statistics of this run
+         *
+         * @param collector
+         *            the collector
+         * @param measures
+         *            the resources consumed by this run
+         * @param failed
+         *            {@code true} if an exception was thrown by {@link #execute()}
+         */
+        public void collectStats(StatCollector collector, RunMeasures measures, boolean failed);
+    }
+
+    /**
+     * <code>RunMeasures</code> stores the resources consumed by a run
+     * <p>
+     * Creation date: Oct 19, 2026 - 2:15:04 PM
+     *
+     * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+     *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+     *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+     * @version 1.0
+     */
+    public static class RunMeasures {
+        private final int mRunId;
+        private String    mThread;
+        private long      mWallTime;
+        private long      mCpuTime;
+        private long      mUserTime;
+        private long      mAllocated;
+
+        private RunMeasures(int runId) {
+            mRunId = runId;
+        }
+
+        private void start() {
+            mThread = Thread.currentThread().getName();
+            mWallTime = System.nanoTime();
+            mCpuTime = cpuTime();
+            mUserTime = userTime();
+            mAllocated = allocatedBytes();
+        }
+
+        private void stop() {
+            mWallTime = System.nanoTime() - mWallTime;
+            mCpuTime = cpuTime() - mCpuTime;
+            mUserTime = userTime() - mUserTime;
+            mAllocated = allocatedBytes() - mAllocated;
+        }
+
+        private static long cpuTime() {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            return bean.isCurrentThreadCpuTimeSupported() ? bean.getCurrentThreadCpuTime() : 0;
+        }
+
+        private static long userTime() {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            return bean.isCurrentThreadCpuTimeSupported() ? bean.getCurrentThreadUserTime() : 0;
+        }
+
+        private static long allocatedBytes() {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+                if (sunBean.isThreadAllocatedMemoryEnabled())
+                    return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+            return 0;
+        }
+
+        /** @return the id of the measured run */
+        public int getRunId() {
+            return mRunId;
+        }
+
+        /** @return the name of the thread that executed the run */
+        public String getThread() {
+            return mThread;
+        }
+
+        /** @return the wall clock time of the run in ms */
+        public double getWallTimeMS() {
+            return mWallTime / 1e6;
+        }
+
+        /** @return the cpu time of the run in ms */
+        public double getCpuTimeMS() {
+            return mCpuTime / 1e6;
+        }
+
+        /** @return the user time of the run in ms */
+        public double getUserTimeMS() {
+            return mUserTime / 1e6;
+        }
+
+        /** @return the memory allocated by the run in MB */
+        public double getAllocatedMB() {
+            return mAllocated / (1024d * 1024d);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("run:%s thread:%s wall:%.1fms cpu:%.1fms user:%.1fms alloc:%.1fMB",
+                    getRunId(), getThread(), getWallTimeMS(), getCpuTimeMS(), getUserTimeMS(),
+                    getAllocatedMB());
+        }
+    }
+}
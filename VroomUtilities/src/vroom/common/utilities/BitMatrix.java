@@ -0,0 +1,216 @@
+/**
+ * 
+ */
+package vroom.common.utilities;
+
+/**
+ * <code>BitMatrix</code> is a compact replacement for a <code>boolean[][]</code> matrix in which each entry is stored
+ * as a single bit.
+ * <p>
+ * Rows are stored contiguously in a single <code>long[]</code> array, each row being padded to a whole number of 64-bit
+ * words, so that operations on complete rows (counting, iterating over the set columns, intersecting two rows) are
+ * performed one word at a time.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 5:41:18 PM
+ * </p>
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class BitMatrix {
+
+    /** The number of rows */
+    private final int    mRowCount;
+    /** The number of columns */
+    private final int    mColumnCount;
+    /** The number of words used to store a row */
+    private final int    mRowWords;
+    /** The bits, stored by row */
+    private final long[] mBits;
+
+    /**
+     * Creates a new <code>BitMatrix</code> in which all entries are <code>false</code>
+     * 
+     * @param rowCount
+     *            the number of rows
+     * @param columnCount
+     *            the number of columns
+     */
+    public BitMatrix(int rowCount, int columnCount) {
+        mRowCount = rowCount;
+        mColumnCount = columnCount;
+        mRowWords = (columnCount + 63) >>> 6;
+        mBits = new long[rowCount * mRowWords];
+    }
+
+    /**
+     * Returns the number of rows of this matrix
+     * 
+     * @return the number of rows of this matrix
+     */
+    public int getRowCount() {
+        return mRowCount;
+    }
+
+    /**
+     * Returns the number of columns of this matrix
+     * 
+     * @return the number of columns of this matrix
+     */
+    public int getColumnCount() {
+        return mColumnCount;
+    }
+
+    /**
+     * Returns the value of an entry
+     * 
+     * @param i
+     *            the row of the entry
+     * @param j
+     *            the column of the entry
+     * @return the value of entry <code>(i,j)</code>
+     */
+    public boolean get(int i, int j) {
+        return (mBits[i * mRowWords + (j >>> 6)] & (1L << j)) != 0;
+    }
+
+    /**
+     * Sets the value of an entry
+     * 
+     * @param i
+     *            the row of the entry
+     * @param j
+     *            the column of the entry
+     * @param value
+     *            the new value of entry <code>(i,j)</code>
+     */
+    public void set(int i, int j, boolean value) {
+        int w = i * mRowWords + (j >>> 6);
+        if (value)
+            mBits[w] |= 1L << j;
+        else
+            mBits[w] &= ~(1L << j);
+    }
+
+    /**
+     * Returns the number of <code>true</code> entries in a row
+     * 
+     * @param i
+     *            the row
+     * @return the number of <code>true</code> entries in row <code>i</code>
+     */
+    public int cardinality(int i) {
+        int count = 0;
+        for (int w = i * mRowWords; w < (i + 1) * mRowWords; w++)
+            count += Long.bitCount(mBits[w]);
+        return count;
+    }
+
+    /**
+     * Returns the first column of a row which entry is <code>true</code>, starting at a given column
+     * 
+     * @param i
+     *            the row
+     * @param from
+     *            the first column to consider
+     * @return the first column <code>j&gt;=from</code> such that entry <code>(i,j)</code> is <code>true</code>, or
+     *         <code>-1</code> if there is no such column
+     */
+    public int nextSetColumn(int i, int from) {
+        if (from >= mColumnCount)
+            return -1;
+        int base = i * mRowWords;
+        int w = from >>> 6;
+        long word = mBits[base + w] & (-1L << from);
+        while (true) {
+            if (word != 0)
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            if (++w == mRowWords)
+                return -1;
+            word = mBits[base + w];
+        }
+    }
+
+    /**
+     * Stores in {@code dest} the columns of a row which entries are <code>true</code>, in increasing order
+     * 
+     * @param i
+     *            the row
+     * @param dest
+     *            the destination array, of length at least {@link #cardinality(int) cardinality(i)}
+     * @return the number of columns stored in {@code dest}
+     */
+    public int getRow(int i, int[] dest) {
+        int count = 0;
+        int base = i * mRowWords;
+        for (int w = 0; w < mRowWords; w++) {
+            long word = mBits[base + w];
+            while (word != 0) {
+                dest[count++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Stores in {@code dest} the columns which entries are <code>true</code> in both a row of this matrix and a row of
+     * another matrix, in increasing order
+     * 
+     * @param i
+     *            the row of this matrix
+     * @param other
+     *            the other matrix, with the same number of columns as this matrix
+     * @param k
+     *            the row of {@code other}
+     * @param dest
+     *            the destination array
+     * @return the number of columns stored in {@code dest}
+     * @throws IllegalArgumentException
+     *             if the two matrices do not have the same number of columns
+     */
+    public int and(int i, BitMatrix other, int k, int[] dest) {
+        if (other.mColumnCount != mColumnCount)
+            throw new IllegalArgumentException(String.format("Incompatible number of columns: %s and %s",
+                    mColumnCount, other.mColumnCount));
+        int count = 0;
+        int base = i * mRowWords;
+        int otherBase = k * mRowWords;
+        for (int w = 0; w < mRowWords; w++) {
+            long word = mBits[base + w] & other.mBits[otherBase + w];
+            while (word != 0) {
+                dest[count++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the transpose of this matrix
+     * 
+     * @return a new matrix <code>t</code> such that <code>t.get(j,i)==get(i,j)</code>
+     */
+    public BitMatrix transpose() {
+        BitMatrix t = new BitMatrix(mColumnCount, mRowCount);
+        for (int i = 0; i < mRowCount; i++) {
+            for (int j = nextSetColumn(i, 0); j >= 0; j = nextSetColumn(i, j + 1))
+                t.set(j, i, true);
+        }
+        return t;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(mRowCount * (mColumnCount + 1));
+        for (int i = 0; i < mRowCount; i++) {
+            for (int j = 0; j < mColumnCount; j++)
+                sb.append(get(i, j) ? '1' : '0');
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
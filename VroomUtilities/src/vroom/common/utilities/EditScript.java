@@ -0,0 +1,315 @@
+/**
+ * 
+ */
+package vroom.common.utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import vroom.common.utilities.LevenshteinDistance.Edit;
+import vroom.common.utilities.LevenshteinDistance.EditType;
+
+/**
+ * <code>EditScript</code> is a minimum length edit script between two sequences of <code>int</code>, in the sense of
+ * the <a href="http://en.wikipedia.org/wiki/Levenshtein_distance">Levenshtein distance</a>.
+ * <p>
+ * The script is computed with the algorithm of Hirschberg: the problem is recursively split in halves of the reference
+ * sequence, the split point in the evaluated sequence being found with a forward and a backward pass that only keep
+ * one row of the dynamic programming matrix. Sub-problems that fit in {@link #MAX_BLOCK_SIZE} cells are solved with the
+ * full matrix. The time complexity is {@code  O(n.m)} and the space complexity is {@code  O(n+m)}.
+ * </p>
+ * <p>
+ * Edits are stored in the same order as in {@link LevenshteinDistance#getEditSequence(List, List)}, from the end to the
+ * start of the sequences, and indexes follow the same convention as {@link Edit#getEditIndex()}. When both sequences
+ * fit in a single block, the script is identical to the one returned by
+ * {@link LevenshteinDistance#getEditSequence(List, List)}.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 7:31:42 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public final class EditScript {
+
+    /** The maximum number of cells of a sub-problem solved with the full dynamic programming matrix */
+    public static final int         MAX_BLOCK_SIZE = 1 << 14;
+
+    private static final EditType[] TYPES          = EditType.values();
+
+    /**
+     * Returns a minimum length edit script to transform {@code  ref} into {@code  seq}
+     * 
+     * @param ref
+     *            the reference sequence
+     * @param seq
+     *            the evaluated sequence
+     * @return a minimum length edit script to transform {@code  ref} into {@code  seq}
+     */
+    public static EditScript getEditScript(int[] ref, int[] seq) {
+        EditScript script = new EditScript(ref, seq);
+        script.solve(0, ref.length, 0, seq.length);
+        // Release the working buffers
+        script.mFwd = null;
+        script.mBwd = null;
+        script.mBlock = null;
+        return script;
+    }
+
+    private final int[] mRef;
+    private final int[] mSeq;
+
+    /** The number of edits */
+    private int         mSize;
+    /** The type of each edit */
+    private byte[]      mTypes;
+    /** The index of each edit in the reference sequence */
+    private int[]       mRefIndexes;
+    /** The index of each edit in the evaluated sequence */
+    private int[]       mSeqIndexes;
+
+    /** Rows used in the forward and backward passes */
+    private int[]       mFwd, mBwd;
+    /** Matrix used to solve blocks */
+    private int[]       mBlock;
+
+    private EditScript(int[] ref, int[] seq) {
+        mRef = ref;
+        mSeq = seq;
+        int capacity = Math.max(ref.length, seq.length) + 1;
+        mTypes = new byte[capacity];
+        mRefIndexes = new int[capacity];
+        mSeqIndexes = new int[capacity];
+        mFwd = new int[seq.length + 1];
+        mBwd = new int[seq.length + 1];
+    }
+
+    /**
+     * Returns the number of edits in this script
+     * 
+     * @return the number of edits in this script
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Returns the Levenshtein distance between the two sequences
+     * 
+     * @return the Levenshtein distance between the two sequences
+     */
+    public int getDistance() {
+        return mSize;
+    }
+
+    /**
+     * Returns the type of an edit
+     * 
+     * @param k
+     *            the index of the edit
+     * @return the type of the {@code  k}-th edit
+     */
+    public EditType getType(int k) {
+        return TYPES[mTypes[k]];
+    }
+
+    /**
+     * Returns the index of an edit in the reference sequence
+     * 
+     * @param k
+     *            the index of the edit
+     * @return the index of the {@code  k}-th edit in the reference sequence
+     * @see Edit#getEditIndex()
+     */
+    public int getEditIndex(int k) {
+        return mRefIndexes[k];
+    }
+
+    /**
+     * Returns the edited element in the reference sequence, undefined for an insertion at index {@code  0}
+     * 
+     * @param k
+     *            the index of the edit
+     * @return the edited element of the {@code  k}-th edit
+     * @see Edit#getEditedElement()
+     */
+    public int getEditedElement(int k) {
+        return mRef[mRefIndexes[k] - 1];
+    }
+
+    /**
+     * Returns the new element of an edit
+     * 
+     * @param k
+     *            the index of the edit
+     * @return the new element of the {@code  k}-th edit
+     * @see Edit#getNewElement()
+     */
+    public int getNewElement(int k) {
+        return mTypes[k] == EditType.DEL.ordinal() ? mRef[mRefIndexes[k] - 1] : mSeq[mSeqIndexes[k] - 1];
+    }
+
+    /**
+     * Converts this script in a list of {@link Edit}
+     * 
+     * @return a list containing the edits of this script
+     */
+    public List<Edit<Integer>> toEdits() {
+        ArrayList<Edit<Integer>> edits = new ArrayList<Edit<Integer>>(mSize);
+        for (int k = 0; k < mSize; k++)
+            edits.add(new Edit<Integer>(getType(k), getEditIndex(k), getEditIndex(k) > 0 ? getEditedElement(k)
+                    : null, getNewElement(k)));
+        return edits;
+    }
+
+    /**
+     * Add an edit to this script
+     */
+    private void addEdit(EditType type, int i, int j) {
+        if (mSize == mTypes.length) {
+            mTypes = Arrays.copyOf(mTypes, 2 * mSize);
+            mRefIndexes = Arrays.copyOf(mRefIndexes, 2 * mSize);
+            mSeqIndexes = Arrays.copyOf(mSeqIndexes, 2 * mSize);
+        }
+        mTypes[mSize] = (byte) type.ordinal();
+        mRefIndexes[mSize] = i;
+        mSeqIndexes[mSize] = j;
+        mSize++;
+    }
+
+    /**
+     * Append the edits transforming {@code ref[a,b)} into {@code seq[c,d)}, in reverse order
+     */
+    private void solve(int a, int b, int c, int d) {
+        int n = b - a;
+        int m = d - c;
+        if (n <= 1 || (long) (n + 1) * (m + 1) <= MAX_BLOCK_SIZE) {
+            solveBlock(a, b, c, d);
+            return;
+        }
+
+        int mid = (a + b) >>> 1;
+        forward(a, mid, c, d);
+        backward(mid, b, c, d);
+        int split = 0;
+        int best = Integer.MAX_VALUE;
+        for (int k = 0; k <= m; k++) {
+            if (mFwd[k] + mBwd[k] < best) {
+                best = mFwd[k] + mBwd[k];
+                split = k;
+            }
+        }
+
+        // Edits are stored from the end of the sequences
+        solve(mid, b, c + split, d);
+        solve(a, mid, c, c + split);
+    }
+
+    /**
+     * Stores in {@link #mFwd} the distances between {@code ref[a,b)} and each prefix {@code seq[c,c+k)}
+     */
+    private void forward(int a, int b, int c, int d) {
+        int[] row = mFwd;
+        int m = d - c;
+        for (int j = 0; j <= m; j++)
+            row[j] = j;
+        for (int i = 1; i <= b - a; i++) {
+            int x = mRef[a + i - 1];
+            int diag = row[0];
+            row[0] = i;
+            for (int j = 1; j <= m; j++) {
+                int tmp = row[j];
+                if (x == mSeq[c + j - 1])
+                    row[j] = diag;
+                else
+                    row[j] = 1 + Math.min(diag, Math.min(row[j], row[j - 1]));
+                diag = tmp;
+            }
+        }
+    }
+
+    /**
+     * Stores in {@link #mBwd} the distances between {@code ref[a,b)} and each suffix {@code seq[c+k,d)}
+     */
+    private void backward(int a, int b, int c, int d) {
+        int[] row = mBwd;
+        int m = d - c;
+        for (int j = 0; j <= m; j++)
+            row[j] = m - j;
+        for (int i = 1; i <= b - a; i++) {
+            int x = mRef[b - i];
+            int diag = row[m];
+            row[m] = i;
+            for (int j = m - 1; j >= 0; j--) {
+                int tmp = row[j];
+                if (x == mSeq[c + j])
+                    row[j] = diag;
+                else
+                    row[j] = 1 + Math.min(diag, Math.min(row[j], row[j + 1]));
+                diag = tmp;
+            }
+        }
+    }
+
+    /**
+     * Solve a sub-problem with the full dynamic programming matrix, using the same tie breaking rules as
+     * {@link LevenshteinDistance}
+     */
+    private void solveBlock(int a, int b, int c, int d) {
+        int n = b - a;
+        int m = d - c;
+        int w = m + 1;
+        int size = (n + 1) * w;
+        if (mBlock == null || mBlock.length < size)
+            mBlock = new int[size];
+        int[] dist = mBlock;
+
+        for (int j = 0; j <= m; j++)
+            dist[j] = j;
+        for (int i = 1; i <= n; i++) {
+            int x = mRef[a + i - 1];
+            int row = i * w;
+            dist[row] = i;
+            for (int j = 1; j <= m; j++) {
+                if (x == mSeq[c + j - 1])
+                    dist[row + j] = dist[row - w + j - 1];
+                else
+                    dist[row + j] = 1 + Math.min(dist[row - w + j - 1],
+                            Math.min(dist[row - w + j], dist[row + j - 1]));
+            }
+        }
+
+        // Trace back from the south east cell
+        int i = n;
+        int j = m;
+        while (i > 0 || j > 0) {
+            if (i == 0) {
+                addEdit(EditType.INS, a, c + j);
+                j--;
+            } else if (j == 0) {
+                addEdit(EditType.DEL, a + i, c);
+                i--;
+            } else if (mRef[a + i - 1] == mSeq[c + j - 1]) {
+                i--;
+                j--;
+            } else {
+                int west = dist[i * w + j - 1];
+                int northWest = dist[(i - 1) * w + j - 1];
+                if (west < northWest) {
+                    addEdit(EditType.INS, a + i, c + j);
+                    j--;
+                } else if (northWest <= dist[(i - 1) * w + j]) {
+                    addEdit(EditType.SUB, a + i, c + j);
+                    i--;
+                    j--;
+                } else {
+                    addEdit(EditType.DEL, a + i, c + j);
+                    i--;
+                }
+            }
+        }
+    }
+}
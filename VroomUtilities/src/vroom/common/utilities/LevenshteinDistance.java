@@ -11,6 +11,10 @@ import vroom.common.utilities.Utilities.Math;
  * distance with a time/space complexity of {@code  O(n.d)} where {@code  d} is the distance between the two seqs, and
  * {@code  n} is the length of the longest seq.
  * <p>
+ * The matrix stores one object per evaluated cell, {@link EditScript} should be preferred for long sequences of
+ * <code>int</code>.
+ * </p>
+ * <p>
  * Creation date: Nov 29, 2011 - 2:52:33 PM
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
@@ -0,0 +1,123 @@
+/**
+ * 
+ */
+package vroom.common.utilities;
+
+import java.util.Arrays;
+
+/**
+ * <code>StampedDoubleArray</code> is an array of optional <code>double</code> values that can be reset in constant
+ * time.
+ * <p>
+ * It is a primitive replacement for a <code>Double[]</code> array in which <code>null</code> denotes a missing value.
+ * Each entry carries an epoch stamp and is considered {@linkplain #isSet(int) set} only if its stamp is equal to the
+ * current epoch, so that {@link #clear()} only increments the epoch.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 3:10:31 PM
+ * </p>
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class StampedDoubleArray {
+
+    /** The values */
+    private double[] mValues;
+    /** The stamp of each value */
+    private int[]    mStamps;
+    /** The current epoch */
+    private int      mEpoch;
+
+    /**
+     * Creates a new <code>StampedDoubleArray</code> in which no value is set
+     * 
+     * @param length
+     *            the length of the array
+     */
+    public StampedDoubleArray(int length) {
+        mValues = new double[length];
+        mStamps = new int[length];
+        mEpoch = 1;
+    }
+
+    /**
+     * Returns the length of this array
+     * 
+     * @return the length of this array
+     */
+    public int length() {
+        return mValues.length;
+    }
+
+    /**
+     * Ensure that this array has a length of at least {@code length}
+     * 
+     * @param length
+     *            the minimum length
+     */
+    public void ensureCapacity(int length) {
+        if (length > mValues.length) {
+            mValues = Arrays.copyOf(mValues, length);
+            mStamps = Arrays.copyOf(mStamps, length);
+        }
+    }
+
+    /**
+     * Unset all the values
+     */
+    public void clear() {
+        if (++mEpoch == Integer.MAX_VALUE) {
+            // Stamps wrapped around: reset them
+            Arrays.fill(mStamps, 0);
+            mEpoch = 1;
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the value at position {@code i} is set
+     * 
+     * @param i
+     *            the position of the value
+     * @return <code>true</code> if the value at position {@code i} is set
+     */
+    public boolean isSet(int i) {
+        return mStamps[i] == mEpoch;
+    }
+
+    /**
+     * Returns the value at position {@code i}
+     * 
+     * @param i
+     *            the position of the value
+     * @return the value at position {@code i}, or {@link Double#NaN} if it is not set
+     */
+    public double get(int i) {
+        return mStamps[i] == mEpoch ? mValues[i] : Double.NaN;
+    }
+
+    /**
+     * Set the value at position {@code i}
+     * 
+     * @param i
+     *            the position of the value
+     * @param value
+     *            the new value
+     */
+    public void set(int i, double value) {
+        mValues[i] = value;
+        mStamps[i] = mEpoch;
+    }
+
+    /**
+     * Unset the value at position {@code i}
+     * 
+     * @param i
+     *            the position of the value
+     */
+    public void unset(int i) {
+        mStamps[i] = 0;
+    }
+}
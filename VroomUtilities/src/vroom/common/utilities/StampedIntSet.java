@@ -0,0 +1,221 @@
+/**
+ * 
+ */
+package vroom.common.utilities;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * <code>StampedIntSet</code> is an implementation of {@link Set} to store integers between <code>0</code> and a known
+ * maximum value, designed to be reused without allocation.
+ * <p>
+ * Membership is recorded with epoch stamps: a value is in the set if its stamp is equal to the current epoch, so that
+ * {@link #clear()} only increments the epoch and runs in constant time. Members are also stored in a dense array, which
+ * makes iteration run in O({@link #size()}) instead of O({@code maxValue}) for {@link IntegerSet}.
+ * </p>
+ * <p>
+ * {@link #add(int)}, {@link #remove(int)}, {@link #contains(int)} and {@link #clear()} are executed in constant time.
+ * Removing an element moves the last member to its position, the iteration order is therefore not stable.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 3:02:47 PM
+ * </p>
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class StampedIntSet extends AbstractSet<Integer> {
+
+    /** The stamp of each value, a value is in the set if its stamp is equal to {@link #mEpoch} */
+    private int[] mStamps;
+    /** The position of each value in {@link #mMembers} */
+    private int[] mPosition;
+    /** The members of this set */
+    private int[] mMembers;
+    /** The number of members */
+    private int   mSize;
+    /** The current epoch */
+    private int   mEpoch;
+    /** The number of modifications, used to detect concurrent modifications */
+    private int   mModCount;
+
+    /**
+     * Creates a new empty <code>StampedIntSet</code>
+     * 
+     * @param maxValue
+     *            the maximum value that will be contained in this set
+     */
+    public StampedIntSet(int maxValue) {
+        mStamps = new int[maxValue + 1];
+        mPosition = new int[maxValue + 1];
+        mMembers = new int[maxValue + 1];
+        mEpoch = 1;
+    }
+
+    /**
+     * Ensure that this set can contain values up to {@code maxValue}
+     * 
+     * @param maxValue
+     *            the maximum value that will be contained in this set
+     */
+    public void ensureCapacity(int maxValue) {
+        if (maxValue >= mStamps.length) {
+            mStamps = Arrays.copyOf(mStamps, maxValue + 1);
+            mPosition = Arrays.copyOf(mPosition, maxValue + 1);
+            mMembers = Arrays.copyOf(mMembers, maxValue + 1);
+        }
+    }
+
+    /**
+     * Returns the maximum value that can be contained in this set
+     * 
+     * @return the maximum value that can be contained in this set
+     */
+    public int getMaxValue() {
+        return mStamps.length - 1;
+    }
+
+    /**
+     * Returns <code>true</code> if this set contains {@code value}
+     * 
+     * @param value
+     *            the value to check
+     * @return <code>true</code> if this set contains {@code value}
+     */
+    public boolean contains(int value) {
+        return value >= 0 && value < mStamps.length && mStamps[value] == mEpoch;
+    }
+
+    /**
+     * Add a value to this set
+     * 
+     * @param value
+     *            the value to add
+     * @return <code>true</code> if the set did not already contain {@code value}
+     */
+    public boolean add(int value) {
+        if (mStamps[value] == mEpoch)
+            return false;
+        mStamps[value] = mEpoch;
+        mPosition[value] = mSize;
+        mMembers[mSize++] = value;
+        mModCount++;
+        return true;
+    }
+
+    /**
+     * Remove a value from this set
+     * 
+     * @param value
+     *            the value to remove
+     * @return <code>true</code> if the set contained {@code value}
+     */
+    public boolean remove(int value) {
+        if (!contains(value))
+            return false;
+        mStamps[value] = 0;
+        int pos = mPosition[value];
+        int last = mMembers[--mSize];
+        mMembers[pos] = last;
+        mPosition[last] = pos;
+        mModCount++;
+        return true;
+    }
+
+    /**
+     * Returns the member at position {@code index}
+     * 
+     * @param index
+     *            the position of the member, between <code>0</code> and <code>{@link #size()}-1</code>
+     * @return the member at position {@code index}
+     */
+    public int get(int index) {
+        if (index < 0 || index >= mSize)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + mSize);
+        return mMembers[index];
+    }
+
+    /**
+     * Returns a copy of the members of this set
+     * 
+     * @return a new array containing the members of this set, in iteration order
+     */
+    public int[] toIntArray() {
+        return Arrays.copyOf(mMembers, mSize);
+    }
+
+    @Override
+    public void clear() {
+        mSize = 0;
+        mModCount++;
+        if (++mEpoch == Integer.MAX_VALUE) {
+            // Stamps wrapped around: reset them
+            Arrays.fill(mStamps, 0);
+            mEpoch = 1;
+        }
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer && contains(((Integer) o).intValue());
+    }
+
+    @Override
+    public boolean add(Integer e) {
+        return add(e.intValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Integer && remove(((Integer) o).intValue());
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<Integer>() {
+            private int mNext     = 0;
+            private int mLast     = -1;
+            private int mExpected = mModCount;
+
+            @Override
+            public boolean hasNext() {
+                return mNext < mSize;
+            }
+
+            @Override
+            public Integer next() {
+                if (mExpected != mModCount)
+                    throw new ConcurrentModificationException();
+                if (mNext >= mSize)
+                    throw new NoSuchElementException();
+                mLast = mMembers[mNext++];
+                return mLast;
+            }
+
+            @Override
+            public void remove() {
+                if (mLast < 0)
+                    throw new IllegalStateException();
+                if (mExpected != mModCount)
+                    throw new ConcurrentModificationException();
+                StampedIntSet.this.remove(mLast);
+                // The last member was moved to the current position
+                mNext--;
+                mLast = -1;
+                mExpected = mModCount;
+            }
+        };
+    }
+}
@@ -3,16 +3,35 @@
  */
 package vroom.common.utilities;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.Format;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import vroom.common.utilities.logging.LoggerHelper;
 
@@ -20,8 +39,23 @@ import vroom.common.utilities.logging.LoggerHelper;
  * <code>StatCollector</code> is a class that allows the collection of statistic information and their output in a CSV
  * text file.
  * <p>
+ * Collected rows are buffered per thread in primitive columns (integer types, floating point types and booleans are
+ * not boxed) and written to the output file by a background flusher, formatting being done outside of the collecting
+ * threads. Rows collected by a given thread are written in order, while rows from different threads may be
+ * interleaved. Call {@link #flush()} to synchronously write all pending rows.
+ * </p>
+ * <p>
+ * Without auto flush, rows are only written within {@link #sFlushPeriod} ms or when a thread has buffered
+ * {@link #sBlockSize} rows, and rows still buffered are lost if the jvm crashes. With auto flush, each row is written
+ * and flushed before {@link #collect(Object...)} or {@link RowWriter#commit()} returns.
+ * </p>
+ * <p>
+ * Rows can also be written in a compact {@linkplain #setBinaryFile(File) binary columnar file}, which can be iterated
+ * without boxing with a {@link BinaryReader}.
+ * </p>
+ * <p>
  * Creation date: Jul 8, 2010 - 10:14:16 AM
- * 
+ *
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
  *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
  *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
@@ -31,7 +65,7 @@ public class StatCollector {
 
     /**
      * Getter for this class logger
-     * 
+     *
      * @return the logger associated with this class
      */
     public static LoggerHelper getLogger() {
@@ -42,7 +76,7 @@ public class StatCollector {
 
     /**
      * Set the default format number to be used
-     * 
+     *
      * @param format
      *            a string of the form <code>###0.0000</code> defining the formating of decimal numbers
      */
@@ -52,7 +86,7 @@ public class StatCollector {
 
     /**
      * Returns the default number format to be used
-     * 
+     *
      * @return the default number format to be used
      * @see #setDefaultNumberFormat(String)
      */
@@ -60,43 +94,101 @@ public class StatCollector {
         return sNumberFormat;
     }
 
-    public static String         sCVSSeparator      = ";";
-    public static char           sDecimalSeparator  = '.';
-    public static char           sGroupingSeparator = ',';
-    public static String         sCommentsPrefix    = "#==================== COMMENTS ====================\n";
-    public static String         sCommentsSuffix    = "\n#==================================================\n\n";
+    public static String                         sCVSSeparator      = ";";
+    public static char                           sDecimalSeparator  = '.';
+    public static char                           sGroupingSeparator = ',';
+    public static String                         sCommentsPrefix    = "#==================== COMMENTS ====================\n";
+    public static String                         sCommentsSuffix    = "\n#==================================================\n\n";
+
+    /** The number of rows buffered by each thread before they are handed to the flusher */
+    public static int                            sBlockSize         = 1024;
+    /** The period (in ms) at which pending rows are written to the output files */
+    public static long                           sFlushPeriod       = 1000;
+
+    /** The magic number of binary files ("VSTC") */
+    private static final int                     BINARY_MAGIC       = 0x56535443;
+    /** The version of the binary format */
+    private static final int                     BINARY_VERSION     = 1;
+
+    /** The shared background flusher */
+    private static final ScheduledExecutorService sFlusher;
+    /** The collectors with an open output */
+    private static final Set<StatCollector>      sOpenCollectors;
+
+    static {
+        sFlusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "stat-flusher");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        sOpenCollectors = Collections.newSetFromMap(new ConcurrentHashMap<StatCollector, Boolean>());
+        // Make sure that pending rows are written when the jvm exits
+        Runtime.getRuntime().addShutdownHook(new Thread("stat-flusher-shutdown") {
+            @Override
+            public void run() {
+                for (StatCollector c : sOpenCollectors)
+                    c.flush();
+            }
+        });
+    }
+
+    /** The type of a column */
+    private static enum ColumnType {
+        LONG, DOUBLE, BOOLEAN, OBJECT
+    };
 
-    private BufferedWriter       mWriter;
+    private BufferedWriter                       mWriter;
+    private DataOutputStream                     mBinaryWriter;
 
-    private boolean              mAutoFlush;
+    private volatile boolean                     mAutoFlush;
 
-    private final Label<?>[]     mLabels;
+    private final Label<?>[]                     mLabels;
+    private final ColumnType[]                   mTypes;
 
-    private final List<Object[]> mValues;
+    /** The buffers of the threads that collected stats */
+    private final List<ThreadBuffer>             mBuffers;
+    private final ThreadLocal<ThreadBuffer>      mLocalBuffer;
 
-    private final DecimalFormat  mFormat;
-    private final String         mComment;
+    /** The rows kept in memory, {@code null} if rows are not kept */
+    private List<Object[]>                       mValues;
+
+    /** A lock used when writing to the output files */
+    private final Object                         mWriteLock;
+    private volatile ScheduledFuture<?>          mFlushTask;
+    private final AtomicBoolean                  mFlushRequested;
+    private final Runnable                       mFlushRunnable;
+
+    private final DecimalFormat                  mFormat;
+    private final String                         mComment;
 
     /**
      * Creates a new <code>StatCollector</code> with no file attached
-     * 
+     * <p>
+     * Collected values are kept in memory and can be retrieved with {@link #getValues(Label)}
+     * </p>
+     *
      * @param comment
      *            an optional comment inserted at the beginning of the ouput file
      * @param labels
      *            the labels for collected data
-     * @see #setFile(File, boolean)
+     * @see #setFile(File, boolean, boolean)
      */
     public StatCollector(String comment, Label<?>... labels) {
         this(null, false, false, comment, labels);
+        setKeepValues(true);
     }
 
     /**
      * Creates a new <code>StatCollector</code>
-     * 
+     *
      * @param output
      *            the file in which stats will be recorded
      * @param autoFlush
-     *            <code>true</code> if stats should be written immediatly in the file
+     *            <code>true</code> if each row should be written and flushed to the file before the collecting thread
+     *            returns, <code>false</code> to let the background flusher write rows periodically
      * @param append
      *            <code>true</code> if statistics should be appended to the file, <code>false</code> to erase previous
      *            content
@@ -112,11 +204,23 @@ public class StatCollector {
         }
 
         mLabels = labels;
+        mTypes = new ColumnType[labels.length];
         for (int i = 0; i < labels.length; i++) {
             mLabels[i].id = i;
+            mTypes[i] = columnType(labels[i].mValueClass);
         }
 
-        mValues = new LinkedList<Object[]>();
+        mBuffers = new CopyOnWriteArrayList<ThreadBuffer>();
+        mLocalBuffer = new ThreadLocal<ThreadBuffer>();
+        mWriteLock = new Object();
+        mFlushRequested = new AtomicBoolean(false);
+        mFlushRunnable = new Runnable() {
+            @Override
+            public void run() {
+                mFlushRequested.set(false);
+                writePending(mAutoFlush);
+            }
+        };
 
         DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.getDefault());
         symbols.setDecimalSeparator(sDecimalSeparator);
@@ -124,24 +228,56 @@ public class StatCollector {
 
         mFormat = new DecimalFormat(sNumberFormat, symbols);
 
-        mValues.clear();
-
         mComment = comment;
 
         setFile(output, autoFlush, append);
 
     }
 
+    /**
+     * Returns the type of column used to store values of a given class
+     *
+     * @param valueClass
+     * @return the type of column used to store values of {@code  valueClass}
+     */
+    private static ColumnType columnType(Class<?> valueClass) {
+        if (valueClass == Integer.class || valueClass == Long.class || valueClass == Short.class
+                || valueClass == Byte.class)
+            return ColumnType.LONG;
+        else if (valueClass == Double.class || valueClass == Float.class)
+            return ColumnType.DOUBLE;
+        else if (valueClass == Boolean.class)
+            return ColumnType.BOOLEAN;
+        else
+            return ColumnType.OBJECT;
+    }
+
+    /**
+     * Sets whether collected rows should be kept in memory
+     *
+     * @param keep
+     *            {@code true} if rows should be kept in memory to be retrieved with {@link #getValues(Label)}
+     */
+    public void setKeepValues(boolean keep) {
+        synchronized (mWriteLock) {
+            if (keep && mValues == null)
+                mValues = new ArrayList<Object[]>();
+            else if (!keep)
+                mValues = null;
+        }
+    }
+
     /**
      * Statistic collection.
      * <p>
      * The <code>stats</code> should be given in the same order as the labels were defined
      * </p>
-     * 
+     *
      * @param stats
      *            the statistics to be collected
+     * @see #row()
      */
-    public synchronized void collect(Object... stats) {
+    public void collect(Object... stats) {
         if (stats.length != mLabels.length) {
             throw new IllegalArgumentException(
                     "The array stats should have the same length as the labels");
@@ -156,14 +292,35 @@ public class StatCollector {
             }
         }
 
-        mValues.add(stats);
+        RowWriter row = row();
+        for (Object s : stats)
+            row.add(s);
+        row.commit();
+    }
 
-        write(false, stats);
+    /**
+     * Returns the row writer of the current thread, which can be used to collect stats without boxing.
+     * <p>
+     * Values should be {@linkplain RowWriter#add(long) added} in the same order as the labels were defined, and the row
+     * {@linkplain RowWriter#commit() committed} afterwards, for instance:
+     * <code>collector.row().add(iteration).add(cost).add(accepted).commit();</code>
+     * </p>
+     *
+     * @return the row writer of the current thread
+     */
+    public RowWriter row() {
+        ThreadBuffer buffer = mLocalBuffer.get();
+        if (buffer == null) {
+            buffer = new ThreadBuffer();
+            mLocalBuffer.set(buffer);
+            mBuffers.add(buffer);
+        }
+        return buffer;
     }
 
     /**
      * Return the labels defined in this instance
-     * 
+     *
      * @return an array containing the defined labels
      */
     public Label<?>[] getLabels() {
@@ -172,23 +329,31 @@ public class StatCollector {
 
     /**
      * Return the values collected for a given label
-     * 
+     *
      * @param <V>
      *            the type of data
      * @param label
      *            the label to lookup
      * @return an array containing the values collected so far
+     * @throws IllegalStateException
+     *             if values are not {@linkplain #setKeepValues(boolean) kept}
      */
     @SuppressWarnings("unchecked")
     public <V> V[] getValues(Label<V> label) {
-        V[] values = (V[]) new Object[mValues.size()];
+        synchronized (mWriteLock) {
+            if (mValues == null)
+                throw new IllegalStateException("Values are not kept by this collector");
+            writePending(false);
 
-        int i = 0;
-        for (Object[] val : mValues) {
-            values[i++] = (V) val[label.id];
-        }
+            V[] values = (V[]) new Object[mValues.size()];
 
-        return values;
+            int i = 0;
+            for (Object[] val : mValues) {
+                values[i++] = (V) val[label.id];
+            }
+
+            return values;
+        }
     }
 
     public String getSatString(Object... stats) {
@@ -211,89 +376,155 @@ public class StatCollector {
 
     /**
      * Set the output file.
-     * 
+     *
      * @param output
      *            the file in which stats will be recorded
      * @param autoflush
-     *            <code>true</code> if stats should be written immediatly in the file
+     *            <code>true</code> if each row should be written and flushed to the file before the collecting thread
+     *            returns, <code>false</code> to let the background flusher write rows periodically
      */
-    public synchronized void setFile(File output, boolean autoflush, boolean append) {
-        boolean writeheader = (output != null) && (!output.exists() || !append);
-        BufferedWriter writer = null;
-        if (output != null) {
-            try {
-                writer = new BufferedWriter(new FileWriter(output, append));
-            } catch (IOException e) {
-                getLogger().exception("StatCollector.setFile", e);
-                writer = null;
+    public void setFile(File output, boolean autoflush, boolean append) {
+        synchronized (mWriteLock) {
+            boolean writeheader = (output != null) && (!output.exists() || !append);
+            BufferedWriter writer = null;
+            if (output != null) {
+                try {
+                    writer = new BufferedWriter(new FileWriter(output, append));
+                } catch (IOException e) {
+                    getLogger().exception("StatCollector.setFile", e);
+                    writer = null;
+                }
+            }
+            mWriter = writer;
+            mAutoFlush = writer != null && autoflush;
+
+            if (writeheader) {
+                // Write comments
+                write("%s%s%s", sCommentsPrefix, mComment, sCommentsSuffix);
+                // Write column labels (headers)
+                write(true, (Object[]) mLabels);
+            }
+            outputChanged();
+        }
+    }
+
+    /**
+     * Set the binary output file, in which rows will be written in a compact columnar format that can be read with a
+     * {@link BinaryReader}
+     *
+     * @param output
+     *            the file in which stats will be recorded, {@code null} to disable binary output
+     */
+    public void setBinaryFile(File output) {
+        synchronized (mWriteLock) {
+            closeBinary();
+            if (output != null) {
+                try {
+                    mBinaryWriter = new DataOutputStream(new BufferedOutputStream(
+                            new FileOutputStream(output), 1 << 16));
+                    mBinaryWriter.writeInt(BINARY_MAGIC);
+                    mBinaryWriter.writeInt(BINARY_VERSION);
+                    writeBinaryString(mBinaryWriter, mComment);
+                    mBinaryWriter.writeInt(mLabels.length);
+                    for (int c = 0; c < mLabels.length; c++) {
+                        writeBinaryString(mBinaryWriter, mLabels[c].getName());
+                        mBinaryWriter.writeByte(mTypes[c].ordinal());
+                    }
+                } catch (IOException e) {
+                    getLogger().exception("StatCollector.setBinaryFile", e);
+                    mBinaryWriter = null;
+                }
             }
+            outputChanged();
         }
-        mWriter = writer;
-        mAutoFlush = writer != null && autoflush;
+    }
 
-        if (writeheader) {
-            // Write comments
-            write("%s%s%s", sCommentsPrefix, mComment, sCommentsSuffix);
-            // Write column labels (headers)
-            write(true, (Object[]) mLabels);
+    /**
+     * Register or unregister this collector to the background flusher depending on its outputs
+     */
+    private void outputChanged() {
+        boolean open = mWriter != null || mBinaryWriter != null;
+        if (open && mFlushTask == null) {
+            sOpenCollectors.add(this);
+            mFlushTask = sFlusher.scheduleWithFixedDelay(mFlushRunnable, sFlushPeriod,
+                    sFlushPeriod, TimeUnit.MILLISECONDS);
+        } else if (!open && mFlushTask != null) {
+            sOpenCollectors.remove(this);
+            mFlushTask.cancel(false);
+            mFlushTask = null;
         }
     }
 
+    /**
+     * Request an asynchronous write of the pending rows
+     */
+    private void requestFlush() {
+        if (mFlushTask == null)
+            // No output: move the rows to the kept values (or drop them) right away
+            writePending(false);
+        else if (mFlushRequested.compareAndSet(false, true))
+            sFlusher.execute(mFlushRunnable);
+    }
+
     /**
      * Write a formated string, used for comments
-     * 
+     *
      * @param format
      * @param args
      */
-    protected synchronized void write(String format, Object... args) {
-        if (mWriter == null) {
-            return;
-        }
+    protected void write(String format, Object... args) {
+        synchronized (mWriteLock) {
+            if (mWriter == null) {
+                return;
+            }
 
-        try {
-            mWriter.write(String.format(format, args));
-            mWriter.newLine();
-            if (mAutoFlush) {
-                mWriter.flush();
+            try {
+                mWriter.write(String.format(format, args));
+                mWriter.newLine();
+                if (mAutoFlush) {
+                    mWriter.flush();
+                }
+            } catch (IOException e) {
+                getLogger().exception("StatCollector.write", e);
             }
-        } catch (IOException e) {
-            getLogger().exception("StatCollector.write", e);
         }
     }
 
     /**
      * Write an array of values separated by {@link #sCVSSeparator}
-     * 
+     *
      * @param header
      *            {@code true} if the objects are headers of the columns
      * @param values
      *            the values to be writen
      */
-    protected synchronized void write(boolean header, Object... values) {
-        if (mWriter == null) {
-            return;
-        }
+    protected void write(boolean header, Object... values) {
+        synchronized (mWriteLock) {
+            if (mWriter == null) {
+                return;
+            }
 
-        StringBuilder b = new StringBuilder();
-        for (int v = 0; v < values.length; v++) {
-            if (header)
-                b.append(mLabels[v].getName());
-            else
-                b.append(toString(mLabels[v], values[v]));
+            StringBuilder b = new StringBuilder();
+            for (int v = 0; v < values.length; v++) {
+                if (header)
+                    b.append(mLabels[v].getName());
+                else
+                    b.append(toString(mLabels[v], values[v]));
 
-            if (v < values.length - 1)
-                b.append(sCVSSeparator);
+                if (v < values.length - 1)
+                    b.append(sCVSSeparator);
 
-        }
+            }
 
-        try {
-            mWriter.write(b.toString());
-            mWriter.newLine();
-            if (mAutoFlush) {
-                mWriter.flush();
+            try {
+                mWriter.write(b.toString());
+                mWriter.newLine();
+                if (mAutoFlush) {
+                    mWriter.flush();
+                }
+            } catch (IOException e) {
+                getLogger().exception("StatCollector.write", e);
             }
-        } catch (IOException e) {
-            getLogger().exception("StatCollector.write", e);
         }
     }
 
@@ -304,33 +535,681 @@ public class StatCollector {
                 || (val instanceof Float && Float.isNaN((float) val)))
             return "-";
         else if (label.mFormat != null)
-            return label.mFormat.format(val);
+            return format(label.mFormat, val);
         else if (val instanceof Double || val instanceof Float)
-            return Constants.isZero(((Number) val).doubleValue()) ? mFormat.format(0) : mFormat
-                    .format(val);
+            return formatDouble(((Number) val).doubleValue());
         else
             return val.toString();
     }
 
     /**
-     * Write the collected stats to the file
+     * Format a value with a shared {@link Format} (which are not thread safe)
+     */
+    private static String format(Format format, Object val) {
+        synchronized (format) {
+            return format.format(val);
+        }
+    }
+
+    /**
+     * Format a double with the default format
+     */
+    private String formatDouble(double val) {
+        synchronized (mFormat) {
+            return Constants.isZero(val) ? mFormat.format(0) : mFormat.format(val);
+        }
+    }
+
+    /**
+     * Write the pending rows of all threads to the output files
+     *
+     * @param flushFiles
+     *            {@code true} if the underlying files should be flushed
+     */
+    private void writePending(boolean flushFiles) {
+        synchronized (mWriteLock) {
+            for (ThreadBuffer buffer : mBuffers) {
+                List<Block> blocks = buffer.drain();
+                if (blocks != null)
+                    for (Block b : blocks)
+                        writeBlock(b);
+                // Forget buffers of terminated threads
+                if (!buffer.mOwner.isAlive() && buffer.isEmpty())
+                    mBuffers.remove(buffer);
+            }
+            try {
+                if (flushFiles && mWriter != null)
+                    mWriter.flush();
+                if (flushFiles && mBinaryWriter != null)
+                    mBinaryWriter.flush();
+            } catch (IOException e) {
+                getLogger().exception("StatCollector.writePending", e);
+            }
+        }
+    }
+
+    /**
+     * Write a block of rows to the output files (should be called while holding {@link #mWriteLock})
+     *
+     * @param block
      */
-    public synchronized void flush() {
+    private void writeBlock(Block block) {
         try {
-            mWriter.flush();
+            if (mWriter != null) {
+                StringBuilder b = new StringBuilder(16 * mLabels.length);
+                for (int r = 0; r < block.mSize; r++) {
+                    b.setLength(0);
+                    for (int c = 0; c < mLabels.length; c++) {
+                        appendValue(b, block, c, r);
+                        if (c < mLabels.length - 1)
+                            b.append(sCVSSeparator);
+                    }
+                    mWriter.write(b.toString());
+                    mWriter.newLine();
+                }
+            }
+            if (mBinaryWriter != null)
+                writeBinaryBlock(block);
         } catch (IOException e) {
-            getLogger().exception("StatCollector.write", e);
+            getLogger().exception("StatCollector.writeBlock", e);
+        }
+        if (mValues != null) {
+            for (int r = 0; r < block.mSize; r++) {
+                Object[] row = new Object[mLabels.length];
+                for (int c = 0; c < mLabels.length; c++)
+                    row[c] = block.getValue(c, r, mLabels[c].mValueClass);
+                mValues.add(row);
+            }
+        }
+    }
+
+    /**
+     * Append the string representation of a value
+     */
+    private void appendValue(StringBuilder b, Block block, int c, int r) {
+        Label<?> label = mLabels[c];
+        if (block.mNulls[c][r]) {
+            b.append("null");
+            return;
+        }
+        switch (mTypes[c]) {
+        case LONG:
+            if (label.mFormat != null)
+                b.append(format(label.mFormat, block.mLongs[c][r]));
+            else
+                b.append(block.mLongs[c][r]);
+            break;
+        case DOUBLE:
+            double d = block.mDoubles[c][r];
+            if (Double.isNaN(d))
+                b.append("-");
+            else if (label.mFormat != null)
+                b.append(format(label.mFormat, d));
+            else
+                b.append(formatDouble(d));
+            break;
+        case BOOLEAN:
+            b.append(block.mBooleans[c][r]);
+            break;
+        default:
+            b.append(toString(label, block.mObjects[c][r]));
+            break;
+        }
+    }
+
+    /**
+     * Write a block in the binary output: row count, then for each column a null mask and the values
+     */
+    private void writeBinaryBlock(Block block) throws IOException {
+        DataOutputStream out = mBinaryWriter;
+        out.writeInt(block.mSize);
+        for (int c = 0; c < mLabels.length; c++) {
+            for (int r = 0; r < block.mSize; r++)
+                out.writeBoolean(block.mNulls[c][r]);
+            switch (mTypes[c]) {
+            case LONG:
+                for (int r = 0; r < block.mSize; r++)
+                    out.writeLong(block.mLongs[c][r]);
+                break;
+            case DOUBLE:
+                for (int r = 0; r < block.mSize; r++)
+                    out.writeDouble(block.mDoubles[c][r]);
+                break;
+            case BOOLEAN:
+                for (int r = 0; r < block.mSize; r++)
+                    out.writeBoolean(block.mBooleans[c][r]);
+                break;
+            default:
+                for (int r = 0; r < block.mSize; r++)
+                    writeBinaryString(out, block.mNulls[c][r] ? "" : toString(mLabels[c],
+                            block.mObjects[c][r]));
+                break;
+            }
         }
     }
 
+    private static void writeBinaryString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s != null ? s.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readBinaryString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write the collected stats to the file
+     */
+    public void flush() {
+        writePending(true);
+    }
+
     /**
      * Close the underlying file writer
      */
-    public synchronized void close() {
+    public void close() {
+        synchronized (mWriteLock) {
+            writePending(true);
+            try {
+                if (mWriter != null)
+                    mWriter.close();
+            } catch (IOException e) {
+                getLogger().exception("StatCollector.close", e);
+            }
+            mWriter = null;
+            closeBinary();
+            outputChanged();
+        }
+    }
+
+    private void closeBinary() {
+        if (mBinaryWriter == null)
+            return;
         try {
-            mWriter.close();
+            mBinaryWriter.close();
         } catch (IOException e) {
-            getLogger().exception("StatCollector.write", e);
+            getLogger().exception("StatCollector.closeBinary", e);
+        }
+        mBinaryWriter = null;
+    }
+
+    /**
+     * <code>RowWriter</code> is used to collect a row of stats without boxing, values being added in the order of the
+     * labels
+     */
+    public static interface RowWriter {
+        /**
+         * Add a value to an integer or floating point column
+         *
+         * @param value
+         * @return this writer
+         */
+        public RowWriter add(long value);
+
+        /**
+         * Add a value to a floating point column
+         *
+         * @param value
+         * @return this writer
+         */
+        public RowWriter add(double value);
+
+        /**
+         * Add a value to a boolean column
+         *
+         * @param value
+         * @return this writer
+         */
+        public RowWriter add(boolean value);
+
+        /**
+         * Add a value to any column
+         *
+         * @param value
+         *            the value, can be {@code null}
+         * @return this writer
+         */
+        public RowWriter add(Object value);
+
+        /**
+         * Commit the current row
+         *
+         * @throws IllegalStateException
+         *             if the number of values does not match the number of labels
+         */
+        public void commit();
+    }
+
+    /**
+     * <code>Block</code> is a fixed size block of rows stored in columns
+     */
+    private final class Block {
+        private final long[][]    mLongs;
+        private final double[][]  mDoubles;
+        private final boolean[][] mBooleans;
+        private final Object[][]  mObjects;
+        private final boolean[][] mNulls;
+        private int               mSize;
+
+        private Block(int capacity) {
+            int n = mLabels.length;
+            mLongs = new long[n][];
+            mDoubles = new double[n][];
+            mBooleans = new boolean[n][];
+            mObjects = new Object[n][];
+            mNulls = new boolean[n][capacity];
+            for (int c = 0; c < n; c++) {
+                switch (mTypes[c]) {
+                case LONG:
+                    mLongs[c] = new long[capacity];
+                    break;
+                case DOUBLE:
+                    mDoubles[c] = new double[capacity];
+                    break;
+                case BOOLEAN:
+                    mBooleans[c] = new boolean[capacity];
+                    break;
+                default:
+                    mObjects[c] = new Object[capacity];
+                    break;
+                }
+            }
+        }
+
+        private boolean isFull() {
+            return mSize == mNulls[0].length;
+        }
+
+        private Object getValue(int c, int r, Class<?> valueClass) {
+            if (mNulls[c][r])
+                return null;
+            switch (mTypes[c]) {
+            case LONG:
+                long l = mLongs[c][r];
+                if (valueClass == Integer.class)
+                    return (int) l;
+                else if (valueClass == Short.class)
+                    return (short) l;
+                else if (valueClass == Byte.class)
+                    return (byte) l;
+                else
+                    return l;
+            case DOUBLE:
+                return valueClass == Float.class ? (Object) (float) mDoubles[c][r]
+                        : (Object) mDoubles[c][r];
+            case BOOLEAN:
+                return mBooleans[c][r];
+            default:
+                return mObjects[c][r];
+            }
+        }
+    }
+
+    /**
+     * <code>ThreadBuffer</code> stores the rows collected by a single thread.
+     * <p>
+     * Values are staged in a single row until it is committed, the monitor of the buffer is only taken on commit and
+     * when the flusher drains the buffer, it is therefore uncontended in practice.
+     * </p>
+     */
+    private final class ThreadBuffer implements RowWriter {
+        private final Thread      mOwner;
+        private final long[]      mRowLongs;
+        private final double[]    mRowDoubles;
+        private final boolean[]   mRowBooleans;
+        private final Object[]    mRowObjects;
+        private final boolean[]   mRowNulls;
+        private int               mCol;
+
+        private Block             mCurrent;
+        private ArrayList<Block>  mFull;
+
+        private ThreadBuffer() {
+            int n = mLabels.length;
+            mOwner = Thread.currentThread();
+            mRowLongs = new long[n];
+            mRowDoubles = new double[n];
+            mRowBooleans = new boolean[n];
+            mRowObjects = new Object[n];
+            mRowNulls = new boolean[n];
+            mCurrent = new Block(Math.max(1, sBlockSize));
+        }
+
+        private void checkColumn() {
+            if (mCol >= mLabels.length)
+                throw new IllegalStateException("Too many values for the defined labels");
+        }
+
+        private IllegalArgumentException typeMismatch(Object value) {
+            int c = mCol;
+            mCol = 0;
+            return new IllegalArgumentException(String.format(
+                    "Unexpected data type for label #%s - %s: expected %s but was %s", c,
+                    mLabels[c].mName, mLabels[c].mValueClass.getSimpleName(), value));
+        }
+
+        @Override
+        public RowWriter add(long value) {
+            checkColumn();
+            mRowNulls[mCol] = false;
+            if (mTypes[mCol] == ColumnType.LONG)
+                mRowLongs[mCol] = value;
+            else if (mTypes[mCol] == ColumnType.DOUBLE)
+                mRowDoubles[mCol] = value;
+            else
+                throw typeMismatch(value);
+            mCol++;
+            return this;
+        }
+
+        @Override
+        public RowWriter add(double value) {
+            checkColumn();
+            if (mTypes[mCol] != ColumnType.DOUBLE)
+                throw typeMismatch(value);
+            mRowNulls[mCol] = false;
+            mRowDoubles[mCol] = value;
+            mCol++;
+            return this;
+        }
+
+        @Override
+        public RowWriter add(boolean value) {
+            checkColumn();
+            if (mTypes[mCol] != ColumnType.BOOLEAN)
+                throw typeMismatch(value);
+            mRowNulls[mCol] = false;
+            mRowBooleans[mCol] = value;
+            mCol++;
+            return this;
+        }
+
+        @Override
+        public RowWriter add(Object value) {
+            checkColumn();
+            if (value == null) {
+                mRowNulls[mCol] = true;
+                mRowObjects[mCol] = null;
+                mCol++;
+                return this;
+            }
+            switch (mTypes[mCol]) {
+            case LONG:
+                if (!(value instanceof Number))
+                    throw typeMismatch(value);
+                return add(((Number) value).longValue());
+            case DOUBLE:
+                if (!(value instanceof Number))
+                    throw typeMismatch(value);
+                return add(((Number) value).doubleValue());
+            case BOOLEAN:
+                if (!(value instanceof Boolean))
+                    throw typeMismatch(value);
+                return add(((Boolean) value).booleanValue());
+            default:
+                mRowNulls[mCol] = false;
+                // Mutable objects are converted to string as they could be modified before being written
+                mRowObjects[mCol] = value instanceof String || value instanceof Number
+                        || value instanceof Boolean || value instanceof Enum ? value : value
+                        .toString();
+                mCol++;
+                return this;
+            }
+        }
+
+        @Override
+        public void commit() {
+            if (mCol != mLabels.length) {
+                int c = mCol;
+                mCol = 0;
+                throw new IllegalStateException(String.format(
+                        "The row should have the same length as the labels (%s/%s)", c,
+                        mLabels.length));
+            }
+            mCol = 0;
+            boolean full;
+            synchronized (this) {
+                Block b = mCurrent;
+                int r = b.mSize;
+                for (int c = 0; c < mLabels.length; c++) {
+                    b.mNulls[c][r] = mRowNulls[c];
+                    switch (mTypes[c]) {
+                    case LONG:
+                        b.mLongs[c][r] = mRowLongs[c];
+                        break;
+                    case DOUBLE:
+                        b.mDoubles[c][r] = mRowDoubles[c];
+                        break;
+                    case BOOLEAN:
+                        b.mBooleans[c][r] = mRowBooleans[c];
+                        break;
+                    default:
+                        b.mObjects[c][r] = mRowObjects[c];
+                        mRowObjects[c] = null;
+                        break;
+                    }
+                }
+                b.mSize++;
+                full = b.isFull();
+                if (full) {
+                    if (mFull == null)
+                        mFull = new ArrayList<Block>(2);
+                    mFull.add(b);
+                    mCurrent = new Block(b.mNulls[0].length);
+                }
+            }
+            if (mAutoFlush)
+                // Synchronous write: rows are not lost if the jvm crashes
+                writePending(true);
+            else if (full)
+                requestFlush();
+        }
+
+        /**
+         * Returns the blocks collected since the last call, in order
+         *
+         * @return the blocks collected since the last call, {@code null} if there are none
+         */
+        private synchronized List<Block> drain() {
+            List<Block> blocks = mFull;
+            mFull = null;
+            if (mCurrent.mSize > 0) {
+                if (blocks == null)
+                    blocks = new ArrayList<Block>(1);
+                blocks.add(mCurrent);
+                mCurrent = new Block(mCurrent.mNulls[0].length);
+            }
+            return blocks;
+        }
+
+        private synchronized boolean isEmpty() {
+            return mFull == null && mCurrent.mSize == 0;
+        }
+    }
+
+    /**
+     * <code>BinaryReader</code> iterates over the rows of a file written by a {@link StatCollector} in
+     * {@linkplain StatCollector#setBinaryFile(File) binary mode}, without boxing primitive values.
+     * <p>
+     * Usage: <code>while (reader.next()) { double cost = reader.getDouble(2); ... }</code>
+     * </p>
+     */
+    public static class BinaryReader implements Closeable {
+        private final DataInputStream mIn;
+        private final String          mComment;
+        private final Label<?>[]      mLabels;
+        private final ColumnType[]    mTypes;
+
+        private int                   mBlockSize;
+        private int                   mRow;
+        private boolean[][]           mNulls;
+        private long[][]              mLongs;
+        private double[][]            mDoubles;
+        private boolean[][]           mBooleans;
+        private String[][]            mStrings;
+
+        /**
+         * Creates a new <code>BinaryReader</code>
+         *
+         * @param file
+         *            the file to be read
+         * @throws IOException
+         */
+        public BinaryReader(File file) throws IOException {
+            mIn = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+            if (mIn.readInt() != BINARY_MAGIC) {
+                mIn.close();
+                throw new IOException("Not a binary stat file: " + file);
+            }
+            int version = mIn.readInt();
+            if (version > BINARY_VERSION) {
+                mIn.close();
+                throw new IOException("Unsupported binary stat file version " + version + ": "
+                        + file);
+            }
+            mComment = readBinaryString(mIn);
+            int n = mIn.readInt();
+            mLabels = new Label<?>[n];
+            mTypes = new ColumnType[n];
+            for (int c = 0; c < n; c++) {
+                String name = readBinaryString(mIn);
+                mTypes[c] = ColumnType.values()[mIn.readByte()];
+                switch (mTypes[c]) {
+                case LONG:
+                    mLabels[c] = new Label<Long>(name, Long.class);
+                    break;
+                case DOUBLE:
+                    mLabels[c] = new Label<Double>(name, Double.class);
+                    break;
+                case BOOLEAN:
+                    mLabels[c] = new Label<Boolean>(name, Boolean.class);
+                    break;
+                default:
+                    mLabels[c] = new Label<String>(name, String.class);
+                    break;
+                }
+                mLabels[c].id = c;
+            }
+            mNulls = new boolean[n][];
+            mLongs = new long[n][];
+            mDoubles = new double[n][];
+            mBooleans = new boolean[n][];
+            mStrings = new String[n][];
+        }
+
+        /** @return the comment of the file */
+        public String getComment() {
+            return mComment;
+        }
+
+        /** @return the labels of the columns, integer columns are read as {@link Long} */
+        public Label<?>[] getLabels() {
+            return mLabels;
+        }
+
+        /**
+         * Move to the next row
+         *
+         * @return {@code true} if there is a next row, {@code false} at the end of the file
+         * @throws IOException
+         */
+        public boolean next() throws IOException {
+            mRow++;
+            while (mRow >= mBlockSize) {
+                if (!readBlock())
+                    return false;
+            }
+            return true;
+        }
+
+        private boolean readBlock() throws IOException {
+            int size;
+            try {
+                size = mIn.readInt();
+            } catch (EOFException e) {
+                return false;
+            }
+            for (int c = 0; c < mLabels.length; c++) {
+                mNulls[c] = ensure(mNulls[c], size);
+                for (int r = 0; r < size; r++)
+                    mNulls[c][r] = mIn.readBoolean();
+                switch (mTypes[c]) {
+                case LONG:
+                    if (mLongs[c] == null || mLongs[c].length < size)
+                        mLongs[c] = new long[size];
+                    for (int r = 0; r < size; r++)
+                        mLongs[c][r] = mIn.readLong();
+                    break;
+                case DOUBLE:
+                    if (mDoubles[c] == null || mDoubles[c].length < size)
+                        mDoubles[c] = new double[size];
+                    for (int r = 0; r < size; r++)
+                        mDoubles[c][r] = mIn.readDouble();
+                    break;
+                case BOOLEAN:
+                    mBooleans[c] = ensure(mBooleans[c], size);
+                    for (int r = 0; r < size; r++)
+                        mBooleans[c][r] = mIn.readBoolean();
+                    break;
+                default:
+                    if (mStrings[c] == null || mStrings[c].length < size)
+                        mStrings[c] = new String[size];
+                    for (int r = 0; r < size; r++)
+                        mStrings[c][r] = readBinaryString(mIn);
+                    break;
+                }
+            }
+            mBlockSize = size;
+            mRow = 0;
+            return true;
+        }
+
+        private static boolean[] ensure(boolean[] array, int size) {
+            return array == null || array.length < size ? new boolean[size] : array;
+        }
+
+        /** @return {@code true} if the value of column {@code  c} is {@code null} in the current row */
+        public boolean isNull(int c) {
+            return mNulls[c][mRow];
+        }
+
+        /** @return the value of the integer column {@code  c} in the current row */
+        public long getLong(int c) {
+            return mLongs[c][mRow];
+        }
+
+        /** @return the value of the floating point column {@code  c} in the current row */
+        public double getDouble(int c) {
+            return mDoubles[c][mRow];
+        }
+
+        /** @return the value of the boolean column {@code  c} in the current row */
+        public boolean getBoolean(int c) {
+            return mBooleans[c][mRow];
+        }
+
+        /** @return the string value of column {@code  c} in the current row */
+        public String getString(int c) {
+            if (isNull(c))
+                return null;
+            switch (mTypes[c]) {
+            case LONG:
+                return Long.toString(getLong(c));
+            case DOUBLE:
+                return Double.toString(getDouble(c));
+            case BOOLEAN:
+                return Boolean.toString(getBoolean(c));
+            default:
+                return mStrings[c][mRow];
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            mIn.close();
         }
     }
 
@@ -343,7 +1222,7 @@ public class StatCollector {
 
         /**
          * Getter for <code>name</code>
-         * 
+         *
          * @return the name
          */
         public String getName() {
@@ -352,7 +1231,7 @@ public class StatCollector {
 
         /**
          * Getter for <code>valueClass</code>
-         * 
+         *
          * @return the valueClass
          */
         public Class<V> getValueClass() {
@@ -361,7 +1240,7 @@ public class StatCollector {
 
         /**
          * Creates a new <code>Label</code> using default formatting
-         * 
+         *
          * @param label
          *            the name of the label
          * @param valueClass
@@ -373,7 +1252,7 @@ public class StatCollector {
 
         /**
          * Creates a new <code>Label</code> using a specific formatting
-         * 
+         *
          * @param label
          *            the name of the label
          * @param valueClass
@@ -27,6 +27,7 @@ import java.util.Set;
 import umontreal.iro.lecuyer.rng.RandomPermutation;
 import umontreal.iro.lecuyer.rng.RandomStream;
 import vroom.common.utilities.dataModel.IObjectWithID;
+import vroom.common.utilities.math.PrimitiveSelect;
 import vroom.common.utilities.math.QuickSelect;
 
 /**
@@ -839,10 +840,10 @@ public abstract class Utilities {
          * @param k
          *            the number of elements to extract
          * @return the <code>n</code> biggest elements of <code>values</code> sorted in ascending order
-         * @see QuickSelect#max(Comparable[], int, boolean, boolean)
+         * @see PrimitiveSelect#select(double[], int)
          */
         public static double[] max(double[] values, int k) {
-            if (values.length == 0)
+            if (values.length == 0 || k <= 0)
                 return new double[0];
             if (k == 1) {
                 // More efficient implementation
@@ -857,15 +858,10 @@ public abstract class Utilities {
                 return r;
             }
 
-            Double[] clone = new Double[values.length];
-            for (int i = 0; i < clone.length; i++) {
-                clone[i] = values[i];
-            }
-            Double[] rD = QuickSelect.max(clone, k, false, true);
-            double[] r = new double[rD.length];
-            for (int i = 0; i < r.length; i++) {
-                r[i] = rD[i];
-            }
+            double[] clone = Arrays.copyOf(values, values.length);
+            PrimitiveSelect.select(clone, clone.length - k);
+            double[] r = Arrays.copyOfRange(clone, clone.length - k, clone.length);
+            Arrays.sort(r);
             return r;
         }
 
@@ -1018,10 +1014,10 @@ public abstract class Utilities {
          * @param k
          *            the number of elements to extract
          * @return the <code>n</code> biggest elements of <code>values</code> sorted in ascending order
-         * @see QuickSelect#max(Comparable[], int, boolean, boolean)
+         * @see PrimitiveSelect#select(double[], int)
          */
         public static double[] min(double[] values, int k) {
-            if (values.length == 0)
+            if (values.length == 0 || k <= 0)
                 return new double[0];
             if (k == 1) {
                 // More efficient implementation
@@ -1031,15 +1027,16 @@ public abstract class Utilities {
                 return r[0] != Double.POSITIVE_INFINITY ? r : new double[0];
             }
 
-            Double[] clone = new Double[values.length];
-            for (int i = 0; i < clone.length; i++) {
-                clone[i] = values[i];
-            }
-            Double[] rD = QuickSelect.min(clone, k, false, true);
-            double[] r = new double[rD.length];
-            for (int i = 0; i < r.length; i++) {
-                r[i] = rD[i];
+            if (k >= values.length) {
+                double[] r = Arrays.copyOf(values, values.length);
+                Arrays.sort(r);
+                return r;
             }
+
+            double[] clone = Arrays.copyOf(values, values.length);
+            PrimitiveSelect.select(clone, k - 1);
+            double[] r = Arrays.copyOf(clone, k);
+            Arrays.sort(r);
             return r;
         }
 
@@ -0,0 +1,216 @@
+/**
+ * 
+ */
+package vroom.common.utilities.checkpoint;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import vroom.common.utilities.logging.LoggerHelper;
+
+/**
+ * <code>CheckpointWriter</code> writes checkpoints to a file in a background thread, so that the procedure being
+ * checkpointed is only delayed by the time needed to take a snapshot of its state.
+ * <p>
+ * Only the most recent checkpoint matters: if a checkpoint is submitted while the previous one is still waiting to be
+ * written, the previous one is discarded. Checkpoints are serialized to a temporary file which then atomically
+ * replaces the destination file, so that the destination always contains a complete checkpoint even if the JVM is
+ * killed while writing.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 11:26:51 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class CheckpointWriter {
+
+    /**
+     * Getter for this class logger
+     * 
+     * @return the logger associated with this class
+     */
+    public static LoggerHelper getLogger() {
+        return LoggerHelper.getLogger(CheckpointWriter.class);
+    }
+
+    private final File                          mFile;
+    private final File                          mTmpFile;
+    private final ExecutorService               mExecutor;
+    /** The checkpoint waiting to be written, if any */
+    private final AtomicReference<Serializable> mPending;
+    /** The last write task */
+    private volatile Future<?>                  mLastTask;
+    private final AtomicInteger                 mWrittenCount;
+
+    /**
+     * Creates a new <code>CheckpointWriter</code>
+     * 
+     * @param file
+     *            the file in which checkpoints will be written, its parent directory is created if needed
+     */
+    public CheckpointWriter(File file) {
+        mFile = file;
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs())
+            getLogger().warn("CheckpointWriter.init: unable to create the directory %s", dir);
+        mTmpFile = new File(file.getPath() + ".tmp");
+        mPending = new AtomicReference<Serializable>();
+        mWrittenCount = new AtomicInteger();
+        mExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "checkpoint-" + mFile.getName());
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Returns the file in which checkpoints are written
+     * 
+     * @return the file in which checkpoints are written
+     */
+    public File getFile() {
+        return mFile;
+    }
+
+    /**
+     * Returns the number of checkpoints written so far
+     * 
+     * @return the number of checkpoints written so far
+     */
+    public int getWrittenCount() {
+        return mWrittenCount.get();
+    }
+
+    /**
+     * Submit a checkpoint to be written asynchronously, replacing any checkpoint not yet written
+     * 
+     * @param checkpoint
+     *            the checkpoint to be written, it should not be modified afterward
+     */
+    public void submit(Serializable checkpoint) {
+        if (mPending.getAndSet(checkpoint) == null)
+            mLastTask = mExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    Serializable cp = mPending.getAndSet(null);
+                    if (cp != null)
+                        write(cp);
+                }
+            });
+    }
+
+    /**
+     * Wait until all the submitted checkpoints have been written
+     */
+    public void flush() {
+        Future<?> task = mLastTask;
+        if (task == null)
+            return;
+        try {
+            task.get();
+        } catch (Exception e) {
+            getLogger().exception("CheckpointWriter.flush", e);
+        }
+    }
+
+    /**
+     * Write the pending checkpoint, if any, and release the background thread
+     */
+    public void close() {
+        flush();
+        mExecutor.shutdown();
+    }
+
+    /**
+     * Discard the pending checkpoint, if any, release the background thread and delete the checkpoint file.
+     * <p>
+     * This method should be called once the procedure being checkpointed terminates normally, so that the next run
+     * does not resume from a finished one.
+     * </p>
+     * 
+     * @return {@code true} if the checkpoint file was deleted, {@code false} if it did not exist or could not be
+     *         deleted
+     */
+    public boolean discard() {
+        mPending.set(null);
+        close();
+        mTmpFile.delete();
+        return mFile.delete();
+    }
+
+    private void write(Serializable checkpoint) {
+        try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(
+                new FileOutputStream(mTmpFile))))) {
+            out.writeObject(checkpoint);
+        } catch (IOException e) {
+            getLogger().exception("CheckpointWriter.write", e);
+            return;
+        }
+        try {
+            try {
+                Files.move(mTmpFile.toPath(), mFile.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(mTmpFile.toPath(), mFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            mWrittenCount.incrementAndGet();
+            getLogger().debug("CheckpointWriter.write: checkpoint written to %s", mFile);
+        } catch (IOException e) {
+            getLogger().exception("CheckpointWriter.write", e);
+        }
+    }
+
+    /**
+     * Read a checkpoint
+     * 
+     * @param file
+     *            the file containing the checkpoint
+     * @param type
+     *            the expected type of checkpoint
+     * @return the checkpoint read from {@code file}
+     * @throws IOException
+     *             if the file cannot be read or does not contain a checkpoint of type {@code type}
+     */
+    public static <C extends Serializable> C read(File file, Class<C> type) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(
+                new FileInputStream(file))))) {
+            Object checkpoint = in.readObject();
+            if (!type.isInstance(checkpoint))
+                throw new IOException(String.format("File %s contains a %s and not a %s", file, checkpoint
+                        .getClass().getSimpleName(), type.getSimpleName()));
+            return type.cast(checkpoint);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unable to read the checkpoint from " + file, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CheckpointWriter[%s, written:%s]", mFile, getWrittenCount());
+    }
+}
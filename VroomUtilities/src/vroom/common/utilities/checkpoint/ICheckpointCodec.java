@@ -0,0 +1,40 @@
+/**
+ * 
+ */
+package vroom.common.utilities.checkpoint;
+
+import java.io.Serializable;
+
+/**
+ * <code>ICheckpointCodec</code> is the interface for classes responsible for the conversion of objects that are not
+ * serializable, typically solutions referencing their instance, into a compact serializable form.
+ * <p>
+ * Creation date: Oct 19, 2026 - 11:22:40 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ * @param <T>
+ *            the type of encoded objects
+ */
+public interface ICheckpointCodec<T> {
+
+    /**
+     * Encode an object
+     * 
+     * @param object
+     *            the object to be encoded
+     * @return a serializable representation of {@code object}
+     */
+    public Serializable encode(T object);
+
+    /**
+     * Decode an object
+     * 
+     * @param data
+     *            a representation previously returned by {@link #encode(Object)}
+     * @return the decoded object
+     */
+    public T decode(Serializable data);
+}
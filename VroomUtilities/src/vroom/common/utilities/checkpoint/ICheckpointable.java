@@ -0,0 +1,41 @@
+/**
+ * 
+ */
+package vroom.common.utilities.checkpoint;
+
+import java.io.Serializable;
+
+/**
+ * <code>ICheckpointable</code> is the interface for objects whose internal state can be saved in a checkpoint and
+ * restored later, possibly in a different JVM.
+ * <p>
+ * Checkpoints are taken on the thread running the procedure and written asynchronously by a {@link CheckpointWriter},
+ * implementations should therefore return a copy of their state that is not modified afterward.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 11:18:04 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ * @param <C>
+ *            the type of checkpoint
+ */
+public interface ICheckpointable<C extends Serializable> {
+
+    /**
+     * Returns a snapshot of the current state of this object
+     * 
+     * @return a snapshot of the current state of this object
+     */
+    public C getCheckpoint();
+
+    /**
+     * Restore the state of this object from a checkpoint
+     * 
+     * @param checkpoint
+     *            a checkpoint previously returned by {@link #getCheckpoint()}
+     */
+    public void restoreCheckpoint(C checkpoint);
+}
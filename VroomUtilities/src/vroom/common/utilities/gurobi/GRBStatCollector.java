@@ -14,6 +14,7 @@ import java.util.Arrays;
 
 import vroom.common.utilities.StatCollector;
 import vroom.common.utilities.StatCollector.Label;
+import vroom.common.utilities.StatCollector.RowWriter;
 
 /**
  * <code>GRBStatCollectot</code>
@@ -174,12 +175,21 @@ public class GRBStatCollector extends GRBCallback {
     }
 
     /**
-     * Returns an array of objects containing the stats to be collected
+     * Add the additional stats to the current row, in the order of the {@linkplain #getAdditionalLabels() additional
+     * labels}
+     * 
+     * @param row
+     *            the row being collected
+     */
+    protected void addAdditionalStats(RowWriter row) {
+    }
+
+    /**
+     * Collect the statistics in the stat file
      * 
-     * @return an array of objects containing the stats to be collected
      * @throws GRBException
      */
-    private final Object[] getStatArray() throws GRBException {
+    private final void collectStats() throws GRBException {
         int nodcnt = 0, solcnt = 0;
         switch (where) {
         case GRB.Callback.MIPNODE:
@@ -191,41 +201,22 @@ public class GRBStatCollector extends GRBCallback {
             solcnt = GRB.Callback.MIPSOL_SOLCNT;
         }
 
-        return new Object[] { (long) getDoubleInfo(RUNTIME),//
-                (long) getDoubleInfo(nodcnt), //
-                (long) mNodLft, //
-                getIntInfo(solcnt), //
-                mIncumbent, //
-                mBestBound, //
-                getGap(), GRBUtilities.callbackWhereToString(where) };
-    }
-
-    /**
-     * Returns an array of objects containing the additional stats to be collected
-     * 
-     * @return an array of objects containing the additional stats to be collected
-     * @throws GRBException
-     */
-    protected Object[] getAdditionalStatArray() throws GRBException {
-        return new Object[0];
-    }
-
-    /**
-     * Collect the statistics in the stat file
-     * 
-     * @throws GRBException
-     */
-    private final void collectStats() throws GRBException {
-        Object[] stats = getStatArray();
-        Object[] add = getAdditionalStatArray();
-        if (add.length > 0) {
-            stats = Arrays.copyOf(stats, stats.length + add.length);
-            for (int i = 1; i <= add.length; i++) {
-                stats[stats.length - i] = add[add.length - i];
-            }
-        }
-
-        mCollector.collect(stats);
+        // Read the info before starting the row so that an exception does not leave a partial row
+        long time = (long) getDoubleInfo(RUNTIME);
+        long nodes = (long) getDoubleInfo(nodcnt);
+        int sols = getIntInfo(solcnt);
+
+        RowWriter row = mCollector.row();
+        row.add(time)//
+                .add(nodes)//
+                .add((long) mNodLft)//
+                .add(sols)//
+                .add(mIncumbent)//
+                .add(mBestBound)//
+                .add(getGap())//
+                .add(GRBUtilities.callbackWhereToString(where));
+        addAdditionalStats(row);
+        row.commit();
     }
 
     /**
@@ -0,0 +1,331 @@
+package vroom.common.utilities.math;
+
+import java.util.Arrays;
+
+/**
+ * The class <code>PrimitiveSelect</code> contains selection and sorting routines specialized for arrays of
+ * <code>double</code>, optionally associated with a parallel array of <code>int</code> ids.
+ * <p>
+ * Contrary to {@link QuickSelect}, values are neither boxed nor copied: the selection is performed in place on the
+ * given range. Selection uses an <em>introselect</em>: a quickselect with median-of-three partitioning that falls back
+ * to a sort when the partitioning degenerates, which guarantees a <code>O(n log n)</code> worst case.
+ * </p>
+ * <p>
+ * Values are compared with {@link Double#compare(double, double)}, {@link Double#NaN} being greater than any other
+ * value. When ids are given, ties are broken by increasing id so that the order is total and the result deterministic.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 11:04:37 AM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ * @see TopKHeap
+ * @see SelectionBuffer
+ */
+public class PrimitiveSelect {
+
+    /** Size under which ranges are sorted by insertion */
+    private static final int CUTOFF = 16;
+
+    private PrimitiveSelect() {
+    }
+
+    /**
+     * Select the element of rank {@code k} in an array.
+     * 
+     * @param values
+     *            the values, which will be reordered
+     * @param k
+     *            the rank of the element to select (<code>0</code> for the smallest)
+     * @return the value of rank {@code k}, which is stored in <code>values[k]</code>
+     * @see #select(double[], int, int, int)
+     */
+    public static double select(double[] values, int k) {
+        return select(values, 0, values.length, k);
+    }
+
+    /**
+     * Select the element of rank {@code k} in the range <code>[from,to)</code> of an array.
+     * <p>
+     * After this call the selected element is at index <code>from+k</code>, elements before it are lower or equal and
+     * elements after it are greater or equal.
+     * </p>
+     * 
+     * @param values
+     *            the values, which will be reordered
+     * @param from
+     *            the first index (inclusive)
+     * @param to
+     *            the last index (exclusive)
+     * @param k
+     *            the rank of the element to select (<code>0</code> for the smallest)
+     * @return the value of rank {@code k}, which is stored in <code>values[from+k]</code>
+     */
+    public static double select(double[] values, int from, int to, int k) {
+        int target = checkRank(from, to, k);
+        int depth = depthLimit(to - from);
+        while (to - from > CUTOFF) {
+            if (depth-- == 0) {
+                // Degenerated partitioning: fall back to a sort
+                Arrays.sort(values, from, to);
+                return values[target];
+            }
+            int p = partition(values, from, to);
+            if (p == target)
+                return values[p];
+            else if (target < p)
+                to = p;
+            else
+                from = p + 1;
+        }
+        insertionSort(values, from, to);
+        return values[target];
+    }
+
+    /**
+     * Select the element of rank {@code k} in the range <code>[from,to)</code> of two parallel arrays.
+     * <p>
+     * After this call the selected element is at index <code>from+k</code>, elements before it are lower and elements
+     * after it are greater (ties being broken by id).
+     * </p>
+     * 
+     * @param keys
+     *            the selection keys, which will be reordered
+     * @param ids
+     *            the ids associated with each key, which will be reordered accordingly
+     * @param from
+     *            the first index (inclusive)
+     * @param to
+     *            the last index (exclusive)
+     * @param k
+     *            the rank of the element to select (<code>0</code> for the smallest)
+     * @return the index of the selected element, i.e. <code>from+k</code>
+     */
+    public static int select(double[] keys, int[] ids, int from, int to, int k) {
+        int target = checkRank(from, to, k);
+        int depth = depthLimit(to - from);
+        while (to - from > CUTOFF) {
+            if (depth-- == 0) {
+                // Degenerated partitioning: fall back to a sort
+                heapSort(keys, ids, from, to);
+                return target;
+            }
+            int p = partition(keys, ids, from, to);
+            if (p == target)
+                return p;
+            else if (target < p)
+                to = p;
+            else
+                from = p + 1;
+        }
+        insertionSort(keys, ids, from, to);
+        return target;
+    }
+
+    /**
+     * Sort the range <code>[from,to)</code> of two parallel arrays by increasing {@code keys}, ties being broken by
+     * increasing {@code ids}
+     * 
+     * @param keys
+     *            the sorting keys
+     * @param ids
+     *            the ids associated with each key, which will be reordered accordingly
+     * @param from
+     *            the first index (inclusive)
+     * @param to
+     *            the last index (exclusive)
+     */
+    public static void sort(double[] keys, int[] ids, int from, int to) {
+        sort(keys, ids, from, to, depthLimit(to - from));
+    }
+
+    private static void sort(double[] keys, int[] ids, int from, int to, int depth) {
+        while (to - from > CUTOFF) {
+            if (depth-- == 0) {
+                heapSort(keys, ids, from, to);
+                return;
+            }
+            int p = partition(keys, ids, from, to);
+            // Recurse on the smallest part to bound the stack depth
+            if (p - from < to - p) {
+                sort(keys, ids, from, p, depth);
+                from = p + 1;
+            } else {
+                sort(keys, ids, p + 1, to, depth);
+                to = p;
+            }
+        }
+        insertionSort(keys, ids, from, to);
+    }
+
+    /**
+     * Compare two entries by key and then by id
+     * 
+     * @param k1
+     *            the key of the first entry
+     * @param id1
+     *            the id of the first entry
+     * @param k2
+     *            the key of the second entry
+     * @param id2
+     *            the id of the second entry
+     * @return a negative integer, zero, or a positive integer as the first entry is less than, equal to, or greater
+     *         than the second
+     */
+    public static int compare(double k1, int id1, double k2, int id2) {
+        int c = Double.compare(k1, k2);
+        return c != 0 ? c : (id1 < id2 ? -1 : (id1 == id2 ? 0 : 1));
+    }
+
+    private static int checkRank(int from, int to, int k) {
+        if (k < 0 || k >= to - from)
+            throw new IllegalArgumentException(String.format("Rank %s is out of range [0,%s)", k, to - from));
+        return from + k;
+    }
+
+    /**
+     * Returns the maximum number of partitioning steps before falling back to a sort
+     */
+    private static int depthLimit(int length) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(Math.max(length, 1)));
+    }
+
+    // -------------------------------------------------------------------------
+    // double[] routines
+    // -------------------------------------------------------------------------
+
+    /**
+     * Partition the range <code>[from,to)</code> around a median-of-three pivot
+     * 
+     * @return the final index of the pivot
+     */
+    private static int partition(double[] values, int from, int to) {
+        int last = to - 1;
+        int mid = (from + last) >>> 1;
+        // Move the median of the three elements to the last position
+        if (Double.compare(values[mid], values[from]) < 0)
+            swap(values, mid, from);
+        if (Double.compare(values[last], values[from]) < 0)
+            swap(values, last, from);
+        if (Double.compare(values[mid], values[last]) < 0)
+            swap(values, mid, last);
+
+        double pivot = values[last];
+        int store = from;
+        // Elements equal to the pivot are alternatively sent to each side to avoid degenerated partitions
+        boolean equalToLeft = false;
+        for (int i = from; i < last; i++) {
+            int c = Double.compare(values[i], pivot);
+            boolean toLeft = c < 0;
+            if (c == 0) {
+                toLeft = equalToLeft;
+                equalToLeft = !equalToLeft;
+            }
+            if (toLeft)
+                swap(values, i, store++);
+        }
+        swap(values, store, last);
+        return store;
+    }
+
+    private static void insertionSort(double[] values, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            double v = values[i];
+            int j = i - 1;
+            while (j >= from && Double.compare(values[j], v) > 0) {
+                values[j + 1] = values[j];
+                j--;
+            }
+            values[j + 1] = v;
+        }
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double v = values[i];
+        values[i] = values[j];
+        values[j] = v;
+    }
+
+    // -------------------------------------------------------------------------
+    // double[] + int[] routines
+    // -------------------------------------------------------------------------
+
+    /**
+     * Partition the range <code>[from,to)</code> of two parallel arrays around a median-of-three pivot
+     * 
+     * @return the final index of the pivot
+     */
+    private static int partition(double[] keys, int[] ids, int from, int to) {
+        int last = to - 1;
+        int mid = (from + last) >>> 1;
+        // Move the median of the three elements to the last position
+        if (less(keys, ids, mid, from))
+            swap(keys, ids, mid, from);
+        if (less(keys, ids, last, from))
+            swap(keys, ids, last, from);
+        if (less(keys, ids, mid, last))
+            swap(keys, ids, mid, last);
+
+        int store = from;
+        for (int i = from; i < last; i++) {
+            if (less(keys, ids, i, last))
+                swap(keys, ids, i, store++);
+        }
+        swap(keys, ids, store, last);
+        return store;
+    }
+
+    private static void insertionSort(double[] keys, int[] ids, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            double key = keys[i];
+            int id = ids[i];
+            int j = i - 1;
+            while (j >= from && compare(keys[j], ids[j], key, id) > 0) {
+                keys[j + 1] = keys[j];
+                ids[j + 1] = ids[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            ids[j + 1] = id;
+        }
+    }
+
+    private static void heapSort(double[] keys, int[] ids, int from, int to) {
+        int n = to - from;
+        for (int i = n / 2 - 1; i >= 0; i--)
+            siftDown(keys, ids, from, i, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(keys, ids, from, from + end);
+            siftDown(keys, ids, from, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] keys, int[] ids, int offset, int i, int n) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n)
+                return;
+            if (child + 1 < n && less(keys, ids, offset + child, offset + child + 1))
+                child++;
+            if (!less(keys, ids, offset + i, offset + child))
+                return;
+            swap(keys, ids, offset + i, offset + child);
+            i = child;
+        }
+    }
+
+    private static boolean less(double[] keys, int[] ids, int i, int j) {
+        return compare(keys[i], ids[i], keys[j], ids[j]) < 0;
+    }
+
+    private static void swap(double[] keys, int[] ids, int i, int j) {
+        double k = keys[i];
+        keys[i] = keys[j];
+        keys[j] = k;
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+    }
+}
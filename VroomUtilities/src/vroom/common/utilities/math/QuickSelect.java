@@ -107,7 +107,7 @@ public class QuickSelect {
         // The number of non-null elements
         int nonNullLength = Math.min(k, clone.length);
         // Reduce the length of the result array so that it does not contains any null values
-        while (clone[nonNullLength] == null && nonNullLength > 0)
+        while (nonNullLength > 0 && clone[nonNullLength - 1] == null)
             nonNullLength--;
 
         T[] sel = Arrays.copyOf(clone, nonNullLength);
@@ -0,0 +1,180 @@
+package vroom.common.utilities.math;
+
+import java.util.Arrays;
+
+/**
+ * <code>SelectionBuffer</code> is a reusable scratch buffer of <code>(double key, int id)</code> entries on which
+ * selections and sorts can be performed without allocation.
+ * <p>
+ * Callers typically keep an instance as a field, {@linkplain #clear() clear} it before each use and
+ * {@linkplain #add(double, int) add} the entries to be considered. The underlying arrays only grow when needed and are
+ * directly accessible through {@link #keys()} and {@link #ids()}.
+ * </p>
+ * <p>
+ * Instances of this class are not thread-safe.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 11:51:45 AM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ * @see PrimitiveSelect
+ */
+public class SelectionBuffer {
+
+    private double[] mKeys;
+    private int[]    mIds;
+    private int      mSize;
+
+    /**
+     * Creates a new <code>SelectionBuffer</code>
+     * 
+     * @param initialCapacity
+     *            the initial capacity of the buffer
+     */
+    public SelectionBuffer(int initialCapacity) {
+        mKeys = new double[Math.max(initialCapacity, 1)];
+        mIds = new int[mKeys.length];
+    }
+
+    /**
+     * Remove all the entries from this buffer
+     */
+    public void clear() {
+        mSize = 0;
+    }
+
+    /**
+     * Ensure that this buffer can hold at least {@code capacity} entries
+     * 
+     * @param capacity
+     *            the minimum capacity
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > mKeys.length) {
+            int newCapacity = Math.max(capacity, mKeys.length + (mKeys.length >> 1));
+            mKeys = Arrays.copyOf(mKeys, newCapacity);
+            mIds = Arrays.copyOf(mIds, newCapacity);
+        }
+    }
+
+    /**
+     * Add an entry to this buffer
+     * 
+     * @param key
+     *            the key of the entry
+     * @param id
+     *            the id of the entry
+     */
+    public void add(double key, int id) {
+        ensureCapacity(mSize + 1);
+        mKeys[mSize] = key;
+        mIds[mSize] = id;
+        mSize++;
+    }
+
+    /**
+     * Returns the number of entries in this buffer
+     * 
+     * @return the number of entries in this buffer
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Returns the key of the <code>i</code>-th entry
+     * 
+     * @param i
+     *            the index of the entry
+     * @return the key of the <code>i</code>-th entry
+     */
+    public double getKey(int i) {
+        checkIndex(i);
+        return mKeys[i];
+    }
+
+    /**
+     * Returns the id of the <code>i</code>-th entry
+     * 
+     * @param i
+     *            the index of the entry
+     * @return the id of the <code>i</code>-th entry
+     */
+    public int getId(int i) {
+        checkIndex(i);
+        return mIds[i];
+    }
+
+    /**
+     * Returns the array backing the keys of this buffer, only the first {@link #size()} elements are meaningful
+     * 
+     * @return the array backing the keys of this buffer
+     */
+    public double[] keys() {
+        return mKeys;
+    }
+
+    /**
+     * Returns the array backing the ids of this buffer, only the first {@link #size()} elements are meaningful
+     * 
+     * @return the array backing the ids of this buffer
+     */
+    public int[] ids() {
+        return mIds;
+    }
+
+    /**
+     * Remove the <code>i</code>-th entry by replacing it with the last one
+     * 
+     * @param i
+     *            the index of the entry to remove
+     */
+    public void removeSwap(int i) {
+        checkIndex(i);
+        mSize--;
+        mKeys[i] = mKeys[mSize];
+        mIds[i] = mIds[mSize];
+    }
+
+    /**
+     * Select the entry of rank {@code k}, entries are reordered
+     * 
+     * @param k
+     *            the rank of the entry to select (<code>0</code> for the lowest key)
+     * @return the index of the selected entry, which is equal to {@code k}
+     * @see PrimitiveSelect#select(double[], int[], int, int, int)
+     */
+    public int select(int k) {
+        return PrimitiveSelect.select(mKeys, mIds, 0, mSize, k);
+    }
+
+    /**
+     * Sort the entries by increasing key, ties being broken by increasing id
+     * 
+     * @see PrimitiveSelect#sort(double[], int[], int, int)
+     */
+    public void sort() {
+        PrimitiveSelect.sort(mKeys, mIds, 0, mSize);
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= mSize)
+            throw new IndexOutOfBoundsException("Index: " + i + ", size: " + mSize);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(mSize * 8 + 2);
+        sb.append('[');
+        for (int i = 0; i < mSize; i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append(mIds[i]).append(':').append(mKeys[i]);
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,249 @@
+package vroom.common.utilities.math;
+
+import java.util.Arrays;
+
+/**
+ * <code>TopKHeap</code> is a bounded binary heap of <code>(double key, int id)</code> entries that retains the
+ * <code>k</code> greatest (or lowest) entries offered to it.
+ * <p>
+ * Offering an entry costs <code>O(log k)</code> and does not create any object, the heap can be {@linkplain #clear()
+ * cleared} and reused. The root of the heap is the <em>worst</em> retained entry, i.e. the lowest when retaining the
+ * greatest entries. Entries are compared with {@link PrimitiveSelect#compare(double, int, double, int)}.
+ * </p>
+ * <p>
+ * Instances of this class are not thread-safe.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 11:32:10 AM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class TopKHeap {
+
+    /** <code>true</code> if the greatest entries are retained, <code>false</code> for the lowest */
+    private final boolean mMax;
+
+    /** the keys of the entries, in heap order */
+    private double[]      mKeys;
+    /** the ids of the entries, in heap order */
+    private int[]         mIds;
+    /** the maximum number of entries retained */
+    private int           mCapacity;
+    /** the number of entries currently retained */
+    private int           mSize;
+
+    /**
+     * Creates a new <code>TopKHeap</code>
+     * 
+     * @param capacity
+     *            the number <code>k</code> of entries to retain
+     * @param max
+     *            <code>true</code> to retain the greatest entries, <code>false</code> to retain the lowest
+     */
+    public TopKHeap(int capacity, boolean max) {
+        mMax = max;
+        mKeys = new double[Math.max(capacity, 1)];
+        mIds = new int[mKeys.length];
+        mCapacity = capacity;
+    }
+
+    /**
+     * Returns <code>true</code> if the greatest entries are retained, <code>false</code> for the lowest
+     * 
+     * @return <code>true</code> if the greatest entries are retained, <code>false</code> for the lowest
+     */
+    public boolean isMax() {
+        return mMax;
+    }
+
+    /**
+     * Returns the number <code>k</code> of entries to retain
+     * 
+     * @return the number <code>k</code> of entries to retain
+     */
+    public int getCapacity() {
+        return mCapacity;
+    }
+
+    /**
+     * Returns the number of entries currently retained
+     * 
+     * @return the number of entries currently retained
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Remove all the entries from this heap
+     */
+    public void clear() {
+        mSize = 0;
+    }
+
+    /**
+     * Remove all the entries from this heap and change its capacity
+     * 
+     * @param capacity
+     *            the new number <code>k</code> of entries to retain
+     */
+    public void reset(int capacity) {
+        if (capacity > mKeys.length) {
+            mKeys = new double[capacity];
+            mIds = new int[capacity];
+        }
+        mCapacity = capacity;
+        mSize = 0;
+    }
+
+    /**
+     * Offer an entry to this heap
+     * 
+     * @param key
+     *            the key of the entry
+     * @param id
+     *            the id of the entry
+     * @return <code>true</code> if the entry is retained, <code>false</code> if it was rejected
+     */
+    public boolean offer(double key, int id) {
+        if (mSize < mCapacity) {
+            // Sift up the new entry
+            int i = mSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!worse(key, id, mKeys[parent], mIds[parent]))
+                    break;
+                mKeys[i] = mKeys[parent];
+                mIds[i] = mIds[parent];
+                i = parent;
+            }
+            mKeys[i] = key;
+            mIds[i] = id;
+            return true;
+        } else if (mSize > 0 && worse(mKeys[0], mIds[0], key, id)) {
+            // Replace the root and sift it down
+            siftDown(key, id, mSize);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the key of the worst retained entry
+     * 
+     * @return the key of the worst retained entry
+     * @throws IllegalStateException
+     *             if the heap is empty
+     */
+    public double peekKey() {
+        checkNotEmpty();
+        return mKeys[0];
+    }
+
+    /**
+     * Returns the id of the worst retained entry
+     * 
+     * @return the id of the worst retained entry
+     * @throws IllegalStateException
+     *             if the heap is empty
+     */
+    public int peekId() {
+        checkNotEmpty();
+        return mIds[0];
+    }
+
+    /**
+     * Returns the key of the <code>i</code>-th entry in heap order
+     * 
+     * @param i
+     *            the index of the entry, between <code>0</code> and <code>{@link #size()}-1</code>
+     * @return the key of the <code>i</code>-th entry in heap order
+     */
+    public double getKey(int i) {
+        if (i >= mSize)
+            throw new IndexOutOfBoundsException("Index: " + i + ", size: " + mSize);
+        return mKeys[i];
+    }
+
+    /**
+     * Returns the id of the <code>i</code>-th entry in heap order
+     * 
+     * @param i
+     *            the index of the entry, between <code>0</code> and <code>{@link #size()}-1</code>
+     * @return the id of the <code>i</code>-th entry in heap order
+     */
+    public int getId(int i) {
+        if (i >= mSize)
+            throw new IndexOutOfBoundsException("Index: " + i + ", size: " + mSize);
+        return mIds[i];
+    }
+
+    /**
+     * Remove all entries from this heap and copy them in ascending order in the given arrays
+     * 
+     * @param keys
+     *            an array of length at least {@link #size()} in which the keys will be copied
+     * @param ids
+     *            an array of length at least {@link #size()} in which the ids will be copied, can be
+     *            <code>null</code>
+     * @return the number of entries copied
+     */
+    public int drainSorted(double[] keys, int[] ids) {
+        int count = mSize;
+        for (int n = count; n > 0; n--) {
+            // The root is the worst entry: lowest in max mode, greatest in min mode
+            int pos = mMax ? count - n : n - 1;
+            keys[pos] = mKeys[0];
+            if (ids != null)
+                ids[pos] = mIds[0];
+            if (n > 1)
+                siftDown(mKeys[n - 1], mIds[n - 1], n - 1);
+        }
+        mSize = 0;
+        return count;
+    }
+
+    /**
+     * Place an entry at the root and sift it down in a heap of the given size
+     */
+    private void siftDown(double key, int id, int size) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size)
+                break;
+            if (child + 1 < size && worse(mKeys[child + 1], mIds[child + 1], mKeys[child], mIds[child]))
+                child++;
+            if (!worse(mKeys[child], mIds[child], key, id))
+                break;
+            mKeys[i] = mKeys[child];
+            mIds[i] = mIds[child];
+            i = child;
+        }
+        mKeys[i] = key;
+        mIds[i] = id;
+    }
+
+    /**
+     * Returns <code>true</code> if the first entry is worse than the second, i.e. would be rejected first
+     */
+    private boolean worse(double k1, int id1, double k2, int id2) {
+        int c = PrimitiveSelect.compare(k1, id1, k2, id2);
+        return mMax ? c < 0 : c > 0;
+    }
+
+    private void checkNotEmpty() {
+        if (mSize == 0)
+            throw new IllegalStateException("The heap is empty");
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s", mMax ? "max" : "min",
+                Arrays.toString(Arrays.copyOf(mKeys, mSize)));
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * 
+ */
+package vroom.common.utilities.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <code>Counter</code> is a monotonic counter that can be incremented concurrently by several threads with a low
+ * overhead.
+ * <p>
+ * The count is striped over several cells, each thread updating the cell associated with its id. Cells are padded to
+ * avoid false sharing, and are only summed when the count is read.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 10:23:05 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class Counter implements IMetric {
+
+    /** The number of stripes, a power of two */
+    private static final int      STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) << 1;
+    /** The number of longs in a cache line */
+    private static final int      PAD     = 8;
+
+    private final String          mName;
+    private final AtomicLongArray mCells;
+    private volatile long         mStart;
+
+    /**
+     * Creates a new <code>Counter</code>
+     * 
+     * @param name
+     *            the name of this counter
+     */
+    public Counter(String name) {
+        mName = name;
+        mCells = new AtomicLongArray(STRIPES * PAD);
+        mStart = System.nanoTime();
+    }
+
+    @Override
+    public String getName() {
+        return mName;
+    }
+
+    /**
+     * Increment this counter by one
+     */
+    public void increment() {
+        mCells.getAndIncrement(cell());
+    }
+
+    /**
+     * Increment this counter
+     * 
+     * @param delta
+     *            the value to be added to this counter
+     */
+    public void add(long delta) {
+        mCells.getAndAdd(cell(), delta);
+    }
+
+    /**
+     * Returns the index of the cell associated with the current thread
+     */
+    private static int cell() {
+        // Spread consecutive thread ids over the stripes
+        int h = (int) (Thread.currentThread().getId() * 0x9E3779B97F4A7C15L >>> 32);
+        return (h & (STRIPES - 1)) * PAD;
+    }
+
+    /**
+     * Returns the current count
+     * 
+     * @return the sum of all the increments since the creation or the last reset of this counter
+     */
+    public long getCount() {
+        long sum = 0;
+        for (int i = 0; i < mCells.length(); i += PAD)
+            sum += mCells.get(i);
+        return sum;
+    }
+
+    /**
+     * Returns the mean rate of this counter
+     * 
+     * @return the mean number of increments per second since the creation or the last reset of this counter
+     */
+    public double getMeanRate() {
+        double seconds = (System.nanoTime() - mStart) / 1e9;
+        return seconds > 0 ? getCount() / seconds : 0;
+    }
+
+    /**
+     * Reset this counter, concurrent increments may be lost
+     */
+    public void reset() {
+        for (int i = 0; i < mCells.length(); i += PAD)
+            mCells.set(i, 0);
+        mStart = System.nanoTime();
+    }
+
+    @Override
+    public Map<String, Number> getValues() {
+        Map<String, Number> values = new LinkedHashMap<String, Number>();
+        values.put("count", getCount());
+        values.put("meanRate", getMeanRate());
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s:%s", getName(), getCount());
+    }
+}
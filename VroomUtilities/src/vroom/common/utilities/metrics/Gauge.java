@@ -0,0 +1,54 @@
+/**
+ * 
+ */
+package vroom.common.utilities.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * <code>Gauge</code> is a metric whose value is read on demand, for instance the size of a pool or a queue.
+ * <p>
+ * Creation date: Oct 19, 2026 - 10:33:12 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public abstract class Gauge implements IMetric {
+
+    private final String mName;
+
+    /**
+     * Creates a new <code>Gauge</code>
+     * 
+     * @param name
+     *            the name of this gauge
+     */
+    public Gauge(String name) {
+        mName = name;
+    }
+
+    @Override
+    public String getName() {
+        return mName;
+    }
+
+    /**
+     * Returns the current value of this gauge, this method may be called from any thread
+     * 
+     * @return the current value of this gauge
+     */
+    public abstract double getValue();
+
+    @Override
+    public Map<String, Number> getValues() {
+        return Collections.<String, Number> singletonMap("value", getValue());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s:%s", getName(), getValue());
+    }
+}
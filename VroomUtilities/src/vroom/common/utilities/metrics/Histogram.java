@@ -0,0 +1,205 @@
+/**
+ * 
+ */
+package vroom.common.utilities.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <code>Histogram</code> records the distribution of non-negative <code>long</code> values, for instance latencies in
+ * microseconds, with a bounded relative error and a fixed memory footprint.
+ * <p>
+ * As in HDR histograms, values are stored in log-linear buckets: each power of two is divided in
+ * <code>2<sup>precision</sup></code> sub-buckets of equal width, values smaller than <code>2<sup>precision</sup></code>
+ * being recorded exactly. The relative error on percentiles is thus bounded by <code>2<sup>-precision</sup></code>.
+ * Recording a value is wait-free apart from the update of the maximum.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 10:27:48 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class Histogram implements IMetric {
+
+    /** The default precision, leading to a relative error of about 3% */
+    public static final int       DEFAULT_PRECISION = 5;
+
+    private final String          mName;
+    /** The number of bits used to divide each power of two */
+    private final int             mPrecision;
+    private final AtomicLongArray mCounts;
+    private final Counter         mSum;
+    private final AtomicLong      mMax;
+
+    /**
+     * Creates a new <code>Histogram</code> with the {@linkplain #DEFAULT_PRECISION default precision}
+     * 
+     * @param name
+     *            the name of this histogram
+     */
+    public Histogram(String name) {
+        this(name, DEFAULT_PRECISION);
+    }
+
+    /**
+     * Creates a new <code>Histogram</code>
+     * 
+     * @param name
+     *            the name of this histogram
+     * @param precision
+     *            the number of bits used to divide each power of two, between 1 and 16
+     */
+    public Histogram(String name, int precision) {
+        if (precision < 1 || precision > 16)
+            throw new IllegalArgumentException("The precision must be between 1 and 16: " + precision);
+        mName = name;
+        mPrecision = precision;
+        mCounts = new AtomicLongArray((64 - precision) << precision);
+        mSum = new Counter(name);
+        mMax = new AtomicLong();
+    }
+
+    @Override
+    public String getName() {
+        return mName;
+    }
+
+    /**
+     * Record a value in this histogram
+     * 
+     * @param value
+     *            the value to be recorded, negative values are recorded as {@code  0}
+     */
+    public void record(long value) {
+        if (value < 0)
+            value = 0;
+        mCounts.getAndIncrement(index(value));
+        mSum.add(value);
+        long max = mMax.get();
+        while (value > max && !mMax.compareAndSet(max, value))
+            max = mMax.get();
+    }
+
+    /**
+     * Returns the index of the bucket containing a value
+     */
+    int index(long value) {
+        if (value < 1L << mPrecision)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - mPrecision;
+        return ((shift + 1) << mPrecision) + (int) ((value >>> shift) - (1L << mPrecision));
+    }
+
+    /**
+     * Returns the highest value contained in a bucket
+     */
+    long highestValue(int index) {
+        if (index < 1 << mPrecision)
+            return index;
+        int shift = (index >>> mPrecision) - 1;
+        long low = ((1L << mPrecision) + (index & ((1 << mPrecision) - 1))) << shift;
+        return low + (1L << shift) - 1;
+    }
+
+    /**
+     * Returns the number of recorded values
+     * 
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < mCounts.length(); i++)
+            count += mCounts.get(i);
+        return count;
+    }
+
+    /**
+     * Returns the mean of the recorded values
+     * 
+     * @return the mean of the recorded values, or {@link Double#NaN} if no value was recorded
+     */
+    public double getMean() {
+        long count = getCount();
+        return count > 0 ? (double) mSum.getCount() / count : Double.NaN;
+    }
+
+    /**
+     * Returns the maximum recorded value
+     * 
+     * @return the maximum recorded value
+     */
+    public long getMax() {
+        return mMax.get();
+    }
+
+    /**
+     * Returns the value at a given percentile
+     * 
+     * @param percentile
+     *            the percentile, between {@code  0} and {@code  100}
+     * @return the highest value equivalent to the value at {@code  percentile}, or {@code  0} if no value was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] counts = new long[mCounts.length()];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = mCounts.get(i);
+            total += counts[i];
+        }
+        return valueAtPercentile(counts, total, percentile);
+    }
+
+    private long valueAtPercentile(long[] counts, long total, double percentile) {
+        if (total == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * total));
+        long cumulated = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulated += counts[i];
+            if (cumulated >= rank)
+                return Math.min(highestValue(i), getMax());
+        }
+        return getMax();
+    }
+
+    /**
+     * Reset this histogram, concurrent records may be lost
+     */
+    public void reset() {
+        for (int i = 0; i < mCounts.length(); i++)
+            mCounts.set(i, 0);
+        mSum.reset();
+        mMax.set(0);
+    }
+
+    @Override
+    public Map<String, Number> getValues() {
+        long[] counts = new long[mCounts.length()];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = mCounts.get(i);
+            total += counts[i];
+        }
+
+        Map<String, Number> values = new LinkedHashMap<String, Number>();
+        values.put("count", total);
+        values.put("mean", total > 0 ? (double) mSum.getCount() / total : Double.NaN);
+        values.put("max", getMax());
+        values.put("p50", valueAtPercentile(counts, total, 50));
+        values.put("p90", valueAtPercentile(counts, total, 90));
+        values.put("p99", valueAtPercentile(counts, total, 99));
+        values.put("p999", valueAtPercentile(counts, total, 99.9));
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s:%s", getName(), getValues());
+    }
+}
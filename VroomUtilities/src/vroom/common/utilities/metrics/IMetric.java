@@ -0,0 +1,35 @@
+/**
+ * 
+ */
+package vroom.common.utilities.metrics;
+
+import java.util.Map;
+
+/**
+ * <code>IMetric</code> is the interface for metrics collected while a procedure is running and exposed by
+ * {@link Metrics}.
+ * <p>
+ * Creation date: Oct 19, 2026 - 10:21:37 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public interface IMetric {
+
+    /**
+     * Returns the name of this metric
+     * 
+     * @return the name of this metric
+     */
+    public String getName();
+
+    /**
+     * Returns a snapshot of the values of this metric. The keys of the returned map are always the same for a given
+     * metric, and are used as attribute names when the metric is exposed as a MBean.
+     * 
+     * @return a map containing the current value of each attribute of this metric
+     */
+    public Map<String, Number> getValues();
+}
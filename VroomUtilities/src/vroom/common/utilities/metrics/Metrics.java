@@ -0,0 +1,402 @@
+/**
+ * 
+ */
+package vroom.common.utilities.metrics;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import vroom.common.utilities.logging.LoggerHelper;
+
+/**
+ * <code>Metrics</code> is the registry of the {@linkplain IMetric metrics} collected by the running procedures.
+ * <p>
+ * Each metric is identified by a unique name (e.g. <code>alns.iterations</code>) and is exposed as a MBean of the
+ * platform MBean server under the name <code>vroom:type=&lt;Counter|Histogram|Gauge&gt;,name=&lt;name&gt;</code>, so
+ * that it can be monitored live with <code>jconsole</code> or <code>jvisualvm</code>. The metrics can also be
+ * {@linkplain #startDump(File, long) dumped periodically} to a file, one JSON object per line.
+ * </p>
+ * <p>
+ * Counters and histograms are created on first access and are shared by all the procedures using the same name.
+ * Gauges usually reference the state of a procedure, their name should be {@linkplain #qualify(String, Object, int)
+ * qualified} with the instance and run they refer to, and they should be {@linkplain #remove(IMetric) removed} in a
+ * <code>finally</code> block when the procedure terminates.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 10:36:29 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public final class Metrics {
+
+    /**
+     * Getter for this class logger
+     * 
+     * @return the logger associated with this class
+     */
+    public static LoggerHelper getLogger() {
+        return LoggerHelper.getLogger(Metrics.class);
+    }
+
+    /** The domain of the MBeans */
+    public static final String                              JMX_DOMAIN  = "vroom";
+
+    /** A flag to enable or disable the registration of MBeans for the metrics created afterward */
+    public static boolean                                   sJmxEnabled = true;
+
+    private static final ConcurrentHashMap<String, IMetric> sMetrics    = new ConcurrentHashMap<String, IMetric>();
+
+    private static ScheduledExecutorService                 sDumpExecutor;
+
+    /** The last run identifier returned by {@link #newRunId()} */
+    private static final AtomicInteger                      sRunId      = new AtomicInteger();
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the counter with the given name, creating it if needed
+     * 
+     * @param name
+     *            the name of the counter
+     * @return the counter with the given name
+     * @throws IllegalArgumentException
+     *             if a metric of a different type is registered with the same name
+     */
+    public static Counter counter(String name) {
+        IMetric m = sMetrics.get(name);
+        if (m == null) {
+            Counter c = new Counter(name);
+            m = sMetrics.putIfAbsent(name, c);
+            if (m == null) {
+                registerMBean(c);
+                return c;
+            }
+        }
+        return cast(m, Counter.class);
+    }
+
+    /**
+     * Returns the histogram with the given name, creating it with the default precision if needed
+     * 
+     * @param name
+     *            the name of the histogram
+     * @return the histogram with the given name
+     * @throws IllegalArgumentException
+     *             if a metric of a different type is registered with the same name
+     */
+    public static Histogram histogram(String name) {
+        IMetric m = sMetrics.get(name);
+        if (m == null) {
+            Histogram h = new Histogram(name);
+            m = sMetrics.putIfAbsent(name, h);
+            if (m == null) {
+                registerMBean(h);
+                return h;
+            }
+        }
+        return cast(m, Histogram.class);
+    }
+
+    /**
+     * Register a gauge, replacing any metric previously registered with the same name
+     * 
+     * @param gauge
+     *            the gauge to be registered
+     * @return {@code gauge}
+     */
+    public static <G extends Gauge> G register(G gauge) {
+        IMetric previous = sMetrics.put(gauge.getName(), gauge);
+        if (previous != null)
+            unregisterMBean(previous);
+        registerMBean(gauge);
+        return gauge;
+    }
+
+    /**
+     * Returns a new identifier for a run of a procedure, unique in this JVM
+     * 
+     * @return a new run identifier
+     * @see #qualify(String, Object, int)
+     */
+    public static int newRunId() {
+        return sRunId.incrementAndGet();
+    }
+
+    /**
+     * Qualify the name of a gauge with the instance and the run it refers to, so that procedures running concurrently
+     * do not replace each other's gauges
+     * 
+     * @param name
+     *            the name of the gauge
+     * @param instance
+     *            the instance being solved, or its name
+     * @param runId
+     *            the identifier of the run, as returned by {@link #newRunId()}
+     * @return the qualified name, e.g. <code>palns.pool_size[A-n32-k5#3]</code>
+     */
+    public static String qualify(String name, Object instance, int runId) {
+        return String.format("%s[%s#%s]", name, instance, runId);
+    }
+
+    /**
+     * Remove a metric from this registry, if it is still registered
+     * 
+     * @param metric
+     *            the metric to be removed
+     * @return {@code true} if {@code metric} was registered
+     */
+    public static boolean remove(IMetric metric) {
+        boolean removed = sMetrics.remove(metric.getName(), metric);
+        if (removed)
+            unregisterMBean(metric);
+        return removed;
+    }
+
+    /**
+     * Returns the registered metrics sorted by name
+     * 
+     * @return a list containing the registered metrics
+     */
+    public static List<IMetric> getMetrics() {
+        List<IMetric> metrics = new ArrayList<IMetric>(sMetrics.values());
+        Collections.sort(metrics, new Comparator<IMetric>() {
+            @Override
+            public int compare(IMetric o1, IMetric o2) {
+                return o1.getName().compareTo(o2.getName());
+            }
+        });
+        return metrics;
+    }
+
+    /**
+     * Returns a JSON representation of the current values of all the registered metrics
+     * 
+     * @return a JSON object containing the timestamp and the values of all the registered metrics
+     */
+    public static String toJSON() {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("{\"timestamp\":").append(System.currentTimeMillis()).append(",\"metrics\":{");
+        boolean first = true;
+        for (IMetric m : getMetrics()) {
+            if (!first)
+                sb.append(',');
+            first = false;
+            appendString(sb, m.getName());
+            sb.append(":{");
+            boolean firstValue = true;
+            for (Entry<String, Number> v : m.getValues().entrySet()) {
+                if (!firstValue)
+                    sb.append(',');
+                firstValue = false;
+                appendString(sb, v.getKey());
+                sb.append(':');
+                Number n = v.getValue();
+                if (n == null || n instanceof Double && (((Double) n).isNaN() || ((Double) n).isInfinite()))
+                    sb.append("null");
+                else
+                    sb.append(n);
+            }
+            sb.append('}');
+        }
+        sb.append("}}");
+        return sb.toString();
+    }
+
+    private static void appendString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\')
+                sb.append('\\').append(c);
+            else if (c < 0x20)
+                sb.append(String.format("\\u%04x", (int) c));
+            else
+                sb.append(c);
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Start dumping the metrics periodically, any previous dump is stopped
+     * 
+     * @param file
+     *            the file to which the {@linkplain #toJSON() JSON representation} of the metrics will be appended
+     * @param periodMS
+     *            the period between two dumps in milliseconds
+     */
+    public static synchronized void startDump(final File file, long periodMS) {
+        stopDump();
+        sDumpExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "metrics-dump");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        sDumpExecutor.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                dump(file);
+            }
+        }, periodMS, periodMS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop dumping the metrics, a final dump is not performed
+     */
+    public static synchronized void stopDump() {
+        if (sDumpExecutor != null) {
+            sDumpExecutor.shutdownNow();
+            sDumpExecutor = null;
+        }
+    }
+
+    /**
+     * Append the {@linkplain #toJSON() JSON representation} of the metrics to a file
+     * 
+     * @param file
+     *            the destination file
+     */
+    public static void dump(File file) {
+        try (Writer w = new FileWriter(file, true)) {
+            w.write(toJSON());
+            w.write('\n');
+        } catch (IOException e) {
+            getLogger().exception("Metrics.dump", e);
+        }
+    }
+
+    private static <M extends IMetric> M cast(IMetric metric, Class<M> type) {
+        if (!type.isInstance(metric))
+            throw new IllegalArgumentException(String.format("Metric %s is a %s and not a %s", metric.getName(),
+                    metric.getClass().getSimpleName(), type.getSimpleName()));
+        return type.cast(metric);
+    }
+
+    private static ObjectName getObjectName(IMetric metric) throws JMException {
+        return new ObjectName(String.format("%s:type=%s,name=%s", JMX_DOMAIN, metric instanceof Gauge ? "Gauge"
+                : metric.getClass().getSimpleName(), ObjectName.quote(metric.getName())));
+    }
+
+    private static void registerMBean(IMetric metric) {
+        if (!sJmxEnabled)
+            return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = getObjectName(metric);
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+            server.registerMBean(new MetricMBean(metric), name);
+        } catch (JMException e) {
+            getLogger().warn("Metrics.registerMBean: unable to register metric %s", e, metric.getName());
+        }
+    }
+
+    private static void unregisterMBean(IMetric metric) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = getObjectName(metric);
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+        } catch (JMException e) {
+            getLogger().warn("Metrics.unregisterMBean: unable to unregister metric %s", e, metric.getName());
+        }
+    }
+
+    /**
+     * <code>MetricMBean</code> exposes the {@linkplain IMetric#getValues() values} of a metric as read-only attributes
+     * <p>
+     * Creation date: Oct 19, 2026 - 10:41:55 PM
+     * 
+     * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+     *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+     *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+     * @version 1.0
+     */
+    private static class MetricMBean implements DynamicMBean {
+        private final IMetric   mMetric;
+        private final MBeanInfo mInfo;
+
+        private MetricMBean(IMetric metric) {
+            mMetric = metric;
+            Map<String, Number> values = metric.getValues();
+            MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[values.size()];
+            int i = 0;
+            for (Entry<String, Number> v : values.entrySet()) {
+                attributes[i++] = new MBeanAttributeInfo(v.getKey(), v.getValue().getClass().getName(), v.getKey(),
+                        true, false, false);
+            }
+            mInfo = new MBeanInfo(metric.getClass().getName(), metric.getName(), attributes, null, null, null);
+        }
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Number value = mMetric.getValues().get(attribute);
+            if (value == null)
+                throw new AttributeNotFoundException(attribute);
+            return value;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Read-only attribute: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            Map<String, Number> values = mMetric.getValues();
+            AttributeList list = new AttributeList();
+            for (String a : attributes) {
+                if (values.containsKey(a))
+                    list.add(new Attribute(a, values.get(a)));
+            }
+            return list;
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            return mInfo;
+        }
+    }
+}
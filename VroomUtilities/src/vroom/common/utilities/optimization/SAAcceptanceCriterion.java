@@ -3,10 +3,15 @@
  */
 package vroom.common.utilities.optimization;
 
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Set;
 
 import umontreal.iro.lecuyer.rng.RandomStream;
+import vroom.common.utilities.Utilities;
+import vroom.common.utilities.checkpoint.ICheckpointable;
+import vroom.common.utilities.ssj.SSJUtilities;
 
 /**
  * <code>SAAcceptanceCriterion</code> is an implementation of {@link IAcceptanceCriterion} based on a simulated
@@ -19,7 +24,8 @@ import umontreal.iro.lecuyer.rng.RandomStream;
  *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
  * @version 1.0
  */
-public class SAAcceptanceCriterion implements IAcceptanceCriterion {
+public class SAAcceptanceCriterion implements IAcceptanceCriterion,
+        ICheckpointable<SAAcceptanceCriterion.SACheckpoint> {
 
     /** the accept already visited solution flag **/
     private final boolean mAcceptAlreadyVisited;
@@ -226,6 +232,24 @@ public class SAAcceptanceCriterion implements IAcceptanceCriterion {
         return mInitialTemp;
     }
 
+    @Override
+    public SACheckpoint getCheckpoint() {
+        return new SACheckpoint(mTemp, SSJUtilities.getState(mRandomStream),
+                mVisitedSolutions != null ? Utilities.toIntArray(new ArrayList<Integer>(
+                        mVisitedSolutions)) : null);
+    }
+
+    @Override
+    public void restoreCheckpoint(SACheckpoint checkpoint) {
+        mTemp = checkpoint.mTemp;
+        SSJUtilities.setState(mRandomStream, checkpoint.mStreamState);
+        if (mVisitedSolutions != null) {
+            mVisitedSolutions.clear();
+            for (int h : checkpoint.mVisitedSolutions)
+                mVisitedSolutions.add(h);
+        }
+    }
+
     @Override
     public String toString() {
         return String.format("SA(t:%s t0:%s c:%s)", getTemperature(), getInitialTemp(), getCoolingRate());
@@ -240,4 +264,28 @@ public class SAAcceptanceCriterion implements IAcceptanceCriterion {
             clone.mVisitedSolutions.addAll(mVisitedSolutions);
         return clone;
     }
+
+    /**
+     * <code>SACheckpoint</code> contains the state of a {@link SAAcceptanceCriterion}
+     * <p>
+     * Creation date: Oct 19, 2026 - 11:41:17 PM
+     * 
+     * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+     *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+     *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+     * @version 1.0
+     */
+    public static class SACheckpoint implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final double      mTemp;
+        private final long[]      mStreamState;
+        private final int[]       mVisitedSolutions;
+
+        private SACheckpoint(double temp, long[] streamState, int[] visitedSolutions) {
+            mTemp = temp;
+            mStreamState = streamState;
+            mVisitedSolutions = visitedSolutions;
+        }
+    }
 }
@@ -6,6 +6,7 @@ package vroom.common.utilities.optimization;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import vroom.common.utilities.Stopwatch;
+import vroom.common.utilities.checkpoint.ICheckpointable;
 
 /**
  * <code>SimpleStoppingCriterion</code> is an implementation of {@link IStoppingCriterion} based on a maximum number of
@@ -20,7 +21,7 @@ import vroom.common.utilities.Stopwatch;
  *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
  * @version 1.0
  */
-public class SimpleStoppingCriterion implements IStoppingCriterion {
+public class SimpleStoppingCriterion implements IStoppingCriterion, ICheckpointable<long[]> {
 
     /**
      * Getter for maxTime : The maximum execution time
@@ -164,4 +165,25 @@ public class SimpleStoppingCriterion implements IStoppingCriterion {
         return clone;
     }
 
+    /**
+     * Returns the number of iterations and the elapsed time (in nanoseconds)
+     */
+    @Override
+    public long[] getCheckpoint() {
+        return new long[] { mItCount.get(), mTimer.readTime() };
+    }
+
+    /**
+     * Restore the number of iterations and the elapsed time, the timer is started if needed
+     */
+    @Override
+    public void restoreCheckpoint(long[] checkpoint) {
+        mItCount.set((int) checkpoint[0]);
+        if (!mTimer.isStarted())
+            mTimer.start();
+        mTimer.pause();
+        mTimer.setAccumulatedTime(checkpoint[1]);
+        mTimer.resume();
+    }
+
 }
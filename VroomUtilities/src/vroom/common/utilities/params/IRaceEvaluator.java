@@ -0,0 +1,49 @@
+/**
+ * 
+ */
+package vroom.common.utilities.params;
+
+import vroom.common.utilities.params.ParameterExperimentDesign.ExperimentParameterSetting;
+
+/**
+ * <code>IRaceEvaluator</code> is the interface for classes responsible for the evaluation of a parameter setting on a
+ * block of a {@link RacingTuner race}, usually an instance and a replica.
+ * <p>
+ * Implementations must be thread safe, as several settings are evaluated in parallel on the same block.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 9:32:18 PM
+ * 
+ * @param <G>
+ *            the type of global parameters
+ * @param <B>
+ *            the type of blocks
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public interface IRaceEvaluator<G extends GlobalParameters, B> {
+
+    /**
+     * Returns the name of the instance of a block, used to lookup the best known solution
+     * 
+     * @param block
+     *            the considered block
+     * @return the name of the instance of {@code  block}
+     */
+    public String getInstanceName(B block);
+
+    /**
+     * Evaluates a parameter setting on a block
+     * 
+     * @param setting
+     *            the parameter setting to be evaluated
+     * @param block
+     *            the block on which the setting is evaluated
+     * @return the objective value of the solution found with {@code  setting} on {@code  block}
+     * @throws Exception
+     *             if the evaluation failed, the setting is then ranked last on this block
+     */
+    public double evaluate(ExperimentParameterSetting<G> setting, B block) throws Exception;
+}
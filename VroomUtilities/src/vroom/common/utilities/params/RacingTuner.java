@@ -0,0 +1,516 @@
+/**
+ * 
+ */
+package vroom.common.utilities.params;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import umontreal.iro.lecuyer.probdist.ChiSquareDist;
+import umontreal.iro.lecuyer.probdist.NormalDist;
+import vroom.common.utilities.BestKnownSolutions;
+import vroom.common.utilities.logging.LoggerHelper;
+import vroom.common.utilities.optimization.OptimizationSense;
+import vroom.common.utilities.params.ParameterExperimentDesign.ExperimentParameterSetting;
+
+/**
+ * <code>RacingTuner</code> is an implementation of the F-Race algorithm for the selection of the best parameter setting
+ * among the {@linkplain ParameterExperimentDesign#getExperiments() experiments} of a {@link ParameterExperimentDesign}.
+ * <p>
+ * Blocks (usually pairs of instance and replica) are processed one after the other. On each block, all the settings
+ * that are still in the race are {@linkplain IRaceEvaluator#evaluate(ExperimentParameterSetting, Object) evaluated} in
+ * parallel. Once {@linkplain #setMinBlocks(int) enough blocks} have been processed, a Friedman test is performed on
+ * the ranks of the remaining settings and, if it is significant, the settings whose rank sum is worse than the best
+ * one by more than the critical difference of the Conover post-hoc test are eliminated.
+ * </p>
+ * <p>
+ * The response of a setting on a block is the {@linkplain BestKnownSolutions#getGapToBKS(String, double,
+ * OptimizationSense) gap to the BKS} when it is known, or the objective value otherwise. Settings are only compared
+ * within a block, so that both can be mixed in a race.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 9:38:51 PM
+ * 
+ * @param <G>
+ *            the type of global parameters
+ * @param <B>
+ *            the type of blocks
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class RacingTuner<G extends GlobalParameters, B> {
+
+    /**
+     * Getter for this class logger
+     * 
+     * @return the logger associated with this class
+     */
+    public static LoggerHelper getLogger() {
+        return LoggerHelper.getLogger(RacingTuner.class);
+    }
+
+    private final IRaceEvaluator<G, B>  mEvaluator;
+    private final List<Candidate<G>>    mCandidates;
+    private final int                   mThreadCount;
+
+    private BestKnownSolutions          mBKS;
+    private OptimizationSense           mSense          = OptimizationSense.MINIMIZATION;
+
+    /** The significance level of the statistical tests */
+    private double                      mAlpha          = 0.05;
+    /** The number of blocks processed before the first elimination */
+    private int                         mMinBlocks      = 5;
+    /** The minimum number of settings remaining in the race */
+    private int                         mMinSurvivors   = 1;
+    /** The maximum number of evaluations */
+    private int                         mMaxEvaluations = Integer.MAX_VALUE;
+
+    /** The number of evaluations performed so far */
+    private int                         mEvaluationCount;
+    /** The number of blocks processed so far */
+    private int                         mBlockCount;
+
+    /**
+     * Creates a new <code>RacingTuner</code>
+     * 
+     * @param design
+     *            the experiment design defining the settings to be compared
+     * @param evaluator
+     *            the evaluator for the settings
+     * @param threadCount
+     *            the number of settings evaluated in parallel
+     */
+    public RacingTuner(ParameterExperimentDesign<G> design, IRaceEvaluator<G, B> evaluator, int threadCount) {
+        mEvaluator = evaluator;
+        mThreadCount = threadCount;
+        mCandidates = new ArrayList<Candidate<G>>();
+        for (ExperimentParameterSetting<G> setting : design.getExperiments())
+            mCandidates.add(new Candidate<G>(setting));
+    }
+
+    /**
+     * Sets the best known solutions used to compute the response of each evaluation
+     * 
+     * @param bks
+     *            the best known solutions, can be {@code null}
+     * @param sense
+     *            the optimization sense of the evaluated objective
+     */
+    public void setBestKnownSolutions(BestKnownSolutions bks, OptimizationSense sense) {
+        mBKS = bks;
+        mSense = sense;
+    }
+
+    /**
+     * Sets the significance level of the statistical tests, default is {@code  0.05}
+     * 
+     * @param alpha
+     *            the significance level
+     */
+    public void setAlpha(double alpha) {
+        mAlpha = alpha;
+    }
+
+    /**
+     * Sets the number of blocks processed before the first elimination, default is {@code  5}
+     * 
+     * @param minBlocks
+     *            the number of blocks processed before the first elimination
+     */
+    public void setMinBlocks(int minBlocks) {
+        mMinBlocks = Math.max(2, minBlocks);
+    }
+
+    /**
+     * Sets the number of settings at which the race stops, default is {@code  1}
+     * 
+     * @param minSurvivors
+     *            the minimum number of settings remaining in the race
+     */
+    public void setMinSurvivors(int minSurvivors) {
+        mMinSurvivors = Math.max(1, minSurvivors);
+    }
+
+    /**
+     * Sets the maximum number of evaluations, the race stops before a block that would exceed this budget
+     * 
+     * @param maxEvaluations
+     *            the maximum number of evaluations
+     */
+    public void setMaxEvaluations(int maxEvaluations) {
+        mMaxEvaluations = maxEvaluations;
+    }
+
+    /**
+     * Returns the number of evaluations performed so far
+     * 
+     * @return the number of evaluations performed so far
+     */
+    public int getEvaluationCount() {
+        return mEvaluationCount;
+    }
+
+    /**
+     * Returns the number of blocks processed so far
+     * 
+     * @return the number of blocks processed so far
+     */
+    public int getBlockCount() {
+        return mBlockCount;
+    }
+
+    /**
+     * Returns all the candidates of this race, including the eliminated ones
+     * 
+     * @return a view of the candidates of this race
+     */
+    public List<Candidate<G>> getCandidates() {
+        return Collections.unmodifiableList(mCandidates);
+    }
+
+    /**
+     * Returns the candidates still in the race, sorted by increasing rank sum
+     * 
+     * @return the candidates still in the race, the first one being the best
+     */
+    public List<Candidate<G>> getSurvivors() {
+        final List<Candidate<G>> alive = getAlive();
+        final double[] rankSums = rankSums(alive);
+        List<Candidate<G>> sorted = new ArrayList<Candidate<G>>(alive);
+        Collections.sort(sorted, new Comparator<Candidate<G>>() {
+            @Override
+            public int compare(Candidate<G> o1, Candidate<G> o2) {
+                return Double.compare(rankSums[alive.indexOf(o1)], rankSums[alive.indexOf(o2)]);
+            }
+        });
+        return sorted;
+    }
+
+    /**
+     * Run the race on a sequence of blocks
+     * 
+     * @param blocks
+     *            the blocks to be processed, in order
+     * @return the candidates still in the race, sorted by increasing rank sum
+     * @throws InterruptedException
+     *             if the current thread was interrupted while waiting for evaluations
+     */
+    public List<Candidate<G>> race(List<B> blocks) throws InterruptedException {
+        for (Candidate<G> c : mCandidates)
+            c.init(blocks.size());
+        mBlockCount = 0;
+        mEvaluationCount = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(mThreadCount);
+        try {
+            for (final B block : blocks) {
+                List<Candidate<G>> alive = getAlive();
+                if (alive.size() <= mMinSurvivors) {
+                    break;
+                } else if ((long) mEvaluationCount + alive.size() > mMaxEvaluations) {
+                    getLogger().info("RacingTuner.race: evaluation budget reached (%s)", mEvaluationCount);
+                    break;
+                }
+
+                // Evaluate the remaining settings in parallel
+                List<Future<Double>> futures = new ArrayList<Future<Double>>(alive.size());
+                for (final Candidate<G> c : alive) {
+                    futures.add(executor.submit(new Callable<Double>() {
+                        @Override
+                        public Double call() throws Exception {
+                            return getResponse(c.getSetting(), block);
+                        }
+                    }));
+                }
+                for (int i = 0; i < alive.size(); i++) {
+                    double response;
+                    try {
+                        response = futures.get(i).get();
+                    } catch (ExecutionException e) {
+                        getLogger().exception("RacingTuner.race", e.getCause(), alive.get(i));
+                        response = Double.POSITIVE_INFINITY;
+                    }
+                    alive.get(i).mResponses[mBlockCount] = response;
+                }
+                mEvaluationCount += alive.size();
+                mBlockCount++;
+
+                if (mBlockCount >= mMinBlocks)
+                    eliminate(alive);
+                getLogger().info("RacingTuner.race: block %s/%s - %s settings remaining - %s evaluations",
+                        mBlockCount, blocks.size(), getAlive().size(), mEvaluationCount);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return getSurvivors();
+    }
+
+    /**
+     * Evaluates a setting on a block and returns the corresponding response, the lower the better
+     */
+    private double getResponse(ExperimentParameterSetting<G> setting, B block) throws Exception {
+        double obj = mEvaluator.evaluate(setting, block);
+        if (Double.isNaN(obj))
+            return Double.POSITIVE_INFINITY;
+        if (mBKS != null) {
+            double gap = mBKS.getGapToBKS(mEvaluator.getInstanceName(block), obj, mSense);
+            if (!Double.isNaN(gap))
+                return gap;
+        }
+        return mSense == OptimizationSense.MAXIMIZATION ? -obj : obj;
+    }
+
+    /**
+     * Friedman test on the remaining candidates, followed by the elimination of the candidates that are significantly
+     * worse than the best one
+     */
+    private void eliminate(List<Candidate<G>> alive) {
+        int k = alive.size();
+        int b = mBlockCount;
+        if (k <= mMinSurvivors)
+            return;
+
+        double[][] ranks = new double[b][];
+        double a = 0;
+        for (int i = 0; i < b; i++) {
+            ranks[i] = rank(alive, i);
+            for (double r : ranks[i])
+                a += r * r;
+        }
+        double[] rankSums = new double[k];
+        for (int i = 0; i < b; i++)
+            for (int j = 0; j < k; j++)
+                rankSums[j] += ranks[i][j];
+
+        double c = b * k * (k + 1) * (k + 1) / 4d;
+        if (a - c <= 0)
+            // All candidates are tied on all blocks
+            return;
+
+        double t = 0;
+        for (int j = 0; j < k; j++) {
+            double d = rankSums[j] - b * (k + 1) / 2d;
+            t += d * d;
+        }
+        t *= (k - 1) / (a - c);
+        if (t <= ChiSquareDist.inverseF(k - 1, 1 - mAlpha))
+            return;
+
+        // Conover post-hoc test against the best candidate
+        int df = (b - 1) * (k - 1);
+        double cd = studentInverseF(df, mAlpha)
+                * Math.sqrt(2 * b * (a - c) / df * Math.max(0, 1 - t / (b * (k - 1))));
+        double best = Double.POSITIVE_INFINITY;
+        for (double r : rankSums)
+            best = Math.min(best, r);
+
+        // Eliminate the worst candidates first
+        Integer[] order = new Integer[k];
+        for (int j = 0; j < k; j++)
+            order[j] = j;
+        final double[] sums = rankSums;
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return Double.compare(sums[o2], sums[o1]);
+            }
+        });
+        int remaining = k;
+        for (int j : order) {
+            if (remaining <= mMinSurvivors || rankSums[j] - best <= cd)
+                break;
+            alive.get(j).mEliminationBlock = b;
+            remaining--;
+            getLogger().debug("RacingTuner.eliminate: eliminated %s (rank sum:%s best:%s cd:%.2f)", alive.get(j),
+                    rankSums[j], best, cd);
+        }
+    }
+
+    /**
+     * Returns the rank sums of the given candidates over the processed blocks
+     */
+    private double[] rankSums(List<Candidate<G>> candidates) {
+        double[] sums = new double[candidates.size()];
+        for (int i = 0; i < mBlockCount; i++) {
+            double[] ranks = rank(candidates, i);
+            for (int j = 0; j < sums.length; j++)
+                sums[j] += ranks[j];
+        }
+        return sums;
+    }
+
+    /**
+     * Returns the ranks of the candidates on a block, ties are assigned the average rank
+     */
+    private double[] rank(final List<Candidate<G>> candidates, final int block) {
+        int k = candidates.size();
+        Integer[] order = new Integer[k];
+        for (int j = 0; j < k; j++)
+            order[j] = j;
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return Double.compare(candidates.get(o1).mResponses[block], candidates.get(o2).mResponses[block]);
+            }
+        });
+
+        double[] ranks = new double[k];
+        int i = 0;
+        while (i < k) {
+            int j = i;
+            double v = candidates.get(order[i]).mResponses[block];
+            while (j + 1 < k && Double.compare(candidates.get(order[j + 1]).mResponses[block], v) == 0)
+                j++;
+            for (int l = i; l <= j; l++)
+                ranks[order[l]] = (i + j) / 2d + 1;
+            i = j + 1;
+        }
+        return ranks;
+    }
+
+    /**
+     * Returns the quantile of the Student t distribution with {@code  n} degrees of freedom for a two-tailed probability
+     * {@code  p}, with the approximation of Hill (1970, Algorithm 396).
+     * <p>
+     * {@code StudentDist} is not used as it depends on an additional library at runtime
+     * </p>
+     */
+    static double studentInverseF(int n, double p) {
+        if (n == 1)
+            return 1 / Math.tan(p * Math.PI / 2);
+        if (n == 2)
+            return Math.sqrt(2 / (p * (2 - p)) - 2);
+
+        double a = 1d / (n - 0.5);
+        double b = 48 / (a * a);
+        double c = ((20700 * a / b - 98) * a - 16) * a + 96.36;
+        double d = ((94.5 / (b + c) - 3) / b + 1) * Math.sqrt(a * Math.PI / 2) * n;
+        double x = d * p;
+        double y = Math.pow(x, 2d / n);
+        if (y > 0.05 + a) {
+            // Asymptotic inverse expansion about the normal
+            x = NormalDist.inverseF01(0.5 * p);
+            y = x * x;
+            if (n < 5)
+                c += 0.3 * (n - 4.5) * (x + 0.6);
+            c = (((0.05 * d * x - 5) * x - 7) * x - 2) * x + b + c;
+            y = (((((0.4 * y + 6.3) * y + 36) * y + 94.5) / c - y - 3) / b + 1) * x;
+            y = a * y * y;
+            y = y > 0.002 ? Math.exp(y) - 1 : 0.5 * y * y + y;
+        } else {
+            y = ((1 / (((n + 6) / (n * y) - 0.089 * d - 0.822) * (n + 2) * 3) + 0.5 / (n + 4)) * y - 1) * (n + 1)
+                    / (n + 2) + 1 / y;
+        }
+        return Math.sqrt(n * y);
+    }
+
+    private List<Candidate<G>> getAlive() {
+        List<Candidate<G>> alive = new ArrayList<Candidate<G>>(mCandidates.size());
+        for (Candidate<G> c : mCandidates)
+            if (!c.isEliminated())
+                alive.add(c);
+        return alive;
+    }
+
+    /**
+     * <code>Candidate</code> is a parameter setting competing in a race
+     * <p>
+     * Creation date: Oct 19, 2026 - 9:41:07 PM
+     * 
+     * @param <GG>
+     *            the type of global parameters
+     * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+     *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+     *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+     * @version 1.0
+     */
+    public static class Candidate<GG extends GlobalParameters> {
+        private final ExperimentParameterSetting<GG> mSetting;
+        private double[]                             mResponses;
+        private int                                  mEliminationBlock;
+
+        private Candidate(ExperimentParameterSetting<GG> setting) {
+            mSetting = setting;
+            init(0);
+        }
+
+        private void init(int blockCount) {
+            mResponses = new double[blockCount];
+            Arrays.fill(mResponses, Double.NaN);
+            mEliminationBlock = -1;
+        }
+
+        /**
+         * Returns the parameter setting of this candidate
+         * 
+         * @return the parameter setting of this candidate
+         */
+        public ExperimentParameterSetting<GG> getSetting() {
+            return mSetting;
+        }
+
+        /**
+         * Returns the response of this candidate on a block
+         * 
+         * @param block
+         *            the index of the block
+         * @return the response of this candidate on {@code  block}, or {@link Double#NaN} if it was not evaluated
+         */
+        public double getResponse(int block) {
+            return mResponses[block];
+        }
+
+        /**
+         * Returns the mean response of this candidate over the blocks on which it was evaluated
+         * 
+         * @return the mean response of this candidate
+         */
+        public double getMeanResponse() {
+            double sum = 0;
+            int count = 0;
+            for (double r : mResponses) {
+                if (!Double.isNaN(r)) {
+                    sum += r;
+                    count++;
+                }
+            }
+            return count > 0 ? sum / count : Double.NaN;
+        }
+
+        /**
+         * Returns {@code true} if this candidate was eliminated from the race
+         * 
+         * @return {@code true} if this candidate was eliminated from the race
+         */
+        public boolean isEliminated() {
+            return mEliminationBlock >= 0;
+        }
+
+        /**
+         * Returns the number of blocks processed when this candidate was eliminated
+         * 
+         * @return the number of blocks processed when this candidate was eliminated, or {@code  -1} if it is still in
+         *         the race
+         */
+        public int getEliminationBlock() {
+            return mEliminationBlock;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (mean:%.4f)", mSetting.getChangedValuesString(), getMeanResponse());
+        }
+    }
+}
@@ -7,6 +7,8 @@ import umontreal.iro.lecuyer.probdist.Distribution;
 import umontreal.iro.lecuyer.probdist.NormalDist;
 import umontreal.iro.lecuyer.probdist.UniformDist;
 import umontreal.iro.lecuyer.probdist.UniformIntDist;
+import umontreal.iro.lecuyer.rng.MRG32k3a;
+import umontreal.iro.lecuyer.rng.RandomStream;
 
 /**
  * <code>SSJUtilities</code>
@@ -39,4 +41,44 @@ public class SSJUtilities {
         }
     }
 
+    /**
+     * Returns a copy of the current state of a random stream
+     * <p>
+     * Only {@link MRG32k3a} streams are currently supported
+     * </p>
+     * 
+     * @param stream
+     *            the random stream
+     * @return a copy of the current state of {@code stream}, or {@code null} if the type of stream is not supported
+     * @see #setState(RandomStream, long[])
+     */
+    public static long[] getState(RandomStream stream) {
+        if (stream instanceof MRG32k3a)
+            return ((MRG32k3a) stream).getState();
+        else
+            return null;
+    }
+
+    /**
+     * Restore the state of a random stream, so that it generates the same sequence of numbers as the stream from which
+     * {@code state} was read.
+     * <p>
+     * The starting points of the stream and current substream are also set to {@code state}, calls to
+     * {@link RandomStream#resetStartStream()} or {@link RandomStream#resetNextSubstream()} will therefore not produce
+     * the same sequence as in the original stream
+     * </p>
+     * 
+     * @param stream
+     *            the random stream to be restored
+     * @param state
+     *            a state previously returned by {@link #getState(RandomStream)}, {@code null} is ignored
+     */
+    public static void setState(RandomStream stream, long[] state) {
+        if (state == null)
+            return;
+        if (!(stream instanceof MRG32k3a))
+            throw new IllegalArgumentException("Unsupported random stream: " + stream.getClass().getSimpleName());
+        ((MRG32k3a) stream).setSeed(state);
+    }
+
 }
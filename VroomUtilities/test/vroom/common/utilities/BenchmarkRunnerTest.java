@@ -0,0 +1,94 @@
+package vroom.common.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import vroom.common.utilities.BenchmarkRunner.IBenchmarkRun;
+import vroom.common.utilities.BenchmarkRunner.RunMeasures;
+
+public class BenchmarkRunnerTest {
+
+    private static class DummyRun implements IBenchmarkRun {
+        private final int           mId;
+        private final AtomicInteger mExecutions = new AtomicInteger();
+        private RunMeasures         mMeasures;
+
+        private DummyRun(int id) {
+            mId = id;
+        }
+
+        @Override
+        public void dispose() {
+        }
+
+        @Override
+        public int getRunId() {
+            return mId;
+        }
+
+        @Override
+        public double getExpectedDuration() {
+            return mId % 7;
+        }
+
+        @Override
+        public void execute() throws Exception {
+            mExecutions.incrementAndGet();
+            double[] work = new double[1000 * (1 + mId % 7)];
+            for (int i = 1; i < work.length; i++)
+                work[i] = Math.sqrt(work[i - 1] + i);
+            if (mId == 3)
+                throw new IllegalStateException("expected failure");
+        }
+
+        @Override
+        public void collectStats(StatCollector collector, RunMeasures measures, boolean failed) {
+            mMeasures = measures;
+        }
+    }
+
+    private static List<DummyRun> newRuns(int count) {
+        List<DummyRun> runs = new ArrayList<DummyRun>();
+        for (int i = 0; i < count; i++)
+            runs.add(new DummyRun(i));
+        return runs;
+    }
+
+    @Test
+    public void testRun() throws Exception {
+        List<DummyRun> runs = newRuns(50);
+        BenchmarkRunner runner = new BenchmarkRunner(4, "test");
+        runner.setCollector(new StatCollector("test", BenchmarkRunner.MEASURE_LABELS));
+
+        assertEquals(50, runner.run(runs));
+        for (DummyRun r : runs) {
+            assertEquals("run " + r.getRunId(), 1, r.mExecutions.get());
+            assertEquals(r.getRunId(), r.mMeasures.getRunId());
+            assertTrue(r.mMeasures.getWallTimeMS() >= 0);
+        }
+    }
+
+    @Test
+    public void testCheckpoint() throws Exception {
+        File checkpoint = File.createTempFile("bench", ".ckp");
+        checkpoint.delete();
+        checkpoint.deleteOnExit();
+
+        BenchmarkRunner runner = new BenchmarkRunner(2, "test");
+        runner.setCheckpointFile(checkpoint);
+        runner.run(newRuns(10));
+        assertEquals(10, BenchmarkRunner.readCheckpoint(checkpoint).size());
+
+        List<DummyRun> runs = newRuns(15);
+        assertEquals(5, runner.run(runs));
+        for (DummyRun r : runs)
+            assertEquals(r.getRunId() < 10 ? 0 : 1, r.mExecutions.get());
+    }
+}
@@ -0,0 +1,72 @@
+package vroom.common.utilities;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BitMatrixTest {
+
+    private static boolean[][] randomMatrix(Random rnd, int rows, int cols, BitMatrix bits) {
+        boolean[][] m = new boolean[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                m[i][j] = rnd.nextDouble() < 0.3;
+                bits.set(i, j, m[i][j]);
+            }
+        }
+        return m;
+    }
+
+    @Test
+    public void testRowOperations() {
+        Random rnd = new Random(0);
+        int[] dest = new int[200];
+        for (int cols : new int[] { 1, 63, 64, 65, 130, 200 }) {
+            int rows = 7;
+            BitMatrix a = new BitMatrix(rows, cols);
+            BitMatrix b = new BitMatrix(rows, cols);
+            boolean[][] ma = randomMatrix(rnd, rows, cols, a);
+            boolean[][] mb = randomMatrix(rnd, rows, cols, b);
+
+            BitMatrix t = a.transpose();
+            for (int i = 0; i < rows; i++) {
+                int count = 0;
+                for (int j = 0; j < cols; j++) {
+                    assertEquals(ma[i][j], a.get(i, j));
+                    assertEquals(ma[i][j], t.get(j, i));
+                    if (ma[i][j])
+                        count++;
+                }
+                assertEquals(count, a.cardinality(i));
+
+                // Set columns in increasing order
+                assertEquals(count, a.getRow(i, dest));
+                int j = a.nextSetColumn(i, 0);
+                for (int k = 0; k < count; k++) {
+                    assertEquals(dest[k], j);
+                    j = a.nextSetColumn(i, j + 1);
+                }
+                assertEquals(-1, j);
+
+                // Intersection with each row of the other matrix
+                for (int r = 0; r < rows; r++) {
+                    int n = a.and(i, b, r, dest);
+                    int k = 0;
+                    for (int c = 0; c < cols; c++) {
+                        if (ma[i][c] && mb[r][c])
+                            assertEquals(c, dest[k++]);
+                    }
+                    assertEquals(k, n);
+                }
+            }
+
+            // Clear entries
+            a.set(rows - 1, cols - 1, false);
+            a.set(0, 0, false);
+            assertEquals(false, a.get(rows - 1, cols - 1));
+            assertEquals(false, a.get(0, 0));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package vroom.common.utilities;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import vroom.common.utilities.LevenshteinDistance.EditType;
+
+public class EditScriptTest {
+
+    private static int[] randomSequence(Random rnd, int length, int alphabet) {
+        int[] seq = new int[length];
+        for (int i = 0; i < length; i++)
+            seq[i] = rnd.nextInt(alphabet);
+        return seq;
+    }
+
+    private static List<Integer> asList(int[] seq) {
+        List<Integer> list = new ArrayList<Integer>(seq.length);
+        for (int n : seq)
+            list.add(n);
+        return list;
+    }
+
+    /**
+     * Apply the edits of a script, from the end to the start of the reference sequence
+     */
+    private static List<Integer> apply(int[] ref, EditScript script) {
+        List<Integer> seq = asList(ref);
+        for (int k = 0; k < script.size(); k++) {
+            int i = script.getEditIndex(k);
+            EditType type = script.getType(k);
+            if (type == EditType.DEL)
+                seq.remove(i - 1);
+            else if (type == EditType.SUB)
+                seq.set(i - 1, script.getNewElement(k));
+            else
+                seq.add(i, script.getNewElement(k));
+        }
+        return seq;
+    }
+
+    @Test
+    public void testSmallSequences() {
+        Random rnd = new Random(0);
+        for (int r = 0; r < 500; r++) {
+            int[] ref = randomSequence(rnd, rnd.nextInt(30), 10);
+            int[] seq = randomSequence(rnd, rnd.nextInt(30), 10);
+            EditScript script = EditScript.getEditScript(ref, seq);
+            assertEquals(LevenshteinDistance.getEditSequence(asList(ref), asList(seq)).toString(), script
+                    .toEdits().toString());
+            assertEquals(asList(seq), apply(ref, script));
+        }
+    }
+
+    @Test
+    public void testLargeSequences() {
+        Random rnd = new Random(1);
+        for (int r = 0; r < 10; r++) {
+            int[] ref = randomSequence(rnd, 200 + rnd.nextInt(300), 50);
+            int[] seq = new int[ref.length + rnd.nextInt(100)];
+            for (int i = 0; i < seq.length; i++)
+                seq[i] = i < ref.length && rnd.nextDouble() < 0.7 ? ref[i] : rnd.nextInt(50);
+            EditScript script = EditScript.getEditScript(ref, seq);
+            assertEquals(LevenshteinDistance.getDistanceClassic(asList(ref), asList(seq), true)[0],
+                    script.getDistance());
+            assertEquals(asList(seq), apply(ref, script));
+        }
+    }
+}
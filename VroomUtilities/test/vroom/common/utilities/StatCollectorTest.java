@@ -0,0 +1,127 @@
+package vroom.common.utilities;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+
+import org.junit.Test;
+
+import vroom.common.utilities.StatCollector.BinaryReader;
+import vroom.common.utilities.StatCollector.Label;
+
+public class StatCollectorTest {
+
+    private static final Label<?>[] LABELS = { new Label<Integer>("thread", Integer.class),
+            new Label<Integer>("row", Integer.class), new Label<Double>("value", Double.class),
+            new Label<Boolean>("flag", Boolean.class), new Label<String>("name", String.class) };
+
+    @Test
+    public void testConcurrentCollect() throws Exception {
+        File file = File.createTempFile("stats", ".csv");
+        file.deleteOnExit();
+        final StatCollector collector = new StatCollector(file, false, false, "test", LABELS);
+
+        final int rows = 5000;
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int id = t;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int r = 0; r < rows; r++)
+                        if (r % 2 == 0)
+                            collector.collect(id, r, r / 2d, r % 3 == 0, "r" + r);
+                        else
+                            collector.row().add(id).add(r).add(r / 2d).add(r % 3 == 0)
+                                    .add("r" + r).commit();
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread t : threads)
+            t.join();
+        collector.close();
+
+        int[] next = new int[threads.length];
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        String line;
+        boolean header = false;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("thread")) {
+                header = true;
+                continue;
+            }
+            if (!header)
+                continue;
+            String[] values = line.split(StatCollector.sCVSSeparator);
+            int t = Integer.parseInt(values[0]);
+            // Rows of a thread are written in order
+            assertEquals(next[t]++, Integer.parseInt(values[1]));
+            assertEquals("r" + values[1], values[4]);
+        }
+        reader.close();
+        for (int n : next)
+            assertEquals(rows, n);
+    }
+
+    @Test
+    public void testAutoFlush() throws Exception {
+        File file = File.createTempFile("stats", ".csv");
+        file.deleteOnExit();
+        StatCollector collector = new StatCollector(file, true, false, "test", LABELS);
+        collector.collect(0, 1, 2.5, true, "a");
+
+        // The row is written before collect returns
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        String line, last = null;
+        while ((line = reader.readLine()) != null)
+            last = line;
+        reader.close();
+        assertTrue(last, last.endsWith(StatCollector.sCVSSeparator + "a"));
+        collector.close();
+    }
+
+    @Test
+    public void testKeepValues() {
+        StatCollector collector = new StatCollector("test", LABELS);
+        collector.collect(0, 1, 2.5, true, "a");
+        collector.collect(0, 2, null, false, null);
+        assertArrayEquals(new Object[] { 1, 2 }, collector.getValues(LABELS[1]));
+        assertArrayEquals(new Object[] { 2.5, null }, collector.getValues(LABELS[2]));
+    }
+
+    @Test
+    public void testBinary() throws Exception {
+        File file = File.createTempFile("stats", ".bin");
+        file.deleteOnExit();
+        StatCollector collector = new StatCollector(null, false, false, "test", LABELS);
+        collector.setBinaryFile(file);
+        int rows = 3000;
+        for (int r = 0; r < rows; r++)
+            collector.collect(0, r, r == 10 ? null : r * 1.5, r % 2 == 0, "r" + r);
+        collector.close();
+
+        BinaryReader reader = new BinaryReader(file);
+        assertEquals("test", reader.getComment());
+        assertEquals(LABELS.length, reader.getLabels().length);
+        int r = 0;
+        while (reader.next()) {
+            assertEquals(r, reader.getLong(1));
+            if (r == 10)
+                assertTrue(reader.isNull(2));
+            else
+                assertEquals(r * 1.5, reader.getDouble(2), 0);
+            assertEquals(r % 2 == 0, reader.getBoolean(3));
+            assertEquals("r" + r, reader.getString(4));
+            r++;
+        }
+        assertFalse(reader.next());
+        reader.close();
+        assertEquals(rows, r);
+    }
+}
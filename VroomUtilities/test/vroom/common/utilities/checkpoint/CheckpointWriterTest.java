@@ -0,0 +1,88 @@
+package vroom.common.utilities.checkpoint;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import umontreal.iro.lecuyer.rng.MRG32k3a;
+import vroom.common.utilities.optimization.SimpleStoppingCriterion;
+import vroom.common.utilities.ssj.SSJUtilities;
+
+public class CheckpointWriterTest {
+
+    @Test
+    public void testWriteRead() throws IOException {
+        File file = File.createTempFile("checkpoint", ".bin");
+        file.deleteOnExit();
+
+        CheckpointWriter writer = new CheckpointWriter(file);
+        for (int i = 0; i < 100; i++)
+            writer.submit(new int[] { i, i + 1 });
+        writer.close();
+
+        assertArrayEquals(new int[] { 99, 100 }, CheckpointWriter.read(file, int[].class));
+    }
+
+    @Test
+    public void testDiscard() throws IOException {
+        File file = File.createTempFile("checkpoint", ".bin");
+        file.deleteOnExit();
+
+        CheckpointWriter writer = new CheckpointWriter(file);
+        writer.submit(new int[] { 1 });
+        writer.flush();
+        assertTrue(file.exists());
+        writer.submit(new int[] { 2 });
+        assertTrue(writer.discard());
+        assertFalse(file.exists());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadWrongType() throws IOException {
+        File file = File.createTempFile("checkpoint", ".bin");
+        file.deleteOnExit();
+
+        CheckpointWriter writer = new CheckpointWriter(file);
+        writer.submit("checkpoint");
+        writer.close();
+
+        CheckpointWriter.read(file, int[].class);
+    }
+
+    @Test
+    public void testStreamState() {
+        MRG32k3a stream = new MRG32k3a();
+        for (int i = 0; i < 1000; i++)
+            stream.nextDouble();
+        long[] state = SSJUtilities.getState(stream);
+
+        MRG32k3a restored = new MRG32k3a();
+        SSJUtilities.setState(restored, state);
+        for (int i = 0; i < 1000; i++)
+            assertEquals(stream.nextDouble(), restored.nextDouble(), 0);
+    }
+
+    @Test
+    public void testStoppingCriterion() {
+        SimpleStoppingCriterion crit = new SimpleStoppingCriterion(100000, 1000);
+        crit.init();
+        for (int i = 0; i < 500; i++)
+            crit.update();
+        long[] checkpoint = crit.getCheckpoint();
+
+        SimpleStoppingCriterion restored = new SimpleStoppingCriterion(100000, 1000);
+        restored.init();
+        restored.restoreCheckpoint(checkpoint);
+        assertEquals(500, restored.getIterationCount());
+        for (int i = 0; i < 500; i++)
+            restored.update();
+        assertEquals(true, restored.isStopCriterionMet());
+    }
+}
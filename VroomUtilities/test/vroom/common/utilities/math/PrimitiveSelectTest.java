@@ -0,0 +1,114 @@
+package vroom.common.utilities.math;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrimitiveSelectTest {
+
+    Random mRnd;
+
+    @Before
+    public void setUp() {
+        mRnd = new Random(0);
+    }
+
+    private double[] randomValues(int n, int range) {
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++)
+            values[i] = mRnd.nextInt(range);
+        return values;
+    }
+
+    @Test
+    public void testSelect() {
+        for (int it = 0; it < 500; it++) {
+            int n = 1 + mRnd.nextInt(300);
+            double[] values = randomValues(n, 1 + mRnd.nextInt(50));
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            int k = mRnd.nextInt(n);
+            assertEquals(sorted[k], PrimitiveSelect.select(values, k), 0);
+            for (int i = 0; i < n; i++)
+                if (i < k)
+                    assertEquals(true, values[i] <= sorted[k]);
+                else if (i > k)
+                    assertEquals(true, values[i] >= sorted[k]);
+        }
+        // Degenerated input
+        double[] same = new double[10000];
+        assertEquals(0, PrimitiveSelect.select(same, 5000), 0);
+    }
+
+    @Test
+    public void testSelectAndSortWithIds() {
+        for (int it = 0; it < 500; it++) {
+            int n = 1 + mRnd.nextInt(300);
+            double[] keys = randomValues(n, 1 + mRnd.nextInt(50));
+            int[] ids = new int[n];
+            for (int i = 0; i < n; i++)
+                ids[i] = i;
+            double[] sortedKeys = keys.clone();
+            int[] sortedIds = ids.clone();
+            PrimitiveSelect.sort(sortedKeys, sortedIds, 0, n);
+            for (int i = 1; i < n; i++)
+                assertEquals(true, PrimitiveSelect.compare(sortedKeys[i - 1], sortedIds[i - 1], sortedKeys[i],
+                        sortedIds[i]) < 0);
+
+            int k = mRnd.nextInt(n);
+            int p = PrimitiveSelect.select(keys, ids, 0, n, k);
+            assertEquals(k, p);
+            assertEquals(sortedKeys[k], keys[p], 0);
+            assertEquals(sortedIds[k], ids[p]);
+        }
+    }
+
+    @Test
+    public void testTopKHeap() {
+        TopKHeap max = new TopKHeap(5, true);
+        TopKHeap min = new TopKHeap(5, false);
+        for (int it = 0; it < 200; it++) {
+            int n = mRnd.nextInt(50);
+            int k = 1 + mRnd.nextInt(8);
+            max.reset(k);
+            min.reset(k);
+            double[] values = randomValues(n, 20);
+            for (int i = 0; i < n; i++) {
+                max.offer(values[i], i);
+                min.offer(values[i], i);
+            }
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            int count = Math.min(k, n);
+
+            double[] keys = new double[count];
+            assertEquals(count, max.drainSorted(keys, null));
+            assertArrayEquals(Arrays.copyOfRange(sorted, n - count, n), keys, 0);
+            assertEquals(count, min.drainSorted(keys, null));
+            assertArrayEquals(Arrays.copyOf(sorted, count), keys, 0);
+            assertEquals(0, max.size());
+        }
+    }
+
+    @Test
+    public void testSelectionBuffer() {
+        SelectionBuffer buffer = new SelectionBuffer(1);
+        for (int i = 0; i < 100; i++)
+            buffer.add(100 - i, i);
+        assertEquals(100, buffer.size());
+        assertEquals(89, buffer.getId(buffer.select(10)));
+        buffer.removeSwap(10);
+        buffer.sort();
+        assertEquals(99, buffer.size());
+        assertEquals(99, buffer.getId(0));
+        assertEquals(90, buffer.getId(9));
+        assertEquals(88, buffer.getId(10));
+        buffer.clear();
+        assertEquals(0, buffer.size());
+    }
+}
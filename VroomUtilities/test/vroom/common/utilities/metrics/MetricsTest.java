@@ -0,0 +1,124 @@
+package vroom.common.utilities.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+public class MetricsTest {
+
+    @Test
+    public void testHistogramPercentiles() {
+        Histogram h = new Histogram("test");
+        Random rnd = new Random(0);
+        long[] values = new long[100000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) (1e6 * rnd.nextDouble() * rnd.nextDouble());
+            h.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(values.length, h.getCount());
+        assertEquals(values[values.length - 1], h.getMax());
+        for (double p : new double[] { 1, 10, 50, 90, 99, 99.9 }) {
+            long expected = values[(int) Math.ceil(p / 100 * values.length) - 1];
+            long actual = h.getValueAtPercentile(p);
+            assertTrue(p + ": " + actual + " < " + expected, actual >= expected);
+            assertTrue(p + ": " + actual + " > " + expected, actual <= expected * (1 + 1d / 32));
+        }
+    }
+
+    @Test
+    public void testHistogramBuckets() {
+        Histogram h = new Histogram("test", 3);
+        for (long v : new long[] { 0, 1, 7, 8, 9, 15, 16, 17, 1000, 123456789, Long.MAX_VALUE }) {
+            int index = h.index(v);
+            assertTrue(v + " > " + h.highestValue(index), v <= h.highestValue(index));
+            assertTrue(v + " <= " + h.highestValue(index - 1), index == 0 || v > h.highestValue(index - 1));
+        }
+    }
+
+    @Test
+    public void testConcurrentCounter() throws InterruptedException {
+        final Counter c = new Counter("test");
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 100000; i++)
+                        c.increment();
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread t : threads)
+            t.join();
+        assertEquals(800000, c.getCount());
+    }
+
+    @Test
+    public void testRegistry() throws Exception {
+        Metrics.counter("test.counter").add(3);
+        Metrics.histogram("test.histogram").record(42);
+        Gauge g = Metrics.register(new Gauge("test.gauge") {
+            @Override
+            public double getValue() {
+                return 7;
+            }
+        });
+
+        String json = Metrics.toJSON();
+        assertTrue(json, json.contains("\"test.counter\":{\"count\":3,"));
+        assertTrue(json, json.contains("\"test.gauge\":{\"value\":7.0}"));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("vroom:type=Histogram,name=" + ObjectName.quote("test.histogram"));
+        assertEquals(42L, server.getAttribute(name, "max"));
+
+        assertTrue(Metrics.remove(g));
+        assertFalse(Metrics.toJSON().contains("test.gauge"));
+    }
+
+    @Test
+    public void testQualifiedGauges() throws Exception {
+        int run1 = Metrics.newRunId(), run2 = Metrics.newRunId();
+        assertTrue(run1 != run2);
+
+        Gauge g1 = Metrics.register(new Gauge(Metrics.qualify("test.pool", "inst", run1)) {
+            @Override
+            public double getValue() {
+                return 1;
+            }
+        });
+        Gauge g2 = Metrics.register(new Gauge(Metrics.qualify("test.pool", "inst", run2)) {
+            @Override
+            public double getValue() {
+                return 2;
+            }
+        });
+
+        // Both runs are exposed, removing one does not affect the other
+        String json = Metrics.toJSON();
+        assertTrue(json, json.contains("\"test.pool[inst#" + run1 + "]\":{\"value\":1.0}"));
+        assertTrue(json, json.contains("\"test.pool[inst#" + run2 + "]\":{\"value\":2.0}"));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("vroom:type=Gauge,name=" + ObjectName.quote(g2.getName()));
+        assertEquals(2.0, server.getAttribute(name, "value"));
+
+        assertTrue(Metrics.remove(g1));
+        assertFalse(Metrics.remove(g1));
+        json = Metrics.toJSON();
+        assertFalse(json, json.contains("test.pool[inst#" + run1 + "]"));
+        assertTrue(json, json.contains("test.pool[inst#" + run2 + "]"));
+        assertTrue(Metrics.remove(g2));
+    }
+}
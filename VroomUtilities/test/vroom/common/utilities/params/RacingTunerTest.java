@@ -0,0 +1,94 @@
+package vroom.common.utilities.params;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import vroom.common.utilities.params.ParameterExperimentDesign.ExperimentParameterSetting;
+import vroom.common.utilities.params.ParameterKey.IntegerParameterKey;
+import vroom.common.utilities.params.RacingTuner.Candidate;
+
+public class RacingTunerTest {
+
+    public static class TestParameters extends GlobalParameters {
+        public static final IntegerParameterKey X = new IntegerParameterKey("X", 0);
+        public static final IntegerParameterKey Y = new IntegerParameterKey("Y", 0);
+    }
+
+    /**
+     * The response is {@code X+Y} perturbed by a noise smaller than 1
+     */
+    private static class DummyEvaluator implements IRaceEvaluator<TestParameters, Integer> {
+        private final double mNoise;
+
+        private DummyEvaluator(double noise) {
+            mNoise = noise;
+        }
+
+        @Override
+        public String getInstanceName(Integer block) {
+            return "block" + block;
+        }
+
+        @Override
+        public double evaluate(ExperimentParameterSetting<TestParameters> setting, Integer block) {
+            int x = setting.getParameters().get(TestParameters.X);
+            int y = setting.getParameters().get(TestParameters.Y);
+            return x + y + mNoise * new Random(block * 31 + x * 7 + y).nextDouble();
+        }
+    }
+
+    private static RacingTuner<TestParameters, Integer> newTuner(double noise) {
+        ParameterExperimentDesign<TestParameters> design = new ParameterExperimentDesign<TestParameters>(
+                new TestParameters());
+        design.addParamValueSet(TestParameters.X, 0, 2, 4, 6);
+        design.addParamValueSet(TestParameters.Y, 0, 1);
+        return new RacingTuner<TestParameters, Integer>(design, new DummyEvaluator(noise), 4);
+    }
+
+    private static List<Integer> blocks(int count) {
+        List<Integer> blocks = new ArrayList<Integer>(count);
+        for (int b = 0; b < count; b++)
+            blocks.add(b);
+        return blocks;
+    }
+
+    @Test
+    public void testStudentQuantile() {
+        assertEquals(12.706, RacingTuner.studentInverseF(1, 0.05), 1e-3);
+        assertEquals(4.303, RacingTuner.studentInverseF(2, 0.05), 1e-3);
+        assertEquals(2.571, RacingTuner.studentInverseF(5, 0.05), 1e-3);
+        assertEquals(2.048, RacingTuner.studentInverseF(28, 0.05), 1e-3);
+        assertEquals(2.626, RacingTuner.studentInverseF(100, 0.01), 1e-3);
+    }
+
+    @Test
+    public void testElimination() throws InterruptedException {
+        RacingTuner<TestParameters, Integer> tuner = newTuner(0.5);
+        List<Candidate<TestParameters>> survivors = tuner.race(blocks(20));
+
+        assertEquals(1, survivors.size());
+        assertEquals(0, (int) survivors.get(0).getSetting().getParameters().get(TestParameters.X));
+        assertEquals(0, (int) survivors.get(0).getSetting().getParameters().get(TestParameters.Y));
+        // All the candidates are eliminated after the first test
+        assertEquals(5, tuner.getBlockCount());
+        assertEquals(40, tuner.getEvaluationCount());
+    }
+
+    @Test
+    public void testBudget() throws InterruptedException {
+        RacingTuner<TestParameters, Integer> tuner = newTuner(10);
+        tuner.setMaxEvaluations(30);
+        List<Candidate<TestParameters>> survivors = tuner.race(blocks(20));
+
+        assertTrue(tuner.getEvaluationCount() <= 30);
+        assertTrue(survivors.size() > 1);
+        for (int i = 1; i < survivors.size(); i++)
+            assertTrue(!survivors.get(i).isEliminated());
+    }
+}
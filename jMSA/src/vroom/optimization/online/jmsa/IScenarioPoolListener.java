@@ -0,0 +1,43 @@
+package vroom.optimization.online.jmsa;
+
+/**
+ * <code>IScenarioPoolListener</code> is an interface for classes that need to be notified of the changes in a
+ * {@link ScenarioPool}, for instance to maintain statistics on the scenarios incrementally.
+ * <p>
+ * Creation date: Oct 19, 2026 - 8:41:05 PM
+ * 
+ * @param <S>
+ *            the type of scenario contained in the pool
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ * @see ScenarioPool#addListener(IScenarioPoolListener)
+ */
+public interface IScenarioPoolListener<S extends IScenario> {
+
+    /**
+     * Called when a scenario has been added to the pool
+     * 
+     * @param scenario
+     *            the added scenario
+     */
+    public void scenarioAdded(S scenario);
+
+    /**
+     * Called when a scenario has been removed from the pool
+     * 
+     * @param scenario
+     *            the removed scenario
+     */
+    public void scenarioRemoved(S scenario);
+
+    /**
+     * Called when a scenario of the pool has been modified, for instance after its optimization or its update
+     * following a decision
+     * 
+     * @param scenario
+     *            the modified scenario
+     */
+    public void scenarioUpdated(S scenario);
+}
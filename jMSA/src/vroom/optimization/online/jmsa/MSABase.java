@@ -28,6 +28,8 @@ import vroom.common.utilities.events.EventHandlerManager;
 import vroom.common.utilities.events.IEvent;
 import vroom.common.utilities.logging.LoggerHelper;
 import vroom.common.utilities.logging.Logging;
+import vroom.common.utilities.metrics.Gauge;
+import vroom.common.utilities.metrics.Metrics;
 import vroom.common.utilities.optimization.IStoppingCriterion;
 import vroom.common.utilities.params.ParameterKey;
 import vroom.common.utilities.ssj.IRandomSource;
@@ -452,7 +454,7 @@ public abstract class MSABase<S extends IScenario, I extends IInstance> extends
     /**
      * The event being currently handled
      */
-    private MSAEvent                                                   mCurrentEvent;
+    private volatile MSAEvent                                          mCurrentEvent;
 
     /**
      * Returns the event being currently handled
@@ -473,6 +475,18 @@ public abstract class MSABase<S extends IScenario, I extends IInstance> extends
         mCurrentEvent = currentEvent;
     }
 
+    /** The thread in which the main procedure is executed */
+    private volatile Thread                                            mProcedureThread;
+
+    /**
+     * Returns the thread in which the main procedure is executed
+     * 
+     * @return the thread in which the main procedure is executed, or {@code null} if the procedure was not started
+     */
+    public Thread getProcedureThread() {
+        return mProcedureThread;
+    }
+
     /** <code>true</code> if the scenario pool has been initialized *. */
     private boolean                       mInitialized;
     /** The instance on which thiw MSA is based. */
@@ -936,6 +950,32 @@ public abstract class MSABase<S extends IScenario, I extends IInstance> extends
         return !mEventQueue.isEmpty();
     }
 
+    /**
+     * Check if this procedure is quiescent, i.e. if it is running, initialized, and neither handling nor waiting to
+     * handle a {@linkplain MSAEvent#isPreemptive() preemptive} event.
+     * <p>
+     * A quiescent procedure is only performing background work (scenario generation and optimization) and will not
+     * react to the current state of the system until a new event is raised.
+     * </p>
+     * 
+     * @return <code>true</code> if this procedure is quiescent
+     */
+    public boolean isQuiescent() {
+        if (!isRunning() || !isInitialized())
+            return false;
+        // The current event is updated while holding the queue monitor
+        synchronized (mEventQueue) {
+            MSAEvent current = getCurrentEvent();
+            if (current != null && current.isPreemptive())
+                return false;
+            for (IEvent<?> e : mEventQueue.getPendingEvents()) {
+                if (e.isPreemptive())
+                    return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Association of a callback to a specific event.
      * 
@@ -1101,12 +1141,34 @@ public abstract class MSABase<S extends IScenario, I extends IInstance> extends
         setRunning(true);
         resume();
 
+        mProcedureThread = Thread.currentThread();
         mTimer.start();
         MSALogging.getProcedureLogger().info("MSA procedure #%s started in thread %s [%s] ",
                 this.mMSAId, Thread.currentThread().getName(), Thread.currentThread().getId());
         callbacks(MSA_START);
 
-        msaProcedure();
+        // Gauges are qualified with the instance and run as several MSA procedures can run concurrently
+        int runId = Metrics.newRunId();
+        Gauge eventQueue = Metrics.register(new Gauge(Metrics.qualify("msa.event_queue", getInstance().getName(),
+                runId)) {
+            @Override
+            public double getValue() {
+                return mEventQueue.getPendingEventsCount();
+            }
+        });
+        Gauge poolSize = Metrics.register(new Gauge(Metrics.qualify("msa.pool_size", getInstance().getName(), runId)) {
+            @Override
+            public double getValue() {
+                return mPool.size();
+            }
+        });
+
+        try {
+            msaProcedure();
+        } finally {
+            Metrics.remove(eventQueue);
+            Metrics.remove(poolSize);
+        }
 
         setStatus(ProcedureStatus.TERMINATED);
 
@@ -280,7 +280,12 @@ public class MSASequential<S extends IScenario, I extends IInstance> extends MSA
             } else {
                 // Logging.getProcedureLogger().lowDebug(
                 // "A event is available, returning it");
-                return mEventQueue.pollNextEvent();
+                // Poll and set the current event atomically (see MSABase#isQuiescent())
+                synchronized (mEventQueue) {
+                    MSAEvent event = mEventQueue.pollNextEvent();
+                    setCurrentEvent(event);
+                    return event;
+                }
             }
         } catch (InterruptedException ie) {
             mPausedCondition.signal(); // propagate to non-interrupted
@@ -4,17 +4,22 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import vroom.optimization.online.jmsa.utils.MSALogging;
 
 public class ScenarioPool<S extends IScenario> implements Iterable<S> {
 
     /** The set of scenarios contained in this pool */
-    private final Set<S> mScenarios;
+    private final Set<S>                                 mScenarios;
 
     /** The maximum number of scenarios in this pool **/
-    private int          mCapacity;
+    private int                                          mCapacity;
+
+    /** The listeners notified of the changes in this pool */
+    private final List<IScenarioPoolListener<? super S>> mListeners;
 
     /**
      * Getter for capacity : The maximum number of scenarios in this pool
@@ -52,9 +57,58 @@ public class ScenarioPool<S extends IScenario> implements Iterable<S> {
     public ScenarioPool(int maxSize) {
         super();
         this.mScenarios = Collections.synchronizedSet(new HashSet<S>(maxSize / 2));
+        this.mListeners = new CopyOnWriteArrayList<IScenarioPoolListener<? super S>>();
         setCapacity(maxSize);
     }
 
+    /**
+     * Adds a listener to this pool, the listener is immediately notified of the scenarios already contained in the pool
+     * 
+     * @param listener
+     *            the listener to be added
+     */
+    public synchronized void addListener(IScenarioPoolListener<? super S> listener) {
+        this.mListeners.add(listener);
+        for (S s : getScenarios()) {
+            listener.scenarioAdded(s);
+        }
+    }
+
+    /**
+     * Removes a listener from this pool
+     * 
+     * @param listener
+     *            the listener to be removed
+     * @return <code>true</code> if the listener was registered in this pool
+     */
+    public boolean removeListener(IScenarioPoolListener<? super S> listener) {
+        return this.mListeners.remove(listener);
+    }
+
+    /**
+     * Notify the listeners of this pool that a scenario has been modified.
+     * <p>
+     * This method should be called by components that modify a scenario of the pool
+     * </p>
+     * 
+     * @param scenario
+     *            the scenario that has been modified
+     */
+    @SuppressWarnings("unchecked")
+    public void scenarioUpdated(IScenario scenario) {
+        if (!this.mListeners.isEmpty() && this.mScenarios.contains(scenario)) {
+            for (IScenarioPoolListener<? super S> l : this.mListeners) {
+                l.scenarioUpdated((S) scenario);
+            }
+        }
+    }
+
+    private void fireScenarioRemoved(S scenario) {
+        for (IScenarioPoolListener<? super S> l : this.mListeners) {
+            l.scenarioRemoved(scenario);
+        }
+    }
+
     /**
      * Current size of the pool
      * 
@@ -81,12 +135,39 @@ public class ScenarioPool<S extends IScenario> implements Iterable<S> {
      * @return <code>true</code> if the scenario was successfully added
      */
     public synchronized boolean addScenario(S scenario) {
-        return this.mScenarios.add(scenario);
+        boolean b = this.mScenarios.add(scenario);
+        if (b) {
+            for (IScenarioPoolListener<? super S> l : this.mListeners) {
+                l.scenarioAdded(scenario);
+            }
+        }
+        return b;
     }
 
     @Override
     public Iterator<S> iterator() {
-        return this.mScenarios.iterator();
+        final Iterator<S> it = this.mScenarios.iterator();
+        // Wrap the iterator to notify listeners of removals
+        return new Iterator<S>() {
+            private S mCurrent;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public S next() {
+                mCurrent = it.next();
+                return mCurrent;
+            }
+
+            @Override
+            public void remove() {
+                it.remove();
+                fireScenarioRemoved(mCurrent);
+            }
+        };
     }
 
     /**
@@ -110,7 +191,15 @@ public class ScenarioPool<S extends IScenario> implements Iterable<S> {
                 "ScenarioPool.removeScenarios: Removing the following %s scenarios out of %s: %s",
                 scenarios.size(), this.size(), scenarios);
 
-        boolean b = this.mScenarios.removeAll(scenarios);
+        boolean b = false;
+        for (IScenario s : scenarios) {
+            if (this.mScenarios.remove(s)) {
+                b = true;
+                @SuppressWarnings("unchecked")
+                S removed = (S) s;
+                fireScenarioRemoved(removed);
+            }
+        }
 
         for (IScenario s : scenarios) {
             s.dereference();
@@ -145,6 +234,10 @@ public class ScenarioPool<S extends IScenario> implements Iterable<S> {
      * Remove all scenarios
      */
     public void clear() {
-        mScenarios.clear();
+        Set<S> scenarios = getScenarios();
+        mScenarios.removeAll(scenarios);
+        for (S s : scenarios) {
+            fireScenarioRemoved(s);
+        }
     }
 }
\ No newline at end of file
@@ -3,13 +3,12 @@
  */
 package vroom.optimization.online.jmsa.components;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import vroom.optimization.online.jmsa.DistinguishedSolutionBase;
 import vroom.optimization.online.jmsa.IActualRequest;
 import vroom.optimization.online.jmsa.IDistinguishedSolution;
-import vroom.optimization.online.jmsa.IScenario;
 import vroom.optimization.online.jmsa.utils.MSALogging;
 
 /**
@@ -23,6 +22,26 @@ import vroom.optimization.online.jmsa.utils.MSALogging;
  */
 public class ConsensusSolutionBuilder extends SolutionBuilderBase {
 
+    /** The statistics on the first request of the scenarios, lazily registered in the scenario pool */
+    private DecisionStatistics mStatistics;
+
+    /**
+     * Returns the statistics on the first request of the scenarios of the pool.
+     * <p>
+     * The statistics are registered as a listener of the scenario pool on the first call and are then maintained
+     * incrementally
+     * </p>
+     * 
+     * @return the statistics on the first request of the scenarios of the pool
+     */
+    protected synchronized DecisionStatistics getStatistics() {
+        if (mStatistics == null) {
+            mStatistics = new DecisionStatistics(1);
+            getComponentManager().getParentMSAProxy().getScenarioPool().addListener(mStatistics);
+        }
+        return mStatistics;
+    }
+
     public ConsensusSolutionBuilder(ComponentManager<?, ?> componentManager) {
         super(componentManager);
     }
@@ -36,27 +55,21 @@ public class ConsensusSolutionBuilder extends SolutionBuilderBase {
     @Override
     public IDistinguishedSolution buildDistinguishedPlan(ISolutionBuilderParam param) {
 
-        int nextRequestId = -1;
-        double eval = 0, bestEval = -1;
-        Map<Integer, Double> evaluations = new HashMap<Integer, Double>();
-        for (IScenario s : getComponentManager().getParentMSAProxy().getScenarioPool()) {
-            s.acquireLock();
-
-            IActualRequest req = s.getFirstActualRequest(0);
-            if (req != null && isRequestFeasible(req)) {
-                int reqId = req.getID();
-                eval = updateEvaluation(evaluations, reqId);
-                if (eval >= bestEval) {
+        IActualRequest nextRequest = null;
+        double bestEval = -1;
+        // Counts are maintained incrementally by the statistics, ties are broken by lowest request id
+        for (Entry<Integer, Integer> e : getStatistics().getCounts(0).entrySet()) {
+            int reqId = e.getKey();
+            double eval = e.getValue();
+            if (eval > bestEval || eval == bestEval && nextRequest != null && reqId < nextRequest.getID()) {
+                IActualRequest req = getComponentManager().getParentMSAProxy().getInstance().getNodeVisit(reqId);
+                if (req != null && isRequestFeasible(req)) {
                     bestEval = eval;
-                    nextRequestId = reqId;
+                    nextRequest = req;
                 }
             }
-            s.releaseLock();
         }
 
-        IActualRequest nextRequest = getComponentManager().getParentMSAProxy().getInstance()
-                .getNodeVisit(nextRequestId);
-
         MSALogging
                 .getComponentsLogger()
                 .info("ConsensusSolutionBuilder.buildDistinguishedPlan: best request found : %s - score:%s",
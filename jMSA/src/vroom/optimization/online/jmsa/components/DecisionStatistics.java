@@ -0,0 +1,147 @@
+package vroom.optimization.online.jmsa.components;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import vroom.optimization.online.jmsa.IActualRequest;
+import vroom.optimization.online.jmsa.IScenario;
+import vroom.optimization.online.jmsa.IScenarioPoolListener;
+
+/**
+ * <code>DecisionStatistics</code> maintains, for each resource, the number of scenarios of a pool in which each request
+ * is the {@linkplain IScenario#getFirstActualRequest(int) first actual request}.
+ * <p>
+ * The statistics are updated incrementally each time a scenario is added, updated or removed from the pool, so that a
+ * decision based on the consensus of the scenarios only requires a lookup over the requests.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 8:44:52 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class DecisionStatistics implements IScenarioPoolListener<IScenario> {
+
+    /** Value used when a resource has no first actual request */
+    private static final int                           NONE = Integer.MIN_VALUE;
+
+    /** The number of resources for which statistics are maintained */
+    private final int                                  mResourceCount;
+
+    /** The id of the first actual request of each resource, for each scenario */
+    private final Map<IScenario, int[]>                mFirstRequests;
+
+    /** For each resource, the number of scenarios in which a request is the first actual request */
+    private final ArrayList<HashMap<Integer, Integer>> mCounts;
+
+    /**
+     * Creates a new <code>DecisionStatistics</code>
+     * 
+     * @param resourceCount
+     *            the number of resources for which statistics will be maintained
+     */
+    public DecisionStatistics(int resourceCount) {
+        mResourceCount = resourceCount;
+        mFirstRequests = new HashMap<IScenario, int[]>();
+        mCounts = new ArrayList<HashMap<Integer, Integer>>(resourceCount);
+        for (int r = 0; r < resourceCount; r++)
+            mCounts.add(new HashMap<Integer, Integer>());
+    }
+
+    @Override
+    public void scenarioAdded(IScenario scenario) {
+        scenarioUpdated(scenario);
+    }
+
+    @Override
+    public void scenarioRemoved(IScenario scenario) {
+        synchronized (this) {
+            int[] old = mFirstRequests.remove(scenario);
+            if (old != null)
+                count(old, -1);
+        }
+    }
+
+    @Override
+    public void scenarioUpdated(IScenario scenario) {
+        // Read the scenario outside of the synchronized block to avoid holding both locks
+        int[] firsts = new int[mResourceCount];
+        scenario.acquireLock();
+        try {
+            for (int r = 0; r < mResourceCount; r++) {
+                IActualRequest req = r < scenario.getResourceCount() ? scenario.getFirstActualRequest(r) : null;
+                firsts[r] = req != null ? req.getID() : NONE;
+            }
+        } finally {
+            scenario.releaseLock();
+        }
+
+        synchronized (this) {
+            int[] old = mFirstRequests.put(scenario, firsts);
+            if (old != null)
+                count(old, -1);
+            count(firsts, 1);
+        }
+    }
+
+    /**
+     * Update the counts of the first requests of a scenario
+     */
+    private void count(int[] firsts, int delta) {
+        for (int r = 0; r < mResourceCount; r++) {
+            if (firsts[r] == NONE)
+                continue;
+            HashMap<Integer, Integer> counts = mCounts.get(r);
+            Integer c = counts.get(firsts[r]);
+            int count = (c != null ? c : 0) + delta;
+            if (count == 0)
+                counts.remove(firsts[r]);
+            else
+                counts.put(firsts[r], count);
+        }
+    }
+
+    /**
+     * Returns the number of scenarios in which a request is the first actual request of a resource
+     * 
+     * @param resource
+     *            the considered resource
+     * @param requestId
+     *            the id of the considered request
+     * @return the number of scenarios in which request {@code requestId} is the first actual request of
+     *         {@code resource}
+     */
+    public synchronized int getCount(int resource, int requestId) {
+        Integer c = mCounts.get(resource).get(requestId);
+        return c != null ? c : 0;
+    }
+
+    /**
+     * Returns the number of scenarios in which each request is the first actual request of a resource
+     * 
+     * @param resource
+     *            the considered resource
+     * @return a map containing for each request id the number of scenarios in which it is the first actual request of
+     *         {@code resource}, requests that do not appear in first position are not included
+     */
+    public synchronized Map<Integer, Integer> getCounts(int resource) {
+        return new HashMap<Integer, Integer>(mCounts.get(resource));
+    }
+
+    /**
+     * Returns the number of scenarios for which statistics are maintained
+     * 
+     * @return the number of scenarios for which statistics are maintained
+     */
+    public synchronized int getScenarioCount() {
+        return mFirstRequests.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("scenarios:%s counts:%s", mFirstRequests.size(), mCounts);
+    }
+}
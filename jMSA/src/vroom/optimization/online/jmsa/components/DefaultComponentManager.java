@@ -161,6 +161,8 @@ public class DefaultComponentManager<S extends IScenario, I extends IInstance> e
             if (!getScenarioUpdater().enforceDecision(s, committedRequest, resourceId)) {
                 removedScenarios.add(s);
                 it.remove();
+            } else {
+                getParentMSAProxy().getScenarioPool().scenarioUpdated(s);
             }
         }
 
@@ -252,6 +254,8 @@ public class DefaultComponentManager<S extends IScenario, I extends IInstance> e
             if (!getScenarioUpdater().insertRequests(s, requests)) {
                 // The scenario cannot accommodate all requests
                 removedScenarios.add(s);
+            } else {
+                mMSAProxy.getScenarioPool().scenarioUpdated(s);
             }
         }
 
@@ -279,6 +283,8 @@ public class DefaultComponentManager<S extends IScenario, I extends IInstance> e
             if (!getScenarioUpdater().startOfServiceUpdate(s, resourceId, request)) {
                 // The scenario is not coherent with the current state
                 removedScenarios.add(s);
+            } else {
+                mMSAProxy.getScenarioPool().scenarioUpdated(s);
             }
         }
 
@@ -306,6 +312,8 @@ public class DefaultComponentManager<S extends IScenario, I extends IInstance> e
             if (!getScenarioUpdater().endOfServiceUpdate(s, resourceId, servedRequest)) {
                 // The scenario is not coherent with the current state
                 removedScenarios.add(s);
+            } else {
+                mMSAProxy.getScenarioPool().scenarioUpdated(s);
             }
         }
 
@@ -332,6 +340,8 @@ public class DefaultComponentManager<S extends IScenario, I extends IInstance> e
             if (!getScenarioUpdater().startServicingUpdate(s, resourceId)) {
                 // The scenario is not coherent with the current state
                 removedScenarios.add(s);
+            } else {
+                mMSAProxy.getScenarioPool().scenarioUpdated(s);
             }
         }
 
@@ -358,6 +368,8 @@ public class DefaultComponentManager<S extends IScenario, I extends IInstance> e
             if (!getScenarioUpdater().stopServicingUpdate(s, resourceId)) {
                 // The scenario is not coherent with the current state
                 removedScenarios.add(s);
+            } else {
+                mMSAProxy.getScenarioPool().scenarioUpdated(s);
             }
         }
 
@@ -432,7 +444,9 @@ public class DefaultComponentManager<S extends IScenario, I extends IInstance> e
      */
     @Override
     public boolean optimize(S scenario, ScenarioOptimizerParam params) {
-        return getScenarioOptimizer().optimize(scenario, params);
+        boolean b = getScenarioOptimizer().optimize(scenario, params);
+        getParentMSAProxy().getScenarioPool().scenarioUpdated(scenario);
+        return b;
     }
 
     /**
@@ -478,6 +492,7 @@ public class DefaultComponentManager<S extends IScenario, I extends IInstance> e
                 ScenarioOptimizerBase<S> opt = takeOptimizer();
                 opt.optimize(mScenario, mParams);
                 releaseOptimizer(opt);
+                getParentMSAProxy().getScenarioPool().scenarioUpdated(mScenario);
             }
         }
     }
@@ -0,0 +1,110 @@
+package vroom.optimization.online.jmsa.components;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import vroom.optimization.online.jmsa.IScenario;
+import vroom.optimization.online.jmsa.IScenarioPoolListener;
+
+/**
+ * <code>ScenarioCache</code> associates a value computed from a scenario of a pool with this scenario, for instance the
+ * evaluations of the candidate requests when building a decision.
+ * <p>
+ * The value of a scenario is invalidated when the scenario is updated or removed from the pool. Values that also depend
+ * on the state of the instance can be associated with a version of this state, all the values are invalidated when the
+ * version {@linkplain #setVersion(long) changes}.
+ * </p>
+ * <p>
+ * Creation date: Oct 19, 2026 - 06:04:27 PM
+ * 
+ * @param <S>
+ *            the type of scenario
+ * @param <V>
+ *            the type of the cached values
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class ScenarioCache<S extends IScenario, V> implements IScenarioPoolListener<S> {
+
+    /** The cached values */
+    private final Map<S, V> mValues;
+
+    /** The version of the state of the instance for which the values were computed */
+    private long            mVersion;
+
+    /**
+     * Creates a new <code>ScenarioCache</code>
+     */
+    public ScenarioCache() {
+        mValues = new HashMap<S, V>();
+        mVersion = -1;
+    }
+
+    /**
+     * Sets the version of the state of the instance, all the cached values are invalidated if it differs from the
+     * previous version
+     * 
+     * @param version
+     *            the current version of the state of the instance
+     */
+    public synchronized void setVersion(long version) {
+        if (version != mVersion) {
+            mValues.clear();
+            mVersion = version;
+        }
+    }
+
+    /**
+     * Returns the value cached for a scenario
+     * 
+     * @param scenario
+     *            the considered scenario
+     * @return the value cached for {@code scenario}, or <code>null</code> if there is none
+     */
+    public synchronized V get(S scenario) {
+        return mValues.get(scenario);
+    }
+
+    /**
+     * Associates a value with a scenario
+     * 
+     * @param scenario
+     *            the considered scenario
+     * @param value
+     *            the value computed from {@code scenario}
+     */
+    public synchronized void put(S scenario, V value) {
+        mValues.put(scenario, value);
+    }
+
+    /**
+     * Returns the number of scenarios for which a value is cached
+     * 
+     * @return the number of scenarios for which a value is cached
+     */
+    public synchronized int size() {
+        return mValues.size();
+    }
+
+    @Override
+    public void scenarioAdded(S scenario) {
+        // Nothing to do, values are computed on demand
+    }
+
+    @Override
+    public synchronized void scenarioRemoved(S scenario) {
+        mValues.remove(scenario);
+    }
+
+    @Override
+    public synchronized void scenarioUpdated(S scenario) {
+        mValues.remove(scenario);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("v%s scenarios:%s", mVersion, mValues.size());
+    }
+}
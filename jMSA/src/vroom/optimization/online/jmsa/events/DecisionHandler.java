@@ -2,6 +2,8 @@ package vroom.optimization.online.jmsa.events;
 
 import vroom.common.utilities.events.EventHandlingException;
 import vroom.common.utilities.events.IEventHandler;
+import vroom.common.utilities.metrics.Histogram;
+import vroom.common.utilities.metrics.Metrics;
 import vroom.optimization.online.jmsa.IDistinguishedSolution;
 import vroom.optimization.online.jmsa.IInstance;
 import vroom.optimization.online.jmsa.IScenario;
@@ -20,6 +22,9 @@ import vroom.optimization.online.jmsa.utils.MSALogging;
 public class DecisionHandler<S extends IScenario, I extends IInstance> extends
         MSAEventHandler<DecisionEvent, S, I> {
 
+    /** The time spent building the distinguished solutions, in microseconds */
+    private static final Histogram sDecisionTime = Metrics.histogram("msa.decision_us");
+
     public DecisionHandler(MSAProxy<S, I> parentMSA) {
         super(parentMSA);
     }
@@ -32,8 +37,10 @@ public class DecisionHandler<S extends IScenario, I extends IInstance> extends
     @Override
     public boolean handleEvent(DecisionEvent event) throws EventHandlingException {
 
+        long start = System.nanoTime();
         IDistinguishedSolution sol = getParentMSAProxy().getComponentManager()
                 .buildDistinguishedPlan(null);
+        sDecisionTime.record((System.nanoTime() - start) / 1000);
 
         MSALogging.getEventsLogger().info(
                 "DecisionHandler.handleEvent: Distinguished solution build (%s)", sol);
@@ -4,6 +4,8 @@ import java.util.Arrays;
 
 import vroom.common.utilities.events.EventComparator;
 import vroom.common.utilities.events.EventQueue;
+import vroom.common.utilities.metrics.Counter;
+import vroom.common.utilities.metrics.Metrics;
 import vroom.optimization.online.jmsa.utils.MSALogging;
 
 /**
@@ -17,6 +19,9 @@ import vroom.optimization.online.jmsa.utils.MSALogging;
  */
 public class MSAEventQueue extends EventQueue<MSAEvent> {
 
+    /** The number of events pushed to the MSA event queues */
+    private static final Counter sPushedEvents = Metrics.counter("msa.events");
+
     public MSAEventQueue() {
         super(new EventComparator());
     }
@@ -39,6 +44,7 @@ public class MSAEventQueue extends EventQueue<MSAEvent> {
             b = super.pushEvent(event);
 
             if (b) {
+                sPushedEvents.increment();
                 if (!(event instanceof GenerateEvent) && !(event instanceof OptimizeEvent)) {
                     MSALogging.getEventsLogger().debug(
                         "MSAEventQueue.pushEvent: Event added to the queue (event:%s queue:%s)", event,
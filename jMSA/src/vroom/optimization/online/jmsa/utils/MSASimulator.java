@@ -1,5 +1,7 @@
 package vroom.optimization.online.jmsa.utils;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
@@ -23,6 +25,17 @@ import vroom.optimization.online.jmsa.events.MSAEvent;
  * The class <code>MSASimulator</code> is used to simulate a dynamic optimization problem. It uses an event queue and
  * sends scheduled events to a MSA procedure, and can be used to store the current state of all resources.
  * <p>
+ * By default the simulation time is derived from the wall clock ({@code simTime=wallTime*speed}). In
+ * {@linkplain #isVirtualTime() virtual time} mode the simulation clock is only advanced by events: the simulator jumps
+ * to the next scheduled event as soon as the MSA procedure is {@linkplain MSABase#isQuiescent() quiescent} and the CPU
+ * budget granted for background optimization is exhausted. With a zero CPU budget the simulation is purely
+ * event-driven and reproducible for a given seed.
+ * </p>
+ * <p>
+ * Virtual time requires the MSA to raise its events synchronously (e.g. with
+ * {@link vroom.optimization.online.jmsa.events.MSAEventFactoryST}).
+ * </p>
+ * <p>
  * Creation date: Feb 9, 2012 - 5:07:39 PM
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
@@ -33,7 +46,13 @@ import vroom.optimization.online.jmsa.events.MSAEvent;
 public class MSASimulator implements Runnable, ILockable {
 
     /** The wall time tolerance ({@value} s) */
-    public static final double WALL_TIME_TOLERANCE = 1d;
+    public static final double WALL_TIME_TOLERANCE    = 1d;
+
+    /** The polling period used in virtual time mode ({@value} ms) */
+    public static final long   VIRTUAL_TIME_POLL_MS   = 1;
+
+    /** The polling period used in wall time mode ({@value} ms) */
+    public static final long   WALL_TIME_POLL_MS      = 50;
 
     /**
      * The enumeration <code>ResourceState</code> describes the different states in which a resource can be.
@@ -68,6 +87,17 @@ public class MSASimulator implements Runnable, ILockable {
     private final Stopwatch                             mWallTimer;
     private final double                                mSpeed;
 
+    /** {@code true} if the simulation clock is virtual */
+    private final boolean                               mVirtualTime;
+    /** The maximum CPU time (in s) granted to the MSA between two events in virtual time mode */
+    private final double                                mMaxCpuBudget;
+    /** The current simulation time in virtual time mode */
+    private volatile double                             mVirtualClock;
+    /** The CPU time (in ns) of the MSA thread when the last event was pushed */
+    private long                                        mLastEventCpuTime;
+    /** A sequence number used to break ties between simultaneous events */
+    private long                                        mEventSeq;
+
     private boolean                                     mRunning;
     private boolean                                     mPaused;
 
@@ -91,6 +121,16 @@ public class MSASimulator implements Runnable, ILockable {
         return mRunning;
     }
 
+    /**
+     * Returns {@code true} if this simulator uses a virtual clock, {@code false} if the simulation time is derived from
+     * the wall clock
+     * 
+     * @return {@code true} if this simulator uses a virtual clock
+     */
+    public boolean isVirtualTime() {
+        return mVirtualTime;
+    }
+
     /**
      * Creates a new <code>MSASimulator</code>
      * 
@@ -102,9 +142,33 @@ public class MSASimulator implements Runnable, ILockable {
      *            the speed of the simulation ({@code  simTime=clockTime*speed} )
      */
     public MSASimulator(MSABase<?, ?> msa, int expectedEventCount, double speed) {
+        this(msa, expectedEventCount, speed, false, 0);
+    }
+
+    /**
+     * Creates a new <code>MSASimulator</code>
+     * 
+     * @param msa
+     *            the msa procedure used in this simulation
+     * @param expectedEventCount
+     *            the expected number of events
+     * @param speed
+     *            the speed of the simulation ({@code  simTime=clockTime*speed} )
+     * @param virtualTime
+     *            {@code true} if the simulation clock should be advanced directly from one event to the next
+     * @param maxCpuBudget
+     *            the maximum CPU time (in s) granted to the MSA for background optimization between two events in
+     *            virtual time mode, the actual budget is the wall time that would have elapsed between the two events
+     *            (capped by {@code maxCpuBudget}), use {@code 0} for a purely event-driven simulation
+     */
+    public MSASimulator(MSABase<?, ?> msa, int expectedEventCount, double speed,
+            boolean virtualTime, double maxCpuBudget) {
         mMSA = msa;
 
         mSpeed = speed;
+        mVirtualTime = virtualTime;
+        mMaxCpuBudget = maxCpuBudget;
+        mVirtualClock = 0;
         mWallTimer = new Stopwatch();
         mRunning = false;
 
@@ -154,6 +218,7 @@ public class MSASimulator implements Runnable, ILockable {
                     MSALogging.getSimulationLogger().info(
                             "MSASimulator.run: Current time:%.1f - Raising event %s",
                             simulationTime(), e);
+                    mLastEventCpuTime = getMSACpuTime();
                     pushEventToMSA(e);
                     mExecutedEvents.add(e);
                     releaseLock();
@@ -179,7 +244,9 @@ public class MSASimulator implements Runnable, ILockable {
         if (isRunning())
             throw new IllegalStateException("Already started");
         mWallTimer.start();
-        mWallTimer.pause();
+        // In virtual time the wall timer only measures the elapsed time
+        if (!isVirtualTime())
+            mWallTimer.pause();
         mRunning = true;
         mPaused = true;
         MSALogging.getSimulationLogger().info(
@@ -205,7 +272,8 @@ public class MSASimulator implements Runnable, ILockable {
     public void pause() {
         checkLock();
         if (isRunning() && !mPaused) {
-            mWallTimer.pause();
+            if (!isVirtualTime())
+                mWallTimer.pause();
             mPaused = true;
             MSALogging.getSimulationLogger().info(
                     "MSASimulator.run: Current time:%.1f - Simulator paused", simulationTime());
@@ -218,7 +286,8 @@ public class MSASimulator implements Runnable, ILockable {
     public void resume() {
         checkLock();
         if (isRunning() && mPaused) {
-            mWallTimer.resume();
+            if (!isVirtualTime())
+                mWallTimer.resume();
             mPaused = false;
             MSALogging.getSimulationLogger().info(
                     "MSASimulator.run: Current time:%.1f - Simulator resumed", simulationTime());
@@ -239,6 +308,8 @@ public class MSASimulator implements Runnable, ILockable {
                     String.format(
                             "MSASimulator.adjustSimulationTime: the given time is before the last event (time:%.3f last:%.3f) - Stopping the MSA",
                             time, getLastEvent()));
+        } else if (isVirtualTime()) {
+            mVirtualClock = time;
         } else {
             mWallTimer.setAccumulatedTime((long) (time / getSpeed() * Stopwatch.NS_IN_S));
         }
@@ -260,7 +331,7 @@ public class MSASimulator implements Runnable, ILockable {
                     "The specified time (%.1f) in in the past (current is:%.1f)",
                     e.getSimulationTimeStamp(), simulationTime()));
 
-        mFutureEvents.offer(new ScheduledEvent(e));
+        mFutureEvents.offer(new ScheduledEvent(e, mEventSeq++));
         MSALogging.getSimulationLogger().info(
                 "MSASimulator.schedule event: scheduled %s at %.2f [%s] (%s)",
                 e.getClass().getSimpleName(),
@@ -295,9 +366,14 @@ public class MSASimulator implements Runnable, ILockable {
      * @throws InterruptedException
      */
     private ScheduledEvent pollNextEvent() throws InterruptedException {
-        while (mRunning
-                && (mFutureEvents.isEmpty() || mFutureEvents.peek().time() > simulationTime())) {
-            Thread.sleep(50);
+        if (isVirtualTime()) {
+            while (mRunning && !canAdvance())
+                Thread.sleep(VIRTUAL_TIME_POLL_MS);
+        } else {
+            while (mRunning
+                    && (mFutureEvents.isEmpty() || mFutureEvents.peek().time() > simulationTime())) {
+                Thread.sleep(WALL_TIME_POLL_MS);
+            }
         }
 
         if (!mRunning)
@@ -307,6 +383,42 @@ public class MSASimulator implements Runnable, ILockable {
 
     }
 
+    /**
+     * Check if the virtual clock can be advanced to the next scheduled event
+     * <p>
+     * The next event is released when the MSA procedure is {@linkplain MSABase#isQuiescent() quiescent}, has consumed
+     * its CPU budget, and the simulation is not paused (events scheduled at the current time are released even if the
+     * simulation is paused, as they would be in wall time mode)
+     * </p>
+     * 
+     * @return {@code true} if the next event can be released
+     */
+    private boolean canAdvance() {
+        ScheduledEvent next = mFutureEvents.peek();
+        if (next == null)
+            return false;
+        double gap = next.time() - mVirtualClock;
+        if (gap > 0 && mPaused)
+            return false;
+        if (!getMSA().isQuiescent())
+            return false;
+        double budget = Math.min(mMaxCpuBudget, simToWallTime(Math.max(0, gap)));
+        return budget <= 0 || (getMSACpuTime() - mLastEventCpuTime) >= budget * Stopwatch.NS_IN_S_D;
+    }
+
+    /**
+     * Returns the CPU time consumed by the thread of the MSA procedure
+     * 
+     * @return the CPU time (in ns) consumed by the thread of the MSA procedure, or {@code 0} if it cannot be measured
+     */
+    private long getMSACpuTime() {
+        Thread t = getMSA().getProcedureThread();
+        ThreadMXBean tmx = ManagementFactory.getThreadMXBean();
+        if (t == null || !tmx.isThreadCpuTimeSupported())
+            return 0;
+        return Math.max(0, tmx.getThreadCpuTime(t.getId()));
+    }
+
     /**
      * Push an event to the MSA
      * 
@@ -367,7 +479,7 @@ public class MSASimulator implements Runnable, ILockable {
      * @return the current time in the simulation
      */
     public double simulationTime() {
-        return wallToSimTime(wallTime());
+        return isVirtualTime() ? mVirtualClock : wallToSimTime(wallTime());
     }
 
     /**
@@ -414,6 +526,8 @@ public class MSASimulator implements Runnable, ILockable {
      */
     public class ScheduledEvent implements Comparable<ScheduledEvent> {
         private final MSAEvent mMSAEvent;
+        /** The scheduling sequence number, used to break ties */
+        private final long     mSeq;
 
         /**
          * Return the time at which this event is scheduled
@@ -429,13 +543,16 @@ public class MSASimulator implements Runnable, ILockable {
             return mMSAEvent;
         }
 
-        private ScheduledEvent(MSAEvent event) {
+        private ScheduledEvent(MSAEvent event, long seq) {
             mMSAEvent = event;
+            mSeq = seq;
         }
 
         @Override
         public int compareTo(ScheduledEvent o) {
-            return Double.compare(time(), o.time());
+            int comp = Double.compare(time(), o.time());
+            // Simultaneous events are released in the order in which they were scheduled
+            return comp != 0 ? comp : Long.compare(mSeq, o.mSeq);
         }
 
         @Override
@@ -2,6 +2,7 @@ package vroom.optimization.online.jmsa.vrp;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -41,6 +42,13 @@ import vroom.optimization.online.jmsa.utils.MSALogging;
 /**
  * Creation date: Apr 29, 2010 - 10:59:22 AM<br/>
  * <code>VRPInstance</code>
+ * <p>
+ * The dynamic state of the instance (pending, assigned and served requests, current position and cost of each vehicle)
+ * is modified by the event handlers while holding the lock of the instance. After each modification an immutable
+ * {@link State} is published, so that read accessors do not require the lock: a scenario optimizer can work against
+ * the snapshot returned by {@link #getState()}, and check with {@link #isCurrent(State)} that it is still valid before
+ * committing its result.
+ * </p>
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
  *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
@@ -76,6 +84,14 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
     /** A mapping of the served status of requests */
     private final Map<VRPActualRequest, Boolean> mServedStatus;
 
+    /** Flags used to mark the parts of the dynamic state that changed since the last published state */
+    private static final int                     PENDING = 1, ASSIGNED = 2, SERVED = 4;
+
+    /** The last published snapshot of the dynamic state */
+    private volatile State                       mState;
+    /** The version of the dynamic state */
+    private long                                 mVersion;
+
     /** The underlying instance **/
     private final DynamicInstance                mInstance;
 
@@ -161,6 +177,8 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
 
         }
 
+        publishState(-1, PENDING | ASSIGNED | SERVED);
+
         releaseLock();
     }
 
@@ -169,14 +187,96 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
         return getInstance().getName();
     }
 
+    /**
+     * Returns the current snapshot of the dynamic state of this instance.
+     * <p>
+     * This method does not require the lock, the returned snapshot is immutable and will not reflect later changes
+     * </p>
+     * 
+     * @return the current snapshot of the dynamic state of this instance
+     */
+    public State getState() {
+        return mState;
+    }
+
+    /**
+     * Returns <code>true</code> if no change occurred in the dynamic state of this instance since a snapshot was taken
+     * 
+     * @param state
+     *            a snapshot previously returned by {@link #getState()}
+     * @return <code>true</code> if <code>state</code> is the current snapshot
+     */
+    public boolean isCurrent(State state) {
+        return mState == state;
+    }
+
+    /**
+     * Publish a new snapshot of the dynamic state, must be called while holding the lock
+     * 
+     * @param resourceId
+     *            the vehicle which list of assigned requests changed, <code>-1</code> if none
+     * @param changes
+     *            a combination of flags describing the sets of requests that changed
+     */
+    private void publishState(int resourceId, int changes) {
+        State prev = mState;
+        if (prev == null)
+            changes = PENDING | ASSIGNED | SERVED;
+        List<List<VRPActualRequest>> routes = new ArrayList<List<VRPActualRequest>>(mAssignedRequests.length);
+        for (int v = 0; v < mAssignedRequests.length; v++) {
+            // Lists of the vehicles that did not change are shared with the previous snapshot
+            if (prev != null && v != resourceId)
+                routes.add(prev.mAssignedRequests.get(v));
+            else
+                routes.add(Collections.unmodifiableList(new ArrayList<VRPActualRequest>(
+                        getAssignedRequestsInternal(v))));
+        }
+
+        // Sets that did not change are shared with the previous snapshot
+        Set<VRPActualRequest> pending;
+        List<VRPActualRequest> pendingList;
+        if ((changes & PENDING) != 0) {
+            pending = Collections.unmodifiableSet(new HashSet<VRPActualRequest>(mPendingRequests));
+            pendingList = Collections.unmodifiableList(new ArrayList<VRPActualRequest>(pending));
+        } else {
+            pending = prev.mPendingRequests;
+            pendingList = prev.mPendingRequestList;
+        }
+        List<VRPActualRequest> allAssigned;
+        Set<VRPActualRequest> assigned;
+        if ((changes & ASSIGNED) != 0) {
+            allAssigned = Collections.unmodifiableList(new ArrayList<VRPActualRequest>(mAllAssignedRequests));
+            assigned = trueKeys(mAssignedStatus);
+        } else {
+            allAssigned = prev.mAllAssignedRequests;
+            assigned = prev.mAssigned;
+        }
+        Set<VRPActualRequest> served = (changes & SERVED) != 0 ? trueKeys(mServedStatus) : prev.mServed;
+
+        mState = new State(++mVersion, pending, pendingList, allAssigned, Collections.unmodifiableList(routes),
+                assigned, served, mVehicleStartedStates.clone(), mVehicleStoppedStates.clone(), mVehicleCosts.clone());
+    }
+
+    /**
+     * Returns an immutable set of the requests which status is <code>true</code>
+     */
+    private static Set<VRPActualRequest> trueKeys(Map<VRPActualRequest, Boolean> status) {
+        HashSet<VRPActualRequest> keys = new HashSet<VRPActualRequest>();
+        for (Map.Entry<VRPActualRequest, Boolean> e : status.entrySet()) {
+            if (e.getValue())
+                keys.add(e.getKey());
+        }
+        return Collections.unmodifiableSet(keys);
+    }
+
     @Override
     public boolean isResourceStarted(int resourceId) {
-        return mVehicleStartedStates[resourceId];
+        return mState.isResourceStarted(resourceId);
     }
 
     @Override
     public boolean isResourceStopped(int resourceId) {
-        return mVehicleStoppedStates[resourceId];
+        return mState.isResourceStopped(resourceId);
     }
 
     @Override
@@ -192,6 +292,9 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
             // getShrunkRequest(resourceId).shrunkRequest(req);
             getShrunkRequest(resourceId).markAsServed();
             mServedStatus.put(req, true);
+            publishState(resourceId, SERVED);
+        } else {
+            publishState(-1, 0);
         }
     }
 
@@ -213,8 +316,11 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
             if (prev != null) {
                 mVehicleCosts[resourceId] += getCost(prev, ((INodeVisit) param), getFleet().getVehicle(resourceId));
             }
+            publishState(resourceId, SERVED);
 
             mObsHandler.notifyObservers(new RequestUpdate(resourceId, req, prev, RequestUpdate.Type.ASSIGNED));
+        } else {
+            publishState(-1, 0);
         }
     }
 
@@ -225,7 +331,7 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
         VRPActualRequest vrpReq = (VRPActualRequest) request;
 
         // Check if the request has already been assigned
-        if (isRequestAssigned(vrpReq)) {
+        if (Boolean.TRUE.equals(mAssignedStatus.get(vrpReq))) {
             MSALogging
                     .getProcedureLogger()
                     .warn("MSAVRPInstance.assignRequestToResource: Error - the request has already been assigned (req:%s v:%s)",
@@ -270,6 +376,8 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
         // Remove the corresponding node visit from the underlying instance
         getInstance().nodeVisited(vrpReq.getNodeVisit());
 
+        publishState(resourceId, PENDING | ASSIGNED);
+
         mObsHandler.notifyObservers(new RequestUpdate(resourceId, vrpReq, prev, RequestUpdate.Type.ASSIGNED));
 
         return true;
@@ -284,21 +392,27 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
 
     @Override
     public List<VRPActualRequest> getPendingRequests() {
-        return new ArrayList<VRPActualRequest>(mPendingRequests);
+        return new ArrayList<VRPActualRequest>(mState.getPendingRequests());
     }
 
+    /**
+     * Returns the pending requests
+     * 
+     * @return an unmodifiable view of the pending requests in the current snapshot
+     * @see #getState()
+     */
     public Set<VRPActualRequest> getPendingRequestsSet() {
-        return mPendingRequests;
+        return mState.getPendingRequests();
     }
 
     @Override
     public List<VRPActualRequest> getServedRequests() {
-        return new ArrayList<VRPActualRequest>(mAllAssignedRequests);
+        return new ArrayList<VRPActualRequest>(mState.getAssignedRequests());
     }
 
     @Override
     public List<VRPActualRequest> getServedRequests(int resourceId) {
-        return new ArrayList<VRPActualRequest>(getAssignedRequestsInternal(resourceId));
+        return new ArrayList<VRPActualRequest>(mState.getAssignedRequests(resourceId));
     }
 
     @Override
@@ -306,7 +420,7 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
         boolean b = getInstance().addRequest(((VRPActualRequest) request).getParentRequest());
 
         if (b) {
-            addNodeVisitInternal((VRPActualRequest) request);
+            publishState(-1, addNodeVisitInternal((VRPActualRequest) request));
             mObsHandler.notifyObservers(new RequestUpdate(-1, (VRPActualRequest) request, null,
                     RequestUpdate.Type.ADDED));
         }
@@ -331,10 +445,14 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
 
     /**
      * Add a request to the data structures of this instance
+     * <p>
+     * The caller is responsible for publishing the new state
+     * </p>
      * 
      * @param request
+     * @return a combination of flags describing the sets of requests that changed
      */
-    protected void addNodeVisitInternal(INodeVisit visit) {
+    protected int addNodeVisitInternal(INodeVisit visit) {
         checkLock();
         VRPActualRequest request;
         if (visit instanceof VRPActualRequest) {
@@ -360,8 +478,12 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
 
         mPendingRequests.add(request);
 
-        mAssignedStatus.put(request, Boolean.FALSE);
-        mServedStatus.put(request, Boolean.FALSE);
+        int changes = PENDING;
+        if (Boolean.TRUE.equals(mAssignedStatus.put(request, Boolean.FALSE)))
+            changes |= ASSIGNED;
+        if (Boolean.TRUE.equals(mServedStatus.put(request, Boolean.FALSE)))
+            changes |= SERVED;
+        return changes;
     }
 
     @Override
@@ -371,7 +493,7 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
         VRPActualRequest vrpReq = (VRPActualRequest) request;
 
         // Check that the request has previously been assigned
-        if (!isRequestAssigned(vrpReq)) {
+        if (!Boolean.TRUE.equals(mAssignedStatus.get(vrpReq))) {
             MSALogging
                     .getProcedureLogger()
                     .warn("MSAVRPInstance.markRequestAsServed: Error - the request has not been previously assigned (req:%s v:%s)",
@@ -380,7 +502,7 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
         }
 
         // Check that the request has not already been marked as served
-        if (isRequestServed(vrpReq)) {
+        if (Boolean.TRUE.equals(mServedStatus.get(vrpReq))) {
             MSALogging
                     .getProcedureLogger()
                     .warn("MSAVRPInstance.markRequestAsServed: Error - the request has already been marked as served (req:%s v:%s)",
@@ -405,11 +527,12 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
         getShrunkRequest(resourceId).markAsServed();
 
         // Update the vehicle costs
-        int L = getServedRequests(resourceId).size();
+        int L = getAssignedRequestsInternal(resourceId).size();
         if (L > 1) {
             mVehicleCosts[resourceId] += getCost(getAssignedRequestsInternal(resourceId).get(L - 2),
                     getAssignedRequestsInternal(resourceId).get(L - 1), getFleet().getVehicle(resourceId));
         }
+        publishState(-1, SERVED);
 
         mObsHandler.notifyObservers(new RequestUpdate(resourceId, vrpReq, null, RequestUpdate.Type.SERVED));
 
@@ -441,11 +564,7 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
      * @return the last request assigned to the specified resource
      */
     public VRPActualRequest getLastAssignedRequest(int resourceId) {
-        if (getAssignedRequestsInternal(resourceId).isEmpty()) {
-            return null;
-        } else {
-            return getAssignedRequestsInternal(resourceId).getLast();
-        }
+        return mState.getLastAssignedRequest(resourceId);
     }
 
     /**
@@ -454,14 +573,7 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
      * @return <code>true</code> if a resource has been assigned to <code>request</code>
      */
     public boolean isRequestAssigned(VRPActualRequest request) {
-        if (request == null) {
-            return true;
-        } else if (!mAssignedStatus.containsKey(request)) {
-            mAssignedStatus.put(request, Boolean.FALSE);
-            return false;
-        } else {
-            return mAssignedStatus.get(request);
-        }
+        return mState.isRequestAssigned(request);
     }
 
     /**
@@ -472,14 +584,7 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
      * @return <code>true</code> if <code>request</code> has been served by a vehicle
      */
     public boolean isRequestServed(VRPActualRequest request) {
-        if (request == null) {
-            return true;
-        } else if (!mServedStatus.containsKey(request)) {
-            mServedStatus.put(request, Boolean.FALSE);
-            return false;
-        } else {
-            return mServedStatus.get(request);
-        }
+        return mState.isRequestServed(request);
     }
 
     /**
@@ -519,7 +624,7 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
      * @return
      */
     public double getCurrentCost(int vehicleId) {
-        return mVehicleCosts[vehicleId];
+        return mState.getCurrentCost(vehicleId);
     }
 
     /**
@@ -534,9 +639,10 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
     public Solution<ArrayListRoute> getCurrentSolution() {
         Solution<ArrayListRoute> solution = new Solution<ArrayListRoute>(getInstance());
 
+        State state = mState;
         for (int r = 0; r < mAssignedRequests.length; r++) {
             ArrayListRoute route = new ArrayListRoute(solution, getFleet().getVehicle(r));
-            for (VRPActualRequest node : getAssignedRequestsInternal(r)) {
+            for (VRPActualRequest node : state.getAssignedRequests(r)) {
                 route.appendNode(node);
             }
             solution.addRoute(route);
@@ -617,13 +723,15 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
         boolean b = getInstance().addRequest(request);
 
         if (b) {
+            int changes = 0;
             if (request instanceof INodeVisit) {
-                addNodeVisitInternal((INodeVisit) request);
+                changes |= addNodeVisitInternal((INodeVisit) request);
             } else {
                 for (INodeVisit visit : getInstance().getNodeVisits(request)) {
-                    addNodeVisitInternal(visit);
+                    changes |= addNodeVisitInternal(visit);
                 }
             }
+            publishState(-1, changes);
         }
         return b;
     }
@@ -680,8 +788,9 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
 
     @Override
     public List<IVRPRequest> getRequests() {
-        ArrayList<IVRPRequest> req = new ArrayList<IVRPRequest>(mPendingRequests.size());
-        for (VRPRequest r : mPendingRequests) {
+        Set<VRPActualRequest> pending = mState.getPendingRequests();
+        ArrayList<IVRPRequest> req = new ArrayList<IVRPRequest>(pending.size());
+        for (VRPRequest r : pending) {
             req.add(r.getParentRequest());
         }
         return req;
@@ -942,6 +1051,146 @@ public class MSAVRPInstance implements IInstance, IVRPInstance, IObservable {
 
     }
 
+    /**
+     * <code>State</code> is an immutable snapshot of the dynamic state of a {@link MSAVRPInstance}
+     * 
+     * @see MSAVRPInstance#getState()
+     */
+    public static final class State {
+
+        /** The version of this snapshot */
+        private final long                         mVersion;
+        /** The pending requests */
+        private final Set<VRPActualRequest>        mPendingRequests;
+        /** The pending requests, as a list shared by all the scenarios */
+        private final List<VRPActualRequest>       mPendingRequestList;
+        /** The overall list of assigned requests */
+        private final List<VRPActualRequest>       mAllAssignedRequests;
+        /** A per vehicle list of the assigned requests */
+        private final List<List<VRPActualRequest>> mAssignedRequests;
+        /** The assigned requests */
+        private final Set<VRPActualRequest>        mAssigned;
+        /** The served requests */
+        private final Set<VRPActualRequest>        mServed;
+        /** The started state of vehicles */
+        private final boolean[]                    mStarted;
+        /** The stopped state of vehicles */
+        private final boolean[]                    mStopped;
+        /** The current cost of each vehicle */
+        private final double[]                     mCosts;
+
+        private State(long version, Set<VRPActualRequest> pendingRequests, List<VRPActualRequest> pendingRequestList,
+                List<VRPActualRequest> allAssignedRequests, List<List<VRPActualRequest>> assignedRequests,
+                Set<VRPActualRequest> assigned, Set<VRPActualRequest> served, boolean[] started, boolean[] stopped,
+                double[] costs) {
+            mVersion = version;
+            mPendingRequests = pendingRequests;
+            mPendingRequestList = pendingRequestList;
+            mAllAssignedRequests = allAssignedRequests;
+            mAssignedRequests = assignedRequests;
+            mAssigned = assigned;
+            mServed = served;
+            mStarted = started;
+            mStopped = stopped;
+            mCosts = costs;
+        }
+
+        /**
+         * Returns the version of this snapshot, incremented each time the state of the instance changes
+         * 
+         * @return the version of this snapshot
+         */
+        public long getVersion() {
+            return mVersion;
+        }
+
+        /**
+         * @return an unmodifiable view of the pending requests
+         */
+        public Set<VRPActualRequest> getPendingRequests() {
+            return mPendingRequests;
+        }
+
+        /**
+         * @return an unmodifiable list of the pending requests
+         */
+        public List<VRPActualRequest> getPendingRequestList() {
+            return mPendingRequestList;
+        }
+
+        /**
+         * @return an unmodifiable view of the requests assigned to all vehicles
+         */
+        public List<VRPActualRequest> getAssignedRequests() {
+            return mAllAssignedRequests;
+        }
+
+        /**
+         * @param resourceId
+         * @return an unmodifiable view of the requests assigned to the specified resource
+         */
+        public List<VRPActualRequest> getAssignedRequests(int resourceId) {
+            return mAssignedRequests.get(resourceId);
+        }
+
+        /**
+         * @param resourceId
+         * @return the last request assigned to the specified resource, which is its current position
+         */
+        public VRPActualRequest getLastAssignedRequest(int resourceId) {
+            List<VRPActualRequest> requests = mAssignedRequests.get(resourceId);
+            return requests.isEmpty() ? null : requests.get(requests.size() - 1);
+        }
+
+        /**
+         * @param request
+         *            the considered request
+         * @return <code>true</code> if a resource has been assigned to <code>request</code>
+         */
+        public boolean isRequestAssigned(VRPActualRequest request) {
+            return request == null || mAssigned.contains(request);
+        }
+
+        /**
+         * @param request
+         *            the considered request
+         * @return <code>true</code> if <code>request</code> has been served by a vehicle
+         */
+        public boolean isRequestServed(VRPActualRequest request) {
+            return request == null || mServed.contains(request);
+        }
+
+        /**
+         * @param resourceId
+         * @return <code>true</code> if the specified resource has started
+         */
+        public boolean isResourceStarted(int resourceId) {
+            return mStarted[resourceId];
+        }
+
+        /**
+         * @param resourceId
+         * @return <code>true</code> if the specified resource has stopped
+         */
+        public boolean isResourceStopped(int resourceId) {
+            return mStopped[resourceId];
+        }
+
+        /**
+         * @param resourceId
+         * @return the current cost of the specified resource
+         */
+        public double getCurrentCost(int resourceId) {
+            return mCosts[resourceId];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("v%s pending:%s assigned:%s", mVersion, mPendingRequests.size(),
+                    mAllAssignedRequests.size());
+        }
+    }
+
     @Override
     public List<Depot> getDepots() {
         return mInstance.getDepots();
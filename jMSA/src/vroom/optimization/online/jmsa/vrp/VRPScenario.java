@@ -25,6 +25,12 @@ import vroom.optimization.online.jmsa.IScenario;
  * vehicle routing problems. It implements the {@link ILockable} interface to ensure that no concurrent modifications
  * are done on the same instance. Therefore before manipulating an instance, the current thread should acquire the lock
  * by calling {@link #acquireLock()} and release it afterward with {@link #releaseLock()}.
+ * <p>
+ * The part of the routes that has already been committed is represented by the {@link VRPShrunkRequest} of each
+ * vehicle, which is shared by all the scenarios, and the pending actual requests are read from the current
+ * {@linkplain MSAVRPInstance#getState() state} of the parent instance. A scenario therefore only stores its own
+ * uncommitted routes and sampled requests.
+ * </p>
  * 
  * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
  *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
@@ -78,6 +84,23 @@ public class VRPScenario extends Solution<VRPScenarioRoute> implements IScenario
         releaseLock();
     }
 
+    /**
+     * Creates a new <code>VRPScenario</code> for cloning operations
+     * 
+     * @param original
+     *            the scenario being cloned
+     */
+    private VRPScenario(VRPScenario original) {
+        super(original.getParentInstance());
+        mSampledRequests = new LinkedList<VRPSampledRequest>(original.mSampledRequests);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned list is unmodifiable and shared by all the scenarios of the parent instance
+     * </p>
+     */
     @Override
     public List<VRPActualRequest> getActualRequests() {
         // checkLock();
@@ -85,7 +108,7 @@ public class VRPScenario extends Solution<VRPScenarioRoute> implements IScenario
 
         // internalReleaseLock();
         // return list;
-        return getParentInstance().getPendingRequests();
+        return getParentInstance().getState().getPendingRequestList();
     }
 
     @Override
@@ -245,8 +268,7 @@ public class VRPScenario extends Solution<VRPScenarioRoute> implements IScenario
     @Override
     public VRPScenario clone() {
         checkLock();
-        VRPScenario clone = new VRPScenario(getParentInstance(), new ArrayList<VRPActualRequest>(
-                getActualRequests()), new ArrayList<VRPSampledRequest>(getSampledRequests()));
+        VRPScenario clone = new VRPScenario(this);
         clone.acquireLock();
         clone.clear();
         for (VRPScenarioRoute route : this) {
@@ -3,9 +3,6 @@ package vroom.optimization.online.jmsa.vrp;
 import java.util.LinkedList;
 import java.util.List;
 
-import vroom.common.modeling.dataModel.IVRPInstance;
-import vroom.common.utilities.Utilities;
-import vroom.optimization.online.jmsa.IInstance;
 import vroom.optimization.online.jmsa.ISampledRequest;
 import vroom.optimization.online.jmsa.components.ComponentManager;
 import vroom.optimization.online.jmsa.components.ScenarioGeneratorBase;
@@ -55,11 +52,10 @@ public class VRPScenarioGeneratorBase<S extends VRPScenario> extends ScenarioGen
             }
         }
 
+        MSAVRPInstance instance = (MSAVRPInstance) getComponentManager().getParentMSA().getInstance();
         @SuppressWarnings("unchecked")
-        S scenario = (S) getScenarioFactory().newSolution(
-                (IVRPInstance) getComponentManager().getParentMSA().getInstance(),
-                Utilities.convertToList(((IInstance) getComponentManager().getParentMSA()
-                        .getInstance()).getPendingRequests()), sampledRequests);
+        S scenario = (S) getScenarioFactory().newSolution(instance, instance.getState().getPendingRequestList(),
+                sampledRequests);
 
         return scenario;
     }
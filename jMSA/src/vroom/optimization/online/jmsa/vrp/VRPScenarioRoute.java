@@ -1117,7 +1117,8 @@ public class VRPScenarioRoute implements IRoute<VRPRequest>, ILockable, IObjectW
     /**
      * Clone this route with a reference to the cloned parent scenario.
      * <p>
-     * This method should only be used when cloning a scenario
+     * This method should only be used when cloning a scenario. The fixed part of the route is represented by the shrunk
+     * request of the vehicle, which is shared and not copied.
      * </p>
      * 
      * @param clonedScenario
@@ -138,6 +138,7 @@ public class VRPSDResourceHandler extends ResourceHandler<VRPScenario, MSAVRPIns
                                 .getScenarioOptimizer()
                                 .initialize(s,
                                         new ScenarioOptimizerParam(Integer.MAX_VALUE, 100, false));
+                        getParentMSAProxy().getScenarioPool().scenarioUpdated(s);
                         reinitCount++;
                     } else {
                         // getParentMSAProxy().getComponentManager().optimize(s,
@@ -196,6 +197,8 @@ public class VRPSDResourceHandler extends ResourceHandler<VRPScenario, MSAVRPIns
                 }
             }
             scenario.releaseLock();
+            if (removedScenarios.peekLast() != scenario)
+                pool.scenarioUpdated(scenario);
         }
 
         pool.removeScenarios(removedScenarios);
@@ -260,6 +263,8 @@ public class VRPSDResourceHandler extends ResourceHandler<VRPScenario, MSAVRPIns
             }
 
             scenario.releaseLock();
+            if (removedScenarios.peekLast() != scenario)
+                getParentMSAProxy().getScenarioPool().scenarioUpdated(scenario);
         }
         // 2.b Remove scenarios that could not be repaired
         getParentMSAProxy().getScenarioPool().removeScenarios(removedScenarios);
@@ -324,6 +329,8 @@ public class VRPSDResourceHandler extends ResourceHandler<VRPScenario, MSAVRPIns
                 if (!reinsertRequests(scenario, 0, failure, firstRoute.length() - 2)) {
                     // 3.a Failed: remove the scenario
                     removedScenarios.add(scenario);
+                } else {
+                    getParentMSAProxy().getScenarioPool().scenarioUpdated(scenario);
                 }
             }
 
@@ -36,6 +36,7 @@ import vroom.optimization.online.jmsa.components.ComponentManager;
 import vroom.optimization.online.jmsa.components.ScenarioOptimizerBase;
 import vroom.optimization.online.jmsa.components.ScenarioOptimizerParam;
 import vroom.optimization.online.jmsa.utils.MSALogging;
+import vroom.optimization.online.jmsa.vrp.MSAVRPInstance;
 import vroom.optimization.online.jmsa.vrp.MSAVRPSolutionFactory;
 import vroom.optimization.online.jmsa.vrp.VRPActualRequest;
 import vroom.optimization.online.jmsa.vrp.VRPScenario;
@@ -348,6 +349,9 @@ public class VRPSDSVScenarioOptimizer<S extends VRPScenario, I extends IInstance
         }
         solver.setInstance(adapter);
 
+        // Snapshot of the state the solution is optimized against
+        MSAVRPInstance.State state = scenario.getParentInstance().getState();
+
         solver.run();
 
         S bestSol = solver.getBestSolution();
@@ -390,9 +394,15 @@ public class VRPSDSVScenarioOptimizer<S extends VRPScenario, I extends IInstance
 
             // Automatically monitor request updates
             if (feasible && improvement) {
-                scenario.importScenario(bestSol);
-
-                scenario.resetNonImprovingCount();
+                // Discard the solution if a request was released or assigned in the meantime
+                if (scenario.getParentInstance().isCurrent(state)) {
+                    scenario.importScenario(bestSol);
+                    scenario.resetNonImprovingCount();
+                } else {
+                    MSALogging.getComponentsLogger().lowDebug(
+                            "VRPSDSVScenarioOptimizer.optimize: the instance changed during the optimization (%s), "
+                                    + "solution discarded", state);
+                }
 
                 for (VRPScenarioRoute r : scenario) {
                     r.setAddAsObserver(true);
@@ -4,13 +4,14 @@
 package vroom.optimization.online.jmsa.vrp.vrpsd;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import vroom.common.heuristics.ConstraintHandler;
 import vroom.common.heuristics.vns.VNSParameters;
@@ -21,12 +22,14 @@ import vroom.common.heuristics.vrp.TwoOptNeighborhood;
 import vroom.common.heuristics.vrp.constraints.CapacityConstraint;
 import vroom.common.modeling.dataModel.INodeVisit;
 import vroom.common.utilities.Utilities;
+import vroom.common.utilities.math.TopKHeap;
 import vroom.common.utilities.optimization.INeighborhood;
 import vroom.common.utilities.optimization.OptimizationSense;
 import vroom.optimization.online.jmsa.IActualRequest;
 import vroom.optimization.online.jmsa.IDistinguishedSolution;
 import vroom.optimization.online.jmsa.components.ComponentManager;
 import vroom.optimization.online.jmsa.components.ISolutionBuilderParam;
+import vroom.optimization.online.jmsa.components.ScenarioCache;
 import vroom.optimization.online.jmsa.vrp.MSAVRPInstance;
 import vroom.optimization.online.jmsa.vrp.VRPActualRequest;
 import vroom.optimization.online.jmsa.vrp.VRPScenario;
@@ -53,6 +56,11 @@ public class VRPSDSampledRegret extends VRPSDSimpleRegret {
 
     private final VRPSDConsensus                          mConsensus;
 
+    /** The insertion cost of each pending request in each scenario, lazily registered in the scenario pool */
+    private ScenarioCache<VRPScenario, Map<Integer, Double>> mInsertionCosts;
+    /** The regret of visiting each candidate request first in each scenario */
+    private ScenarioCache<VRPScenario, Map<Integer, Double>> mRegrets;
+
     public VRPSDSampledRegret(ComponentManager<VRPScenario, ?> componentManager) {
         super(componentManager);
         mConsensus = new VRPSDConsensus(componentManager);
@@ -73,17 +81,34 @@ public class VRPSDSampledRegret extends VRPSDSimpleRegret {
         if (getInstance().getShrunkRequest(0).isDepot()) {
             return mConsensus.buildDistinguishedPlan(param);
         } else {
+            initCaches();
             return super.buildDistinguishedPlan(param);
         }
     }
 
+    /**
+     * Register the caches of evaluations in the scenario pool on the first call, and invalidate them if the state of
+     * the instance changed since the last decision
+     */
+    private synchronized void initCaches() {
+        if (mInsertionCosts == null) {
+            mInsertionCosts = new ScenarioCache<VRPScenario, Map<Integer, Double>>();
+            mRegrets = new ScenarioCache<VRPScenario, Map<Integer, Double>>();
+            getComponentManager().getParentMSAProxy().getScenarioPool().addListener(mInsertionCosts);
+            getComponentManager().getParentMSAProxy().getScenarioPool().addListener(mRegrets);
+        }
+        long version = getInstance().getState().getVersion();
+        mInsertionCosts.setVersion(version);
+        mRegrets.setVersion(version);
+    }
+
     @Override
     protected Collection<? extends IActualRequest> selectCandidateRequests() {
         CandidateList candidateList = selectCandidateRequestsKNearest();
         ArrayList<VRPActualRequest> candidates = new ArrayList<VRPActualRequest>(sSampleSize);
         // Retreive the best candidates
-        for (CandidateList.Eval e : candidateList.bestEvals) {
-            candidates.add(getInstance().getNodeVisit(e.id));
+        for (int id : candidateList.getBestIds()) {
+            candidates.add(getInstance().getNodeVisit(id));
         }
 
         // Add the depot
@@ -97,36 +122,57 @@ public class VRPSDSampledRegret extends VRPSDSimpleRegret {
 
         CandidateList candidateList = new CandidateList();
 
-        INodeVisit depot = getInstance().getDepotsVisits().iterator().next();
+        initCaches();
+        for (VRPScenario s : getComponentManager().getParentMSAProxy().getScenarioPool()) {
+            Map<Integer, Double> insCosts = mInsertionCosts.get(s);
+            if (insCosts == null) {
+                insCosts = evaluateInsertionCosts(s);
+                mInsertionCosts.put(s, insCosts);
+            }
+            for (Entry<Integer, Double> e : insCosts.entrySet()) {
+                candidateList.updateEval(e.getKey(), -e.getValue());
+            }
+        }
 
-        for (VRPActualRequest n : getInstance().getPendingRequests()) {
-            for (VRPScenario s : getComponentManager().getParentMSAProxy().getScenarioPool()) {
-                double insCost = 0;
+        return candidateList;
+    }
 
-                VRPScenarioRoute r = s.getRoute(0);
+    /**
+     * Evaluates the cost of inserting each pending request after the current node in a scenario
+     * 
+     * @param s
+     *            the considered scenario
+     * @return a map containing the insertion cost of each pending request in {@code s}
+     */
+    private Map<Integer, Double> evaluateInsertionCosts(VRPScenario s) {
+        INodeVisit depot = getInstance().getDepotsVisits().iterator().next();
+        List<VRPActualRequest> pending = getInstance().getState().getPendingRequestList();
+        Map<Integer, Double> insCosts = new HashMap<Integer, Double>(pending.size());
 
-                if (r.length() > 2) {
-                    INodeVisit next = r.getNodeAt(2);
-                    INodeVisit cur = getInstance().getShrunkRequest(0);
+        VRPScenarioRoute r = s.getRoute(0);
+        for (VRPActualRequest n : pending) {
+            double insCost = 0;
 
-                    if (next.getID() == n.getID()) {
-                        insCost = 0;
-                    } else {
-                        insCost = getInstance().getCost(cur, n) + getInstance().getCost(n, next)
-                                - getInstance().getCost(cur, next);
+            if (r.length() > 2) {
+                INodeVisit next = r.getNodeAt(2);
+                INodeVisit cur = getInstance().getShrunkRequest(0);
 
-                    }
-                }
+                if (next.getID() == n.getID()) {
+                    insCost = 0;
+                } else {
+                    insCost = getInstance().getCost(cur, n) + getInstance().getCost(n, next)
+                            - getInstance().getCost(cur, next);
 
-                if (!r.canAccommodateRequest(n)) {
-                    insCost += getInstance().getCost(depot, n);
                 }
+            }
 
-                candidateList.updateEval(n.getID(), -insCost);
+            if (!r.canAccommodateRequest(n)) {
+                insCost += getInstance().getCost(depot, n);
             }
-        }
 
-        return candidateList;
+            insCosts.put(n.getID(), insCost);
+        }
+        return insCosts;
     }
 
     /**
@@ -196,16 +242,46 @@ public class VRPSDSampledRegret extends VRPSDSimpleRegret {
      */
     @Override
     protected double evaluateRegret(IActualRequest request, VRPScenario scenario, double currentValue) {
-        // Ignore empty scenarios or invalid requests
-        if (scenario.getRouteCount() <= 0 || request == null) {
+        if (request == null) {
             return currentValue;
         }
+
+        initCaches();
+        Map<Integer, Double> regrets = mRegrets.get(scenario);
+        if (regrets == null) {
+            regrets = new HashMap<Integer, Double>();
+            mRegrets.put(scenario, regrets);
+        }
+        Double regret = regrets.get(request.getID());
+        if (regret == null) {
+            regret = evaluateRegret(request, scenario);
+            regrets.put(request.getID(), regret);
+        }
+
+        return currentValue + regret;
+    }
+
+    /**
+     * Approximation of the regret of forcing a request to be visited first in a scenario, estimated with a fast local
+     * search
+     * 
+     * @param request
+     *            the request being evaluated
+     * @param scenario
+     *            the scenario being considered
+     * @return the regret of visiting {@code request} first in {@code scenario}
+     */
+    private double evaluateRegret(IActualRequest request, VRPScenario scenario) {
+        // Ignore empty scenarios
+        if (scenario.getRouteCount() <= 0) {
+            return 0;
+        }
         // If the request is already the first, keep the value unchanged
         INodeVisit first = scenario.getRoute(0).getNodeAt(2);
         VRPActualRequest req = (VRPActualRequest) request;
         if (first == null || first.getID() == request.getID() || first.isDepot() && req.isDepot()
                 || !(scenario.getRoute(0).getNodeAt(1) instanceof VRPShrunkRequest)) {
-            return currentValue;
+            return 0;
         }
 
         // Depot
@@ -282,7 +358,7 @@ public class VRPSDSampledRegret extends VRPSDSimpleRegret {
             req.free();
         }
 
-        return currentValue + delta;
+        return delta;
     }
 
     @Override
@@ -290,37 +366,43 @@ public class VRPSDSampledRegret extends VRPSDSimpleRegret {
         return (MSAVRPInstance) getComponentManager().getParentMSAProxy().getInstance();
     }
 
+    /**
+     * <code>CandidateList</code> accumulates an evaluation for each request and retains the {@link #sSampleSize}
+     * requests with the lowest evaluation.
+     */
     public static class CandidateList {
 
-        final Map<Integer, Eval> evals     = new HashMap<Integer, Eval>();
-
-        final LinkedList<Eval>   bestEvals = new LinkedList<Eval>();
+        final Map<Integer, Eval> evals = new HashMap<Integer, Eval>();
 
         public void updateEval(int reqID, double deltaEval) {
             // Update the request evaluation
-            Eval e;
-            if (!evals.containsKey(reqID)) {
+            Eval e = evals.get(reqID);
+            if (e == null) {
                 e = new Eval(reqID, deltaEval);
                 evals.put(reqID, e);
             } else {
-                e = evals.get(reqID);
                 e.eval += deltaEval;
             }
+        }
 
-            if (!bestEvals.contains(e)) {
-                bestEvals.add(e);
-                Collections.sort(bestEvals);
-            }
-
-            // Remove exceeding candidates
-            while (bestEvals.size() > sSampleSize) {
-                bestEvals.removeLast();
-            }
+        /**
+         * Returns the ids of the {@link #sSampleSize} requests with the lowest evaluation
+         * 
+         * @return the ids of the best requests, sorted by increasing evaluation
+         */
+        public int[] getBestIds() {
+            TopKHeap heap = new TopKHeap(sSampleSize, false);
+            for (Eval e : evals.values())
+                heap.offer(e.eval, e.id);
+            double[] keys = new double[heap.size()];
+            int[] ids = new int[heap.size()];
+            heap.drainSorted(keys, ids);
+            return ids;
         }
 
-        private static class Eval implements Comparable<Eval> {
-            int    id;
-            double eval;
+        private static class Eval {
+            final int id;
+            double    eval;
 
             public Eval(int id, double eval) {
                 super();
@@ -328,16 +410,6 @@ public class VRPSDSampledRegret extends VRPSDSimpleRegret {
                 this.eval = eval;
             }
 
-            @Override
-            public int hashCode() {
-                return id;
-            }
-
-            @Override
-            public int compareTo(Eval o) {
-                return Double.compare(this.eval, o.eval);
-            }
-
             @Override
             public String toString() {
                 return String.format("%s:%s", id, eval);
@@ -346,7 +418,7 @@ public class VRPSDSampledRegret extends VRPSDSimpleRegret {
 
         @Override
         public String toString() {
-            return bestEvals.toString();
+            return Arrays.toString(getBestIds());
         }
     }
 
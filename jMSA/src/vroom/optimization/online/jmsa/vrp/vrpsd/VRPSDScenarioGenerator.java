@@ -10,9 +10,7 @@ import vroom.common.modeling.dataModel.NodeVisit;
 import vroom.common.modeling.dataModel.attributes.IDemand;
 import vroom.common.modeling.dataModel.attributes.IStochasticDemand;
 import vroom.common.modeling.dataModel.attributes.RequestAttributeKey;
-import vroom.common.utilities.Utilities;
 import vroom.common.utilities.ssj.RandomGeneratorManager;
-import vroom.optimization.online.jmsa.IInstance;
 import vroom.optimization.online.jmsa.components.ComponentManager;
 import vroom.optimization.online.jmsa.components.ScenarioGeneratorParam;
 import vroom.optimization.online.jmsa.utils.MSALogging;
@@ -52,8 +50,8 @@ public class VRPSDScenarioGenerator<S extends VRPScenario> extends VRPScenarioGe
         // No sampled requests are used in this case
         List<VRPSampledRequest> sampledRequests = new LinkedList<VRPSampledRequest>();
 
-        List<VRPActualRequest> actualRequests = Utilities.convertToList(((IInstance) getComponentManager().getParentMSA()
-            .getInstance()).getPendingRequests());
+        // Pending requests read from a single snapshot of the instance state
+        List<VRPActualRequest> actualRequests = getInstance().getState().getPendingRequestList();
 
         List<VRPActualRequest> sampledDemandsRequests = new LinkedList<VRPActualRequest>();
 
@@ -3,10 +3,9 @@
  */
 package vroom.optimization.online.jmsa.vrp.vrpsd;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import umontreal.iro.lecuyer.probdist.Distribution;
@@ -67,21 +66,19 @@ public class VRPSDSmartConsensus extends VRPSDConsensus {
           // request exists
         else {
             int nextRequestId = -1;
-            double eval = 0, bestEval = -1;
-            Map<Integer, Double> evaluations = new HashMap<Integer, Double>();
-            for (IScenario s : getComponentManager().getParentMSAProxy().getScenarioPool()) {
-                s.acquireLock();
-
-                IActualRequest req = s.getFirstActualRequest(0);
-                if (req != null && isRequestFeasible(req)) {
-                    int reqId = req.getID();
-                    eval = updateEvaluation(evaluations, reqId);
-                    if (eval >= bestEval) {
+            double bestEval = -1;
+            // Counts are maintained incrementally by the statistics, ties are broken by lowest request id
+            for (Entry<Integer, Integer> e : getStatistics().getCounts(0).entrySet()) {
+                int reqId = e.getKey();
+                double eval = e.getValue();
+                if (eval > bestEval || eval == bestEval && nextRequestId != -1 && reqId < nextRequestId) {
+                    IActualRequest req = getComponentManager().getParentMSAProxy().getInstance()
+                            .getNodeVisit(reqId);
+                    if (req != null && isRequestFeasible(req)) {
                         bestEval = eval;
                         nextRequestId = reqId;
                     }
                 }
-                s.releaseLock();
             }
 
             // Next request
@@ -0,0 +1,180 @@
+package vroom.optimization.online.jmsa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import vroom.common.modeling.util.VRPInstanceBuilder;
+import vroom.optimization.online.jmsa.components.ScenarioCache;
+import vroom.optimization.online.jmsa.vrp.MSAVRPInstance;
+import vroom.optimization.online.jmsa.vrp.VRPScenario;
+
+/**
+ * <code>ScenarioPoolTest</code> is a test case for the notification of the {@link IScenarioPoolListener listeners} of
+ * a {@link ScenarioPool}
+ * <p>
+ * Creation date: Oct 19, 2026 - 06:52:40 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class ScenarioPoolTest {
+
+    /**
+     * A listener that records the notifications it receives
+     */
+    private static class RecordingListener implements IScenarioPoolListener<VRPScenario> {
+        final List<VRPScenario> added   = new ArrayList<VRPScenario>();
+        final List<VRPScenario> removed = new ArrayList<VRPScenario>();
+        final List<VRPScenario> updated = new ArrayList<VRPScenario>();
+
+        @Override
+        public void scenarioAdded(VRPScenario scenario) {
+            added.add(scenario);
+        }
+
+        @Override
+        public void scenarioRemoved(VRPScenario scenario) {
+            removed.add(scenario);
+        }
+
+        @Override
+        public void scenarioUpdated(VRPScenario scenario) {
+            updated.add(scenario);
+        }
+    }
+
+    private MSAVRPInstance            mInstance;
+    private ScenarioPool<VRPScenario> mPool;
+    private RecordingListener         mListener;
+
+    @Before
+    public void setUp() throws Exception {
+        mInstance = new MSAVRPInstance(VRPInstanceBuilder.newSimpleDynamicInstance(5, 100, 10, 10, 0, false),
+                new MSAGlobalParameters());
+        mPool = new ScenarioPool<VRPScenario>(10);
+        mListener = new RecordingListener();
+    }
+
+    private VRPScenario newScenario() {
+        return new VRPScenario(mInstance, null, null);
+    }
+
+    @Test
+    public void testAdd() {
+        VRPScenario s1 = newScenario(), s2 = newScenario();
+        mPool.addScenario(s1);
+        // Registration replays the scenarios already in the pool
+        mPool.addListener(mListener);
+        assertEquals(Arrays.asList(s1), mListener.added);
+
+        mPool.addScenario(s2);
+        assertEquals(Arrays.asList(s1, s2), mListener.added);
+        // Duplicates are not notified
+        assertFalse(mPool.addScenario(s2));
+        assertEquals(2, mListener.added.size());
+        assertTrue(mListener.removed.isEmpty());
+
+        assertTrue(mPool.removeListener(mListener));
+        mPool.addScenario(newScenario());
+        assertEquals(2, mListener.added.size());
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        mPool.addListener(mListener);
+        VRPScenario s1 = newScenario(), s2 = newScenario();
+        mPool.addScenario(s1);
+        mPool.addScenario(s2);
+
+        Iterator<VRPScenario> it = mPool.iterator();
+        VRPScenario first = it.next();
+        it.remove();
+        assertEquals(Arrays.asList(first), mListener.removed);
+        assertEquals(1, mPool.size());
+        assertFalse(mPool.getScenarios().contains(first));
+    }
+
+    @Test
+    public void testRemoveScenarios() {
+        mPool.addListener(mListener);
+        VRPScenario s1 = newScenario(), s2 = newScenario(), s3 = newScenario();
+        mPool.addScenario(s1);
+        mPool.addScenario(s2);
+
+        // Only scenarios that were in the pool are notified
+        assertTrue(mPool.removeScenarios(Arrays.asList(s1, s3)));
+        assertEquals(Arrays.asList(s1), mListener.removed);
+        assertFalse(mPool.removeScenarios(Collections.singleton(s3)));
+        assertEquals(1, mListener.removed.size());
+    }
+
+    @Test
+    public void testClear() {
+        mPool.addListener(mListener);
+        VRPScenario s1 = newScenario(), s2 = newScenario();
+        mPool.addScenario(s1);
+        mPool.addScenario(s2);
+
+        mPool.clear();
+        assertEquals(0, mPool.size());
+        assertEquals(new HashSet<VRPScenario>(Arrays.asList(s1, s2)), new HashSet<VRPScenario>(mListener.removed));
+        assertEquals(2, mListener.removed.size());
+    }
+
+    @Test
+    public void testUpdated() {
+        mPool.addListener(mListener);
+        VRPScenario s1 = newScenario();
+        mPool.addScenario(s1);
+
+        mPool.scenarioUpdated(s1);
+        assertEquals(Arrays.asList(s1), mListener.updated);
+        // Scenarios that are not in the pool are ignored
+        mPool.scenarioUpdated(newScenario());
+        assertEquals(1, mListener.updated.size());
+    }
+
+    @Test
+    public void testScenarioCache() {
+        ScenarioCache<VRPScenario, String> cache = new ScenarioCache<VRPScenario, String>();
+        mPool.addListener(cache);
+        VRPScenario s1 = newScenario(), s2 = newScenario();
+        mPool.addScenario(s1);
+        mPool.addScenario(s2);
+
+        cache.setVersion(1);
+        cache.put(s1, "s1");
+        cache.put(s2, "s2");
+        assertSame("s1", cache.get(s1));
+
+        // Updates and removals invalidate the value of the scenario only
+        mPool.scenarioUpdated(s1);
+        assertNull(cache.get(s1));
+        assertSame("s2", cache.get(s2));
+        cache.put(s1, "s1");
+        mPool.removeScenarios(Collections.singleton(s2));
+        assertNull(cache.get(s2));
+        assertEquals(1, cache.size());
+
+        // Same version: values are kept, new version: all values are invalidated
+        cache.setVersion(1);
+        assertSame("s1", cache.get(s1));
+        cache.setVersion(2);
+        assertNull(cache.get(s1));
+    }
+}
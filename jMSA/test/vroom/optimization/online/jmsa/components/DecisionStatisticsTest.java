@@ -0,0 +1,146 @@
+package vroom.optimization.online.jmsa.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import vroom.common.modeling.dataModel.INodeVisit;
+import vroom.common.modeling.util.VRPInstanceBuilder;
+import vroom.optimization.online.jmsa.MSAGlobalParameters;
+import vroom.optimization.online.jmsa.ScenarioPool;
+import vroom.optimization.online.jmsa.vrp.MSAVRPInstance;
+import vroom.optimization.online.jmsa.vrp.VRPActualRequest;
+import vroom.optimization.online.jmsa.vrp.VRPScenario;
+import vroom.optimization.online.jmsa.vrp.VRPScenarioRoute;
+
+/**
+ * <code>DecisionStatisticsTest</code> is a test case for {@link DecisionStatistics}
+ * <p>
+ * Creation date: Oct 19, 2026 - 06:38:12 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class DecisionStatisticsTest {
+
+    private MSAVRPInstance         mInstance;
+    private List<VRPActualRequest> mRequests;
+
+    @Before
+    public void setUp() throws Exception {
+        mInstance = new MSAVRPInstance(VRPInstanceBuilder.newSimpleDynamicInstance(5, 100, 10, 10, 0, false),
+                new MSAGlobalParameters());
+        mRequests = mInstance.getState().getPendingRequestList();
+    }
+
+    /**
+     * Creates a new scenario with a single route visiting the requests in the given order
+     */
+    private VRPScenario newScenario(int... requests) {
+        VRPScenario scen = new VRPScenario(mInstance, null, null);
+        scen.acquireLock();
+        scen.addRoute(new VRPScenarioRoute(scen, mInstance.getFleet().getVehicle()));
+        setRoute(scen, requests);
+        scen.releaseLock();
+        return scen;
+    }
+
+    /**
+     * Replaces the route of a scenario
+     */
+    private void setRoute(VRPScenario scen, int... requests) {
+        INodeVisit depot = mInstance.getDepotsVisits().iterator().next();
+        VRPScenarioRoute route = scen.getRoute(0);
+        while (route.length() > 0)
+            route.extractNode(0);
+        route.appendNode(new VRPActualRequest(depot));
+        for (int r : requests)
+            route.appendNode(mRequests.get(r));
+        route.appendNode(new VRPActualRequest(depot));
+    }
+
+    private int id(int request) {
+        return mRequests.get(request).getID();
+    }
+
+    @Test
+    public void testCounts() {
+        ScenarioPool<VRPScenario> pool = new ScenarioPool<VRPScenario>(10);
+        VRPScenario s1 = newScenario(0, 1, 2);
+        VRPScenario s2 = newScenario(0, 2, 1);
+        VRPScenario s3 = newScenario(1, 0, 2);
+        VRPScenario s4 = newScenario(2, 1, 0);
+
+        // Scenarios already in the pool are counted when the statistics are registered
+        pool.addScenario(s1);
+        DecisionStatistics stats = new DecisionStatistics(1);
+        pool.addListener(stats);
+        assertEquals(1, stats.getScenarioCount());
+        assertEquals(1, stats.getCount(0, id(0)));
+
+        pool.addScenario(s2);
+        pool.addScenario(s3);
+        pool.addScenario(s4);
+        assertEquals(4, stats.getScenarioCount());
+        assertEquals(2, stats.getCount(0, id(0)));
+        assertEquals(1, stats.getCount(0, id(1)));
+        assertEquals(1, stats.getCount(0, id(2)));
+        assertEquals(3, stats.getCounts(0).size());
+
+        // Update of a scenario
+        s3.acquireLock();
+        setRoute(s3, 0, 1, 2);
+        s3.releaseLock();
+        pool.scenarioUpdated(s3);
+        assertEquals(3, stats.getCount(0, id(0)));
+        assertEquals(0, stats.getCount(0, id(1)));
+        assertFalse(stats.getCounts(0).containsKey(id(1)));
+
+        // Removals
+        pool.removeScenarios(Collections.singleton(s1));
+        assertEquals(3, stats.getScenarioCount());
+        assertEquals(2, stats.getCount(0, id(0)));
+
+        // Updates of scenarios that are not in the pool are ignored
+        pool.scenarioUpdated(newScenario(1));
+        assertEquals(3, stats.getScenarioCount());
+        assertEquals(0, stats.getCount(0, id(1)));
+
+        pool.clear();
+        assertEquals(0, stats.getScenarioCount());
+        assertEquals(0, stats.getCounts(0).size());
+    }
+
+    @Test
+    public void testReturnToDepot() {
+        ScenarioPool<VRPScenario> pool = new ScenarioPool<VRPScenario>(10);
+        DecisionStatistics stats = new DecisionStatistics(1);
+        pool.addListener(stats);
+
+        // The first request of a route without customers is the return to the depot
+        int depot = mInstance.getDepotsVisits().iterator().next().getID();
+        VRPScenario scen = newScenario();
+        pool.addScenario(scen);
+        assertEquals(1, stats.getScenarioCount());
+        assertEquals(1, stats.getCount(0, depot));
+
+        scen.acquireLock();
+        setRoute(scen, 3);
+        scen.releaseLock();
+        pool.scenarioUpdated(scen);
+        assertEquals(1, stats.getCount(0, id(3)));
+        assertEquals(0, stats.getCount(0, depot));
+
+        List<VRPScenario> removed = new ArrayList<VRPScenario>(pool.getScenarios());
+        pool.removeScenarios(removed);
+        assertEquals(0, stats.getCount(0, id(3)));
+    }
+}
@@ -0,0 +1,98 @@
+package vroom.optimization.online.jmsa.vrp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import vroom.common.modeling.dataModel.INodeVisit;
+import vroom.common.modeling.util.VRPInstanceBuilder;
+import vroom.optimization.online.jmsa.MSAGlobalParameters;
+
+/**
+ * <code>MSAVRPInstanceTest</code> is a test case for the {@link MSAVRPInstance.State snapshots} published by
+ * {@link MSAVRPInstance}
+ * <p>
+ * Creation date: Oct 19, 2026 - 05:12:36 PM
+ * 
+ * @author Victor Pillac, <a href="http://uniandes.edu.co">Universidad de Los Andes</a>-<a
+ *         href="http://copa.uniandes.edu.co">Copa</a> <a href="http://www.emn.fr">Ecole des Mines de Nantes</a>-<a
+ *         href="http://www.irccyn.ec-nantes.fr/irccyn/d/en/equipes/Slp">SLP</a>
+ * @version 1.0
+ */
+public class MSAVRPInstanceTest {
+
+    private MSAVRPInstance mInstance;
+
+    @Before
+    public void setUp() throws Exception {
+        mInstance = new MSAVRPInstance(VRPInstanceBuilder.newSimpleDynamicInstance(10, 100, 10, 10, 0, false),
+                new MSAGlobalParameters());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        mInstance.getState().getPendingRequests().clear();
+    }
+
+    @Test
+    public void testState() {
+        MSAVRPInstance.State s0 = mInstance.getState();
+        assertTrue(mInstance.isCurrent(s0));
+        assertEquals(10, s0.getPendingRequests().size());
+        assertEquals(10, s0.getPendingRequestList().size());
+        assertTrue(s0.getAssignedRequests().isEmpty());
+
+        mInstance.acquireLock();
+        INodeVisit depot = mInstance.getDepotsVisits().iterator().next();
+
+        // Start of the vehicle: only the served requests and the vehicle route change
+        mInstance.setResourceStarted(0, depot);
+        MSAVRPInstance.State s1 = mInstance.getState();
+        assertFalse(mInstance.isCurrent(s0));
+        assertTrue(mInstance.isCurrent(s1));
+        assertEquals(s0.getVersion() + 1, s1.getVersion());
+        assertTrue(s1.isResourceStarted(0));
+        assertFalse(s0.isResourceStarted(0));
+        assertSame(s0.getPendingRequests(), s1.getPendingRequests());
+        assertSame(s0.getPendingRequestList(), s1.getPendingRequestList());
+        assertSame(s0.getAssignedRequests(), s1.getAssignedRequests());
+        assertNotSame(s0.getAssignedRequests(0), s1.getAssignedRequests(0));
+        assertEquals(1, s1.getAssignedRequests(0).size());
+
+        // Assignment of a request: the pending and assigned requests change
+        VRPActualRequest req = s1.getPendingRequestList().get(0);
+        assertTrue(mInstance.assignRequestToResource(req, 0));
+        MSAVRPInstance.State s2 = mInstance.getState();
+        assertNotSame(s1.getPendingRequests(), s2.getPendingRequests());
+        assertFalse(s2.getPendingRequests().contains(req));
+        assertTrue(s1.getPendingRequests().contains(req));
+        assertEquals(9, s2.getPendingRequestList().size());
+        assertTrue(s2.isRequestAssigned(req));
+        assertFalse(s1.isRequestAssigned(req));
+        assertEquals(req, s2.getLastAssignedRequest(0));
+        assertFalse(s2.isRequestServed(req));
+
+        // Service of the request: only the served requests change
+        assertTrue(mInstance.markRequestAsServed(req, 0));
+        MSAVRPInstance.State s3 = mInstance.getState();
+        assertSame(s2.getPendingRequests(), s3.getPendingRequests());
+        assertSame(s2.getAssignedRequests(), s3.getAssignedRequests());
+        assertSame(s2.getAssignedRequests(0), s3.getAssignedRequests(0));
+        assertTrue(s3.isRequestServed(req));
+        assertFalse(s2.isRequestServed(req));
+        assertTrue(s3.isRequestAssigned(req));
+        assertTrue(s3.getCurrentCost(0) > 0);
+        assertEquals(0, s2.getCurrentCost(0), 0);
+
+        // Errors do not publish a new state
+        assertFalse(mInstance.assignRequestToResource(req, 0));
+        assertTrue(mInstance.isCurrent(s3));
+
+        mInstance.releaseLock();
+    }
+}